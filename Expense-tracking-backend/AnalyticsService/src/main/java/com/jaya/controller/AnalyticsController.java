@@ -7,6 +7,7 @@ import com.jaya.dto.CategoryAnalyticsDTO;
 import com.jaya.dto.report.VisualReportRequest;
 import com.jaya.service.AnalyticsOverviewService;
 import com.jaya.service.AnalyticsEntityService;
+import com.jaya.service.AnalyticsReadModelService;
 import com.jaya.service.VisualReportService;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
@@ -36,6 +37,7 @@ public class AnalyticsController {
     private final AnalyticsOverviewService analyticsOverviewService;
     private final AnalyticsEntityService analyticsEntityService;
     private final VisualReportService visualReportService;
+    private final AnalyticsReadModelService readModelService;
 
     @GetMapping("/overview")
     public ResponseEntity<ApplicationOverviewDTO> getApplicationOverview(
@@ -43,7 +45,7 @@ public class AnalyticsController {
             @RequestParam(value = "targetId", required = false) Integer targetId) {
 
         ApplicationOverviewDTO overview = analyticsOverviewService.getOverview(jwt, targetId);
-        return ResponseEntity.ok(overview);
+        return ResponseEntity.ok().headers(readModelService.freshnessHeaders(jwt, targetId)).body(overview);
     }
 
     @PostMapping("/entity")
@@ -69,7 +71,8 @@ public class AnalyticsController {
                 .build();
 
         CategoryAnalyticsDTO analytics = analyticsEntityService.getAnalytics(jwt, normalizedRequest);
-        return ResponseEntity.ok(analytics);
+        return ResponseEntity.ok().headers(readModelService.freshnessHeaders(jwt, request.getTargetId()))
+                .body(analytics);
     }
 
     @GetMapping("/report/excel")
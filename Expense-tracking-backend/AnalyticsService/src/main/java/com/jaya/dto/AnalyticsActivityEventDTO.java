@@ -0,0 +1,42 @@
+package com.jaya.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * The fields of a unified activity event the analytics read model uses.
+ */
+@Data
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class AnalyticsActivityEventDTO {
+
+    private String eventId;
+
+    @JsonDeserialize(using = LocalDateTimeDeserializer.class)
+    private LocalDateTime timestamp;
+
+    private Integer actorUserId;
+    private Integer targetUserId;
+
+    private String entityType;
+    private Long entityId;
+    private String action;
+    private Double amount;
+
+    private Map<String, Object> oldValues;
+    private Map<String, Object> newValues;
+    private Map<String, Object> entityPayload;
+
+    private String sourceService;
+
+    public Integer getOwnerUserId() {
+        return targetUserId != null ? targetUserId : actorUserId;
+    }
+}
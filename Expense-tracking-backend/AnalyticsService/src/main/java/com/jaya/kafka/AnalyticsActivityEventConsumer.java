@@ -0,0 +1,83 @@
+package com.jaya.kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jaya.dto.AnalyticsActivityEventDTO;
+import com.jaya.service.AnalyticsReadModelService;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Feeds the analytics read model from the unified activity events of all services.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "kafka.enabled", havingValue = "true", matchIfMissing = true)
+public class AnalyticsActivityEventConsumer {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalyticsActivityEventConsumer.class);
+    private static final String LISTENER_ID = "analyticsReadModelListener";
+
+    private final AnalyticsReadModelService readModelService;
+    private final ObjectMapper objectMapper;
+
+    @KafkaListener(id = LISTENER_ID, idIsGroup = false, topics = "${kafka.topics.unified-activity-events:unified-activity-events}", containerFactory = "analyticsReadModelKafkaListenerContainerFactory")
+    public void consumeActivityEvents(List<ConsumerRecord<String, Object>> records, Acknowledgment acknowledgment) {
+        long start = System.currentTimeMillis();
+        List<AnalyticsActivityEventDTO> events = new ArrayList<>(records.size());
+
+        for (ConsumerRecord<String, Object> record : records) {
+            AnalyticsActivityEventDTO event = toEvent(record);
+            if (event != null) {
+                events.add(event);
+            }
+        }
+
+        try {
+            int applied = events.isEmpty() ? 0 : readModelService.apply(events);
+            acknowledgment.acknowledge();
+            log.debug("Applied {} of {} activity events to the analytics read model (offsets {}-{}) in {} ms",
+                    applied, records.size(), records.get(0).offset(), records.get(records.size() - 1).offset(),
+                    System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            // Not acknowledged: the error handler re-seeks and the batch is redelivered
+            log.error("Error applying batch of {} activity events to the analytics read model: {}",
+                    events.size(), e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    @EventListener
+    public void onIdle(ListenerContainerIdleEvent event) {
+        if (event.getListenerId() != null && event.getListenerId().startsWith(LISTENER_ID)) {
+            readModelService.recordCaughtUp();
+        }
+    }
+
+    private AnalyticsActivityEventDTO toEvent(ConsumerRecord<String, Object> record) {
+        Object payload = record.value();
+        try {
+            if (payload instanceof Map) {
+                return objectMapper.convertValue(payload, AnalyticsActivityEventDTO.class);
+            } else if (payload instanceof String) {
+                return objectMapper.readValue((String) payload, AnalyticsActivityEventDTO.class);
+            }
+            log.warn("Unknown activity event payload type at offset {}: {}", record.offset(),
+                    payload != null ? payload.getClass().getName() : "null");
+        } catch (Exception e) {
+            log.warn("Error converting activity event at offset {}: {}", record.offset(), e.getMessage());
+        }
+        return null;
+    }
+}
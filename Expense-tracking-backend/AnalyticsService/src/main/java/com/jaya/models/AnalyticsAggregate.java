@@ -0,0 +1,64 @@
+package com.jaya.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Expense totals per user, day or month, and one dimension value: a category id, a payment
+ * method name or a budget id. Every expense is counted once per dimension (once per linked
+ * budget), so summing PAYMENT_METHOD rows gives a user's overall totals.
+ */
+@Entity
+@Table(name = "analytics_aggregates", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_aggregate_bucket", columnNames = { "user_id", "dimension", "dimension_key",
+                "granularity", "period_start" })
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsAggregate {
+
+    public static final String DAY = "DAY";
+    public static final String MONTH = "MONTH";
+
+    public static final String CATEGORY = "CATEGORY";
+    public static final String PAYMENT_METHOD = "PAYMENT_METHOD";
+    public static final String BUDGET = "BUDGET";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Integer userId;
+
+    @Column(name = "dimension", length = 20, nullable = false)
+    private String dimension;
+
+    @Column(name = "dimension_key", length = 100, nullable = false)
+    private String dimensionKey;
+
+    @Column(name = "granularity", length = 10, nullable = false)
+    private String granularity;
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Column(name = "loss_amount", nullable = false)
+    private double lossAmount;
+
+    @Column(name = "gain_amount", nullable = false)
+    private double gainAmount;
+
+    @Column(name = "total_amount", nullable = false)
+    private double totalAmount;
+
+    @Column(name = "entry_count", nullable = false)
+    private long entryCount;
+}
@@ -0,0 +1,57 @@
+package com.jaya.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Local copy of one bill, maintained from bill events like {@link AnalyticsExpenseFact}.
+ * Bills also create expenses, so they are not added to the aggregates a second time.
+ */
+@Entity
+@Table(name = "analytics_bill_facts", indexes = {
+        @Index(name = "idx_abf_user_date", columnList = "userId, billDate")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsBillFact {
+
+    @Id
+    private Integer billId;
+
+    @Column(nullable = false)
+    private Integer userId;
+
+    private String name;
+
+    @Column(length = 1000)
+    private String description;
+
+    private double amount;
+
+    private double netAmount;
+
+    private String category;
+
+    @Column(length = 100)
+    private String paymentMethod;
+
+    @Column(length = 20)
+    private String type;
+
+    private LocalDate billDate;
+
+    private boolean includeInBudget;
+
+    private boolean deleted;
+
+    @Column(nullable = false)
+    private LocalDateTime sourceTimestamp;
+}
@@ -0,0 +1,47 @@
+package com.jaya.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Local copy of one budget, maintained from budget events. Spending against a budget comes
+ * from the BUDGET aggregates, not from the remaining amount carried by the event.
+ */
+@Entity
+@Table(name = "analytics_budget_facts", indexes = {
+        @Index(name = "idx_abgf_user", columnList = "userId")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsBudgetFact {
+
+    @Id
+    private Integer budgetId;
+
+    @Column(nullable = false)
+    private Integer userId;
+
+    private String name;
+
+    @Column(length = 1000)
+    private String description;
+
+    private double amount;
+
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+
+    private boolean deleted;
+
+    @Column(nullable = false)
+    private LocalDateTime sourceTimestamp;
+}
@@ -0,0 +1,46 @@
+package com.jaya.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Display metadata for a user's categories and payment methods, captured from the snapshot so
+ * entity analytics can label results and map a payment method id to the name expenses carry.
+ */
+@Entity
+@Table(name = "analytics_dimensions", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_dimension_entity", columnNames = { "user_id", "dimension", "entity_id" })
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsDimension {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Integer userId;
+
+    @Column(name = "dimension", length = 20, nullable = false)
+    private String dimension;
+
+    @Column(name = "entity_id", nullable = false)
+    private Integer entityId;
+
+    private String name;
+
+    private String icon;
+
+    private String color;
+
+    @Column(length = 1000)
+    private String description;
+
+    private String type;
+}
@@ -0,0 +1,64 @@
+package com.jaya.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Local copy of one expense as last seen in an expense event or snapshot. Kept so an update or
+ * delete can take the previous values out of the aggregates, and so entity analytics can list
+ * transactions without calling Expense-Service.
+ *
+ * Deleted expenses stay as tombstones until purged, so a replayed older event cannot bring them
+ * back; {@code sourceTimestamp} is the time of the event or snapshot that wrote the row.
+ */
+@Entity
+@Table(name = "analytics_expense_facts", indexes = {
+        @Index(name = "idx_aef_user_date", columnList = "userId, expenseDate"),
+        @Index(name = "idx_aef_user_category_date", columnList = "userId, categoryId, expenseDate")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsExpenseFact {
+
+    @Id
+    private Integer expenseId;
+
+    @Column(nullable = false)
+    private Integer userId;
+
+    private LocalDate expenseDate;
+
+    private double amount;
+
+    @Column(length = 20)
+    private String type;
+
+    @Column(length = 100)
+    private String paymentMethod;
+
+    private Integer categoryId;
+
+    private String categoryName;
+
+    private String expenseName;
+
+    @Column(length = 1000)
+    private String comments;
+
+    // Comma-separated budget ids
+    @Column(length = 1000)
+    private String budgetIds;
+
+    private boolean deleted;
+
+    @Column(nullable = false)
+    private LocalDateTime sourceTimestamp;
+}
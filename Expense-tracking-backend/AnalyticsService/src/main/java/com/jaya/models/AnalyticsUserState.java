@@ -0,0 +1,43 @@
+package com.jaya.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model bookkeeping per user: when the last snapshot was merged, whether an event the
+ * model cannot apply (such as a bulk change without per-expense payloads) requires a new one,
+ * and the friendship and group counters shown on the overview, which are not event-sourced.
+ */
+@Entity
+@Table(name = "analytics_user_state")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsUserState {
+
+    @Id
+    private Integer userId;
+
+    private LocalDateTime snapshotAt;
+
+    // Set when an event could not be applied; a snapshot taken after this time clears it
+    private LocalDateTime snapshotRequestedAt;
+
+    private int friendsCount;
+
+    private int pendingFriendRequests;
+
+    private int totalGroups;
+
+    private int groupsCreated;
+
+    private int groupsMember;
+
+    private LocalDateTime socialRefreshedAt;
+}
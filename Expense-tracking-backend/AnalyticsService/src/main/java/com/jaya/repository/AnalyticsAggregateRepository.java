@@ -0,0 +1,58 @@
+package com.jaya.repository;
+
+import com.jaya.models.AnalyticsAggregate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface AnalyticsAggregateRepository extends JpaRepository<AnalyticsAggregate, Long> {
+
+        @Modifying
+        @Query(value = "INSERT INTO analytics_aggregates " +
+                        "(user_id, dimension, dimension_key, granularity, period_start, loss_amount, gain_amount, " +
+                        "total_amount, entry_count) " +
+                        "VALUES (:userId, :dimension, :dimensionKey, :granularity, :periodStart, :loss, :gain, :total, :entries) " +
+                        "ON DUPLICATE KEY UPDATE loss_amount = loss_amount + VALUES(loss_amount), " +
+                        "gain_amount = gain_amount + VALUES(gain_amount), " +
+                        "total_amount = total_amount + VALUES(total_amount), " +
+                        "entry_count = entry_count + VALUES(entry_count)", nativeQuery = true)
+        int increment(@Param("userId") Integer userId, @Param("dimension") String dimension,
+                        @Param("dimensionKey") String dimensionKey, @Param("granularity") String granularity,
+                        @Param("periodStart") LocalDate periodStart, @Param("loss") double loss,
+                        @Param("gain") double gain, @Param("total") double total, @Param("entries") long entries);
+
+        @Modifying
+        @Query("DELETE FROM AnalyticsAggregate a WHERE a.userId = :userId")
+        int deleteByUser(@Param("userId") Integer userId);
+
+        /**
+         * Daily rows of one dimension from {@code from} on, as
+         * {@code [dimensionKey, periodStart, loss, gain, total]}.
+         */
+        @Query("SELECT a.dimensionKey, a.periodStart, a.lossAmount, a.gainAmount, a.totalAmount " +
+                        "FROM AnalyticsAggregate a WHERE a.userId = :userId AND a.dimension = :dimension " +
+                        "AND a.granularity = 'DAY' AND a.periodStart >= :from")
+        List<Object[]> findDailyFrom(@Param("userId") Integer userId, @Param("dimension") String dimension,
+                        @Param("from") LocalDate from);
+
+        /**
+         * All-time totals per value of one dimension, read from the monthly rows, as
+         * {@code [dimensionKey, loss, gain, total, entries]}.
+         */
+        @Query("SELECT a.dimensionKey, SUM(a.lossAmount), SUM(a.gainAmount), SUM(a.totalAmount), SUM(a.entryCount) " +
+                        "FROM AnalyticsAggregate a WHERE a.userId = :userId AND a.dimension = :dimension " +
+                        "AND a.granularity = 'MONTH' GROUP BY a.dimensionKey")
+        List<Object[]> sumAllTimeByKey(@Param("userId") Integer userId, @Param("dimension") String dimension);
+
+        @Query("SELECT COALESCE(SUM(a.lossAmount), 0) FROM AnalyticsAggregate a WHERE a.userId = :userId " +
+                        "AND a.dimension = 'PAYMENT_METHOD' AND a.granularity = 'DAY' " +
+                        "AND a.periodStart BETWEEN :from AND :to")
+        Double sumLossesBetween(@Param("userId") Integer userId, @Param("from") LocalDate from,
+                        @Param("to") LocalDate to);
+}
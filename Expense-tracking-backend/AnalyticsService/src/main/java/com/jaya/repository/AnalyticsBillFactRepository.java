@@ -0,0 +1,24 @@
+package com.jaya.repository;
+
+import com.jaya.models.AnalyticsBillFact;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AnalyticsBillFactRepository extends JpaRepository<AnalyticsBillFact, Integer> {
+
+        List<AnalyticsBillFact> findByUserId(Integer userId);
+
+        Optional<AnalyticsBillFact> findByBillIdAndUserIdAndDeletedFalse(Integer billId, Integer userId);
+
+        @Modifying
+        @Query("DELETE FROM AnalyticsBillFact f WHERE f.deleted = true AND f.sourceTimestamp < :before")
+        int purgeTombstones(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,25 @@
+package com.jaya.repository;
+
+import com.jaya.models.AnalyticsBudgetFact;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AnalyticsBudgetFactRepository extends JpaRepository<AnalyticsBudgetFact, Integer> {
+
+        List<AnalyticsBudgetFact> findByUserId(Integer userId);
+
+        List<AnalyticsBudgetFact> findByUserIdAndDeletedFalse(Integer userId);
+
+        long countByUserIdAndDeletedFalse(Integer userId);
+
+        @Modifying
+        @Query("DELETE FROM AnalyticsBudgetFact f WHERE f.deleted = true AND f.sourceTimestamp < :before")
+        int purgeTombstones(@Param("before") LocalDateTime before);
+}
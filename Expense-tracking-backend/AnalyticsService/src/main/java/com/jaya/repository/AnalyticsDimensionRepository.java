@@ -0,0 +1,21 @@
+package com.jaya.repository;
+
+import com.jaya.models.AnalyticsDimension;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface AnalyticsDimensionRepository extends JpaRepository<AnalyticsDimension, Long> {
+
+        Optional<AnalyticsDimension> findByUserIdAndDimensionAndEntityId(Integer userId, String dimension,
+                        Integer entityId);
+
+        @Modifying
+        @Query("DELETE FROM AnalyticsDimension d WHERE d.userId = :userId")
+        int deleteByUser(@Param("userId") Integer userId);
+}
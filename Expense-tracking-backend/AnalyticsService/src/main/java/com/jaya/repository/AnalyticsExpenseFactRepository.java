@@ -0,0 +1,57 @@
+package com.jaya.repository;
+
+import com.jaya.models.AnalyticsExpenseFact;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AnalyticsExpenseFactRepository extends JpaRepository<AnalyticsExpenseFact, Integer> {
+
+        List<AnalyticsExpenseFact> findByUserId(Integer userId);
+
+        List<AnalyticsExpenseFact> findByUserIdAndDeletedFalse(Integer userId);
+
+        @Query("SELECT f FROM AnalyticsExpenseFact f WHERE f.userId = :userId AND f.categoryId = :categoryId " +
+                        "AND f.expenseDate BETWEEN :from AND :to AND f.type = :type AND f.deleted = false")
+        List<AnalyticsExpenseFact> findByCategoryBetween(@Param("userId") Integer userId,
+                        @Param("categoryId") Integer categoryId, @Param("from") LocalDate from,
+                        @Param("to") LocalDate to, @Param("type") String type);
+
+        @Query("SELECT f FROM AnalyticsExpenseFact f WHERE f.userId = :userId AND f.paymentMethod = :paymentMethod " +
+                        "AND f.expenseDate BETWEEN :from AND :to AND f.type = :type AND f.deleted = false")
+        List<AnalyticsExpenseFact> findByPaymentMethodBetween(@Param("userId") Integer userId,
+                        @Param("paymentMethod") String paymentMethod, @Param("from") LocalDate from,
+                        @Param("to") LocalDate to, @Param("type") String type);
+
+        @Query("SELECT COALESCE(SUM(f.amount), 0) FROM AnalyticsExpenseFact f WHERE f.userId = :userId " +
+                        "AND f.expenseDate BETWEEN :from AND :to AND f.type = 'loss' AND f.deleted = false " +
+                        "AND LOWER(TRIM(f.categoryName)) = :categoryName")
+        Double sumLossesByCategoryNameBetween(@Param("userId") Integer userId,
+                        @Param("categoryName") String categoryName, @Param("from") LocalDate from,
+                        @Param("to") LocalDate to);
+
+        /**
+         * Loss totals per expense name in [from, to], as {@code [name, amount, lastDate, count]},
+         * largest first.
+         */
+        @Query("SELECT COALESCE(TRIM(f.expenseName), 'Unknown'), SUM(f.amount), MAX(f.expenseDate), COUNT(f) " +
+                        "FROM AnalyticsExpenseFact f WHERE f.userId = :userId AND f.expenseDate BETWEEN :from AND :to " +
+                        "AND f.type = 'loss' AND f.deleted = false " +
+                        "AND (f.paymentMethod IS NULL OR f.paymentMethod <> :excludedPaymentMethod) " +
+                        "GROUP BY COALESCE(TRIM(f.expenseName), 'Unknown') ORDER BY SUM(f.amount) DESC")
+        List<Object[]> findTopLossesBetween(@Param("userId") Integer userId, @Param("from") LocalDate from,
+                        @Param("to") LocalDate to, @Param("excludedPaymentMethod") String excludedPaymentMethod,
+                        Pageable pageable);
+
+        @Modifying
+        @Query("DELETE FROM AnalyticsExpenseFact f WHERE f.deleted = true AND f.sourceTimestamp < :before")
+        int purgeTombstones(@Param("before") LocalDateTime before);
+}
@@ -2,6 +2,7 @@ package com.jaya.service;
 
 import com.jaya.dto.ApplicationOverviewDTO;
 import com.jaya.dto.TopExpenseDTO;
+import com.jaya.models.AnalyticsUserState;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,18 +21,20 @@ public class AnalyticsOverviewService {
     private final BudgetAnalyticsClient budgetAnalyticsClient;
     private final FriendshipAnalyticsClient friendshipAnalyticsClient;
     private final GroupAnalyticsClient groupAnalyticsClient;
+    private final AnalyticsReadModelService readModelService;
+    private final AnalyticsReadModelQueryService readModelQueryService;
 
     public ApplicationOverviewDTO getOverview(String jwt, Integer targetId) {
-        Map<String, Object> summary = expenseService.getExpenseSummary(jwt, targetId);
+        Integer localUserId = readModelService.resolveLocalUser(jwt, targetId);
+        if (localUserId != null) {
+            try {
+                return getLocalOverview(localUserId);
+            } catch (Exception ex) {
+                log.warn("Failed to build analytics overview from the read model, using live data", ex);
+            }
+        }
 
-        double totalExpenses = extractDouble(summary, "currentMonthLosses");
-        double todayExpenses = extractDouble(summary, "todayExpenses");
-        double totalCreditDue = extractDouble(summary, "totalCreditDue");
-        double remainingBudget = extractDouble(summary, "remainingBudget");
-        double avgDailySpendLast30Days = extractDouble(summary, "avgDailySpendLast30Days");
-        double savingsRateLast30Days = extractDouble(summary, "savingsRateLast30Days");
-        double upcomingBillsAmount = extractDouble(summary, "upcomingBillsAmount");
-        List<TopExpenseDTO> topExpenses = extractTopExpenses(summary.get("topExpenses"));
+        Map<String, Object> summary = expenseService.getExpenseSummary(jwt, targetId);
 
         int totalBudgets = 0;
         int activeBudgets = 0;
@@ -74,6 +77,34 @@ public class AnalyticsOverviewService {
             log.warn("Failed to fetch group stats for analytics overview", ex);
         }
 
+        return buildOverview(summary, totalBudgets, activeBudgets, totalGroups, groupsCreated, groupsMember,
+                friendsCount, pendingFriendRequests);
+    }
+
+    /**
+     * The overview of the caller from the read model; friendship and group counts are the
+     * values last fetched for the user.
+     */
+    private ApplicationOverviewDTO getLocalOverview(Integer userId) {
+        Map<String, Object> summary = readModelQueryService.expenseSummary(userId);
+        int totalBudgets = (int) readModelQueryService.countBudgets(userId);
+        AnalyticsUserState state = readModelService.getUserState(userId)
+                .orElseGet(() -> AnalyticsUserState.builder().userId(userId).build());
+        return buildOverview(summary, totalBudgets, totalBudgets, state.getTotalGroups(), state.getGroupsCreated(),
+                state.getGroupsMember(), state.getFriendsCount(), state.getPendingFriendRequests());
+    }
+
+    private ApplicationOverviewDTO buildOverview(Map<String, Object> summary, int totalBudgets, int activeBudgets,
+            int totalGroups, int groupsCreated, int groupsMember, int friendsCount, int pendingFriendRequests) {
+        double totalExpenses = extractDouble(summary, "currentMonthLosses");
+        double todayExpenses = extractDouble(summary, "todayExpenses");
+        double totalCreditDue = extractDouble(summary, "totalCreditDue");
+        double remainingBudget = extractDouble(summary, "remainingBudget");
+        double avgDailySpendLast30Days = extractDouble(summary, "avgDailySpendLast30Days");
+        double savingsRateLast30Days = extractDouble(summary, "savingsRateLast30Days");
+        double upcomingBillsAmount = extractDouble(summary, "upcomingBillsAmount");
+        List<TopExpenseDTO> topExpenses = extractTopExpenses(summary.get("topExpenses"));
+
         log.debug(
                 "Building ApplicationOverviewDTO: totalExpenses={}, todayExpenses={}, totalCreditDue={}, remainingBudget={}, avgDailySpendLast30Days={}, savingsRateLast30Days={}, upcomingBillsAmount={}, totalBudgets={}, activeBudgets={}, totalGroups={}, groupsCreated={}, groupsMember={}, friendsCount={}, pendingFriendRequests={}",
                 totalExpenses, todayExpenses, totalCreditDue, remainingBudget,
@@ -0,0 +1,296 @@
+package com.jaya.service;
+
+import com.jaya.models.AnalyticsAggregate;
+import com.jaya.models.AnalyticsBudgetFact;
+import com.jaya.models.AnalyticsDimension;
+import com.jaya.models.AnalyticsExpenseFact;
+import com.jaya.repository.AnalyticsAggregateRepository;
+import com.jaya.repository.AnalyticsBillFactRepository;
+import com.jaya.repository.AnalyticsBudgetFactRepository;
+import com.jaya.repository.AnalyticsDimensionRepository;
+import com.jaya.repository.AnalyticsExpenseFactRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Reads analytics inputs from the local read model, in the shapes the owning services return
+ * them so the existing analytics builders can consume either source.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class AnalyticsReadModelQueryService {
+
+    private static final String CASH = "cash";
+    private static final String CREDIT_NEED_TO_PAID = "creditNeedToPaid";
+    private static final String CREDIT_PAID = "creditPaid";
+    private static final String LOSS = "loss";
+    private static final int TOP_EXPENSES = 4;
+    private static final LocalDate OPEN_START = LocalDate.of(1000, 1, 1);
+    private static final LocalDate OPEN_END = LocalDate.of(9999, 12, 31);
+
+    private final AnalyticsExpenseFactRepository expenseFactRepository;
+    private final AnalyticsBillFactRepository billFactRepository;
+    private final AnalyticsBudgetFactRepository budgetFactRepository;
+    private final AnalyticsAggregateRepository aggregateRepository;
+    private final AnalyticsDimensionRepository dimensionRepository;
+
+    /**
+     * Expense data of one category or payment method plus the inputs shared by the analytics
+     * builders: {@code summary.totalAmount} and the user's budgets with their spent amounts.
+     */
+    public record EntityData(Map<String, Object> entityData, Map<String, Object> summaryData,
+            List<Map<String, Object>> budgets) {
+    }
+
+    /**
+     * The fields of the Expense-Service summary used by the overview, computed from the
+     * payment method aggregates with the same rules.
+     */
+    public Map<String, Object> expenseSummary(Integer userId) {
+        LocalDate today = LocalDate.now();
+        LocalDate last30Start = today.minusDays(29);
+        LocalDate periodStart = today.minusMonths(1).withDayOfMonth(17);
+        LocalDate periodEnd = today.withDayOfMonth(16);
+
+        double totalGains = 0;
+        double totalLosses = 0;
+        double totalCreditDue = 0;
+        double totalCreditPaid = 0;
+        for (Object[] row : aggregateRepository.sumAllTimeByKey(userId, AnalyticsAggregate.PAYMENT_METHOD)) {
+            String paymentMethod = (String) row[0];
+            double loss = toDouble(row[1]);
+            double total = toDouble(row[3]);
+            if (CASH.equals(paymentMethod)) {
+                totalGains += toDouble(row[2]);
+            }
+            if (CASH.equalsIgnoreCase(paymentMethod)) {
+                totalLosses += loss;
+            }
+            if (CREDIT_NEED_TO_PAID.equalsIgnoreCase(paymentMethod)) {
+                totalCreditDue += total;
+            } else if (CREDIT_PAID.equalsIgnoreCase(paymentMethod)) {
+                totalCreditDue -= total;
+                totalCreditPaid += total;
+            }
+        }
+
+        double todayExpenses = 0;
+        double currentMonthLosses = 0;
+        double last30DaysLosses = 0;
+        double creditDueCurrentPeriod = 0;
+        double creditPaidAfterPeriod = 0;
+        LocalDate from = periodStart.isBefore(last30Start) ? periodStart : last30Start;
+        for (Object[] row : aggregateRepository.findDailyFrom(userId, AnalyticsAggregate.PAYMENT_METHOD, from)) {
+            String paymentMethod = (String) row[0];
+            LocalDate day = (LocalDate) row[1];
+            double loss = toDouble(row[2]);
+            double total = toDouble(row[4]);
+            boolean inPeriod = !day.isBefore(periodStart) && !day.isAfter(periodEnd);
+            if (day.isEqual(today)) {
+                todayExpenses += loss;
+            }
+            if (!day.isBefore(last30Start) && !day.isAfter(today)) {
+                last30DaysLosses += loss;
+            }
+            if (inPeriod && CASH.equalsIgnoreCase(paymentMethod)) {
+                currentMonthLosses += loss;
+            }
+            if (CREDIT_NEED_TO_PAID.equalsIgnoreCase(paymentMethod) && inPeriod) {
+                creditDueCurrentPeriod += total;
+            } else if (CREDIT_PAID.equalsIgnoreCase(paymentMethod)) {
+                if (inPeriod) {
+                    creditDueCurrentPeriod -= total;
+                } else if (day.isAfter(periodEnd)) {
+                    creditPaidAfterPeriod += total;
+                }
+            }
+        }
+
+        double avgDailySpendLast30Days = 0;
+        double savingsRateLast30Days = 0;
+        if (last30DaysLosses > 0) {
+            Double savings = expenseFactRepository.sumLossesByCategoryNameBetween(userId, "investment",
+                    last30Start, today);
+            avgDailySpendLast30Days = last30DaysLosses / 30.0;
+            savingsRateLast30Days = (savings != null ? savings : 0) / last30DaysLosses * 100.0;
+        }
+
+        double upcomingBillsAmount = today.isBefore(periodEnd.plusDays(1))
+                ? creditDueCurrentPeriod
+                : Math.max(creditDueCurrentPeriod - creditPaidAfterPeriod, 0.0);
+
+        List<Map<String, Object>> topExpenses = new ArrayList<>();
+        for (Object[] row : expenseFactRepository.findTopLossesBetween(userId, last30Start, today, CREDIT_PAID,
+                PageRequest.of(0, TOP_EXPENSES))) {
+            Map<String, Object> top = new HashMap<>();
+            top.put("name", row[0]);
+            top.put("amount", toDouble(row[1]));
+            top.put("date", row[2] != null ? row[2].toString() : null);
+            top.put("count", ((Number) row[3]).intValue());
+            topExpenses.add(top);
+        }
+
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("totalGains", totalGains);
+        summary.put("totalLosses", totalLosses);
+        summary.put("totalCreditDue", totalCreditDue);
+        summary.put("totalCreditPaid", totalCreditPaid);
+        summary.put("todayExpenses", todayExpenses);
+        summary.put("remainingBudget", totalGains - totalLosses - totalCreditPaid);
+        summary.put("currentMonthLosses", currentMonthLosses);
+        summary.put("last30DaysTotalLosses", last30DaysLosses);
+        summary.put("avgDailySpendLast30Days", avgDailySpendLast30Days);
+        summary.put("savingsRateLast30Days", savingsRateLast30Days);
+        summary.put("upcomingBillsAmount", upcomingBillsAmount);
+        summary.put("topExpenses", topExpenses);
+        return summary;
+    }
+
+    public long countBudgets(Integer userId) {
+        return budgetFactRepository.countByUserIdAndDeletedFalse(userId);
+    }
+
+    /**
+     * Outflow expenses of a category in the range, or {@code null} when the category is not
+     * known locally.
+     */
+    public EntityData categoryData(Integer userId, Integer categoryId, LocalDate startDate, LocalDate endDate) {
+        LocalDate from = startDate != null ? startDate : OPEN_START;
+        LocalDate to = endDate != null ? endDate : OPEN_END;
+        List<AnalyticsExpenseFact> facts = expenseFactRepository.findByCategoryBetween(userId, categoryId, from, to,
+                LOSS);
+        Optional<AnalyticsDimension> category = dimensionRepository.findByUserIdAndDimensionAndEntityId(userId,
+                AnalyticsAggregate.CATEGORY, categoryId);
+        if (category.isEmpty() && facts.isEmpty()) {
+            return null;
+        }
+        Map<String, Object> entity = category.map(this::toEntity).orElseGet(() -> {
+            Map<String, Object> fromFacts = new HashMap<>();
+            fromFacts.put("id", categoryId);
+            fromFacts.put("name", facts.get(0).getCategoryName());
+            return fromFacts;
+        });
+        return entityData(userId, entity, facts, from, to);
+    }
+
+    /**
+     * Outflow expenses of a payment method in the range, or {@code null} when the payment
+     * method is not known locally.
+     */
+    public EntityData paymentMethodData(Integer userId, Integer paymentMethodId, LocalDate startDate,
+            LocalDate endDate) {
+        Optional<AnalyticsDimension> paymentMethod = dimensionRepository.findByUserIdAndDimensionAndEntityId(userId,
+                AnalyticsAggregate.PAYMENT_METHOD, paymentMethodId);
+        if (paymentMethod.isEmpty() || paymentMethod.get().getName() == null) {
+            return null;
+        }
+        LocalDate from = startDate != null ? startDate : OPEN_START;
+        LocalDate to = endDate != null ? endDate : OPEN_END;
+        List<AnalyticsExpenseFact> facts = expenseFactRepository.findByPaymentMethodBetween(userId,
+                paymentMethod.get().getName(), from, to, LOSS);
+        return entityData(userId, toEntity(paymentMethod.get()), facts, from, to);
+    }
+
+    /**
+     * A bill in the shape returned by Bill-Service, or {@code null} when it is not known locally.
+     */
+    public Map<String, Object> bill(Integer userId, Integer billId) {
+        return billFactRepository.findByBillIdAndUserIdAndDeletedFalse(billId, userId).map(fact -> {
+            Map<String, Object> bill = new HashMap<>();
+            bill.put("id", fact.getBillId());
+            bill.put("name", fact.getName());
+            bill.put("description", fact.getDescription());
+            bill.put("amount", fact.getAmount());
+            bill.put("netAmount", fact.getNetAmount());
+            bill.put("category", fact.getCategory());
+            bill.put("paymentMethod", fact.getPaymentMethod());
+            bill.put("type", fact.getType());
+            bill.put("date", fact.getBillDate() != null ? fact.getBillDate().toString() : null);
+            bill.put("includeInBudget", fact.isIncludeInBudget());
+            return bill;
+        }).orElse(null);
+    }
+
+    public Map<String, Object> outflowSummary(Integer userId, LocalDate startDate, LocalDate endDate) {
+        Double total = aggregateRepository.sumLossesBetween(userId, startDate != null ? startDate : OPEN_START,
+                endDate != null ? endDate : OPEN_END);
+        return Map.of("totalAmount", total != null ? total : 0.0);
+    }
+
+    public List<Map<String, Object>> budgets(Integer userId) {
+        Map<String, Double> spentByBudget = new HashMap<>();
+        for (Object[] row : aggregateRepository.sumAllTimeByKey(userId, AnalyticsAggregate.BUDGET)) {
+            spentByBudget.put((String) row[0], toDouble(row[1]));
+        }
+        List<Map<String, Object>> budgets = new ArrayList<>();
+        for (AnalyticsBudgetFact fact : budgetFactRepository.findByUserIdAndDeletedFalse(userId)) {
+            Map<String, Object> budget = new HashMap<>();
+            budget.put("id", fact.getBudgetId());
+            budget.put("name", fact.getName());
+            budget.put("description", fact.getDescription());
+            budget.put("amount", fact.getAmount());
+            budget.put("startDate", fact.getStartDate() != null ? fact.getStartDate().toString() : null);
+            budget.put("endDate", fact.getEndDate() != null ? fact.getEndDate().toString() : null);
+            budget.put("totalAmount", fact.getAmount());
+            budget.put("spentAmount", spentByBudget.getOrDefault(fact.getBudgetId().toString(), 0.0));
+            budgets.add(budget);
+        }
+        return budgets;
+    }
+
+    private EntityData entityData(Integer userId, Map<String, Object> entity, List<AnalyticsExpenseFact> facts,
+            LocalDate from, LocalDate to) {
+        List<Map<String, Object>> expenses = new ArrayList<>(facts.size());
+        double totalAmount = 0;
+        for (AnalyticsExpenseFact fact : facts) {
+            expenses.add(toExpenseWrapper(fact));
+            totalAmount += fact.getAmount();
+        }
+        entity.put("totalAmount", totalAmount);
+        entity.put("expenseCount", expenses.size());
+        entity.put("expenses", expenses);
+        return new EntityData(entity, outflowSummary(userId, from, to), budgets(userId));
+    }
+
+    private Map<String, Object> toEntity(AnalyticsDimension dimension) {
+        Map<String, Object> entity = new HashMap<>();
+        entity.put("id", dimension.getEntityId());
+        entity.put("name", dimension.getName());
+        entity.put("icon", dimension.getIcon());
+        entity.put("color", dimension.getColor());
+        entity.put("description", dimension.getDescription());
+        entity.put("type", dimension.getType());
+        return entity;
+    }
+
+    private static Map<String, Object> toExpenseWrapper(AnalyticsExpenseFact fact) {
+        String date = fact.getExpenseDate().toString();
+        Map<String, Object> details = new HashMap<>();
+        details.put("id", fact.getExpenseId());
+        details.put("expenseName", fact.getExpenseName());
+        details.put("amount", fact.getAmount());
+        details.put("type", fact.getType());
+        details.put("paymentMethod", fact.getPaymentMethod());
+        details.put("comments", fact.getComments());
+        details.put("date", date);
+
+        Map<String, Object> wrapper = new HashMap<>();
+        wrapper.put("id", fact.getExpenseId());
+        wrapper.put("date", date);
+        wrapper.put("categoryId", fact.getCategoryId());
+        wrapper.put("categoryName", fact.getCategoryName());
+        wrapper.put("budgetIds", AnalyticsReadModelStore.parseIds(fact.getBudgetIds()));
+        wrapper.put("expense", details);
+        return wrapper;
+    }
+
+    private static double toDouble(Object value) {
+        return value instanceof Number number ? number.doubleValue() : 0.0;
+    }
+}
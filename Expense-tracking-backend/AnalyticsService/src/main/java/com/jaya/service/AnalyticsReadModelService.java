@@ -0,0 +1,414 @@
+package com.jaya.service;
+
+import com.jaya.common.dto.UserDTO;
+import com.jaya.common.service.client.IUserServiceClient;
+import com.jaya.dto.AnalyticsActivityEventDTO;
+import com.jaya.models.AnalyticsAggregate;
+import com.jaya.models.AnalyticsBillFact;
+import com.jaya.models.AnalyticsBudgetFact;
+import com.jaya.models.AnalyticsDimension;
+import com.jaya.models.AnalyticsExpenseFact;
+import com.jaya.models.AnalyticsUserState;
+import com.jaya.repository.AnalyticsUserStateRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Entry point of the analytics read model.
+ *
+ * The model is fed by the unified activity events of Expense, Bill and Budget services. Data
+ * older than the event history is loaded once per user by a snapshot through the existing Feign
+ * clients, taken on the user's first dashboard load and again when an event could not be applied
+ * or {@code analytics.read-model.resnapshot-interval-hours} has passed (the latter in the
+ * background). After that, own-user analytics read only local tables; requests for another
+ * user's data ({@code targetId}) keep going to the owning services, which check access.
+ *
+ * Writes from the consumer and from snapshots are serialized by one lock so a snapshot merge
+ * never interleaves with an aggregate update.
+ */
+@Service
+@RequiredArgsConstructor
+public class AnalyticsReadModelService {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalyticsReadModelService.class);
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final int MAX_CACHED_TOKENS = 10_000;
+
+    public static final String HEADER_SOURCE = "X-Analytics-Source";
+    public static final String HEADER_AS_OF = "X-Analytics-As-Of";
+    public static final String HEADER_STALENESS = "X-Analytics-Staleness-Ms";
+
+    private final AnalyticsReadModelStore store;
+    private final AnalyticsUserStateRepository userStateRepository;
+    private final IUserServiceClient userServiceClient;
+    private final AnalyticsExpenseClient expenseClient;
+    private final BillAnalyticsClient billClient;
+    private final BudgetClient budgetClient;
+    private final FriendshipAnalyticsClient friendshipClient;
+    private final GroupAnalyticsClient groupClient;
+
+    @Value("${analytics.read-model.enabled:true}")
+    private boolean enabled;
+
+    @Value("${kafka.enabled:true}")
+    private boolean kafkaEnabled;
+
+    @Value("${analytics.read-model.resnapshot-interval-hours:24}")
+    private long resnapshotIntervalHours;
+
+    @Value("${analytics.read-model.social-refresh-ms:300000}")
+    private long socialRefreshMs;
+
+    @Value("${analytics.read-model.user-cache-ttl-ms:600000}")
+    private long userCacheTtlMs;
+
+    @Value("${analytics.read-model.snapshot-from:2000-01-01}")
+    private String snapshotFrom;
+
+    @Value("${analytics.read-model.tombstone-retention-days:8}")
+    private long tombstoneRetentionDays;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ExecutorService snapshotExecutor = Executors.newFixedThreadPool(2);
+    private final Map<Integer, CompletableFuture<Void>> snapshotsInFlight = new ConcurrentHashMap<>();
+    private final Map<Integer, Boolean> socialRefreshInFlight = new ConcurrentHashMap<>();
+    private final Map<String, CachedUser> usersByToken = new ConcurrentHashMap<>();
+
+    // Every event produced before this instant has been applied
+    private volatile LocalDateTime consumerAsOf;
+
+    private record CachedUser(Integer userId, long expiresAt) {
+    }
+
+    // ---------------------------------------------------------------- consumer side
+
+    public int apply(List<AnalyticsActivityEventDTO> events) {
+        writeLock.lock();
+        try {
+            int applied = store.applyEvents(events);
+            events.stream().map(AnalyticsActivityEventDTO::getTimestamp).filter(Objects::nonNull)
+                    .max(Comparator.naturalOrder()).ifPresent(this::advanceConsumerAsOf);
+            return applied;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Called when the consumer has no more records to read.
+     */
+    public void recordCaughtUp() {
+        advanceConsumerAsOf(LocalDateTime.now());
+    }
+
+    private synchronized void advanceConsumerAsOf(LocalDateTime asOf) {
+        if (consumerAsOf == null || asOf.isAfter(consumerAsOf)) {
+            consumerAsOf = asOf;
+        }
+    }
+
+    @Scheduled(cron = "${analytics.read-model.tombstone-purge-cron:0 30 3 * * *}")
+    public void purgeTombstones() {
+        writeLock.lock();
+        try {
+            int purged = store.purgeTombstones(LocalDateTime.now().minusDays(tombstoneRetentionDays));
+            log.info("Purged {} analytics read model tombstones", purged);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // ---------------------------------------------------------------- request side
+
+    /**
+     * The user whose analytics can be answered from the read model, taking a snapshot first if
+     * the user has none yet; {@code null} when the request must go to the owning services.
+     */
+    public Integer resolveLocalUser(String jwt, Integer targetId) {
+        if (!enabled || !kafkaEnabled) {
+            return null;
+        }
+        try {
+            Integer userId = userIdOf(jwt);
+            if (userId == null || (targetId != null && !targetId.equals(userId))) {
+                return null;
+            }
+            ensureSnapshot(jwt, userId);
+            return userId;
+        } catch (Exception e) {
+            log.warn("Analytics read model unavailable, falling back to live data: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    public Optional<AnalyticsUserState> getUserState(Integer userId) {
+        return userStateRepository.findById(userId);
+    }
+
+    /**
+     * Response headers describing where analytics data came from and how current it is.
+     */
+    public HttpHeaders freshnessHeaders(String jwt, Integer targetId) {
+        HttpHeaders headers = new HttpHeaders();
+        Integer own = enabled && kafkaEnabled ? cachedUserId(jwt) : null;
+        Integer userId = own != null && (targetId == null || targetId.equals(own)) ? own : null;
+        LocalDateTime snapshotAt = userId != null
+                ? userStateRepository.findById(userId).map(AnalyticsUserState::getSnapshotAt).orElse(null)
+                : null;
+        if (snapshotAt == null) {
+            headers.add(HEADER_SOURCE, "live");
+            return headers;
+        }
+        LocalDateTime consumed = consumerAsOf;
+        LocalDateTime asOf = consumed != null && consumed.isAfter(snapshotAt) ? consumed : snapshotAt;
+        headers.add(HEADER_SOURCE, "read-model");
+        headers.add(HEADER_AS_OF, asOf.toString());
+        headers.add(HEADER_STALENESS,
+                String.valueOf(Math.max(0, Duration.between(asOf, LocalDateTime.now()).toMillis())));
+        return headers;
+    }
+
+    private Integer userIdOf(String jwt) {
+        Integer cached = cachedUserId(jwt);
+        if (cached != null) {
+            return cached;
+        }
+        UserDTO user = userServiceClient.getUserProfile(jwt);
+        if (user == null || user.getId() == null) {
+            return null;
+        }
+        if (usersByToken.size() >= MAX_CACHED_TOKENS) {
+            usersByToken.clear();
+        }
+        usersByToken.put(jwt, new CachedUser(user.getId(), System.currentTimeMillis() + userCacheTtlMs));
+        return user.getId();
+    }
+
+    private Integer cachedUserId(String jwt) {
+        CachedUser cached = jwt != null ? usersByToken.get(jwt) : null;
+        if (cached == null) {
+            return null;
+        }
+        if (cached.expiresAt() < System.currentTimeMillis()) {
+            usersByToken.remove(jwt, cached);
+            return null;
+        }
+        return cached.userId();
+    }
+
+    private void ensureSnapshot(String jwt, Integer userId) {
+        AnalyticsUserState state = userStateRepository.findById(userId).orElse(null);
+        LocalDateTime now = LocalDateTime.now();
+        boolean missing = state == null || state.getSnapshotAt() == null || state.getSnapshotRequestedAt() != null;
+        if (missing) {
+            snapshotAsync(jwt, userId).join();
+            return;
+        }
+        if (state.getSnapshotAt().plusHours(resnapshotIntervalHours).isBefore(now)) {
+            snapshotAsync(jwt, userId);
+        } else if (state.getSocialRefreshedAt() == null
+                || state.getSocialRefreshedAt().plus(Duration.ofMillis(socialRefreshMs)).isBefore(now)) {
+            refreshSocialAsync(jwt, userId);
+        }
+    }
+
+    private CompletableFuture<Void> snapshotAsync(String jwt, Integer userId) {
+        CompletableFuture<Void> snapshot = new CompletableFuture<>();
+        CompletableFuture<Void> running = snapshotsInFlight.putIfAbsent(userId, snapshot);
+        if (running != null) {
+            return running;
+        }
+        CompletableFuture.runAsync(() -> snapshot(jwt, userId), snapshotExecutor).whenComplete((ignored, error) -> {
+            snapshotsInFlight.remove(userId, snapshot);
+            if (error != null) {
+                log.warn("Analytics snapshot failed for user {}: {}", userId, error.getMessage());
+                snapshot.completeExceptionally(error);
+            } else {
+                snapshot.complete(null);
+            }
+        });
+        return snapshot;
+    }
+
+    private void refreshSocialAsync(String jwt, Integer userId) {
+        if (socialRefreshInFlight.putIfAbsent(userId, Boolean.TRUE) != null) {
+            return;
+        }
+        CompletableFuture.runAsync(() -> {
+            AnalyticsReadModelStore.SocialCounts social = fetchSocialCounts(jwt);
+            if (social != null) {
+                store.updateSocialCounts(userId, social, LocalDateTime.now());
+            }
+        }, snapshotExecutor).whenComplete((ignored, error) -> socialRefreshInFlight.remove(userId));
+    }
+
+    // ---------------------------------------------------------------- snapshots
+
+    /**
+     * Fetch the user's expenses, bills and budgets from the owning services and merge them. A
+     * failed fetch aborts the snapshot, since a partial one would delete the missing rows.
+     */
+    private void snapshot(String jwt, Integer userId) {
+        long start = System.currentTimeMillis();
+        LocalDateTime takenAt = LocalDateTime.now();
+        String from = LocalDate.parse(snapshotFrom).format(DATE_FORMATTER);
+        String to = LocalDate.now().plusYears(1).format(DATE_FORMATTER);
+
+        List<AnalyticsExpenseFact> expenses = new ArrayList<>();
+        List<AnalyticsDimension> dimensions = new ArrayList<>();
+        Map<String, Object> byPaymentMethod = expenseClient.getAllExpensesByPaymentMethodDetailed(jwt, from, to,
+                null, null);
+        for (Map<String, Object> group : groupsOf(byPaymentMethod)) {
+            addDimension(dimensions, userId, AnalyticsAggregate.PAYMENT_METHOD, group);
+            for (Map<String, Object> expense : listOfMaps(group.get("expenses"))) {
+                Integer expenseId = toInteger(expense.get("id"));
+                AnalyticsExpenseFact fact = expenseId != null
+                        ? AnalyticsReadModelStore.toExpenseFact(expenseId, userId, expense)
+                        : null;
+                if (fact != null) {
+                    fact.setSourceTimestamp(takenAt);
+                    expenses.add(fact);
+                }
+            }
+        }
+        Map<String, Object> byCategory = expenseClient.getAllExpensesByCategoriesDetailed(jwt, from, to, null, null);
+        for (Map<String, Object> group : groupsOf(byCategory)) {
+            addDimension(dimensions, userId, AnalyticsAggregate.CATEGORY, group);
+        }
+
+        List<AnalyticsBillFact> bills = new ArrayList<>();
+        for (Map<String, Object> bill : nonNull(billClient.getBillsByDateRange(jwt, null, null, null))) {
+            Integer billId = toInteger(bill.get("id"));
+            AnalyticsBillFact fact = billId != null ? AnalyticsReadModelStore.toBillFact(billId, userId, bill) : null;
+            if (fact != null) {
+                fact.setSourceTimestamp(takenAt);
+                bills.add(fact);
+            }
+        }
+
+        List<AnalyticsBudgetFact> budgets = new ArrayList<>();
+        for (Map<String, Object> budget : nonNull(budgetClient.getAllBudgets(jwt, null))) {
+            Integer budgetId = toInteger(budget.get("id"));
+            AnalyticsBudgetFact fact = budgetId != null
+                    ? AnalyticsReadModelStore.toBudgetFact(budgetId, userId, budget)
+                    : null;
+            if (fact != null) {
+                fact.setSourceTimestamp(takenAt);
+                budgets.add(fact);
+            }
+        }
+
+        AnalyticsReadModelStore.SocialCounts social = fetchSocialCounts(jwt);
+
+        writeLock.lock();
+        try {
+            store.mergeSnapshot(new AnalyticsReadModelStore.Snapshot(userId, takenAt, expenses, bills, budgets,
+                    dimensions, social));
+        } finally {
+            writeLock.unlock();
+        }
+        log.info("Merged analytics snapshot for user {}: {} expenses, {} bills, {} budgets in {} ms",
+                userId, expenses.size(), bills.size(), budgets.size(), System.currentTimeMillis() - start);
+    }
+
+    private AnalyticsReadModelStore.SocialCounts fetchSocialCounts(String jwt) {
+        try {
+            Map<String, Object> friendshipStats = friendshipClient.getFriendshipStats(jwt);
+            return new AnalyticsReadModelStore.SocialCounts(
+                    toInt(friendshipStats, "totalFriends"),
+                    toInt(friendshipStats, "incomingRequests"),
+                    nonNull(groupClient.getAllUserGroups(jwt)).size(),
+                    nonNull(groupClient.getGroupsCreatedByUser(jwt)).size(),
+                    nonNull(groupClient.getGroupsWhereUserIsMember(jwt)).size());
+        } catch (Exception e) {
+            log.warn("Failed to fetch friendship and group counts for analytics: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static void addDimension(List<AnalyticsDimension> dimensions, Integer userId, String dimension,
+            Map<String, Object> group) {
+        Integer entityId = toInteger(group.get("id"));
+        if (entityId == null) {
+            return;
+        }
+        dimensions.add(AnalyticsDimension.builder()
+                .userId(userId)
+                .dimension(dimension)
+                .entityId(entityId)
+                .name(toText(group.get("name")))
+                .icon(toText(group.get("icon")))
+                .color(toText(group.get("color")))
+                .description(toText(group.get("description")))
+                .type(toText(group.get("type")))
+                .build());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> groupsOf(Map<String, Object> response) {
+        List<Map<String, Object>> groups = new ArrayList<>();
+        if (response == null) {
+            return groups;
+        }
+        response.forEach((key, value) -> {
+            if (!"summary".equals(key) && value instanceof Map) {
+                groups.add((Map<String, Object>) value);
+            }
+        });
+        return groups;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> listOfMaps(Object value) {
+        if (!(value instanceof Collection<?> items)) {
+            return List.of();
+        }
+        List<Map<String, Object>> maps = new ArrayList<>(items.size());
+        for (Object item : items) {
+            if (item instanceof Map) {
+                maps.add((Map<String, Object>) item);
+            }
+        }
+        return maps;
+    }
+
+    private static <T> List<T> nonNull(List<T> list) {
+        return list != null ? list : List.of();
+    }
+
+    private static Integer toInteger(Object value) {
+        if (value instanceof Number number) {
+            return number.intValue();
+        }
+        try {
+            return value != null ? Integer.valueOf(value.toString()) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static int toInt(Map<String, Object> source, String key) {
+        Integer value = source != null ? toInteger(source.get(key)) : null;
+        return value != null ? value : 0;
+    }
+
+    private static String toText(Object value) {
+        return value != null ? value.toString() : null;
+    }
+}
@@ -0,0 +1,492 @@
+package com.jaya.service;
+
+import com.jaya.dto.AnalyticsActivityEventDTO;
+import com.jaya.models.*;
+import com.jaya.repository.*;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Writes of the analytics read model: facts per expense, bill and budget, and the daily and
+ * monthly aggregates derived from expense facts.
+ *
+ * An event or snapshot row only replaces a fact whose {@code sourceTimestamp} is not newer, so
+ * replaying old events over a snapshot, or a snapshot over newer events, converges on the latest
+ * state. Aggregates are adjusted by the difference between the old and the new fact. Callers
+ * serialize writes through {@link AnalyticsReadModelService}.
+ */
+@Service
+@RequiredArgsConstructor
+public class AnalyticsReadModelStore {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalyticsReadModelStore.class);
+
+    private static final String LOSS = "loss";
+    private static final String GAIN = "gain";
+
+    private final AnalyticsExpenseFactRepository expenseFactRepository;
+    private final AnalyticsBillFactRepository billFactRepository;
+    private final AnalyticsBudgetFactRepository budgetFactRepository;
+    private final AnalyticsAggregateRepository aggregateRepository;
+    private final AnalyticsDimensionRepository dimensionRepository;
+    private final AnalyticsUserStateRepository userStateRepository;
+
+    /**
+     * Everything fetched for one user at {@code takenAt}; a null social value means that part of
+     * the snapshot failed and the previous counters are kept.
+     */
+    public record Snapshot(Integer userId, LocalDateTime takenAt, List<AnalyticsExpenseFact> expenses,
+            List<AnalyticsBillFact> bills, List<AnalyticsBudgetFact> budgets, List<AnalyticsDimension> dimensions,
+            SocialCounts social) {
+    }
+
+    public record SocialCounts(int friendsCount, int pendingFriendRequests, int totalGroups, int groupsCreated,
+            int groupsMember) {
+    }
+
+    private record BucketKey(Integer userId, String dimension, String dimensionKey, String granularity,
+            LocalDate periodStart) {
+    }
+
+    // ---------------------------------------------------------------- events
+
+    /**
+     * Apply a batch of activity events in order.
+     *
+     * @return number of events that changed the model
+     */
+    @Transactional
+    public int applyEvents(List<AnalyticsActivityEventDTO> events) {
+        Map<BucketKey, double[]> deltas = new HashMap<>();
+        int applied = 0;
+        for (AnalyticsActivityEventDTO event : events) {
+            Integer userId = event.getOwnerUserId();
+            if (userId == null || event.getEntityType() == null || event.getAction() == null) {
+                continue;
+            }
+            LocalDateTime timestamp = event.getTimestamp() != null ? event.getTimestamp() : LocalDateTime.now();
+            boolean changed = switch (event.getEntityType().toUpperCase(Locale.ROOT)) {
+                case "EXPENSE" -> applyExpenseEvent(event, userId, timestamp, deltas);
+                case "BILL" -> applyBillEvent(event, userId, timestamp);
+                case "BUDGET" -> applyBudgetEvent(event, userId, timestamp);
+                default -> false;
+            };
+            if (changed) {
+                applied++;
+            }
+        }
+        flush(deltas);
+        return applied;
+    }
+
+    private boolean applyExpenseEvent(AnalyticsActivityEventDTO event, Integer userId, LocalDateTime timestamp,
+            Map<BucketKey, double[]> deltas) {
+        if (event.getEntityId() == null) {
+            // Bulk operations carry no per-expense payload
+            return requestSnapshot(userId);
+        }
+        Integer expenseId = event.getEntityId().intValue();
+        AnalyticsExpenseFact existing = expenseFactRepository.findById(expenseId).orElse(null);
+        if (existing != null && existing.getSourceTimestamp().isAfter(timestamp)) {
+            return false;
+        }
+
+        AnalyticsExpenseFact updated;
+        if ("DELETE".equalsIgnoreCase(event.getAction())) {
+            updated = existing != null ? existing : AnalyticsExpenseFact.builder()
+                    .expenseId(expenseId).userId(userId).build();
+            if (!updated.isDeleted()) {
+                addToAggregates(updated, -1, deltas);
+            }
+            updated.setDeleted(true);
+        } else {
+            Map<String, Object> payload = event.getNewValues() != null ? event.getNewValues()
+                    : event.getEntityPayload();
+            updated = toExpenseFact(expenseId, userId, payload);
+            if (updated == null) {
+                log.debug("Expense event {} has no usable payload, requesting snapshot for user {}",
+                        event.getEventId(), userId);
+                return requestSnapshot(userId);
+            }
+            if (existing != null && !existing.isDeleted()) {
+                addToAggregates(existing, -1, deltas);
+            }
+            addToAggregates(updated, 1, deltas);
+        }
+        updated.setSourceTimestamp(timestamp);
+        expenseFactRepository.save(updated);
+        return true;
+    }
+
+    private boolean applyBillEvent(AnalyticsActivityEventDTO event, Integer userId, LocalDateTime timestamp) {
+        if (event.getEntityId() == null) {
+            return requestSnapshot(userId);
+        }
+        Integer billId = event.getEntityId().intValue();
+        AnalyticsBillFact existing = billFactRepository.findById(billId).orElse(null);
+        if (existing != null && existing.getSourceTimestamp().isAfter(timestamp)) {
+            return false;
+        }
+        AnalyticsBillFact updated;
+        if ("DELETE".equalsIgnoreCase(event.getAction())) {
+            updated = existing != null ? existing : AnalyticsBillFact.builder().billId(billId).userId(userId).build();
+            updated.setDeleted(true);
+        } else {
+            updated = toBillFact(billId, userId,
+                    event.getNewValues() != null ? event.getNewValues() : event.getEntityPayload());
+            if (updated == null) {
+                return requestSnapshot(userId);
+            }
+        }
+        updated.setSourceTimestamp(timestamp);
+        billFactRepository.save(updated);
+        return true;
+    }
+
+    private boolean applyBudgetEvent(AnalyticsActivityEventDTO event, Integer userId, LocalDateTime timestamp) {
+        if (event.getEntityId() == null) {
+            return requestSnapshot(userId);
+        }
+        Integer budgetId = event.getEntityId().intValue();
+        AnalyticsBudgetFact existing = budgetFactRepository.findById(budgetId).orElse(null);
+        if (existing != null && existing.getSourceTimestamp().isAfter(timestamp)) {
+            return false;
+        }
+        AnalyticsBudgetFact updated;
+        if ("DELETE".equalsIgnoreCase(event.getAction())) {
+            updated = existing != null ? existing
+                    : AnalyticsBudgetFact.builder().budgetId(budgetId).userId(userId).build();
+            updated.setDeleted(true);
+        } else {
+            updated = toBudgetFact(budgetId, userId,
+                    event.getNewValues() != null ? event.getNewValues() : event.getEntityPayload());
+            if (updated == null) {
+                return requestSnapshot(userId);
+            }
+        }
+        updated.setSourceTimestamp(timestamp);
+        budgetFactRepository.save(updated);
+        return true;
+    }
+
+    private boolean requestSnapshot(Integer userId) {
+        AnalyticsUserState state = userStateRepository.findById(userId)
+                .orElseGet(() -> AnalyticsUserState.builder().userId(userId).build());
+        state.setSnapshotRequestedAt(LocalDateTime.now());
+        userStateRepository.save(state);
+        return true;
+    }
+
+    // ---------------------------------------------------------------- snapshots
+
+    /**
+     * Merge a snapshot into the user's facts, then rebuild the user's aggregates from them.
+     */
+    @Transactional
+    public void mergeSnapshot(Snapshot snapshot) {
+        Integer userId = snapshot.userId();
+        LocalDateTime takenAt = snapshot.takenAt();
+
+        mergeFacts(snapshot.expenses(), expenseFactRepository.findByUserId(userId),
+                AnalyticsExpenseFact::getExpenseId, AnalyticsExpenseFact::getSourceTimestamp,
+                AnalyticsExpenseFact::isDeleted, fact -> {
+                    fact.setDeleted(true);
+                    fact.setSourceTimestamp(takenAt);
+                }, takenAt, expenseFactRepository::saveAll);
+        mergeFacts(snapshot.bills(), billFactRepository.findByUserId(userId),
+                AnalyticsBillFact::getBillId, AnalyticsBillFact::getSourceTimestamp,
+                AnalyticsBillFact::isDeleted, fact -> {
+                    fact.setDeleted(true);
+                    fact.setSourceTimestamp(takenAt);
+                }, takenAt, billFactRepository::saveAll);
+        mergeFacts(snapshot.budgets(), budgetFactRepository.findByUserId(userId),
+                AnalyticsBudgetFact::getBudgetId, AnalyticsBudgetFact::getSourceTimestamp,
+                AnalyticsBudgetFact::isDeleted, fact -> {
+                    fact.setDeleted(true);
+                    fact.setSourceTimestamp(takenAt);
+                }, takenAt, budgetFactRepository::saveAll);
+
+        dimensionRepository.deleteByUser(userId);
+        dimensionRepository.saveAll(snapshot.dimensions());
+
+        rebuildAggregates(userId);
+
+        AnalyticsUserState state = userStateRepository.findById(userId)
+                .orElseGet(() -> AnalyticsUserState.builder().userId(userId).build());
+        state.setSnapshotAt(takenAt);
+        if (state.getSnapshotRequestedAt() != null && !state.getSnapshotRequestedAt().isAfter(takenAt)) {
+            state.setSnapshotRequestedAt(null);
+        }
+        SocialCounts social = snapshot.social();
+        if (social != null) {
+            applySocialCounts(state, social, takenAt);
+        }
+        userStateRepository.save(state);
+    }
+
+    @Transactional
+    public void updateSocialCounts(Integer userId, SocialCounts social, LocalDateTime refreshedAt) {
+        userStateRepository.findById(userId).ifPresent(state -> {
+            applySocialCounts(state, social, refreshedAt);
+            userStateRepository.save(state);
+        });
+    }
+
+    private static void applySocialCounts(AnalyticsUserState state, SocialCounts social, LocalDateTime at) {
+        state.setFriendsCount(social.friendsCount());
+        state.setPendingFriendRequests(social.pendingFriendRequests());
+        state.setTotalGroups(social.totalGroups());
+        state.setGroupsCreated(social.groupsCreated());
+        state.setGroupsMember(social.groupsMember());
+        state.setSocialRefreshedAt(at);
+    }
+
+    /**
+     * Snapshot rows replace facts not written after the snapshot; facts the snapshot no longer
+     * contains become tombstones unless an event wrote them after it.
+     */
+    private static <T> void mergeFacts(List<T> snapshotRows, List<T> currentRows, Function<T, Integer> id,
+            Function<T, LocalDateTime> sourceTimestamp, Predicate<T> deleted, Consumer<T> markDeleted,
+            LocalDateTime takenAt, Function<List<T>, ?> saveAll) {
+        Map<Integer, T> current = currentRows.stream().collect(Collectors.toMap(id, Function.identity()));
+        List<T> writes = new ArrayList<>();
+        for (T row : snapshotRows) {
+            T existing = current.remove(id.apply(row));
+            if (existing == null || !sourceTimestamp.apply(existing).isAfter(takenAt)) {
+                writes.add(row);
+            }
+        }
+        for (T existing : current.values()) {
+            if (!deleted.test(existing) && !sourceTimestamp.apply(existing).isAfter(takenAt)) {
+                markDeleted.accept(existing);
+                writes.add(existing);
+            }
+        }
+        saveAll.apply(writes);
+    }
+
+    private void rebuildAggregates(Integer userId) {
+        aggregateRepository.deleteByUser(userId);
+        Map<BucketKey, double[]> totals = new HashMap<>();
+        for (AnalyticsExpenseFact fact : expenseFactRepository.findByUserIdAndDeletedFalse(userId)) {
+            addToAggregates(fact, 1, totals);
+        }
+        List<AnalyticsAggregate> rows = new ArrayList<>(totals.size());
+        totals.forEach((key, sums) -> rows.add(AnalyticsAggregate.builder()
+                .userId(key.userId())
+                .dimension(key.dimension())
+                .dimensionKey(key.dimensionKey())
+                .granularity(key.granularity())
+                .periodStart(key.periodStart())
+                .lossAmount(sums[0])
+                .gainAmount(sums[1])
+                .totalAmount(sums[2])
+                .entryCount((long) sums[3])
+                .build()));
+        aggregateRepository.saveAll(rows);
+    }
+
+    @Transactional
+    public int purgeTombstones(LocalDateTime before) {
+        return expenseFactRepository.purgeTombstones(before) + billFactRepository.purgeTombstones(before)
+                + budgetFactRepository.purgeTombstones(before);
+    }
+
+    // ---------------------------------------------------------------- aggregates
+
+    private static void addToAggregates(AnalyticsExpenseFact fact, int sign, Map<BucketKey, double[]> deltas) {
+        if (fact.getExpenseDate() == null) {
+            return;
+        }
+        List<String[]> keys = new ArrayList<>();
+        keys.add(new String[] { AnalyticsAggregate.CATEGORY,
+                fact.getCategoryId() != null ? fact.getCategoryId().toString() : "" });
+        keys.add(new String[] { AnalyticsAggregate.PAYMENT_METHOD,
+                fact.getPaymentMethod() != null ? fact.getPaymentMethod() : "" });
+        for (Integer budgetId : parseIds(fact.getBudgetIds())) {
+            keys.add(new String[] { AnalyticsAggregate.BUDGET, budgetId.toString() });
+        }
+
+        double amount = sign * fact.getAmount();
+        double loss = LOSS.equals(fact.getType()) ? amount : 0;
+        double gain = GAIN.equals(fact.getType()) ? amount : 0;
+        LocalDate day = fact.getExpenseDate();
+        for (String[] key : keys) {
+            for (BucketKey bucket : List.of(
+                    new BucketKey(fact.getUserId(), key[0], key[1], AnalyticsAggregate.DAY, day),
+                    new BucketKey(fact.getUserId(), key[0], key[1], AnalyticsAggregate.MONTH, day.withDayOfMonth(1)))) {
+                double[] sums = deltas.computeIfAbsent(bucket, k -> new double[4]);
+                sums[0] += loss;
+                sums[1] += gain;
+                sums[2] += amount;
+                sums[3] += sign;
+            }
+        }
+    }
+
+    private void flush(Map<BucketKey, double[]> deltas) {
+        // Fixed update order keeps lock acquisition consistent with concurrent writers
+        List<BucketKey> keys = new ArrayList<>(deltas.keySet());
+        keys.sort(Comparator.comparing(BucketKey::userId).thenComparing(BucketKey::dimension)
+                .thenComparing(BucketKey::dimensionKey).thenComparing(BucketKey::granularity)
+                .thenComparing(BucketKey::periodStart));
+        for (BucketKey key : keys) {
+            double[] sums = deltas.get(key);
+            if (sums[0] == 0 && sums[1] == 0 && sums[2] == 0 && sums[3] == 0) {
+                continue;
+            }
+            aggregateRepository.increment(key.userId(), key.dimension(), key.dimensionKey(), key.granularity(),
+                    key.periodStart(), sums[0], sums[1], sums[2], (long) sums[3]);
+        }
+    }
+
+    // ---------------------------------------------------------------- payload mapping
+
+    static AnalyticsExpenseFact toExpenseFact(Integer expenseId, Integer userId, Map<String, Object> payload) {
+        if (payload == null) {
+            return null;
+        }
+        Map<String, Object> details = asMap(payload.get("expense"));
+        Map<String, Object> source = details != null ? details : payload;
+        LocalDate date = parseDate(payload.get("date"));
+        if (date == null) {
+            return null;
+        }
+        String type = asString(source.get("type"));
+        return AnalyticsExpenseFact.builder()
+                .expenseId(expenseId)
+                .userId(userId)
+                .expenseDate(date)
+                .amount(asDouble(source.get("amount")))
+                .type(type != null ? type.toLowerCase(Locale.ROOT) : null)
+                .paymentMethod(asString(source.get("paymentMethod")))
+                .categoryId(asInteger(payload.get("categoryId")))
+                .categoryName(asString(payload.get("categoryName")))
+                .expenseName(asString(source.get("expenseName")))
+                .comments(truncate(asString(source.get("comments")), 1000))
+                .budgetIds(joinIds(payload.get("budgetIds")))
+                .build();
+    }
+
+    static AnalyticsBillFact toBillFact(Integer billId, Integer userId, Map<String, Object> payload) {
+        if (payload == null) {
+            return null;
+        }
+        return AnalyticsBillFact.builder()
+                .billId(billId)
+                .userId(userId)
+                .name(asString(payload.get("name")))
+                .description(truncate(asString(payload.get("description")), 1000))
+                .amount(asDouble(payload.get("amount")))
+                .netAmount(asDouble(payload.get("netAmount")))
+                .category(asString(payload.get("category")))
+                .paymentMethod(asString(payload.get("paymentMethod")))
+                .type(asString(payload.get("type")))
+                .billDate(parseDate(payload.get("date")))
+                .includeInBudget(Boolean.TRUE.equals(payload.get("includeInBudget")))
+                .build();
+    }
+
+    static AnalyticsBudgetFact toBudgetFact(Integer budgetId, Integer userId, Map<String, Object> payload) {
+        if (payload == null) {
+            return null;
+        }
+        return AnalyticsBudgetFact.builder()
+                .budgetId(budgetId)
+                .userId(userId)
+                .name(asString(payload.get("name")))
+                .description(truncate(asString(payload.get("description")), 1000))
+                .amount(asDouble(payload.get("amount")))
+                .startDate(parseDate(payload.get("startDate")))
+                .endDate(parseDate(payload.get("endDate")))
+                .build();
+    }
+
+    static List<Integer> parseIds(String joined) {
+        if (joined == null || joined.isEmpty()) {
+            return List.of();
+        }
+        List<Integer> ids = new ArrayList<>();
+        for (String part : joined.split(",")) {
+            try {
+                ids.add(Integer.parseInt(part.trim()));
+            } catch (NumberFormatException ignored) {
+                // skip malformed entries
+            }
+        }
+        return ids;
+    }
+
+    private static String joinIds(Object value) {
+        if (!(value instanceof Collection<?> ids) || ids.isEmpty()) {
+            return null;
+        }
+        String joined = ids.stream().filter(Number.class::isInstance)
+                .map(id -> String.valueOf(((Number) id).intValue()))
+                .sorted().collect(Collectors.joining(","));
+        return joined.isEmpty() ? null : truncate(joined, 1000);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asMap(Object value) {
+        return value instanceof Map ? (Map<String, Object>) value : null;
+    }
+
+    private static String asString(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    private static String truncate(String value, int max) {
+        return value != null && value.length() > max ? value.substring(0, max) : value;
+    }
+
+    private static double asDouble(Object value) {
+        if (value instanceof Number number) {
+            return number.doubleValue();
+        }
+        try {
+            return value != null ? Double.parseDouble(value.toString()) : 0.0;
+        } catch (NumberFormatException e) {
+            return 0.0;
+        }
+    }
+
+    private static Integer asInteger(Object value) {
+        if (value instanceof Number number) {
+            return number.intValue();
+        }
+        try {
+            return value != null ? Integer.valueOf(value.toString()) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static LocalDate parseDate(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof List<?> parts && parts.size() >= 3) {
+            // Jackson writes LocalDate as [yyyy, M, d] when dates are not serialized as text
+            return LocalDate.of(((Number) parts.get(0)).intValue(), ((Number) parts.get(1)).intValue(),
+                    ((Number) parts.get(2)).intValue());
+        }
+        String text = value.toString();
+        try {
+            return LocalDate.parse(text.length() > 10 ? text.substring(0, 10) : text);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
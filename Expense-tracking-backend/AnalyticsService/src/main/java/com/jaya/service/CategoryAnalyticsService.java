@@ -33,6 +33,8 @@ public class CategoryAnalyticsService {
     private final BillAnalyticsClient billAnalyticsClient;
     private final AnalyticsExpenseClient expenseService;
     private final BudgetClient budgetService;
+    private final AnalyticsReadModelService readModelService;
+    private final AnalyticsReadModelQueryService readModelQueryService;
 
     private final ExecutorService asyncExecutor = Executors.newFixedThreadPool(4);
 
@@ -51,6 +53,18 @@ public class CategoryAnalyticsService {
         log.info("Building category analytics for categoryId={}, dateRange={} to {}, trendType={}",
                 categoryId, startDate, endDate, trendType);
 
+        CategoryAnalyticsDTO local = fromReadModel(jwt, targetId, "category", userId -> {
+            AnalyticsReadModelQueryService.EntityData data = readModelQueryService.categoryData(userId, categoryId,
+                    startDate, endDate);
+            return data != null
+                    ? buildAnalyticsFromEntityData(data, buildCategoryMetadataFromData(data.entityData(), categoryId),
+                            startDate, endDate, trendType)
+                    : null;
+        });
+        if (local != null) {
+            return local;
+        }
+
         try {
             CompletableFuture<Map<String, Object>> categoryDataFuture = CompletableFuture.supplyAsync(
                     () -> fetchAllCategoryDataDetailed(jwt, startDate, endDate, targetId),
@@ -109,6 +123,19 @@ public class CategoryAnalyticsService {
         log.info("Building payment method analytics for paymentMethodId={}, dateRange={} to {}, trendType={}",
                 paymentMethodId, startDate, endDate, trendType);
 
+        CategoryAnalyticsDTO local = fromReadModel(jwt, targetId, "payment method", userId -> {
+            AnalyticsReadModelQueryService.EntityData data = readModelQueryService.paymentMethodData(userId,
+                    paymentMethodId, startDate, endDate);
+            return data != null
+                    ? buildAnalyticsFromEntityData(data,
+                            buildPaymentMethodMetadataFromData(data.entityData(), paymentMethodId),
+                            startDate, endDate, trendType)
+                    : null;
+        });
+        if (local != null) {
+            return local;
+        }
+
         try {
             CompletableFuture<Map<String, Object>> paymentDataFuture = CompletableFuture.supplyAsync(
                     () -> fetchAllPaymentMethodDataDetailed(jwt, startDate, endDate, targetId),
@@ -163,6 +190,26 @@ public class CategoryAnalyticsService {
         log.info("Building bill analytics for billId={}, dateRange={} to {}, trendType={}",
                 billId, startDate, endDate, trendType);
 
+        CategoryAnalyticsDTO local = fromReadModel(jwt, targetId, "bill", userId -> {
+            Map<String, Object> billData = readModelQueryService.bill(userId, billId);
+            if (billData == null) {
+                return null;
+            }
+            List<Map<String, Object>> expenses = buildBillExpenses(billData);
+            return buildAnalyticsFromExpenses(
+                    expenses,
+                    readModelQueryService.outflowSummary(userId, startDate, endDate),
+                    buildBillEntityData(billData, billId, expenses),
+                    readModelQueryService.budgets(userId),
+                    startDate,
+                    endDate,
+                    trendType,
+                    buildBillMetadataFromData(billData, billId));
+        });
+        if (local != null) {
+            return local;
+        }
+
         try {
             CompletableFuture<Map<String, Object>> billFuture = CompletableFuture.supplyAsync(
                     () -> billAnalyticsClient.getBillById(jwt, billId, targetId),
@@ -202,6 +249,47 @@ public class CategoryAnalyticsService {
         }
     }
 
+    @FunctionalInterface
+    private interface ReadModelAnalytics {
+        CategoryAnalyticsDTO build(Integer userId) throws Exception;
+    }
+
+    /**
+     * Analytics built from the local read model, or {@code null} when the request has to go to
+     * the owning services (another user's data, read model disabled, entity not known locally).
+     */
+    private CategoryAnalyticsDTO fromReadModel(String jwt, Integer targetId, String entityType,
+            ReadModelAnalytics analytics) {
+        Integer userId = readModelService.resolveLocalUser(jwt, targetId);
+        if (userId == null) {
+            return null;
+        }
+        try {
+            return analytics.build(userId);
+        } catch (Exception e) {
+            log.warn("Failed to build {} analytics from the read model, using live data: {}", entityType,
+                    e.getMessage());
+            return null;
+        }
+    }
+
+    private CategoryAnalyticsDTO buildAnalyticsFromEntityData(
+            AnalyticsReadModelQueryService.EntityData data,
+            CategoryMetadata metadata,
+            LocalDate startDate,
+            LocalDate endDate,
+            String trendType) throws ExecutionException, InterruptedException {
+        return buildAnalyticsFromExpenses(
+                extractExpensesFromCategoryData(data.entityData()),
+                data.summaryData(),
+                data.entityData(),
+                data.budgets(),
+                startDate,
+                endDate,
+                trendType,
+                metadata);
+    }
+
     private CategoryAnalyticsDTO buildAnalyticsFromExpenses(
             List<Map<String, Object>> expenses,
             Map<String, Object> summaryData,
@@ -0,0 +1,157 @@
+package com.jaya.service;
+
+import com.jaya.dto.report.ReportData.ExpenseRow;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Groupings shared by the visual report sheets, computed in one pass over the expense rows.
+ * Instances are immutable, so the sheet data builders can read one concurrently.
+ *
+ * @param rows               expense rows, newest first
+ * @param byMonth            rows inside the report range per month, newest month first
+ * @param byDay              rows per day
+ * @param topCategoryByDay   category with the largest amount per day
+ * @param byWeekday          rows per ISO day of week, Monday at index 0
+ * @param byYear             rows per year
+ * @param topCategoryByYear  category with the largest amount per year, with that amount
+ * @param byPaymentMethod    rows per payment method ("Unknown" when missing)
+ * @param topExpenses        the ten largest rows, newest first among equal amounts
+ * @param earliestDate       date of the oldest row, or {@code null} when there are none
+ * @param totalAmount        sum of all row amounts
+ * @param velocity           totals over the recent windows used by the velocity sheet
+ */
+public record ReportDataset(
+        List<ExpenseRow> rows,
+        NavigableMap<YearMonth, Totals> byMonth,
+        NavigableMap<LocalDate, Totals> byDay,
+        Map<LocalDate, String> topCategoryByDay,
+        List<Totals> byWeekday,
+        NavigableMap<Integer, Totals> byYear,
+        Map<Integer, Map.Entry<String, Double>> topCategoryByYear,
+        Map<String, Totals> byPaymentMethod,
+        List<ExpenseRow> topExpenses,
+        LocalDate earliestDate,
+        double totalAmount,
+        Velocity velocity) {
+
+    private static final int TOP_EXPENSES = 10;
+
+    public record Totals(double amount, int count) {
+    }
+
+    public record Velocity(double last7Days, double previous7Days, double last30Days, double previous30Days) {
+    }
+
+    private static final class Accumulator {
+        private double amount;
+        private int count;
+
+        void add(double value) {
+            amount += value;
+            count++;
+        }
+
+        Totals toTotals() {
+            return new Totals(amount, count);
+        }
+    }
+
+    /**
+     * @param rows  expense rows sorted newest first
+     * @param today reference day of the velocity windows
+     */
+    public static ReportDataset aggregate(List<ExpenseRow> rows, LocalDate startDate, LocalDate endDate,
+            LocalDate today) {
+        Map<YearMonth, Accumulator> months = new HashMap<>();
+        Map<LocalDate, Accumulator> days = new HashMap<>();
+        Map<LocalDate, Map<String, Double>> dayCategories = new HashMap<>();
+        Accumulator[] weekdays = new Accumulator[7];
+        Map<Integer, Accumulator> years = new HashMap<>();
+        Map<Integer, Map<String, Double>> yearCategories = new HashMap<>();
+        Map<String, Accumulator> paymentMethods = new HashMap<>();
+        for (int i = 0; i < weekdays.length; i++) {
+            weekdays[i] = new Accumulator();
+        }
+
+        LocalDate earliest = null;
+        double total = 0;
+        double last7 = 0, previous7 = 0, last30 = 0, previous30 = 0;
+
+        for (ExpenseRow row : rows) {
+            LocalDate date = row.getDate();
+            double amount = row.getAmount();
+            total += amount;
+            if (earliest == null || date.isBefore(earliest)) {
+                earliest = date;
+            }
+
+            if (!date.isBefore(startDate) && !date.isAfter(endDate)) {
+                months.computeIfAbsent(YearMonth.from(date), m -> new Accumulator()).add(amount);
+            }
+            days.computeIfAbsent(date, d -> new Accumulator()).add(amount);
+            dayCategories.computeIfAbsent(date, d -> new HashMap<>()).merge(row.getCategory(), amount, Double::sum);
+            weekdays[date.getDayOfWeek().getValue() - 1].add(amount);
+            years.computeIfAbsent(date.getYear(), y -> new Accumulator()).add(amount);
+            yearCategories.computeIfAbsent(date.getYear(), y -> new HashMap<>())
+                    .merge(row.getCategory(), amount, Double::sum);
+            String method = row.getPaymentMethod();
+            paymentMethods.computeIfAbsent(method == null || method.isEmpty() ? "Unknown" : method,
+                    m -> new Accumulator()).add(amount);
+
+            long daysAgo = ChronoUnit.DAYS.between(date, today);
+            if (daysAgo <= 7) {
+                last7 += amount;
+            } else if (daysAgo <= 14) {
+                previous7 += amount;
+            }
+            if (daysAgo <= 30) {
+                last30 += amount;
+            } else if (daysAgo <= 60) {
+                previous30 += amount;
+            }
+        }
+
+        NavigableMap<YearMonth, Totals> byMonth = new TreeMap<>(Comparator.reverseOrder());
+        months.forEach((month, acc) -> byMonth.put(month, acc.toTotals()));
+        NavigableMap<LocalDate, Totals> byDay = new TreeMap<>();
+        days.forEach((day, acc) -> byDay.put(day, acc.toTotals()));
+        NavigableMap<Integer, Totals> byYear = new TreeMap<>();
+        years.forEach((year, acc) -> byYear.put(year, acc.toTotals()));
+        Map<String, Totals> byPaymentMethod = new HashMap<>();
+        paymentMethods.forEach((method, acc) -> byPaymentMethod.put(method, acc.toTotals()));
+        List<Totals> byWeekday = Arrays.stream(weekdays).map(Accumulator::toTotals).toList();
+
+        Map<LocalDate, String> topCategoryByDay = new HashMap<>();
+        dayCategories.forEach((day, categories) -> topCategoryByDay.put(day, largest(categories).getKey()));
+        Map<Integer, Map.Entry<String, Double>> topCategoryByYear = new HashMap<>();
+        yearCategories.forEach((year, categories) -> topCategoryByYear.put(year, largest(categories)));
+
+        List<ExpenseRow> topExpenses = rows.stream()
+                .sorted((a, b) -> Double.compare(b.getAmount(), a.getAmount()))
+                .limit(TOP_EXPENSES)
+                .toList();
+
+        return new ReportDataset(
+                Collections.unmodifiableList(rows),
+                Collections.unmodifiableNavigableMap(byMonth),
+                Collections.unmodifiableNavigableMap(byDay),
+                Collections.unmodifiableMap(topCategoryByDay),
+                byWeekday,
+                Collections.unmodifiableNavigableMap(byYear),
+                Collections.unmodifiableMap(topCategoryByYear),
+                Collections.unmodifiableMap(byPaymentMethod),
+                topExpenses,
+                earliest,
+                total,
+                new Velocity(last7, previous7, last30, previous30));
+    }
+
+    private static Map.Entry<String, Double> largest(Map<String, Double> amounts) {
+        return new AbstractMap.SimpleImmutableEntry<>(
+                Collections.max(amounts.entrySet(), Map.Entry.comparingByValue()));
+    }
+}
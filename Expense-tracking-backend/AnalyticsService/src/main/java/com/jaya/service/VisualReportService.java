@@ -18,6 +18,7 @@ import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,6 +34,8 @@ public class VisualReportService {
     private final VisualReportGenerator reportGenerator;
 
     private final ExecutorService asyncExecutor = Executors.newFixedThreadPool(4);
+    private final ExecutorService sheetDataExecutor = Executors.newFixedThreadPool(
+            Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors())));
 
     public ByteArrayInputStream generateVisualReport(String jwt, VisualReportRequest request) throws IOException {
         log.info("Generating visual report: type={}, dateRange={} to {}",
@@ -86,23 +89,45 @@ public class VisualReportService {
             Map<String, Object> expenseData = expenseDataFuture.get();
             Map<String, Object> summaryData = summaryFuture.get();
             List<Map<String, Object>> budgetsData = budgetsFuture.get();
+
+            ReportDataset dataset = ReportDataset.aggregate(buildExpenseRows(expenseData), startDate, endDate,
+                    LocalDate.now());
+
+            // Sheet data sections only read the shared dataset, so they are prepared concurrently
+            CompletableFuture<SummaryData> summary = prepare(() -> buildSummary(summaryData, budgetsData));
+            CompletableFuture<List<CategoryData>> categories = prepare(() -> buildCategoryBreakdown(expenseData));
+            CompletableFuture<List<MonthlyTrendData>> monthlyTrends = prepare(() -> buildMonthlyTrends(dataset));
+            CompletableFuture<List<DailySpendingData>> dailySpending = prepare(() -> buildDailySpending(dataset));
+            CompletableFuture<List<BudgetData>> budgets = prepare(() -> buildBudgetData(budgetsData));
+            CompletableFuture<List<PaymentMethodData>> paymentMethods = prepare(
+                    () -> buildPaymentMethodData(dataset));
+            CompletableFuture<List<WeekdaySpendingData>> weekdaySpending = prepare(
+                    () -> buildWeekdaySpending(dataset));
+            CompletableFuture<List<YearlyComparisonData>> yearlyComparison = prepare(
+                    () -> buildYearlyComparison(dataset));
+            CompletableFuture<List<TopExpenseData>> topExpenses = prepare(() -> buildTopExpenses(dataset));
+            CompletableFuture<ExpenseVelocityData> velocity = prepare(() -> buildExpenseVelocity(dataset));
+            CompletableFuture<List<InsightData>> insights = prepare(() -> generateInsights(summaryData, budgetsData));
+            CompletableFuture.allOf(summary, categories, monthlyTrends, dailySpending, budgets, paymentMethods,
+                    weekdaySpending, yearlyComparison, topExpenses, velocity, insights).join();
+
             return ReportData.builder()
                     .reportTitle("Expense Report")
                     .generatedDate(LocalDate.now())
                     .startDate(startDate)
                     .endDate(endDate)
-                    .summary(buildSummary(summaryData, budgetsData))
-                    .expenses(buildExpenseRows(expenseData))
-                    .categoryBreakdown(buildCategoryBreakdown(expenseData))
-                    .monthlyTrends(buildMonthlyTrends(expenseData, startDate, endDate))
-                    .dailySpending(buildDailySpending(expenseData))
-                    .budgets(buildBudgetData(budgetsData))
-                    .paymentMethods(buildPaymentMethodData(expenseData))
-                    .weekdaySpending(buildWeekdaySpending(expenseData))
-                    .yearlyComparison(buildYearlyComparison(expenseData))
-                    .topExpenses(buildTopExpenses(expenseData))
-                    .expenseVelocity(buildExpenseVelocity(expenseData))
-                    .insights(generateInsights(summaryData, budgetsData))
+                    .summary(summary.get())
+                    .expenses(dataset.rows())
+                    .categoryBreakdown(categories.get())
+                    .monthlyTrends(monthlyTrends.get())
+                    .dailySpending(dailySpending.get())
+                    .budgets(budgets.get())
+                    .paymentMethods(paymentMethods.get())
+                    .weekdaySpending(weekdaySpending.get())
+                    .yearlyComparison(yearlyComparison.get())
+                    .topExpenses(topExpenses.get())
+                    .expenseVelocity(velocity.get())
+                    .insights(insights.get())
                     .build();
 
         } catch (Exception e) {
@@ -111,6 +136,10 @@ public class VisualReportService {
         }
     }
 
+    private <T> CompletableFuture<T> prepare(Supplier<T> section) {
+        return CompletableFuture.supplyAsync(section, sheetDataExecutor);
+    }
+
     private Map<String, Object> fetchExpenseData(String jwt, LocalDate startDate, LocalDate endDate, Integer targetId) {
         try {
             String start = startDate.format(DATE_FORMATTER);
@@ -252,31 +281,15 @@ public class VisualReportService {
         return categories;
     }
 
-    private List<MonthlyTrendData> buildMonthlyTrends(Map<String, Object> expenseData,
-            LocalDate startDate, LocalDate endDate) {
-        Map<String, MonthlyTrendData> monthlyMap = new LinkedHashMap<>();
-        List<ExpenseRow> expenses = buildExpenseRows(expenseData);
-
-        for (ExpenseRow expense : expenses) {
-            LocalDate date = expense.getDate();
-            if (date.isBefore(startDate) || date.isAfter(endDate))
-                continue;
-
-            String monthKey = date.getYear() + "-" + String.format("%02d", date.getMonthValue());
-            String monthName = date.getMonth().getDisplayName(TextStyle.FULL, Locale.ENGLISH) + " " + date.getYear();
-
-            MonthlyTrendData trend = monthlyMap.computeIfAbsent(monthKey, k -> MonthlyTrendData.builder()
-                    .month(monthName)
-                    .year(date.getYear())
-                    .monthNumber(date.getMonthValue())
-                    .totalAmount(0)
-                    .transactionCount(0)
-                    .build());
-
-            trend.setTotalAmount(trend.getTotalAmount() + expense.getAmount());
-            trend.setTransactionCount(trend.getTransactionCount() + 1);
-        }
-        List<MonthlyTrendData> trends = new ArrayList<>(monthlyMap.values());
+    private List<MonthlyTrendData> buildMonthlyTrends(ReportDataset dataset) {
+        List<MonthlyTrendData> trends = new ArrayList<>(dataset.byMonth().size());
+        dataset.byMonth().forEach((month, totals) -> trends.add(MonthlyTrendData.builder()
+                .month(month.getMonth().getDisplayName(TextStyle.FULL, Locale.ENGLISH) + " " + month.getYear())
+                .year(month.getYear())
+                .monthNumber(month.getMonthValue())
+                .totalAmount(totals.amount())
+                .transactionCount(totals.count())
+                .build()));
         for (int i = 1; i < trends.size(); i++) {
             MonthlyTrendData current = trends.get(i);
             MonthlyTrendData previous = trends.get(i - 1);
@@ -291,38 +304,16 @@ public class VisualReportService {
         return trends;
     }
 
-    private List<DailySpendingData> buildDailySpending(Map<String, Object> expenseData) {
-        Map<LocalDate, DailySpendingData> dailyMap = new TreeMap<>();
-        List<ExpenseRow> expenses = buildExpenseRows(expenseData);
-
-        Map<LocalDate, Map<String, Double>> categoryAmounts = new HashMap<>();
-
-        for (ExpenseRow expense : expenses) {
-            LocalDate date = expense.getDate();
-
-            DailySpendingData daily = dailyMap.computeIfAbsent(date, d -> DailySpendingData.builder()
-                    .date(d)
-                    .dayName(d.getDayOfWeek().getDisplayName(TextStyle.SHORT, Locale.ENGLISH))
-                    .amount(0)
-                    .transactionCount(0)
-                    .build());
-
-            daily.setAmount(daily.getAmount() + expense.getAmount());
-            daily.setTransactionCount(daily.getTransactionCount() + 1);
-            categoryAmounts.computeIfAbsent(date, d -> new HashMap<>())
-                    .merge(expense.getCategory(), expense.getAmount(), Double::sum);
-        }
-        for (DailySpendingData daily : dailyMap.values()) {
-            Map<String, Double> dayCats = categoryAmounts.get(daily.getDate());
-            if (dayCats != null && !dayCats.isEmpty()) {
-                daily.setTopCategory(dayCats.entrySet().stream()
-                        .max(Map.Entry.comparingByValue())
-                        .map(Map.Entry::getKey)
-                        .orElse(null));
-            }
-        }
-
-        return new ArrayList<>(dailyMap.values());
+    private List<DailySpendingData> buildDailySpending(ReportDataset dataset) {
+        List<DailySpendingData> daily = new ArrayList<>(dataset.byDay().size());
+        dataset.byDay().forEach((date, totals) -> daily.add(DailySpendingData.builder()
+                .date(date)
+                .dayName(date.getDayOfWeek().getDisplayName(TextStyle.SHORT, Locale.ENGLISH))
+                .amount(totals.amount())
+                .transactionCount(totals.count())
+                .topCategory(dataset.topCategoryByDay().get(date))
+                .build()));
+        return daily;
     }
 
     @SuppressWarnings("unchecked")
@@ -388,48 +379,16 @@ public class VisualReportService {
         }).collect(Collectors.toList());
     }
 
-    @SuppressWarnings("unchecked")
-    private List<PaymentMethodData> buildPaymentMethodData(Map<String, Object> expenseData) {
-        Map<String, PaymentMethodData> methodMap = new HashMap<>();
-        double totalAmount = 0;
-
-        for (Map.Entry<String, Object> entry : expenseData.entrySet()) {
-            if ("summary".equals(entry.getKey()))
-                continue;
-
-            if (entry.getValue() instanceof Map) {
-                Map<String, Object> categoryData = (Map<String, Object>) entry.getValue();
-                List<Map<String, Object>> expenses = (List<Map<String, Object>>) categoryData.get("expenses");
-
-                if (expenses != null) {
-                    for (Map<String, Object> expense : expenses) {
-                        Map<String, Object> details = (Map<String, Object>) expense.get("expense");
-                        if (details == null)
-                            details = expense;
-
-                        String method = extractString(details, "paymentMethod");
-                        if (method == null || method.isEmpty())
-                            method = "Unknown";
-                        double amount = Math.abs(extractDouble(details, "amount"));
-                        totalAmount += amount;
-
-                        PaymentMethodData pmData = methodMap.computeIfAbsent(method, m -> PaymentMethodData.builder()
-                                .methodName(m)
-                                .displayName(formatPaymentMethodName(m))
-                                .totalAmount(0)
-                                .transactionCount(0)
-                                .build());
-
-                        pmData.setTotalAmount(pmData.getTotalAmount() + amount);
-                        pmData.setTransactionCount(pmData.getTransactionCount() + 1);
-                    }
-                }
-            }
-        }
-
-        final double total = totalAmount;
-        methodMap.values().forEach(pm -> pm.setPercentage(total > 0 ? (pm.getTotalAmount() / total) * 100 : 0));
-        List<PaymentMethodData> result = new ArrayList<>(methodMap.values());
+    private List<PaymentMethodData> buildPaymentMethodData(ReportDataset dataset) {
+        double total = dataset.byPaymentMethod().values().stream().mapToDouble(ReportDataset.Totals::amount).sum();
+        List<PaymentMethodData> result = new ArrayList<>(dataset.byPaymentMethod().size());
+        dataset.byPaymentMethod().forEach((method, totals) -> result.add(PaymentMethodData.builder()
+                .methodName(method)
+                .displayName(formatPaymentMethodName(method))
+                .totalAmount(totals.amount())
+                .transactionCount(totals.count())
+                .percentage(total > 0 ? (totals.amount() / total) * 100 : 0)
+                .build()));
         result.sort((a, b) -> Double.compare(b.getTotalAmount(), a.getTotalAmount()));
         return result;
     }
@@ -442,87 +401,51 @@ public class VisualReportService {
                 .collect(Collectors.joining(" "));
     }
 
-    private List<WeekdaySpendingData> buildWeekdaySpending(Map<String, Object> expenseData) {
-        Map<Integer, WeekdaySpendingData> weekdayMap = new LinkedHashMap<>();
-        List<ExpenseRow> expenses = buildExpenseRows(expenseData);
-        double totalAmount = 0;
+    private List<WeekdaySpendingData> buildWeekdaySpending(ReportDataset dataset) {
         String[] dayNames = { "Monday", "Tuesday", "Wednesday", "Thursday", "Friday", "Saturday", "Sunday" };
-        for (int i = 1; i <= 7; i++) {
-            weekdayMap.put(i, WeekdaySpendingData.builder()
-                    .dayName(dayNames[i - 1])
-                    .dayOfWeek(i)
-                    .totalAmount(0)
-                    .transactionCount(0)
+        double total = dataset.totalAmount();
+        List<WeekdaySpendingData> result = new ArrayList<>(dayNames.length);
+        for (int i = 0; i < dayNames.length; i++) {
+            ReportDataset.Totals totals = dataset.byWeekday().get(i);
+            result.add(WeekdaySpendingData.builder()
+                    .dayName(dayNames[i])
+                    .dayOfWeek(i + 1)
+                    .totalAmount(totals.amount())
+                    .transactionCount(totals.count())
+                    .averageAmount(totals.count() > 0 ? totals.amount() / totals.count() : 0)
+                    .percentage(total > 0 ? (totals.amount() / total) * 100 : 0)
                     .build());
         }
-        for (ExpenseRow expense : expenses) {
-            int dayOfWeek = expense.getDate().getDayOfWeek().getValue();
-            WeekdaySpendingData data = weekdayMap.get(dayOfWeek);
-            data.setTotalAmount(data.getTotalAmount() + expense.getAmount());
-            data.setTransactionCount(data.getTransactionCount() + 1);
-            totalAmount += expense.getAmount();
-        }
-        final double total = totalAmount;
-        List<WeekdaySpendingData> result = new ArrayList<>(weekdayMap.values());
-        result.forEach(d -> {
-            d.setAverageAmount(d.getTransactionCount() > 0 ? d.getTotalAmount() / d.getTransactionCount() : 0);
-            d.setPercentage(total > 0 ? (d.getTotalAmount() / total) * 100 : 0);
-        });
-
         return result;
     }
 
-    @SuppressWarnings("unchecked")
-    private List<YearlyComparisonData> buildYearlyComparison(Map<String, Object> expenseData) {
-        Map<Integer, YearlyComparisonData> yearlyMap = new TreeMap<>();
-        List<ExpenseRow> expenses = buildExpenseRows(expenseData);
-        Map<Integer, Map<String, Double>> yearCategoryTotals = new HashMap<>();
-        for (ExpenseRow expense : expenses) {
-            int year = expense.getDate().getYear();
-
-            YearlyComparisonData data = yearlyMap.computeIfAbsent(year, y -> YearlyComparisonData.builder()
-                    .year(y)
-                    .totalAmount(0)
-                    .transactionCount(0)
+    private List<YearlyComparisonData> buildYearlyComparison(ReportDataset dataset) {
+        List<YearlyComparisonData> result = new ArrayList<>(dataset.byYear().size());
+        dataset.byYear().forEach((year, totals) -> {
+            Map.Entry<String, Double> topCategory = dataset.topCategoryByYear().get(year);
+            result.add(YearlyComparisonData.builder()
+                    .year(year)
+                    .totalAmount(totals.amount())
+                    .transactionCount(totals.count())
+                    .averageMonthlySpend(totals.amount() / 12.0)
+                    .topCategory(topCategory != null ? topCategory.getKey() : null)
+                    .topCategoryAmount(topCategory != null ? topCategory.getValue() : 0)
                     .build());
-
-            data.setTotalAmount(data.getTotalAmount() + expense.getAmount());
-            data.setTransactionCount(data.getTransactionCount() + 1);
-            yearCategoryTotals.computeIfAbsent(year, y -> new HashMap<>())
-                    .merge(expense.getCategory(), expense.getAmount(), Double::sum);
-        }
-        List<YearlyComparisonData> result = new ArrayList<>(yearlyMap.values());
-        for (int i = 0; i < result.size(); i++) {
+        });
+        for (int i = 1; i < result.size(); i++) {
             YearlyComparisonData current = result.get(i);
-            current.setAverageMonthlySpend(current.getTotalAmount() / 12.0);
-            Map<String, Double> catTotals = yearCategoryTotals.get(current.getYear());
-            if (catTotals != null && !catTotals.isEmpty()) {
-                Map.Entry<String, Double> topCat = catTotals.entrySet().stream()
-                        .max(Map.Entry.comparingByValue())
-                        .orElse(null);
-                if (topCat != null) {
-                    current.setTopCategory(topCat.getKey());
-                    current.setTopCategoryAmount(topCat.getValue());
-                }
-            }
-
-            if (i > 0) {
-                YearlyComparisonData previous = result.get(i - 1);
-                double change = current.getTotalAmount() - previous.getTotalAmount();
-                double changePercent = previous.getTotalAmount() > 0 ? (change / previous.getTotalAmount()) * 100 : 0;
-                current.setChangeFromPreviousYear(change);
-                current.setChangePercent(changePercent);
-            }
+            YearlyComparisonData previous = result.get(i - 1);
+            double change = current.getTotalAmount() - previous.getTotalAmount();
+            double changePercent = previous.getTotalAmount() > 0 ? (change / previous.getTotalAmount()) * 100 : 0;
+            current.setChangeFromPreviousYear(change);
+            current.setChangePercent(changePercent);
         }
 
         return result;
     }
 
-    private List<TopExpenseData> buildTopExpenses(Map<String, Object> expenseData) {
-        List<ExpenseRow> expenses = buildExpenseRows(expenseData);
-        return expenses.stream()
-                .sorted((a, b) -> Double.compare(b.getAmount(), a.getAmount()))
-                .limit(10)
+    private List<TopExpenseData> buildTopExpenses(ReportDataset dataset) {
+        return dataset.topExpenses().stream()
                 .map(expense -> TopExpenseData.builder()
                         .id(expense.getId())
                         .name(expense.getName())
@@ -534,40 +457,17 @@ public class VisualReportService {
                 .collect(Collectors.toList());
     }
 
-    private ExpenseVelocityData buildExpenseVelocity(Map<String, Object> expenseData) {
-        List<ExpenseRow> expenses = buildExpenseRows(expenseData);
-        LocalDate today = LocalDate.now();
-
-        double last7Days = 0, last30Days = 0, prev7Days = 0, prev30Days = 0;
-        double totalAmount = 0;
-        int totalDays = 0;
-
-        if (!expenses.isEmpty()) {
-            LocalDate earliest = expenses.stream()
-                    .map(ExpenseRow::getDate)
-                    .min(LocalDate::compareTo)
-                    .orElse(today);
-            totalDays = (int) java.time.temporal.ChronoUnit.DAYS.between(earliest, today) + 1;
-
-            for (ExpenseRow expense : expenses) {
-                LocalDate date = expense.getDate();
-                long daysAgo = java.time.temporal.ChronoUnit.DAYS.between(date, today);
-
-                totalAmount += expense.getAmount();
-
-                if (daysAgo <= 7)
-                    last7Days += expense.getAmount();
-                else if (daysAgo <= 14)
-                    prev7Days += expense.getAmount();
-
-                if (daysAgo <= 30)
-                    last30Days += expense.getAmount();
-                else if (daysAgo <= 60)
-                    prev30Days += expense.getAmount();
-            }
-        }
-
-        double dailyAvg = totalDays > 0 ? totalAmount / totalDays : 0;
+    private ExpenseVelocityData buildExpenseVelocity(ReportDataset dataset) {
+        ReportDataset.Velocity windows = dataset.velocity();
+        double last7Days = windows.last7Days();
+        double last30Days = windows.last30Days();
+        double prev7Days = windows.previous7Days();
+        double prev30Days = windows.previous30Days();
+        int totalDays = dataset.earliestDate() != null
+                ? (int) java.time.temporal.ChronoUnit.DAYS.between(dataset.earliestDate(), LocalDate.now()) + 1
+                : 0;
+
+        double dailyAvg = totalDays > 0 ? dataset.totalAmount() / totalDays : 0;
         double weeklyAvg = dailyAvg * 7;
         double monthlyAvg = dailyAvg * 30;
 
@@ -26,6 +26,10 @@ public class VisualReportGenerator {
         log.info("VisualReportGenerator initialized with {} sheet creators", sheetCreators.size());
     }
 
+    /**
+     * Writes the sheets one after another on the calling thread, as POI workbooks are not thread-safe.
+     * Everything the sheets need is expected to be prepared in {@code data} beforehand.
+     */
     public ByteArrayInputStream generateReport(ReportData data,
             boolean includeCharts,
             boolean includeFormulas,
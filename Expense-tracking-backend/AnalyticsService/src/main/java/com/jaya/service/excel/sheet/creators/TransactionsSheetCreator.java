@@ -56,8 +56,7 @@ public class TransactionsSheetCreator extends AbstractSheetCreator {
             applyConditionalFormatting(context, sheet, expenses.size());
         }
         sheet.setAutoFilter(new CellRangeAddress(0, expenses.size(), 0, HEADERS.length - 1));
-
-        autoSizeColumns(sheet, HEADERS.length);
+        // Headers sit in row 0, so configureSheet already autosizes every column
         return rowIdx;
     }
 
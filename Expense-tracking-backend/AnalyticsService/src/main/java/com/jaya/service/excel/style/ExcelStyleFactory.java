@@ -6,6 +6,15 @@ import org.apache.poi.xssf.usermodel.XSSFColor;
 import org.apache.poi.xssf.usermodel.XSSFFont;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Creates each cell style once per workbook and hands the same instance to every cell that uses it,
+ * so callers must not modify a returned style. Not thread-safe: it belongs to the thread writing the workbook.
+ */
 public class ExcelStyleFactory {
     public static final byte[] COLOR_GREEN = new byte[] { (byte) 0, (byte) 176, (byte) 80 };
     public static final byte[] COLOR_YELLOW = new byte[] { (byte) 255, (byte) 192, (byte) 0 };
@@ -21,12 +30,21 @@ public class ExcelStyleFactory {
     public static final byte[] COLOR_ACCENT = new byte[] { (byte) 128, (byte) 100, (byte) 162 };
 
     private final XSSFWorkbook workbook;
+    private final Map<String, XSSFCellStyle> styles = new HashMap<>();
 
     public ExcelStyleFactory(XSSFWorkbook workbook) {
         this.workbook = workbook;
     }
 
+    private XSSFCellStyle cached(String key, Supplier<XSSFCellStyle> factory) {
+        return styles.computeIfAbsent(key, k -> factory.get());
+    }
+
     public XSSFCellStyle createTitleStyle() {
+        return cached("title", this::newTitleStyle);
+    }
+
+    private XSSFCellStyle newTitleStyle() {
         XSSFCellStyle style = workbook.createCellStyle();
         XSSFFont font = workbook.createFont();
         font.setBold(true);
@@ -39,6 +57,10 @@ public class ExcelStyleFactory {
     }
 
     public XSSFCellStyle createSectionHeaderStyle() {
+        return cached("sectionHeader", this::newSectionHeaderStyle);
+    }
+
+    private XSSFCellStyle newSectionHeaderStyle() {
         XSSFCellStyle style = workbook.createCellStyle();
         XSSFFont font = workbook.createFont();
         font.setBold(true);
@@ -54,6 +76,10 @@ public class ExcelStyleFactory {
     }
 
     public XSSFCellStyle createTableHeaderStyle() {
+        return cached("tableHeader", this::newTableHeaderStyle);
+    }
+
+    private XSSFCellStyle newTableHeaderStyle() {
         XSSFCellStyle style = workbook.createCellStyle();
         XSSFFont font = workbook.createFont();
         font.setBold(true);
@@ -68,6 +94,10 @@ public class ExcelStyleFactory {
     }
 
     public XSSFCellStyle createDataStyle() {
+        return cached("data", this::newDataStyle);
+    }
+
+    private XSSFCellStyle newDataStyle() {
         XSSFCellStyle style = workbook.createCellStyle();
         style.setAlignment(HorizontalAlignment.LEFT);
         style.setVerticalAlignment(VerticalAlignment.CENTER);
@@ -76,6 +106,10 @@ public class ExcelStyleFactory {
     }
 
     public XSSFCellStyle createCurrencyStyle() {
+        return cached("currency", this::newCurrencyStyle);
+    }
+
+    private XSSFCellStyle newCurrencyStyle() {
         XSSFCellStyle style = workbook.createCellStyle();
         DataFormat format = workbook.createDataFormat();
         style.setDataFormat(format.getFormat("₹#,##0.00"));
@@ -86,6 +120,10 @@ public class ExcelStyleFactory {
     }
 
     public XSSFCellStyle createPercentageStyle() {
+        return cached("percentage", this::newPercentageStyle);
+    }
+
+    private XSSFCellStyle newPercentageStyle() {
         XSSFCellStyle style = workbook.createCellStyle();
         DataFormat format = workbook.createDataFormat();
         style.setDataFormat(format.getFormat("0.00%"));
@@ -96,6 +134,10 @@ public class ExcelStyleFactory {
     }
 
     public XSSFCellStyle createDateStyle() {
+        return cached("date", this::newDateStyle);
+    }
+
+    private XSSFCellStyle newDateStyle() {
         XSSFCellStyle style = workbook.createCellStyle();
         CreationHelper createHelper = workbook.getCreationHelper();
         style.setDataFormat(createHelper.createDataFormat().getFormat("yyyy-MM-dd"));
@@ -106,6 +148,10 @@ public class ExcelStyleFactory {
     }
 
     public XSSFCellStyle createIntegerStyle() {
+        return cached("integer", this::newIntegerStyle);
+    }
+
+    private XSSFCellStyle newIntegerStyle() {
         XSSFCellStyle style = workbook.createCellStyle();
         DataFormat format = workbook.createDataFormat();
         style.setDataFormat(format.getFormat("#,##0"));
@@ -116,6 +162,10 @@ public class ExcelStyleFactory {
     }
 
     public XSSFCellStyle createDecimalStyle() {
+        return cached("decimal", this::newDecimalStyle);
+    }
+
+    private XSSFCellStyle newDecimalStyle() {
         XSSFCellStyle style = workbook.createCellStyle();
         DataFormat format = workbook.createDataFormat();
         style.setDataFormat(format.getFormat("#,##0.00"));
@@ -126,6 +176,10 @@ public class ExcelStyleFactory {
     }
 
     public XSSFCellStyle createSuccessStyle() {
+        return cached("success", this::newSuccessStyle);
+    }
+
+    private XSSFCellStyle newSuccessStyle() {
         XSSFCellStyle style = workbook.createCellStyle();
         XSSFFont font = workbook.createFont();
         font.setBold(true);
@@ -139,6 +193,10 @@ public class ExcelStyleFactory {
     }
 
     public XSSFCellStyle createWarningStyle() {
+        return cached("warning", this::newWarningStyle);
+    }
+
+    private XSSFCellStyle newWarningStyle() {
         XSSFCellStyle style = workbook.createCellStyle();
         XSSFFont font = workbook.createFont();
         font.setBold(true);
@@ -151,6 +209,10 @@ public class ExcelStyleFactory {
     }
 
     public XSSFCellStyle createDangerStyle() {
+        return cached("danger", this::newDangerStyle);
+    }
+
+    private XSSFCellStyle newDangerStyle() {
         XSSFCellStyle style = workbook.createCellStyle();
         XSSFFont font = workbook.createFont();
         font.setBold(true);
@@ -174,6 +236,10 @@ public class ExcelStyleFactory {
     }
 
     public XSSFCellStyle createKpiLabelStyle() {
+        return cached("kpiLabel", this::newKpiLabelStyle);
+    }
+
+    private XSSFCellStyle newKpiLabelStyle() {
         XSSFCellStyle style = workbook.createCellStyle();
         XSSFFont font = workbook.createFont();
         font.setBold(true);
@@ -186,6 +252,10 @@ public class ExcelStyleFactory {
     }
 
     public XSSFCellStyle createKpiValueStyle() {
+        return cached("kpiValue", this::newKpiValueStyle);
+    }
+
+    private XSSFCellStyle newKpiValueStyle() {
         XSSFCellStyle style = workbook.createCellStyle();
         XSSFFont font = workbook.createFont();
         font.setBold(true);
@@ -198,13 +268,21 @@ public class ExcelStyleFactory {
     }
 
     public XSSFCellStyle createKpiCurrencyStyle() {
-        XSSFCellStyle style = createKpiValueStyle();
+        return cached("kpiCurrency", this::newKpiCurrencyStyle);
+    }
+
+    private XSSFCellStyle newKpiCurrencyStyle() {
+        XSSFCellStyle style = newKpiValueStyle();
         DataFormat format = workbook.createDataFormat();
         style.setDataFormat(format.getFormat("₹#,##0.00"));
         return style;
     }
 
     public XSSFCellStyle createEvenRowStyle() {
+        return cached("evenRow", this::newEvenRowStyle);
+    }
+
+    private XSSFCellStyle newEvenRowStyle() {
         XSSFCellStyle style = workbook.createCellStyle();
         style.setFillForegroundColor(new XSSFColor(COLOR_WHITE, null));
         style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
@@ -215,6 +293,10 @@ public class ExcelStyleFactory {
     }
 
     public XSSFCellStyle createOddRowStyle() {
+        return cached("oddRow", this::newOddRowStyle);
+    }
+
+    private XSSFCellStyle newOddRowStyle() {
         XSSFCellStyle style = workbook.createCellStyle();
         style.setFillForegroundColor(new XSSFColor(COLOR_LIGHT_GRAY, null));
         style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
@@ -225,6 +307,10 @@ public class ExcelStyleFactory {
     }
 
     public XSSFCellStyle createTotalRowStyle() {
+        return cached("totalRow", this::newTotalRowStyle);
+    }
+
+    private XSSFCellStyle newTotalRowStyle() {
         XSSFCellStyle style = workbook.createCellStyle();
         XSSFFont font = workbook.createFont();
         font.setBold(true);
@@ -241,7 +327,11 @@ public class ExcelStyleFactory {
     }
 
     public XSSFCellStyle createTotalCurrencyStyle() {
-        XSSFCellStyle style = createTotalRowStyle();
+        return cached("totalCurrency", this::newTotalCurrencyStyle);
+    }
+
+    private XSSFCellStyle newTotalCurrencyStyle() {
+        XSSFCellStyle style = newTotalRowStyle();
         DataFormat format = workbook.createDataFormat();
         style.setDataFormat(format.getFormat("₹#,##0.00"));
         return style;
@@ -255,6 +345,10 @@ public class ExcelStyleFactory {
     }
 
     public XSSFCellStyle createColoredStyle(byte[] rgbColor) {
+        return cached("colored:" + Arrays.toString(rgbColor), () -> newColoredStyle(rgbColor));
+    }
+
+    private XSSFCellStyle newColoredStyle(byte[] rgbColor) {
         XSSFCellStyle style = workbook.createCellStyle();
         style.setFillForegroundColor(new XSSFColor(rgbColor, null));
         style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
@@ -263,6 +357,11 @@ public class ExcelStyleFactory {
     }
 
     public XSSFCellStyle cloneWithFormat(XSSFCellStyle baseStyle, String formatString) {
+        return cached("format:" + baseStyle.getIndex() + ":" + formatString,
+                () -> newStyleWithFormat(baseStyle, formatString));
+    }
+
+    private XSSFCellStyle newStyleWithFormat(XSSFCellStyle baseStyle, String formatString) {
         XSSFCellStyle newStyle = workbook.createCellStyle();
         newStyle.cloneStyleFrom(baseStyle);
         DataFormat format = workbook.createDataFormat();
@@ -0,0 +1,187 @@
+package com.jaya.service;
+
+import com.jaya.service.excel.VisualReportGenerator;
+import com.jaya.service.excel.sheet.creators.BudgetSheetCreator;
+import com.jaya.service.excel.sheet.creators.CategorySheetCreator;
+import com.jaya.service.excel.sheet.creators.DailySpendingSheetCreator;
+import com.jaya.service.excel.sheet.creators.ExpenseVelocitySheetCreator;
+import com.jaya.service.excel.sheet.creators.InsightsSheetCreator;
+import com.jaya.service.excel.sheet.creators.MonthlyTrendsSheetCreator;
+import com.jaya.service.excel.sheet.creators.PaymentMethodSheetCreator;
+import com.jaya.service.excel.sheet.creators.SummarySheetCreator;
+import com.jaya.service.excel.sheet.creators.TopExpensesSheetCreator;
+import com.jaya.service.excel.sheet.creators.TransactionsSheetCreator;
+import com.jaya.service.excel.sheet.creators.WeekdayAnalysisSheetCreator;
+import com.jaya.service.excel.sheet.creators.YearlyComparisonSheetCreator;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Full visual report for a user with 100k expenses: aggregation, parallel sheet data and the
+ * serial workbook write with all twelve sheets. The clients are mocked, so the numbers cover only
+ * this service. Wall time and peak heap are logged. The assertions are CI ceilings, not the
+ * expected values. Peak heap is the peak of the heap pools during the run, uncollected garbage
+ * included, so it is an upper bound. The former one-style-per-cell path cannot be rerun, so the
+ * style count stands in for it: that path needed a style per formatted cell and would pass
+ * Excel's 64000 limit long before 100k rows.
+ */
+class VisualReportBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(VisualReportBenchmarkTest.class);
+
+    private static final int EXPENSES = 100_000;
+    private static final int CATEGORIES = 20;
+    private static final String[] METHODS = { "cash", "creditNeedToPaid", "upi", "debit card" };
+    private static final long MAX_WALL_MS = 60_000;
+    private static final long MAX_PEAK_HEAP_BYTES = 2L * 1024 * 1024 * 1024;
+    private static final int MAX_CELL_STYLES = 500;
+
+    private final LocalDate endDate = LocalDate.of(2024, 12, 31);
+    private final LocalDate startDate = endDate.minusYears(2).plusDays(1);
+
+    private AnalyticsExpenseClient expenseClient;
+    private VisualReportService service;
+
+    @BeforeEach
+    void setUp() {
+        expenseClient = mock(AnalyticsExpenseClient.class);
+        BudgetAnalyticsClient budgetAnalyticsClient = mock(BudgetAnalyticsClient.class);
+        when(expenseClient.getExpenseSummary(anyString(), any())).thenReturn(summary());
+        when(budgetAnalyticsClient.getAllBudgetReportsForUser(anyString(), any())).thenReturn(budgets());
+
+        VisualReportGenerator generator = new VisualReportGenerator(List.of(
+                new SummarySheetCreator(), new TransactionsSheetCreator(), new CategorySheetCreator(),
+                new MonthlyTrendsSheetCreator(), new DailySpendingSheetCreator(), new BudgetSheetCreator(),
+                new PaymentMethodSheetCreator(), new WeekdayAnalysisSheetCreator(),
+                new YearlyComparisonSheetCreator(), new TopExpensesSheetCreator(),
+                new ExpenseVelocitySheetCreator(), new InsightsSheetCreator()));
+        service = new VisualReportService(expenseClient, mock(BudgetClient.class), budgetAnalyticsClient, generator);
+    }
+
+    @Test
+    void hundredThousandExpenseReport() throws Exception {
+        // Warm up class loading and the JIT on a small report first
+        stubExpenses(1_000);
+        service.generateExpenseReport("jwt", startDate, endDate, null).readAllBytes();
+
+        stubExpenses(EXPENSES);
+        System.gc();
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP && pool.isValid())
+                .toList();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+        long start = System.nanoTime();
+        ByteArrayInputStream report = service.generateExpenseReport("jwt", startDate, endDate, null);
+        long wallMs = (System.nanoTime() - start) / 1_000_000;
+        long peakHeap = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        log.info("Visual report for {} expenses: {} ms, peak heap {} MiB", EXPENSES, wallMs, peakHeap >> 20);
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(report)) {
+            assertEquals(12, workbook.getNumberOfSheets());
+            // Header row plus one row per expense
+            assertTrue(workbook.getSheet("Transactions").getLastRowNum() >= EXPENSES,
+                    "transactions sheet has " + workbook.getSheet("Transactions").getLastRowNum() + " rows");
+            assertTrue(workbook.getNumCellStyles() < MAX_CELL_STYLES,
+                    "workbook uses " + workbook.getNumCellStyles() + " cell styles");
+        }
+        assertTrue(wallMs < MAX_WALL_MS, "report took " + wallMs + " ms");
+        assertTrue(peakHeap < MAX_PEAK_HEAP_BYTES, "peak heap " + (peakHeap >> 20) + " MiB");
+    }
+
+    private void stubExpenses(int count) {
+        when(expenseClient.getAllExpensesByCategoriesDetailed(anyString(), anyString(), anyString(), anyString(), any()))
+                .thenReturn(expensesByCategory(count));
+    }
+
+    private Map<String, Object> expensesByCategory(int count) {
+        Map<String, Object> byCategory = new LinkedHashMap<>();
+        int days = (int) (endDate.toEpochDay() - startDate.toEpochDay()) + 1;
+        for (int c = 0; c < CATEGORIES; c++) {
+            List<Map<String, Object>> expenses = new ArrayList<>();
+            double total = 0;
+            for (int i = c; i < count; i += CATEGORIES) {
+                double amount = 10 + (i * 37 % 5000);
+                Map<String, Object> details = new HashMap<>();
+                details.put("expenseName", "Expense " + i);
+                details.put("amount", amount);
+                details.put("paymentMethod", METHODS[i % METHODS.length]);
+                details.put("type", "loss");
+                details.put("comments", i % 7 == 0 ? "note " + i : "");
+                details.put("creditDue", i % 4 == 1 ? amount : 0.0);
+
+                Map<String, Object> expense = new HashMap<>();
+                expense.put("id", i + 1);
+                expense.put("date", startDate.plusDays(i % days).toString());
+                expense.put("isBill", i % 50 == 0);
+                expense.put("budgetIds", i % 3 == 0 ? List.of(1 + i % 5) : List.of());
+                expense.put("expense", details);
+                expenses.add(expense);
+                total += amount;
+            }
+            Map<String, Object> category = new HashMap<>();
+            category.put("id", c + 1);
+            category.put("totalAmount", total);
+            category.put("expenseCount", expenses.size());
+            category.put("color", "#4CAF50");
+            category.put("icon", "category");
+            category.put("expenses", expenses);
+            byCategory.put("Category " + (c + 1), category);
+        }
+        return byCategory;
+    }
+
+    private Map<String, Object> summary() {
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("currentMonthLosses", 125_000.0);
+        summary.put("totalIncome", 200_000.0);
+        summary.put("netBalance", 75_000.0);
+        summary.put("avgDailySpendLast30Days", 4_100.0);
+        summary.put("transactionCount", EXPENSES);
+        summary.put("maxExpense", 5_009.0);
+        summary.put("minExpense", 10.0);
+        summary.put("topCategory", "Category 1");
+        summary.put("topCategoryAmount", 30_000.0);
+        summary.put("topPaymentMethod", "upi");
+        return summary;
+    }
+
+    private List<Map<String, Object>> budgets() {
+        List<Map<String, Object>> budgets = new ArrayList<>();
+        for (int b = 1; b <= 5; b++) {
+            Map<String, Object> budget = new HashMap<>();
+            budget.put("budgetId", b);
+            budget.put("budgetName", "Budget " + b);
+            budget.put("description", "Budget " + b);
+            budget.put("allocatedAmount", 50_000.0 * b);
+            budget.put("remainingAmount", 10_000.0 * b);
+            budget.put("expenseCount", 1_000 * b);
+            budget.put("startDate", startDate.toString());
+            budget.put("endDate", endDate.toString());
+            budget.put("isValid", true);
+            budgets.add(budget);
+        }
+        return budgets;
+    }
+}
@@ -2,6 +2,7 @@ package com.jaya.config;
 
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
@@ -12,11 +13,15 @@ import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
 import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.util.backoff.FixedBackOff;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -29,6 +34,18 @@ public class AuditKafkaConfig {
     @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
     private String bootstrapServers;
 
+    @Value("${audit.ingest.max-poll-records:5000}")
+    private int maxPollRecords;
+
+    @Value("${audit.ingest.concurrency:1}")
+    private int batchConcurrency;
+
+    @Value("${audit.ingest.retry-interval-ms:1000}")
+    private long retryIntervalMs;
+
+    @Value("${audit.ingest.retry-attempts:3}")
+    private long retryAttempts;
+
     @Bean
     @Primary
     public ProducerFactory<String, String> stringProducerFactory() {
@@ -101,13 +118,38 @@ public class AuditKafkaConfig {
         return factory;
     }
 
+    @Bean
+    public ConsumerFactory<String, Object> auditBatchConsumerFactory() {
+        Map<String, Object> props = new HashMap<>(consumerFactory().getConfigurationProperties());
+        // Larger polls so one JDBC batch covers thousands of events
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        props.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, 64 * 1024);
+        props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, 100);
+        props.put(ConsumerConfig.MAX_PARTITION_FETCH_BYTES_CONFIG, 4 * 1024 * 1024);
+        return new DefaultKafkaConsumerFactory<>(props);
+    }
+
     @Bean("auditBatchKafkaListenerContainerFactory")
     public ConcurrentKafkaListenerContainerFactory<String, Object> auditBatchKafkaListenerContainerFactory() {
         ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(consumerFactory());
+        factory.setConsumerFactory(auditBatchConsumerFactory());
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
         factory.setBatchListener(true);
-        factory.setCommonErrorHandler(new org.springframework.kafka.listener.DefaultErrorHandler());
+        factory.setConcurrency(batchConcurrency);
+        // Events that cannot be read, or still fail to store after the retries, go to <topic>.DLT
+        // instead of being skipped; unreadable ones are not retried
+        factory.setCommonErrorHandler(new DefaultErrorHandler(deadLetterRecoverer(),
+                new FixedBackOff(retryIntervalMs, retryAttempts)));
         return factory;
     }
-}
\ No newline at end of file
+
+    private DeadLetterPublishingRecoverer deadLetterRecoverer() {
+        Map<String, Object> props = new HashMap<>(stringProducerFactory().getConfigurationProperties());
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        Map<Class<?>, KafkaOperations<?, ?>> templates = new LinkedHashMap<>();
+        // Records the deserializer rejected are republished as their original bytes
+        templates.put(byte[].class, new KafkaTemplate<>(new DefaultKafkaProducerFactory<String, byte[]>(props)));
+        templates.put(Object.class, objectKafkaTemplate());
+        return new DeadLetterPublishingRecoverer(templates);
+    }
+}
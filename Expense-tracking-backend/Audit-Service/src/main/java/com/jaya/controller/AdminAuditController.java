@@ -1,5 +1,7 @@
 package com.jaya.controller;
 
+import com.jaya.dto.AuditLogCursor;
+import com.jaya.dto.AuditLogPage;
 import com.jaya.models.AuditExpense;
 import com.jaya.service.AuditExpenseService;
 import lombok.RequiredArgsConstructor;
@@ -21,6 +23,8 @@ import java.util.Map;
 @Slf4j
 public class AdminAuditController {
 
+    private static final int MAX_KEYSET_PAGE_SIZE = 100;
+
     private final AuditExpenseService auditExpenseService;
 
     @GetMapping
@@ -29,14 +33,27 @@ public class AdminAuditController {
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(required = false) String search,
             @RequestParam(required = false) String actionType,
-            @RequestParam(defaultValue = "7d") String timeRange) {
+            @RequestParam(defaultValue = "7d") String timeRange,
+            @RequestParam(required = false) String cursor) {
 
         try {
+            LocalDateTime since = calculateTimeSince(timeRange);
+
+            // Keyset mode: pass cursor= (empty) for the first page, then the returned nextCursor
+            if (cursor != null) {
+                try {
+                    return ResponseEntity.ok(getAuditLogsAfter(search, actionType, since, cursor, size));
+                } catch (IllegalArgumentException e) {
+                    Map<String, Object> errorResponse = new HashMap<>();
+                    errorResponse.put("error", "Invalid cursor");
+                    errorResponse.put("message", e.getMessage());
+                    return ResponseEntity.badRequest().body(errorResponse);
+                }
+            }
+
             Pageable pageable = PageRequest.of(page, size);
             Page<AuditExpense> auditPage;
 
-            LocalDateTime since = calculateTimeSince(timeRange);
-
             if (search != null && !search.isEmpty()) {
                 if (actionType != null && !actionType.equals("all")) {
                     auditPage = auditExpenseService.searchAuditLogsByType(search, actionType, pageable);
@@ -94,9 +111,15 @@ public class AdminAuditController {
                 statsByType.put(type, count);
             }
 
+            Map<String, Long> statsByEntityType = new HashMap<>();
+            for (Object[] stat : auditExpenseService.getEntityTypeStatistics(since)) {
+                statsByEntityType.put((String) stat[0], (Long) stat[1]);
+            }
+
             Map<String, Object> response = new HashMap<>();
             response.put("totalLogs", totalLogs);
             response.put("statsByType", statsByType);
+            response.put("statsByEntityType", statsByEntityType);
             response.put("timeRange", timeRange);
             response.put("since", since.toString());
 
@@ -172,6 +195,23 @@ public class AdminAuditController {
         }
     }
 
+    private Map<String, Object> getAuditLogsAfter(String search, String actionType, LocalDateTime since,
+            String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_KEYSET_PAGE_SIZE));
+        String type = actionType != null && !actionType.equals("all") ? actionType : null;
+        AuditLogCursor position = AuditLogCursor.parse(cursor);
+
+        AuditLogPage auditPage = search != null && !search.isEmpty()
+                ? auditExpenseService.searchAuditLogsAfter(search, type, since, position, limit)
+                : auditExpenseService.getAuditLogsAfter(type, since, position, limit);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("content", auditPage.getContent());
+        response.put("nextCursor", auditPage.getNextCursor());
+        response.put("size", limit);
+        return response;
+    }
+
     private LocalDateTime calculateTimeSince(String timeRange) {
         if (timeRange == null) {
             return null;
@@ -0,0 +1,35 @@
+package com.jaya.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Keyset position in the audit log, ordered by (timestamp, id) descending. Serialized as
+ * {@code <iso-timestamp>_<id>}; the next page holds rows strictly older than the cursor.
+ */
+public record AuditLogCursor(LocalDateTime timestamp, Long id) {
+
+    // Sorts after every stored row, used for the first page
+    public static final AuditLogCursor START = new AuditLogCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59),
+            Long.MAX_VALUE);
+
+    public static AuditLogCursor parse(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return START;
+        }
+        int separator = cursor.lastIndexOf('_');
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Malformed audit log cursor: " + cursor);
+        }
+        try {
+            return new AuditLogCursor(LocalDateTime.parse(cursor.substring(0, separator)),
+                    Long.parseLong(cursor.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed audit log cursor: " + cursor, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return timestamp + "_" + id;
+    }
+}
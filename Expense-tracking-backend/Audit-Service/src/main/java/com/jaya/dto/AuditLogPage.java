@@ -0,0 +1,17 @@
+package com.jaya.dto;
+
+import com.jaya.models.AuditExpense;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditLogPage {
+    private List<AuditExpense> content;
+    // Null on the last page
+    private String nextCursor;
+}
@@ -7,9 +7,13 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.converter.ConversionException;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -20,38 +24,56 @@ public class AuditEventConsumer {
     private final AuditExpenseService auditService;
     private final ObjectMapper objectMapper;
 
-    @KafkaListener(topics = "${audit.kafka.topic:audit-events}", groupId = "${audit.kafka.consumer.group-id:audit-service-group}", containerFactory = "auditKafkaListenerContainerFactory")
-    public void consumeAuditEvent(ConsumerRecord<String, Object> record, Acknowledgment acknowledgment) {
-        String topic = record.topic();
-        long offset = record.offset();
-        Object payload = record.value();
+    @KafkaListener(topics = "${audit.kafka.topic:audit-events}", groupId = "${audit.kafka.consumer.group-id:audit-service-group}", containerFactory = "auditBatchKafkaListenerContainerFactory")
+    public void consumeAuditEvents(List<ConsumerRecord<String, Object>> records, Acknowledgment acknowledgment) {
+        long start = System.currentTimeMillis();
+        List<AuditEvent> auditEvents = new ArrayList<>(records.size());
 
+        for (ConsumerRecord<String, Object> record : records) {
+            try {
+                auditEvents.add(toAuditEvent(record));
+            } catch (ConversionException e) {
+                // Store the events before it, then the error handler dead-letters this record
+                // without retrying and redelivers the ones after it
+                log.error("Unreadable audit event at {}-{}@{}: {}", record.topic(), record.partition(),
+                        record.offset(), e.getMessage());
+                store(auditEvents);
+                throw new BatchListenerFailedException("Unreadable audit event", e, record);
+            }
+        }
+
+        int written = store(auditEvents);
+        acknowledgment.acknowledge();
+        log.info("Stored {} of {} audit events from topic {} (offsets {}-{}) in {} ms",
+                written, records.size(), records.get(0).topic(), records.get(0).offset(),
+                records.get(records.size() - 1).offset(), System.currentTimeMillis() - start);
+    }
+
+    private int store(List<AuditEvent> auditEvents) {
+        try {
+            return auditEvents.isEmpty() ? 0 : auditService.processAuditEvents(auditEvents);
+        } catch (Exception e) {
+            // Not acknowledged: the error handler re-seeks and the batch is redelivered
+            log.error("Error storing audit batch of {} events: {}", auditEvents.size(), e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    private AuditEvent toAuditEvent(ConsumerRecord<String, Object> record) {
+        Object payload = record.value();
         try {
-            AuditEvent auditEvent;
             if (payload instanceof AuditEvent) {
-                auditEvent = (AuditEvent) payload;
+                return (AuditEvent) payload;
             } else if (payload instanceof Map) {
-                auditEvent = objectMapper.convertValue(payload, AuditEvent.class);
+                return objectMapper.convertValue(payload, AuditEvent.class);
             } else if (payload instanceof String) {
-                auditEvent = objectMapper.readValue((String) payload, AuditEvent.class);
-            } else {
-                log.error("Unknown payload type: {} - value: {}", payload.getClass().getName(), payload);
-                acknowledgment.acknowledge();
-                return;
+                return objectMapper.readValue((String) payload, AuditEvent.class);
             }
-
-            log.info("Received audit event from topic: {}, offset: {}, correlationId: {}",
-                    topic, offset, auditEvent.getCorrelationId());
-
-            auditService.processAuditEvent(auditEvent);
-
-            acknowledgment.acknowledge();
-
-            log.debug("Successfully processed audit event: {}", auditEvent.getCorrelationId());
-
         } catch (Exception e) {
-            log.error("Error processing audit event at offset {}: {}", offset, e.getMessage(), e);
-            acknowledgment.acknowledge();
+            throw new ConversionException("Cannot convert audit event: " + e.getMessage(), e);
         }
+        // A null value is a record the deserializer already rejected
+        throw new ConversionException("Unsupported audit payload type: "
+                + (payload != null ? payload.getClass().getName() : "null"), null);
     }
-}
\ No newline at end of file
+}
@@ -6,18 +6,24 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.jaya.models.AuditEvent;
 import com.jaya.models.AuditExpense;
 import com.jaya.repository.AuditExpenseRepository;
+import com.jaya.service.AuditSearchIndexService;
+import com.jaya.service.AuditStatisticsService;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 public class KafkaConsumerService {
 
     private static final Logger logger = LoggerFactory.getLogger(KafkaConsumerService.class);
     private final AuditExpenseRepository auditExpenseRepository;
+    private final AuditSearchIndexService searchIndexService;
+    private final AuditStatisticsService statisticsService;
     private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
 
     @KafkaListener(topics = "audit-topic", groupId = "audit-group")
@@ -35,7 +41,9 @@ public class KafkaConsumerService {
             auditExpense.setTimestamp(auditEvent.getTimestamp());
             auditExpense.setIpAddress(auditEvent.getIpAddress());
 
-            auditExpenseRepository.save(auditExpense);
+            AuditExpense saved = auditExpenseRepository.save(auditExpense);
+            searchIndexService.index(List.of(saved));
+            statisticsService.record(List.of(saved));
 
             logger.info("Successfully saved audit event: {}", auditExpense);
         } catch (JsonProcessingException e) {
@@ -0,0 +1,60 @@
+package com.jaya.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of the query index backfill over rows stored before the search index and hourly
+ * rollups existed. Created on the first run, when {@code indexTargetId} and
+ * {@code rolledUpFrom} fix the rows and hours that ingest has not covered; the backfill then
+ * moves {@code indexedThroughId} up to the target and {@code rolledUpFrom} back to
+ * {@code rollupFloor}, saving after every step so a restart resumes where it stopped.
+ */
+@Entity
+@Table(name = "audit_backfill_checkpoints")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditBackfillCheckpoint {
+
+    public static final String QUERY_INDEX = "query-index";
+
+    @Id
+    @Column(name = "name", length = 50)
+    private String name;
+
+    /** Highest audit id that existed when the backfill started; later rows are indexed on ingest. */
+    @Column(name = "index_target_id", nullable = false)
+    private Long indexTargetId;
+
+    @Column(name = "indexed_through_id", nullable = false)
+    private Long indexedThroughId;
+
+    /** Start of the hour of the oldest audit row, or null when there were none. */
+    @Column(name = "rollup_floor")
+    private LocalDateTime rollupFloor;
+
+    /** Hourly rollups are complete from this hour on. */
+    @Column(name = "rolled_up_from", nullable = false)
+    private LocalDateTime rolledUpFrom;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public boolean isIndexComplete() {
+        return indexedThroughId >= indexTargetId;
+    }
+
+    public boolean isRollupComplete() {
+        return rollupFloor == null || !rolledUpFrom.isAfter(rollupFloor);
+    }
+}
@@ -21,7 +21,8 @@ import java.time.LocalDateTime;
         @Index(name = "idx_action_type", columnList = "actionType"),
         @Index(name = "idx_timestamp", columnList = "timestamp"),
         @Index(name = "idx_correlation_id", columnList = "correlationId"),
-        @Index(name = "idx_user_entity", columnList = "userId, entityId, entityType")
+        @Index(name = "idx_user_entity", columnList = "userId, entityId, entityType"),
+        @Index(name = "idx_action_timestamp", columnList = "actionType, timestamp")
 })
 @Data
 @NoArgsConstructor
@@ -92,7 +93,8 @@ public class AuditExpense {
     @Column(name = "session_id", length = 100)
     private String sessionId;
 
-    @Column(name = "correlation_id", length = 100, unique = true)
+    // Unique together with timestamp (uk_audit_correlation_ts); see AuditPartitionManager
+    @Column(name = "correlation_id", length = 100)
     private String correlationId;
 
     @Column(name = "request_id", length = 100)
@@ -0,0 +1,49 @@
+package com.jaya.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Audit event counts per hour and (actionType, entityType, serviceName), incremented by the
+ * ingest path so dashboard statistics never re-aggregate audit_expenses.
+ * {@code serviceName} is stored as an empty string when the event carried none, keeping the
+ * unique key usable for upserts.
+ */
+@Entity
+@Table(name = "audit_hourly_rollups", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_rollup_bucket", columnNames = { "bucket_start", "action_type", "entity_type",
+                "service_name" })
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditHourlyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "action_type", length = 50, nullable = false)
+    private String actionType;
+
+    @Column(name = "entity_type", length = 50, nullable = false)
+    private String entityType;
+
+    @Column(name = "service_name", length = 100, nullable = false)
+    private String serviceName;
+
+    @Column(name = "event_count", nullable = false)
+    private Long eventCount;
+
+    @Column(name = "failure_count", nullable = false)
+    private Long failureCount;
+}
@@ -0,0 +1,52 @@
+package com.jaya.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * One posting of the audit search index: {@code token} occurs in the action, entity, user or
+ * details fields of audit row {@code auditId}. The primary key keeps each token's postings
+ * ordered by (timestamp, id), so a search pages newest-first straight off the index.
+ * Written and queried through {@link com.jaya.repository.AuditSearchIndexRepository}.
+ */
+@Entity
+@Table(name = "audit_search_tokens", indexes = {
+        @Index(name = "idx_ast_token_action", columnList = "token, action_type, audit_timestamp, audit_id"),
+        @Index(name = "idx_ast_audit", columnList = "audit_id, audit_timestamp, token"),
+        @Index(name = "idx_ast_timestamp", columnList = "audit_timestamp")
+})
+@IdClass(AuditSearchToken.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditSearchToken {
+
+    @Id
+    @Column(name = "token", length = 64, nullable = false)
+    private String token;
+
+    @Id
+    @Column(name = "audit_timestamp", nullable = false)
+    private LocalDateTime auditTimestamp;
+
+    @Id
+    @Column(name = "audit_id", nullable = false)
+    private Long auditId;
+
+    @Column(name = "action_type", length = 50, nullable = false)
+    private String actionType;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String token;
+        private LocalDateTime auditTimestamp;
+        private Long auditId;
+    }
+}
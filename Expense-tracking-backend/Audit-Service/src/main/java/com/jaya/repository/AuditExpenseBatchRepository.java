@@ -0,0 +1,143 @@
+package com.jaya.repository;
+
+import com.jaya.models.AuditExpense;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Multi-row audit insert. JPA cannot batch these (IDENTITY ids force one round trip
+ * per row), so ingestion goes through a single JDBC batch; with
+ * rewriteBatchedStatements the driver sends it as a few multi-row INSERTs and still
+ * returns the generated ids, which the search index and rollups need.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AuditExpenseBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO audit_expenses ("
+            + "user_id, username, user_role, entity_id, entity_type, action_type, details, description, "
+            + "old_values, new_values, timestamp, created_at, updated_at, created_by, last_updated_by, "
+            + "ip_address, user_agent, session_id, correlation_id, request_id, service_name, service_version, "
+            + "environment, status, error_message, response_code, source, method, endpoint, execution_time_ms, "
+            + "expense_id, user_audit_index, expense_audit_index"
+            + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts the rows and sets their generated ids. A row violating uk_audit_correlation_ts
+     * fails the whole batch with a DuplicateKeyException.
+     */
+    public void insertBatch(List<AuditExpense> audits) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        bind(ps, audits.get(i));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return audits.size();
+                    }
+                }, keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < audits.size() && i < keys.size(); i++) {
+            Object key = keys.get(i).values().iterator().next();
+            audits.get(i).setId(((Number) key).longValue());
+        }
+    }
+
+    /**
+     * Correlation ids among {@code correlationIds} already stored with a timestamp in
+     * [from, to]; the time bounds let MySQL prune to the partitions a redelivery can hit.
+     */
+    public Set<String> findExistingCorrelationIds(Collection<String> correlationIds, LocalDateTime from,
+            LocalDateTime to) {
+        Set<String> existing = new HashSet<>();
+        List<String> ids = new ArrayList<>(correlationIds);
+        for (int start = 0; start < ids.size(); start += LOOKUP_CHUNK_SIZE) {
+            List<String> chunk = ids.subList(start, Math.min(start + LOOKUP_CHUNK_SIZE, ids.size()));
+            String sql = "SELECT correlation_id FROM audit_expenses WHERE timestamp BETWEEN ? AND ? "
+                    + "AND correlation_id IN (" + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+            List<Object> args = new ArrayList<>(chunk.size() + 2);
+            args.add(Timestamp.valueOf(from));
+            args.add(Timestamp.valueOf(to));
+            args.addAll(chunk);
+            existing.addAll(jdbcTemplate.queryForList(sql, String.class, args.toArray()));
+        }
+        return existing;
+    }
+
+    private void bind(PreparedStatement ps, AuditExpense audit) throws SQLException {
+        LocalDateTime now = LocalDateTime.now();
+        int i = 1;
+        setInteger(ps, i++, audit.getUserId());
+        ps.setString(i++, audit.getUsername());
+        ps.setString(i++, audit.getUserRole());
+        ps.setString(i++, audit.getEntityId());
+        ps.setString(i++, audit.getEntityType());
+        ps.setString(i++, audit.getActionType());
+        ps.setString(i++, audit.getDetails());
+        ps.setString(i++, audit.getDescription());
+        ps.setString(i++, audit.getOldValues());
+        ps.setString(i++, audit.getNewValues());
+        ps.setTimestamp(i++, Timestamp.valueOf(audit.getTimestamp() != null ? audit.getTimestamp() : now));
+        ps.setTimestamp(i++, Timestamp.valueOf(audit.getCreatedAt() != null ? audit.getCreatedAt() : now));
+        ps.setTimestamp(i++, Timestamp.valueOf(audit.getUpdatedAt() != null ? audit.getUpdatedAt() : now));
+        ps.setString(i++, audit.getCreatedBy());
+        ps.setString(i++, audit.getLastUpdatedBy());
+        ps.setString(i++, audit.getIpAddress());
+        ps.setString(i++, audit.getUserAgent());
+        ps.setString(i++, audit.getSessionId());
+        ps.setString(i++, audit.getCorrelationId());
+        ps.setString(i++, audit.getRequestId());
+        ps.setString(i++, audit.getServiceName());
+        ps.setString(i++, audit.getServiceVersion());
+        ps.setString(i++, audit.getEnvironment());
+        ps.setString(i++, audit.getStatus());
+        ps.setString(i++, audit.getErrorMessage());
+        setInteger(ps, i++, audit.getResponseCode());
+        ps.setString(i++, audit.getSource());
+        ps.setString(i++, audit.getMethod());
+        ps.setString(i++, audit.getEndpoint());
+        if (audit.getExecutionTimeMs() != null) {
+            ps.setLong(i++, audit.getExecutionTimeMs());
+        } else {
+            ps.setNull(i++, Types.BIGINT);
+        }
+        setInteger(ps, i++, audit.getExpenseId());
+        setInteger(ps, i++, audit.getUserAuditIndex());
+        setInteger(ps, i, audit.getExpenseAuditIndex());
+    }
+
+    private static void setInteger(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value != null) {
+            ps.setInt(index, value);
+        } else {
+            ps.setNull(index, Types.INTEGER);
+        }
+    }
+}
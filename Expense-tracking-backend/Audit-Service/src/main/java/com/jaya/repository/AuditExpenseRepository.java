@@ -108,4 +108,44 @@ public interface AuditExpenseRepository extends JpaRepository<AuditExpense, Long
 
         @Query("SELECT COUNT(ae) FROM AuditExpense ae WHERE ae.actionType = :actionType AND ae.timestamp >= :since")
         Long countByActionTypeSince(@Param("actionType") String actionType, @Param("since") LocalDateTime since);
+
+        @Query("SELECT ae.actionType, COUNT(ae) FROM AuditExpense ae WHERE ae.timestamp >= :from AND ae.timestamp < :to GROUP BY ae.actionType")
+        List<Object[]> getActionTypeStatisticsBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+        @Query("SELECT ae.entityType, COUNT(ae) FROM AuditExpense ae WHERE ae.timestamp >= :from AND ae.timestamp < :to GROUP BY ae.entityType")
+        List<Object[]> getEntityTypeStatisticsBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+        @Query("SELECT COUNT(ae) FROM AuditExpense ae WHERE ae.timestamp >= :from AND ae.timestamp < :to")
+        Long countAuditLogsBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+        @Query("SELECT COUNT(ae) FROM AuditExpense ae WHERE ae.actionType = :actionType AND ae.timestamp >= :from AND ae.timestamp < :to")
+        Long countByActionTypeBetween(@Param("actionType") String actionType, @Param("from") LocalDateTime from,
+                        @Param("to") LocalDateTime to);
+
+        // Keyset pages: rows strictly before (beforeTimestamp, beforeId), newest first
+
+        @Query("SELECT ae FROM AuditExpense ae WHERE ae.timestamp >= :since AND " +
+                        "(ae.timestamp < :beforeTimestamp OR (ae.timestamp = :beforeTimestamp AND ae.id < :beforeId)) " +
+                        "ORDER BY ae.timestamp DESC, ae.id DESC")
+        List<AuditExpense> findPageBefore(@Param("since") LocalDateTime since,
+                        @Param("beforeTimestamp") LocalDateTime beforeTimestamp, @Param("beforeId") Long beforeId,
+                        Pageable pageable);
+
+        @Query("SELECT ae FROM AuditExpense ae WHERE ae.actionType = :actionType AND ae.timestamp >= :since AND " +
+                        "(ae.timestamp < :beforeTimestamp OR (ae.timestamp = :beforeTimestamp AND ae.id < :beforeId)) " +
+                        "ORDER BY ae.timestamp DESC, ae.id DESC")
+        List<AuditExpense> findPageBeforeByActionType(@Param("actionType") String actionType,
+                        @Param("since") LocalDateTime since, @Param("beforeTimestamp") LocalDateTime beforeTimestamp,
+                        @Param("beforeId") Long beforeId, Pageable pageable);
+
+        List<AuditExpense> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+        List<AuditExpense> findByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(Long afterId, Long maxId,
+                        Pageable pageable);
+
+        @Query("SELECT COALESCE(MAX(ae.id), 0) FROM AuditExpense ae")
+        Long findMaxId();
+
+        @Query("SELECT MIN(ae.timestamp) FROM AuditExpense ae")
+        LocalDateTime findOldestTimestamp();
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.jaya.repository;
+
+import com.jaya.models.AuditHourlyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AuditHourlyRollupRepository extends JpaRepository<AuditHourlyRollup, Long> {
+
+        @Modifying
+        @Query(value = "INSERT INTO audit_hourly_rollups " +
+                        "(bucket_start, action_type, entity_type, service_name, event_count, failure_count) " +
+                        "VALUES (:bucketStart, :actionType, :entityType, :serviceName, :events, :failures) " +
+                        "ON DUPLICATE KEY UPDATE event_count = event_count + VALUES(event_count), " +
+                        "failure_count = failure_count + VALUES(failure_count)", nativeQuery = true)
+        int increment(@Param("bucketStart") LocalDateTime bucketStart, @Param("actionType") String actionType,
+                        @Param("entityType") String entityType, @Param("serviceName") String serviceName,
+                        @Param("events") long events, @Param("failures") long failures);
+
+        /**
+         * Recomputes the buckets in [from, to) from audit_expenses, overwriting their counts.
+         */
+        @Modifying
+        @Query(value = "INSERT INTO audit_hourly_rollups " +
+                        "(bucket_start, action_type, entity_type, service_name, event_count, failure_count) " +
+                        "SELECT DATE_FORMAT(ae.timestamp, '%Y-%m-%d %H:00:00'), ae.action_type, ae.entity_type, " +
+                        "COALESCE(ae.service_name, ''), COUNT(*), SUM(CASE WHEN ae.status = 'FAILURE' THEN 1 ELSE 0 END) " +
+                        "FROM audit_expenses ae WHERE ae.timestamp >= :from AND ae.timestamp < :to " +
+                        "GROUP BY 1, 2, 3, 4 " +
+                        "ON DUPLICATE KEY UPDATE event_count = VALUES(event_count), " +
+                        "failure_count = VALUES(failure_count)", nativeQuery = true)
+        int rebuildBuckets(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+        @Query("SELECT r.actionType, SUM(r.eventCount) FROM AuditHourlyRollup r WHERE r.bucketStart >= :from GROUP BY r.actionType")
+        List<Object[]> sumByActionTypeFrom(@Param("from") LocalDateTime from);
+
+        @Query("SELECT r.entityType, SUM(r.eventCount) FROM AuditHourlyRollup r WHERE r.bucketStart >= :from GROUP BY r.entityType")
+        List<Object[]> sumByEntityTypeFrom(@Param("from") LocalDateTime from);
+
+        @Query("SELECT COALESCE(SUM(r.eventCount), 0) FROM AuditHourlyRollup r WHERE r.bucketStart >= :from")
+        Long sumEventsFrom(@Param("from") LocalDateTime from);
+
+        @Query("SELECT COALESCE(SUM(r.eventCount), 0) FROM AuditHourlyRollup r WHERE r.actionType = :actionType AND r.bucketStart >= :from")
+        Long sumEventsByActionTypeFrom(@Param("actionType") String actionType, @Param("from") LocalDateTime from);
+
+        @Query("SELECT MIN(r.bucketStart) FROM AuditHourlyRollup r")
+        LocalDateTime findOldestBucket();
+}
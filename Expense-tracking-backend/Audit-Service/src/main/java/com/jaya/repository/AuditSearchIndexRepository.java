@@ -0,0 +1,106 @@
+package com.jaya.repository;
+
+import com.jaya.dto.AuditLogCursor;
+import com.jaya.models.AuditSearchToken;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC access to {@code audit_search_tokens}. Postings are written in one batch per ingested
+ * poll, and searches are built dynamically: the driving pattern scans the token index in
+ * (timestamp, id) order and every further pattern is an EXISTS probe on idx_ast_audit.
+ * Patterns are exact tokens or {@code prefix%} LIKE patterns.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AuditSearchIndexRepository {
+
+    // Replayed rows re-index to the same primary keys, so INSERT IGNORE keeps indexing idempotent
+    private static final String INSERT_SQL = "INSERT IGNORE INTO audit_search_tokens "
+            + "(token, audit_timestamp, audit_id, action_type) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertPostings(List<AuditSearchToken> postings) {
+        if (postings.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, postings, postings.size(), (ps, posting) -> {
+            ps.setString(1, posting.getToken());
+            ps.setTimestamp(2, Timestamp.valueOf(posting.getAuditTimestamp()));
+            ps.setLong(3, posting.getAuditId());
+            ps.setString(4, posting.getActionType());
+        });
+    }
+
+    /**
+     * Keys of audit rows matching every pattern, newest first, strictly before {@code before}.
+     */
+    public List<AuditLogCursor> findMatches(String driver, List<String> filters, String actionType,
+            LocalDateTime since, AuditLogCursor before, int offset, int limit) {
+        List<Object> args = new ArrayList<>();
+        String sql = "SELECT DISTINCT t.audit_timestamp, t.audit_id"
+                + matchClause(driver, filters, actionType, since, before, args)
+                + " ORDER BY t.audit_timestamp DESC, t.audit_id DESC LIMIT ? OFFSET ?";
+        args.add(limit);
+        args.add(offset);
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new AuditLogCursor(
+                rs.getTimestamp(1).toLocalDateTime(), rs.getLong(2)), args.toArray());
+    }
+
+    public long countMatches(String driver, List<String> filters, String actionType, LocalDateTime since) {
+        List<Object> args = new ArrayList<>();
+        String sql = "SELECT COUNT(DISTINCT t.audit_id)"
+                + matchClause(driver, filters, actionType, since, null, args);
+        Long count = jdbcTemplate.queryForObject(sql, Long.class, args.toArray());
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Deletes postings of audit rows older than {@code cutoff} in chunks.
+     *
+     * @return number of postings removed
+     */
+    public long deletePostingsBefore(LocalDateTime cutoff, int chunkSize) {
+        long removed = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update("DELETE FROM audit_search_tokens WHERE audit_timestamp < ? LIMIT ?",
+                    Timestamp.valueOf(cutoff), chunkSize);
+            removed += deleted;
+        } while (deleted == chunkSize);
+        return removed;
+    }
+
+    private static String matchClause(String driver, List<String> filters, String actionType,
+            LocalDateTime since, AuditLogCursor before, List<Object> args) {
+        StringBuilder sql = new StringBuilder(" FROM audit_search_tokens t WHERE t.token LIKE ?");
+        args.add(driver);
+        if (actionType != null) {
+            sql.append(" AND t.action_type = ?");
+            args.add(actionType);
+        }
+        if (since != null) {
+            sql.append(" AND t.audit_timestamp >= ?");
+            args.add(Timestamp.valueOf(since));
+        }
+        if (before != null) {
+            sql.append(" AND (t.audit_timestamp < ? OR (t.audit_timestamp = ? AND t.audit_id < ?))");
+            args.add(Timestamp.valueOf(before.timestamp()));
+            args.add(Timestamp.valueOf(before.timestamp()));
+            args.add(before.id());
+        }
+        for (String filter : filters) {
+            sql.append(" AND EXISTS (SELECT 1 FROM audit_search_tokens o WHERE o.audit_id = t.audit_id"
+                    + " AND o.audit_timestamp = t.audit_timestamp AND o.token LIKE ?)");
+            args.add(filter);
+        }
+        return sql.toString();
+    }
+}
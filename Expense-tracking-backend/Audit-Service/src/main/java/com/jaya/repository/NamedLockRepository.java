@@ -0,0 +1,42 @@
+package com.jaya.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Repository;
+
+/**
+ * MySQL named locks for jobs that every instance schedules but only one should run. The lock
+ * belongs to the connection that took it and goes away with it, so a crashed holder never
+ * blocks the others and a long run needs no renewal.
+ */
+@Repository
+@RequiredArgsConstructor
+public class NamedLockRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Runs {@code work} while holding lock {@code name}. The lock connection is kept for the whole
+     * run while the statements of {@code work} go through the pool as usual.
+     *
+     * @return false, without running {@code work}, when another connection holds the lock
+     */
+    public boolean runExclusively(String name, Runnable work) {
+        Boolean ran = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            JdbcTemplate lockConnection = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+            Integer acquired = lockConnection.queryForObject("SELECT GET_LOCK(?, 0)", Integer.class, name);
+            if (acquired == null || acquired != 1) {
+                return false;
+            }
+            try {
+                work.run();
+            } finally {
+                lockConnection.queryForObject("SELECT RELEASE_LOCK(?)", Integer.class, name);
+            }
+            return true;
+        });
+        return Boolean.TRUE.equals(ran);
+    }
+}
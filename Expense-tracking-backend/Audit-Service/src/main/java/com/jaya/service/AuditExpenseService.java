@@ -1,27 +1,43 @@
 package com.jaya.service;
 
+import com.jaya.dto.AuditLogCursor;
+import com.jaya.dto.AuditLogPage;
 import com.jaya.models.AuditEvent;
 import com.jaya.models.AuditExpense;
+import com.jaya.repository.AuditExpenseBatchRepository;
 import com.jaya.repository.AuditExpenseRepository;
 import com.jaya.mapper.AuditMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AuditExpenseService {
 
+    private static final LocalDateTime KEYSET_FLOOR = LocalDateTime.of(1970, 1, 1, 0, 0);
+
     private final AuditExpenseRepository auditExpenseRepository;
+    private final AuditExpenseBatchRepository auditExpenseBatchRepository;
     private final AuditMapper auditMapper;
+    private final AuditSearchIndexService searchIndexService;
+    private final AuditStatisticsService statisticsService;
+    private final TransactionTemplate transactionTemplate;
 
     @Transactional
     public AuditExpense processAuditEvent(AuditEvent auditEvent) {
@@ -34,6 +50,8 @@ public class AuditExpenseService {
 
             AuditExpense savedAudit = auditExpenseRepository.save(auditExpense);
 
+            searchIndexService.index(List.of(savedAudit));
+            statisticsService.record(List.of(savedAudit));
             processAdditionalAuditLogic(savedAudit);
 
             log.debug("Successfully processed and saved audit event: {}", auditEvent.getCorrelationId());
@@ -45,6 +63,96 @@ public class AuditExpenseService {
         }
     }
 
+    /**
+     * Maps and stores one poll's worth of audit events with a single JDBC batch, then adds
+     * the stored rows to the search index and hourly rollups in the same transaction.
+     * Events missing required columns are dropped and redelivered events (correlation id
+     * already stored) are skipped. If the batch fails its transaction rolls back as a whole
+     * and each row is retried in a transaction of its own, so a single bad event cannot
+     * block the rest; since nothing of the failed batch survives, a duplicate in the retry
+     * is an event another delivery already stored and indexed.
+     *
+     * @return number of events written
+     */
+    public int processAuditEvents(List<AuditEvent> auditEvents) {
+        LocalDateTime now = LocalDateTime.now();
+        List<AuditExpense> audits = new ArrayList<>(auditEvents.size());
+        for (AuditEvent auditEvent : auditEvents) {
+            AuditExpense auditExpense = auditMapper.toAuditExpense(auditEvent);
+            if (auditExpense.getUserId() == null || auditExpense.getEntityId() == null
+                    || auditExpense.getEntityType() == null || auditExpense.getActionType() == null) {
+                log.warn("Skipping audit event with missing required fields: {}", auditEvent.getCorrelationId());
+                continue;
+            }
+            if (auditExpense.getTimestamp() == null) {
+                auditExpense.setTimestamp(now);
+            }
+            audits.add(auditExpense);
+        }
+        audits = withoutRedeliveries(audits);
+        if (audits.isEmpty()) {
+            return 0;
+        }
+
+        List<AuditExpense> batch = audits;
+        try {
+            return transactionTemplate.execute(status -> store(batch));
+        } catch (DataAccessException e) {
+            log.warn("Audit batch insert of {} rows failed, retrying individually: {}", audits.size(),
+                    e.getMostSpecificCause().getMessage());
+        }
+
+        int stored = 0;
+        for (AuditExpense audit : audits) {
+            // Ids handed out by the rolled back batch no longer exist
+            audit.setId(null);
+            try {
+                stored += transactionTemplate.execute(status -> store(List.of(audit)));
+            } catch (DuplicateKeyException duplicate) {
+                log.debug("Audit event {} already stored by another delivery", audit.getCorrelationId());
+            } catch (DataAccessException rowError) {
+                log.error("Failed to store audit event {}: {}", audit.getCorrelationId(),
+                        rowError.getMostSpecificCause().getMessage());
+            }
+        }
+        return stored;
+    }
+
+    private int store(List<AuditExpense> audits) {
+        auditExpenseBatchRepository.insertBatch(audits);
+        searchIndexService.index(audits);
+        statisticsService.record(audits);
+        audits.forEach(this::processAdditionalAuditLogic);
+        return audits.size();
+    }
+
+    private List<AuditExpense> withoutRedeliveries(List<AuditExpense> audits) {
+        Set<String> correlationIds = new HashSet<>();
+        LocalDateTime from = null;
+        LocalDateTime to = null;
+        for (AuditExpense audit : audits) {
+            if (audit.getCorrelationId() != null && correlationIds.add(audit.getCorrelationId())) {
+                from = from == null || audit.getTimestamp().isBefore(from) ? audit.getTimestamp() : from;
+                to = to == null || audit.getTimestamp().isAfter(to) ? audit.getTimestamp() : to;
+            }
+        }
+        if (correlationIds.isEmpty()) {
+            return audits;
+        }
+
+        Set<String> seen = auditExpenseBatchRepository.findExistingCorrelationIds(correlationIds, from, to);
+        List<AuditExpense> fresh = new ArrayList<>(audits.size());
+        for (AuditExpense audit : audits) {
+            if (audit.getCorrelationId() == null || seen.add(audit.getCorrelationId())) {
+                fresh.add(audit);
+            }
+        }
+        if (fresh.size() < audits.size()) {
+            log.debug("Skipped {} redelivered audit events", audits.size() - fresh.size());
+        }
+        return fresh;
+    }
+
     public List<AuditExpense> getAllAuditLogs(Integer userId) {
         return auditExpenseRepository.findByUserId(userId);
     }
@@ -113,22 +221,52 @@ public class AuditExpenseService {
     }
 
     public Page<AuditExpense> searchAuditLogs(String search, Pageable pageable) {
-        return auditExpenseRepository.searchAuditLogs(search, pageable);
+        return searchIndexService.search(search, null, pageable);
     }
 
     public Page<AuditExpense> searchAuditLogsByType(String search, String actionType, Pageable pageable) {
-        return auditExpenseRepository.searchAuditLogsByType(search, actionType, pageable);
+        return searchIndexService.search(search, actionType, pageable);
+    }
+
+    public AuditLogPage searchAuditLogsAfter(String search, String actionType, LocalDateTime since,
+            AuditLogCursor cursor, int limit) {
+        return searchIndexService.searchAfter(search, actionType, since, cursor, limit);
+    }
+
+    /**
+     * Keyset page of audit logs older than {@code cursor}, newest first.
+     *
+     * @param actionType optional filter
+     * @param since      optional lower time bound
+     */
+    public AuditLogPage getAuditLogsAfter(String actionType, LocalDateTime since, AuditLogCursor cursor, int limit) {
+        LocalDateTime from = since != null ? since : KEYSET_FLOOR;
+        Pageable page = PageRequest.of(0, limit + 1);
+        List<AuditExpense> rows = actionType != null
+                ? auditExpenseRepository.findPageBeforeByActionType(actionType, from, cursor.timestamp(), cursor.id(),
+                        page)
+                : auditExpenseRepository.findPageBefore(from, cursor.timestamp(), cursor.id(), page);
+        if (rows.size() <= limit) {
+            return new AuditLogPage(rows, null);
+        }
+        List<AuditExpense> content = rows.subList(0, limit);
+        AuditExpense last = content.get(content.size() - 1);
+        return new AuditLogPage(content, new AuditLogCursor(last.getTimestamp(), last.getId()).toString());
     }
 
     public List<Object[]> getActionTypeStatistics(LocalDateTime since) {
-        return auditExpenseRepository.getActionTypeStatisticsSince(since);
+        return statisticsService.getActionTypeStatistics(since);
+    }
+
+    public List<Object[]> getEntityTypeStatistics(LocalDateTime since) {
+        return statisticsService.getEntityTypeStatistics(since);
     }
 
     public Long countAuditLogsSince(LocalDateTime since) {
-        return auditExpenseRepository.countAuditLogsSince(since);
+        return statisticsService.countSince(since);
     }
 
     public Long countByActionTypeSince(String actionType, LocalDateTime since) {
-        return auditExpenseRepository.countByActionTypeSince(actionType, since);
+        return statisticsService.countByActionTypeSince(actionType, since);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,190 @@
+package com.jaya.service;
+
+import com.jaya.repository.AuditSearchIndexRepository;
+import com.jaya.repository.NamedLockRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps {@code audit_expenses} RANGE COLUMNS partitioned by month on {@code timestamp}.
+ *
+ * MySQL requires every unique key of a partitioned table to contain the partition
+ * column, so on first run the primary key becomes (id, timestamp) and correlation id
+ * uniqueness moves to (correlation_id, timestamp). Afterwards a daily job splits the
+ * catch-all partition so upcoming months always exist, and drops months older than
+ * {@code audit.partitions.retention-months} (0 keeps everything) together with their search
+ * postings. Hourly rollups are kept.
+ *
+ * Every instance runs these steps, so each run holds a MySQL named lock first; an instance
+ * that finds it taken leaves the work to the holder instead of issuing a second ALTER.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AuditPartitionManager implements SmartInitializingSingleton {
+
+    private static final String TABLE = "audit_expenses";
+    private static final String FUTURE_PARTITION = "p_future";
+    private static final String LOCK_NAME = "audit_expenses_partitions";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private static final int POSTING_DELETE_CHUNK = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditSearchIndexRepository searchIndexRepository;
+    private final NamedLockRepository namedLockRepository;
+
+    @Value("${audit.partitions.enabled:true}")
+    private boolean enabled;
+
+    @Value("${audit.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${audit.partitions.retention-months:0}")
+    private int retentionMonths;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            withPartitionLock(() -> {
+                if (!isPartitioned()) {
+                    partitionTable();
+                }
+                maintain();
+            });
+        } catch (Exception e) {
+            log.error("Audit partition setup failed; table stays as is: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(cron = "${audit.partitions.maintenance-cron:0 15 0 * * *}")
+    public void maintainPartitions() {
+        if (!enabled) {
+            return;
+        }
+        withPartitionLock(this::maintain);
+    }
+
+    private void maintain() {
+        if (!isPartitioned()) {
+            return;
+        }
+        addUpcomingPartitions();
+        if (retentionMonths > 0) {
+            dropExpiredPartitions();
+        }
+    }
+
+    private void withPartitionLock(Runnable work) {
+        if (!namedLockRepository.runExclusively(LOCK_NAME, work)) {
+            log.info("Audit partition maintenance is running on another instance; skipping");
+        }
+    }
+
+    private boolean isPartitioned() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.PARTITIONS WHERE TABLE_SCHEMA = DATABASE() "
+                        + "AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL",
+                Integer.class, TABLE);
+        return count != null && count > 0;
+    }
+
+    private void partitionTable() {
+        long started = System.currentTimeMillis();
+        log.info("Converting {} to monthly range partitions (one-time table rebuild)", TABLE);
+
+        // Unique keys other than the primary key that lack the partition column block partitioning
+        List<String> blockingUniqueKeys = jdbcTemplate.queryForList(
+                "SELECT INDEX_NAME FROM information_schema.STATISTICS WHERE TABLE_SCHEMA = DATABASE() "
+                        + "AND TABLE_NAME = ? AND NON_UNIQUE = 0 AND INDEX_NAME <> 'PRIMARY' "
+                        + "GROUP BY INDEX_NAME HAVING SUM(COLUMN_NAME = 'timestamp') = 0",
+                String.class, TABLE);
+        for (String index : blockingUniqueKeys) {
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP INDEX `" + index + "`");
+        }
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PRIMARY KEY, ADD PRIMARY KEY (id, timestamp)");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE
+                + " ADD UNIQUE KEY uk_audit_correlation_ts (correlation_id, timestamp)");
+
+        LocalDateTime oldest = jdbcTemplate.queryForObject("SELECT MIN(timestamp) FROM " + TABLE,
+                LocalDateTime.class);
+        YearMonth first = oldest != null ? YearMonth.from(oldest) : YearMonth.now();
+        YearMonth last = YearMonth.now().plusMonths(monthsAhead);
+
+        List<String> partitions = new ArrayList<>();
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            partitions.add(partitionDefinition(month));
+        }
+        partitions.add("PARTITION " + FUTURE_PARTITION + " VALUES LESS THAN (MAXVALUE)");
+
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " PARTITION BY RANGE COLUMNS(timestamp) ("
+                + String.join(", ", partitions) + ")");
+        log.info("Partitioned {} into {} monthly partitions in {} ms", TABLE, partitions.size() - 1,
+                System.currentTimeMillis() - started);
+    }
+
+    private void addUpcomingPartitions() {
+        YearMonth target = YearMonth.now().plusMonths(monthsAhead);
+        YearMonth newest = newestMonthlyPartition();
+        if (newest == null || !newest.isBefore(target)) {
+            return;
+        }
+        List<String> partitions = new ArrayList<>();
+        for (YearMonth month = newest.plusMonths(1); !month.isAfter(target); month = month.plusMonths(1)) {
+            partitions.add(partitionDefinition(month));
+        }
+        partitions.add("PARTITION " + FUTURE_PARTITION + " VALUES LESS THAN (MAXVALUE)");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " REORGANIZE PARTITION " + FUTURE_PARTITION
+                + " INTO (" + String.join(", ", partitions) + ")");
+        log.info("Added {} audit partitions up to {}", partitions.size() - 1, target);
+    }
+
+    private void dropExpiredPartitions() {
+        YearMonth cutoff = YearMonth.now().minusMonths(retentionMonths);
+        List<String> expired = new ArrayList<>();
+        for (String name : monthlyPartitionNames()) {
+            if (YearMonth.parse(name, PARTITION_NAME).isBefore(cutoff)) {
+                expired.add(name);
+            }
+        }
+        if (expired.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PARTITION " + String.join(", ", expired));
+        long postings = searchIndexRepository.deletePostingsBefore(cutoff.atDay(1).atStartOfDay(),
+                POSTING_DELETE_CHUNK);
+        log.info("Dropped expired audit partitions {} and {} search postings", expired, postings);
+    }
+
+    private YearMonth newestMonthlyPartition() {
+        List<String> names = monthlyPartitionNames();
+        return names.isEmpty() ? null : YearMonth.parse(names.get(names.size() - 1), PARTITION_NAME);
+    }
+
+    private List<String> monthlyPartitionNames() {
+        return jdbcTemplate.queryForList(
+                "SELECT PARTITION_NAME FROM information_schema.PARTITIONS WHERE TABLE_SCHEMA = DATABASE() "
+                        + "AND TABLE_NAME = ? AND PARTITION_NAME <> ? ORDER BY PARTITION_ORDINAL_POSITION",
+                String.class, TABLE, FUTURE_PARTITION);
+    }
+
+    private String partitionDefinition(YearMonth month) {
+        LocalDate upperBound = month.plusMonths(1).atDay(1);
+        return "PARTITION " + month.format(PARTITION_NAME) + " VALUES LESS THAN ('" + upperBound + " 00:00:00')";
+    }
+}
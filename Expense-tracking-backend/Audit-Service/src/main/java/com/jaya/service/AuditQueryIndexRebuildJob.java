@@ -0,0 +1,184 @@
+package com.jaya.service;
+
+import com.jaya.models.AuditBackfillCheckpoint;
+import com.jaya.models.AuditExpense;
+import com.jaya.repository.AuditBackfillCheckpointRepository;
+import com.jaya.repository.AuditExpenseRepository;
+import com.jaya.repository.NamedLockRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Backfills the audit search index and hourly rollups from audit_expenses, for rows stored
+ * before they existed.
+ *
+ * The backfill runs on its own after deploy. Its first run records the newest audit id and the
+ * next hour boundary in an {@link AuditBackfillCheckpoint}: rows and hours after those are
+ * covered by ingest. It then indexes the older rows by id in keyset batches, and recomputes the
+ * older hours one day at a time, newest first, each hour once and only after it has closed.
+ * The checkpoint is saved after every batch and day, so a restart or another instance resumes
+ * where the last run stopped. Each run holds a named lock and stops after
+ * {@code audit.query-index.backfill-max-run-ms}; the next scheduled run carries on. Until the
+ * rollups are complete, {@link AuditStatisticsService} counts the hours not yet rolled up from
+ * audit_expenses.
+ *
+ * Rows that instances still on the previous version store after the first run are not covered,
+ * so the first run should come after the rollout has finished.
+ *
+ * {@link #rebuild()} recomputes everything regardless of the checkpoint.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AuditQueryIndexRebuildJob {
+
+    private static final String LOCK_NAME = "audit_query_index_backfill";
+
+    private final AuditExpenseRepository auditExpenseRepository;
+    private final AuditSearchIndexService searchIndexService;
+    private final AuditStatisticsService statisticsService;
+    private final AuditBackfillCheckpointRepository checkpointRepository;
+    private final NamedLockRepository namedLockRepository;
+
+    @Value("${audit.query-index.rebuild-batch-size:1000}")
+    private int batchSize;
+
+    @Value("${audit.query-index.backfill-max-run-ms:300000}")
+    private long maxRunMs;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile boolean backfilled;
+
+    @Scheduled(initialDelayString = "${audit.query-index.backfill-initial-delay-ms:60000}",
+            fixedDelayString = "${audit.query-index.backfill-interval-ms:60000}")
+    public void backfill() {
+        if (backfilled) {
+            return;
+        }
+        try {
+            if (!namedLockRepository.runExclusively(LOCK_NAME, this::backfillStep)) {
+                log.debug("Audit query index backfill is running on another instance");
+            }
+        } catch (Exception e) {
+            // The checkpoint holds the progress so far; the next run resumes from it
+            log.error("Audit query index backfill failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void backfillStep() {
+        AuditBackfillCheckpoint checkpoint = checkpointRepository.findById(AuditBackfillCheckpoint.QUERY_INDEX)
+                .orElseGet(this::startCheckpoint);
+        if (checkpoint.getCompletedAt() != null) {
+            backfilled = true;
+            return;
+        }
+        long deadline = System.currentTimeMillis() + maxRunMs;
+
+        while (!checkpoint.isIndexComplete() && System.currentTimeMillis() < deadline) {
+            List<AuditExpense> batch = auditExpenseRepository.findByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(
+                    checkpoint.getIndexedThroughId(), checkpoint.getIndexTargetId(), PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                checkpoint.setIndexedThroughId(checkpoint.getIndexTargetId());
+            } else {
+                searchIndexService.index(batch);
+                checkpoint.setIndexedThroughId(batch.get(batch.size() - 1).getId());
+            }
+            checkpoint = save(checkpoint);
+        }
+
+        // Only closed hours: ingest may still add to the current one
+        while (!checkpoint.isRollupComplete() && !checkpoint.getRolledUpFrom().isAfter(LocalDateTime.now())
+                && System.currentTimeMillis() < deadline) {
+            LocalDateTime to = checkpoint.getRolledUpFrom();
+            LocalDateTime from = to.minusDays(1).isAfter(checkpoint.getRollupFloor()) ? to.minusDays(1)
+                    : checkpoint.getRollupFloor();
+            statisticsService.rebuild(from, to);
+            checkpoint.setRolledUpFrom(from);
+            checkpoint = save(checkpoint);
+        }
+
+        if (checkpoint.isIndexComplete() && checkpoint.isRollupComplete()) {
+            checkpoint.setCompletedAt(LocalDateTime.now());
+            save(checkpoint);
+            backfilled = true;
+            log.info("Audit query index backfill complete: rows up to id {} indexed, rollups from {}",
+                    checkpoint.getIndexTargetId(), checkpoint.getRolledUpFrom());
+        } else {
+            log.info("Audit query index backfill: indexed through id {} of {}, rollups from {} back to {}",
+                    checkpoint.getIndexedThroughId(), checkpoint.getIndexTargetId(), checkpoint.getRolledUpFrom(),
+                    checkpoint.getRollupFloor());
+        }
+    }
+
+    private AuditBackfillCheckpoint startCheckpoint() {
+        LocalDateTime oldest = auditExpenseRepository.findOldestTimestamp();
+        AuditBackfillCheckpoint checkpoint = AuditBackfillCheckpoint.builder()
+                .name(AuditBackfillCheckpoint.QUERY_INDEX)
+                .indexTargetId(auditExpenseRepository.findMaxId())
+                .indexedThroughId(0L)
+                .rollupFloor(oldest != null ? oldest.truncatedTo(ChronoUnit.HOURS) : null)
+                .rolledUpFrom(LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).plusHours(1))
+                .build();
+        log.info("Starting audit query index backfill of rows up to id {} and hours from {}",
+                checkpoint.getIndexTargetId(), checkpoint.getRollupFloor());
+        return save(checkpoint);
+    }
+
+    private AuditBackfillCheckpoint save(AuditBackfillCheckpoint checkpoint) {
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        return checkpointRepository.save(checkpoint);
+    }
+
+    /**
+     * @return number of audit rows reindexed, or -1 if a rebuild is already running
+     */
+    public int rebuild() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Audit query index rebuild already running");
+            return -1;
+        }
+        long start = System.currentTimeMillis();
+        int audits = 0;
+        try {
+            LocalDateTime oldest = null;
+            Long lastId = 0L;
+            List<AuditExpense> batch;
+            do {
+                batch = auditExpenseRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, batchSize));
+                if (batch.isEmpty()) {
+                    break;
+                }
+                searchIndexService.index(batch);
+                for (AuditExpense audit : batch) {
+                    if (audit.getTimestamp() != null && (oldest == null || audit.getTimestamp().isBefore(oldest))) {
+                        oldest = audit.getTimestamp();
+                    }
+                }
+                audits += batch.size();
+                lastId = batch.get(batch.size() - 1).getId();
+            } while (batch.size() == batchSize);
+
+            if (oldest != null) {
+                LocalDateTime end = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).plusHours(1);
+                for (LocalDateTime day = oldest.truncatedTo(ChronoUnit.DAYS); day.isBefore(end); day = day.plusDays(1)) {
+                    statisticsService.rebuild(day, day.plusDays(1).isBefore(end) ? day.plusDays(1) : end);
+                }
+            }
+
+            log.info("Rebuilt audit search index and rollups for {} rows in {}ms", audits,
+                    System.currentTimeMillis() - start);
+            return audits;
+        } finally {
+            running.set(false);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.jaya.service;
+
+import com.jaya.dto.AuditLogCursor;
+import com.jaya.dto.AuditLogPage;
+import com.jaya.models.AuditExpense;
+import com.jaya.models.AuditSearchToken;
+import com.jaya.repository.AuditExpenseRepository;
+import com.jaya.repository.AuditSearchIndexRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Token index over the action, entity, user and details fields of audit rows, replacing the
+ * multi-column {@code LIKE '%term%'} scans of the admin audit search.
+ *
+ * Rows are indexed in the ingest transaction. A query matches rows containing every word;
+ * {@code word*} is a prefix term and the last word is matched as a prefix as well, so partially
+ * typed input keeps working. Results are newest first, by offset page or by keyset cursor.
+ */
+@Service
+@RequiredArgsConstructor
+public class AuditSearchIndexService {
+
+    private static final Pattern TOKEN_SPLIT = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MAX_TOKEN_LENGTH = 64;
+    private static final int MAX_TOKENS_PER_AUDIT = 128;
+    private static final int MAX_QUERY_TERMS = 6;
+    private static final int MIN_PREFIX_LENGTH = 2;
+
+    private final AuditSearchIndexRepository searchIndexRepository;
+    private final AuditExpenseRepository auditExpenseRepository;
+
+    record QueryTerm(String text, boolean prefix) {
+        String pattern() {
+            String escaped = text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+            return prefix ? escaped + "%" : escaped;
+        }
+    }
+
+    // ---------------------------------------------------------------- indexing
+
+    /**
+     * Index stored audit rows; rows without an id are skipped.
+     */
+    @Transactional
+    public void index(List<AuditExpense> audits) {
+        List<AuditSearchToken> postings = new ArrayList<>();
+        for (AuditExpense audit : audits) {
+            if (audit.getId() == null || audit.getTimestamp() == null) {
+                continue;
+            }
+            for (String token : tokensOf(audit)) {
+                postings.add(new AuditSearchToken(token, audit.getTimestamp(), audit.getId(), audit.getActionType()));
+            }
+        }
+        searchIndexRepository.insertPostings(postings);
+    }
+
+    static Set<String> tokensOf(AuditExpense audit) {
+        Set<String> tokens = new LinkedHashSet<>();
+        addTokens(tokens, audit.getActionType());
+        addTokens(tokens, audit.getEntityType());
+        addTokens(tokens, audit.getEntityId());
+        addTokens(tokens, audit.getUsername());
+        addTokens(tokens, audit.getUserId() != null ? audit.getUserId().toString() : null);
+        addTokens(tokens, audit.getDetails());
+        return tokens;
+    }
+
+    private static void addTokens(Set<String> tokens, String text) {
+        for (String token : tokenize(text)) {
+            if (tokens.size() == MAX_TOKENS_PER_AUDIT) {
+                return;
+            }
+            tokens.add(token);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String raw : TOKEN_SPLIT.split(text.toLowerCase(Locale.ROOT))) {
+            if (!raw.isEmpty()) {
+                tokens.add(raw.length() > MAX_TOKEN_LENGTH ? raw.substring(0, MAX_TOKEN_LENGTH) : raw);
+            }
+        }
+        return tokens;
+    }
+
+    // ---------------------------------------------------------------- querying
+
+    static List<QueryTerm> parseQuery(String query) {
+        List<QueryTerm> terms = new ArrayList<>();
+        if (query == null || query.isBlank()) {
+            return terms;
+        }
+        for (String part : query.trim().split("\\s+")) {
+            boolean explicitPrefix = part.endsWith("*");
+            List<String> tokens = tokenize(part);
+            for (int i = 0; i < tokens.size() && terms.size() < MAX_QUERY_TERMS; i++) {
+                terms.add(new QueryTerm(tokens.get(i), explicitPrefix && i == tokens.size() - 1));
+            }
+        }
+        if (!terms.isEmpty()) {
+            QueryTerm last = terms.get(terms.size() - 1);
+            if (!last.prefix() && last.text().length() >= MIN_PREFIX_LENGTH) {
+                terms.set(terms.size() - 1, new QueryTerm(last.text(), true));
+            }
+        }
+        // Longer exact tokens are usually rarer, so they drive the scan
+        terms.sort(Comparator.comparing(QueryTerm::prefix).thenComparingInt(t -> -t.text().length()));
+        return terms;
+    }
+
+    @Transactional(readOnly = true)
+    public Page<AuditExpense> search(String query, String actionType, Pageable pageable) {
+        List<QueryTerm> terms = parseQuery(query);
+        if (terms.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        String driver = terms.get(0).pattern();
+        List<String> filters = filterPatterns(terms);
+        List<AuditLogCursor> keys = searchIndexRepository.findMatches(driver, filters, actionType, null,
+                null, (int) pageable.getOffset(), pageable.getPageSize());
+        // A short page already tells the total; only count when more rows may follow
+        long total = keys.size() < pageable.getPageSize() && (!keys.isEmpty() || pageable.getOffset() == 0)
+                ? pageable.getOffset() + keys.size()
+                : searchIndexRepository.countMatches(driver, filters, actionType, null);
+        return new PageImpl<>(load(keys), pageable, total);
+    }
+
+    @Transactional(readOnly = true)
+    public AuditLogPage searchAfter(String query, String actionType, LocalDateTime since,
+            AuditLogCursor cursor, int limit) {
+        List<QueryTerm> terms = parseQuery(query);
+        if (terms.isEmpty()) {
+            return new AuditLogPage(List.of(), null);
+        }
+        List<AuditLogCursor> keys = searchIndexRepository.findMatches(terms.get(0).pattern(), filterPatterns(terms),
+                actionType, since, cursor, 0, limit + 1);
+        boolean more = keys.size() > limit;
+        List<AuditLogCursor> pageKeys = more ? keys.subList(0, limit) : keys;
+        String nextCursor = more ? pageKeys.get(pageKeys.size() - 1).toString() : null;
+        return new AuditLogPage(load(pageKeys), nextCursor);
+    }
+
+    private static List<String> filterPatterns(List<QueryTerm> terms) {
+        return terms.subList(1, terms.size()).stream().map(QueryTerm::pattern).toList();
+    }
+
+    private List<AuditExpense> load(List<AuditLogCursor> keys) {
+        if (keys.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, AuditExpense> byId = auditExpenseRepository
+                .findAllById(keys.stream().map(AuditLogCursor::id).toList()).stream()
+                .collect(Collectors.toMap(AuditExpense::getId, Function.identity()));
+        List<AuditExpense> ordered = new ArrayList<>(keys.size());
+        for (AuditLogCursor key : keys) {
+            AuditExpense audit = byId.get(key.id());
+            if (audit != null) {
+                ordered.add(audit);
+            }
+        }
+        return ordered;
+    }
+}
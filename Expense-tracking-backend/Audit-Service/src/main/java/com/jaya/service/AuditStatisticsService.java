@@ -0,0 +1,152 @@
+package com.jaya.service;
+
+import com.jaya.models.AuditExpense;
+import com.jaya.models.AuditBackfillCheckpoint;
+import com.jaya.repository.AuditBackfillCheckpointRepository;
+import com.jaya.repository.AuditExpenseRepository;
+import com.jaya.repository.AuditHourlyRollupRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Dashboard statistics backed by {@code audit_hourly_rollups}.
+ *
+ * The ingest path adds each stored batch to its hourly buckets. A window starting at
+ * {@code since} is answered from the buckets from the next full hour on, plus a raw count of
+ * the partial hour between {@code since} and that boundary, so at most one hour of
+ * audit_expenses is scanned per query.
+ *
+ * Hours before the rollups existed are filled in by {@link AuditQueryIndexRebuildJob}. Until it
+ * is done, the hours it has not reached yet are counted from audit_expenses as well, so a
+ * window reaching back past the backfill is correct, only slower.
+ */
+@Service
+@RequiredArgsConstructor
+public class AuditStatisticsService {
+
+    private final AuditHourlyRollupRepository rollupRepository;
+    private final AuditExpenseRepository auditExpenseRepository;
+    private final AuditBackfillCheckpointRepository checkpointRepository;
+
+    private volatile boolean rollupsBackfilled;
+
+    private record BucketKey(LocalDateTime bucketStart, String actionType, String entityType, String serviceName) {
+    }
+
+    /**
+     * Add stored audit rows to their hourly buckets: one upsert per distinct bucket.
+     */
+    @Transactional
+    public void record(List<AuditExpense> audits) {
+        Map<BucketKey, long[]> counts = new HashMap<>();
+        for (AuditExpense audit : audits) {
+            if (audit.getTimestamp() == null) {
+                continue;
+            }
+            BucketKey key = new BucketKey(audit.getTimestamp().truncatedTo(ChronoUnit.HOURS), audit.getActionType(),
+                    audit.getEntityType(), audit.getServiceName() != null ? audit.getServiceName() : "");
+            long[] count = counts.computeIfAbsent(key, k -> new long[2]);
+            count[0]++;
+            if ("FAILURE".equals(audit.getStatus())) {
+                count[1]++;
+            }
+        }
+
+        // Fixed update order so concurrent consumers lock rollup rows in the same sequence
+        List<BucketKey> keys = new ArrayList<>(counts.keySet());
+        keys.sort(Comparator.comparing(BucketKey::bucketStart).thenComparing(BucketKey::actionType)
+                .thenComparing(BucketKey::entityType).thenComparing(BucketKey::serviceName));
+        for (BucketKey key : keys) {
+            long[] count = counts.get(key);
+            rollupRepository.increment(key.bucketStart(), key.actionType(), key.entityType(), key.serviceName(),
+                    count[0], count[1]);
+        }
+    }
+
+    /**
+     * Recompute buckets in [from, to) from audit_expenses, for rows stored before rollups existed.
+     */
+    @Transactional
+    public int rebuild(LocalDateTime from, LocalDateTime to) {
+        return rollupRepository.rebuildBuckets(from.truncatedTo(ChronoUnit.HOURS), to);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Object[]> getActionTypeStatistics(LocalDateTime since) {
+        LocalDateTime boundary = rollupsFrom(since);
+        return merge(rollupRepository.sumByActionTypeFrom(boundary),
+                auditExpenseRepository.getActionTypeStatisticsBetween(since, boundary));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Object[]> getEntityTypeStatistics(LocalDateTime since) {
+        LocalDateTime boundary = rollupsFrom(since);
+        return merge(rollupRepository.sumByEntityTypeFrom(boundary),
+                auditExpenseRepository.getEntityTypeStatisticsBetween(since, boundary));
+    }
+
+    @Transactional(readOnly = true)
+    public Long countSince(LocalDateTime since) {
+        LocalDateTime boundary = rollupsFrom(since);
+        return rollupRepository.sumEventsFrom(boundary)
+                + auditExpenseRepository.countAuditLogsBetween(since, boundary);
+    }
+
+    @Transactional(readOnly = true)
+    public Long countByActionTypeSince(String actionType, LocalDateTime since) {
+        LocalDateTime boundary = rollupsFrom(since);
+        return rollupRepository.sumEventsByActionTypeFrom(actionType, boundary)
+                + auditExpenseRepository.countByActionTypeBetween(actionType, since, boundary);
+    }
+
+    /**
+     * First hour from which the window is answered by rollups: the next full hour after
+     * {@code since}, or the oldest hour the backfill has reached if that is later.
+     */
+    private LocalDateTime rollupsFrom(LocalDateTime since) {
+        LocalDateTime boundary = nextHour(since);
+        if (rollupsBackfilled) {
+            return boundary;
+        }
+        Optional<AuditBackfillCheckpoint> checkpoint = checkpointRepository.findById(AuditBackfillCheckpoint.QUERY_INDEX);
+        if (checkpoint.isEmpty()) {
+            // The backfill has not started: no hour is known to be complete yet
+            LocalDateTime nextFullHour = nextHour(LocalDateTime.now());
+            return nextFullHour.isAfter(boundary) ? nextFullHour : boundary;
+        }
+        if (checkpoint.get().isRollupComplete()) {
+            rollupsBackfilled = true;
+            return boundary;
+        }
+        LocalDateTime rolledUpFrom = checkpoint.get().getRolledUpFrom();
+        return rolledUpFrom.isAfter(boundary) ? rolledUpFrom : boundary;
+    }
+
+    private static LocalDateTime nextHour(LocalDateTime since) {
+        LocalDateTime hour = since.truncatedTo(ChronoUnit.HOURS);
+        return hour.equals(since) ? hour : hour.plusHours(1);
+    }
+
+    private static List<Object[]> merge(List<Object[]> rollups, List<Object[]> partialHour) {
+        Map<String, Long> totals = new TreeMap<>();
+        for (List<Object[]> rows : List.of(rollups, partialHour)) {
+            for (Object[] row : rows) {
+                totals.merge((String) row[0], ((Number) row[1]).longValue(), Long::sum);
+            }
+        }
+        List<Object[]> merged = new ArrayList<>(totals.size());
+        totals.forEach((type, count) -> merged.add(new Object[] { type, count }));
+        return merged;
+    }
+}
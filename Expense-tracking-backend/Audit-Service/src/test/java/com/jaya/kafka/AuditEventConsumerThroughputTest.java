@@ -0,0 +1,229 @@
+package com.jaya.kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jaya.config.AuditKafkaConfig;
+import com.jaya.mapper.AuditMapper;
+import com.jaya.models.AuditEvent;
+import com.jaya.repository.AuditExpenseBatchRepository;
+import com.jaya.repository.AuditExpenseRepository;
+import com.jaya.service.AuditExpenseService;
+import com.jaya.service.AuditSearchIndexService;
+import com.jaya.service.AuditStatisticsService;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Drives the batch listener through an embedded broker into the real JDBC batch insert on H2 in
+ * MySQL mode. The search index and rollups are mocked.
+ *
+ * The 20k events/s target is for MySQL with rewriteBatchedStatements. H2 inserts these rows at
+ * about half that rate on a CI runner, so the store is the bound here and the target cannot be
+ * asserted as is. The scaled bound: the test first times the store alone on the same number of
+ * events, then requires the consumer path to reach at least {@link #MIN_SHARE_OF_STORE_RATE} of
+ * that rate. Polling, conversion and batching must therefore cost less than the insert does,
+ * which is what keeps the consumer at the store's rate on MySQL.
+ */
+@SpringJUnitConfig(AuditEventConsumerThroughputTest.TestConfig.class)
+@EmbeddedKafka(partitions = 1, topics = { AuditEventConsumerThroughputTest.TOPIC,
+        AuditEventConsumerThroughputTest.TOPIC + ".DLT" }, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@TestPropertySource(properties = {
+        "audit.kafka.topic=" + AuditEventConsumerThroughputTest.TOPIC,
+        "audit.ingest.max-poll-records=5000",
+        "audit.ingest.retry-interval-ms=0"
+})
+class AuditEventConsumerThroughputTest {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditEventConsumerThroughputTest.class);
+
+    static final String TOPIC = "audit-events-throughput";
+
+    private static final int EVENTS = 20_000;
+    private static final int MAX_POLL_RECORDS = 5000;
+    private static final double MIN_SHARE_OF_STORE_RATE = 0.5;
+
+    private static final AtomicInteger calls = new AtomicInteger();
+    private static final AtomicInteger largestBatch = new AtomicInteger();
+    private static final AtomicLong firstCallStart = new AtomicLong();
+    private static final AtomicLong lastCallEnd = new AtomicLong();
+
+    @Configuration
+    @Import({AuditKafkaConfig.class, AuditEventConsumer.class})
+    static class TestConfig {
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper().findAndRegisterModules();
+        }
+
+        @Bean
+        DataSource dataSource() {
+            DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                    "jdbc:h2:mem:audit-throughput;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+            DatabasePopulatorUtils.execute(new ResourceDatabasePopulator(new ClassPathResource("audit-schema-h2.sql")),
+                    dataSource);
+            return dataSource;
+        }
+
+        @Bean
+        JdbcTemplate jdbcTemplate(DataSource dataSource) {
+            return new JdbcTemplate(dataSource);
+        }
+
+        @Bean
+        TransactionTemplate transactionTemplate(DataSource dataSource) {
+            return new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        }
+
+        @Bean
+        AuditExpenseService auditExpenseService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                ObjectMapper objectMapper) {
+            return new AuditExpenseService(mock(AuditExpenseRepository.class),
+                    new AuditExpenseBatchRepository(jdbcTemplate), new AuditMapper(objectMapper),
+                    mock(AuditSearchIndexService.class), mock(AuditStatisticsService.class), transactionTemplate) {
+                @Override
+                public int processAuditEvents(List<AuditEvent> auditEvents) {
+                    firstCallStart.compareAndSet(0, System.nanoTime());
+                    calls.incrementAndGet();
+                    largestBatch.accumulateAndGet(auditEvents.size(), Math::max);
+                    int written = super.processAuditEvents(auditEvents);
+                    lastCallEnd.set(System.nanoTime());
+                    return written;
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Autowired
+    private AuditExpenseService auditExpenseService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry registry;
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @Test
+    void drainsTopicInLargeBatchesAtTheStoreRate() throws Exception {
+        // The store alone, in poll-sized batches, on rows the consumer will not see
+        List<AuditEvent> direct = new ArrayList<>(EVENTS);
+        for (int i = 0; i < EVENTS; i++) {
+            direct.add(new ObjectMapper().convertValue(event("calibration-", i), AuditEvent.class));
+        }
+        long storeStart = System.nanoTime();
+        for (int from = 0; from < EVENTS; from += MAX_POLL_RECORDS) {
+            auditExpenseService.processAuditEvents(direct.subList(from, Math.min(from + MAX_POLL_RECORDS, EVENTS)));
+        }
+        double storeRate = EVENTS / ((System.nanoTime() - storeStart) / 1e9);
+        assertEquals(EVENTS, countStored("calibration-%"));
+
+        // Fill the topic with the listener stopped, so the consumer is timed on a full backlog
+        registry.getListenerContainers().forEach(container -> container.stop());
+        calls.set(0);
+        largestBatch.set(0);
+        firstCallStart.set(0);
+        for (int i = 0; i < EVENTS; i++) {
+            kafkaTemplate.send(TOPIC, String.valueOf(i % 50),
+                    new ObjectMapper().writeValueAsString(event("throughput-", i)));
+        }
+        kafkaTemplate.flush();
+        registry.getListenerContainers().forEach(container -> container.start());
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (countStored("throughput-%") < EVENTS && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        double consumerRate = EVENTS / ((lastCallEnd.get() - firstCallStart.get()) / 1e9);
+        log.info("Stored {} audit events in {} calls (largest batch {}): consumer {} events/s, store alone {} events/s",
+                EVENTS, calls.get(), largestBatch.get(), Math.round(consumerRate), Math.round(storeRate));
+
+        assertEquals(EVENTS, countStored("throughput-%"));
+        // One call per record would be 20k store transactions; polls should carry hundreds at a time
+        assertTrue(calls.get() <= EVENTS / 100, "expected batched delivery, got " + calls.get() + " calls");
+        assertTrue(largestBatch.get() <= MAX_POLL_RECORDS, "batch exceeded max-poll-records: " + largestBatch.get());
+        assertTrue(consumerRate >= storeRate * MIN_SHARE_OF_STORE_RATE, "consumer ran at "
+                + Math.round(consumerRate) + " events/s against " + Math.round(storeRate) + " for the store alone");
+    }
+
+    @Test
+    void unreadableEventGoesToDeadLetterTopic() throws Exception {
+        byte[] unreadable = "{not json".getBytes(StandardCharsets.UTF_8);
+        kafkaTemplate.send(TOPIC, "1", new ObjectMapper().writeValueAsString(event("dlt-", 1)));
+        kafkaTemplate.send(TOPIC, "1", new String(unreadable, StandardCharsets.UTF_8));
+        kafkaTemplate.send(TOPIC, "1", new ObjectMapper().writeValueAsString(event("dlt-", 2)));
+        kafkaTemplate.flush();
+
+        Map<String, Object> props = KafkaTestUtils.consumerProps("audit-dlt-check", "false", broker);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        try (Consumer<String, byte[]> consumer = new DefaultKafkaConsumerFactory<>(props,
+                new StringDeserializer(), new ByteArrayDeserializer()).createConsumer()) {
+            broker.consumeFromAnEmbeddedTopic(consumer, TOPIC + ".DLT");
+            ConsumerRecord<String, byte[]> deadLetter = KafkaTestUtils.getSingleRecord(consumer, TOPIC + ".DLT",
+                    Duration.ofSeconds(30));
+            assertArrayEquals(unreadable, deadLetter.value());
+        }
+
+        // The events on either side of it are still stored
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (countStored("dlt-%") < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(2, countStored("dlt-%"));
+    }
+
+    private int countStored(String correlationPattern) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM audit_expenses WHERE correlation_id LIKE ?", Integer.class, correlationPattern);
+        return count != null ? count : 0;
+    }
+
+    private static Map<String, Object> event(String prefix, int i) {
+        return Map.of("userId", i % 50, "entityId", String.valueOf(i), "entityType", "EXPENSE",
+                "actionType", "CREATE", "correlationId", prefix + i);
+    }
+}
@@ -0,0 +1,39 @@
+-- audit_expenses as AuditPartitionManager leaves it on MySQL, minus the partitioning
+CREATE TABLE audit_expenses (
+    id BIGINT AUTO_INCREMENT NOT NULL,
+    user_id INT NOT NULL,
+    username VARCHAR(100),
+    user_role VARCHAR(50),
+    entity_id VARCHAR(100) NOT NULL,
+    entity_type VARCHAR(50) NOT NULL,
+    action_type VARCHAR(50) NOT NULL,
+    details TEXT,
+    description TEXT,
+    old_values TEXT,
+    new_values TEXT,
+    timestamp TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP,
+    created_by VARCHAR(100),
+    last_updated_by VARCHAR(100),
+    ip_address VARCHAR(45),
+    user_agent VARCHAR(500),
+    session_id VARCHAR(100),
+    correlation_id VARCHAR(100),
+    request_id VARCHAR(100),
+    service_name VARCHAR(100),
+    service_version VARCHAR(20),
+    environment VARCHAR(20),
+    status VARCHAR(20),
+    error_message TEXT,
+    response_code INT,
+    source VARCHAR(20),
+    method VARCHAR(10),
+    endpoint VARCHAR(500),
+    execution_time_ms BIGINT,
+    expense_id INT,
+    user_audit_index INT,
+    expense_audit_index INT,
+    PRIMARY KEY (id, timestamp),
+    CONSTRAINT uk_audit_correlation_ts UNIQUE (correlation_id, timestamp)
+);
@@ -1,12 +1,17 @@
 package com.jaya.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import org.springframework.core.task.TaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import com.jaya.common.config.FeignAuthForwardingConfig;
 import com.jaya.common.config.SharedAsyncConfig;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 /**
  * Bill-Service async configuration.
@@ -27,5 +32,63 @@ public class BillAsyncConfig {
         executor.initialize();
         return executor;
     }
+
+    /**
+     * Runs chunked expense lookups against Expense-Service. The pool size caps how many lookups are
+     * in flight across all requests; when the queue is full the calling thread runs the chunk itself.
+     * Each chunk runs with the submitting thread's request context and async JWT, so the Feign calls
+     * carry the caller's Authorization header.
+     */
+    @Bean(name = "billExpenseHydrationExecutor")
+    public TaskExecutor expenseHydrationExecutor(
+            @Value("${bill.expense-hydration.max-concurrency:4}") int maxConcurrency) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setQueueCapacity(100);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("bill-expense-hydration-");
+        executor.setTaskDecorator(BillAsyncConfig::withCallerAuth);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Generates receipt thumbnails and OCR variants. Image decoding is memory-heavy, so few run at
+     * once; when the queue is full new work is rejected and queued again on the next request.
+     */
+    @Bean(name = "billReceiptVariantExecutor")
+    public TaskExecutor receiptVariantExecutor(
+            @Value("${bill.receipts.variant-threads:2}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(500);
+        executor.setThreadNamePrefix("bill-receipt-variant-");
+        executor.initialize();
+        return executor;
+    }
     // friendActivityExecutor moved to common-library SharedAsyncConfig
+
+    // Restores the worker's previous values afterwards, since CallerRunsPolicy may run it on the caller
+    static Runnable withCallerAuth(Runnable task) {
+        RequestAttributes callerAttributes = RequestContextHolder.getRequestAttributes();
+        String callerToken = FeignAuthForwardingConfig.getAsyncAuthToken();
+        return () -> {
+            RequestAttributes previousAttributes = RequestContextHolder.getRequestAttributes();
+            String previousToken = FeignAuthForwardingConfig.getAsyncAuthToken();
+            RequestContextHolder.setRequestAttributes(callerAttributes);
+            FeignAuthForwardingConfig.setAsyncAuthToken(callerToken);
+            try {
+                task.run();
+            } finally {
+                RequestContextHolder.setRequestAttributes(previousAttributes);
+                if (previousToken != null) {
+                    FeignAuthForwardingConfig.setAsyncAuthToken(previousToken);
+                } else {
+                    FeignAuthForwardingConfig.clearAsyncAuthToken();
+                }
+            }
+        };
+    }
 }
@@ -1,6 +1,7 @@
 package com.jaya.controller;
 
 import com.jaya.models.Bill;
+import com.jaya.dto.BillReceiptDTO;
 import com.jaya.dto.BillRequestDTO;
 import com.jaya.dto.BillResponseDTO;
 import com.jaya.dto.BillSearchDTO;
@@ -13,10 +14,15 @@ import com.jaya.service.ExcelExportService;
 import com.jaya.service.FriendShipService;
 import com.jaya.common.service.client.IUserServiceClient;
 import com.jaya.service.ocr.ReceiptOcrService;
+import com.jaya.service.receipt.BillReceiptService;
+import com.jaya.service.receipt.ReceiptContentWriter;
+import com.jaya.service.receipt.ReceiptVariant;
 import com.jaya.util.BillServiceHelper;
 import com.jaya.kafka.service.UnifiedActivityService;
 import com.jaya.exceptions.InvalidImageException;
 import com.jaya.exceptions.OcrProcessingException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -50,6 +56,8 @@ public class BillController {
     private final ExcelExportService excelExportService;
     private final UnifiedActivityService unifiedActivityService;
     private final ReceiptOcrService receiptOcrService;
+    private final BillReceiptService billReceiptService;
+    private final ReceiptContentWriter receiptContentWriter;
 
     private UserDTO getTargetUserWithPermissionCheck(Integer targetId, UserDTO reqUser) throws Exception {
         if (targetId == null)
@@ -269,7 +277,8 @@ public class BillController {
             @RequestParam(required = false) String type,
             @RequestParam(required = false) LocalDate fromDate,
             @RequestParam(required = false) LocalDate toDate,
-            @RequestParam(required = false) LocalDate expenseDate, @RequestParam(required = false) Integer targetId)
+            @RequestParam(required = false) LocalDate expenseDate, @RequestParam(required = false) Integer targetId,
+            @RequestParam(required = false) Integer limit)
             throws Exception {
         try {
             UserDTO reqUser = IUserServiceClient.getUserProfile(jwt);
@@ -278,6 +287,11 @@ public class BillController {
 
             if (range != null && offset != null) {
                 bills = billService.getAllBillsForUser(targetUser.getId(), range, offset);
+            } else if (month != null && year != null && limit != null
+                    && (type == null || type.isBlank()) && fromDate == null && toDate == null) {
+                // Bounded page with a next offset, for clients that page through large months
+                return ResponseEntity.ok(billService.getBillPageForUser(targetUser.getId(), month, year,
+                        offset != null ? offset : 0, limit));
             } else if (month != null && year != null && offset != null) {
                 bills = billService.getAllBillsForUser(targetUser.getId(), month, year, offset);
             } else if (month != null && year != null) {
@@ -289,6 +303,9 @@ public class BillController {
                 bills = billService.getBillsWithinRange(targetUser.getId(), date, date);
             } else if (startDate != null && endDate != null) {
                 bills = billService.getBillsWithinRange(targetUser.getId(), startDate, endDate);
+            } else if (fromDate != null || toDate != null) {
+                // Left null so filterBillsByTypeAndRange queries the date range instead of every bill
+                bills = null;
             } else {
 
                 System.out.print("all bills called");
@@ -312,11 +329,15 @@ public class BillController {
 
     @GetMapping("/items")
     public ResponseEntity<List<String>> getAllUniqueItemNames(@RequestHeader("Authorization") String jwt,
-            @RequestParam(required = false) Integer targetId) throws Exception {
+            @RequestParam(required = false) Integer targetId,
+            @RequestParam(required = false) String prefix,
+            @RequestParam(required = false) Integer limit) throws Exception {
 
         UserDTO reqUser = IUserServiceClient.getUserProfile(jwt);
         UserDTO targetUser = getTargetUserWithReadAccess(targetId, reqUser);
-        List<String> resp = billService.getUserAndBackupItems(targetUser.getId());
+        List<String> resp = prefix != null || limit != null
+                ? billService.suggestItemNames(targetUser.getId(), prefix, limit != null ? limit : 10)
+                : billService.getUserAndBackupItems(targetUser.getId());
         return ResponseEntity.ok(resp);
 
     }
@@ -585,6 +606,115 @@ public class BillController {
         }
     }
 
+    @PostMapping("/{billId}/receipts")
+    public ResponseEntity<?> attachReceipt(@PathVariable Integer billId,
+            @RequestParam("file") MultipartFile file,
+            @RequestHeader("Authorization") String jwt,
+            @RequestParam(required = false) Integer targetId) {
+        try {
+            UserDTO reqUser = IUserServiceClient.getUserProfile(jwt);
+            UserDTO targetUser = getTargetUserWithPermissionCheck(targetId, reqUser);
+            BillReceiptDTO receipt = billReceiptService.attach(targetUser.getId(), billId, file);
+            return ResponseEntity.status(HttpStatus.CREATED).body(receipt);
+        } catch (InvalidImageException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", "Invalid image",
+                    "message", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                    "error", "Bill not found",
+                    "message", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Failed to attach receipt to bill {}", billId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
+                    "error", "Unexpected error",
+                    "message", String.valueOf(e.getMessage())));
+        }
+    }
+
+    @GetMapping("/{billId}/receipts")
+    public ResponseEntity<List<BillReceiptDTO>> getBillReceipts(@PathVariable Integer billId,
+            @RequestHeader("Authorization") String jwt,
+            @RequestParam(required = false) Integer targetId) throws Exception {
+        UserDTO reqUser = IUserServiceClient.getUserProfile(jwt);
+        UserDTO targetUser = getTargetUserWithReadAccess(targetId, reqUser);
+        return ResponseEntity.ok(billReceiptService.list(targetUser.getId(), billId));
+    }
+
+    @DeleteMapping("/{billId}/receipts/{hash}")
+    public ResponseEntity<Void> detachReceipt(@PathVariable Integer billId, @PathVariable String hash,
+            @RequestHeader("Authorization") String jwt,
+            @RequestParam(required = false) Integer targetId) throws Exception {
+        UserDTO reqUser = IUserServiceClient.getUserProfile(jwt);
+        UserDTO targetUser = getTargetUserWithPermissionCheck(targetId, reqUser);
+        boolean detached = billReceiptService.detach(targetUser.getId(), billId, hash);
+        return detached ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Streams a stored receipt image, its thumbnail or its OCR variant, with ETag and Range
+     * support. A variant still being generated answers 404 with Retry-After.
+     */
+    @RequestMapping(value = "/receipts/{hash}", method = { RequestMethod.GET, RequestMethod.HEAD })
+    public void getReceiptContent(@PathVariable String hash,
+            @RequestParam(defaultValue = "ORIGINAL") ReceiptVariant variant,
+            @RequestHeader("Authorization") String jwt,
+            @RequestParam(required = false) Integer targetId,
+            HttpServletRequest request, HttpServletResponse response) throws Exception {
+        UserDTO reqUser = IUserServiceClient.getUserProfile(jwt);
+        UserDTO targetUser = getTargetUserWithReadAccess(targetId, reqUser);
+        BillReceiptService.StoredReceipt stored = billReceiptService.open(targetUser.getId(), hash, variant);
+        if (stored == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (stored.isPending()) {
+            response.setHeader("Retry-After", "2");
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "Receipt variant is being generated");
+            return;
+        }
+        receiptContentWriter.write(stored.file(), stored.contentType(), stored.etag(), request, response);
+    }
+
+    @PostMapping("/receipts/{hash}/scan")
+    public ResponseEntity<?> scanStoredReceipt(@PathVariable String hash,
+            @RequestHeader("Authorization") String jwt,
+            @RequestParam(required = false) Integer targetId) {
+        try {
+            UserDTO reqUser = IUserServiceClient.getUserProfile(jwt);
+            UserDTO targetUser = getTargetUserWithReadAccess(targetId, reqUser);
+
+            if (!receiptOcrService.isServiceAvailable()) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of(
+                        "error", "OCR service is not available",
+                        "message", "Please ensure Tesseract OCR is properly configured"));
+            }
+
+            OcrReceiptResponseDTO result = billReceiptService.scan(targetUser.getId(), hash);
+            if (result == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(result);
+
+        } catch (InvalidImageException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", "Invalid image",
+                    "message", e.getMessage()));
+
+        } catch (OcrProcessingException e) {
+            log.error("OCR processing failed: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
+                    "error", "OCR processing failed",
+                    "message", e.getMessage()));
+
+        } catch (Exception e) {
+            log.error("Unexpected error during stored receipt scan", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
+                    "error", "Unexpected error",
+                    "message", String.valueOf(e.getMessage())));
+        }
+    }
+
     @GetMapping("/search")
     public ResponseEntity<?> searchBills(
             @RequestParam String query,
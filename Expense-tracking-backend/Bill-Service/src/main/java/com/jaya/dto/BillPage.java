@@ -0,0 +1,18 @@
+package com.jaya.dto;
+
+import com.jaya.models.Bill;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BillPage {
+    private List<Bill> bills;
+    // Offset of the next page; null when this page is the last one
+    private Integer nextOffset;
+    private boolean hasMore;
+}
@@ -0,0 +1,22 @@
+package com.jaya.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BillReceiptDTO {
+    private String hash;
+    private Integer billId;
+    private String fileName;
+    private String contentType;
+    private long sizeBytes;
+    private int width;
+    private int height;
+    private LocalDateTime attachedAt;
+    private boolean thumbnailReady;
+}
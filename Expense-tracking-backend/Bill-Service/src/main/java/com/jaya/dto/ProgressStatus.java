@@ -1,6 +1,8 @@
 package com.jaya.dto;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 public class ProgressStatus {
     private String jobId;
@@ -12,6 +14,7 @@ public class ProgressStatus {
     private Integer userId;
     private LocalDateTime startedAt;
     private LocalDateTime updatedAt;
+    private List<String> warnings = new ArrayList<>();
 
     public ProgressStatus() {
     }
@@ -98,4 +101,12 @@ public class ProgressStatus {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public List<String> getWarnings() {
+        return warnings;
+    }
+
+    public void setWarnings(List<String> warnings) {
+        this.warnings = warnings;
+    }
 }
@@ -6,6 +6,7 @@ import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateSerializer;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -14,6 +15,10 @@ import java.util.List;
 import java.util.Set;
 
 @Entity
+@Table(name = "bill", indexes = {
+        @Index(name = "idx_bill_user_date", columnList = "bill_userid, date"),
+        @Index(name = "idx_bill_expense_id", columnList = "expense_id")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -47,7 +52,9 @@ public class Bill {
     private String category;
 
 
+    // Lazy; the items of every bill in a listing page are loaded together in one IN query
     @ElementCollection
+    @BatchSize(size = 500)
     @CollectionTable(name = "bill_detailed_expenses", joinColumns = @JoinColumn(name = "bill_id"))
     @Builder.Default
     private List<DetailedExpenses>expenses=new ArrayList<>();
@@ -0,0 +1,47 @@
+package com.jaya.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/** Attachment of a {@link ReceiptImage} to a bill; each row holds one reference on the image. */
+@Entity
+@Table(name = "bill_receipt", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_bill_receipt_bill_hash", columnNames = { "bill_id", "hash" })
+}, indexes = {
+        @Index(name = "idx_bill_receipt_user_hash", columnList = "user_id, hash")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BillReceipt {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "bill_id", nullable = false)
+    private Integer billId;
+
+    @Column(name = "user_id", nullable = false)
+    private Integer userId;
+
+    @Column(nullable = false, length = 64)
+    private String hash;
+
+    @Column(name = "file_name")
+    private String fileName;
+
+    @Column(name = "attached_at", nullable = false)
+    private LocalDateTime attachedAt;
+}
@@ -0,0 +1,43 @@
+package com.jaya.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A stored receipt image, identified by the SHA-256 of its bytes. The same image attached to
+ * several bills is stored once; {@code refCount} is the number of bills it is attached to.
+ */
+@Entity
+@Table(name = "bill_receipt_image")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReceiptImage {
+
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    @Column(name = "content_type", nullable = false, length = 64)
+    private String contentType;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes;
+
+    private int width;
+
+    private int height;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,34 @@
+package com.jaya.repository;
+
+import com.jaya.models.BillReceipt;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BillReceiptRepository extends JpaRepository<BillReceipt, Long> {
+
+    List<BillReceipt> findByBillIdAndUserIdOrderByIdAsc(Integer billId, Integer userId);
+
+    List<BillReceipt> findByBillId(Integer billId);
+
+    List<BillReceipt> findByUserId(Integer userId);
+
+    Optional<BillReceipt> findFirstByUserIdAndHash(Integer userId, String hash);
+
+    /** Attaches the image to the bill unless it already is; returns the number of rows inserted. */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO bill_receipt (bill_id, user_id, hash, file_name, attached_at) "
+            + "VALUES (:billId, :userId, :hash, :fileName, NOW())", nativeQuery = true)
+    int attach(@Param("billId") Integer billId, @Param("userId") Integer userId, @Param("hash") String hash,
+            @Param("fileName") String fileName);
+
+    @Modifying
+    @Query("DELETE FROM BillReceipt r WHERE r.billId = :billId AND r.userId = :userId AND r.hash = :hash")
+    int detach(@Param("billId") Integer billId, @Param("userId") Integer userId, @Param("hash") String hash);
+}
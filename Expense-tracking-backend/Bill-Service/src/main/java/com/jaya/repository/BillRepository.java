@@ -3,11 +3,14 @@ package com.jaya.repository;
 import com.jaya.dto.BillSearchDTO;
 import com.jaya.models.Bill;
 import io.lettuce.core.dynamic.annotation.Param;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.QueryHints;
 import jakarta.persistence.QueryHint;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,6 +20,23 @@ public interface BillRepository extends JpaRepository<Bill, Integer> {
 
         Bill findByExpenseId(Integer expenseId);
 
+        @Query("SELECT b FROM Bill b WHERE b.userId = :userId AND b.date BETWEEN :startDate AND :endDate " +
+                        "ORDER BY b.date ASC, b.id ASC")
+        List<Bill> findByUserIdAndDateBetween(@Param("userId") Integer userId,
+                        @Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate);
+
+        @Query(value = "SELECT * FROM bill WHERE bill_userid = :userId AND date BETWEEN :startDate AND :endDate " +
+                        "ORDER BY date ASC, id ASC LIMIT :limit OFFSET :offset", nativeQuery = true)
+        List<Bill> findPageByUserIdAndDateBetween(@Param("userId") Integer userId,
+                        @Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate,
+                        @Param("limit") int limit,
+                        @Param("offset") int offset);
+
+        @Query("SELECT e.itemName FROM Bill b JOIN b.expenses e WHERE b.userId = :userId")
+        List<String> findItemNamesByUserId(@Param("userId") Integer userId);
+
         @Query("SELECT b FROM Bill b WHERE b.id = :billId AND b.userId = :userId")
         Optional<Bill> findByIdAndUserId(@Param("billId") Integer billId, @Param("userId") Integer userId);
 
@@ -37,8 +57,20 @@ public interface BillRepository extends JpaRepository<Bill, Integer> {
                         "(LOWER(b.name) LIKE LOWER(:query) OR " +
                         "LOWER(b.description) LIKE LOWER(:query) OR " +
                         "LOWER(b.category) LIKE LOWER(:query)) " +
-                        "ORDER BY b.date DESC")
+                        "ORDER BY b.date DESC, b.id DESC")
         List<BillSearchDTO> searchBillsFuzzyWithLimit(@Param("userId") Integer userId,
-                        @Param("query") String query);
+                        @Param("query") String query, Pageable pageable);
+
+        @Query("SELECT new com.jaya.dto.BillSearchDTO(b.id, b.name, b.description, b.amount, b.paymentMethod, " +
+                        "b.type, b.date, b.netAmount, b.category, b.categoryId, b.userId) " +
+                        "FROM Bill b WHERE b.userId = :userId AND b.id IN :ids")
+        List<BillSearchDTO> findSearchResultsByIds(@Param("userId") Integer userId,
+                        @Param("ids") Collection<Integer> ids);
+
+        @Query("SELECT b.id, b.name, b.description, b.category, b.date FROM Bill b WHERE b.userId = :userId")
+        List<Object[]> findSearchFieldsByUserId(@Param("userId") Integer userId);
+
+        @Query("SELECT b.id, e.itemName FROM Bill b JOIN b.expenses e WHERE b.userId = :userId")
+        List<Object[]> findItemNamesWithBillIdByUserId(@Param("userId") Integer userId);
 
 }
@@ -0,0 +1,29 @@
+package com.jaya.repository;
+
+import com.jaya.models.ReceiptImage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReceiptImageRepository extends JpaRepository<ReceiptImage, String> {
+
+    /** Records the image on its first reference, or takes one more reference on it. */
+    @Modifying
+    @Query(value = "INSERT INTO bill_receipt_image (hash, content_type, size_bytes, width, height, ref_count, created_at) "
+            + "VALUES (:hash, :contentType, :sizeBytes, :width, :height, 1, NOW()) "
+            + "ON DUPLICATE KEY UPDATE ref_count = ref_count + 1", nativeQuery = true)
+    int addReference(@Param("hash") String hash, @Param("contentType") String contentType,
+            @Param("sizeBytes") long sizeBytes, @Param("width") int width, @Param("height") int height);
+
+    @Modifying
+    @Query(value = "UPDATE bill_receipt_image SET ref_count = ref_count - :count WHERE hash = :hash", nativeQuery = true)
+    int releaseReferences(@Param("hash") String hash, @Param("count") int count);
+
+    /** Removes the image row once nothing references it; returns 0 if it was referenced again meanwhile. */
+    @Modifying
+    @Query(value = "DELETE FROM bill_receipt_image WHERE hash = :hash AND ref_count <= 0", nativeQuery = true)
+    int deleteIfUnreferenced(@Param("hash") String hash);
+}
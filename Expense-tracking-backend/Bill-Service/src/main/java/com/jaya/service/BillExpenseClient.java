@@ -24,6 +24,10 @@ public interface BillExpenseClient {
     @PostMapping("/api/expenses/add-expense-with-bill-service")
     public ExpenseDTO addExpense(@RequestBody ExpenseDTO expense, @RequestParam Integer userId) throws Exception;
 
+    @PostMapping("/api/expenses/add-expenses-with-bill-service")
+    public List<ExpenseDTO> addExpenses(@RequestBody List<ExpenseDTO> expenses, @RequestParam Integer userId)
+            throws Exception;
+
     @PostMapping("/api/expenses/update-expense-with-bill-service")
     public ExpenseDTO updateExpenseWithBillService(@RequestParam Integer expenseId, @RequestBody ExpenseDTO expense,
             @RequestParam Integer userId) throws Exception;
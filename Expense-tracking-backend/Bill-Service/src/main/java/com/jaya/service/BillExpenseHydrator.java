@@ -0,0 +1,142 @@
+package com.jaya.service;
+
+import com.jaya.dto.ExpenseDTO;
+import com.jaya.models.Bill;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Loads the expenses behind bills from Expense-Service in bulk. Ids are deduplicated and fetched
+ * through {@link BillExpenseClient#getExpensesByIds} in chunks that run in parallel on
+ * {@code billExpenseHydrationExecutor}, whose pool size caps the calls in flight. Ids that no longer
+ * resolve to an expense are left out of the result. Within an HTTP request, expenses already
+ * fetched are remembered so repeated lookups do not go back to Expense-Service.
+ */
+@Component
+public class BillExpenseHydrator {
+
+    private static final String MEMO_ATTRIBUTE = BillExpenseHydrator.class.getName() + ".memo";
+
+    private final BillExpenseClient expenseClient;
+
+    private final TaskExecutor executor;
+
+    @Value("${bill.expense-hydration.chunk-size:200}")
+    private int chunkSize;
+
+    public BillExpenseHydrator(BillExpenseClient expenseClient,
+            @Qualifier("billExpenseHydrationExecutor") TaskExecutor executor) {
+        this.expenseClient = expenseClient;
+        this.executor = executor;
+    }
+
+    /** The expense of each bill, in bill order; bills whose expense no longer exists are skipped. */
+    public List<ExpenseDTO> expensesForBills(Integer userId, List<Bill> bills) {
+        List<Integer> ids = bills.stream().map(Bill::getExpenseId).toList();
+        Map<Integer, ExpenseDTO> expenses = fetch(userId, ids);
+        List<ExpenseDTO> result = new ArrayList<>(bills.size());
+        for (Integer id : ids) {
+            ExpenseDTO expense = expenses.get(id);
+            if (expense != null) {
+                result.add(expense);
+            }
+        }
+        return result;
+    }
+
+    public ExpenseDTO expenseForBill(Integer userId, Bill bill) {
+        return fetch(userId, List.of(bill.getExpenseId())).get(bill.getExpenseId());
+    }
+
+    /** Expenses by id; ids that do not resolve are absent from the map. */
+    public Map<Integer, ExpenseDTO> fetch(Integer userId, Collection<Integer> expenseIds) {
+        Map<Integer, ExpenseDTO> memo = requestMemo(userId);
+        Map<Integer, ExpenseDTO> result = new HashMap<>();
+        Set<Integer> missing = new LinkedHashSet<>();
+        for (Integer id : expenseIds) {
+            if (id == null || id <= 0) {
+                continue;
+            }
+            ExpenseDTO cached = memo != null ? memo.get(id) : null;
+            if (cached != null) {
+                result.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        List<Integer> pending = new ArrayList<>(missing);
+        List<CompletableFuture<List<ExpenseDTO>>> chunks = new ArrayList<>();
+        for (int from = 0; from < pending.size(); from += chunkSize) {
+            Set<Integer> chunk = new LinkedHashSet<>(pending.subList(from, Math.min(from + chunkSize, pending.size())));
+            chunks.add(CompletableFuture.supplyAsync(() -> expenseClient.getExpensesByIds(userId, chunk), executor));
+        }
+
+        try {
+            for (CompletableFuture<List<ExpenseDTO>> chunk : chunks) {
+                List<ExpenseDTO> expenses = chunk.join();
+                if (expenses == null) {
+                    continue;
+                }
+                expenses.stream().filter(Objects::nonNull).filter(e -> e.getId() != null)
+                        .forEach(e -> result.put(e.getId(), e));
+            }
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+
+        if (memo != null) {
+            for (Integer id : missing) {
+                ExpenseDTO expense = result.get(id);
+                if (expense != null) {
+                    memo.put(id, expense);
+                }
+            }
+        }
+        return result;
+    }
+
+    /** Drops memoized expenses, e.g. after the caller changed them. */
+    public void forget(Integer userId, Collection<Integer> expenseIds) {
+        Map<Integer, ExpenseDTO> memo = requestMemo(userId);
+        if (memo != null) {
+            expenseIds.forEach(memo::remove);
+        }
+    }
+
+    // Kept in the current request's attributes, so it lives exactly as long as the request;
+    // outside a request (async jobs) there is no memo
+    @SuppressWarnings("unchecked")
+    private Map<Integer, ExpenseDTO> requestMemo(Integer userId) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        String key = MEMO_ATTRIBUTE + "." + userId;
+        Map<Integer, ExpenseDTO> memo = (Map<Integer, ExpenseDTO>) attributes.getAttribute(key,
+                RequestAttributes.SCOPE_REQUEST);
+        if (memo == null) {
+            memo = new HashMap<>();
+            attributes.setAttribute(key, memo, RequestAttributes.SCOPE_REQUEST);
+        }
+        return memo;
+    }
+}
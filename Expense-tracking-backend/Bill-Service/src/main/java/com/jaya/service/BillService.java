@@ -1,5 +1,6 @@
 package com.jaya.service;
 
+import com.jaya.dto.BillPage;
 import com.jaya.dto.BillSearchDTO;
 import com.jaya.dto.ExpenseDTO;
 import com.jaya.models.Bill;
@@ -24,6 +25,8 @@ public interface BillService {
 
     List<Bill> getAllBillsForUser(Integer userId, int month, int year, int offset) throws Exception;
 
+    BillPage getBillPageForUser(Integer userId, int month, int year, int offset, int limit) throws Exception;
+
     List<ExpenseDTO> getAllExpensesForBill(Integer userId, LocalDate startDate, LocalDate endDate) throws Exception;
 
     List<Bill> getBillsWithinRange(Integer userId, LocalDate startDate, LocalDate endDate) throws Exception;
@@ -39,6 +42,8 @@ public interface BillService {
 
     List<String> getUserAndBackupItems(Integer userId) throws Exception;
 
+    List<String> suggestItemNames(Integer userId, String prefix, int limit) throws Exception;
+
     List<Bill> addMultipleBills(List<Bill> bills, Integer userId) throws Exception;
 
     List<Bill> addMultipleBillsWithProgress(List<Bill> bills, Integer userId, String jobId) throws Exception;
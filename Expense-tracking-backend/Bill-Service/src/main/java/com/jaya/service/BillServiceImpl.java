@@ -1,18 +1,26 @@
 package com.jaya.service;
 
+import com.jaya.dto.BillPage;
 import com.jaya.dto.BillSearchDTO;
 import com.jaya.dto.ExpenseDTO;
 import com.jaya.dto.ExpenseDetailsDTO;
 import com.jaya.models.Bill;
 import com.jaya.common.dto.UserDTO;
 import com.jaya.repository.BillRepository;
+import com.jaya.service.autocomplete.ItemNameAutocomplete;
+import com.jaya.service.receipt.BillReceiptService;
+import com.jaya.service.search.BillSearchEngine;
 import com.jaya.util.BulkProgressTracker;
 import com.jaya.util.BillServiceHelper;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
@@ -23,17 +31,35 @@ import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class BillServiceImpl implements BillService {
 
     private final BillRepository billRepository;
 
     private final BillExpenseClient expenseService;
 
+    private final BillExpenseHydrator expenseHydrator;
+
     private final BillServiceHelper helper;
 
     private final BulkProgressTracker progressTracker;
 
-    private static volatile List<String> cachedBackupItems = null;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ItemNameAutocomplete itemNameAutocomplete;
+
+    private final BillSearchEngine billSearchEngine;
+
+    private final BillReceiptService billReceiptService;
+
+    private static final LocalDate MIN_BILL_DATE = LocalDate.of(1, 1, 1);
+    private static final LocalDate MAX_BILL_DATE = LocalDate.of(9999, 12, 31);
+
+    @Value("${bill.listing.page-size:1000}")
+    private int listingPageSize;
+
+    @Value("${bill.import.chunk-size:500}")
+    private int importChunkSize;
 
     @Override
     @Transactional(rollbackFor = Exception.class)
@@ -57,6 +83,8 @@ public class BillServiceImpl implements BillService {
                 throw new Exception("Failed to save bill");
             }
 
+            itemNameAutocomplete.billItemsChanged(userId, null, savedBill.getExpenses());
+            billSearchEngine.billSaved(savedBill);
             return savedBill;
 
         } catch (IllegalArgumentException e) {
@@ -74,7 +102,7 @@ public class BillServiceImpl implements BillService {
 
             Bill existingBill = getByBillId(bill.getId(), userId);
 
-            ExpenseDTO expense = expenseService.getExpenseById(existingBill.getExpenseId(), userId);
+            ExpenseDTO expense = expenseHydrator.expenseForBill(userId, existingBill);
             if (expense == null) {
                 throw new Exception("Associated expense not found for bill ID: " + bill.getId());
             }
@@ -108,6 +136,7 @@ public class BillServiceImpl implements BillService {
 
             ExpenseDTO savedExpense = expenseService.updateExpenseWithBillService(existingBill.getExpenseId(), expense,
                     user.getId());
+            expenseHydrator.forget(userId, List.of(existingBill.getExpenseId()));
 
             existingBill.setUserId(userId);
             existingBill.setDate(savedExpense.getDate() != null ? LocalDate.parse(savedExpense.getDate()) : null);
@@ -125,10 +154,14 @@ public class BillServiceImpl implements BillService {
             existingBill.setExpenseId(savedExpense.getId());
 
             if (bill.getExpenses() != null) {
+                itemNameAutocomplete.billItemsChanged(userId, new ArrayList<>(existingBill.getExpenses()),
+                        bill.getExpenses());
                 existingBill.setExpenses(bill.getExpenses());
             }
 
-            return billRepository.save(existingBill);
+            Bill savedBill = billRepository.save(existingBill);
+            billSearchEngine.billSaved(savedBill);
+            return savedBill;
 
         } catch (IllegalArgumentException e) {
             throw e;
@@ -162,6 +195,9 @@ public class BillServiceImpl implements BillService {
             Bill bill = getByBillId(id, userId);
             expenseService.deleteExpensesByIdsWithBillService(Arrays.asList(bill.getExpenseId()), user.getId());
 
+            itemNameAutocomplete.billItemsChanged(userId, new ArrayList<>(bill.getExpenses()), null);
+            billSearchEngine.billDeleted(userId, id);
+            billReceiptService.billDeleted(id);
             billRepository.deleteById(id);
 
         } catch (Exception e) {
@@ -184,29 +220,49 @@ public class BillServiceImpl implements BillService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Bill> getAllBillsForUser(Integer userId, int month, int year) throws Exception {
         helper.validateUser(userId);
         helper.validateMonthAndYear(month, year);
-        return billRepository.findByUserId(userId).stream()
-                .filter(bill -> bill.getDate() != null &&
-                        bill.getDate().getMonthValue() == month &&
-                        bill.getDate().getYear() == year)
-                .collect(Collectors.toList());
+        YearMonth yearMonth = YearMonth.of(year, month);
+        return billRepository.findByUserIdAndDateBetween(userId, yearMonth.atDay(1), yearMonth.atEndOfMonth());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Bill> getAllBillsForUser(Integer userId, int month, int year, int offset) throws Exception {
         helper.validateUser(userId);
         helper.validateMonthAndYear(month, year);
-        return billRepository.findByUserId(userId).stream()
-                .filter(bill -> bill.getDate() != null &&
-                        bill.getDate().getMonthValue() == month &&
-                        bill.getDate().getYear() == year)
-                .skip(offset)
-                .collect(Collectors.toList());
+        YearMonth yearMonth = YearMonth.of(year, month);
+        // Everything after the offset, as before; callers that want a bounded page use getBillPageForUser
+        List<Bill> bills = billRepository.findByUserIdAndDateBetween(userId, yearMonth.atDay(1),
+                yearMonth.atEndOfMonth());
+        int from = Math.min(Math.max(offset, 0), bills.size());
+        return from == 0 ? bills : new ArrayList<>(bills.subList(from, bills.size()));
     }
 
+    /**
+     * At most {@code limit} of the month's bills from {@code offset}, never more than
+     * {@code bill.listing.page-size}. One extra row is read to tell whether another page follows.
+     */
     @Override
+    @Transactional(readOnly = true)
+    public BillPage getBillPageForUser(Integer userId, int month, int year, int offset, int limit)
+            throws Exception {
+        helper.validateUser(userId);
+        helper.validateMonthAndYear(month, year);
+        YearMonth yearMonth = YearMonth.of(year, month);
+        int pageSize = Math.max(1, Math.min(limit, listingPageSize));
+        int start = Math.max(offset, 0);
+        List<Bill> rows = billRepository.findPageByUserIdAndDateBetween(userId, yearMonth.atDay(1),
+                yearMonth.atEndOfMonth(), pageSize + 1, start);
+        boolean hasMore = rows.size() > pageSize;
+        List<Bill> bills = hasMore ? new ArrayList<>(rows.subList(0, pageSize)) : rows;
+        return new BillPage(bills, hasMore ? start + pageSize : null, hasMore);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<Bill> getAllBillsForUser(Integer userId, String range, int offset) throws Exception {
         helper.validateUser(userId);
         LocalDate now = LocalDate.now();
@@ -229,11 +285,7 @@ public class BillServiceImpl implements BillService {
                 throw new IllegalArgumentException("Invalid range: " + range);
         }
 
-        return billRepository.findByUserId(userId).stream()
-                .filter(bill -> bill.getDate() != null &&
-                        (bill.getDate().isEqual(startDate) || bill.getDate().isAfter(startDate)) &&
-                        (bill.getDate().isEqual(endDate) || bill.getDate().isBefore(endDate)))
-                .collect(Collectors.toList());
+        return billRepository.findByUserIdAndDateBetween(userId, startDate, endDate);
     }
 
     @Override
@@ -259,6 +311,9 @@ public class BillServiceImpl implements BillService {
                 .collect(Collectors.toList());
 
         getAllUserBills.forEach(bill -> billRepository.deleteById(bill.getId()));
+        itemNameAutocomplete.evict(userId);
+        billSearchEngine.evict(userId);
+        billReceiptService.userBillsDeleted(userId);
 
         if (!expenseIds.isEmpty()) {
             try {
@@ -272,15 +327,10 @@ public class BillServiceImpl implements BillService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Bill> getBillsWithinRange(Integer userId, LocalDate startDate, LocalDate endDate) throws Exception {
         helper.validateUser(userId);
-        return billRepository.findByUserId(userId).stream()
-                .filter(bill -> bill.getDate() != null &&
-                        (startDate.equals(endDate)
-                                ? bill.getDate().isEqual(startDate)
-                                : (bill.getDate().isEqual(startDate) || bill.getDate().isAfter(startDate)) &&
-                                        (bill.getDate().isEqual(endDate) || bill.getDate().isBefore(endDate))))
-                .collect(Collectors.toList());
+        return billRepository.findByUserIdAndDateBetween(userId, startDate, endDate);
     }
 
     @Override
@@ -289,7 +339,14 @@ public class BillServiceImpl implements BillService {
 
         helper.validateUser(userId);
 
-        List<Bill> source = bills == null ? billRepository.findByUserId(userId) : bills;
+        List<Bill> source = bills;
+        if (source == null) {
+            source = fromDate == null && toDate == null
+                    ? billRepository.findByUserId(userId)
+                    : billRepository.findByUserIdAndDateBetween(userId,
+                            fromDate != null ? fromDate : MIN_BILL_DATE,
+                            toDate != null ? toDate : MAX_BILL_DATE);
+        }
         if (source == null || source.isEmpty()) {
             return source == null ? Collections.emptyList() : source;
         }
@@ -338,8 +395,7 @@ public class BillServiceImpl implements BillService {
             throws Exception {
 
         List<Bill> bills = getBillsWithinRange(userId, startDate, endDate);
-        return bills.stream().map(bill -> expenseService.getExpenseById(bill.getExpenseId(), userId))
-                .collect(Collectors.toList());
+        return expenseHydrator.expensesForBills(userId, bills);
 
     }
 
@@ -347,14 +403,7 @@ public class BillServiceImpl implements BillService {
     public List<String> getAllUniqueItemNames(Integer userId) throws Exception {
         try {
             helper.validateUser(userId);
-            return billRepository.findByUserId(userId).stream()
-                    .filter(bill -> bill.getExpenses() != null)
-                    .flatMap(bill -> bill.getExpenses().stream())
-                    .map(exp -> exp.getItemName() == null ? "" : exp.getItemName().trim())
-                    .filter(name -> name != null && !name.isEmpty())
-                    .map(String::trim)
-                    .distinct()
-                    .collect(Collectors.toList());
+            return itemNameAutocomplete.userNames(userId);
         } catch (Exception e) {
             throw new Exception("Error retrieving unique item names: " + e.getMessage());
         }
@@ -364,109 +413,118 @@ public class BillServiceImpl implements BillService {
     public List<String> getUserAndBackupItems(Integer userId) throws Exception {
         try {
             helper.validateUser(userId);
-
-            List<String> userItems = getAllUniqueItemNames(userId);
-
-            if (cachedBackupItems == null) {
-                synchronized (BillServiceImpl.class) {
-                    if (cachedBackupItems == null) {
-                        java.util.List<String> backup = new java.util.ArrayList<>();
-                        try (java.io.InputStream is = getClass().getClassLoader()
-                                .getResourceAsStream("backup_item_names.txt")) {
-                            if (is != null) {
-                                try (java.io.BufferedReader reader = new java.io.BufferedReader(
-                                        new java.io.InputStreamReader(is))) {
-                                    backup = reader.lines()
-                                            .map(String::trim)
-                                            .filter(s -> s != null && !s.isEmpty())
-                                            .distinct()
-                                            .collect(Collectors.toList());
-                                }
-                            }
-                        } catch (Exception ex) {
-                        }
-                        cachedBackupItems = backup;
-                    }
-                }
-            }
-
-            java.util.LinkedHashSet<String> merged = new java.util.LinkedHashSet<>();
-            if (userItems != null)
-                merged.addAll(userItems);
-            if (cachedBackupItems != null) {
-                for (String b : cachedBackupItems) {
-                    if (b != null && !b.trim().isEmpty())
-                        merged.add(b.trim());
-                }
-            }
-
-            return new java.util.ArrayList<>(merged);
+            return itemNameAutocomplete.userAndBackupNames(userId);
         } catch (Exception e) {
             throw new Exception("Error retrieving user and backup items: " + e.getMessage());
         }
     }
 
     @Override
-    @Transactional
-    public List<Bill> addMultipleBills(List<Bill> bills, Integer userId) throws Exception {
-        UserDTO user = helper.validateUser(userId);
-        if (bills == null || bills.isEmpty())
-            return java.util.Collections.emptyList();
+    public List<String> suggestItemNames(Integer userId, String prefix, int limit) throws Exception {
+        try {
+            helper.validateUser(userId);
+            return itemNameAutocomplete.suggest(userId, prefix, limit);
+        } catch (Exception e) {
+            throw new Exception("Error suggesting item names: " + e.getMessage());
+        }
+    }
 
-        final int batchSize = 500;
-        int count = 0;
-        java.util.List<Bill> savedBills = new java.util.ArrayList<>(bills.size());
+    @Override
+    public List<Bill> addMultipleBills(List<Bill> bills, Integer userId) throws Exception {
+        return importBills(bills, userId, null);
+    }
 
-        for (Bill bill : bills) {
-            helper.validateBillData(bill);
+    @Override
+    public List<Bill> addMultipleBillsWithProgress(List<Bill> bills, Integer userId, String jobId) throws Exception {
+        try {
+            return importBills(bills, userId, jobId);
+        } catch (Exception ex) {
+            progressTracker.fail(jobId, ex.getMessage());
+            throw ex;
+        }
+    }
 
-            ExpenseDTO expenseDto = helper.createExpenseFromBill(bill, user);
-            ExpenseDTO savedExpense = expenseService.addExpense(expenseDto, userId);
+    /**
+     * Imports bills in chunks of {@code bill.import.chunk-size}. Every bill is validated before
+     * anything is written; each chunk then creates its expenses with one bulk call and inserts its
+     * bills in its own batched transaction. A chunk that fails deletes the expenses it created,
+     * and earlier chunks stay imported. Expenses that cannot be deleted are logged and listed in
+     * the job's progress warnings.
+     */
+    private List<Bill> importBills(List<Bill> bills, Integer userId, String jobId) throws Exception {
+        UserDTO user = helper.validateUser(userId);
+        if (bills == null || bills.isEmpty())
+            return Collections.emptyList();
 
-            Bill toSave = helper.mapExpenseToBill(bill, savedExpense);
-            billRepository.save(toSave);
-            savedBills.add(toSave);
+        for (int i = 0; i < bills.size(); i++) {
+            try {
+                helper.validateBillData(bills.get(i));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Bill " + (i + 1) + ": " + e.getMessage());
+            }
+        }
 
-            if (++count % batchSize == 0) {
+        List<Bill> savedBills = new ArrayList<>(bills.size());
+        for (int start = 0; start < bills.size(); start += importChunkSize) {
+            List<Bill> chunk = bills.subList(start, Math.min(start + importChunkSize, bills.size()));
+            try {
+                savedBills.addAll(importChunk(chunk, user, jobId));
+            } catch (Exception e) {
+                throw new Exception("Bill import stopped at bill " + (start + 1) + " with " + savedBills.size()
+                        + " of " + bills.size() + " bills saved: " + e.getMessage(), e);
             }
+            if (jobId != null)
+                progressTracker.increment(jobId, chunk.size());
         }
         return savedBills;
     }
 
-    @Override
-    @Transactional
-    public List<Bill> addMultipleBillsWithProgress(List<Bill> bills, Integer userId, String jobId) throws Exception {
-        UserDTO user = helper.validateUser(userId);
-        if (bills == null || bills.isEmpty())
-            return Collections.emptyList();
-
-        final int progressStep = 250;
-        int sinceLast = 0;
-        List<Bill> savedBills = new ArrayList<>(Math.min(bills.size(), 10_000));
+    private List<Bill> importChunk(List<Bill> chunk, UserDTO user, String jobId) throws Exception {
+        List<ExpenseDTO> expenses = chunk.stream()
+                .map(bill -> helper.createExpenseFromBill(bill, user))
+                .collect(Collectors.toList());
+        List<ExpenseDTO> savedExpenses = expenseService.addExpenses(expenses, user.getId());
 
-        try {
-            for (Bill bill : bills) {
-                helper.validateBillData(bill);
+        if (savedExpenses == null || savedExpenses.size() != chunk.size()) {
+            deleteImportedExpenses(savedExpenses, user.getId(), jobId);
+            throw new Exception("Expense service created " + (savedExpenses == null ? 0 : savedExpenses.size())
+                    + " expenses for " + chunk.size() + " bills");
+        }
 
-                ExpenseDTO expenseDto = helper.createExpenseFromBill(bill, user);
-                System.out.println(("category id in bill" + expenseDto.getCategoryId()));
-                ExpenseDTO savedExpense = expenseService.addExpense(expenseDto, userId);
+        List<Bill> toSave = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            toSave.add(helper.mapExpenseToBill(chunk.get(i), savedExpenses.get(i)));
+        }
 
-                Bill toSave = helper.mapExpenseToBill(bill, savedExpense);
-                billRepository.save(toSave);
-                savedBills.add(toSave);
+        try {
+            List<Bill> saved = transactionTemplate.execute(status -> billRepository.saveAll(toSave));
+            saved.forEach(bill -> {
+                itemNameAutocomplete.billItemsChanged(user.getId(), null, bill.getExpenses());
+                billSearchEngine.billSaved(bill);
+            });
+            return saved;
+        } catch (RuntimeException e) {
+            deleteImportedExpenses(savedExpenses, user.getId(), jobId);
+            throw e;
+        }
+    }
 
-                if (++sinceLast >= progressStep) {
-                    progressTracker.increment(jobId, sinceLast);
-                    sinceLast = 0;
-                }
-            }
-            if (sinceLast > 0)
-                progressTracker.increment(jobId, sinceLast);
-            return savedBills;
-        } catch (Exception ex) {
-            progressTracker.fail(jobId, ex.getMessage());
-            throw ex;
+    private void deleteImportedExpenses(List<ExpenseDTO> expenses, Integer userId, String jobId) {
+        if (expenses == null || expenses.isEmpty())
+            return;
+        List<Integer> expenseIds = expenses.stream()
+                .filter(expense -> expense != null && expense.getExpense() != null)
+                .map(expense -> expense.getExpense().getId())
+                .filter(id -> id != null)
+                .collect(Collectors.toList());
+        try {
+            expenseService.deleteExpensesByIdsWithBillService(expenseIds, userId);
+        } catch (Exception e) {
+            // Left behind without a bill; the ids are what is needed to remove them by hand
+            log.error("Failed to delete expenses {} of a failed bill import chunk for user {}: {}", expenseIds,
+                    userId, e.getMessage(), e);
+            progressTracker.warn(jobId, "Expenses " + expenseIds + " created for a failed chunk could not be deleted: "
+                    + e.getMessage());
         }
     }
 
@@ -475,19 +533,6 @@ public class BillServiceImpl implements BillService {
         if (query == null || query.trim().isEmpty()) {
             return Collections.emptyList();
         }
-        String subsequencePattern = convertToSubsequencePattern(query.trim());
-        List<BillSearchDTO> results = billRepository.searchBillsFuzzyWithLimit(userId, subsequencePattern);
-        return results.stream().limit(limit).collect(Collectors.toList());
-    }
-
-    private String convertToSubsequencePattern(String query) {
-        if (query == null || query.isEmpty()) {
-            return "%";
-        }
-        StringBuilder pattern = new StringBuilder("%");
-        for (char c : query.toCharArray()) {
-            pattern.append(c).append("%");
-        }
-        return pattern.toString();
+        return billSearchEngine.search(userId, query, limit);
     }
 }
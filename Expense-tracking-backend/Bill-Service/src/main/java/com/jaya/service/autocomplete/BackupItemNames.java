@@ -0,0 +1,88 @@
+package com.jaya.service.autocomplete;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The built-in item names from {@code backup_item_names.txt}, loaded once and shared by every
+ * user. Names are held in two parallel arrays sorted by normalized key, so a prefix lookup is a
+ * binary search followed by a scan of at most {@code limit} entries.
+ */
+@Slf4j
+public final class BackupItemNames {
+
+    private static final String RESOURCE = "backup_item_names.txt";
+
+    private final String[] keys;
+    private final String[] names;
+    private final List<String> all;
+
+    private BackupItemNames(Map<String, String> byKey) {
+        this.keys = byKey.keySet().toArray(new String[0]);
+        Arrays.sort(keys);
+        this.names = new String[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            names[i] = byKey.get(keys[i]);
+        }
+        this.all = Collections.unmodifiableList(new ArrayList<>(byKey.values()));
+    }
+
+    private static final class Holder {
+        private static final BackupItemNames INSTANCE = load();
+    }
+
+    public static BackupItemNames get() {
+        return Holder.INSTANCE;
+    }
+
+    private static BackupItemNames load() {
+        Map<String, String> byKey = new LinkedHashMap<>();
+        try (InputStream is = BackupItemNames.class.getClassLoader().getResourceAsStream(RESOURCE)) {
+            if (is != null) {
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
+                    reader.lines().forEach(line -> {
+                        String key = ItemNameIndex.normalize(line);
+                        if (key != null) {
+                            byKey.putIfAbsent(key, line.trim());
+                        }
+                    });
+                }
+            }
+        } catch (Exception ex) {
+            log.warn("Could not read {}, continuing without backup item names: {}", RESOURCE, ex.getMessage());
+        }
+        return new BackupItemNames(byKey);
+    }
+
+    /** Up to {@code limit} backup names starting with {@code prefix}, in alphabetical order. */
+    public List<String> withPrefix(String prefix, int limit) {
+        String key = ItemNameIndex.normalize(prefix);
+        if (key == null) {
+            return all.subList(0, Math.min(limit, all.size()));
+        }
+        int i = Arrays.binarySearch(keys, key);
+        if (i < 0) {
+            i = -i - 1;
+        }
+        List<String> result = new ArrayList<>(limit);
+        for (; i < keys.length && result.size() < limit && keys[i].startsWith(key); i++) {
+            result.add(names[i]);
+        }
+        return result;
+    }
+
+    /** Every backup name in file order. */
+    public List<String> all() {
+        return all;
+    }
+}
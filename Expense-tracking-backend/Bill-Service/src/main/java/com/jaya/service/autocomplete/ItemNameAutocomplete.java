@@ -0,0 +1,126 @@
+package com.jaya.service.autocomplete;
+
+import com.jaya.models.DetailedExpenses;
+import com.jaya.repository.BillRepository;
+import com.jaya.util.UserIndexCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static com.jaya.util.TransactionCallbacks.afterCommit;
+
+/**
+ * Item-name suggestions for the bill form. Each user's names are loaded from the database the first
+ * time they are asked for and then kept current from bill create, update and delete, so a lookup
+ * never rescans the user's bills. Users' own names rank by how often they were used; the shared
+ * backup list fills any remaining slots. Bills changed through another instance are only seen here
+ * once the index is reloaded, so an index older than {@code bill.autocomplete.index-ttl-ms} is
+ * reloaded on next use.
+ */
+@Component
+public class ItemNameAutocomplete {
+
+    private final BillRepository billRepository;
+
+    private final UserIndexCache<ItemNameIndex> indexes;
+
+    public ItemNameAutocomplete(BillRepository billRepository,
+            @Value("${bill.autocomplete.max-users:10000}") int maxUsers,
+            @Value("${bill.autocomplete.index-ttl-ms:300000}") long indexTtlMs) {
+        this.billRepository = billRepository;
+        this.indexes = new UserIndexCache<>(maxUsers, indexTtlMs);
+    }
+
+    /** Up to {@code limit} names starting with {@code prefix}: the user's most used first, then backup names. */
+    public List<String> suggest(Integer userId, String prefix, int limit) {
+        ItemNameIndex index = indexFor(userId);
+        List<String> result = index.top(prefix, limit);
+        if (result.size() < limit) {
+            // Every user name matching the prefix is already in result, so at most result.size()
+            // backup names are skipped and `limit` of them is enough to fill the rest
+            for (String name : BackupItemNames.get().withPrefix(prefix, limit)) {
+                if (result.size() >= limit) {
+                    break;
+                }
+                if (!index.contains(name)) {
+                    result.add(name);
+                }
+            }
+        }
+        return result;
+    }
+
+    /** The user's names, most used first. */
+    public List<String> userNames(Integer userId) {
+        return indexFor(userId).all();
+    }
+
+    /** The user's names, most used first, followed by the backup names they have not used. */
+    public List<String> userAndBackupNames(Integer userId) {
+        ItemNameIndex index = indexFor(userId);
+        List<String> result = index.all();
+        for (String name : BackupItemNames.get().all()) {
+            if (!index.contains(name)) {
+                result.add(name);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Moves the usage counts of a bill's items from {@code before} to {@code after}. Inside a
+     * transaction the change is applied only once it commits, so a rolled back save leaves the
+     * index untouched. Users whose index is not loaded are skipped; they load the committed state.
+     */
+    public void billItemsChanged(Integer userId, Collection<DetailedExpenses> before,
+            Collection<DetailedExpenses> after) {
+        if (userId == null) {
+            return;
+        }
+        List<String> removed = itemNames(before);
+        List<String> added = itemNames(after);
+        if (removed.isEmpty() && added.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> {
+            ItemNameIndex index = indexes.getIfLoaded(userId);
+            if (index == null) {
+                return;
+            }
+            removed.forEach(name -> index.add(name, -1));
+            added.forEach(name -> index.add(name, 1));
+        });
+    }
+
+    /** Drops the user's index so it is reloaded from the database on next use. */
+    public void evict(Integer userId) {
+        afterCommit(() -> indexes.evict(userId));
+    }
+
+    private ItemNameIndex indexFor(Integer userId) {
+        return indexes.get(userId, this::loadIndex);
+    }
+
+    private ItemNameIndex loadIndex(Integer userId) {
+        ItemNameIndex loaded = new ItemNameIndex();
+        for (String name : billRepository.findItemNamesByUserId(userId)) {
+            loaded.add(name, 1);
+        }
+        return loaded;
+    }
+
+    private static List<String> itemNames(Collection<DetailedExpenses> items) {
+        List<String> names = new ArrayList<>();
+        if (items != null) {
+            for (DetailedExpenses item : items) {
+                if (item != null && ItemNameIndex.normalize(item.getItemName()) != null) {
+                    names.add(item.getItemName());
+                }
+            }
+        }
+        return names;
+    }
+}
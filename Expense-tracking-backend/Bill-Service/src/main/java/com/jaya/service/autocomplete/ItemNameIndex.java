@@ -0,0 +1,169 @@
+package com.jaya.service.autocomplete;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Item names of one user with how many bill items use each, kept in a sorted map keyed by the
+ * normalized name. A prefix query walks only the matching key range and keeps the {@code limit}
+ * most used names in a small heap, so it does not depend on the size of the rest of the index.
+ * An empty or one-character prefix would still walk a large share of the names, so those are
+ * answered from sets kept ranked by usage, overall and per first character, reading only the
+ * first {@code limit} entries.
+ */
+public class ItemNameIndex {
+
+    private static final Comparator<Entry> BY_USAGE = Comparator
+            .comparingInt((Entry e) -> e.count).reversed()
+            .thenComparing(e -> e.key);
+
+    private final TreeMap<String, Entry> entries = new TreeMap<>();
+    private final NavigableSet<Entry> ranked = new TreeSet<>(BY_USAGE);
+    private final Map<Character, NavigableSet<Entry>> rankedByFirstChar = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private static final class Entry {
+        private final String key;
+        private String name;
+        private int count;
+
+        private Entry(String key, String name) {
+            this.key = key;
+            this.name = name;
+        }
+    }
+
+    /** Lower-cased, trimmed name with inner whitespace collapsed, or null for a blank name. */
+    public static String normalize(String name) {
+        if (name == null) {
+            return null;
+        }
+        String trimmed = name.trim().replaceAll("\\s+", " ");
+        return trimmed.isEmpty() ? null : trimmed.toLowerCase(Locale.ROOT);
+    }
+
+    /** Adds {@code delta} uses of {@code name}; the entry is dropped when its count reaches zero. */
+    public void add(String name, int delta) {
+        String key = normalize(name);
+        if (key == null || delta == 0) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                if (delta < 0) {
+                    return;
+                }
+                entry = new Entry(key, name.trim().replaceAll("\\s+", " "));
+                entries.put(key, entry);
+            } else {
+                // The ranked sets order by count, so the entry leaves them before its count changes
+                unrank(entry);
+            }
+            entry.count += delta;
+            if (entry.count <= 0) {
+                entries.remove(key);
+            } else {
+                rank(entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** The {@code limit} most used names starting with {@code prefix} (case-insensitive). */
+    public List<String> top(String prefix, int limit) {
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+        String key = normalize(prefix);
+        lock.readLock().lock();
+        try {
+            if (key == null || key.length() == 1) {
+                NavigableSet<Entry> byUsage = key == null ? ranked : rankedByFirstChar.get(key.charAt(0));
+                List<String> names = new ArrayList<>(limit);
+                if (byUsage != null) {
+                    for (Iterator<Entry> it = byUsage.iterator(); it.hasNext() && names.size() < limit;) {
+                        names.add(it.next().name);
+                    }
+                }
+                return names;
+            }
+            NavigableMap<String, Entry> range = entries.subMap(key, true, key + Character.MAX_VALUE, false);
+
+            // Min-heap on usage holding the best `limit` entries seen so far
+            PriorityQueue<Entry> best = new PriorityQueue<>(limit + 1, BY_USAGE.reversed());
+            for (Entry entry : range.values()) {
+                if (best.size() < limit) {
+                    best.add(entry);
+                } else if (BY_USAGE.compare(entry, best.peek()) < 0) {
+                    best.poll();
+                    best.add(entry);
+                }
+            }
+
+            List<Entry> ranked = new ArrayList<>(best);
+            ranked.sort(BY_USAGE);
+            List<String> names = new ArrayList<>(ranked.size());
+            for (Entry entry : ranked) {
+                names.add(entry.name);
+            }
+            return names;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void rank(Entry entry) {
+        ranked.add(entry);
+        rankedByFirstChar.computeIfAbsent(entry.key.charAt(0), c -> new TreeSet<>(BY_USAGE)).add(entry);
+    }
+
+    private void unrank(Entry entry) {
+        ranked.remove(entry);
+        NavigableSet<Entry> byFirstChar = rankedByFirstChar.get(entry.key.charAt(0));
+        byFirstChar.remove(entry);
+        if (byFirstChar.isEmpty()) {
+            rankedByFirstChar.remove(entry.key.charAt(0));
+        }
+    }
+
+    /** Every name, most used first. */
+    public List<String> all() {
+        return top(null, size());
+    }
+
+    public boolean contains(String name) {
+        String key = normalize(name);
+        if (key == null) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            return entries.containsKey(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.jaya.service.ocr;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+
+/**
+ * Resize, grayscale, contrast stretch and sharpen in two passes over a single 8-bit output buffer.
+ *
+ * <p>The first pass reads the source one row at a time, bilinearly scales it to the target size,
+ * converts it to gray and writes it straight into the output {@code TYPE_BYTE_GRAY} raster while
+ * tracking the minimum and maximum. The second pass applies the contrast lookup table and the
+ * sharpen kernel in place, keeping the three rows the kernel needs in rolling row buffers. The
+ * output image is therefore the only full-size allocation; row buffers are reused per thread.
+ *
+ * <p>Each step follows what the former separate passes did: Java2D bilinear sample positions, the
+ * linear-light luminance that {@code ColorConvertOp} produces for {@code CS_GRAY}, the same
+ * min/max stretch, and a {@code 5c - n - s - e - w} kernel that leaves border pixels untouched.
+ * The gray level is within one step of the colour-managed conversion for every sRGB colour and
+ * off by that step for about 1% of them; matching it exactly would mean running the conversion
+ * through the colour management module again, at several times the cost of the whole pass.
+ */
+final class FusedImagePreprocessor {
+
+    // sRGB component to linear light, scaled to 0..65535 so luminance can be summed in integers
+    private static final int[] SRGB_TO_LINEAR = new int[256];
+
+    // Luminance (Y) of the D50-adapted sRGB primaries in Java's built-in profile, in 1/65536ths
+    private static final int WEIGHT_R = 14582;
+    private static final int WEIGHT_G = 46983;
+    private static final int WEIGHT_B = 3971;
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            double c = i / 255.0;
+            double linear = c <= 0.04045 ? c / 12.92 : Math.pow((c + 0.055) / 1.055, 2.4);
+            SRGB_TO_LINEAR[i] = (int) Math.round(linear * 65535);
+        }
+    }
+
+    private static final ThreadLocal<RowBuffers> ROWS = ThreadLocal.withInitial(RowBuffers::new);
+
+    /** Per-thread scratch rows, grown to the widest image seen so far. */
+    private static final class RowBuffers {
+        private int[] sourceTop = new int[0];
+        private int[] sourceBottom = new int[0];
+        private byte[] above = new byte[0];
+        private byte[] current = new byte[0];
+        private byte[] below = new byte[0];
+
+        private RowBuffers ensure(int sourceWidth, int width) {
+            if (sourceTop.length < sourceWidth) {
+                sourceTop = new int[sourceWidth];
+                sourceBottom = new int[sourceWidth];
+            }
+            if (current.length < width) {
+                above = new byte[width];
+                current = new byte[width];
+                below = new byte[width];
+            }
+            return this;
+        }
+    }
+
+    private FusedImagePreprocessor() {
+    }
+
+    static BufferedImage process(BufferedImage source, int width, int height) {
+        RowBuffers rows = ROWS.get().ensure(source.getWidth(), width);
+        BufferedImage output = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+        byte[] pixels = ((DataBufferByte) output.getRaster().getDataBuffer()).getData();
+
+        int[] range = toScaledGray(source, width, height, pixels, rows);
+        sharpenWithContrast(pixels, width, height, contrastTable(range[0], range[1]), rows);
+        return output;
+    }
+
+    /**
+     * Fills {@code pixels} with the gray, bilinearly scaled source and returns its {min, max}. Only
+     * the two source rows around the current output row are held, as packed RGB.
+     */
+    private static int[] toScaledGray(BufferedImage source, int width, int height, byte[] pixels, RowBuffers rows) {
+        int sourceWidth = source.getWidth();
+        int sourceHeight = source.getHeight();
+        double scaleX = (double) sourceWidth / width;
+        double scaleY = (double) sourceHeight / height;
+        int min = 255;
+        int max = 0;
+
+        int[] top = rows.sourceTop;
+        int[] bottom = rows.sourceBottom;
+        int topRow = -1;
+        int bottomRow = -1;
+
+        for (int y = 0; y < height; y++) {
+            // Pixel-center mapping, as Java2D uses for bilinear drawImage scaling
+            double sy = Math.max(0, Math.min(sourceHeight - 1, (y + 0.5) * scaleY - 0.5));
+            int y0 = (int) sy;
+            int y1 = Math.min(y0 + 1, sourceHeight - 1);
+            int fy = (int) ((sy - y0) * 256);
+
+            if (y0 == bottomRow) {
+                int[] swap = top;
+                top = bottom;
+                bottom = swap;
+                topRow = bottomRow;
+                bottomRow = -1;
+            }
+            if (y0 != topRow) {
+                source.getRGB(0, y0, sourceWidth, 1, top, 0, sourceWidth);
+                topRow = y0;
+            }
+            if (y1 != bottomRow) {
+                source.getRGB(0, y1, sourceWidth, 1, bottom, 0, sourceWidth);
+                bottomRow = y1;
+            }
+
+            int offset = y * width;
+            for (int x = 0; x < width; x++) {
+                double sx = Math.max(0, Math.min(sourceWidth - 1, (x + 0.5) * scaleX - 0.5));
+                int x0 = (int) sx;
+                int x1 = Math.min(x0 + 1, sourceWidth - 1);
+                int fx = (int) ((sx - x0) * 256);
+
+                int r = lerp(channel(top[x0], 16), channel(top[x1], 16), channel(bottom[x0], 16),
+                        channel(bottom[x1], 16), fx, fy);
+                int g = lerp(channel(top[x0], 8), channel(top[x1], 8), channel(bottom[x0], 8),
+                        channel(bottom[x1], 8), fx, fy);
+                int b = lerp(channel(top[x0], 0), channel(top[x1], 0), channel(bottom[x0], 0),
+                        channel(bottom[x1], 0), fx, fy);
+
+                int gray = gray(r, g, b);
+                pixels[offset + x] = (byte) gray;
+                if (gray < min) {
+                    min = gray;
+                }
+                if (gray > max) {
+                    max = gray;
+                }
+            }
+        }
+
+        rows.sourceTop = top;
+        rows.sourceBottom = bottom;
+        return new int[] { min, max };
+    }
+
+    /** Linear-light luminance of an sRGB colour as an 8-bit gray level, rounded to nearest. */
+    static int gray(int r, int g, int b) {
+        long luminance = (long) WEIGHT_R * SRGB_TO_LINEAR[r] + (long) WEIGHT_G * SRGB_TO_LINEAR[g]
+                + (long) WEIGHT_B * SRGB_TO_LINEAR[b];
+        return (int) ((luminance * 255 + (65535L << 15)) / (65535L << 16));
+    }
+
+    private static int channel(int rgb, int shift) {
+        return (rgb >> shift) & 0xFF;
+    }
+
+    // Bilinear blend with 8-bit fractional weights, rounded to nearest
+    private static int lerp(int topLeft, int topRight, int bottomLeft, int bottomRight, int fx, int fy) {
+        int top = topLeft * (256 - fx) + topRight * fx;
+        int bottom = bottomLeft * (256 - fx) + bottomRight * fx;
+        return (top * (256 - fy) + bottom * fy + (1 << 15)) >> 16;
+    }
+
+    /** The min/max stretch; narrow ranges are widened by 20 on each side before stretching. */
+    private static byte[] contrastTable(int min, int max) {
+        if (max - min < 50) {
+            min = Math.max(0, min - 20);
+            max = Math.min(255, max + 20);
+        }
+        double scale = 255.0 / (max - min);
+        byte[] table = new byte[256];
+        for (int i = 0; i < 256; i++) {
+            table[i] = (byte) Math.max(0, Math.min(255, (int) ((i - min) * scale)));
+        }
+        return table;
+    }
+
+    /**
+     * Applies {@code table} and then the sharpen kernel to {@code pixels} in place. The kernel is
+     * {@code c + (2c - w - e) + (2c - n - s)}: a horizontal and a vertical second difference added
+     * to the pixel, read from contrast-mapped copies of the previous, current and next rows.
+     */
+    private static void sharpenWithContrast(byte[] pixels, int width, int height, byte[] table, RowBuffers rows) {
+        byte[] above = rows.above;
+        byte[] current = rows.current;
+        byte[] below = rows.below;
+
+        mapRow(pixels, 0, width, table, current);
+        if (height > 1) {
+            mapRow(pixels, width, width, table, below);
+        }
+
+        for (int y = 0; y < height; y++) {
+            int offset = y * width;
+            if (y == 0 || y == height - 1 || width < 3) {
+                System.arraycopy(current, 0, pixels, offset, width);
+            } else {
+                pixels[offset] = current[0];
+                for (int x = 1; x < width - 1; x++) {
+                    int c = current[x] & 0xFF;
+                    int value = c
+                            + 2 * c - (current[x - 1] & 0xFF) - (current[x + 1] & 0xFF)
+                            + 2 * c - (above[x] & 0xFF) - (below[x] & 0xFF);
+                    pixels[offset + x] = (byte) (value < 0 ? 0 : Math.min(value, 255));
+                }
+                pixels[offset + width - 1] = current[width - 1];
+            }
+
+            // Rows y + 1 and below are still unmodified in pixels, so the next one can be read from there
+            byte[] swap = above;
+            above = current;
+            current = below;
+            below = swap;
+            if (y + 2 < height) {
+                mapRow(pixels, (y + 2) * width, width, table, below);
+            }
+        }
+    }
+
+    private static void mapRow(byte[] pixels, int offset, int width, byte[] table, byte[] row) {
+        for (int x = 0; x < width; x++) {
+            row[x] = table[pixels[offset + x] & 0xFF];
+        }
+    }
+}
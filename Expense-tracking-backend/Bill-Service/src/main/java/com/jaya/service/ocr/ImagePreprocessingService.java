@@ -8,9 +8,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.imageio.ImageIO;
-import java.awt.*;
-import java.awt.color.ColorSpace;
-import java.awt.image.*;
+import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 
@@ -32,12 +30,7 @@ public class ImagePreprocessingService {
                 throw new InvalidImageException("Could not read image file. Invalid or corrupted image format.");
             }
 
-            if (!config.getPreprocessing().isEnabled()) {
-                log.debug("Preprocessing disabled, returning original image");
-                return originalImage;
-            }
-
-            return processImage(originalImage);
+            return preprocess(originalImage);
 
         } catch (InvalidImageException e) {
             throw e;
@@ -50,6 +43,16 @@ public class ImagePreprocessingService {
         }
     }
 
+    /** Prepares a decoded image for OCR; returned unchanged when preprocessing is disabled. */
+    public BufferedImage preprocess(BufferedImage originalImage) {
+        if (!config.getPreprocessing().isEnabled()) {
+            log.debug("Preprocessing disabled, returning original image");
+            return originalImage;
+        }
+
+        return processImage(originalImage);
+    }
+
     public void validateImage(MultipartFile file) {
         if (file == null || file.isEmpty()) {
             throw new InvalidImageException("No image file provided");
@@ -84,106 +87,23 @@ public class ImagePreprocessingService {
     private BufferedImage processImage(BufferedImage original) {
         log.debug("Processing image: {}x{}", original.getWidth(), original.getHeight());
 
-        BufferedImage resized = resizeIfNeeded(original);
-
-        BufferedImage grayscale = convertToGrayscale(resized);
-
-        BufferedImage enhanced = enhanceContrast(grayscale);
-
-        BufferedImage sharpened = sharpenImage(enhanced);
-
-        log.debug("Image preprocessing complete: {}x{}", sharpened.getWidth(), sharpened.getHeight());
-
-        return sharpened;
-    }
-
-    private BufferedImage resizeIfNeeded(BufferedImage image) {
         int maxWidth = config.getPreprocessing().getMaxWidth();
         int maxHeight = config.getPreprocessing().getMaxHeight();
-
-        if (image.getWidth() <= maxWidth && image.getHeight() <= maxHeight) {
-            return image;
-        }
-
-        double scaleX = (double) maxWidth / image.getWidth();
-        double scaleY = (double) maxHeight / image.getHeight();
-        double scale = Math.min(scaleX, scaleY);
-
-        int newWidth = (int) (image.getWidth() * scale);
-        int newHeight = (int) (image.getHeight() * scale);
-
-        BufferedImage resized = new BufferedImage(newWidth, newHeight, BufferedImage.TYPE_INT_RGB);
-        Graphics2D g2d = resized.createGraphics();
-        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
-        g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        g2d.drawImage(image, 0, 0, newWidth, newHeight, null);
-        g2d.dispose();
-
-        log.debug("Resized image from {}x{} to {}x{}",
-                image.getWidth(), image.getHeight(), newWidth, newHeight);
-
-        return resized;
-    }
-
-    private BufferedImage convertToGrayscale(BufferedImage image) {
-        ColorConvertOp op = new ColorConvertOp(
-                ColorSpace.getInstance(ColorSpace.CS_GRAY), null);
-        BufferedImage grayscale = new BufferedImage(
-                image.getWidth(), image.getHeight(), BufferedImage.TYPE_BYTE_GRAY);
-        op.filter(image, grayscale);
-        return grayscale;
-    }
-
-    private BufferedImage enhanceContrast(BufferedImage image) {
-        int min = 255;
-        int max = 0;
-
-        for (int y = 0; y < image.getHeight(); y++) {
-            for (int x = 0; x < image.getWidth(); x++) {
-                int pixel = image.getRaster().getSample(x, y, 0);
-                min = Math.min(min, pixel);
-                max = Math.max(max, pixel);
-            }
-        }
-
-        if (max - min < 50) {
-            min = Math.max(0, min - 20);
-            max = Math.min(255, max + 20);
+        int width = original.getWidth();
+        int height = original.getHeight();
+
+        if (width > maxWidth || height > maxHeight) {
+            double scale = Math.min((double) maxWidth / width, (double) maxHeight / height);
+            width = Math.max(1, (int) (width * scale));
+            height = Math.max(1, (int) (height * scale));
+            log.debug("Resizing image from {}x{} to {}x{}", original.getWidth(), original.getHeight(), width, height);
         }
 
-        BufferedImage enhanced = new BufferedImage(
-                image.getWidth(), image.getHeight(), BufferedImage.TYPE_BYTE_GRAY);
-
-        double scale = 255.0 / (max - min);
-
-        for (int y = 0; y < image.getHeight(); y++) {
-            for (int x = 0; x < image.getWidth(); x++) {
-                int pixel = image.getRaster().getSample(x, y, 0);
-                int newPixel = (int) ((pixel - min) * scale);
-                newPixel = Math.max(0, Math.min(255, newPixel));
-                enhanced.getRaster().setSample(x, y, 0, newPixel);
-            }
-        }
-
-        return enhanced;
-    }
-
-    private BufferedImage sharpenImage(BufferedImage image) {
-        float[] sharpenKernel = {
-                0, -1, 0,
-                -1, 5, -1,
-                0, -1, 0
-        };
-
-        Kernel kernel = new Kernel(3, 3, sharpenKernel);
-        ConvolveOp op = new ConvolveOp(kernel, ConvolveOp.EDGE_NO_OP, null);
+        BufferedImage processed = FusedImagePreprocessor.process(original, width, height);
 
-        BufferedImage sharpened = new BufferedImage(
-                image.getWidth(), image.getHeight(), image.getType());
-        op.filter(image, sharpened);
+        log.debug("Image preprocessing complete: {}x{}", processed.getWidth(), processed.getHeight());
 
-        return sharpened;
+        return processed;
     }
 
     private String getFileExtension(String filename) {
@@ -0,0 +1,125 @@
+package com.jaya.service.ocr;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aho-Corasick automaton over lower-case ASCII keywords, compiled into a full transition table so
+ * scanning costs one array lookup per character however many keywords there are. Characters
+ * outside ASCII return to the root, since no keyword contains them.
+ */
+final class KeywordAutomaton {
+
+    private static final int ALPHABET = 128;
+    private static final int[] NONE = new int[0];
+
+    private final List<String> keywords;
+    private final Map<String, Integer> ids;
+    private final int[][] transitions;
+    private final int[][] matches;
+
+    KeywordAutomaton(Collection<String> keywords) {
+        this.ids = new LinkedHashMap<>();
+        for (String keyword : keywords) {
+            if (keyword.isEmpty() || !keyword.chars().allMatch(c -> c < ALPHABET)) {
+                throw new IllegalArgumentException("Keywords must be non-empty ASCII: " + keyword);
+            }
+            ids.putIfAbsent(keyword, ids.size());
+        }
+        this.keywords = List.copyOf(ids.keySet());
+
+        // Trie
+        List<int[]> trie = new ArrayList<>();
+        List<List<Integer>> own = new ArrayList<>();
+        trie.add(newState());
+        own.add(new ArrayList<>());
+        for (String keyword : this.keywords) {
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = keyword.charAt(i);
+                if (trie.get(state)[c] < 0) {
+                    trie.get(state)[c] = trie.size();
+                    trie.add(newState());
+                    own.add(new ArrayList<>());
+                }
+                state = trie.get(state)[c];
+            }
+            own.get(state).add(ids.get(keyword));
+        }
+
+        // Breadth-first failure links, folded into the transition table as we go
+        int states = trie.size();
+        this.transitions = new int[states][];
+        this.matches = new int[states][];
+        int[] fail = new int[states];
+        Deque<Integer> queue = new ArrayDeque<>();
+
+        transitions[0] = trie.get(0).clone();
+        matches[0] = NONE;
+        for (int c = 0; c < ALPHABET; c++) {
+            if (transitions[0][c] < 0) {
+                transitions[0][c] = 0;
+            } else {
+                fail[transitions[0][c]] = 0;
+                queue.add(transitions[0][c]);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            int[] inherited = matches[fail[state]];
+            int[] mine = own.get(state).stream().mapToInt(Integer::intValue).toArray();
+            int[] all = Arrays.copyOf(mine, mine.length + inherited.length);
+            System.arraycopy(inherited, 0, all, mine.length, inherited.length);
+            matches[state] = all.length == 0 ? NONE : all;
+
+            transitions[state] = trie.get(state).clone();
+            for (int c = 0; c < ALPHABET; c++) {
+                int child = transitions[state][c];
+                if (child < 0) {
+                    transitions[state][c] = transitions[fail[state]][c];
+                } else {
+                    fail[child] = transitions[fail[state]][c];
+                    queue.add(child);
+                }
+            }
+        }
+    }
+
+    private static int[] newState() {
+        int[] state = new int[ALPHABET];
+        Arrays.fill(state, -1);
+        return state;
+    }
+
+    int id(String keyword) {
+        Integer id = ids.get(keyword);
+        if (id == null) {
+            throw new IllegalArgumentException("Unknown keyword: " + keyword);
+        }
+        return id;
+    }
+
+    String keyword(int id) {
+        return keywords.get(id);
+    }
+
+    int size() {
+        return keywords.size();
+    }
+
+    /** The state after reading {@code c} (already lower-cased) in {@code state}; 0 is the start. */
+    int step(int state, char c) {
+        return c < ALPHABET ? transitions[state][c] : 0;
+    }
+
+    /** Ids of the keywords that end at the character which led to {@code state}. */
+    int[] matches(int state) {
+        return matches[state];
+    }
+}
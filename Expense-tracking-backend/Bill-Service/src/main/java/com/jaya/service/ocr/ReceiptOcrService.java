@@ -25,7 +25,6 @@ public class ReceiptOcrService {
 
     public OcrReceiptResponseDTO processReceipt(MultipartFile file) {
         long startTime = System.currentTimeMillis();
-        List<String> warnings = new ArrayList<>();
 
         log.info("Starting receipt OCR processing for file: {}", file.getOriginalFilename());
 
@@ -38,6 +37,17 @@ public class ReceiptOcrService {
             throw e;
         }
 
+        return recognize(preprocessedImage, startTime);
+    }
+
+    /** OCR of an image that is already preprocessed, such as the OCR variant of a stored receipt. */
+    public OcrReceiptResponseDTO processPreprocessedImage(BufferedImage preprocessedImage) {
+        return recognize(preprocessedImage, System.currentTimeMillis());
+    }
+
+    private OcrReceiptResponseDTO recognize(BufferedImage preprocessedImage, long startTime) {
+        List<String> warnings = new ArrayList<>();
+
         String quality = imagePreprocessingService.assessImageQuality(preprocessedImage);
         if ("POOR".equals(quality)) {
             warnings.add("Image quality is poor - OCR results may be inaccurate");
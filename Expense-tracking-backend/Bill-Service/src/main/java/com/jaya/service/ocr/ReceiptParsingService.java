@@ -24,37 +24,35 @@ public class ReceiptParsingService {
             "[$€£¥₹%Rs\\.?]\\s*([\\d,]+\\.\\d{2})|([\\d,]+\\.\\d{2})\\s*[$€£¥₹%]",
             Pattern.CASE_INSENSITIVE);
 
-    private static final Pattern[] TOTAL_PATTERNS = {
-            Pattern.compile("TOTAL\\s*INVOICE\\s*AMOUNT[:\\s]*[₹Rs\\.%]*\\s*([\\d,]+\\.\\d{2})",
-                    Pattern.CASE_INSENSITIVE),
-            Pattern.compile("TOTAL\\s*RECEIVED\\s*AMOUNT[:\\s]*[₹Rs\\.%]*\\s*([\\d,]+\\.\\d{2})",
-                    Pattern.CASE_INSENSITIVE),
-            Pattern.compile("(?:GRAND\\s*)?TOTAL[:\\s]*[₹Rs\\.%]*\\s*([\\d,]+\\.\\d{2})", Pattern.CASE_INSENSITIVE),
-            Pattern.compile("NET\\s*(?:AMOUNT|PAYABLE)[:\\s]*[₹Rs\\.%]*\\s*([\\d,]+\\.\\d{2})",
-                    Pattern.CASE_INSENSITIVE),
-            Pattern.compile("(?:AMOUNT|AMT)\\s*(?:PAYABLE|DUE|PAID)[:\\s]*[₹Rs\\.%]*\\s*([\\d,]+\\.\\d{2})",
-                    Pattern.CASE_INSENSITIVE),
-            Pattern.compile("BILL\\s*AMOUNT[:\\s]*[₹Rs\\.%]*\\s*([\\d,]+\\.\\d{2})", Pattern.CASE_INSENSITIVE),
-            Pattern.compile("(?:BALANCE|DUE)[:\\s]*[$€£]?\\s*([\\d,]+\\.\\d{2})", Pattern.CASE_INSENSITIVE),
-            Pattern.compile("PAYMENT[:\\s]*[$€£]?\\s*([\\d,]+\\.\\d{2})", Pattern.CASE_INSENSITIVE)
+    // Each pattern can only match starting at one of its anchor keywords, so it is tried just at
+    // the positions where the keyword scan found those keywords
+    private static final AnchoredPattern[] TOTAL_PATTERNS = {
+            new AnchoredPattern("TOTAL\\s*INVOICE\\s*AMOUNT[:\\s]*[₹Rs\\.%]*\\s*([\\d,]+\\.\\d{2})", "total"),
+            new AnchoredPattern("TOTAL\\s*RECEIVED\\s*AMOUNT[:\\s]*[₹Rs\\.%]*\\s*([\\d,]+\\.\\d{2})", "total"),
+            new AnchoredPattern("(?:GRAND\\s*)?TOTAL[:\\s]*[₹Rs\\.%]*\\s*([\\d,]+\\.\\d{2})", "grand", "total"),
+            new AnchoredPattern("NET\\s*(?:AMOUNT|PAYABLE)[:\\s]*[₹Rs\\.%]*\\s*([\\d,]+\\.\\d{2})", "net"),
+            new AnchoredPattern("(?:AMOUNT|AMT)\\s*(?:PAYABLE|DUE|PAID)[:\\s]*[₹Rs\\.%]*\\s*([\\d,]+\\.\\d{2})",
+                    "amount", "amt"),
+            new AnchoredPattern("BILL\\s*AMOUNT[:\\s]*[₹Rs\\.%]*\\s*([\\d,]+\\.\\d{2})", "bill"),
+            new AnchoredPattern("(?:BALANCE|DUE)[:\\s]*[$€£]?\\s*([\\d,]+\\.\\d{2})", "balance", "due"),
+            new AnchoredPattern("PAYMENT[:\\s]*[$€£]?\\s*([\\d,]+\\.\\d{2})", "payment")
     };
 
-    private static final Pattern[] SUBTOTAL_PATTERNS = {
-            Pattern.compile("SUB\\s*TOTAL[:\\s]*[₹Rs\\.$€£]*\\s*([\\d,]+\\.\\d{2})", Pattern.CASE_INSENSITIVE),
-            Pattern.compile("SUBTOTAL[:\\s]*[₹Rs\\.$€£]*\\s*([\\d,]+\\.\\d{2})", Pattern.CASE_INSENSITIVE),
-            Pattern.compile("TAXABLE\\s*(?:VALUE|AMOUNT)[:\\s]*[₹Rs\\.]*\\s*([\\d,]+\\.\\d{2})",
-                    Pattern.CASE_INSENSITIVE)
+    private static final AnchoredPattern[] SUBTOTAL_PATTERNS = {
+            new AnchoredPattern("SUB\\s*TOTAL[:\\s]*[₹Rs\\.$€£]*\\s*([\\d,]+\\.\\d{2})", "sub"),
+            new AnchoredPattern("SUBTOTAL[:\\s]*[₹Rs\\.$€£]*\\s*([\\d,]+\\.\\d{2})", "subtotal"),
+            new AnchoredPattern("TAXABLE\\s*(?:VALUE|AMOUNT)[:\\s]*[₹Rs\\.]*\\s*([\\d,]+\\.\\d{2})", "taxable")
     };
 
-    private static final Pattern[] TAX_PATTERNS = {
-            Pattern.compile("(?:TOTAL\\s*)?GST[:\\s]*[₹Rs\\.]*\\s*([\\d,]+\\.\\d{2})", Pattern.CASE_INSENSITIVE),
-            Pattern.compile("CGST[:\\s@%\\d\\.]*[₹Rs\\.]*\\s*([\\d,]+\\.\\d{2})", Pattern.CASE_INSENSITIVE),
-            Pattern.compile("SGST[:\\s@%\\d\\.]*[₹Rs\\.]*\\s*([\\d,]+\\.\\d{2})", Pattern.CASE_INSENSITIVE),
-            Pattern.compile("IGST[:\\s@%\\d\\.]*[₹Rs\\.]*\\s*([\\d,]+\\.\\d{2})", Pattern.CASE_INSENSITIVE),
-            Pattern.compile("CESS[:\\s@%\\d\\.]*[₹Rs\\.]*\\s*([\\d,]+\\.\\d{2})", Pattern.CASE_INSENSITIVE),
-            Pattern.compile("(?:SALES\\s*)?TAX[:\\s]*[$€£]?\\s*([\\d,]+\\.\\d{2})", Pattern.CASE_INSENSITIVE),
-            Pattern.compile("VAT[:\\s]*[$€£]?\\s*([\\d,]+\\.\\d{2})", Pattern.CASE_INSENSITIVE),
-            Pattern.compile("HST[:\\s]*[$€£]?\\s*([\\d,]+\\.\\d{2})", Pattern.CASE_INSENSITIVE)
+    private static final AnchoredPattern[] TAX_PATTERNS = {
+            new AnchoredPattern("(?:TOTAL\\s*)?GST[:\\s]*[₹Rs\\.]*\\s*([\\d,]+\\.\\d{2})", "total", "gst"),
+            new AnchoredPattern("CGST[:\\s@%\\d\\.]*[₹Rs\\.]*\\s*([\\d,]+\\.\\d{2})", "cgst"),
+            new AnchoredPattern("SGST[:\\s@%\\d\\.]*[₹Rs\\.]*\\s*([\\d,]+\\.\\d{2})", "sgst"),
+            new AnchoredPattern("IGST[:\\s@%\\d\\.]*[₹Rs\\.]*\\s*([\\d,]+\\.\\d{2})", "igst"),
+            new AnchoredPattern("CESS[:\\s@%\\d\\.]*[₹Rs\\.]*\\s*([\\d,]+\\.\\d{2})", "cess"),
+            new AnchoredPattern("(?:SALES\\s*)?TAX[:\\s]*[$€£]?\\s*([\\d,]+\\.\\d{2})", "sales", "tax"),
+            new AnchoredPattern("VAT[:\\s]*[$€£]?\\s*([\\d,]+\\.\\d{2})", "vat"),
+            new AnchoredPattern("HST[:\\s]*[$€£]?\\s*([\\d,]+\\.\\d{2})", "hst")
     };
 
     private static final DatePattern[] DATE_PATTERNS = {
@@ -62,9 +60,9 @@ public class ReceiptParsingService {
             new DatePattern("(\\d{1,2})[/-](\\d{1,2})[/-](\\d{2})", "DD/MM/YY", 2, 1, 3, true),
             new DatePattern("(\\d{4})[/-](\\d{1,2})[/-](\\d{1,2})", "YYYY/MM/DD", 2, 3, 1, false),
             new DatePattern("(\\d{1,2})\\s*(Jan|Feb|Mar|Apr|May|Jun|Jul|Aug|Sep|Oct|Nov|Dec)[a-z]*\\s*(\\d{4})",
-                    "dd MMM yyyy", 1, 0, 3, false),
+                    "dd MMM yyyy", 2, 1, 3, false),
             new DatePattern("(Jan|Feb|Mar|Apr|May|Jun|Jul|Aug|Sep|Oct|Nov|Dec)[a-z]*\\s*(\\d{1,2}),?\\s*(\\d{4})",
-                    "MMM dd yyyy", 2, 0, 3, false)
+                    "MMM dd yyyy", 1, 2, 3, false)
     };
 
     private static final Map<String, String> PAYMENT_KEYWORDS = new LinkedHashMap<>() {
@@ -93,6 +91,10 @@ public class ReceiptParsingService {
         }
     };
 
+    private static final List<PaymentKeyword> PAYMENT_PATTERNS = PAYMENT_KEYWORDS.entrySet().stream()
+            .map(entry -> new PaymentKeyword(entry.getKey(), entry.getValue()))
+            .toList();
+
     private static final Map<String, List<String>> CATEGORY_KEYWORDS = new LinkedHashMap<>() {
         {
             put("Groceries", List.of("grocery", "supermarket", "market", "walmart", "kroger",
@@ -120,6 +122,101 @@ public class ReceiptParsingService {
         }
     };
 
+    private static final List<String> MERCHANT_PATTERNS = List.of(
+            "trent hypermarket", "star bazaar", "star market", "dmart", "d-mart",
+            "big bazaar", "bigbazaar", "reliance", "more supermarket", "spencer",
+            "nilgiri", "nature basket", "easyday", "spar", "ratnadeep", "heritage",
+            "foodworld", "hypercity", "lulu", "margin free", "metro cash", "walmart");
+
+    private static final List<String> MERCHANT_SKIP_PATTERNS = List.of(
+            "tax details", "tax detail", "invoice", "tender detail", "tender details",
+            "payment", "gst ind", "cgst", "sgst", "igst", "cess", "total", "subtotal",
+            "customer id", "cashier", "counter", "credit card", "debit card", "cash",
+            "saving", "discount", "received", "balance", "fssai", "gstin", "amount",
+            "item", "description", "qty", "hsn", "taxable", "net.amt", "net amt");
+
+    // Every line containing one of these also contains "ltd" or "limited"
+    private static final List<String> COMPANY_SUFFIX_KEYWORDS = List.of("ltd", "limited");
+
+    private static final List<String> LINE_SKIP_KEYWORDS = List.of(
+            "total", "subtotal", "sub total", "balance", "cgst", "sgst", "igst", "cess", "tax", "gst",
+            "invoice", "tender", "credit card", "debit card", "received", "saving", "discount",
+            "customer", "cashier", "counter", "fssai", "gstin");
+
+    private static final List<String> MONTH_KEYWORDS = List.of(
+            "jan", "feb", "mar", "apr", "may", "jun", "jul", "aug", "sep", "oct", "nov", "dec");
+
+    private static final List<String> CURRENCY_KEYWORDS = List.of(
+            "rs", "rs.", "rs ", "rupees", "inr", "paisa", "cgst", "sgst", "igst", "gstin", "fssai");
+
+    private static final int MAX_CATEGORY_KEYWORD_LENGTH = CATEGORY_KEYWORDS.values().stream()
+            .flatMap(List::stream).mapToInt(String::length).max().orElse(0);
+
+    /** One automaton over every keyword any extractor looks for, run once per receipt. */
+    private static final KeywordAutomaton KEYWORDS = buildKeywordAutomaton();
+
+    private static final BitSet MERCHANT_SKIP_IDS = idsOf(MERCHANT_SKIP_PATTERNS);
+    private static final BitSet LINE_SKIP_IDS = idsOf(LINE_SKIP_KEYWORDS);
+    private static final BitSet COMPANY_SUFFIX_IDS = idsOf(COMPANY_SUFFIX_KEYWORDS);
+
+    private static final Pattern CLEANUP_PATTERN = Pattern.compile("[*#=\\-_]+");
+    private static final Pattern WHITESPACE_PATTERN = Pattern.compile("\\s+");
+    private static final Pattern DATE_IN_LINE_PATTERN = Pattern.compile(".*\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4}.*");
+    private static final Pattern CURRENCY_AMOUNT_IN_LINE_PATTERN = Pattern.compile(".*[₹$€£]\\s*\\d+.*");
+    private static final Pattern DIGITS_ONLY_PATTERN = Pattern.compile("^\\d+$");
+    private static final Pattern DIGITS_AND_PUNCTUATION_PATTERN = Pattern.compile("^[\\d\\s\\-:]+$");
+    private static final Pattern ITEM_CODE_LINE_PATTERN = Pattern.compile("^\\d{6,7}\\s+.*");
+
+    private static final Pattern INDIAN_ITEM_PATTERN = Pattern.compile(
+            "^\\s*(\\d{6,7})\\s+" +
+                    "([\\d.]+)\\s*(KG|PC|GM|LTR|ML|PCS|NOS)?\\s*" +
+                    "[₹Rs\\.$€£%]?\\s*([\\d,]+\\.\\d{2})\\s+" +
+                    "[₹Rs\\.$€£%]?\\s*([\\d,]+\\.\\d{2})",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern DESCRIPTION_PATTERN = Pattern.compile(
+            "^\\s*([A-Za-z][A-Za-z0-9\\s]{2,35})\\s+" +
+                    "(\\d{8})\\s*" +
+                    "[₹Rs\\.$€£%]?\\s*([\\d,]+\\.\\d{2})",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern SIMPLE_ITEM_PATTERN = Pattern.compile(
+            "^\\s*([A-Za-z][A-Za-z0-9\\s]{2,35})\\s+" +
+                    "(?:[xX]?(\\d+)\\s+)?" +
+                    "[₹Rs\\.$€£%]?\\s*([\\d,]+\\.\\d{2})\\s*$",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern DESC_AMOUNT_PATTERN = Pattern.compile(
+            "^\\s*([A-Za-z][A-Za-z0-9\\s]{3,40})\\s+" +
+                    "([\\d,]+\\.\\d{2})\\s*$",
+            Pattern.CASE_INSENSITIVE);
+
+    private static KeywordAutomaton buildKeywordAutomaton() {
+        Set<String> keywords = new LinkedHashSet<>();
+        for (AnchoredPattern[] patterns : List.of(TOTAL_PATTERNS, SUBTOTAL_PATTERNS, TAX_PATTERNS)) {
+            for (AnchoredPattern pattern : patterns) {
+                keywords.addAll(pattern.anchors);
+            }
+        }
+        for (PaymentKeyword payment : PAYMENT_PATTERNS) {
+            keywords.add(payment.keyword);
+        }
+        CATEGORY_KEYWORDS.values().forEach(keywords::addAll);
+        keywords.addAll(MERCHANT_PATTERNS);
+        keywords.addAll(MERCHANT_SKIP_PATTERNS);
+        keywords.addAll(COMPANY_SUFFIX_KEYWORDS);
+        keywords.addAll(LINE_SKIP_KEYWORDS);
+        keywords.addAll(MONTH_KEYWORDS);
+        keywords.addAll(CURRENCY_KEYWORDS);
+        return new KeywordAutomaton(keywords);
+    }
+
+    private static BitSet idsOf(List<String> keywords) {
+        BitSet ids = new BitSet();
+        keywords.forEach(keyword -> ids.set(KEYWORDS.id(keyword)));
+        return ids;
+    }
+
     public OcrReceiptResponseDTO parseReceipt(OcrProcessingResult ocrResult) {
         String rawText = ocrResult.getExtractedText();
         if (rawText == null || rawText.trim().isEmpty()) {
@@ -129,15 +226,17 @@ public class ReceiptParsingService {
         Map<String, FieldConfidence> confidenceMap = new HashMap<>();
         List<String> warnings = new ArrayList<>();
 
-        String merchant = extractMerchant(rawText, confidenceMap);
-        Double amount = extractTotalAmount(rawText, confidenceMap);
-        LocalDate date = extractDate(rawText, confidenceMap, warnings);
-        Double tax = extractTax(rawText, confidenceMap);
-        Double subtotal = extractSubtotal(rawText);
-        String paymentMethod = extractPaymentMethod(rawText);
-        String currency = detectCurrency(rawText);
-        List<ExtractedExpenseItem> items = extractLineItems(rawText);
-        String suggestedCategory = suggestCategory(merchant, rawText);
+        ReceiptText receipt = ReceiptText.scan(rawText, KEYWORDS);
+
+        String merchant = extractMerchant(receipt, confidenceMap);
+        Double amount = extractTotalAmount(receipt, confidenceMap);
+        LocalDate date = extractDate(receipt, confidenceMap, warnings);
+        Double tax = extractTax(receipt, confidenceMap);
+        Double subtotal = extractSubtotal(receipt);
+        String paymentMethod = extractPaymentMethod(receipt);
+        String currency = detectCurrency(receipt);
+        List<ExtractedExpenseItem> items = extractLineItems(receipt);
+        String suggestedCategory = suggestCategory(merchant, receipt);
 
         double overallConfidence = calculateOverallConfidence(confidenceMap);
 
@@ -160,28 +259,12 @@ public class ReceiptParsingService {
                 .build();
     }
 
-    private String extractMerchant(String text, Map<String, FieldConfidence> confidenceMap) {
-        String[] lines = text.split("\\r?\\n");
-        String lowerText = text.toLowerCase();
-
-        List<String> merchantPatterns = List.of(
-                "trent hypermarket", "star bazaar", "star market", "dmart", "d-mart",
-                "big bazaar", "bigbazaar", "reliance", "more supermarket", "spencer",
-                "nilgiri", "nature basket", "easyday", "spar", "ratnadeep", "heritage",
-                "foodworld", "hypercity", "lulu", "margin free", "metro cash", "walmart");
-
-        List<String> skipPatterns = List.of(
-                "tax details", "tax detail", "invoice", "tender detail", "tender details",
-                "payment", "gst ind", "cgst", "sgst", "igst", "cess", "total", "subtotal",
-                "customer id", "cashier", "counter", "credit card", "debit card", "cash",
-                "saving", "discount", "received", "balance", "fssai", "gstin", "amount",
-                "item", "description", "qty", "hsn", "taxable", "net.amt", "net amt");
-
-        for (String pattern : merchantPatterns) {
-            if (lowerText.contains(pattern)) {
-                for (String line : lines) {
-                    if (line.toLowerCase().contains(pattern)) {
-                        String merchant = line.replaceAll("[*#=\\-_]+", " ").replaceAll("\\s+", " ").trim();
+    private String extractMerchant(ReceiptText receipt, Map<String, FieldConfidence> confidenceMap) {
+        for (String pattern : MERCHANT_PATTERNS) {
+            if (receipt.contains(pattern)) {
+                for (int i = 0; i < receipt.lineCount(); i++) {
+                    if (receipt.lineContains(i, pattern)) {
+                        String merchant = cleanMerchantName(receipt.line(i));
                         if (merchant.length() >= 5 && merchant.length() <= 60) {
                             confidenceMap.put("merchant", FieldConfidence.high("merchant",
                                     "Merchant identified by known store pattern"));
@@ -192,21 +275,17 @@ public class ReceiptParsingService {
             }
         }
 
-        for (String line : lines) {
-            String trimmed = line.trim();
+        for (int i = 0; i < receipt.lineCount(); i++) {
+            if (!receipt.lineContainsAny(i, COMPANY_SUFFIX_IDS)) {
+                continue;
+            }
+            String trimmed = receipt.line(i).trim();
             String lower = trimmed.toLowerCase();
             if ((lower.contains("pvt ltd") || lower.contains("pvt. ltd") ||
                     lower.contains("private limited") || lower.endsWith(" ltd") ||
                     lower.endsWith(" limited")) && trimmed.length() >= 10) {
-                boolean skip = false;
-                for (String sp : skipPatterns) {
-                    if (lower.contains(sp)) {
-                        skip = true;
-                        break;
-                    }
-                }
-                if (!skip) {
-                    String merchant = trimmed.replaceAll("[*#=\\-_]+", " ").replaceAll("\\s+", " ").trim();
+                if (!receipt.lineContainsAny(i, MERCHANT_SKIP_IDS)) {
+                    String merchant = cleanMerchantName(trimmed);
                     confidenceMap.put("merchant", FieldConfidence.high("merchant",
                             "Merchant identified by company suffix"));
                     return merchant;
@@ -215,31 +294,22 @@ public class ReceiptParsingService {
         }
 
         List<String> candidateLines = new ArrayList<>();
-        for (String line : lines) {
-            String trimmed = line.trim();
+        for (int i = 0; i < receipt.lineCount(); i++) {
+            String trimmed = receipt.line(i).trim();
             if (trimmed.isEmpty() || trimmed.length() < 4)
                 continue;
 
-            String lower = trimmed.toLowerCase();
-
-            boolean skip = false;
-            for (String sp : skipPatterns) {
-                if (lower.contains(sp)) {
-                    skip = true;
-                    break;
-                }
-            }
-            if (skip)
+            if (receipt.lineContainsAny(i, MERCHANT_SKIP_IDS))
                 continue;
 
-            if (trimmed.matches(".*\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4}.*") ||
-                    trimmed.matches(".*[₹$€£]\\s*\\d+.*") ||
-                    trimmed.matches("^\\d+$") ||
-                    trimmed.matches("^[\\d\\s\\-:]+$")) {
+            if (DATE_IN_LINE_PATTERN.matcher(trimmed).matches() ||
+                    CURRENCY_AMOUNT_IN_LINE_PATTERN.matcher(trimmed).matches() ||
+                    DIGITS_ONLY_PATTERN.matcher(trimmed).matches() ||
+                    DIGITS_AND_PUNCTUATION_PATTERN.matcher(trimmed).matches()) {
                 continue;
             }
 
-            if (trimmed.matches("^\\d{6,7}\\s+.*")) {
+            if (ITEM_CODE_LINE_PATTERN.matcher(trimmed).matches()) {
                 continue;
             }
 
@@ -256,7 +326,7 @@ public class ReceiptParsingService {
 
         String merchant = null;
         if (!candidateLines.isEmpty()) {
-            String candidate = candidateLines.get(0).replaceAll("[*#=\\-_]+", " ").replaceAll("\\s+", " ").trim();
+            String candidate = cleanMerchantName(candidateLines.get(0));
 
             int digitCount = candidate.replaceAll("[^0-9]", "").length();
             int letterCount = candidate.replaceAll("[^a-zA-Z]", "").length();
@@ -278,24 +348,27 @@ public class ReceiptParsingService {
         return merchant;
     }
 
-    private Double extractTotalAmount(String text, Map<String, FieldConfidence> confidenceMap) {
-        for (Pattern pattern : TOTAL_PATTERNS) {
-            Matcher matcher = pattern.matcher(text);
-            if (matcher.find()) {
+    private String cleanMerchantName(String line) {
+        return WHITESPACE_PATTERN.matcher(CLEANUP_PATTERN.matcher(line).replaceAll(" ")).replaceAll(" ").trim();
+    }
+
+    private Double extractTotalAmount(ReceiptText receipt, Map<String, FieldConfidence> confidenceMap) {
+        for (AnchoredPattern pattern : TOTAL_PATTERNS) {
+            String value = pattern.find(receipt);
+            if (value != null) {
                 try {
-                    String amountStr = matcher.group(1).replace(",", "");
-                    Double amount = Double.parseDouble(amountStr);
+                    Double amount = Double.parseDouble(value.replace(",", ""));
                     confidenceMap.put("amount", FieldConfidence.high("amount",
                             "Total amount found with keyword label"));
                     return amount;
                 } catch (NumberFormatException e) {
-                    log.debug("Failed to parse amount: {}", matcher.group(1));
+                    log.debug("Failed to parse amount: {}", value);
                 }
             }
         }
 
         List<Double> amounts = new ArrayList<>();
-        Matcher currencyMatcher = CURRENCY_PATTERN.matcher(text);
+        Matcher currencyMatcher = CURRENCY_PATTERN.matcher(receipt.text());
         while (currencyMatcher.find()) {
             try {
                 String amountStr = currencyMatcher.group(1) != null ? currencyMatcher.group(1)
@@ -319,22 +392,23 @@ public class ReceiptParsingService {
         return null;
     }
 
-    private LocalDate extractDate(String text, Map<String, FieldConfidence> confidenceMap,
+    private LocalDate extractDate(ReceiptText receipt, Map<String, FieldConfidence> confidenceMap,
             List<String> warnings) {
         List<LocalDate> foundDates = new ArrayList<>();
+        boolean hasMonthName = MONTH_KEYWORDS.stream().anyMatch(receipt::contains);
 
         for (DatePattern dp : DATE_PATTERNS) {
-            Pattern pattern = Pattern.compile(dp.regex, Pattern.CASE_INSENSITIVE);
-            Matcher matcher = pattern.matcher(text);
-            while (matcher.find()) {
-                try {
-                    LocalDate date = parseDate(matcher, dp);
-                    if (date != null && isReasonableDate(date)) {
-                        foundDates.add(date);
+            Matcher matcher = dp.pattern.matcher(receipt.text());
+            if (dp.numeric) {
+                // Numeric dates cannot span lines, so only lines with a separator are searched
+                for (int i = 0; i < receipt.lineCount(); i++) {
+                    if (receipt.lineHasDateSeparator(i)) {
+                        matcher.region(receipt.lineStart(i), receipt.lineEnd(i));
+                        collectDates(matcher, dp, foundDates);
                     }
-                } catch (Exception e) {
-                    log.debug("Failed to parse date: {}", e.getMessage());
                 }
+            } else if (hasMonthName) {
+                collectDates(matcher, dp, foundDates);
             }
         }
 
@@ -356,24 +430,42 @@ public class ReceiptParsingService {
                 .orElse(null);
     }
 
+    private void collectDates(Matcher matcher, DatePattern dp, List<LocalDate> foundDates) {
+        while (matcher.find()) {
+            try {
+                LocalDate date = parseDate(matcher, dp);
+                if (date != null && isReasonableDate(date)) {
+                    foundDates.add(date);
+                }
+            } catch (Exception e) {
+                log.debug("Failed to parse date: {}", e.getMessage());
+            }
+        }
+    }
+
     private LocalDate parseDate(Matcher matcher, DatePattern dp) {
         try {
-            if (dp.monthGroup == 0) {
-                String monthStr = matcher.group(1).toLowerCase();
+            if (!dp.numeric) {
+                String monthStr = matcher.group(dp.monthGroup).toLowerCase();
                 int month = getMonthNumber(monthStr);
                 if (month == 0)
                     return null;
 
-                int day = Integer.parseInt(matcher.group(dp.dayGroup));
-                int year = Integer.parseInt(matcher.group(dp.yearGroup));
+                int day = parseNumber(matcher.group(dp.dayGroup));
+                int year = parseNumber(matcher.group(dp.yearGroup));
+                if (day < 0 || year < 0)
+                    return null;
                 if (year < 100)
                     year += 2000;
 
                 return LocalDate.of(year, month, day);
             } else {
-                int group1 = Integer.parseInt(matcher.group(dp.monthGroup));
-                int group2 = Integer.parseInt(matcher.group(dp.dayGroup));
-                int year = Integer.parseInt(matcher.group(dp.yearGroup));
+                int group1 = parseNumber(matcher.group(dp.monthGroup));
+                int group2 = parseNumber(matcher.group(dp.dayGroup));
+                int year = parseNumber(matcher.group(dp.yearGroup));
+                // Rejected up front rather than through a NumberFormatException, which is costly per match
+                if (group1 < 0 || group2 < 0 || year < 0)
+                    return null;
                 if (year < 100)
                     year += 2000;
 
@@ -404,6 +496,20 @@ public class ReceiptParsingService {
         }
     }
 
+    /** The value of a short run of ASCII digits, or -1 for anything else. */
+    private int parseNumber(String value) {
+        if (value == null || value.isEmpty() || value.length() > 9)
+            return -1;
+        int number = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9')
+                return -1;
+            number = number * 10 + (c - '0');
+        }
+        return number;
+    }
+
     private int getMonthNumber(String monthStr) {
         String[] months = { "jan", "feb", "mar", "apr", "may", "jun",
                 "jul", "aug", "sep", "oct", "nov", "dec" };
@@ -422,56 +528,51 @@ public class ReceiptParsingService {
         return date.isAfter(fiveYearsAgo) && date.isBefore(oneYearAhead);
     }
 
-    private Double extractTax(String text, Map<String, FieldConfidence> confidenceMap) {
-        for (Pattern pattern : TAX_PATTERNS) {
-            Matcher matcher = pattern.matcher(text);
-            if (matcher.find()) {
+    private Double extractTax(ReceiptText receipt, Map<String, FieldConfidence> confidenceMap) {
+        for (AnchoredPattern pattern : TAX_PATTERNS) {
+            String value = pattern.find(receipt);
+            if (value != null) {
                 try {
-                    String taxStr = matcher.group(1).replace(",", "");
-                    Double tax = Double.parseDouble(taxStr);
+                    Double tax = Double.parseDouble(value.replace(",", ""));
                     confidenceMap.put("tax", FieldConfidence.high("tax", "Tax found with keyword label"));
                     return tax;
                 } catch (NumberFormatException e) {
-                    log.debug("Failed to parse tax: {}", matcher.group(1));
+                    log.debug("Failed to parse tax: {}", value);
                 }
             }
         }
         return null;
     }
 
-    private Double extractSubtotal(String text) {
-        for (Pattern pattern : SUBTOTAL_PATTERNS) {
-            Matcher matcher = pattern.matcher(text);
-            if (matcher.find()) {
+    private Double extractSubtotal(ReceiptText receipt) {
+        for (AnchoredPattern pattern : SUBTOTAL_PATTERNS) {
+            String value = pattern.find(receipt);
+            if (value != null) {
                 try {
-                    String subtotalStr = matcher.group(1).replace(",", "");
-                    return Double.parseDouble(subtotalStr);
+                    return Double.parseDouble(value.replace(",", ""));
                 } catch (NumberFormatException e) {
-                    log.debug("Failed to parse subtotal: {}", matcher.group(1));
+                    log.debug("Failed to parse subtotal: {}", value);
                 }
             }
         }
         return null;
     }
 
-    private String extractPaymentMethod(String text) {
-        String upperText = text.toUpperCase();
-        for (Map.Entry<String, String> entry : PAYMENT_KEYWORDS.entrySet()) {
-            String keyword = entry.getKey();
-            Pattern wordPattern = Pattern.compile("\\b" + Pattern.quote(keyword) + "\\b");
-            if (wordPattern.matcher(upperText).find()) {
-                return entry.getValue();
+    private String extractPaymentMethod(ReceiptText receipt) {
+        for (PaymentKeyword payment : PAYMENT_PATTERNS) {
+            if (receipt.contains(payment.keyword) && payment.matches(receipt)) {
+                return payment.method;
             }
         }
         return null;
     }
 
-    private String detectCurrency(String text) {
-        String upperText = text.toUpperCase();
+    private String detectCurrency(ReceiptText receipt) {
+        String text = receipt.text();
 
         if (text.contains("₹"))
             return "INR";
-        if (text.contains("$") && !upperText.contains("RS"))
+        if (text.contains("$") && !receipt.contains("rs"))
             return "USD";
         if (text.contains("€"))
             return "EUR";
@@ -480,52 +581,26 @@ public class ReceiptParsingService {
         if (text.contains("¥"))
             return "JPY";
 
-        if (upperText.contains("RS.") || upperText.contains("RS ") ||
-                upperText.contains("RUPEES") || upperText.contains("INR") ||
-                upperText.contains("PAISA")) {
+        if (receipt.contains("rs.") || receipt.contains("rs ") ||
+                receipt.contains("rupees") || receipt.contains("inr") ||
+                receipt.contains("paisa")) {
             return "INR";
         }
 
-        if (upperText.contains("CGST") || upperText.contains("SGST") ||
-                upperText.contains("IGST") || upperText.contains("GSTIN") ||
-                upperText.contains("FSSAI")) {
+        if (receipt.contains("cgst") || receipt.contains("sgst") ||
+                receipt.contains("igst") || receipt.contains("gstin") ||
+                receipt.contains("fssai")) {
             return "INR";
         }
 
         return "USD";
     }
 
-    private List<ExtractedExpenseItem> extractLineItems(String text) {
+    private List<ExtractedExpenseItem> extractLineItems(ReceiptText receipt) {
         List<ExtractedExpenseItem> items = new ArrayList<>();
         Map<String, ExtractedExpenseItem> itemMap = new LinkedHashMap<>();
 
-        String[] lines = text.split("\\r?\\n");
-
-        log.debug("Extracting line items from {} lines", lines.length);
-
-        Pattern indianItemPattern = Pattern.compile(
-                "^\\s*(\\d{6,7})\\s+" +
-                        "([\\d.]+)\\s*(KG|PC|GM|LTR|ML|PCS|NOS)?\\s*" +
-                        "[₹Rs\\.$€£%]?\\s*([\\d,]+\\.\\d{2})\\s+" +
-                        "[₹Rs\\.$€£%]?\\s*([\\d,]+\\.\\d{2})",
-                Pattern.CASE_INSENSITIVE);
-
-        Pattern descriptionPattern = Pattern.compile(
-                "^\\s*([A-Za-z][A-Za-z0-9\\s]{2,35})\\s+" +
-                        "(\\d{8})\\s*" +
-                        "[₹Rs\\.$€£%]?\\s*([\\d,]+\\.\\d{2})",
-                Pattern.CASE_INSENSITIVE);
-
-        Pattern simpleItemPattern = Pattern.compile(
-                "^\\s*([A-Za-z][A-Za-z0-9\\s]{2,35})\\s+" +
-                        "(?:[xX]?(\\d+)\\s+)?" +
-                        "[₹Rs\\.$€£%]?\\s*([\\d,]+\\.\\d{2})\\s*$",
-                Pattern.CASE_INSENSITIVE);
-
-        Pattern descAmountPattern = Pattern.compile(
-                "^\\s*([A-Za-z][A-Za-z0-9\\s]{3,40})\\s+" +
-                        "([\\d,]+\\.\\d{2})\\s*$",
-                Pattern.CASE_INSENSITIVE);
+        log.debug("Extracting line items from {} lines", receipt.lineCount());
 
         String pendingItemCode = null;
         Double pendingQty = null;
@@ -533,15 +608,19 @@ public class ReceiptParsingService {
         Double pendingUnitPrice = null;
         Double pendingTotalPrice = null;
 
-        for (String line : lines) {
-            line = line.trim();
+        for (int i = 0; i < receipt.lineCount(); i++) {
+            String line = receipt.line(i).trim();
             if (line.isEmpty())
                 continue;
 
-            if (shouldSkipLine(line))
+            if (shouldSkipLine(receipt, i, line))
                 continue;
 
-            Matcher indianMatcher = indianItemPattern.matcher(line);
+            // Every item pattern needs an amount such as 12.50, so other lines cannot match
+            if (!receipt.lineHasAmount(i))
+                continue;
+
+            Matcher indianMatcher = INDIAN_ITEM_PATTERN.matcher(line);
             if (indianMatcher.find()) {
                 pendingItemCode = indianMatcher.group(1);
                 try {
@@ -567,7 +646,7 @@ public class ReceiptParsingService {
                 continue;
             }
 
-            Matcher descMatcher = descriptionPattern.matcher(line);
+            Matcher descMatcher = DESCRIPTION_PATTERN.matcher(line);
             if (descMatcher.find()) {
                 String description = descMatcher.group(1).trim();
                 Double taxableAmount = parseAmount(descMatcher.group(3));
@@ -615,7 +694,7 @@ public class ReceiptParsingService {
                 continue;
             }
 
-            Matcher simpleMatcher = simpleItemPattern.matcher(line);
+            Matcher simpleMatcher = SIMPLE_ITEM_PATTERN.matcher(line);
             if (simpleMatcher.find()) {
                 String description = simpleMatcher.group(1).trim();
 
@@ -648,7 +727,7 @@ public class ReceiptParsingService {
                 continue;
             }
 
-            Matcher descAmountMatcher = descAmountPattern.matcher(line);
+            Matcher descAmountMatcher = DESC_AMOUNT_PATTERN.matcher(line);
             if (descAmountMatcher.find()) {
                 String description = descAmountMatcher.group(1).trim();
 
@@ -683,6 +762,15 @@ public class ReceiptParsingService {
         return items;
     }
 
+    /** {@link #shouldSkipLine(String)} for a whole line, answered from the line's keyword annotations. */
+    private boolean shouldSkipLine(ReceiptText receipt, int lineIndex, String trimmedLine) {
+        if (trimmedLine.length() < 3)
+            return true;
+
+        return receipt.lineContainsAny(lineIndex, LINE_SKIP_IDS) ||
+                (receipt.lineHasDateSeparator(lineIndex) && DATE_IN_LINE_PATTERN.matcher(trimmedLine).matches());
+    }
+
     private boolean shouldSkipLine(String line) {
         if (line == null || line.length() < 3)
             return true;
@@ -710,7 +798,7 @@ public class ReceiptParsingService {
                 lower.contains("counter") ||
                 lower.contains("fssai") ||
                 lower.contains("gstin") ||
-                lower.matches(".*\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4}.*");
+                DATE_IN_LINE_PATTERN.matcher(lower).matches();
     }
 
     private Double parseAmount(String amountStr) {
@@ -739,13 +827,16 @@ public class ReceiptParsingService {
         }
     }
 
-    private String suggestCategory(String merchant, String text) {
-        String searchText = (merchant != null ? merchant : "") + " " + text;
-        searchText = searchText.toLowerCase();
+    private String suggestCategory(String merchant, ReceiptText receipt) {
+        // Matches inside the text come from the keyword scan; only the merchant and the seam between
+        // it and the text still need a direct search
+        String text = receipt.text();
+        String head = ((merchant != null ? merchant : "") + " "
+                + text.substring(0, Math.min(text.length(), MAX_CATEGORY_KEYWORD_LENGTH))).toLowerCase();
 
         for (Map.Entry<String, List<String>> entry : CATEGORY_KEYWORDS.entrySet()) {
             for (String keyword : entry.getValue()) {
-                if (searchText.contains(keyword.toLowerCase())) {
+                if (receipt.contains(keyword) || head.contains(keyword)) {
                     return entry.getKey();
                 }
             }
@@ -789,6 +880,9 @@ public class ReceiptParsingService {
 
     private static class DatePattern {
         String regex;
+        Pattern pattern;
+        // Numeric formats need a '/' or '-' separator; the others need a month name, in monthGroup
+        boolean numeric;
         String format;
         int monthGroup;
         int dayGroup;
@@ -797,6 +891,8 @@ public class ReceiptParsingService {
 
         DatePattern(String regex, String format, int monthGroup, int dayGroup, int yearGroup, boolean isDayFirst) {
             this.regex = regex;
+            this.pattern = Pattern.compile(regex, Pattern.CASE_INSENSITIVE);
+            this.numeric = regex.contains("[/-]");
             this.format = format;
             this.monthGroup = monthGroup;
             this.dayGroup = dayGroup;
@@ -808,4 +904,69 @@ public class ReceiptParsingService {
             this(regex, format, monthGroup, dayGroup, yearGroup, false);
         }
     }
+
+    /**
+     * A field pattern together with the keywords any match of it must start with. Trying the
+     * pattern only at those keywords' positions, in text order, finds the same leftmost match as
+     * {@link Matcher#find()} over the whole text.
+     */
+    private static class AnchoredPattern {
+        Pattern pattern;
+        List<String> anchors;
+
+        AnchoredPattern(String regex, String... anchors) {
+            this.pattern = Pattern.compile(regex, Pattern.CASE_INSENSITIVE);
+            this.anchors = List.of(anchors);
+        }
+
+        /** Group 1 of the leftmost match, or null. */
+        String find(ReceiptText receipt) {
+            int[] starts = candidateStarts(receipt);
+            if (starts.length == 0) {
+                return null;
+            }
+            Matcher matcher = pattern.matcher(receipt.text());
+            for (int start : starts) {
+                matcher.region(start, receipt.text().length());
+                if (matcher.lookingAt()) {
+                    return matcher.group(1);
+                }
+            }
+            return null;
+        }
+
+        private int[] candidateStarts(ReceiptText receipt) {
+            if (anchors.size() == 1) {
+                return receipt.positions(anchors.get(0));
+            }
+            return anchors.stream().flatMapToInt(anchor -> Arrays.stream(receipt.positions(anchor)))
+                    .sorted().distinct().toArray();
+        }
+    }
+
+    private static class PaymentKeyword {
+        String keyword;
+        String method;
+        Pattern pattern;
+
+        PaymentKeyword(String keyword, String method) {
+            this.keyword = keyword.toLowerCase();
+            this.method = method;
+            this.pattern = Pattern.compile("\\b" + Pattern.quote(keyword) + "\\b", Pattern.CASE_INSENSITIVE);
+        }
+
+        /** Whether the keyword occurs as a whole word, checked only where the keyword scan found it. */
+        boolean matches(ReceiptText receipt) {
+            Matcher matcher = pattern.matcher(receipt.text());
+            // Transparent bounds let \b see the character before the region
+            matcher.useTransparentBounds(true);
+            for (int start : receipt.positions(keyword)) {
+                matcher.region(start, receipt.text().length());
+                if (matcher.lookingAt()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
 }
@@ -0,0 +1,167 @@
+package com.jaya.service.ocr;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * OCR text tokenized in one pass: line boundaries, every keyword occurrence from a
+ * {@link KeywordAutomaton}, which keywords each line contains, and per-line flags for the tokens
+ * the field extractors key on (amounts like {@code 12.50} and date separators). Extractors read
+ * these annotations instead of rescanning the text for each field.
+ */
+final class ReceiptText {
+
+    private final String text;
+    private final KeywordAutomaton automaton;
+    private final int[] lineStarts;
+    private final int[] lineEnds;
+    private final BitSet[] lineKeywords;
+    private final BitSet amountLines;
+    private final BitSet separatorLines;
+    private final int[][] positions;
+    private final BitSet present;
+
+    private ReceiptText(String text, KeywordAutomaton automaton, int[] lineStarts, int[] lineEnds,
+            BitSet[] lineKeywords, BitSet amountLines, BitSet separatorLines, int[][] positions, BitSet present) {
+        this.text = text;
+        this.automaton = automaton;
+        this.lineStarts = lineStarts;
+        this.lineEnds = lineEnds;
+        this.lineKeywords = lineKeywords;
+        this.amountLines = amountLines;
+        this.separatorLines = separatorLines;
+        this.positions = positions;
+        this.present = present;
+    }
+
+    static ReceiptText scan(String text, KeywordAutomaton automaton) {
+        int keywordCount = automaton.size();
+        int[][] positions = new int[keywordCount][];
+        int[] positionCounts = new int[keywordCount];
+        BitSet present = new BitSet(keywordCount);
+
+        List<int[]> lines = new ArrayList<>();
+        List<BitSet> lineKeywords = new ArrayList<>();
+        BitSet amountLines = new BitSet();
+        BitSet separatorLines = new BitSet();
+
+        int length = text.length();
+        int state = 0;
+        int lineStart = 0;
+        BitSet keywords = new BitSet(keywordCount);
+
+        for (int i = 0; i <= length; i++) {
+            if (i == length || text.charAt(i) == '\n') {
+                // Same boundaries as split("\\r?\\n"): a "\r" right before the newline is not part of the line
+                int lineEnd = i > lineStart && i < length && text.charAt(i - 1) == '\r' ? i - 1 : i;
+                lines.add(new int[] { lineStart, lineEnd });
+                lineKeywords.add(keywords);
+                keywords = new BitSet(keywordCount);
+                lineStart = i + 1;
+                state = 0;
+                continue;
+            }
+
+            char c = text.charAt(i);
+            int line = lines.size();
+            if (c == '/' || c == '-') {
+                separatorLines.set(line);
+            } else if (c == '.' && isAmountAt(text, i)) {
+                amountLines.set(line);
+            }
+
+            state = automaton.step(state, Character.toLowerCase(c));
+            for (int id : automaton.matches(state)) {
+                int start = i - automaton.keyword(id).length() + 1;
+                if (positions[id] == null) {
+                    positions[id] = new int[4];
+                } else if (positionCounts[id] == positions[id].length) {
+                    positions[id] = Arrays.copyOf(positions[id], positionCounts[id] * 2);
+                }
+                positions[id][positionCounts[id]++] = start;
+                present.set(id);
+                keywords.set(id);
+            }
+        }
+
+        for (int id = 0; id < keywordCount; id++) {
+            positions[id] = positions[id] == null ? new int[0] : Arrays.copyOf(positions[id], positionCounts[id]);
+        }
+        int[] starts = new int[lines.size()];
+        int[] ends = new int[lines.size()];
+        for (int i = 0; i < lines.size(); i++) {
+            starts[i] = lines.get(i)[0];
+            ends[i] = lines.get(i)[1];
+        }
+        return new ReceiptText(text, automaton, starts, ends, lineKeywords.toArray(new BitSet[0]),
+                amountLines, separatorLines, positions, present);
+    }
+
+    // A '.' with a digit or comma before it and two digits after, as in [\d,]+\.\d{2}
+    private static boolean isAmountAt(String text, int dot) {
+        if (dot == 0 || dot + 2 >= text.length()) {
+            return false;
+        }
+        char before = text.charAt(dot - 1);
+        return (isDigit(before) || before == ',') && isDigit(text.charAt(dot + 1)) && isDigit(text.charAt(dot + 2));
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    String text() {
+        return text;
+    }
+
+    int lineCount() {
+        return lineStarts.length;
+    }
+
+    String line(int line) {
+        return text.substring(lineStarts[line], lineEnds[line]);
+    }
+
+    int lineStart(int line) {
+        return lineStarts[line];
+    }
+
+    int lineEnd(int line) {
+        return lineEnds[line];
+    }
+
+    /** Whether the keyword occurs anywhere in the text. */
+    boolean contains(String keyword) {
+        return present.get(automaton.id(keyword));
+    }
+
+    boolean lineContains(int line, String keyword) {
+        return lineKeywords[line].get(automaton.id(keyword));
+    }
+
+    /** Whether the line contains any keyword in {@code keywords}, given as automaton ids. */
+    boolean lineContainsAny(int line, BitSet keywords) {
+        return lineKeywords[line].intersects(keywords);
+    }
+
+    /** Whether the line has an amount token such as {@code 1,299.00}. */
+    boolean lineHasAmount(int line) {
+        return amountLines.get(line);
+    }
+
+    /** Whether the line has a '/' or '-', without which it cannot contain a numeric date. */
+    boolean lineHasDateSeparator(int line) {
+        return separatorLines.get(line);
+    }
+
+    boolean hasDateSeparator() {
+        return !separatorLines.isEmpty();
+    }
+
+    /** Start offsets of the keyword's occurrences, ascending. */
+    int[] positions(String keyword) {
+        return positions[automaton.id(keyword)];
+    }
+}
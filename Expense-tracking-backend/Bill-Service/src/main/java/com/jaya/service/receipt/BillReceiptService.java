@@ -0,0 +1,244 @@
+package com.jaya.service.receipt;
+
+import com.jaya.dto.BillReceiptDTO;
+import com.jaya.dto.ocr.OcrReceiptResponseDTO;
+import com.jaya.exceptions.InvalidImageException;
+import com.jaya.models.BillReceipt;
+import com.jaya.models.ReceiptImage;
+import com.jaya.repository.BillReceiptRepository;
+import com.jaya.repository.BillRepository;
+import com.jaya.repository.ReceiptImageRepository;
+import com.jaya.service.ocr.ImagePreprocessingService;
+import com.jaya.service.ocr.ReceiptOcrService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.jaya.util.TransactionCallbacks.afterCommit;
+
+/**
+ * Receipt images attached to bills. Uploads are stored once per distinct content (see
+ * {@link ReceiptStore}) and each bill attachment holds a reference on the image; the files are
+ * deleted when the last bill lets go of them.
+ *
+ * <p>Files are placed only after the reference that keeps them is committed, and removed only
+ * after the row is deleted for good, both under the store's per-hash lock. An upload racing the
+ * release of the same image therefore either revives the row before it is deleted or places the
+ * file again after it was removed.
+ */
+@Service
+@Slf4j
+public class BillReceiptService {
+
+    private final BillRepository billRepository;
+
+    private final BillReceiptRepository billReceiptRepository;
+
+    private final ReceiptImageRepository receiptImageRepository;
+
+    private final ReceiptStore store;
+
+    private final ReceiptVariantGenerator variantGenerator;
+
+    private final ImagePreprocessingService imagePreprocessingService;
+
+    private final ReceiptOcrService receiptOcrService;
+
+    // A new transaction even when called from afterCommit, where the finished one is still bound
+    private final TransactionTemplate newTransaction;
+
+    public BillReceiptService(BillRepository billRepository, BillReceiptRepository billReceiptRepository,
+            ReceiptImageRepository receiptImageRepository, ReceiptStore store,
+            ReceiptVariantGenerator variantGenerator, ImagePreprocessingService imagePreprocessingService,
+            ReceiptOcrService receiptOcrService, PlatformTransactionManager transactionManager) {
+        this.billRepository = billRepository;
+        this.billReceiptRepository = billReceiptRepository;
+        this.receiptImageRepository = receiptImageRepository;
+        this.store = store;
+        this.variantGenerator = variantGenerator;
+        this.imagePreprocessingService = imagePreprocessingService;
+        this.receiptOcrService = receiptOcrService;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /** A stored file ready to be served, or {@link #pending()} while a derived variant is generated. */
+    public record StoredReceipt(Path file, String contentType, String etag) {
+
+        static StoredReceipt pending() {
+            return new StoredReceipt(null, null, null);
+        }
+
+        public boolean isPending() {
+            return file == null;
+        }
+    }
+
+    public BillReceiptDTO attach(Integer userId, Integer billId, MultipartFile file) throws IOException {
+        if (billRepository.findByIdAndUserId(billId, userId).isEmpty()) {
+            throw new IllegalArgumentException("Bill not found with ID: " + billId);
+        }
+        imagePreprocessingService.validateImage(file);
+
+        ReceiptStore.StagedReceipt staged;
+        try (InputStream in = file.getInputStream()) {
+            staged = store.stage(in);
+        }
+        try {
+            ImageInfo info = probe(staged.file());
+            newTransaction.executeWithoutResult(status -> {
+                if (billReceiptRepository.attach(billId, userId, staged.hash(), file.getOriginalFilename()) > 0) {
+                    receiptImageRepository.addReference(staged.hash(), info.contentType(), staged.size(),
+                            info.width(), info.height());
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            store.discard(staged);
+            throw e;
+        }
+
+        store.promote(staged);
+        variantGenerator.schedule(staged.hash());
+
+        return list(userId, billId).stream()
+                .filter(receipt -> receipt.getHash().equals(staged.hash()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Receipt was detached while being attached"));
+    }
+
+    @Transactional(readOnly = true)
+    public List<BillReceiptDTO> list(Integer userId, Integer billId) {
+        List<BillReceipt> receipts = billReceiptRepository.findByBillIdAndUserIdOrderByIdAsc(billId, userId);
+        Map<String, ReceiptImage> images = receiptImageRepository
+                .findAllById(receipts.stream().map(BillReceipt::getHash).distinct().toList()).stream()
+                .collect(Collectors.toMap(ReceiptImage::getHash, Function.identity()));
+
+        return receipts.stream()
+                .filter(receipt -> images.containsKey(receipt.getHash()))
+                .map(receipt -> {
+                    ReceiptImage image = images.get(receipt.getHash());
+                    return new BillReceiptDTO(receipt.getHash(), receipt.getBillId(), receipt.getFileName(),
+                            image.getContentType(), image.getSizeBytes(), image.getWidth(), image.getHeight(),
+                            receipt.getAttachedAt(), store.exists(receipt.getHash(), ReceiptVariant.THUMBNAIL));
+                })
+                .toList();
+    }
+
+    /** Returns false if the image was not attached to the bill. */
+    @Transactional
+    public boolean detach(Integer userId, Integer billId, String hash) {
+        if (billReceiptRepository.detach(billId, userId, hash) == 0) {
+            return false;
+        }
+        receiptImageRepository.releaseReferences(hash, 1);
+        afterCommit(() -> deleteIfUnreferenced(hash));
+        return true;
+    }
+
+    /** Releases the receipts of a deleted bill. */
+    @Transactional
+    public void billDeleted(Integer billId) {
+        release(billReceiptRepository.findByBillId(billId));
+    }
+
+    /** Releases the receipts of all of a user's bills, after they were deleted together. */
+    @Transactional
+    public void userBillsDeleted(Integer userId) {
+        release(billReceiptRepository.findByUserId(userId));
+    }
+
+    /**
+     * The file to serve for one of the user's receipts, or null if the user has no bill with that
+     * image. A thumbnail or OCR variant that does not exist yet is queued and reported as pending.
+     */
+    public StoredReceipt open(Integer userId, String hash, ReceiptVariant variant) {
+        if (!isAccessible(userId, hash)) {
+            return null;
+        }
+        if (!store.exists(hash, variant)) {
+            if (variant == ReceiptVariant.ORIGINAL) {
+                return null;
+            }
+            variantGenerator.schedule(hash);
+            return StoredReceipt.pending();
+        }
+        String contentType = variant == ReceiptVariant.ORIGINAL
+                ? receiptImageRepository.findById(hash).map(ReceiptImage::getContentType)
+                        .orElse("application/octet-stream")
+                : variant.contentType();
+        // The hash names the original's bytes, and each variant is derived from them deterministically
+        String etag = "\"" + hash + "-" + variant.name().toLowerCase() + "\"";
+        return new StoredReceipt(store.path(hash, variant), contentType, etag);
+    }
+
+    /** OCR of a stored receipt from its preprocessed variant, so nothing is uploaded or preprocessed again. */
+    public OcrReceiptResponseDTO scan(Integer userId, String hash) throws IOException {
+        if (!isAccessible(userId, hash)) {
+            return null;
+        }
+        return receiptOcrService.processPreprocessedImage(variantGenerator.ocrImage(hash));
+    }
+
+    private boolean isAccessible(Integer userId, String hash) {
+        return ReceiptStore.isValidHash(hash) && billReceiptRepository.findFirstByUserIdAndHash(userId, hash).isPresent();
+    }
+
+    private void release(List<BillReceipt> receipts) {
+        if (receipts.isEmpty()) {
+            return;
+        }
+        billReceiptRepository.deleteAllInBatch(receipts);
+        Map<String, Integer> references = receipts.stream()
+                .collect(Collectors.groupingBy(BillReceipt::getHash, Collectors.summingInt(receipt -> 1)));
+        references.forEach(receiptImageRepository::releaseReferences);
+        afterCommit(() -> references.keySet().forEach(this::deleteIfUnreferenced));
+    }
+
+    private void deleteIfUnreferenced(String hash) {
+        store.withLock(hash, () -> {
+            Integer deleted = newTransaction.execute(status -> receiptImageRepository.deleteIfUnreferenced(hash));
+            if (deleted != null && deleted > 0) {
+                store.delete(hash);
+                log.debug("Deleted unreferenced receipt {}", hash);
+            }
+        });
+    }
+
+    private record ImageInfo(String contentType, int width, int height) {
+    }
+
+    /** Format and dimensions from the image header, without decoding the pixels. */
+    private static ImageInfo probe(Path file) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+            if (readers != null && readers.hasNext()) {
+                ImageReader reader = readers.next();
+                try {
+                    reader.setInput(in, true, true);
+                    String[] types = reader.getOriginatingProvider().getMIMETypes();
+                    String contentType = types != null && types.length > 0 ? types[0] : "application/octet-stream";
+                    return new ImageInfo(contentType, reader.getWidth(0), reader.getHeight(0));
+                } finally {
+                    reader.dispose();
+                }
+            }
+        }
+        throw new InvalidImageException("Could not read image file. Invalid or corrupted image format.");
+    }
+}
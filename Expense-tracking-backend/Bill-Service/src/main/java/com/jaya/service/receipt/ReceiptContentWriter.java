@@ -0,0 +1,141 @@
+package com.jaya.service.receipt;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes a stored receipt file to the response without loading it on the heap. Stored files never
+ * change, so the ETag is strong and conditional and single byte-range requests are answered from
+ * it. When the container offers sendfile (Tomcat's NIO connector does), the file is handed to it
+ * and goes to the socket from the kernel; otherwise it is copied with {@link FileChannel#transferTo}.
+ */
+@Component
+public class ReceiptContentWriter {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // Content-addressed, so a cached copy is valid for as long as the client keeps it
+    private static final String CACHE_CONTROL = "private, max-age=31536000, immutable";
+
+    private static final long[] UNSATISFIABLE = new long[0];
+
+    public void write(Path file, String contentType, String etag, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+            if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+
+            long start = 0;
+            long end = length - 1;
+            String range = request.getHeader(HttpHeaders.RANGE);
+            String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+            if (range != null && (ifRange == null || ifRange.equals(etag))) {
+                long[] bounds = parseRange(range, length);
+                if (bounds == UNSATISFIABLE) {
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    return;
+                }
+                if (bounds != null) {
+                    start = bounds[0];
+                    end = bounds[1];
+                    response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+                }
+            }
+
+            long count = end - start + 1;
+            response.setContentType(contentType);
+            response.setContentLengthLong(count);
+            if ("HEAD".equals(request.getMethod()) || count == 0) {
+                return;
+            }
+
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+                request.setAttribute(SENDFILE_START, start);
+                request.setAttribute(SENDFILE_END, end + 1);
+                return;
+            }
+
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (count > 0) {
+                long sent = channel.transferTo(position, count, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                count -= sent;
+            }
+        }
+    }
+
+    /**
+     * The inclusive bounds of a single {@code bytes=} range, {@link #UNSATISFIABLE} if it lies past
+     * the end, or null when the whole file should be sent: malformed and multi-range requests are
+     * answered with the full content, which the HTTP spec allows.
+     */
+    private static long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                // Suffix range: the last N bytes
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return suffix == 0 ? UNSATISFIABLE : null;
+                }
+                return length == 0 ? UNSATISFIABLE : new long[] { Math.max(0, length - suffix), length - 1 };
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            if (start < 0 || (!last.isEmpty() && Long.parseLong(last) < start)) {
+                return null;
+            }
+            return start >= length ? UNSATISFIABLE : new long[] { start, end };
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,171 @@
+package com.jaya.service.receipt;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Receipt images on the local filesystem, addressed by the SHA-256 of the original's bytes. An
+ * image and its variants live under {@code <root>/ab/cd/<hash>.<variant>}, so identical uploads
+ * share one file. Files only ever appear through an atomic move of a fully written temporary file,
+ * so readers never see a partial image.
+ *
+ * <p>Placing and deleting the files of one hash is serialized through {@link #withLock}. The locks
+ * are per JVM, which matches the store being local to this instance.
+ */
+@Component
+@Slf4j
+public class ReceiptStore {
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final int LOCK_STRIPES = 64;
+
+    private final Path root;
+    private final Path staging;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public ReceiptStore(@Value("${bill.receipts.storage-path:./data/receipts}") String storagePath) {
+        this.root = Paths.get(storagePath).toAbsolutePath().normalize();
+        this.staging = root.resolve("staging");
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        try {
+            Files.createDirectories(staging);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create receipt store at " + root, e);
+        }
+    }
+
+    /** An upload copied to a staging file and hashed, not yet visible in the store. */
+    record StagedReceipt(String hash, Path file, long size) {
+    }
+
+    /** Streams the upload to a staging file, hashing it on the way, so it is never held in memory. */
+    StagedReceipt stage(InputStream content) throws IOException {
+        Path file = Files.createTempFile(staging, "upload-", ".tmp");
+        try (DigestInputStream in = new DigestInputStream(content, sha256())) {
+            long size = Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+            return new StagedReceipt(HexFormat.of().formatHex(in.getMessageDigest().digest()), file, size);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    /**
+     * Moves a staged upload into place. If the image is already stored the staged copy is simply
+     * dropped; returns whether the file was new.
+     */
+    boolean promote(StagedReceipt staged) throws IOException {
+        Path target = path(staged.hash(), ReceiptVariant.ORIGINAL);
+        synchronized (lockFor(staged.hash())) {
+            if (Files.exists(target)) {
+                discard(staged);
+                return false;
+            }
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(staged.file(), target, StandardCopyOption.ATOMIC_MOVE);
+                return true;
+            } catch (FileAlreadyExistsException e) {
+                discard(staged);
+                return false;
+            }
+        }
+    }
+
+    void discard(StagedReceipt staged) {
+        try {
+            Files.deleteIfExists(staged.file());
+        } catch (IOException e) {
+            log.warn("Could not delete staged receipt {}: {}", staged.file(), e.getMessage());
+        }
+    }
+
+    /** Writes a derived variant through a temporary file and an atomic move. */
+    void writeVariant(String hash, ReceiptVariant variant, VariantWriter writer) throws IOException {
+        Path target = path(hash, variant);
+        Path temp = Files.createTempFile(staging, "variant-", ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                writer.write(out);
+            }
+            synchronized (lockFor(hash)) {
+                // The original may have been deleted while the variant was being generated
+                if (!Files.exists(path(hash, ReceiptVariant.ORIGINAL))) {
+                    return;
+                }
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @FunctionalInterface
+    interface VariantWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    /** Deletes the image and every variant. Callers hold {@link #withLock} for the hash. */
+    void delete(String hash) {
+        for (ReceiptVariant variant : ReceiptVariant.values()) {
+            try {
+                Files.deleteIfExists(path(hash, variant));
+            } catch (IOException e) {
+                log.warn("Could not delete receipt file {} ({}): {}", hash, variant, e.getMessage());
+            }
+        }
+    }
+
+    /** Runs {@code action} while no other thread places or deletes files of this hash. */
+    void withLock(String hash, Runnable action) {
+        synchronized (lockFor(hash)) {
+            action.run();
+        }
+    }
+
+    public boolean exists(String hash, ReceiptVariant variant) {
+        return Files.exists(path(hash, variant));
+    }
+
+    public Path path(String hash, ReceiptVariant variant) {
+        if (!isValidHash(hash)) {
+            throw new IllegalArgumentException("Invalid receipt hash: " + hash);
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4))
+                .resolve(hash + "." + variant.suffix());
+    }
+
+    public static boolean isValidHash(String hash) {
+        return hash != null && HASH.matcher(hash).matches();
+    }
+
+    private Object lockFor(String hash) {
+        return locks[Integer.parseInt(hash.substring(0, 2), 16) % LOCK_STRIPES];
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.jaya.service.receipt;
+
+/** The stored forms of a receipt image. Only the original is uploaded; the others are derived from it. */
+public enum ReceiptVariant {
+
+    ORIGINAL("original", null),
+    THUMBNAIL("thumb.jpg", "image/jpeg"),
+    OCR("ocr.png", "image/png");
+
+    private final String suffix;
+    private final String contentType;
+
+    ReceiptVariant(String suffix, String contentType) {
+        this.suffix = suffix;
+        this.contentType = contentType;
+    }
+
+    String suffix() {
+        return suffix;
+    }
+
+    /** Content type of the derived variants; the original keeps the type it was uploaded as. */
+    String contentType() {
+        return contentType;
+    }
+}
@@ -0,0 +1,136 @@
+package com.jaya.service.receipt;
+
+import com.jaya.exceptions.InvalidImageException;
+import com.jaya.service.ocr.ImagePreprocessingService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Derives the thumbnail and the OCR-ready variant of a stored receipt. Both are generated once, in
+ * the background on {@code billReceiptVariantExecutor}, and kept next to the original; a hash is
+ * queued at most once at a time. An OCR request that arrives before its variant exists generates
+ * it in the caller instead of waiting.
+ */
+@Component
+@Slf4j
+public class ReceiptVariantGenerator {
+
+    private final ReceiptStore store;
+
+    private final ImagePreprocessingService imagePreprocessingService;
+
+    private final TaskExecutor executor;
+
+    private final int thumbnailSize;
+
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+
+    public ReceiptVariantGenerator(ReceiptStore store, ImagePreprocessingService imagePreprocessingService,
+            @Qualifier("billReceiptVariantExecutor") TaskExecutor executor,
+            @Value("${bill.receipts.thumbnail-size:320}") int thumbnailSize) {
+        this.store = store;
+        this.imagePreprocessingService = imagePreprocessingService;
+        this.executor = executor;
+        this.thumbnailSize = thumbnailSize;
+    }
+
+    /** Queues generation of whichever variants of the image are missing. */
+    public void schedule(String hash) {
+        if (hasAllVariants(hash) || !queued.add(hash)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generateMissing(hash);
+                } finally {
+                    queued.remove(hash);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            // Left for the next request for the variant to queue again
+            queued.remove(hash);
+            log.warn("Receipt variant queue full, skipped {}", hash);
+        }
+    }
+
+    /** The OCR-ready image, generated now if the background job has not produced it yet. */
+    public BufferedImage ocrImage(String hash) throws IOException {
+        if (store.exists(hash, ReceiptVariant.OCR)) {
+            BufferedImage image = ImageIO.read(store.path(hash, ReceiptVariant.OCR).toFile());
+            if (image != null) {
+                return image;
+            }
+        }
+        BufferedImage processed = imagePreprocessingService.preprocess(readOriginal(hash));
+        store.writeVariant(hash, ReceiptVariant.OCR, out -> ImageIO.write(processed, "png", out));
+        return processed;
+    }
+
+    private boolean hasAllVariants(String hash) {
+        return store.exists(hash, ReceiptVariant.THUMBNAIL) && store.exists(hash, ReceiptVariant.OCR);
+    }
+
+    private void generateMissing(String hash) {
+        try {
+            if (!store.exists(hash, ReceiptVariant.ORIGINAL)) {
+                return;
+            }
+            // Decoded once for both variants
+            BufferedImage original = readOriginal(hash);
+            if (!store.exists(hash, ReceiptVariant.THUMBNAIL)) {
+                BufferedImage thumbnail = thumbnail(original);
+                store.writeVariant(hash, ReceiptVariant.THUMBNAIL, out -> ImageIO.write(thumbnail, "jpg", out));
+            }
+            if (!store.exists(hash, ReceiptVariant.OCR)) {
+                BufferedImage processed = imagePreprocessingService.preprocess(original);
+                store.writeVariant(hash, ReceiptVariant.OCR, out -> ImageIO.write(processed, "png", out));
+            }
+            log.debug("Generated receipt variants for {}", hash);
+        } catch (Exception e) {
+            log.warn("Failed to generate receipt variants for {}: {}", hash, e.getMessage());
+        }
+    }
+
+    private BufferedImage readOriginal(String hash) throws IOException {
+        BufferedImage original = ImageIO.read(store.path(hash, ReceiptVariant.ORIGINAL).toFile());
+        if (original == null) {
+            throw new InvalidImageException("Stored receipt could not be decoded: " + hash);
+        }
+        return original;
+    }
+
+    /** Fits the image into a {@code thumbnailSize} square, never enlarging it, on a white background for JPEG. */
+    private BufferedImage thumbnail(BufferedImage original) {
+        double scale = Math.min(1.0, Math.min((double) thumbnailSize / original.getWidth(),
+                (double) thumbnailSize / original.getHeight()));
+        int width = Math.max(1, (int) Math.round(original.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(original.getHeight() * scale));
+
+        BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = thumbnail.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(original, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return thumbnail;
+    }
+}
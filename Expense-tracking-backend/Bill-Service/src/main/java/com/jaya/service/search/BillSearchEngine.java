@@ -0,0 +1,186 @@
+package com.jaya.service.search;
+
+import com.jaya.dto.BillSearchDTO;
+import com.jaya.models.Bill;
+import com.jaya.models.DetailedExpenses;
+import com.jaya.repository.BillRepository;
+import com.jaya.util.UserIndexCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import static com.jaya.util.TransactionCallbacks.afterCommit;
+
+/**
+ * Ranked bill search. Each user's bills are indexed by trigram on first search and kept current
+ * from bill create, update and delete. A query collects the bills sharing enough trigrams with it,
+ * scores them with {@link BillSearchScorer}, keeps the best {@code limit} in a heap and only then
+ * reads those rows from the database. Queries too short to form a trigram go to the database with
+ * the limit applied there. Bills changed through another instance only reach this one's index when
+ * it is rebuilt, so an index older than {@code bill.search.index-ttl-ms} is reloaded on next search.
+ */
+@Component
+public class BillSearchEngine {
+
+    private record Ranked(BillSearchIndex.Document document, double score) {
+    }
+
+    // Best first: higher score, then the more recent bill, then the higher id
+    private static final Comparator<Ranked> BEST_FIRST = Comparator
+            .comparingDouble(Ranked::score).reversed()
+            .thenComparing(r -> r.document().date(), Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(r -> r.document().billId(), Comparator.reverseOrder());
+
+    private final BillRepository billRepository;
+
+    private final UserIndexCache<BillSearchIndex> indexes;
+
+    private final int maxCandidates;
+
+    public BillSearchEngine(BillRepository billRepository,
+            @Value("${bill.search.max-users:1000}") int maxUsers,
+            @Value("${bill.search.index-ttl-ms:300000}") long indexTtlMs,
+            @Value("${bill.search.max-candidates:5000}") int maxCandidates) {
+        this.billRepository = billRepository;
+        this.indexes = new UserIndexCache<>(maxUsers, indexTtlMs);
+        this.maxCandidates = maxCandidates;
+    }
+
+    public List<BillSearchDTO> search(Integer userId, String query, int limit) {
+        String normalized = BillSearchIndex.normalize(query);
+        if (normalized.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        Set<String> grams = BillSearchIndex.grams(normalized);
+        if (grams.isEmpty()) {
+            return billRepository.searchBillsFuzzyWithLimit(userId, "%" + normalized + "%",
+                    PageRequest.of(0, limit));
+        }
+
+        // Roughly a third of the query's trigrams must match, which still admits a typo or two
+        int minHits = Math.max(1, grams.size() / 3);
+        List<BillSearchIndex.Candidate> candidates = indexes.get(userId, this::loadIndex)
+                .candidates(grams, minHits, maxCandidates);
+
+        PriorityQueue<Ranked> best = new PriorityQueue<>(limit + 1, BEST_FIRST.reversed());
+        for (BillSearchIndex.Candidate candidate : candidates) {
+            double score = BillSearchScorer.score(normalized, candidate.document());
+            if (score <= 0) {
+                continue;
+            }
+            Ranked ranked = new Ranked(candidate.document(), score);
+            if (best.size() < limit) {
+                best.add(ranked);
+            } else if (BEST_FIRST.compare(ranked, best.peek()) < 0) {
+                best.poll();
+                best.add(ranked);
+            }
+        }
+        if (best.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Ranked> ranked = new ArrayList<>(best);
+        ranked.sort(BEST_FIRST);
+        List<Integer> ids = ranked.stream().map(r -> r.document().billId()).toList();
+
+        Map<Integer, BillSearchDTO> rows = new HashMap<>();
+        for (BillSearchDTO row : billRepository.findSearchResultsByIds(userId, ids)) {
+            rows.put(row.getId(), row);
+        }
+        List<BillSearchDTO> results = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            BillSearchDTO row = rows.get(id);
+            if (row != null) {
+                results.add(row);
+            }
+        }
+        return results;
+    }
+
+    /** Re-indexes a created or updated bill once the surrounding transaction commits. */
+    public void billSaved(Bill bill) {
+        if (bill == null || bill.getId() == null || bill.getUserId() == null) {
+            return;
+        }
+        BillSearchIndex.Document document = toDocument(bill.getId(), bill.getDate(), bill.getName(),
+                bill.getDescription(), bill.getCategory(), itemNames(bill.getExpenses()));
+        Integer userId = bill.getUserId();
+        afterCommit(() -> {
+            BillSearchIndex index = indexes.getIfLoaded(userId);
+            if (index != null) {
+                index.put(document);
+            }
+        });
+    }
+
+    public void billDeleted(Integer userId, Integer billId) {
+        if (userId == null || billId == null) {
+            return;
+        }
+        afterCommit(() -> {
+            BillSearchIndex index = indexes.getIfLoaded(userId);
+            if (index != null) {
+                index.remove(billId);
+            }
+        });
+    }
+
+    /** Drops the user's index so it is rebuilt from the database on next search. */
+    public void evict(Integer userId) {
+        afterCommit(() -> indexes.evict(userId));
+    }
+
+    private BillSearchIndex loadIndex(Integer userId) {
+        Map<Integer, List<String>> items = new HashMap<>();
+        for (Object[] row : billRepository.findItemNamesWithBillIdByUserId(userId)) {
+            if (row[1] != null) {
+                items.computeIfAbsent((Integer) row[0], id -> new ArrayList<>()).add((String) row[1]);
+            }
+        }
+        BillSearchIndex loaded = new BillSearchIndex();
+        for (Object[] row : billRepository.findSearchFieldsByUserId(userId)) {
+            Integer id = (Integer) row[0];
+            loaded.put(toDocument(id, (LocalDate) row[4], (String) row[1], (String) row[2], (String) row[3],
+                    items.getOrDefault(id, Collections.emptyList())));
+        }
+        return loaded;
+    }
+
+    private static BillSearchIndex.Document toDocument(Integer id, LocalDate date, String name, String description,
+            String category, Collection<String> items) {
+        List<String> normalizedItems = new ArrayList<>(items.size());
+        for (String item : items) {
+            String normalized = BillSearchIndex.normalize(item);
+            if (!normalized.isEmpty()) {
+                normalizedItems.add(normalized);
+            }
+        }
+        return new BillSearchIndex.Document(id, date, BillSearchIndex.normalize(name),
+                BillSearchIndex.normalize(description), BillSearchIndex.normalize(category), normalizedItems);
+    }
+
+    private static List<String> itemNames(Collection<DetailedExpenses> expenses) {
+        List<String> names = new ArrayList<>();
+        if (expenses != null) {
+            for (DetailedExpenses item : expenses) {
+                if (item != null && item.getItemName() != null) {
+                    names.add(item.getItemName());
+                }
+            }
+        }
+        return names;
+    }
+}
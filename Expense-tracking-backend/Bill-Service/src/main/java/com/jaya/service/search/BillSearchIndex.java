@@ -0,0 +1,201 @@
+package com.jaya.service.search;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trigram index over one user's bills. Each indexed bill gets a fresh slot number and every
+ * trigram of its searchable text points at that slot, so replacing or removing a bill only has to
+ * clear its slot; posting lists are rebuilt once dead slots outnumber live ones.
+ */
+public class BillSearchIndex {
+
+    static final int GRAM = 3;
+
+    /** The searchable text of one bill, already normalized. */
+    public record Document(int billId, LocalDate date, String name, String description, String category,
+            List<String> items) {
+    }
+
+    /** A bill sharing at least one trigram with the query and how many it shares. */
+    public record Candidate(Document document, int hits) {
+    }
+
+    private static final Comparator<Candidate> MOST_HITS_FIRST = Comparator
+            .comparingInt(Candidate::hits).reversed()
+            .thenComparing(c -> c.document().date(), Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(c -> c.document().billId(), Comparator.reverseOrder());
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Integer> slotByBill = new HashMap<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private Document[] slots = new Document[64];
+    private int nextSlot;
+    private int deadSlots;
+
+    private static final class Postings {
+        private int[] slots = new int[4];
+        private int size;
+
+        private void add(int slot) {
+            // A document adds each of its grams once, so the last slot is the only possible repeat
+            if (size > 0 && slots[size - 1] == slot) {
+                return;
+            }
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+    }
+
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /** Distinct trigrams of every word of {@code text}; words shorter than a trigram are skipped. */
+    static Set<String> grams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String word : text.split(" ")) {
+            for (int i = 0; i + GRAM <= word.length(); i++) {
+                grams.add(word.substring(i, i + GRAM));
+            }
+        }
+        return grams;
+    }
+
+    public void put(Document document) {
+        lock.writeLock().lock();
+        try {
+            clear(document.billId());
+            int slot = nextSlot++;
+            if (slot == slots.length) {
+                slots = Arrays.copyOf(slots, slots.length * 2);
+            }
+            slots[slot] = document;
+            slotByBill.put(document.billId(), slot);
+
+            Set<String> grams = new LinkedHashSet<>();
+            grams.addAll(grams(document.name()));
+            grams.addAll(grams(document.description()));
+            grams.addAll(grams(document.category()));
+            for (String item : document.items()) {
+                grams.addAll(grams(item));
+            }
+            for (String gram : grams) {
+                postings.computeIfAbsent(gram, g -> new Postings()).add(slot);
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int billId) {
+        lock.writeLock().lock();
+        try {
+            clear(billId);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Bills sharing at least {@code minHits} of {@code grams}. When more than {@code maxCandidates}
+     * qualify, those sharing the most grams are kept, and among equal counts the most recent, which
+     * is how equally scored results are ordered.
+     */
+    public List<Candidate> candidates(Set<String> grams, int minHits, int maxCandidates) {
+        lock.readLock().lock();
+        try {
+            int[] hits = new int[nextSlot];
+            for (String gram : grams) {
+                Postings list = postings.get(gram);
+                if (list == null) {
+                    continue;
+                }
+                for (int i = 0; i < list.size; i++) {
+                    hits[list.slots[i]]++;
+                }
+            }
+
+            List<Candidate> candidates = new ArrayList<>();
+            for (int slot = 0; slot < hits.length; slot++) {
+                if (hits[slot] >= minHits && slots[slot] != null) {
+                    candidates.add(new Candidate(slots[slot], hits[slot]));
+                }
+            }
+            if (candidates.size() > maxCandidates) {
+                candidates.sort(MOST_HITS_FIRST);
+                candidates = new ArrayList<>(candidates.subList(0, maxCandidates));
+            }
+            return candidates;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotByBill.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void clear(int billId) {
+        Integer slot = slotByBill.remove(billId);
+        if (slot != null) {
+            slots[slot] = null;
+            deadSlots++;
+        }
+    }
+
+    // Renumbers live documents into a dense array and drops postings of cleared slots
+    private void compactIfNeeded() {
+        if (deadSlots < 1024 || deadSlots < slotByBill.size()) {
+            return;
+        }
+        int[] renumber = new int[nextSlot];
+        Document[] live = new Document[Math.max(64, slotByBill.size() * 2)];
+        int count = 0;
+        for (int slot = 0; slot < nextSlot; slot++) {
+            if (slots[slot] != null) {
+                renumber[slot] = count;
+                live[count] = slots[slot];
+                slotByBill.put(slots[slot].billId(), count);
+                count++;
+            } else {
+                renumber[slot] = -1;
+            }
+        }
+        postings.values().removeIf(list -> {
+            int kept = 0;
+            for (int i = 0; i < list.size; i++) {
+                int slot = renumber[list.slots[i]];
+                if (slot >= 0) {
+                    list.slots[kept++] = slot;
+                }
+            }
+            list.size = kept;
+            return kept == 0;
+        });
+        slots = live;
+        nextSlot = count;
+        deadSlots = 0;
+    }
+}
@@ -0,0 +1,112 @@
+package com.jaya.service.search;
+
+import java.util.List;
+
+/**
+ * Relevance of a bill to a search query. Each field is scored by the best of an exact match, a
+ * prefix match, a word-prefix match, a contiguous substring match and, failing those, the closest
+ * word by edit distance; the field score is weighted so a hit in the bill name outranks the same
+ * hit in an item, the category or the description.
+ */
+final class BillSearchScorer {
+
+    static final double NAME_WEIGHT = 1.0;
+    static final double ITEM_WEIGHT = 0.8;
+    static final double CATEGORY_WEIGHT = 0.6;
+    static final double DESCRIPTION_WEIGHT = 0.5;
+
+    private BillSearchScorer() {
+    }
+
+    /** Score of the whole bill; 0 means it does not match. Multi-word queries average their words. */
+    static double score(String query, BillSearchIndex.Document document) {
+        double whole = scoreTerm(query, document);
+        if (query.indexOf(' ') < 0) {
+            return whole;
+        }
+        String[] terms = query.split(" ");
+        double sum = 0;
+        for (String term : terms) {
+            double termScore = scoreTerm(term, document);
+            if (termScore == 0) {
+                return whole;
+            }
+            sum += termScore;
+        }
+        return Math.max(whole, sum / terms.length);
+    }
+
+    private static double scoreTerm(String term, BillSearchIndex.Document document) {
+        double best = NAME_WEIGHT * scoreField(term, document.name());
+        best = Math.max(best, CATEGORY_WEIGHT * scoreField(term, document.category()));
+        best = Math.max(best, DESCRIPTION_WEIGHT * scoreField(term, document.description()));
+        List<String> items = document.items();
+        for (int i = 0; i < items.size() && best < ITEM_WEIGHT * 100; i++) {
+            best = Math.max(best, ITEM_WEIGHT * scoreField(term, items.get(i)));
+        }
+        return best;
+    }
+
+    static double scoreField(String term, String field) {
+        if (field == null || field.isEmpty() || term.isEmpty()) {
+            return 0;
+        }
+        if (field.equals(term)) {
+            return 100;
+        }
+        if (field.startsWith(term)) {
+            return 85;
+        }
+        int at = field.indexOf(term);
+        if (at > 0 && field.charAt(at - 1) == ' ') {
+            return 70;
+        }
+        if (at > 0) {
+            return 55;
+        }
+
+        // Typo tolerance: compare against each word, allowing about one edit per three characters
+        int allowed = Math.max(1, term.length() / 3);
+        int closest = Integer.MAX_VALUE;
+        for (String word : field.split(" ")) {
+            // Compare the term against the start of longer words so a misspelt prefix still matches
+            String target = word.length() > term.length() + allowed ? word.substring(0, term.length()) : word;
+            closest = Math.min(closest, editDistance(term, target, allowed));
+            if (closest == 1) {
+                break;
+            }
+        }
+        if (closest > allowed) {
+            return 0;
+        }
+        return 40 * (1 - (double) closest / (term.length() + 1));
+    }
+
+    /** Levenshtein distance, or {@code limit + 1} as soon as it is known to exceed {@code limit}. */
+    static int editDistance(String a, String b, int limit) {
+        if (Math.abs(a.length() - b.length()) > limit) {
+            return limit + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > limit) {
+                return limit + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+}
@@ -32,6 +32,17 @@ public class BulkProgressTracker {
         }
     }
 
+    /** Records a problem the job carried on past, such as cleanup that did not succeed. */
+    public void warn(String jobId, String message) {
+        if (jobId == null) return;
+        ProgressStatus status = jobs.get(jobId);
+        if (status == null) return;
+        synchronized (status) {
+            status.getWarnings().add(message);
+            status.setUpdatedAt(LocalDateTime.now());
+        }
+    }
+
     public void complete(String jobId, String message) {
         ProgressStatus status = jobs.get(jobId);
         if (status == null) return;
@@ -0,0 +1,56 @@
+package com.jaya.util;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Per-user in-memory indexes, loaded from the database the first time a user needs one. At most
+ * {@code maxUsers} are held, the least recently used being dropped first. Changes made through
+ * another instance only reach this one's copy when it is reloaded, so an index older than
+ * {@code ttlMs} is reloaded on next use.
+ */
+public class UserIndexCache<T> {
+
+    private record Loaded<T>(T index, long loadedAt) {
+    }
+
+    private final Map<Integer, Loaded<T>> indexes;
+    private final long ttlMs;
+
+    public UserIndexCache(int maxUsers, long ttlMs) {
+        this.ttlMs = ttlMs;
+        // Access-ordered so the least recently used user's index is dropped once the cap is reached
+        this.indexes = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Loaded<T>> eldest) {
+                return size() > maxUsers;
+            }
+        });
+    }
+
+    /** The user's index, loaded with {@code loader} when it is missing or expired. */
+    public T get(Integer userId, Function<Integer, T> loader) {
+        Loaded<T> cached = indexes.get(userId);
+        long now = System.currentTimeMillis();
+        if (cached != null && now - cached.loadedAt() < ttlMs) {
+            return cached.index();
+        }
+        Loaded<T> fresh = new Loaded<>(loader.apply(userId), now);
+        // Keep an index another thread installed meanwhile; otherwise replace the missing or expired one
+        return indexes.compute(userId, (id, current) -> current != null && current != cached ? current : fresh)
+                .index();
+    }
+
+    /** The user's index if one is held, expired or not, for applying a change to it; otherwise null. */
+    public T getIfLoaded(Integer userId) {
+        Loaded<T> loaded = indexes.get(userId);
+        return loaded != null ? loaded.index() : null;
+    }
+
+    /** Drops the user's index so it is reloaded on next use. */
+    public void evict(Integer userId) {
+        indexes.remove(userId);
+    }
+}
@@ -0,0 +1,203 @@
+package com.jaya.repository;
+
+import com.jaya.models.Bill;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Month listing over a history of 50k bills: the former load-everything-then-filter path against
+ * the (bill_userid, date) range query and the LIMIT/OFFSET page query. H2 timings say little about
+ * MySQL, so the assertions are on the shape of the work: the plan uses the composite index, each
+ * listing is one statement that loads only the rows it returns, and their items come in one
+ * batched statement. Timings are logged, with a generous ceiling only to catch a regression to a
+ * full load.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=1000",
+        "spring.jpa.properties.hibernate.order_inserts=true"
+})
+class BillListingBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BillListingBenchmarkTest.class);
+
+    private static final int USER_ID = 42;
+    private static final int MONTHS = 100;
+    private static final int BILLS_PER_MONTH = 500;
+    private static final int BILLS = MONTHS * BILLS_PER_MONTH;
+    private static final int PAGE_SIZE = 100;
+    // Matches the @BatchSize on Bill.expenses
+    private static final int ITEM_BATCH_SIZE = 500;
+    private static final int ROUNDS = 5;
+    private static final long MAX_MONTH_QUERY_MS = 250;
+
+    @Configuration
+    @EntityScan(basePackageClasses = Bill.class)
+    @EnableJpaRepositories(basePackageClasses = BillRepository.class)
+    static class Config {
+    }
+
+    @Autowired
+    private BillRepository billRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private final YearMonth target = YearMonth.of(2024, 3);
+
+    @BeforeEach
+    void seed() {
+        YearMonth first = target.minusMonths(MONTHS / 2);
+        List<Bill> batch = new ArrayList<>();
+        for (int m = 0; m < MONTHS; m++) {
+            YearMonth month = first.plusMonths(m);
+            for (int i = 0; i < BILLS_PER_MONTH; i++) {
+                batch.add(Bill.builder()
+                        .name("bill " + m + "-" + i)
+                        .amount(i)
+                        .netAmount(i)
+                        .type("loss")
+                        .paymentMethod("cash")
+                        .date(month.atDay(1 + i % month.lengthOfMonth()))
+                        .userId(USER_ID)
+                        .build());
+            }
+            if (batch.size() >= 5000) {
+                billRepository.saveAll(batch);
+                entityManager.flush();
+                entityManager.clear();
+                batch.clear();
+            }
+        }
+        billRepository.saveAll(batch);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void monthQueryReadsOnlyTheMonth() {
+        LocalDate start = target.atDay(1);
+        LocalDate end = target.atEndOfMonth();
+
+        Supplier<List<Bill>> legacy = () -> billRepository.findByUserId(USER_ID).stream()
+                .filter(bill -> bill.getDate() != null && bill.getDate().getMonthValue() == target.getMonthValue()
+                        && bill.getDate().getYear() == target.getYear())
+                .collect(Collectors.toList());
+        Supplier<List<Bill>> range = () -> billRepository.findByUserIdAndDateBetween(USER_ID, start, end);
+        Supplier<List<Bill>> page = () -> billRepository.findPageByUserIdAndDateBetween(USER_ID, start, end,
+                PAGE_SIZE + 1, 0);
+
+        assertEquals(sortedIds(legacy.get()), sortedIds(range.get()));
+
+        // The former path read every bill the user has to keep one month of them
+        assertEquals(BILLS, loadedEntities(legacy));
+        assertEquals(BILLS_PER_MONTH, loadedEntities(range));
+        assertEquals(PAGE_SIZE + 1, loadedEntities(page));
+
+        // One statement for the month, and one more for all of its items
+        Statistics statistics = statistics();
+        entityManager.clear();
+        statistics.clear();
+        List<Bill> month = range.get();
+        month.forEach(bill -> bill.getExpenses().size());
+        assertEquals(1 + (BILLS_PER_MONTH + ITEM_BATCH_SIZE - 1) / ITEM_BATCH_SIZE,
+                statistics.getPrepareStatementCount());
+
+        String plan = String.valueOf(entityManager.getEntityManager().createNativeQuery(
+                "EXPLAIN SELECT * FROM bill WHERE bill_userid = " + USER_ID + " AND date BETWEEN DATE '" + start
+                        + "' AND DATE '" + end + "' ORDER BY date ASC, id ASC LIMIT 101 OFFSET 0")
+                .getSingleResult());
+        assertTrue(plan.toLowerCase().contains("idx_bill_user_date"), "month query does not use the index: " + plan);
+
+        long legacyNanos = time(legacy);
+        long rangeNanos = time(range);
+        long pageNanos = time(page);
+        log.info("Month listing over {} bills: load+filter {} ms, range {} ms, page of {} {} ms",
+                BILLS, legacyNanos / 1_000_000, rangeNanos / 1_000_000, PAGE_SIZE, pageNanos / 1_000_000);
+
+        assertTrue(rangeNanos / 1_000_000 < MAX_MONTH_QUERY_MS, "range query took " + rangeNanos + " ns");
+        assertTrue(pageNanos / 1_000_000 < MAX_MONTH_QUERY_MS, "page query took " + pageNanos + " ns");
+    }
+
+    @Test
+    void pagesCoverTheMonthWithoutGapsOrOverlap() {
+        LocalDate start = target.atDay(1);
+        LocalDate end = target.atEndOfMonth();
+        int pageSize = 128;
+
+        List<Integer> seen = new ArrayList<>();
+        int offset = 0;
+        boolean hasMore = true;
+        while (hasMore) {
+            List<Bill> rows = billRepository.findPageByUserIdAndDateBetween(USER_ID, start, end, pageSize + 1,
+                    offset);
+            hasMore = rows.size() > pageSize;
+            rows.stream().limit(pageSize).forEach(bill -> seen.add(bill.getId()));
+            offset += pageSize;
+        }
+
+        assertEquals(ids(billRepository.findByUserIdAndDateBetween(USER_ID, start, end)), seen);
+        assertFalse(billRepository.findPageByUserIdAndDateBetween(USER_ID, start, end, pageSize, offset)
+                .iterator().hasNext());
+    }
+
+    // Entities materialized by one run, with the persistence context cleared beforehand
+    private long loadedEntities(Supplier<List<Bill>> query) {
+        Statistics statistics = statistics();
+        entityManager.clear();
+        statistics.clear();
+        query.get();
+        return statistics.getEntityLoadCount();
+    }
+
+    private Statistics statistics() {
+        return entityManager.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class)
+                .getStatistics();
+    }
+
+    // Mean over ROUNDS after one warm-up, with the persistence context cleared so every run hits the database
+    private long time(Supplier<List<Bill>> query) {
+        entityManager.clear();
+        query.get();
+        long total = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            entityManager.clear();
+            long start = System.nanoTime();
+            query.get();
+            total += System.nanoTime() - start;
+        }
+        return total / ROUNDS;
+    }
+
+    private static List<Integer> ids(List<Bill> bills) {
+        return bills.stream().map(Bill::getId).collect(Collectors.toList());
+    }
+
+    private static List<Integer> sortedIds(List<Bill> bills) {
+        return bills.stream().map(Bill::getId).sorted().collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,129 @@
+package com.jaya.service.ocr;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.image.BufferedImage;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * JMH time and allocation per image for {@link FusedImagePreprocessor} against the passes it
+ * replaced, on a receipt photo that fits and one that is scaled down. Run the benchmarks on their
+ * own with {@code org.openjdk.jmh.Main FusedImagePreprocessorBenchmarkTest -prof gc} on
+ * the test classpath.
+ *
+ * The test runs them in-process with short iterations, logs the scores and asserts what the
+ * fusion is for: the fused pass allocates little more than its output raster, against several
+ * full-size intermediates for the legacy passes, and is faster. Those are CI bounds with wide
+ * margins, not the expected figures.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FusedImagePreprocessorBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(FusedImagePreprocessorBenchmarkTest.class);
+
+    // Row buffers, the BufferedImage and raster objects and JMH's own bookkeeping
+    private static final long ALLOCATION_SLACK_BYTES = 256 * 1024;
+
+    @Param({ "1200x1600", "4000x3000" })
+    public String size;
+
+    private BufferedImage source;
+    private int[] target;
+
+    @Setup
+    public void setUp() {
+        String[] dimensions = size.split("x");
+        source = ReceiptImages.strokes(Integer.parseInt(dimensions[0]), Integer.parseInt(dimensions[1]), 7,
+                BufferedImage.TYPE_INT_RGB);
+        target = LegacyImagePreprocessor.targetSize(source);
+    }
+
+    @Benchmark
+    public BufferedImage fused() {
+        return FusedImagePreprocessor.process(source, target[0], target[1]);
+    }
+
+    @Benchmark
+    public BufferedImage legacy() {
+        return LegacyImagePreprocessor.process(source);
+    }
+
+    @Test
+    void fusedPassAllocatesOnlyItsOutputAndIsFaster() throws Exception {
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+                .include(FusedImagePreprocessorBenchmarkTest.class.getName() + "\\.")
+                .addProfiler(GCProfiler.class)
+                .warmupIterations(2)
+                .measurementIterations(3)
+                .forks(0)
+                .build()).run();
+
+        Map<String, Double> millis = new HashMap<>();
+        Map<String, Double> bytes = new HashMap<>();
+        for (RunResult result : results) {
+            String key = result.getParams().getBenchmark().replaceAll(".*\\.", "") + " "
+                    + result.getParams().getParam("size");
+            millis.put(key, result.getPrimaryResult().getScore());
+            bytes.put(key, allocatedPerOp(result));
+            log.info("{}: {} ms/op, {} KiB allocated/op", key, String.format("%.1f", millis.get(key)),
+                    Math.round(bytes.get(key) / 1024));
+        }
+        assertEquals(4, millis.size());
+
+        for (String imageSize : new String[] { "1200x1600", "4000x3000" }) {
+            String[] dimensions = imageSize.split("x");
+            int[] scaled = LegacyImagePreprocessor.targetSize(Integer.parseInt(dimensions[0]),
+                    Integer.parseInt(dimensions[1]));
+            long output = (long) scaled[0] * scaled[1];
+
+            double fused = bytes.get("fused " + imageSize);
+            double legacy = bytes.get("legacy " + imageSize);
+            assertTrue(fused <= output + ALLOCATION_SLACK_BYTES, imageSize + ": fused pass allocated "
+                    + Math.round(fused) + " bytes for a " + output + " byte output");
+            // Gray, contrast and sharpen images, plus the RGB copy when scaling: at least three outputs
+            assertTrue(2 * fused < legacy, imageSize + ": fused pass allocated " + Math.round(fused)
+                    + " bytes against " + Math.round(legacy) + " for the legacy passes");
+            assertTrue(millis.get("fused " + imageSize) < millis.get("legacy " + imageSize), imageSize + ": fused "
+                    + millis.get("fused " + imageSize) + " ms against " + millis.get("legacy " + imageSize));
+        }
+    }
+
+    // Named "gc.alloc.rate.norm", with a leading "·" before JMH 1.37
+    private static double allocatedPerOp(RunResult result) {
+        for (Map.Entry<String, Result> secondary : result.getSecondaryResults().entrySet()) {
+            if (secondary.getKey().endsWith("gc.alloc.rate.norm")) {
+                return secondary.getValue().getScore();
+            }
+        }
+        throw new IllegalStateException("No allocation figure in " + result.getSecondaryResults().keySet());
+    }
+}
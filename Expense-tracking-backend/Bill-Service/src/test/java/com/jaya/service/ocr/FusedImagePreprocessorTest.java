@@ -0,0 +1,152 @@
+package com.jaya.service.ocr;
+
+import net.sourceforge.tess4j.ITesseract;
+import net.sourceforge.tess4j.Tesseract;
+import net.sourceforge.tess4j.util.LoadLibs;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.io.File;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Compares {@link FusedImagePreprocessor} with the passes it replaced, kept in
+ * {@link LegacyImagePreprocessor}, on synthetic receipt-like images: pixel by pixel, gray level by
+ * gray level over the RGB cube, and by the text Tesseract reads from both. The OCR check needs the
+ * native Tesseract library and is skipped where it cannot be loaded.
+ */
+class FusedImagePreprocessorTest {
+
+    private static final List<String> RECEIPT_LINES = List.of(
+            "FRESH MART SUPERSTORE",
+            "INVOICE NO 20417",
+            "DATE 12/03/2024",
+            "MILK 2L          3.49",
+            "BREAD WHOLEMEAL  2.15",
+            "EGGS 12 PACK     4.80",
+            "COFFEE BEANS    11.25",
+            "SUBTOTAL        21.69",
+            "TAX 5%           1.08",
+            "TOTAL           22.77");
+
+    @Test
+    void matchesLegacyPipelineWithoutResize() {
+        assertParity(ReceiptImages.strokes(800, 600, 1, BufferedImage.TYPE_INT_RGB));
+    }
+
+    @Test
+    void matchesLegacyPipelineWhenDownscaling() {
+        assertParity(ReceiptImages.strokes(4000, 3000, 2, BufferedImage.TYPE_INT_RGB));
+    }
+
+    @Test
+    void matchesLegacyPipelineForLowContrastPhoto() {
+        BufferedImage image = ReceiptImages.strokes(1200, 1600, 3, BufferedImage.TYPE_3BYTE_BGR);
+        // Faded print: squeeze everything into a narrow band so the contrast widening path runs
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                int rgb = image.getRGB(x, y);
+                int r = 150 + ((rgb >> 16) & 0xFF) / 8;
+                int g = 150 + ((rgb >> 8) & 0xFF) / 8;
+                int b = 150 + (rgb & 0xFF) / 8;
+                image.setRGB(x, y, (r << 16) | (g << 8) | b);
+            }
+        }
+        assertParity(image);
+    }
+
+    @Test
+    void grayIsWithinOneStepOfColorConvertOpAcrossTheRgbCube() {
+        // Every 5th level of each channel, 255 included: 140,608 colours in one image
+        int levels = 52;
+        BufferedImage cube = new BufferedImage(levels * levels, levels, BufferedImage.TYPE_INT_RGB);
+        int[] rgb = ((DataBufferInt) cube.getRaster().getDataBuffer()).getData();
+        for (int i = 0; i < rgb.length; i++) {
+            rgb[i] = (level(i / (levels * levels)) << 16) | (level(i / levels % levels) << 8) | level(i % levels);
+        }
+        byte[] expected = ((DataBufferByte) LegacyImagePreprocessor.grayscale(cube).getRaster().getDataBuffer())
+                .getData();
+
+        int offByOne = 0;
+        for (int i = 0; i < rgb.length; i++) {
+            int gray = FusedImagePreprocessor.gray((rgb[i] >> 16) & 0xFF, (rgb[i] >> 8) & 0xFF, rgb[i] & 0xFF);
+            int difference = Math.abs(gray - (expected[i] & 0xFF));
+            assertTrue(difference <= 1, "rgb " + Integer.toHexString(rgb[i]) + ": " + gray + " against "
+                    + (expected[i] & 0xFF));
+            offByOne += difference;
+        }
+        double share = (double) offByOne / rgb.length;
+        assertTrue(share < 0.02, "gray off by one step for " + share + " of colours");
+    }
+
+    @Test
+    void ocrReadsTheSameTextAsFromTheLegacyPipeline() throws Exception {
+        ITesseract tesseract = tesseractOrSkip();
+        // Scaled down to 1333x2000, so the resize path runs as well
+        BufferedImage image = ReceiptImages.printed(1600, 2400, RECEIPT_LINES, 4);
+        int[] size = LegacyImagePreprocessor.targetSize(image);
+
+        String expected = tesseract.doOCR(LegacyImagePreprocessor.process(image));
+        String actual = tesseract.doOCR(FusedImagePreprocessor.process(image, size[0], size[1]));
+
+        // Guards against both sides reading nothing
+        assertTrue(expected.contains("TOTAL"), "legacy pipeline OCR: " + expected);
+        assertEquals(expected, actual);
+    }
+
+    private static ITesseract tesseractOrSkip() {
+        Tesseract tesseract = new Tesseract();
+        File tessdata = LoadLibs.extractTessResources("tessdata");
+        tesseract.setDatapath(tessdata.getAbsolutePath());
+        tesseract.setLanguage("eng");
+        try {
+            tesseract.doOCR(new BufferedImage(50, 50, BufferedImage.TYPE_INT_RGB));
+        } catch (LinkageError e) {
+            assumeTrue(false, "Tesseract native library not available: " + e.getMessage());
+        } catch (Exception e) {
+            // An empty image may not OCR cleanly; the library loaded, which is what matters here
+        }
+        return tesseract;
+    }
+
+    private static int level(int index) {
+        return Math.min(255, index * 5);
+    }
+
+    private static void assertParity(BufferedImage original) {
+        BufferedImage expected = LegacyImagePreprocessor.process(original);
+
+        int[] size = LegacyImagePreprocessor.targetSize(original);
+        BufferedImage actual = FusedImagePreprocessor.process(original, size[0], size[1]);
+
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        assertEquals(BufferedImage.TYPE_BYTE_GRAY, actual.getType());
+
+        int pixels = expected.getWidth() * expected.getHeight();
+        int differing = 0;
+        long totalDifference = 0;
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                int difference = Math.abs(expected.getRaster().getSample(x, y, 0)
+                        - actual.getRaster().getSample(x, y, 0));
+                if (difference != 0) {
+                    differing++;
+                    totalDifference += difference;
+                }
+            }
+        }
+        // The fused pass computes gray without the colour-managed conversion, so a pixel may land a
+        // rounding step away; the sharpen kernel then amplifies that, but only locally and rarely
+        double differingShare = (double) differing / pixels;
+        double meanDifference = (double) totalDifference / pixels;
+        assertTrue(differingShare < 0.002, "differing pixels: " + differingShare);
+        assertTrue(meanDifference < 0.01, "mean difference: " + meanDifference);
+    }
+}
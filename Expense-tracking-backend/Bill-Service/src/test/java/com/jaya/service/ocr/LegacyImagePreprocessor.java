@@ -0,0 +1,105 @@
+package com.jaya.service.ocr;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.color.ColorSpace;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorConvertOp;
+import java.awt.image.ConvolveOp;
+import java.awt.image.Kernel;
+
+/**
+ * The resize, grayscale, contrast and sharpen passes that {@link FusedImagePreprocessor} replaced,
+ * as they stood in {@link ImagePreprocessingService}, so the tests and the benchmark can compare
+ * the two on the same images.
+ */
+final class LegacyImagePreprocessor {
+
+    static final int MAX_WIDTH = 2000;
+    static final int MAX_HEIGHT = 2000;
+
+    private LegacyImagePreprocessor() {
+    }
+
+    static BufferedImage process(BufferedImage original) {
+        return sharpen(contrast(grayscale(resize(original))));
+    }
+
+    /** The size {@link ImagePreprocessingService} scales an image down to. */
+    static int[] targetSize(BufferedImage image) {
+        return targetSize(image.getWidth(), image.getHeight());
+    }
+
+    static int[] targetSize(int width, int height) {
+        if (width > MAX_WIDTH || height > MAX_HEIGHT) {
+            double scale = Math.min((double) MAX_WIDTH / width, (double) MAX_HEIGHT / height);
+            width = Math.max(1, (int) (width * scale));
+            height = Math.max(1, (int) (height * scale));
+        }
+        return new int[] { width, height };
+    }
+
+    private static BufferedImage resize(BufferedImage image) {
+        if (image.getWidth() <= MAX_WIDTH && image.getHeight() <= MAX_HEIGHT) {
+            return image;
+        }
+        double scale = Math.min((double) MAX_WIDTH / image.getWidth(), (double) MAX_HEIGHT / image.getHeight());
+        int newWidth = (int) (image.getWidth() * scale);
+        int newHeight = (int) (image.getHeight() * scale);
+
+        BufferedImage resized = new BufferedImage(newWidth, newHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = resized.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.drawImage(image, 0, 0, newWidth, newHeight, null);
+        g2d.dispose();
+        return resized;
+    }
+
+    static BufferedImage grayscale(BufferedImage image) {
+        ColorConvertOp op = new ColorConvertOp(ColorSpace.getInstance(ColorSpace.CS_GRAY), null);
+        BufferedImage grayscale = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_BYTE_GRAY);
+        op.filter(image, grayscale);
+        return grayscale;
+    }
+
+    private static BufferedImage contrast(BufferedImage image) {
+        int min = 255;
+        int max = 0;
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                int pixel = image.getRaster().getSample(x, y, 0);
+                min = Math.min(min, pixel);
+                max = Math.max(max, pixel);
+            }
+        }
+        if (max - min < 50) {
+            min = Math.max(0, min - 20);
+            max = Math.min(255, max + 20);
+        }
+
+        BufferedImage enhanced = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_BYTE_GRAY);
+        double scale = 255.0 / (max - min);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                int pixel = image.getRaster().getSample(x, y, 0);
+                int newPixel = Math.max(0, Math.min(255, (int) ((pixel - min) * scale)));
+                enhanced.getRaster().setSample(x, y, 0, newPixel);
+            }
+        }
+        return enhanced;
+    }
+
+    private static BufferedImage sharpen(BufferedImage image) {
+        float[] sharpenKernel = {
+                0, -1, 0,
+                -1, 5, -1,
+                0, -1, 0
+        };
+        ConvolveOp op = new ConvolveOp(new Kernel(3, 3, sharpenKernel), ConvolveOp.EDGE_NO_OP, null);
+        BufferedImage sharpened = new BufferedImage(image.getWidth(), image.getHeight(), image.getType());
+        op.filter(image, sharpened);
+        return sharpened;
+    }
+}
@@ -0,0 +1,92 @@
+package com.jaya.service.ocr;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic receipt photos for the preprocessing tests: a paper-coloured gradient with dark
+ * content and a little sensor noise.
+ */
+final class ReceiptImages {
+
+    private ReceiptImages() {
+    }
+
+    /** Text-like strokes and rules, sized to the image. */
+    static BufferedImage strokes(int width, int height, long seed, int type) {
+        BufferedImage image = paper(width, height, type);
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+        Random random = new Random(seed);
+        int lineHeight = Math.max(12, height / 40);
+        g.setStroke(new BasicStroke(Math.max(1, lineHeight / 8f)));
+        for (int line = 2; line * lineHeight < height - lineHeight; line++) {
+            int y = line * lineHeight;
+            if (line % 7 == 0) {
+                g.setColor(new Color(90, 90, 90));
+                g.drawLine(width / 20, y, width - width / 20, y);
+                continue;
+            }
+            int x = width / 20;
+            int end = width / 2 + random.nextInt(width / 3);
+            while (x < end) {
+                int glyph = lineHeight / 2 + random.nextInt(lineHeight / 3 + 1);
+                g.setColor(new Color(20 + random.nextInt(40), 20 + random.nextInt(40), 30 + random.nextInt(50)));
+                g.drawRect(x, y - glyph, glyph / 2, glyph);
+                g.drawLine(x, y, x + glyph / 2, y - glyph);
+                x += glyph;
+            }
+        }
+        g.dispose();
+        addNoise(image, random);
+        return image;
+    }
+
+    /** {@code lines} printed in a monospaced font, one per row, for OCR. */
+    static BufferedImage printed(int width, int height, List<String> lines, long seed) {
+        BufferedImage image = paper(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        int lineHeight = height / (lines.size() + 4);
+        g.setFont(new Font(Font.MONOSPACED, Font.BOLD, lineHeight * 3 / 5));
+        g.setColor(new Color(35, 32, 45));
+        for (int i = 0; i < lines.size(); i++) {
+            g.drawString(lines.get(i), width / 12, (i + 2) * lineHeight);
+        }
+        g.dispose();
+        addNoise(image, new Random(seed));
+        return image;
+    }
+
+    private static BufferedImage paper(int width, int height, int type) {
+        BufferedImage image = new BufferedImage(width, height, type);
+        Graphics2D g = image.createGraphics();
+        g.setPaint(new GradientPaint(0, 0, new Color(246, 240, 226), width, height, new Color(214, 206, 190)));
+        g.fillRect(0, 0, width, height);
+        g.dispose();
+        return image;
+    }
+
+    private static void addNoise(BufferedImage image, Random random) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        for (int i = 0; i < width * height / 50; i++) {
+            int x = random.nextInt(width);
+            int y = random.nextInt(height);
+            int rgb = image.getRGB(x, y);
+            int shift = random.nextInt(31) - 15;
+            int r = Math.max(0, Math.min(255, ((rgb >> 16) & 0xFF) + shift));
+            int gr = Math.max(0, Math.min(255, ((rgb >> 8) & 0xFF) + shift));
+            int b = Math.max(0, Math.min(255, (rgb & 0xFF) + shift));
+            image.setRGB(x, y, (r << 16) | (gr << 8) | b);
+        }
+    }
+}
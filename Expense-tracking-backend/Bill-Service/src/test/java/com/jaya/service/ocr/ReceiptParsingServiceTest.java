@@ -0,0 +1,231 @@
+package com.jaya.service.ocr;
+
+import com.jaya.dto.ocr.OcrProcessingResult;
+import com.jaya.dto.ocr.OcrReceiptResponseDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Runs {@link ReceiptParsingService} and the parser it replaced, {@link LegacyReceiptParser}, on the
+ * same receipts. Receipts with numeric dates must come out identical; on receipts whose date is
+ * written with a month name the old parser found no date, so there only the date differs.
+ */
+class ReceiptParsingServiceTest {
+
+    private static final DateTimeFormatter DAY_FIRST = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter DAY_MONTH_NAME = DateTimeFormatter.ofPattern("dd MMM yyyy", Locale.ENGLISH);
+    private static final DateTimeFormatter MONTH_NAME_DAY = DateTimeFormatter.ofPattern("MMMM d, yyyy", Locale.ENGLISH);
+
+    private final ReceiptParsingService parser = new ReceiptParsingService(null);
+    private final LegacyReceiptParser legacy = new LegacyReceiptParser();
+
+    private static final LocalDate DATE = LocalDate.now().minusDays(12);
+
+    @Test
+    void matchesLegacyParserOnSampleReceipts() {
+        for (String receipt : sampleReceipts()) {
+            assertEquals(legacy.parseReceipt(ocr(receipt)), parser.parseReceipt(ocr(receipt)), receipt);
+        }
+    }
+
+    @Test
+    void matchesLegacyParserOnGeneratedReceipts() {
+        Random random = new Random(47);
+        for (int i = 0; i < 2_000; i++) {
+            String receipt = generatedReceipt(random);
+            assertEquals(legacy.parseReceipt(ocr(receipt)), parser.parseReceipt(ocr(receipt)), receipt);
+        }
+    }
+
+    @Test
+    void readsDayMonthNameYearDates() {
+        assertMonthNameDate("""
+                CAFE MOCHA
+                Date: %s  14:05
+                Cappuccino        180.00
+                TOTAL: 180.00
+                """.formatted(DATE.format(DAY_MONTH_NAME)));
+    }
+
+    @Test
+    void readsMonthNameDayYearDates() {
+        assertMonthNameDate("""
+                BEST BUY #1021
+                %s
+                USB-C Cable        19.99
+                SUBTOTAL: 19.99
+                SALES TAX: 1.60
+                TOTAL: 21.59
+                VISA ****1234
+                """.formatted(DATE.format(MONTH_NAME_DAY)));
+    }
+
+    @Test
+    void ignoresImpossibleMonthNameDates() {
+        OcrReceiptResponseDTO result = parser.parseReceipt(ocr("""
+                CORNER STORE
+                31 Feb %d
+                TOTAL: 10.00
+                """.formatted(DATE.getYear())));
+        assertNull(result.getDate());
+    }
+
+    private void assertMonthNameDate(String receipt) {
+        OcrReceiptResponseDTO before = legacy.parseReceipt(ocr(receipt));
+        OcrReceiptResponseDTO after = parser.parseReceipt(ocr(receipt));
+
+        assertNull(before.getDate());
+        assertEquals(DATE, after.getDate());
+        assertEquals(before.getMerchant(), after.getMerchant());
+        assertEquals(before.getAmount(), after.getAmount());
+        assertEquals(before.getTax(), after.getTax());
+        assertEquals(before.getSubtotal(), after.getSubtotal());
+        assertEquals(before.getCurrency(), after.getCurrency());
+        assertEquals(before.getPaymentMethod(), after.getPaymentMethod());
+        assertEquals(before.getExpenseItems(), after.getExpenseItems());
+        assertEquals(before.getSuggestedCategory(), after.getSuggestedCategory());
+    }
+
+    private static OcrProcessingResult ocr(String text) {
+        return OcrProcessingResult.success(text, 88.0, 420);
+    }
+
+    private static List<String> sampleReceipts() {
+        String date = DATE.format(DAY_FIRST);
+        return List.of(
+                """
+                TRENT HYPERMARKET PRIVATE LIMITED
+                STAR BAZAAR - KONDAPUR
+                GSTIN: 36AACCT3518Q1ZK
+                FSSAI: 10019043002345
+                TAX INVOICE
+                Bill No: 1043  Date: %s 18:42
+                Cashier: 07  Counter: 3
+                ------------------------------------------
+                1234567 2.00 PC 45.00 90.00
+                Amul Taaza Milk 1L
+                7654321 0.50 KG 120.00 60.00
+                Tomato Local
+                2345678 1.00 PC 250.00 250.00
+                Basmati Rice 1kg
+                ------------------------------------------
+                SUB TOTAL: 400.00
+                CGST @2.5%%: 10.00
+                SGST @2.5%%: 10.00
+                TOTAL INVOICE AMOUNT: Rs. 420.00
+                TENDER DETAILS
+                CREDIT CARD 420.00
+                You saved Rs. 35.00
+                """.formatted(date),
+                """
+                Domino's Pizza
+                Road No 36, Jubilee Hills
+                %s 21:10
+                Farmhouse Pizza  x1   459.00
+                Garlic Breadsticks    129.00
+                Pepsi 500ml  x2        80.00
+                Sub Total            668.00
+                GST                   33.40
+                Grand Total ₹        701.40
+                Paid via UPI
+                """.formatted(date),
+                "Apollo Pharmacy\r\nInvoice Date: " + date + "\r\nParacetamol 500 10.00\r\n"
+                        + "Cough Syrup 85.50\r\nNET AMOUNT: 95.50\r\nCASH\r\n",
+                """
+                SHELL SELECT
+                PUMP 04   %s
+                PETROL  32.10 L
+                FUEL SALE          3,210.00
+                AMOUNT PAID Rs 3,210.00
+                DEBIT CARD
+                """.formatted(DATE.format(DateTimeFormatter.ofPattern("yyyy-MM-dd"))),
+                """
+                WALMART SUPERCENTER
+                Store 2231  %s
+                BANANAS            1.24
+                WHOLE MILK GAL     3.48
+                BREAD WHITE        2.50
+                SUBTOTAL           7.22
+                TAX 1  6.000 %%     0.43
+                TOTAL              7.65
+                MASTERCARD  TEND   7.65
+                CHANGE DUE         0.00
+                """.formatted(DATE.format(DateTimeFormatter.ofPattern("MM/dd/yy"))),
+                "BOOKMYSHOW\nPVR INOX Forum Mall\nTickets 2 x 250.00\nConvenience fee 47.20\n"
+                        + "Total Amount: 547.20\nBooked on " + date + "\n",
+                "Thank you for shopping",
+                "");
+    }
+
+    private static final String[] MERCHANTS = { "DMART", "Reliance Smart", "Spencer's Retail", "Lulu Hypermarket",
+            "Starbucks Coffee", "Uber Trip", "Apollo Pharmacy", "Airtel Payments", "Westside", "Corner Bakery" };
+    private static final String[] ITEMS = { "Milk", "Bread Brown", "Eggs 12", "Paneer 200g", "Coffee Beans",
+            "Shampoo", "Toothpaste", "Rice 5kg", "Onion", "Chocolate Bar", "Notebook", "Batteries AA" };
+    private static final String[] TOTAL_LABELS = { "TOTAL", "Grand Total", "NET AMOUNT", "Amount Payable",
+            "BILL AMOUNT", "Balance Due", "TOTAL INVOICE AMOUNT" };
+    private static final String[] TAX_LABELS = { "GST", "CGST @9%", "SGST 9%", "VAT", "Sales Tax", "HST" };
+    private static final String[] PAYMENTS = { "VISA", "Credit Card", "DEBIT CARD", "UPI", "Cash", "PhonePe",
+            "Google Pay", "AMEX", "" };
+    private static final String[] DATE_FORMATS = { "dd/MM/yyyy", "dd-MM-yyyy", "dd/MM/yy", "yyyy-MM-dd",
+            "MM/dd/yyyy" };
+
+    private static String generatedReceipt(Random random) {
+        List<String> lines = new ArrayList<>();
+        lines.add(pick(random, MERCHANTS));
+        if (random.nextBoolean()) {
+            lines.add("GSTIN 29ABCDE1234F1Z5");
+        }
+        LocalDate date = LocalDate.now().minusDays(random.nextInt(900));
+        lines.add((random.nextBoolean() ? "Date: " : "") + date.format(DateTimeFormatter.ofPattern(
+                pick(random, DATE_FORMATS))) + (random.nextBoolean() ? " 12:3" + random.nextInt(10) : ""));
+
+        double subtotal = 0;
+        int count = 1 + random.nextInt(8);
+        for (int i = 0; i < count; i++) {
+            double price = (1 + random.nextInt(200000)) / 100.0;
+            subtotal += price;
+            switch (random.nextInt(4)) {
+                case 0 -> lines.add(pick(random, ITEMS) + "   " + amount(price));
+                case 1 -> lines.add(pick(random, ITEMS) + " x" + (1 + random.nextInt(3)) + "  " + amount(price));
+                case 2 -> lines.add((1000000 + random.nextInt(9000000)) + " 1.00 PC " + amount(price) + " "
+                        + amount(price));
+                default -> lines.add(pick(random, ITEMS) + " " + (10000000 + random.nextInt(90000000)) + " "
+                        + amount(price));
+            }
+        }
+        double tax = Math.round(subtotal * 5) / 100.0;
+        if (random.nextBoolean()) {
+            lines.add((random.nextBoolean() ? "SUB TOTAL: " : "Subtotal ") + amount(subtotal));
+        }
+        lines.add(pick(random, TAX_LABELS) + ": " + amount(tax));
+        lines.add(pick(random, TOTAL_LABELS) + (random.nextBoolean() ? ": Rs. " : " $") + amount(subtotal + tax));
+        lines.add(pick(random, PAYMENTS));
+        if (random.nextInt(4) == 0) {
+            lines.add("Customer ID " + random.nextInt(100000));
+        }
+
+        String separator = random.nextInt(5) == 0 ? "\r\n" : "\n";
+        String text = String.join(separator, lines);
+        return random.nextBoolean() ? text.toUpperCase(Locale.ROOT) : text;
+    }
+
+    private static String amount(double value) {
+        String plain = String.format(Locale.ROOT, "%.2f", value);
+        return value >= 1000 && plain.length() > 6
+                ? plain.substring(0, plain.length() - 6) + "," + plain.substring(plain.length() - 6)
+                : plain;
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,205 @@
+package com.jaya.service.search;
+
+import com.jaya.dto.BillSearchDTO;
+import com.jaya.repository.BillRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The engine over a user with 100k bills, the repository mocked: candidate selection under the
+ * {@code max-candidates} cut, the top-K heap, the single read of the winning rows and the short
+ * query pushdown. Most bills fall in five name groups of 20k; a few planted bills are the ones the
+ * queries should find.
+ */
+class BillSearchEngineTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BillSearchEngineTest.class);
+
+    private static final int USER_ID = 1;
+    private static final int BILLS = 100_000;
+    private static final int MAX_CANDIDATES = 5000;
+    private static final String[] NAMES = { "grocery run", "electricity bill", "fuel station", "restaurant dinner",
+            "phone recharge" };
+    private static final String[] CATEGORIES = { "Food", "Utilities", "Transport", "Dining", "Mobile" };
+    private static final LocalDate FIRST_DAY = LocalDate.of(2022, 1, 1);
+    // CI ceiling for a warm search whose candidates overflow the cut, not the expected time
+    private static final long MAX_WARM_SEARCH_MS = 100;
+
+    // id, name, description, category, date, as findSearchFieldsByUserId returns them
+    private final List<Object[]> rows = new ArrayList<>();
+    private final Map<Integer, Object[]> rowsById = new HashMap<>();
+    private final List<Integer> insuranceIds = new ArrayList<>();
+    private final List<Integer> exactPharmacyIds = new ArrayList<>();
+    private final List<Integer> pharmacyOrderIds = new ArrayList<>();
+
+    private BillRepository billRepository;
+    private BillSearchEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        List<Object[]> items = new ArrayList<>();
+        for (int i = 0; i < BILLS; i++) {
+            int id = i + 1;
+            String description = i % 3 == 0 ? "insurance claim " + i : "paid at store " + i % 97;
+            bill(id, NAMES[i % NAMES.length], description, CATEGORIES[i % CATEGORIES.length],
+                    FIRST_DAY.plusDays(i % 1000));
+            if (i % 4 == 0) {
+                items.add(new Object[] { id, "bread" });
+                items.add(new Object[] { id, "milk" });
+            }
+        }
+        // Share every query trigram, where a third of all bills share only "insurance"
+        for (int i = 0; i < 5; i++) {
+            insuranceIds.add(bill(rows.size() + 1, "quarterly insurance premium", "annual cover", "Insurance",
+                    LocalDate.of(2021, 1, 1)));
+        }
+        // Exact name matches, older than every partial match
+        for (int i = 0; i < 3; i++) {
+            exactPharmacyIds.add(bill(rows.size() + 1, "pharmacy", "", "Health", LocalDate.of(2021, 6, 1)));
+        }
+        for (int i = 0; i < 300; i++) {
+            pharmacyOrderIds.add(bill(rows.size() + 1, "pharmacy order", "", "Health", FIRST_DAY.plusDays(i)));
+        }
+
+        billRepository = mock(BillRepository.class);
+        when(billRepository.findSearchFieldsByUserId(USER_ID)).thenReturn(rows);
+        when(billRepository.findItemNamesWithBillIdByUserId(USER_ID)).thenReturn(items);
+        when(billRepository.findSearchResultsByIds(eq(USER_ID), anyCollection())).thenAnswer(invocation -> {
+            Collection<Integer> ids = invocation.getArgument(1);
+            return ids.stream().map(id -> dto(rowsById.get(id))).toList();
+        });
+        engine = new BillSearchEngine(billRepository, 1000, 300_000, MAX_CANDIDATES);
+    }
+
+    @Test
+    void cutKeepsBillsSharingMostTrigrams() {
+        List<BillSearchDTO> results = engine.search(USER_ID, "insurance premium", 10);
+
+        // 33k bills share the "insurance" trigrams, well over the cut; the planted ones share all
+        assertEquals(newestFirst(insuranceIds), ids(results));
+    }
+
+    @Test
+    void cutKeepsMostRecentAmongEqualMatches() {
+        List<BillSearchDTO> results = engine.search(USER_ID, "grocery", 10);
+
+        // 20k equally scored "grocery run" bills: the result is the ten most recent of all of them,
+        // not of whichever 5000 were indexed first
+        List<Integer> expected = rows.stream()
+                .filter(row -> row[1].equals("grocery run"))
+                .sorted(Comparator.comparing((Object[] row) -> (LocalDate) row[4])
+                        .thenComparing(row -> (Integer) row[0]).reversed())
+                .limit(10)
+                .map(row -> (Integer) row[0])
+                .toList();
+        assertEquals(expected, ids(results));
+    }
+
+    @Test
+    void heapRanksByScoreThenRecencyAndReadsOnlyTheWinners() {
+        List<BillSearchDTO> results = engine.search(USER_ID, "pharmacy", 10);
+
+        // Exact names first despite being oldest, then the most recent partial matches
+        List<Integer> expected = new ArrayList<>(newestFirst(exactPharmacyIds));
+        expected.addAll(newestFirst(pharmacyOrderIds).subList(0, 7));
+        assertEquals(expected, ids(results));
+        verify(billRepository, times(1)).findSearchResultsByIds(USER_ID, expected);
+
+        // The index is built once and reused
+        engine.search(USER_ID, "pharmacy", 10);
+        verify(billRepository, times(1)).findSearchFieldsByUserId(USER_ID);
+        verify(billRepository, times(1)).findItemNamesWithBillIdByUserId(USER_ID);
+    }
+
+    @Test
+    void shortQueryGoesToDatabaseWithLimit() {
+        engine.search(USER_ID, "tv", 10);
+
+        verify(billRepository).searchBillsFuzzyWithLimit(USER_ID, "%tv%", PageRequest.of(0, 10));
+        verify(billRepository, never()).findSearchFieldsByUserId(anyInt());
+        verify(billRepository, never()).findSearchResultsByIds(anyInt(), any());
+    }
+
+    @Test
+    void deleteReachesIndexOnlyAfterCommit() {
+        Integer deleted = exactPharmacyIds.get(0);
+        engine.search(USER_ID, "pharmacy", 10);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            engine.billDeleted(USER_ID, deleted);
+            assertTrue(ids(engine.search(USER_ID, "pharmacy", 10)).contains(deleted));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertFalse(ids(engine.search(USER_ID, "pharmacy", 10)).contains(deleted));
+    }
+
+    @Test
+    void warmSearchOverflowingTheCutIsQuick() {
+        for (int i = 0; i < 20; i++) {
+            engine.search(USER_ID, "grocery", 10);
+        }
+
+        int runs = 50;
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            engine.search(USER_ID, "grocery", 10);
+        }
+        long averageMs = (System.nanoTime() - start) / runs / 1_000_000;
+        log.info("Warm search over {} bills with 20k candidates: {} ms on average", rows.size(), averageMs);
+
+        assertTrue(averageMs < MAX_WARM_SEARCH_MS, "search took " + averageMs + " ms");
+    }
+
+    private Integer bill(int id, String name, String description, String category, LocalDate date) {
+        Object[] row = { id, name, description, category, date };
+        rows.add(row);
+        rowsById.put(id, row);
+        return id;
+    }
+
+    private static BillSearchDTO dto(Object[] row) {
+        return new BillSearchDTO((Integer) row[0], (String) row[1], (String) row[2], 100.0, "cash", "loss",
+                (LocalDate) row[4], 100.0, (String) row[3], null, USER_ID);
+    }
+
+    private static List<Integer> newestFirst(List<Integer> ids) {
+        List<Integer> reversed = new ArrayList<>(ids);
+        Collections.reverse(reversed);
+        return reversed;
+    }
+
+    private static List<Integer> ids(List<BillSearchDTO> results) {
+        return results.stream().map(BillSearchDTO::getId).toList();
+    }
+}
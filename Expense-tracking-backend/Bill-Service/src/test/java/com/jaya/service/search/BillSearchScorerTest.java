@@ -0,0 +1,96 @@
+package com.jaya.service.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BillSearchScorerTest {
+
+    private static BillSearchIndex.Document doc(int id, String name, String description, String category,
+            String... items) {
+        return new BillSearchIndex.Document(id, LocalDate.of(2024, 1, 1), name, description, category, List.of(items));
+    }
+
+    @Test
+    void exactBeatsPrefixBeatsWordPrefixBeatsSubstring() {
+        double exact = BillSearchScorer.scoreField("milk", "milk");
+        double prefix = BillSearchScorer.scoreField("milk", "milkshake");
+        double wordPrefix = BillSearchScorer.scoreField("milk", "fresh milkshake");
+        double substring = BillSearchScorer.scoreField("milk", "buttermilk");
+        double typo = BillSearchScorer.scoreField("milk", "mulk");
+
+        assertTrue(exact > prefix);
+        assertTrue(prefix > wordPrefix);
+        assertTrue(wordPrefix > substring);
+        assertTrue(substring > typo);
+        assertTrue(typo > 0);
+    }
+
+    @Test
+    void unrelatedTextDoesNotMatch() {
+        assertEquals(0, BillSearchScorer.scoreField("grocery", "electricity"));
+        assertEquals(0, BillSearchScorer.score("grocery", doc(1, "rent", "monthly rent", "housing", "flat")));
+    }
+
+    @Test
+    void nameHitOutranksSameHitInItemCategoryOrDescription() {
+        double inName = BillSearchScorer.score("coffee", doc(1, "coffee", "", "", "bread"));
+        double inItem = BillSearchScorer.score("coffee", doc(2, "breakfast", "", "", "coffee"));
+        double inCategory = BillSearchScorer.score("coffee", doc(3, "breakfast", "", "coffee", "bread"));
+        double inDescription = BillSearchScorer.score("coffee", doc(4, "breakfast", "coffee", "", "bread"));
+
+        assertTrue(inName > inItem);
+        assertTrue(inItem > inCategory);
+        assertTrue(inCategory > inDescription);
+        assertTrue(inDescription > 0);
+    }
+
+    @Test
+    void multiWordQueryNeedsEveryWord() {
+        BillSearchIndex.Document both = doc(1, "weekly groceries", "", "food", "milk", "eggs");
+        BillSearchIndex.Document one = doc(2, "weekly rent", "", "housing");
+
+        assertTrue(BillSearchScorer.score("weekly milk", both) > 0);
+        assertEquals(0, BillSearchScorer.score("weekly milk", one));
+    }
+
+    @Test
+    void toleratesOneTypoPerThreeCharacters() {
+        assertTrue(BillSearchScorer.scoreField("grocry", "grocery store") > 0);
+        assertEquals(0, BillSearchScorer.scoreField("gxxcry", "grocery store"));
+        assertEquals(3, BillSearchScorer.editDistance("kitten", "sitting", 3));
+        assertEquals(2, BillSearchScorer.editDistance("abcdef", "xyzdef", 1));
+    }
+
+    @Test
+    void scoresTenThousandBillsQuickly() {
+        List<BillSearchIndex.Document> documents = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            documents.add(doc(i, "bill number " + i, "paid at store " + (i % 97), "category " + (i % 13),
+                    "item " + i, "another item " + (i * 7), "third item " + (i * 13)));
+        }
+        // Warm up so the measurement is not dominated by class loading and JIT
+        for (int round = 0; round < 3; round++) {
+            for (BillSearchIndex.Document document : documents) {
+                BillSearchScorer.score("stire item", document);
+            }
+        }
+
+        long start = System.nanoTime();
+        int matched = 0;
+        for (BillSearchIndex.Document document : documents) {
+            if (BillSearchScorer.score("stire item", document) > 0) {
+                matched++;
+            }
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(documents.size(), matched);
+        assertTrue(elapsedMs < 500, "scoring 10k bills took " + elapsedMs + " ms");
+    }
+}
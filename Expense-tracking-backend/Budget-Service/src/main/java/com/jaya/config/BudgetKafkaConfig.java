@@ -2,6 +2,7 @@ package com.jaya.config;
 
 import com.jaya.dto.ExpenseBudgetLinkingEvent;
 import com.jaya.events.BudgetExpenseEvent;
+import com.jaya.events.ExpenseSpendEvent;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
@@ -12,9 +13,12 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
 import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.util.backoff.FixedBackOff;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -28,6 +32,12 @@ public class BudgetKafkaConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    @Value("${budget.spend.retry-interval-ms:1000}")
+    private long spendRetryIntervalMs;
+
+    @Value("${budget.spend.retry-attempts:3}")
+    private long spendRetryAttempts;
+
     @Bean
     public ProducerFactory<String, Object> producerFactory() {
         Map<String, Object> props = new HashMap<>();
@@ -91,4 +101,32 @@ public class BudgetKafkaConfig {
         factory.setConsumerFactory(expenseBudgetLinkingConsumerFactory());
         return factory;
     }
+
+    @Bean
+    public ConsumerFactory<String, ExpenseSpendEvent> expenseSpendConsumerFactory() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, "budget-spend-tracker-group");
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
+        props.put(ErrorHandlingDeserializer.KEY_DESERIALIZER_CLASS, StringDeserializer.class);
+        props.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonDeserializer.class);
+        props.put(JsonDeserializer.TRUSTED_PACKAGES, "com.jaya.events");
+        props.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
+        props.put(JsonDeserializer.VALUE_DEFAULT_TYPE, "com.jaya.events.ExpenseSpendEvent");
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        return new DefaultKafkaConsumerFactory<>(props);
+    }
+
+    // A spend event that still fails after the retries goes to <topic>.DLT instead of being skipped
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, ExpenseSpendEvent> expenseSpendKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, ExpenseSpendEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(expenseSpendConsumerFactory());
+        factory.setCommonErrorHandler(new DefaultErrorHandler(
+                new DeadLetterPublishingRecoverer(kafkaTemplate()),
+                new FixedBackOff(spendRetryIntervalMs, spendRetryAttempts)));
+        return factory;
+    }
 }
\ No newline at end of file
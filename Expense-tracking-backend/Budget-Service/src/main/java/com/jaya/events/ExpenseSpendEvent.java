@@ -0,0 +1,32 @@
+package com.jaya.events;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * The fields of an Expense-Service expense event that budget spend tracking needs. The expense type
+ * travels inside the JSON {@code metadata} string.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ExpenseSpendEvent {
+    public static final String CREATE = "CREATE";
+    public static final String UPDATE = "UPDATE";
+    public static final String DELETE = "DELETE";
+
+    private Integer expenseId;
+    private Integer userId;
+    private String action;
+    private Double amount;
+    private String paymentMethod;
+    private String metadata;
+
+    // A bulk change carries one complete event per expense instead of the fields above
+    private List<ExpenseSpendEvent> items;
+}
@@ -2,7 +2,10 @@ package com.jaya.kafka;
 
 import com.jaya.events.BudgetExpenseEvent;
 import com.jaya.models.Budget;
+import com.jaya.repository.BudgetRepository;
+import com.jaya.service.BudgetExpenseLinkService;
 import com.jaya.service.BudgetService;
+import com.jaya.service.BudgetSpendTracker;
 import lombok.AllArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,6 +13,10 @@ import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
 @Service
 @AllArgsConstructor
 public class BudgetExpenseKafkaConsumerService {
@@ -17,13 +24,16 @@ public class BudgetExpenseKafkaConsumerService {
     private static final Logger logger = LoggerFactory.getLogger(BudgetExpenseKafkaConsumerService.class);
 
     private final BudgetService budgetService;
+    private final BudgetSpendTracker budgetSpendTracker;
+    private final BudgetExpenseLinkService expenseLinks;
+    private final BudgetRepository budgetRepository;
 
     @KafkaListener(topics = "budget-expense-events", groupId = "budget-expense-group", containerFactory = "budgetExpenseKafkaListenerContainerFactory")
     @Transactional
     public void handleBudgetExpenseEventDirect(BudgetExpenseEvent event) {
         try {
-            logger.info("Direct consumption - Expense ID: {}, Budget IDs: {}, Action: {}, User: {}",
-                    event.getExpenseId(), event.getBudgetIds(), event.getAction(), event.getUserId());
+            logger.info("Direct consumption - Expense IDs: {}, Budget IDs: {}, Action: {}, User: {}",
+                    describeExpenses(event), event.getBudgetIds(), event.getAction(), event.getUserId());
 
             if (event.getBudgetIds() == null || event.getBudgetIds().isEmpty()) {
                 logger.warn("No budget IDs provided for expense ID: {}", event.getExpenseId());
@@ -52,38 +62,49 @@ public class BudgetExpenseKafkaConsumerService {
     }
 
     private void addExpenseToBudgets(BudgetExpenseEvent event) throws Exception {
-        logger.info("Adding expense ID: {} to budgets: {} for user: {}",
-                event.getExpenseId(), event.getBudgetIds(), event.getUserId());
+        logger.info("Adding expense IDs: {} to budgets: {} for user: {}",
+                describeExpenses(event), event.getBudgetIds(), event.getUserId());
 
-        budgetService.editBudgetWithExpenseId(event.getBudgetIds(), event.getExpenseId(), event.getUserId());
+        budgetService.editBudgetWithExpenseIds(event.getBudgetIds(), expenseIdsOf(event), event.getUserId());
     }
 
     private void updateBudgetExpenseLinks(BudgetExpenseEvent event) throws Exception {
-        removeExpenseFromAllBudgets(event.getExpenseId(), event.getUserId());
+        Set<Integer> previousBudgetIds = expenseLinks.unlinkFromAllBudgets(event.getUserId(), expenseIdsOf(event));
         addExpenseToBudgets(event);
+
+        // Budgets the expenses stay in were recalculated when they were linked again
+        previousBudgetIds.removeAll(event.getBudgetIds());
+        recalculate(previousBudgetIds, event.getUserId());
+        logger.info("Removed expense IDs: {} from {} budgets during update for user: {}",
+                describeExpenses(event), previousBudgetIds.size(), event.getUserId());
     }
 
     private void handleExpenseRemoval(BudgetExpenseEvent event) throws Exception {
-        for (Integer budgetId : event.getBudgetIds()) {
-            Budget budget = budgetService.getBudgetById(budgetId, event.getUserId());
-            if (budget != null && budget.getExpenseIds() != null) {
-                budget.getExpenseIds().remove(event.getExpenseId());
-                budget.setBudgetHasExpenses(!budget.getExpenseIds().isEmpty());
-                budgetService.save(budget);
-                logger.info("Removed expense {} from budget {}", event.getExpenseId(), budgetId);
-            }
+        List<Budget> budgets = budgetRepository.findByIdInAndUserId(new ArrayList<>(event.getBudgetIds()),
+                event.getUserId());
+        expenseLinks.unlink(budgets, expenseIdsOf(event));
+        for (Budget budget : budgets) {
+            budgetSpendTracker.recalculate(budget);
+            logger.info("Removed expenses {} from budget {}", describeExpenses(event), budget.getId());
         }
     }
 
-    private void removeExpenseFromAllBudgets(Integer expenseId, Integer userId) throws Exception {
-        var allBudgets = budgetService.getAllBudgetForUser(userId);
-        for (Budget budget : allBudgets) {
-            if (budget.getExpenseIds() != null && budget.getExpenseIds().contains(expenseId)) {
-                budget.getExpenseIds().remove(expenseId);
-                budgetService.editBudget(budget.getId(), budget, userId);
-                logger.info("Removed expense ID: {} from budget ID: {} during update for user: {}",
-                        expenseId, budget.getId(), userId);
-            }
+    private void recalculate(Set<Integer> budgetIds, Integer userId) {
+        if (!budgetIds.isEmpty()) {
+            budgetRepository.findByIdInAndUserId(new ArrayList<>(budgetIds), userId)
+                    .forEach(budgetSpendTracker::recalculate);
         }
     }
+
+    // Bulk events from import/delete carry an id list in place of a single expenseId
+    private List<Integer> expenseIdsOf(BudgetExpenseEvent event) {
+        if (event.getExpenseIds() != null && !event.getExpenseIds().isEmpty()) {
+            return event.getExpenseIds();
+        }
+        return event.getExpenseId() != null ? List.of(event.getExpenseId()) : List.of();
+    }
+
+    private Object describeExpenses(BudgetExpenseEvent event) {
+        return event.getExpenseIds() != null ? event.getExpenseIds().size() + " ids" : event.getExpenseId();
+    }
 }
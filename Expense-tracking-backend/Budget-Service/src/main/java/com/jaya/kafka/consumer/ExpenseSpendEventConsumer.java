@@ -0,0 +1,31 @@
+package com.jaya.kafka.consumer;
+
+import com.jaya.events.ExpenseSpendEvent;
+import com.jaya.service.BudgetSpendTracker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds expense create/update/delete events into {@link BudgetSpendTracker}. Expense events are
+ * keyed by user, so one user's changes arrive in order on a single partition. Failures propagate
+ * to the container's error handler, which retries and then dead-letters the record.
+ */
+@Component
+public class ExpenseSpendEventConsumer {
+
+    @Autowired
+    private BudgetSpendTracker budgetSpendTracker;
+
+    @KafkaListener(topics = "${kafka.topics.expense-events:expense-events}", groupId = "budget-spend-tracker-group", containerFactory = "expenseSpendKafkaListenerContainerFactory")
+    public void consumeExpenseEvent(ExpenseSpendEvent event) {
+        if (event == null) {
+            return;
+        }
+        if (event.getItems() != null && !event.getItems().isEmpty()) {
+            budgetSpendTracker.applyExpenseEvents(event.getItems());
+        } else {
+            budgetSpendTracker.applyExpenseEvent(event);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.jaya.models;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateSerializer;
 import jakarta.persistence.*;
@@ -40,22 +41,39 @@ public class Budget {
     @Column(name = "budget_user_id")
     private Integer userId = 0;
 
-    @Column(name = "expense_ids", columnDefinition = "LONGBLOB")
+    // Linked expenses as sent and returned by the API; stored in budget_expense_link (see BudgetExpenseLinkService)
+    @Transient
     private Set<Integer> expenseIds = new HashSet<>();
 
+    // Serialized id set the links were kept in before budget_expense_link; only read until backfilled
+    @JsonIgnore
+    @Column(name = "expense_ids", columnDefinition = "LONGBLOB", insertable = false, updatable = false)
+    private Set<Integer> legacyExpenseIds;
+
+    // Null on budgets created before budget_expense_link until their legacy ids are copied into it
+    @JsonIgnore
+    @Column(name = "expense_links_migrated", updatable = false)
+    private Boolean expenseLinksMigrated = true;
+
     private double remainingAmount;
     private boolean isBudgetHasExpenses;
 
     @Column(nullable = false)
     private boolean includeInBudget = false;
 
-    @Column(nullable = false)
+    // Running total of counted expenses, maintained only by BudgetSpendTracker's atomic updates
+    @Column(name = "spent_amount", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "double default 0")
+    private double spentAmount;
+
+    // Threshold flags are claimed with conditional UPDATEs so each crossing alerts once; entity saves never write them
+    @Column(name = "notification50percent_sent", nullable = false, updatable = false)
     private boolean notification50PercentSent = false;
 
-    @Column(nullable = false)
+    @Column(name = "notification80percent_sent", nullable = false, updatable = false)
     private boolean notification80PercentSent = false;
 
-    @Column(nullable = false)
+    @Column(name = "notification100percent_sent", nullable = false, updatable = false)
     private boolean notification100PercentSent = false;
 
     @Column(nullable = false)
@@ -67,17 +85,4 @@ public class Budget {
     public void deductAmount(double expenseAmount) {
         this.amount -= expenseAmount;
     }
-
-    public void resetNotificationFlags(double currentPercentage) {
-        if (currentPercentage < 50.0) {
-            this.notification50PercentSent = false;
-            this.notification80PercentSent = false;
-            this.notification100PercentSent = false;
-        } else if (currentPercentage < 80.0) {
-            this.notification80PercentSent = false;
-            this.notification100PercentSent = false;
-        } else if (currentPercentage < 100.0) {
-            this.notification100PercentSent = false;
-        }
-    }
 }
\ No newline at end of file
@@ -0,0 +1,62 @@
+package com.jaya.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Last known amount of one expense as seen by Budget-Service. Budget spend is the sum of these
+ * rows over a budget's linked expenses, so an expense event only needs the stored row to work out
+ * the delta to apply, and reports never have to ask Expense-Service for the amounts.
+ */
+@Entity
+@Table(name = "budget_expense_amounts", indexes = {
+        @Index(name = "idx_budget_expense_amounts_user", columnList = "user_id")
+})
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BudgetExpenseAmount {
+
+    @Id
+    @Column(name = "expense_id")
+    private Integer expenseId;
+
+    @Column(name = "user_id", nullable = false)
+    private Integer userId;
+
+    @Column(nullable = false)
+    private double amount;
+
+    private String type;
+
+    private String paymentMethod;
+
+    // Whether the expense counts against budgets (a loss paid by cash or credit still to be paid)
+    @Column(nullable = false)
+    private boolean counted;
+
+    private LocalDateTime updatedAt;
+
+    public static boolean countsTowardBudget(String type, String paymentMethod) {
+        return "loss".equalsIgnoreCase(type)
+                && ("cash".equalsIgnoreCase(paymentMethod) || "creditNeedToPaid".equalsIgnoreCase(paymentMethod));
+    }
+
+    public void apply(double amount, String type, String paymentMethod) {
+        this.amount = amount;
+        this.type = type;
+        this.paymentMethod = paymentMethod;
+        this.counted = countsTowardBudget(type, paymentMethod);
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public double countedAmount() {
+        return counted ? amount : 0.0;
+    }
+}
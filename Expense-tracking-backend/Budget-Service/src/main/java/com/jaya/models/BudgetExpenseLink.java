@@ -0,0 +1,49 @@
+package com.jaya.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+/**
+ * One expense counted in one budget. The primary key serves "expenses of a budget" and
+ * idx_budget_expense_link_expense serves "budgets containing an expense", so neither side has to
+ * deserialize an id set to answer it.
+ */
+@Entity
+@Table(name = "budget_expense_link", indexes = {
+        @Index(name = "idx_budget_expense_link_expense", columnList = "expense_id, budget_id"),
+        @Index(name = "idx_budget_expense_link_user", columnList = "user_id")
+})
+@IdClass(BudgetExpenseLink.Key.class)
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BudgetExpenseLink {
+
+    @Id
+    @Column(name = "budget_id")
+    private Integer budgetId;
+
+    @Id
+    @Column(name = "expense_id")
+    private Integer expenseId;
+
+    @Column(name = "user_id", nullable = false)
+    private Integer userId;
+
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Integer budgetId;
+        private Integer expenseId;
+    }
+}
@@ -0,0 +1,29 @@
+package com.jaya.repository;
+
+import com.jaya.models.BudgetExpenseAmount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BudgetExpenseAmountRepository extends JpaRepository<BudgetExpenseAmount, Integer> {
+
+        @Query("SELECT COALESCE(SUM(a.amount), 0) FROM BudgetExpenseAmount a " +
+                        "WHERE a.expenseId IN :expenseIds AND a.counted = true")
+        double sumCountedAmount(@Param("expenseIds") Collection<Integer> expenseIds);
+
+        @Query("SELECT a FROM BudgetExpenseAmount a WHERE a.expenseId IN :expenseIds AND a.counted = true")
+        List<BudgetExpenseAmount> findCountedByExpenseIdIn(@Param("expenseIds") Collection<Integer> expenseIds);
+
+        @Query("SELECT COALESCE(SUM(a.amount), 0) FROM BudgetExpenseAmount a, BudgetExpenseLink l " +
+                        "WHERE l.budgetId = :budgetId AND a.expenseId = l.expenseId AND a.counted = true")
+        double sumCountedAmountByBudgetId(@Param("budgetId") Integer budgetId);
+
+        @Query("SELECT a FROM BudgetExpenseAmount a, BudgetExpenseLink l " +
+                        "WHERE l.budgetId = :budgetId AND a.expenseId = l.expenseId AND a.counted = true")
+        List<BudgetExpenseAmount> findCountedByBudgetId(@Param("budgetId") Integer budgetId);
+}
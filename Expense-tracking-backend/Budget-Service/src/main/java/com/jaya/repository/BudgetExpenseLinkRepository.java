@@ -0,0 +1,49 @@
+package com.jaya.repository;
+
+import com.jaya.models.BudgetExpenseLink;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BudgetExpenseLinkRepository extends JpaRepository<BudgetExpenseLink, BudgetExpenseLink.Key> {
+
+        @Query("SELECT l.expenseId FROM BudgetExpenseLink l WHERE l.budgetId = :budgetId")
+        List<Integer> findExpenseIdsByBudgetId(@Param("budgetId") Integer budgetId);
+
+        /** Budget id and expense id of every link of the budgets. */
+        @Query("SELECT l.budgetId, l.expenseId FROM BudgetExpenseLink l WHERE l.budgetId IN :budgetIds")
+        List<Object[]> findLinksByBudgetIdIn(@Param("budgetIds") Collection<Integer> budgetIds);
+
+        @Query("SELECT COUNT(l) FROM BudgetExpenseLink l WHERE l.budgetId = :budgetId")
+        long countByBudgetId(@Param("budgetId") Integer budgetId);
+
+        @Query("SELECT DISTINCT l.budgetId FROM BudgetExpenseLink l " +
+                        "WHERE l.expenseId IN :expenseIds AND l.userId = :userId")
+        List<Integer> findBudgetIdsByExpenseIdIn(@Param("expenseIds") Collection<Integer> expenseIds,
+                        @Param("userId") Integer userId);
+
+        @Modifying
+        @Query("DELETE FROM BudgetExpenseLink l WHERE l.budgetId IN :budgetIds AND l.expenseId IN :expenseIds")
+        int unlink(@Param("budgetIds") Collection<Integer> budgetIds,
+                        @Param("expenseIds") Collection<Integer> expenseIds);
+
+        @Modifying
+        @Query("DELETE FROM BudgetExpenseLink l WHERE l.userId = :userId AND l.expenseId IN :expenseIds")
+        int unlinkFromAllBudgets(@Param("userId") Integer userId,
+                        @Param("expenseIds") Collection<Integer> expenseIds);
+
+        @Modifying
+        @Query("DELETE FROM BudgetExpenseLink l WHERE l.budgetId = :budgetId AND l.expenseId NOT IN :expenseIds")
+        int unlinkAllExcept(@Param("budgetId") Integer budgetId,
+                        @Param("expenseIds") Collection<Integer> expenseIds);
+
+        @Modifying
+        @Query("DELETE FROM BudgetExpenseLink l WHERE l.budgetId IN :budgetIds")
+        int deleteByBudgetIdIn(@Param("budgetIds") Collection<Integer> budgetIds);
+}
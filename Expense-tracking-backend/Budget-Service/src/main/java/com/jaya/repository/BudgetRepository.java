@@ -2,7 +2,9 @@ package com.jaya.repository;
 
 import com.jaya.dto.BudgetSearchDTO;
 import com.jaya.models.Budget;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
@@ -11,6 +13,7 @@ import org.springframework.stereotype.Repository;
 import jakarta.persistence.QueryHint;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -172,4 +175,74 @@ public interface BudgetRepository extends JpaRepository<Budget, Integer> {
         List<BudgetSearchDTO> searchBudgetsFuzzyWithLimit(@Param("userId") Integer userId,
                         @Param("query") String query);
 
+        @Query("SELECT b FROM Budget b WHERE b.id > :afterId ORDER BY b.id ASC")
+        List<Budget> findBatchAfterId(@Param("afterId") Integer afterId, Pageable pageable);
+
+        @Query("SELECT b FROM Budget b WHERE b.id > :afterId AND b.expenseLinksMigrated IS NULL ORDER BY b.id ASC")
+        List<Budget> findUnmigratedBatchAfterId(@Param("afterId") Integer afterId, Pageable pageable);
+
+        @Query("SELECT b FROM Budget b WHERE b.userId = :userId AND b.expenseLinksMigrated IS NULL")
+        List<Budget> findUnmigratedByUserId(@Param("userId") Integer userId);
+
+        // Matches only for the first caller, so a budget's legacy ids are copied into the link table once
+        @Modifying
+        @Query(value = "UPDATE budget SET expense_links_migrated = 1 " +
+                        "WHERE id = :budgetId AND expense_links_migrated IS NULL", nativeQuery = true)
+        int claimExpenseLinksMigration(@Param("budgetId") Integer budgetId);
+
+        @Modifying
+        @Query(value = "UPDATE budget b SET b.is_budget_has_expenses = EXISTS " +
+                        "(SELECT 1 FROM budget_expense_link l WHERE l.budget_id = b.id) " +
+                        "WHERE b.id IN (:budgetIds)", nativeQuery = true)
+        int refreshHasExpenses(@Param("budgetIds") Collection<Integer> budgetIds);
+
+        @Query("SELECT b.spentAmount FROM Budget b WHERE b.id = :budgetId")
+        Optional<Double> findSpentAmount(@Param("budgetId") Integer budgetId);
+
+        // remaining_amount is assigned after spent_amount, so MySQL computes it from the updated total
+        @Modifying
+        @Query(value = "UPDATE budget SET spent_amount = spent_amount + :delta, " +
+                        "remaining_amount = amount - spent_amount WHERE id IN (:budgetIds)", nativeQuery = true)
+        int addSpentAmount(@Param("budgetIds") Collection<Integer> budgetIds, @Param("delta") double delta);
+
+        @Modifying
+        @Query(value = "UPDATE budget SET spent_amount = :spent, remaining_amount = amount - :spent " +
+                        "WHERE id = :budgetId", nativeQuery = true)
+        int setSpentAmount(@Param("budgetId") Integer budgetId, @Param("spent") double spent);
+
+        @Modifying
+        @Query(value = "UPDATE budget SET spent_amount = :spent, remaining_amount = amount - :spent " +
+                        "WHERE id = :budgetId AND spent_amount = :observed", nativeQuery = true)
+        int correctSpentAmount(@Param("budgetId") Integer budgetId, @Param("observed") double observed,
+                        @Param("spent") double spent);
+
+        @Modifying
+        @Query(value = "UPDATE budget SET " +
+                        "notification100percent_sent = CASE WHEN spent_amount < amount THEN 0 ELSE notification100percent_sent END, " +
+                        "notification80percent_sent = CASE WHEN spent_amount < amount * 0.8 THEN 0 ELSE notification80percent_sent END, " +
+                        "notification50percent_sent = CASE WHEN spent_amount < amount * 0.5 THEN 0 ELSE notification50percent_sent END " +
+                        "WHERE id = :budgetId", nativeQuery = true)
+        int resetThresholdFlags(@Param("budgetId") Integer budgetId);
+
+        // The claim* updates match at most once per crossing: the flag stays set until spend drops below again.
+        // A claim also sets the flags of the lower thresholds, so falling back from above one never alerts.
+        @Modifying
+        @Query(value = "UPDATE budget SET notification100percent_sent = 1, notification80percent_sent = 1, " +
+                        "notification50percent_sent = 1 WHERE id = :budgetId " +
+                        "AND notification100percent_sent = 0 AND amount > 0 AND spent_amount >= amount", nativeQuery = true)
+        int claimExceededAlert(@Param("budgetId") Integer budgetId);
+
+        @Modifying
+        @Query(value = "UPDATE budget SET notification80percent_sent = 1, notification50percent_sent = 1 " +
+                        "WHERE id = :budgetId " +
+                        "AND notification80percent_sent = 0 AND amount > 0 " +
+                        "AND spent_amount >= amount * 0.8 AND spent_amount < amount", nativeQuery = true)
+        int claimWarningAlert(@Param("budgetId") Integer budgetId);
+
+        @Modifying
+        @Query(value = "UPDATE budget SET notification50percent_sent = 1 WHERE id = :budgetId " +
+                        "AND notification50percent_sent = 0 AND amount > 0 " +
+                        "AND spent_amount >= amount * 0.5 AND spent_amount < amount * 0.8", nativeQuery = true)
+        int claimApproachingAlert(@Param("budgetId") Integer budgetId);
+
 }
\ No newline at end of file
@@ -0,0 +1,100 @@
+package com.jaya.scheduler;
+
+import com.jaya.models.Budget;
+import com.jaya.repository.BudgetRepository;
+import com.jaya.service.BudgetExpenseLinkService;
+import com.jaya.service.BudgetSpendTracker;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Scheduled jobs for budget-related tasks.
+ * Conditional on scheduling.enabled property to avoid duplicate execution in monolithic mode.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class BudgetScheduledJobs {
+
+    private final BudgetRepository budgetRepository;
+    private final BudgetSpendTracker budgetSpendTracker;
+    private final BudgetExpenseLinkService budgetExpenseLinkService;
+
+    @Value("${budget.spend.reconcile-batch-size:200}")
+    private int reconcileBatchSize;
+
+    @Value("${budget.expense-links.backfill-batch-size:500}")
+    private int backfillBatchSize;
+
+    // Id of the last budget reconciled; each run continues from here and wraps around at the end
+    private volatile int reconcileCursor = 0;
+
+    // Set once a pass found no budget left with legacy expense links
+    private volatile boolean backfillComplete = false;
+
+    /**
+     * Reconcile the next batch of budgets' running spend against Expense-Service, so every budget
+     * is revisited once per full cycle and drift from lost events does not persist.
+     */
+    @Scheduled(fixedDelayString = "${budget.spend.reconcile-interval-ms:300000}", initialDelay = 60000)
+    public void reconcileBudgetSpend() {
+        try {
+            List<Budget> budgets = budgetRepository.findBatchAfterId(reconcileCursor,
+                    PageRequest.of(0, reconcileBatchSize));
+            if (budgets.isEmpty()) {
+                reconcileCursor = 0;
+                return;
+            }
+            reconcileCursor = budgets.get(budgets.size() - 1).getId();
+
+            Map<Integer, List<Budget>> byUser = budgets.stream()
+                    .collect(Collectors.groupingBy(Budget::getUserId));
+            int corrected = 0;
+            for (Map.Entry<Integer, List<Budget>> entry : byUser.entrySet()) {
+                try {
+                    corrected += budgetSpendTracker.reconcileUser(entry.getKey(), entry.getValue());
+                } catch (Exception e) {
+                    log.warn("Could not reconcile budget spend for user {}: {}", entry.getKey(), e.getMessage());
+                }
+            }
+            log.info("Reconciled spend of {} budgets up to id {}, corrected {}", budgets.size(), reconcileCursor,
+                    corrected);
+        } catch (Exception e) {
+            log.error("Error during budget spend reconciliation", e);
+        }
+    }
+
+    /**
+     * Copy legacy serialized expense ids of budgets created before budget_expense_link into it,
+     * one batch per transaction, until none are left. Budgets written to meanwhile migrate on
+     * their own, so the pass only has to catch the ones nobody touches.
+     */
+    @Scheduled(fixedDelayString = "${budget.expense-links.backfill-interval-ms:60000}", initialDelay = 30000)
+    public void backfillExpenseLinks() {
+        if (backfillComplete) {
+            return;
+        }
+        try {
+            int batches = 0;
+            Integer cursor = 0;
+            while ((cursor = budgetExpenseLinkService.backfill(cursor, backfillBatchSize)) != null) {
+                batches++;
+            }
+            backfillComplete = true;
+            log.info("Expense link backfill complete after {} batches; budget.expense-links.cutover can be enabled",
+                    batches);
+        } catch (Exception e) {
+            log.error("Error during expense link backfill", e);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.jaya.service;
+
+import com.jaya.models.Budget;
+import com.jaya.repository.BudgetExpenseLinkRepository;
+import com.jaya.repository.BudgetRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * Which expenses each budget counts, kept in {@code budget_expense_link}. Links are added with one
+ * batched INSERT IGNORE and removed with one DELETE per change, instead of rewriting a serialized
+ * id set on the budget row.
+ *
+ * <p>Budgets created before the table keep their links in the legacy {@code expense_ids} column
+ * until they are migrated: reads fall back to that column for such budgets, and the first write to
+ * a budget, or {@link #backfill}, copies it into the table. Once no budget is left to migrate,
+ * {@code budget.expense-links.cutover} stops the fallback reads altogether.
+ */
+@Slf4j
+@Service
+public class BudgetExpenseLinkService {
+
+    private static final String LINK_SQL =
+            "INSERT IGNORE INTO budget_expense_link (budget_id, expense_id, user_id) VALUES (?, ?, ?)";
+
+    @Autowired
+    private BudgetExpenseLinkRepository linkRepository;
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${budget.expense-links.cutover:false}")
+    private boolean cutover;
+
+    /** Whether the budget's links are read from the link table rather than its legacy id set. */
+    public boolean isMigrated(Budget budget) {
+        return cutover || budget.getId() == null || Boolean.TRUE.equals(budget.getExpenseLinksMigrated());
+    }
+
+    public Set<Integer> expenseIds(Budget budget) {
+        if (!isMigrated(budget)) {
+            return legacyExpenseIds(budget);
+        }
+        return new HashSet<>(linkRepository.findExpenseIdsByBudgetId(budget.getId()));
+    }
+
+    /** Linked expense ids by budget id, with one query for all the migrated budgets. */
+    public Map<Integer, Set<Integer>> expenseIds(Collection<Budget> budgets) {
+        Map<Integer, Set<Integer>> linked = new HashMap<>();
+        List<Integer> migratedIds = new ArrayList<>();
+        for (Budget budget : budgets) {
+            if (isMigrated(budget)) {
+                migratedIds.add(budget.getId());
+                linked.put(budget.getId(), new HashSet<>());
+            } else {
+                linked.put(budget.getId(), legacyExpenseIds(budget));
+            }
+        }
+        if (!migratedIds.isEmpty()) {
+            for (Object[] link : linkRepository.findLinksByBudgetIdIn(migratedIds)) {
+                linked.get((Integer) link[0]).add((Integer) link[1]);
+            }
+        }
+        return linked;
+    }
+
+    public int countExpenses(Budget budget) {
+        return isMigrated(budget) ? (int) linkRepository.countByBudgetId(budget.getId())
+                : legacyExpenseIds(budget).size();
+    }
+
+    /** Fills in {@link Budget#getExpenseIds()} of a budget about to be returned to a caller. */
+    public Budget hydrate(Budget budget) {
+        if (budget != null) {
+            budget.setExpenseIds(expenseIds(budget));
+        }
+        return budget;
+    }
+
+    public <T extends Collection<Budget>> T hydrate(T budgets) {
+        Map<Integer, Set<Integer>> linked = expenseIds(budgets);
+        for (Budget budget : budgets) {
+            budget.setExpenseIds(linked.get(budget.getId()));
+        }
+        return budgets;
+    }
+
+    /** Ids of the user's budgets that count any of the expenses. */
+    public Set<Integer> budgetIdsContaining(Integer userId, Collection<Integer> expenseIds) {
+        Set<Integer> budgetIds = new HashSet<>(linkRepository.findBudgetIdsByExpenseIdIn(expenseIds, userId));
+        if (!cutover) {
+            for (Budget budget : budgetRepository.findUnmigratedByUserId(userId)) {
+                if (!Collections.disjoint(legacyExpenseIds(budget), expenseIds)) {
+                    budgetIds.add(budget.getId());
+                }
+            }
+        }
+        return budgetIds;
+    }
+
+    /** Adds every expense to every budget; links that already exist are left as they are. */
+    @Transactional
+    public void link(Collection<Budget> budgets, Collection<Integer> expenseIds) {
+        if (budgets.isEmpty() || expenseIds.isEmpty()) {
+            return;
+        }
+        List<Object[]> links = new ArrayList<>(budgets.size() * expenseIds.size());
+        for (Budget budget : budgets) {
+            migrate(budget);
+            for (Integer expenseId : expenseIds) {
+                links.add(new Object[] { budget.getId(), expenseId, budget.getUserId() });
+            }
+            budget.setBudgetHasExpenses(true);
+        }
+        jdbcTemplate.batchUpdate(LINK_SQL, links);
+    }
+
+    @Transactional
+    public void unlink(Collection<Budget> budgets, Collection<Integer> expenseIds) {
+        if (budgets.isEmpty() || expenseIds.isEmpty()) {
+            return;
+        }
+        List<Integer> budgetIds = new ArrayList<>(budgets.size());
+        for (Budget budget : budgets) {
+            migrate(budget);
+            budgetIds.add(budget.getId());
+        }
+        linkRepository.unlink(budgetIds, expenseIds);
+        budgetRepository.refreshHasExpenses(budgetIds);
+    }
+
+    /**
+     * Removes the expenses from every budget of the user.
+     *
+     * @return ids of the budgets that counted any of them
+     */
+    @Transactional
+    public Set<Integer> unlinkFromAllBudgets(Integer userId, Collection<Integer> expenseIds) {
+        if (expenseIds.isEmpty()) {
+            return new HashSet<>();
+        }
+        if (!cutover) {
+            budgetRepository.findUnmigratedByUserId(userId).forEach(this::migrate);
+        }
+        Set<Integer> budgetIds = new HashSet<>(linkRepository.findBudgetIdsByExpenseIdIn(expenseIds, userId));
+        if (!budgetIds.isEmpty()) {
+            linkRepository.unlinkFromAllBudgets(userId, expenseIds);
+            budgetRepository.refreshHasExpenses(budgetIds);
+        }
+        return budgetIds;
+    }
+
+    /** Makes {@code expenseIds} the budget's whole set of linked expenses. */
+    @Transactional
+    public void replace(Budget budget, Set<Integer> expenseIds) {
+        migrate(budget);
+        if (expenseIds.isEmpty()) {
+            linkRepository.deleteByBudgetIdIn(List.of(budget.getId()));
+        } else {
+            linkRepository.unlinkAllExcept(budget.getId(), expenseIds);
+            link(List.of(budget), expenseIds);
+        }
+        budget.setBudgetHasExpenses(!expenseIds.isEmpty());
+        // The budget may be detached, as when saved on behalf of another service
+        budgetRepository.refreshHasExpenses(List.of(budget.getId()));
+    }
+
+    @Transactional
+    public void budgetsDeleted(Collection<Integer> budgetIds) {
+        if (!budgetIds.isEmpty()) {
+            linkRepository.deleteByBudgetIdIn(budgetIds);
+        }
+    }
+
+    /**
+     * Copies a budget's legacy ids into the link table, once. The claim is taken before the copy,
+     * so a writer that loaded the budget before it was migrated cannot bring back links removed
+     * since.
+     */
+    @Transactional
+    public void migrate(Budget budget) {
+        if (budget.getId() == null || Boolean.TRUE.equals(budget.getExpenseLinksMigrated())) {
+            return;
+        }
+        budget.setExpenseLinksMigrated(true);
+        if (budgetRepository.claimExpenseLinksMigration(budget.getId()) == 0) {
+            return;
+        }
+        Set<Integer> legacy = legacyExpenseIds(budget);
+        if (!legacy.isEmpty()) {
+            List<Object[]> links = new ArrayList<>(legacy.size());
+            for (Integer expenseId : legacy) {
+                links.add(new Object[] { budget.getId(), expenseId, budget.getUserId() });
+            }
+            jdbcTemplate.batchUpdate(LINK_SQL, links);
+        }
+        log.debug("Migrated {} expense links of budget {}", legacy.size(), budget.getId());
+    }
+
+    /**
+     * Migrates the next batch of budgets still holding legacy links after {@code afterId}.
+     *
+     * @return id of the last budget migrated, or null when none are left
+     */
+    @Transactional
+    public Integer backfill(Integer afterId, int batchSize) {
+        List<Budget> budgets = budgetRepository.findUnmigratedBatchAfterId(afterId, PageRequest.of(0, batchSize));
+        budgets.forEach(this::migrate);
+        return budgets.isEmpty() ? null : budgets.get(budgets.size() - 1).getId();
+    }
+
+    private static Set<Integer> legacyExpenseIds(Budget budget) {
+        return budget.getLegacyExpenseIds() != null ? new HashSet<>(budget.getLegacyExpenseIds()) : new HashSet<>();
+    }
+}
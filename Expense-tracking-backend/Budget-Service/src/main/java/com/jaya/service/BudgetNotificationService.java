@@ -250,7 +250,7 @@ public class BudgetNotificationService {
     }
 
     private BigDecimal calculateSpent(Budget budget) {
-        return BigDecimal.ZERO;
+        return BigDecimal.valueOf(budget.getSpentAmount());
     }
 
     private Double calculatePercentageUsed(BigDecimal spent, BigDecimal total) {
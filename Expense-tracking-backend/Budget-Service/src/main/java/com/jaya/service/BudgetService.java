@@ -7,6 +7,7 @@ import com.jaya.dto.ExpenseDTO;
 import com.jaya.models.Budget;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -19,6 +20,9 @@ public interface BudgetService {
 
         Set<Budget> editBudgetWithExpenseId(Set<Integer> budgetIds, Integer expenseId, Integer userId) throws Exception;
 
+        Set<Budget> editBudgetWithExpenseIds(Set<Integer> budgetIds, Collection<Integer> expenseIds, Integer userId)
+                        throws Exception;
+
         Budget save(Budget budget);
 
         Set<Budget> getBudgetsByBudgetIds(Set<Integer> budgetIds, Integer userId) throws Exception;
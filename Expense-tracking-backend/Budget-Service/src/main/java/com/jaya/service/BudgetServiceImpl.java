@@ -7,6 +7,7 @@ import com.jaya.dto.ExpenseDTO;
 import com.jaya.dto.ExpenseBudgetLinkingEvent;
 import com.jaya.exceptions.BudgetNotFoundException;
 import com.jaya.models.Budget;
+import com.jaya.models.BudgetExpenseAmount;
 import com.jaya.common.dto.UserDTO;
 import com.jaya.repository.BudgetRepository;
 import com.jaya.util.BudgetServiceHelper;
@@ -19,7 +20,6 @@ import org.springframework.context.annotation.Lazy;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -50,6 +50,12 @@ public class BudgetServiceImpl implements BudgetService {
     @Autowired
     private BudgetNotificationService budgetNotificationService;
 
+    @Autowired
+    private BudgetSpendTracker budgetSpendTracker;
+
+    @Autowired
+    private BudgetExpenseLinkService expenseLinks;
+
     @Autowired
     private KafkaTemplate<String, Object> kafkaTemplate;
 
@@ -66,6 +72,7 @@ public class BudgetServiceImpl implements BudgetService {
         budget.setBudgetHasExpenses(!validExpenseIds.isEmpty());
 
         Budget savedBudget = budgetRepository.save(budget);
+        expenseLinks.link(List.of(savedBudget), validExpenseIds);
 
         if (!validExpenseIds.isEmpty()) {
             log.info("Publishing budget-expense link updates via Kafka for {} expenses", validExpenseIds.size());
@@ -115,38 +122,50 @@ public class BudgetServiceImpl implements BudgetService {
     @Transactional
     public Set<Budget> editBudgetWithExpenseId(Set<Integer> budgetIds, Integer expenseId, Integer userId)
             throws Exception {
+        return editBudgetWithExpenseIds(budgetIds, List.of(expenseId), userId);
+    }
+
+    @Override
+    @Transactional
+    public Set<Budget> editBudgetWithExpenseIds(Set<Integer> budgetIds, Collection<Integer> expenseIds,
+            Integer userId) throws Exception {
         Set<Budget> budgets = getBudgetsByBudgetIds(budgetIds, userId);
         Set<Budget> updatedBudgets = new HashSet<>();
 
         if (budgets.isEmpty()) {
-            log.warn("editBudgetWithExpenseId: No budgets found to update for expenseId={} userId={} incomingIds={}",
-                    expenseId, userId, budgetIds);
+            log.warn("editBudgetWithExpenseIds: No budgets found to update for {} expenses userId={} incomingIds={}",
+                    expenseIds.size(), userId, budgetIds);
             return updatedBudgets;
         }
 
-        for (Budget budget : budgets) {
-            if (budget.getExpenseIds() == null) {
-                budget.setExpenseIds(new HashSet<>());
-            }
-            budget.getExpenseIds().add(expenseId);
-
-            budget.setBudgetHasExpenses(!budget.getExpenseIds().isEmpty());
+        expenseLinks.link(budgets, expenseIds);
 
+        for (Budget budget : budgets) {
             Budget savedBudget = budgetRepository.save(budget);
             updatedBudgets.add(savedBudget);
 
+            // One threshold check per budget, however many expenses the event carried
             checkAndSendThresholdNotifications(savedBudget, userId);
 
-            log.info("Added expenseId={} to budgetId={} for userId={}", expenseId, budget.getId(), userId);
+            log.info("Added {} expenses to budgetId={} for userId={}", expenseIds.size(), budget.getId(), userId);
         }
-        log.info("Successfully updated {} budgets with expenseId={} for userId={}", updatedBudgets.size(), expenseId,
-                userId);
-        return updatedBudgets;
+        log.info("Successfully updated {} budgets with {} expenses for userId={}", updatedBudgets.size(),
+                expenseIds.size(), userId);
+        return expenseLinks.hydrate(updatedBudgets);
     }
 
     @Override
     public Budget save(Budget budget) {
-        return budgetRepository.save(budget);
+        if (budget.getId() != null) {
+            // The posted budget carries neither the legacy ids nor the migration flag, so migrate from the stored row
+            budgetRepository.findById(budget.getId()).ifPresent(expenseLinks::migrate);
+        }
+        Budget savedBudget = budgetRepository.save(budget);
+        // Callers send back a whole budget they read, so its ids are the complete set of links
+        if (budget.getExpenseIds() != null) {
+            expenseLinks.replace(savedBudget, budget.getExpenseIds());
+        }
+        return expenseLinks.hydrate(savedBudget);
     }
 
     @Override
@@ -174,9 +193,7 @@ public class BudgetServiceImpl implements BudgetService {
         existingBudget.setDescription(budget.getDescription());
         existingBudget.setName(budget.getName());
 
-        Set<Integer> oldExpenseIds = existingBudget.getExpenseIds() != null
-                ? new HashSet<>(existingBudget.getExpenseIds())
-                : new HashSet<>();
+        Set<Integer> oldExpenseIds = expenseLinks.expenseIds(existingBudget);
 
         for (Integer oldExpenseId : oldExpenseIds) {
             ExpenseDTO oldExpense = expenseService.getExpenseById(oldExpenseId, userId);
@@ -210,8 +227,7 @@ public class BudgetServiceImpl implements BudgetService {
             }
         }
 
-        existingBudget.setExpenseIds(validExpenseIds);
-        existingBudget.setBudgetHasExpenses(!validExpenseIds.isEmpty());
+        expenseLinks.replace(existingBudget, validExpenseIds);
 
         BudgetReport budgetReport = calculateBudgetReport(userId, budgetId);
         existingBudget.setRemainingAmount(budgetReport.getRemainingAmount());
@@ -222,7 +238,7 @@ public class BudgetServiceImpl implements BudgetService {
         entityManager.clear();
 
         Optional<Budget> refreshedBudget = budgetRepository.findByUserIdAndId(userId, budgetId);
-        Budget finalBudget = refreshedBudget.orElse(savedBudget);
+        Budget finalBudget = expenseLinks.hydrate(refreshedBudget.orElse(savedBudget));
 
         checkAndSendThresholdNotifications(finalBudget, userId);
 
@@ -234,6 +250,7 @@ public class BudgetServiceImpl implements BudgetService {
     public void deleteBudget(Integer budgetId, Integer userId) {
         Budget budget = getBudgetById(budgetId, userId);
         helper.deleteBudgetIdInExpenses(budget, expenseService, userId, budgetId);
+        expenseLinks.budgetsDeleted(List.of(budgetId));
         budgetRepository.delete(budget);
     }
 
@@ -246,8 +263,9 @@ public class BudgetServiceImpl implements BudgetService {
             throw new RuntimeException("No budgets found");
         }
 
-        helper.removeBudgetsIdsInAllExpensesAsync(budgets, userId);
+        helper.removeBudgetsIdsInAllExpensesAsync(expenseLinks.hydrate(budgets), userId);
 
+        expenseLinks.budgetsDeleted(budgets.stream().map(Budget::getId).toList());
         budgetRepository.deleteAll(budgets);
 
         log.info("Deleted {} budgets for userId={}. Async events published for expense updates.",
@@ -268,7 +286,8 @@ public class BudgetServiceImpl implements BudgetService {
 
     @Override
     public List<Budget> getBudgetsForUser(Integer userId) {
-        return budgetRepository.findByUserIdAndStartDateBeforeAndEndDateAfter(userId, LocalDate.now(), LocalDate.now());
+        return expenseLinks.hydrate(
+                budgetRepository.findByUserIdAndStartDateBeforeAndEndDateAfter(userId, LocalDate.now(), LocalDate.now()));
     }
 
     @Override
@@ -277,7 +296,7 @@ public class BudgetServiceImpl implements BudgetService {
         if (expense.isEmpty()) {
             throw new BudgetNotFoundException("budget not Found" + budgetId);
         }
-        return expense.get();
+        return expenseLinks.hydrate(expense.get());
     }
 
     @Override
@@ -312,8 +331,8 @@ public class BudgetServiceImpl implements BudgetService {
         Budget budget = budgetRepository.findByUserIdAndId(userId, budgetId)
                 .orElseThrow(() -> new RuntimeException("Budget not found"));
 
-        Set<Integer> expenseIds = budget.getExpenseIds();
-        if (expenseIds == null || expenseIds.isEmpty()) {
+        Set<Integer> expenseIds = expenseLinks.expenseIds(budget);
+        if (expenseIds.isEmpty()) {
             return Collections.emptyList();
         }
 
@@ -338,28 +357,23 @@ public class BudgetServiceImpl implements BudgetService {
             throw new Exception("You do not have access to this budget.");
         }
 
-        List<ExpenseDTO> expenses = expenseService.findByUserIdAndDateBetweenAndIncludeInBudgetTrue(
-                budget.getStartDate(),
-                budget.getEndDate(),
-                userId);
+        List<BudgetExpenseAmount> expenses = budgetSpendTracker.getCountedExpenses(budget);
 
         double totalCashLosses = expenses.stream()
-                .filter(expense -> "cash".equalsIgnoreCase(expense.getExpense().getPaymentMethod()) &&
-                        "loss".equalsIgnoreCase(expense.getExpense().getType()))
-                .mapToDouble(expense -> expense.getExpense().getAmountAsDouble())
+                .filter(expense -> "cash".equalsIgnoreCase(expense.getPaymentMethod()))
+                .mapToDouble(BudgetExpenseAmount::getAmount)
                 .sum();
 
         double totalCreditLosses = expenses.stream()
-                .filter(expense -> "creditNeedToPaid".equalsIgnoreCase(expense.getExpense().getPaymentMethod()) &&
-                        "loss".equalsIgnoreCase(expense.getExpense().getType()))
-                .mapToDouble(expense -> expense.getExpense().getAmountAsDouble())
+                .filter(expense -> "creditNeedToPaid".equalsIgnoreCase(expense.getPaymentMethod()))
+                .mapToDouble(BudgetExpenseAmount::getAmount)
                 .sum();
 
         double totalExpenses = totalCashLosses + totalCreditLosses;
         double remainingAmount = budget.getAmount() - totalExpenses;
         boolean isBudgetValid = isBudgetValid(budgetId);
 
-        int expenseCount = expenses.size();
+        int expenseCount = expenseLinks.countExpenses(budget);
         long totalDays = java.time.temporal.ChronoUnit.DAYS.between(budget.getStartDate(), budget.getEndDate()) + 1;
         double dailyBudget = totalDays > 0 ? budget.getAmount() / totalDays : 0;
 
@@ -392,52 +406,10 @@ public class BudgetServiceImpl implements BudgetService {
     @Override
     public List<Budget> getAllBudgetForUser(Integer userId) {
         List<Budget> budgets = budgetRepository.findByUserId(userId);
-
-        if (budgets.isEmpty()) {
-            return budgets;
-        }
-
-        Set<Integer> allExpenseIds = new HashSet<>();
-        for (Budget b : budgets) {
-            if (b.getExpenseIds() != null && !b.getExpenseIds().isEmpty()) {
-                allExpenseIds.addAll(b.getExpenseIds());
-            }
-        }
-
-        Map<Integer, ExpenseDTO> expenseMap = Collections.emptyMap();
-        if (!allExpenseIds.isEmpty()) {
-            try {
-                List<ExpenseDTO> expenseDTOs = expenseService.getExpensesByIds(userId, allExpenseIds);
-                expenseMap = expenseDTOs.stream()
-                        .filter(Objects::nonNull)
-                        .collect(Collectors.toMap(ExpenseDTO::getId, e -> e));
-            } catch (Exception e) {
-                System.err.println("Batch expense fetch failed: " + e.getMessage());
-                expenseMap = Collections.emptyMap();
-            }
-        }
-
         for (Budget budget : budgets) {
-            double total = 0.0;
-            Set<Integer> expenseIds = budget.getExpenseIds();
-            if (expenseIds != null && !expenseIds.isEmpty()) {
-                for (Integer expId : expenseIds) {
-                    ExpenseDTO dto = expenseMap.get(expId);
-                    if (dto != null && dto.getExpense() != null) {
-                        String type = dto.getExpense().getType();
-                        String paymentMethod = dto.getExpense().getPaymentMethod();
-                        if ("loss".equalsIgnoreCase(type) &&
-                                ("cash".equalsIgnoreCase(paymentMethod) ||
-                                        "creditNeedToPaid".equalsIgnoreCase(paymentMethod))) {
-                            total += dto.getExpense().getAmountAsDouble();
-                        }
-                    }
-                }
-            }
-            budget.setRemainingAmount(budget.getAmount() - total);
+            budget.setRemainingAmount(budget.getAmount() - budget.getSpentAmount());
         }
-
-        return budgets;
+        return expenseLinks.hydrate(budgets);
     }
 
     @Override
@@ -453,184 +425,34 @@ public class BudgetServiceImpl implements BudgetService {
 
     @Override
     public List<Budget> getBudgetsForDate(Integer userId, LocalDate date) {
-        return budgetRepository.findByUserIdAndStartDateLessThanEqualAndEndDateGreaterThanEqual(userId, date, date);
+        return expenseLinks.hydrate(
+                budgetRepository.findByUserIdAndStartDateLessThanEqualAndEndDateGreaterThanEqual(userId, date, date));
     }
 
     @Override
     public List<Budget> getBudgetsByDate(LocalDate date, Integer userId) {
         List<Budget> budgets = budgetRepository.findBudgetsByDate(date, userId);
-
-        if (budgets.isEmpty()) {
-            return budgets;
-        }
-
-        Set<Integer> allExpenseIds = new HashSet<>();
-        for (Budget budget : budgets) {
-            if (budget.getExpenseIds() != null) {
-                allExpenseIds.addAll(budget.getExpenseIds());
-            }
-        }
-
-        Map<Integer, ExpenseDTO> expenseMap = new HashMap<>();
-        if (!allExpenseIds.isEmpty()) {
-            try {
-                List<ExpenseDTO> expenses = expenseService.getExpensesByIds(userId, allExpenseIds);
-                if (expenses != null) {
-                    for (ExpenseDTO expense : expenses) {
-                        expenseMap.put(expense.getId(), expense);
-                    }
-                }
-            } catch (Exception e) {
-                log.error("Error batch fetching expenses for budgets", e);
-            }
-        }
-
         for (Budget budget : budgets) {
-            try {
-                BigDecimal spent = calculateTotalExpenseAmount(budget, expenseMap);
-                double remainingAmount = budget.getAmount() - spent.doubleValue();
-                budget.setRemainingAmount(remainingAmount);
-            } catch (Exception e) {
-                System.err.println(
-                        "Error calculating remaining amount for budget " + budget.getId() + ": " + e.getMessage());
-            }
+            budget.setRemainingAmount(budget.getAmount() - budget.getSpentAmount());
         }
-
-        return budgets;
+        return expenseLinks.hydrate(budgets);
     }
 
     @Override
     public List<Budget> getBudgetsByExpenseId(Integer expenseId, Integer userId, LocalDate expenseDate) {
-        ExpenseDTO expense = expenseService.getExpenseById(expenseId, userId);
-
         List<Budget> budgets = budgetRepository.findBudgetsByDate(expenseDate, userId);
-
-        Set<Integer> linkedBudgetIds = expense.getBudgetIds() != null ? expense.getBudgetIds() : new HashSet<>();
-
-        Set<Integer> allExpenseIds = new HashSet<>();
+        Set<Integer> containing = expenseLinks.budgetIdsContaining(userId, List.of(expenseId));
         for (Budget budget : budgets) {
-            if (budget.getExpenseIds() != null) {
-                allExpenseIds.addAll(budget.getExpenseIds());
-            }
-        }
-
-        Map<Integer, ExpenseDTO> expenseMap = new HashMap<>();
-        if (!allExpenseIds.isEmpty()) {
-            try {
-                List<ExpenseDTO> expenses = expenseService.getExpensesByIds(userId, allExpenseIds);
-                if (expenses != null) {
-                    for (ExpenseDTO exp : expenses) {
-                        expenseMap.put(exp.getId(), exp);
-                    }
-                }
-            } catch (Exception e) {
-                log.error("Error batch fetching expenses for budgets", e);
-            }
-        }
-
-        for (Budget budget : budgets) {
-            budget.setIncludeInBudget(linkedBudgetIds.contains(budget.getId()));
-
-            try {
-                BigDecimal spent = calculateTotalExpenseAmount(budget, expenseMap);
-                double remainingAmount = budget.getAmount() - spent.doubleValue();
-                budget.setRemainingAmount(remainingAmount);
-            } catch (Exception e) {
-                System.err.println(
-                        "Error calculating remaining amount for budget " + budget.getId() + ": " + e.getMessage());
-            }
-        }
-
-        return budgets;
-    }
-
-    private BigDecimal calculateTotalExpenseAmount(Budget budget, Map<Integer, ExpenseDTO> expenseMap) {
-        if (budget.getExpenseIds() == null || budget.getExpenseIds().isEmpty()) {
-            return BigDecimal.ZERO;
-        }
-
-        double total = 0.0;
-        for (Integer expenseId : budget.getExpenseIds()) {
-            ExpenseDTO expense = expenseMap.get(expenseId);
-            if (expense != null && expense.getExpense() != null) {
-                String type = expense.getExpense().getType();
-                String paymentMethod = expense.getExpense().getPaymentMethod();
-
-                if ("loss".equalsIgnoreCase(type) &&
-                        ("cash".equalsIgnoreCase(paymentMethod)
-                                || "creditNeedToPaid".equalsIgnoreCase(paymentMethod))) {
-                    total += expense.getExpense().getAmountAsDouble();
-                }
-            }
+            budget.setIncludeInBudget(containing.contains(budget.getId()));
+            budget.setRemainingAmount(budget.getAmount() - budget.getSpentAmount());
         }
-
-        return BigDecimal.valueOf(total);
-    }
-
-    private BigDecimal calculateTotalExpenseAmount(Budget budget, Integer userId) {
-        if (budget.getExpenseIds() == null || budget.getExpenseIds().isEmpty()) {
-            return BigDecimal.ZERO;
-        }
-
-        double total = 0.0;
-        for (Integer expenseId : budget.getExpenseIds()) {
-            try {
-                ExpenseDTO expense = expenseService.getExpenseById(expenseId, userId);
-                if (expense != null && expense.getExpense() != null) {
-                    String type = expense.getExpense().getType();
-                    String paymentMethod = expense.getExpense().getPaymentMethod();
-
-                    if ("loss".equalsIgnoreCase(type) &&
-                            ("cash".equalsIgnoreCase(paymentMethod)
-                                    || "creditNeedToPaid".equalsIgnoreCase(paymentMethod))) {
-                        total += expense.getExpense().getAmountAsDouble();
-                    }
-                }
-            } catch (Exception e) {
-                System.err.println("Error fetching expense " + expenseId + ": " + e.getMessage());
-            }
-        }
-
-        return BigDecimal.valueOf(total);
+        return expenseLinks.hydrate(budgets);
     }
 
+    // Spend is recomputed from locally stored expense amounts; alerts fire once per threshold crossing
     private void checkAndSendThresholdNotifications(Budget budget, Integer userId) {
         try {
-            BigDecimal spent = calculateTotalExpenseAmount(budget, userId);
-
-            if (budget.getAmount() <= 0) {
-                return;
-            }
-
-            double percentage = (spent.doubleValue() / budget.getAmount()) * 100.0;
-            boolean budgetUpdated = false;
-
-            budget.resetNotificationFlags(percentage);
-
-            if (percentage >= 100.0 && !budget.isNotification100PercentSent()) {
-                budgetNotificationService.sendBudgetExceededNotification(budget, spent);
-                budget.setNotification100PercentSent(true);
-                budgetUpdated = true;
-                log.info("Budget exceeded notification sent for budgetId={}, userId={}, percentage={}%",
-                        budget.getId(), userId, String.format("%.2f", percentage));
-            } else if (percentage >= 80.0 && percentage < 100.0 && !budget.isNotification80PercentSent()) {
-                budgetNotificationService.sendBudgetWarningNotification(budget, spent);
-                budget.setNotification80PercentSent(true);
-                budgetUpdated = true;
-                log.info("Budget 80% warning notification sent for budgetId={}, userId={}, percentage={}%",
-                        budget.getId(), userId, String.format("%.2f", percentage));
-            } else if (percentage >= 50.0 && percentage < 80.0 && !budget.isNotification50PercentSent()) {
-                budgetNotificationService.sendBudgetLimitApproachingNotification(budget, spent);
-                budget.setNotification50PercentSent(true);
-                budgetUpdated = true;
-                log.info("Budget 50% approaching notification sent for budgetId={}, userId={}, percentage={}%",
-                        budget.getId(), userId, String.format("%.2f", percentage));
-            }
-
-            if (budgetUpdated) {
-                budgetRepository.save(budget);
-            }
-
+            budgetSpendTracker.recalculate(budget);
         } catch (Exception e) {
             log.error("Error checking budget thresholds for budget {}: {}", budget.getId(), e.getMessage());
         }
@@ -1292,6 +1114,7 @@ public class BudgetServiceImpl implements BudgetService {
         }
 
         List<Budget> allBudgets = budgetRepository.findByUserId(userId);
+        Map<Integer, Set<Integer>> linkedExpenseIds = expenseLinks.expenseIds(allBudgets);
         List<Map<String, Object>> budgetData = new ArrayList<>();
 
         double grandTotalSpent = 0.0;
@@ -1320,7 +1143,7 @@ public class BudgetServiceImpl implements BudgetService {
 
             System.out.println("expenses count" + windowExpenses.size());
 
-            Set<Integer> expenseIds = budget.getExpenseIds() != null ? budget.getExpenseIds() : Collections.emptySet();
+            Set<Integer> expenseIds = linkedExpenseIds.get(budget.getId());
             List<ExpenseDTO> budgetExpenses = new ArrayList<>();
             for (ExpenseDTO e : windowExpenses) {
                 if (expenseIds.contains(e.getId()) && e.getExpense() != null) {
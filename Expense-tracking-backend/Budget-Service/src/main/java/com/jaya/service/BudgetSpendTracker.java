@@ -0,0 +1,263 @@
+package com.jaya.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jaya.dto.ExpenseDTO;
+import com.jaya.events.ExpenseSpendEvent;
+import com.jaya.models.Budget;
+import com.jaya.models.BudgetExpenseAmount;
+import com.jaya.repository.BudgetExpenseAmountRepository;
+import com.jaya.repository.BudgetRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps {@link Budget#getSpentAmount()} current without asking Expense-Service. Every expense
+ * event is applied as the difference between its new counted amount and the one stored in
+ * {@link BudgetExpenseAmount}, added to the linked budgets with a single UPDATE. Link changes
+ * recompute the affected budget from the local amounts joined to its links in
+ * {@code budget_expense_link}, and {@link #reconcileUser} periodically
+ * re-reads the expenses to correct any drift from missed or reordered events.
+ */
+@Slf4j
+@Service
+public class BudgetSpendTracker {
+
+    private static final double EPSILON = 0.005;
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    @Autowired
+    private BudgetExpenseAmountRepository amountRepository;
+
+    @Autowired
+    private BudgetExpenseLinkService expenseLinks;
+
+    @Autowired
+    private BudgetNotificationService budgetNotificationService;
+
+    @Autowired
+    @Lazy
+    private ExpenseClient expenseService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Transactional
+    public void applyExpenseEvent(ExpenseSpendEvent event) {
+        if (event.getExpenseId() == null || event.getUserId() == null || event.getAction() == null) {
+            return;
+        }
+
+        BudgetExpenseAmount entry = amountRepository.findById(event.getExpenseId()).orElse(null);
+        double before = entry != null ? entry.countedAmount() : 0.0;
+        double after;
+
+        switch (event.getAction()) {
+            case ExpenseSpendEvent.CREATE, ExpenseSpendEvent.UPDATE -> {
+                if (entry == null) {
+                    entry = new BudgetExpenseAmount();
+                    entry.setExpenseId(event.getExpenseId());
+                    entry.setUserId(event.getUserId());
+                }
+                entry.apply(event.getAmount() != null ? event.getAmount() : 0.0,
+                        typeOf(event), event.getPaymentMethod());
+                amountRepository.save(entry);
+                after = entry.countedAmount();
+            }
+            case ExpenseSpendEvent.DELETE -> {
+                if (entry != null) {
+                    amountRepository.delete(entry);
+                }
+                after = 0.0;
+            }
+            default -> {
+                return;
+            }
+        }
+
+        double delta = after - before;
+        if (Math.abs(delta) < EPSILON) {
+            return;
+        }
+
+        Set<Integer> linkedIds = expenseLinks.budgetIdsContaining(event.getUserId(), List.of(event.getExpenseId()));
+        if (linkedIds.isEmpty()) {
+            return;
+        }
+
+        List<Budget> linked = budgetRepository.findAllById(linkedIds);
+        budgetRepository.addSpentAmount(linkedIds, delta);
+        linked.forEach(this::evaluateThresholds);
+        log.debug("Applied spend delta {} of expense {} to {} budgets", delta, event.getExpenseId(), linked.size());
+    }
+
+    /** Applies the items of a bulk expense event in one transaction, so a retry replays all of them. */
+    @Transactional
+    public void applyExpenseEvents(List<ExpenseSpendEvent> events) {
+        for (ExpenseSpendEvent event : events) {
+            applyExpenseEvent(event);
+        }
+    }
+
+    /** Recomputes one budget's spend from the stored expense amounts, then checks its thresholds. */
+    @Transactional
+    public void recalculate(Budget budget) {
+        double spent;
+        if (expenseLinks.isMigrated(budget)) {
+            spent = amountRepository.sumCountedAmountByBudgetId(budget.getId());
+        } else {
+            Set<Integer> expenseIds = expenseLinks.expenseIds(budget);
+            spent = expenseIds.isEmpty() ? 0.0 : amountRepository.sumCountedAmount(expenseIds);
+        }
+        budgetRepository.setSpentAmount(budget.getId(), spent);
+        evaluateThresholds(budget);
+    }
+
+    /** Counted expense amounts linked to the budget, read from the local store. */
+    public List<BudgetExpenseAmount> getCountedExpenses(Budget budget) {
+        if (expenseLinks.isMigrated(budget)) {
+            return amountRepository.findCountedByBudgetId(budget.getId());
+        }
+        Set<Integer> expenseIds = expenseLinks.expenseIds(budget);
+        return expenseIds.isEmpty() ? Collections.emptyList() : amountRepository.findCountedByExpenseIdIn(expenseIds);
+    }
+
+    /**
+     * Refreshes the stored amounts of every expense linked to {@code budgets} (all owned by
+     * {@code userId}) from Expense-Service and corrects budgets whose running total has drifted.
+     * A correction only applies if the total has not moved since it was read, so a concurrent
+     * event is never overwritten; such a budget is picked up again on the next pass.
+     *
+     * @return the number of budgets corrected
+     */
+    @Transactional
+    public int reconcileUser(Integer userId, List<Budget> budgets) {
+        Map<Integer, Set<Integer>> linked = expenseLinks.expenseIds(budgets);
+        Set<Integer> expenseIds = new HashSet<>();
+        linked.values().forEach(expenseIds::addAll);
+
+        Map<Integer, Double> counted = new HashMap<>();
+        if (!expenseIds.isEmpty()) {
+            List<ExpenseDTO> expenses = expenseService.getExpensesByIds(userId, expenseIds);
+            Map<Integer, BudgetExpenseAmount> stored = amountRepository.findAllById(expenseIds).stream()
+                    .collect(Collectors.toMap(BudgetExpenseAmount::getExpenseId, Function.identity()));
+
+            List<BudgetExpenseAmount> changed = new ArrayList<>();
+            for (ExpenseDTO expense : expenses) {
+                if (expense == null || expense.getId() == null || expense.getExpense() == null) {
+                    continue;
+                }
+                BudgetExpenseAmount entry = stored.remove(expense.getId());
+                if (entry == null) {
+                    entry = new BudgetExpenseAmount();
+                    entry.setExpenseId(expense.getId());
+                    entry.setUserId(userId);
+                }
+                entry.apply(expense.getExpense().getAmountAsDouble(), expense.getExpense().getType(),
+                        expense.getExpense().getPaymentMethod());
+                changed.add(entry);
+                counted.put(entry.getExpenseId(), entry.countedAmount());
+            }
+            amountRepository.saveAll(changed);
+            // Whatever is left was not returned, i.e. the expense no longer exists
+            amountRepository.deleteAll(stored.values());
+        }
+
+        int corrected = 0;
+        for (Budget budget : budgets) {
+            double expected = linked.get(budget.getId()).stream()
+                    .mapToDouble(id -> counted.getOrDefault(id, 0.0)).sum();
+            if (Math.abs(expected - budget.getSpentAmount()) < EPSILON) {
+                continue;
+            }
+            if (budgetRepository.correctSpentAmount(budget.getId(), budget.getSpentAmount(), expected) > 0) {
+                corrected++;
+                log.info("Corrected spend of budget {} from {} to {}", budget.getId(), budget.getSpentAmount(), expected);
+                evaluateThresholds(budget);
+            }
+        }
+        return corrected;
+    }
+
+    /**
+     * Clears the flags of thresholds the budget is back under, then claims the highest one it is
+     * over. The claim is a conditional UPDATE, so when several events race past a threshold only
+     * the one whose update matched sends the alert. Claims also set the lower flags, so only an
+     * upward crossing alerts. The alert is sent once the claim has committed: a rolled-back and
+     * retried event claims again instead of alerting twice.
+     */
+    private void evaluateThresholds(Budget budget) {
+        try {
+            budgetRepository.resetThresholdFlags(budget.getId());
+
+            if (budgetRepository.claimExceededAlert(budget.getId()) > 0) {
+                BigDecimal spent = currentSpent(budget);
+                afterCommit(() -> {
+                    budgetNotificationService.sendBudgetExceededNotification(budget, spent);
+                    log.info("Budget exceeded notification sent for budgetId={}, userId={}, spent={}",
+                            budget.getId(), budget.getUserId(), spent);
+                });
+            } else if (budgetRepository.claimWarningAlert(budget.getId()) > 0) {
+                BigDecimal spent = currentSpent(budget);
+                afterCommit(() -> {
+                    budgetNotificationService.sendBudgetWarningNotification(budget, spent);
+                    log.info("Budget 80% warning notification sent for budgetId={}, userId={}, spent={}",
+                            budget.getId(), budget.getUserId(), spent);
+                });
+            } else if (budgetRepository.claimApproachingAlert(budget.getId()) > 0) {
+                BigDecimal spent = currentSpent(budget);
+                afterCommit(() -> {
+                    budgetNotificationService.sendBudgetLimitApproachingNotification(budget, spent);
+                    log.info("Budget 50% approaching notification sent for budgetId={}, userId={}, spent={}",
+                            budget.getId(), budget.getUserId(), spent);
+                });
+            }
+        } catch (Exception e) {
+            log.error("Error checking budget thresholds for budget {}: {}", budget.getId(), e.getMessage());
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    action.run();
+                } catch (Exception e) {
+                    log.error("Error sending budget threshold alert: {}", e.getMessage());
+                }
+            }
+        });
+    }
+
+    private BigDecimal currentSpent(Budget budget) {
+        return BigDecimal.valueOf(budgetRepository.findSpentAmount(budget.getId()).orElse(budget.getSpentAmount()));
+    }
+
+    private String typeOf(ExpenseSpendEvent event) {
+        if (event.getMetadata() == null || event.getMetadata().isBlank()) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(event.getMetadata()).path("type").asText(null);
+        } catch (Exception e) {
+            log.warn("Unreadable metadata on expense event {}: {}", event.getExpenseId(), e.getMessage());
+            return null;
+        }
+    }
+}
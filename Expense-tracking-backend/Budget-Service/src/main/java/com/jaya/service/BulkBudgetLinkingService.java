@@ -28,6 +28,12 @@ public class BulkBudgetLinkingService {
     @Autowired
     private KafkaTemplate<String, Object> kafkaTemplate;
 
+    @Autowired
+    private BudgetSpendTracker budgetSpendTracker;
+
+    @Autowired
+    private BudgetExpenseLinkService expenseLinks;
+
     private static final String EXPENSE_BUDGET_LINKING_TOPIC = "expense-budget-linking-events";
 
     private Map<Long, Long> budgetIdMappings = new HashMap<>();
@@ -140,10 +146,10 @@ public class BulkBudgetLinkingService {
                 .map(Long::intValue)
                 .collect(Collectors.toSet());
 
-        budget.getExpenseIds().addAll(newExpenseIdsSet);
-        budget.setBudgetHasExpenses(!budget.getExpenseIds().isEmpty());
+        expenseLinks.link(List.of(budget), newExpenseIdsSet);
 
         budgetRepository.save(budget);
+        budgetSpendTracker.recalculate(budget);
 
         log.info("Updated budget {} with {} new expense IDs", newBudgetId, newExpenseIdsSet.size());
 
@@ -168,9 +174,9 @@ public class BulkBudgetLinkingService {
                 try {
                     Budget budget = budgetRepository.findById(newBudgetId.intValue()).orElse(null);
                     if (budget != null && budget.getUserId().equals(userId)) {
-                        budget.getExpenseIds().add(newExpenseId.intValue());
-                        budget.setBudgetHasExpenses(true);
+                        expenseLinks.link(List.of(budget), List.of(newExpenseId.intValue()));
                         budgetRepository.save(budget);
+                        budgetSpendTracker.recalculate(budget);
 
                         publishExpenseBudgetLinkUpdate(newExpenseId, newBudgetId, userId);
 
@@ -250,11 +256,11 @@ public class BulkBudgetLinkingService {
                     continue;
                 }
 
-                Set<Integer> expenseIds = budget.getExpenseIds();
-                if (expenseIds.remove(oldExpenseId.intValue())) {
-                    expenseIds.add(newExpenseId.intValue());
-                    budget.setBudgetHasExpenses(!expenseIds.isEmpty());
+                if (expenseLinks.expenseIds(budget).contains(oldExpenseId.intValue())) {
+                    expenseLinks.unlink(List.of(budget), List.of(oldExpenseId.intValue()));
+                    expenseLinks.link(List.of(budget), List.of(newExpenseId.intValue()));
                     budgetRepository.save(budget);
+                    budgetSpendTracker.recalculate(budget);
 
                     log.info("Replaced expense ID {} with {} in budget {}",
                             oldExpenseId, newExpenseId, oldBudgetId);
@@ -302,13 +308,10 @@ public class BulkBudgetLinkingService {
                 return;
             }
 
-            Set<Integer> expenseIds = budget.getExpenseIds();
-            for (Long expenseId : newExpenseIds) {
-                expenseIds.add(expenseId.intValue());
-            }
-
-            budget.setBudgetHasExpenses(!expenseIds.isEmpty());
+            expenseLinks.link(List.of(budget),
+                    newExpenseIds.stream().map(Long::intValue).collect(Collectors.toSet()));
             budgetRepository.save(budget);
+            budgetSpendTracker.recalculate(budget);
 
             log.info("Added {} expenses to existing budget {}", newExpenseIds.size(), budgetId);
 
@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
 import java.util.Set;
 
 @Data
@@ -14,4 +15,13 @@ public class BudgetExpenseEvent {
     private Integer expenseId;
     private Set<Integer> budgetIds;
     private String action;
+
+    private List<Integer> expenseIds;
+
+    public BudgetExpenseEvent(Integer userId, Integer expenseId, Set<Integer> budgetIds, String action) {
+        this.userId = userId;
+        this.expenseId = expenseId;
+        this.budgetIds = budgetIds;
+        this.action = action;
+    }
 }
@@ -2,6 +2,7 @@ package com.jaya.events;
 
 import java.io.Serializable;
 import java.time.LocalDateTime;
+import java.util.List;
 
 public class CategoryExpenseEvent implements Serializable {
     private Integer userId;
@@ -10,6 +11,7 @@ public class CategoryExpenseEvent implements Serializable {
     private String categoryName;
     private String action;
     private LocalDateTime timestamp;
+    private List<Integer> expenseIds;
 
     public CategoryExpenseEvent() {
         this.timestamp = LocalDateTime.now();
@@ -38,6 +40,9 @@ public class CategoryExpenseEvent implements Serializable {
     public String getAction() { return action; }
     public void setAction(String action) { this.action = action; }
 
+    public List<Integer> getExpenseIds() { return expenseIds; }
+    public void setExpenseIds(List<Integer> expenseIds) { this.expenseIds = expenseIds; }
+
     public LocalDateTime getTimestamp() { return timestamp; }
     public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
 
@@ -46,6 +51,7 @@ public class CategoryExpenseEvent implements Serializable {
         return "CategoryExpenseEvent{" +
                 "userId=" + userId +
                 ", expenseId=" + expenseId +
+                ", expenseIds=" + (expenseIds != null ? expenseIds.size() + " ids" : null) +
                 ", categoryId=" + categoryId +
                 ", categoryName='" + categoryName + '\'' +
                 ", action='" + action + '\'' +
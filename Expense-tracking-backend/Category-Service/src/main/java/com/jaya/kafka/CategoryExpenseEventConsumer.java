@@ -56,6 +56,7 @@ public class CategoryExpenseEventConsumer {
                     action = "ADD";
                 }
                 CategoryExpenseEvent normalized = new CategoryExpenseEvent(event.getUserId(), event.getExpenseId(), event.getCategoryId(), event.getCategoryName(), action);
+                normalized.setExpenseIds(event.getExpenseIds());
                 parsed.add(normalized);
                 impactedCategoryIds.add(categoryId);
             } catch (Exception e) {
@@ -88,12 +89,7 @@ public class CategoryExpenseEventConsumer {
             if (cat == null) continue;
             if (cat.getExpenseIds() == null) cat.setExpenseIds(new java.util.HashMap<>());
             java.util.Set<Integer> set = cat.getExpenseIds().getOrDefault(e.getUserId(), new java.util.HashSet<>());
-            String action = e.getAction();
-            if ("REMOVE".equals(action)) {
-                set.remove(e.getExpenseId());
-            } else {
-                set.add(e.getExpenseId());
-            }
+            applyExpenseIds(set, e);
             if (set.isEmpty()) cat.getExpenseIds().remove(e.getUserId());
             else cat.getExpenseIds().put(e.getUserId(), set);
         }
@@ -117,13 +113,23 @@ public class CategoryExpenseEventConsumer {
                     if (cat == null) continue;
                     if (cat.getExpenseIds() == null) cat.setExpenseIds(new java.util.HashMap<>());
                     java.util.Set<Integer> set = cat.getExpenseIds().getOrDefault(e.getUserId(), new java.util.HashSet<>());
-                    String action = e.getAction();
-                    if ("REMOVE".equals(action)) set.remove(e.getExpenseId());
-                    else set.add(e.getExpenseId());
+                    applyExpenseIds(set, e);
                     if (set.isEmpty()) cat.getExpenseIds().remove(e.getUserId());
                     else cat.getExpenseIds().put(e.getUserId(), set);
                 }
             }
         }
     }
+
+    // Bulk events from import/delete carry an id list in place of a single expenseId
+    private void applyExpenseIds(java.util.Set<Integer> set, CategoryExpenseEvent e) {
+        java.util.Collection<Integer> ids = e.getExpenseIds() != null && !e.getExpenseIds().isEmpty()
+                ? e.getExpenseIds()
+                : java.util.Collections.singletonList(e.getExpenseId());
+        if ("REMOVE".equals(e.getAction())) {
+            set.removeAll(ids);
+        } else {
+            set.addAll(ids);
+        }
+    }
 }
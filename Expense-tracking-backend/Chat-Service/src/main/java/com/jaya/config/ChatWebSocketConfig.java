@@ -1,5 +1,7 @@
 package com.jaya.config;
 
+import com.jaya.service.ChatAuthorizationCache;
+import com.jaya.service.ChatAuthorizationContext;
 import com.jaya.service.PresenceService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
@@ -30,6 +32,10 @@ public class ChatWebSocketConfig implements WebSocketMessageBrokerConfigurer {
     @Lazy
     private PresenceService presenceService;
 
+    @Autowired
+    @Lazy
+    private ChatAuthorizationCache authorizationCache;
+
     private final Map<String, Integer> sessionUserMap = new ConcurrentHashMap<>();
 
     @Override
@@ -45,7 +51,7 @@ public class ChatWebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setAllowedOriginPatterns("http://localhost:*", "https://localhost:*", "http://127.0.0.1:*",
                         "https://127.0.0.1:*", "https://jayaprakash.netlify.app")
                 .setHandshakeHandler(new CustomHandshakeHandler())
-                .addInterceptors(new UserIdHandshakeInterceptor())
+                .addInterceptors(new UserIdHandshakeInterceptor(authorizationCache))
                 .withSockJS();
     }
 
@@ -76,6 +82,8 @@ public class ChatWebSocketConfig implements WebSocketMessageBrokerConfigurer {
         if (sessionAttributes != null && sessionAttributes.containsKey("userId")) {
             Integer userId = (Integer) sessionAttributes.get("userId");
             sessionUserMap.put(sessionId, userId);
+            authorizationCache.attach(sessionId, userId,
+                    (ChatAuthorizationContext) sessionAttributes.get(ChatAuthorizationContext.SESSION_ATTRIBUTE));
             presenceService.setUserOnline(userId, sessionId);
         }
     }
@@ -86,6 +94,7 @@ public class ChatWebSocketConfig implements WebSocketMessageBrokerConfigurer {
         String sessionId = accessor.getSessionId();
 
         Integer userId = sessionUserMap.remove(sessionId);
+        authorizationCache.detach(sessionId);
         if (userId != null) {
             presenceService.setUserOffline(userId, sessionId);
         }
@@ -104,6 +113,7 @@ public class ChatWebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     public void registerUserSession(String sessionId, Integer userId) {
         sessionUserMap.put(sessionId, userId);
+        authorizationCache.attach(sessionId, userId, null);
         presenceService.setUserOnline(userId, sessionId);
     }
 
@@ -1,5 +1,7 @@
 package com.jaya.config;
 
+import com.jaya.service.ChatAuthorizationCache;
+import com.jaya.service.ChatAuthorizationContext;
 import org.springframework.http.server.ServerHttpRequest;
 import org.springframework.http.server.ServerHttpResponse;
 import org.springframework.http.server.ServletServerHttpRequest;
@@ -10,9 +12,16 @@ import java.util.Map;
 
 /**
  * Intercepts WebSocket handshake to extract userId from headers and store in session attributes.
+ * Also loads the user's chat authorization context so the session carries it from connect.
  */
 public class UserIdHandshakeInterceptor implements HandshakeInterceptor {
 
+    private final ChatAuthorizationCache authorizationCache;
+
+    public UserIdHandshakeInterceptor(ChatAuthorizationCache authorizationCache) {
+        this.authorizationCache = authorizationCache;
+    }
+
     @Override
     public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
                                    WebSocketHandler wsHandler, Map<String, Object> attributes) throws Exception {
@@ -25,6 +34,7 @@ public class UserIdHandshakeInterceptor implements HandshakeInterceptor {
                     try {
                         Integer userId = Integer.parseInt(parts[1]);
                         attributes.put("userId", userId);
+                        attachAuthorizationContext(userId, attributes);
                         return true;
                     } catch (NumberFormatException ignored) {}
                 }
@@ -39,6 +49,7 @@ public class UserIdHandshakeInterceptor implements HandshakeInterceptor {
                 try {
                     Integer userId = Integer.parseInt(userIdHeader);
                     attributes.put("userId", userId);
+                    attachAuthorizationContext(userId, attributes);
                     return true;
                 } catch (NumberFormatException ignored) {}
             }
@@ -47,6 +58,13 @@ public class UserIdHandshakeInterceptor implements HandshakeInterceptor {
         return true; // Allow connection even without userId (will be set in /app/connect)
     }
 
+    private void attachAuthorizationContext(Integer userId, Map<String, Object> attributes) {
+        ChatAuthorizationContext context = authorizationCache.load(userId);
+        if (context != null) {
+            attributes.put(ChatAuthorizationContext.SESSION_ATTRIBUTE, context);
+        }
+    }
+
     @Override
     public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
                                WebSocketHandler wsHandler, Exception exception) {
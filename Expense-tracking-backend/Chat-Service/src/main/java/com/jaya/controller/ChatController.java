@@ -3,6 +3,7 @@ package com.jaya.controller;
 import com.jaya.dto.BulkDeleteRequest;
 import com.jaya.dto.ChatRequest;
 import com.jaya.dto.ChatResponse;
+import com.jaya.dto.ChatSearchResponse;
 import com.jaya.common.dto.UserDTO;
 import com.jaya.exception.ChatServiceException;
 import com.jaya.service.ChatService;
@@ -22,6 +23,8 @@ import java.util.Map;
 @RestController
 @RequestMapping("/api/chats")
 public class ChatController {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     private ChatService chatService;
 
@@ -82,17 +85,43 @@ public class ChatController {
     }
 
     @GetMapping("/user/search")
-    public List<ChatResponse> searchChatsForUser(
-            @RequestParam String keyword, @RequestHeader("Authorization") String jwt) {
+    public ResponseEntity<List<ChatResponse>> searchChatsForUser(
+            @RequestParam String keyword, @RequestParam(required = false) String cursor,
+            @RequestHeader("Authorization") String jwt) {
         UserDTO user = userClient.getUserProfile(jwt);
-        return chatService.searchChatsForUser(user.getId(), keyword);
+        return withNextCursor(chatService.searchChatsForUser(user.getId(), keyword, cursor));
     }
 
     @GetMapping("/group/{groupId}/search")
-    public List<ChatResponse> searchChatsForGroup(
-            @PathVariable Integer groupId, @RequestParam String keyword, @RequestHeader("Authorization") String jwt) {
+    public ResponseEntity<List<ChatResponse>> searchChatsForGroup(
+            @PathVariable Integer groupId, @RequestParam String keyword, @RequestParam(required = false) String cursor,
+            @RequestHeader("Authorization") String jwt) {
+        UserDTO user = userClient.getUserProfile(jwt);
+        return withNextCursor(chatService.searchChatsForGroup(groupId, keyword, user.getId(), cursor));
+    }
+
+    // The body stays a plain list for existing clients; a capped result says so in this header,
+    // whose value is passed back as ?cursor= for the next page
+    private static ResponseEntity<List<ChatResponse>> withNextCursor(ChatSearchResponse page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getResults());
+    }
+
+    @GetMapping("/search")
+    public ChatSearchResponse searchMessages(
+            @RequestParam String query,
+            @RequestParam(required = false) String chatType,
+            @RequestParam(required = false) Integer chatId,
+            @RequestParam(required = false) String messageType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestHeader("Authorization") String jwt) throws Exception {
         UserDTO user = userClient.getUserProfile(jwt);
-        return chatService.searchChatsForGroup(groupId, keyword, user.getId());
+        return chatService.searchMessages(query, user.getId(), chatType, chatId, messageType, cursor,
+                Math.min(Math.max(limit, 1), 100));
     }
 
     @PutMapping("/{chatId}/read")
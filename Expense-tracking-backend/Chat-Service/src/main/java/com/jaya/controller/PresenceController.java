@@ -1,6 +1,7 @@
 package com.jaya.controller;
 
 import com.jaya.common.dto.UserDTO;
+import com.jaya.service.ChatAuthorizationCache;
 import com.jaya.service.FriendShipService;
 import com.jaya.service.PresenceService;
 import com.jaya.common.service.client.IUserServiceClient;
@@ -24,6 +25,9 @@ public class PresenceController {
     @Autowired
     private FriendShipService friendshipService;
 
+    @Autowired
+    private ChatAuthorizationCache authorizationCache;
+
     @GetMapping("/{userId}")
     public ResponseEntity<Map<String, Object>> getUserPresence(
             @PathVariable Integer userId,
@@ -58,7 +62,10 @@ public class PresenceController {
             return ResponseEntity.status(401).build();
         }
 
-        List<Integer> friendIds = friendshipService.getFriendIds(currentUser.getId());
+        Set<Integer> cachedFriendIds = authorizationCache.getFriendIds(currentUser.getId());
+        List<Integer> friendIds = cachedFriendIds != null
+                ? new ArrayList<>(cachedFriendIds)
+                : friendshipService.getFriendIds(currentUser.getId());
         Map<Integer, Object> presenceInfo = presenceService.getPresenceInfoForUsers(friendIds);
 
         Map<String, Object> response = new HashMap<>();
@@ -3,22 +3,21 @@ package com.jaya.controller;
 import com.jaya.config.ChatWebSocketConfig;
 import com.jaya.common.dto.UserDTO;
 import com.jaya.common.service.client.IUserServiceClient;
+import com.jaya.service.PresenceDiffBroadcaster;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Controller;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Controller
 public class TypingIndicatorController {
 
     @Autowired
-    private SimpMessagingTemplate messagingTemplate;
+    private PresenceDiffBroadcaster presenceBroadcaster;
 
     @Autowired
     private IUserServiceClient userClient;
@@ -26,8 +25,6 @@ public class TypingIndicatorController {
     @Autowired
     private ChatWebSocketConfig webSocketConfig;
 
-    private final Map<String, Long> typingTimestamps = new ConcurrentHashMap<>();
-
     @MessageMapping("/typing")
     public void handleTyping(@Payload Map<String, Object> payload, SimpMessageHeaderAccessor headerAccessor) {
         Integer senderId = extractUserId(payload, headerAccessor);
@@ -51,18 +48,11 @@ public class TypingIndicatorController {
         if (recipientId != null) {
             response.put("conversationType", "ONE_TO_ONE");
             response.put("recipientId", recipientId);
-            messagingTemplate.convertAndSendToUser(
-                recipientId.toString(),
-                "/queue/typing",
-                response
-            );
+            presenceBroadcaster.typingToUser(recipientId, senderId, response);
         } else if (groupId != null) {
             response.put("conversationType", "GROUP");
             response.put("groupId", groupId);
-            messagingTemplate.convertAndSend(
-                "/topic/group/" + groupId + "/typing",
-                response
-            );
+            presenceBroadcaster.typingToGroup(groupId, senderId, response);
         }
     }
 
@@ -0,0 +1,17 @@
+package com.jaya.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatSearchResponse {
+    private List<ChatResponse> results;
+    // Opaque cursor for the next page; null when there are no more ranked results
+    private String nextCursor;
+    private int totalCandidates;
+}
@@ -0,0 +1,92 @@
+package com.jaya.kafka;
+
+import com.jaya.service.ChatAuthorizationCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Keeps {@link ChatAuthorizationCache} in step with FriendShip-Service: friendship changes
+ * and group membership changes are applied to the cached friend and group sets.
+ */
+@Component
+@ConditionalOnProperty(name = "kafka.enabled", havingValue = "true", matchIfMissing = true)
+public class ChatAuthorizationEventConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatAuthorizationEventConsumer.class);
+
+    @Autowired
+    private ChatAuthorizationCache authorizationCache;
+
+    @KafkaListener(topics = "${kafka.topics.friendship-events:friendship-events}", containerFactory = "chatAuthorizationListenerFactory")
+    public void onFriendshipEvent(Map<String, Object> event) {
+        String action = asString(event.get("action"));
+        Integer requesterId = asInteger(event.get("requesterId"));
+        Integer recipientId = asInteger(event.get("recipientId"));
+        if (requesterId == null || recipientId == null) {
+            requesterId = asInteger(event.get("actorId"));
+            recipientId = asInteger(event.get("userId"));
+        }
+        if (action == null || requesterId == null || recipientId == null) {
+            return;
+        }
+
+        if ("FRIEND_REQUEST_ACCEPTED".equals(action) || "USER_UNBLOCKED".equals(action)) {
+            // Reload both users' friend sets on next lookup rather than guessing the new state
+            authorizationCache.invalidate(requesterId);
+            authorizationCache.invalidate(recipientId);
+        } else if ("FRIENDSHIP_REMOVED".equals(action) || "USER_BLOCKED".equals(action)) {
+            authorizationCache.revokeFriend(requesterId, recipientId);
+        } else {
+            return;
+        }
+        logger.debug("Applied friendship {} to chat authorization cache for users {} and {}",
+                action, requesterId, recipientId);
+    }
+
+    @KafkaListener(topics = "${kafka.topics.group-membership-events:group-membership-events}", containerFactory = "chatAuthorizationListenerFactory")
+    public void onGroupMembershipEvent(Map<String, Object> event) {
+        String action = asString(event.get("action"));
+        Integer groupId = asInteger(event.get("groupId"));
+        if (action == null || groupId == null || !(event.get("userIds") instanceof Collection<?> userIds)) {
+            return;
+        }
+
+        for (Object value : userIds) {
+            Integer userId = asInteger(value);
+            if (userId == null) {
+                continue;
+            }
+            if ("MEMBER_ADDED".equals(action)) {
+                authorizationCache.grantGroup(userId, groupId);
+            } else {
+                authorizationCache.revokeGroup(userId, groupId);
+            }
+        }
+        logger.debug("Applied group {} for group {} to chat authorization cache", action, groupId);
+    }
+
+    private static Integer asInteger(Object value) {
+        if (value instanceof Number number) {
+            return number.intValue();
+        }
+        if (value instanceof String text && !text.isBlank()) {
+            try {
+                return Integer.parseInt(text.trim());
+            } catch (NumberFormatException ignored) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static String asString(Object value) {
+        return value != null ? value.toString() : null;
+    }
+}
@@ -0,0 +1,77 @@
+package com.jaya.models;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of the message search backfill over chats stored before the index existed. Created on
+ * the first run, when {@code targetChatId} fixes the chats the send path has not indexed; the
+ * backfill then moves {@code indexedFromId} down from above the target, newest chats first, saving
+ * after every batch so a restart resumes where it stopped.
+ */
+@Entity
+@Table(name = "chat_search_backfill_checkpoints")
+public class ChatSearchBackfillCheckpoint {
+
+    public static final String MESSAGE_INDEX = "message-index";
+
+    @Id
+    @Column(name = "name", length = 50)
+    private String name;
+
+    // Highest chat id that existed when the backfill started; later chats are indexed when sent
+    @Column(name = "target_chat_id", nullable = false)
+    private Integer targetChatId;
+
+    // Chats from this id up to the target are indexed
+    @Column(name = "indexed_from_id", nullable = false)
+    private Integer indexedFromId;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public ChatSearchBackfillCheckpoint() {
+    }
+
+    public ChatSearchBackfillCheckpoint(String name, Integer targetChatId) {
+        this.name = name;
+        this.targetChatId = targetChatId;
+        this.indexedFromId = targetChatId + 1;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Integer getTargetChatId() {
+        return targetChatId;
+    }
+
+    public Integer getIndexedFromId() {
+        return indexedFromId;
+    }
+
+    public void setIndexedFromId(Integer indexedFromId) {
+        this.indexedFromId = indexedFromId;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
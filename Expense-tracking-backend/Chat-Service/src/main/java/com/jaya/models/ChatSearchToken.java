@@ -0,0 +1,130 @@
+package com.jaya.models;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * One posting of the message search index: token {@code token} occurs at word position
+ * {@code position} of chat {@code chatId}. Conversation and participant columns are copied
+ * from the chat so a search can be scoped without joining the chats table.
+ */
+@Entity
+@Table(name = "chat_search_tokens", indexes = {
+    @Index(name = "idx_cst_token_conversation", columnList = "token, conversation_key, chat_id"),
+    @Index(name = "idx_cst_token_recipient", columnList = "token, recipient_id, chat_id"),
+    @Index(name = "idx_cst_token_sender", columnList = "token, sender_id, chat_id"),
+    @Index(name = "idx_cst_token_group", columnList = "token, group_id, chat_id")
+})
+public class ChatSearchToken implements Persistable<ChatSearchToken.Key> {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "token", nullable = false, length = 64)
+    private String token;
+
+    @Column(name = "conversation_key", nullable = false, length = 32)
+    private String conversationKey;
+
+    @Column(name = "sender_id", nullable = false)
+    private Integer senderId;
+
+    @Column(name = "recipient_id")
+    private Integer recipientId;
+
+    @Column(name = "group_id")
+    private Integer groupId;
+
+    // Postings are only ever inserted or deleted, never merged
+    @Transient
+    private boolean isNew = true;
+
+    public ChatSearchToken() {
+    }
+
+    public ChatSearchToken(Chat chat, String conversationKey, String token, int position) {
+        this.id = new Key(chat.getId(), position);
+        this.token = token;
+        this.conversationKey = conversationKey;
+        this.senderId = chat.getSenderId();
+        this.recipientId = chat.getRecipientId();
+        this.groupId = chat.getGroupId();
+    }
+
+    @Override
+    public Key getId() {
+        return id;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public String getConversationKey() {
+        return conversationKey;
+    }
+
+    public Integer getSenderId() {
+        return senderId;
+    }
+
+    public Integer getRecipientId() {
+        return recipientId;
+    }
+
+    public Integer getGroupId() {
+        return groupId;
+    }
+
+    @Embeddable
+    public static class Key implements Serializable {
+
+        @Column(name = "chat_id", nullable = false)
+        private Integer chatId;
+
+        @Column(name = "position", nullable = false)
+        private Integer position;
+
+        public Key() {
+        }
+
+        public Key(Integer chatId, Integer position) {
+            this.chatId = chatId;
+            this.position = position;
+        }
+
+        public Integer getChatId() {
+            return chatId;
+        }
+
+        public Integer getPosition() {
+            return position;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(chatId, key.chatId) && Objects.equals(position, key.position);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(chatId, position);
+        }
+    }
+}
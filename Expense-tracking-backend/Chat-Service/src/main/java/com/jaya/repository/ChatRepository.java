@@ -16,6 +16,13 @@ public interface ChatRepository extends JpaRepository<Chat, Integer> {
 
         List<Chat> findByRecipientId(Integer recipientId);
 
+        List<Chat> findByIdGreaterThanOrderByIdAsc(Integer id, Pageable pageable);
+
+        List<Chat> findByIdLessThanOrderByIdDesc(Integer id, Pageable pageable);
+
+        @Query("SELECT COALESCE(MAX(c.id), 0) FROM Chat c")
+        Integer findMaxId();
+
         List<Chat> findByGroupId(Integer groupId);
 
         List<Chat> findBySenderId(Integer senderId);
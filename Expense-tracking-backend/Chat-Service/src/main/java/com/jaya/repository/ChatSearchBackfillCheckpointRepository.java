@@ -0,0 +1,9 @@
+package com.jaya.repository;
+
+import com.jaya.models.ChatSearchBackfillCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ChatSearchBackfillCheckpointRepository extends JpaRepository<ChatSearchBackfillCheckpoint, String> {
+}
@@ -0,0 +1,64 @@
+package com.jaya.repository;
+
+import com.jaya.models.ChatSearchToken;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Postings lookups return {@code [chatId, position, token]} rows, newest chat first, for chats
+ * older than {@code beforeChatId} so a capped read can be continued from where it stopped.
+ * {@code pattern} is either an exact token or a {@code prefix%} LIKE pattern; both use the
+ * leading {@code token} column of the indexes.
+ */
+@Repository
+public interface ChatSearchTokenRepository extends JpaRepository<ChatSearchToken, ChatSearchToken.Key> {
+
+        @Query("SELECT t.id.chatId, t.id.position, t.token FROM ChatSearchToken t " +
+                        "WHERE t.token LIKE :pattern AND t.conversationKey = :conversationKey " +
+                        "AND t.id.chatId < :beforeChatId " +
+                        "ORDER BY t.id.chatId DESC")
+        List<Object[]> findPostingsInConversation(@Param("pattern") String pattern,
+                        @Param("conversationKey") String conversationKey,
+                        @Param("beforeChatId") Integer beforeChatId,
+                        Pageable pageable);
+
+        @Query("SELECT t.id.chatId, t.id.position, t.token FROM ChatSearchToken t " +
+                        "WHERE t.token LIKE :pattern AND t.recipientId = :recipientId " +
+                        "AND t.id.chatId < :beforeChatId " +
+                        "ORDER BY t.id.chatId DESC")
+        List<Object[]> findPostingsForRecipient(@Param("pattern") String pattern,
+                        @Param("recipientId") Integer recipientId,
+                        @Param("beforeChatId") Integer beforeChatId,
+                        Pageable pageable);
+
+        @Query("SELECT t.id.chatId, t.id.position, t.token FROM ChatSearchToken t " +
+                        "WHERE t.token LIKE :pattern AND " +
+                        "(t.senderId = :userId OR t.recipientId = :userId OR t.groupId IN :groupIds) " +
+                        "AND t.id.chatId < :beforeChatId " +
+                        "ORDER BY t.id.chatId DESC")
+        List<Object[]> findPostingsForParticipant(@Param("pattern") String pattern,
+                        @Param("userId") Integer userId,
+                        @Param("groupIds") Collection<Integer> groupIds,
+                        @Param("beforeChatId") Integer beforeChatId,
+                        Pageable pageable);
+
+        @Query("SELECT t.id.chatId, t.id.position, t.token FROM ChatSearchToken t " +
+                        "WHERE t.token LIKE :pattern AND t.id.chatId IN :chatIds")
+        List<Object[]> findPostingsInChats(@Param("pattern") String pattern,
+                        @Param("chatIds") Collection<Integer> chatIds);
+
+        @Modifying
+        @Query("DELETE FROM ChatSearchToken t WHERE t.id.chatId = :chatId")
+        int deleteByChatId(@Param("chatId") Integer chatId);
+
+        @Modifying
+        @Query("DELETE FROM ChatSearchToken t WHERE t.id.chatId IN :chatIds")
+        int deleteByChatIds(@Param("chatIds") Collection<Integer> chatIds);
+}
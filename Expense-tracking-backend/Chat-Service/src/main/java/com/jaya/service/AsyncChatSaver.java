@@ -1,5 +1,7 @@
 package com.jaya.service;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
@@ -9,12 +11,22 @@ import com.jaya.repository.ChatRepository;
 
 @Service
 public class AsyncChatSaver {
+    private static final Logger logger = LoggerFactory.getLogger(AsyncChatSaver.class);
+
     @Autowired
     private ChatRepository chatRepository;
 
+    @Autowired
+    private ChatSearchIndexService searchIndexService;
+
     @Async
     public void saveChatAsync(Chat chat) {
-        System.out.println("Async save thread: " + Thread.currentThread().getName());
-        chatRepository.save(chat);
+        logger.debug("Saving chat on {}", Thread.currentThread().getName());
+        Chat saved = chatRepository.save(chat);
+        try {
+            searchIndexService.indexChat(saved);
+        } catch (Exception e) {
+            logger.warn("Failed to index chat {}: {}", saved.getId(), e.getMessage());
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,187 @@
+package com.jaya.service;
+
+import com.jaya.service.client.GroupService;
+import com.jaya.util.ChatServiceHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the {@link ChatAuthorizationContext} of every user with an open WebSocket session,
+ * so the send path can authorize a message with a local set lookup instead of calling
+ * user-service and FriendShip-Service for each message.
+ *
+ * Contexts are pinned by session and dropped when the user's last session disconnects.
+ * Lookups that miss return false and callers fall back to the remote validation.
+ */
+@Service
+public class ChatAuthorizationCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatAuthorizationCache.class);
+
+    @Autowired
+    private ChatServiceHelper helper;
+
+    @Autowired
+    private FriendShipService friendshipService;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Value("${chat.authorization.max-age-minutes:15}")
+    private long maxAgeMinutes;
+
+    private final Map<Integer, ChatAuthorizationContext> contexts = new ConcurrentHashMap<>();
+    private final Map<String, Integer> sessionUsers = new ConcurrentHashMap<>();
+    private final Map<Integer, Set<String>> userSessions = new ConcurrentHashMap<>();
+
+    /**
+     * Load a fresh context for the user from the remote services.
+     * Returns null if the user cannot be validated.
+     */
+    public ChatAuthorizationContext load(Integer userId) {
+        if (userId == null) {
+            return null;
+        }
+        try {
+            helper.validateUser(userId);
+            List<Integer> friendIds = friendshipService.getFriendIds(userId);
+            List<Integer> groupIds = groupService.getUserGroupIds(userId);
+            return new ChatAuthorizationContext(userId, friendIds, groupIds);
+        } catch (Exception e) {
+            logger.warn("Failed to load chat authorization context for user {}: {}", userId, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Pin a context for the session. Uses the context loaded during the handshake when
+     * available, otherwise loads one.
+     */
+    public void attach(String sessionId, Integer userId, ChatAuthorizationContext preloaded) {
+        if (sessionId == null || userId == null) {
+            return;
+        }
+        sessionUsers.put(sessionId, userId);
+        userSessions.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(sessionId);
+        ChatAuthorizationContext existing = contexts.get(userId);
+        if (existing != null && !isExpired(existing)) {
+            return;
+        }
+        ChatAuthorizationContext context = preloaded != null && userId.equals(preloaded.getUserId())
+                && !isExpired(preloaded) ? preloaded : load(userId);
+        if (context != null) {
+            contexts.put(userId, context);
+        }
+    }
+
+    public void detach(String sessionId) {
+        if (sessionId == null) {
+            return;
+        }
+        Integer userId = sessionUsers.remove(sessionId);
+        if (userId == null) {
+            return;
+        }
+        userSessions.computeIfPresent(userId, (id, sessions) -> {
+            sessions.remove(sessionId);
+            if (sessions.isEmpty()) {
+                contexts.remove(id);
+                return null;
+            }
+            return sessions;
+        });
+    }
+
+    public boolean isFriend(Integer userId, Integer otherUserId) {
+        ChatAuthorizationContext context = getContext(userId);
+        return context != null && context.isFriend(otherUserId);
+    }
+
+    public boolean isGroupMember(Integer userId, Integer groupId) {
+        ChatAuthorizationContext context = getContext(userId);
+        return context != null && context.isGroupMember(groupId);
+    }
+
+    /**
+     * Friend ids of a connected user, or null when the user has no cached context.
+     */
+    public Set<Integer> getFriendIds(Integer userId) {
+        ChatAuthorizationContext context = getContext(userId);
+        return context != null ? context.getFriendIds() : null;
+    }
+
+    /**
+     * Record a friendship confirmed by the remote fallback, for both users if connected.
+     */
+    public void grantFriend(Integer userId, Integer friendId) {
+        ChatAuthorizationContext context = contexts.get(userId);
+        if (context != null) {
+            context.grantFriend(friendId);
+        }
+        ChatAuthorizationContext other = contexts.get(friendId);
+        if (other != null) {
+            other.grantFriend(userId);
+        }
+    }
+
+    public void revokeFriend(Integer userId, Integer friendId) {
+        ChatAuthorizationContext context = contexts.get(userId);
+        if (context != null) {
+            context.revokeFriend(friendId);
+        }
+        ChatAuthorizationContext other = contexts.get(friendId);
+        if (other != null) {
+            other.revokeFriend(userId);
+        }
+    }
+
+    public void grantGroup(Integer userId, Integer groupId) {
+        ChatAuthorizationContext context = contexts.get(userId);
+        if (context != null) {
+            context.grantGroup(groupId);
+        }
+    }
+
+    public void revokeGroup(Integer userId, Integer groupId) {
+        ChatAuthorizationContext context = contexts.get(userId);
+        if (context != null) {
+            context.revokeGroup(groupId);
+        }
+    }
+
+    /**
+     * Drop the cached context; it is reloaded on the next lookup while the user stays connected.
+     */
+    public void invalidate(Integer userId) {
+        if (userId != null) {
+            contexts.remove(userId);
+        }
+    }
+
+    private ChatAuthorizationContext getContext(Integer userId) {
+        if (userId == null || !userSessions.containsKey(userId)) {
+            return null;
+        }
+        ChatAuthorizationContext context = contexts.get(userId);
+        if (context == null || isExpired(context)) {
+            context = load(userId);
+            if (context != null) {
+                contexts.put(userId, context);
+            }
+        }
+        return context;
+    }
+
+    private boolean isExpired(ChatAuthorizationContext context) {
+        return context.isOlderThan(TimeUnit.MINUTES.toMillis(maxAgeMinutes));
+    }
+}
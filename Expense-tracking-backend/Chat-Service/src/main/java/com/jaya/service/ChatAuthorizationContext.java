@@ -0,0 +1,67 @@
+package com.jaya.service;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Authorization snapshot for a connected chat user: the friend ids and group ids
+ * the user may message. Loaded once when the WebSocket session connects and kept
+ * current by friendship and group membership events.
+ */
+public class ChatAuthorizationContext {
+
+    public static final String SESSION_ATTRIBUTE = "chatAuthorizationContext";
+
+    private final Integer userId;
+    private final Set<Integer> friendIds = ConcurrentHashMap.newKeySet();
+    private final Set<Integer> groupIds = ConcurrentHashMap.newKeySet();
+    private final long loadedAt;
+
+    public ChatAuthorizationContext(Integer userId, Collection<Integer> friendIds, Collection<Integer> groupIds) {
+        this.userId = userId;
+        if (friendIds != null) {
+            friendIds.stream().filter(id -> id != null).forEach(this.friendIds::add);
+        }
+        if (groupIds != null) {
+            groupIds.stream().filter(id -> id != null).forEach(this.groupIds::add);
+        }
+        this.loadedAt = System.currentTimeMillis();
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public Set<Integer> getFriendIds() {
+        return Set.copyOf(friendIds);
+    }
+
+    public boolean isFriend(Integer otherUserId) {
+        return otherUserId != null && friendIds.contains(otherUserId);
+    }
+
+    public boolean isGroupMember(Integer groupId) {
+        return groupId != null && groupIds.contains(groupId);
+    }
+
+    public void grantFriend(Integer friendId) {
+        friendIds.add(friendId);
+    }
+
+    public void revokeFriend(Integer friendId) {
+        friendIds.remove(friendId);
+    }
+
+    public void grantGroup(Integer groupId) {
+        groupIds.add(groupId);
+    }
+
+    public void revokeGroup(Integer groupId) {
+        groupIds.remove(groupId);
+    }
+
+    public boolean isOlderThan(long maxAgeMillis) {
+        return System.currentTimeMillis() - loadedAt > maxAgeMillis;
+    }
+}
@@ -0,0 +1,154 @@
+package com.jaya.service;
+
+import com.jaya.models.Chat;
+import com.jaya.models.ChatSearchBackfillCheckpoint;
+import com.jaya.repository.ChatRepository;
+import com.jaya.repository.ChatSearchBackfillCheckpointRepository;
+import com.jaya.repository.NamedLockRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Indexes the chats stored before the message search index existed, and rebuilds it on demand.
+ *
+ * The backfill runs on its own after deploy. Its first run records the newest chat id in a
+ * {@link ChatSearchBackfillCheckpoint}: later chats are indexed when sent. It then indexes the
+ * older chats in batches of {@code chat.search.rebuild-batch-size}, newest first so recent
+ * history becomes searchable soonest, saving the checkpoint after every batch so a restart or
+ * another instance resumes where the last run stopped. Each run holds a named lock and stops
+ * after {@code chat.search.backfill-max-run-ms}; the next scheduled run carries on. Until the
+ * backfill completes, searches miss the messages it has not reached yet.
+ *
+ * Chats that instances still on the previous version store after the first run are not indexed,
+ * so the first run should come after the rollout has finished.
+ *
+ * {@link #rebuild()} reindexes every chat regardless of the checkpoint, in one call.
+ */
+@Component
+public class ChatSearchIndexRebuildJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatSearchIndexRebuildJob.class);
+    private static final String LOCK_NAME = "chat_search_index_backfill";
+
+    @Autowired
+    private ChatRepository chatRepository;
+
+    @Autowired
+    private ChatSearchIndexService searchIndexService;
+
+    @Autowired
+    private ChatSearchBackfillCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private NamedLockRepository namedLockRepository;
+
+    @Value("${chat.search.rebuild-batch-size:500}")
+    private int batchSize;
+
+    @Value("${chat.search.backfill-max-run-ms:300000}")
+    private long maxRunMs;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile boolean backfilled;
+
+    @Scheduled(initialDelayString = "${chat.search.backfill-initial-delay-ms:60000}",
+            fixedDelayString = "${chat.search.backfill-interval-ms:60000}")
+    public void backfill() {
+        if (backfilled) {
+            return;
+        }
+        try {
+            if (!namedLockRepository.runExclusively(LOCK_NAME, this::backfillStep)) {
+                logger.debug("Chat search index backfill is running on another instance");
+            }
+        } catch (Exception e) {
+            // The checkpoint holds the progress so far; the next run resumes from it
+            logger.error("Chat search index backfill failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void backfillStep() {
+        ChatSearchBackfillCheckpoint checkpoint = checkpointRepository
+                .findById(ChatSearchBackfillCheckpoint.MESSAGE_INDEX)
+                .orElseGet(this::startCheckpoint);
+        if (checkpoint.getCompletedAt() != null) {
+            backfilled = true;
+            return;
+        }
+        long deadline = System.currentTimeMillis() + maxRunMs;
+
+        while (checkpoint.getCompletedAt() == null && System.currentTimeMillis() < deadline) {
+            List<Chat> batch = chatRepository.findByIdLessThanOrderByIdDesc(checkpoint.getIndexedFromId(),
+                    PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                checkpoint.setCompletedAt(LocalDateTime.now());
+            } else {
+                searchIndexService.reindexBatch(batch);
+                checkpoint.setIndexedFromId(batch.get(batch.size() - 1).getId());
+            }
+            checkpoint = save(checkpoint);
+        }
+
+        if (checkpoint.getCompletedAt() != null) {
+            backfilled = true;
+            logger.info("Chat search index backfill complete: chats up to id {} indexed",
+                    checkpoint.getTargetChatId());
+        } else {
+            logger.info("Chat search index backfill: chats from id {} up to {} indexed",
+                    checkpoint.getIndexedFromId(), checkpoint.getTargetChatId());
+        }
+    }
+
+    private ChatSearchBackfillCheckpoint startCheckpoint() {
+        ChatSearchBackfillCheckpoint checkpoint = new ChatSearchBackfillCheckpoint(
+                ChatSearchBackfillCheckpoint.MESSAGE_INDEX, chatRepository.findMaxId());
+        logger.info("Starting chat search index backfill of chats up to id {}", checkpoint.getTargetChatId());
+        return save(checkpoint);
+    }
+
+    private ChatSearchBackfillCheckpoint save(ChatSearchBackfillCheckpoint checkpoint) {
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        return checkpointRepository.save(checkpoint);
+    }
+
+    /**
+     * @return number of chats reindexed, or -1 if a rebuild is already running
+     */
+    public int rebuild() {
+        if (!running.compareAndSet(false, true)) {
+            logger.info("Chat search index rebuild already running");
+            return -1;
+        }
+        long start = System.currentTimeMillis();
+        int chats = 0;
+        long postings = 0;
+        try {
+            Integer lastId = 0;
+            List<Chat> batch;
+            do {
+                batch = chatRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, batchSize));
+                if (batch.isEmpty()) {
+                    break;
+                }
+                postings += searchIndexService.reindexBatch(batch);
+                chats += batch.size();
+                lastId = batch.get(batch.size() - 1).getId();
+            } while (batch.size() == batchSize);
+
+            logger.info("Rebuilt chat search index: {} chats, {} postings in {}ms",
+                    chats, postings, System.currentTimeMillis() - start);
+            return chats;
+        } finally {
+            running.set(false);
+        }
+    }
+}
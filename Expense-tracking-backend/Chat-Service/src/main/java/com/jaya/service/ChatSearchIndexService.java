@@ -0,0 +1,433 @@
+package com.jaya.service;
+
+import com.jaya.models.Chat;
+import com.jaya.models.ChatSearchToken;
+import com.jaya.repository.ChatRepository;
+import com.jaya.repository.ChatSearchTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index over chat message content, replacing {@code LIKE '%keyword%'} scans. Query
+ * words match whole tokens or token prefixes, not arbitrary substrings as those scans did.
+ *
+ * Every message is tokenized into lower-cased words stored with their position in the
+ * {@code chat_search_tokens} table. Queries support bare words (all must match), quoted
+ * phrases and {@code prefix*} terms; the last bare word is also matched as a prefix so
+ * partially typed words keep working. Results are ranked and paged with a seek cursor.
+ *
+ * Each term reads at most {@link #MAX_POSTINGS_PER_TERM} postings at a time, newest chat first.
+ * When the rarest term has more, matches are ranked within recency windows: the newest window
+ * first, by score, then the next older window, and so on. The cursor carries the window bound
+ * along with the last (score, id), so paging reaches every match rather than only the newest.
+ */
+@Service
+public class ChatSearchIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatSearchIndexService.class);
+
+    private static final Pattern TOKEN_SPLIT = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern QUERY_PART = Pattern.compile("\"([^\"]*)\"|(\\S+)");
+    private static final int MAX_TOKEN_LENGTH = 64;
+    private static final int MAX_TOKENS_PER_MESSAGE = 512;
+    private static final int MAX_QUERY_TERMS = 8;
+    private static final int MIN_IMPLICIT_PREFIX_LENGTH = 2;
+    // Postings read per term and window; bounds query cost on very common words
+    private static final int MAX_POSTINGS_PER_TERM = 5000;
+    // Windows ranked per request before handing back a cursor, when the filter rejects most matches
+    private static final int MAX_WINDOWS_PER_SEARCH = 10;
+    private static final double PREFIX_MATCH_WEIGHT = 0.6;
+    private static final double PROXIMITY_BONUS = 1.0;
+    private static final long SCORE_SCALE = 10_000L;
+
+    @Autowired
+    private ChatSearchTokenRepository tokenRepository;
+
+    @Autowired
+    private ChatRepository chatRepository;
+
+    /**
+     * @param totalCandidates matches ranked while serving this page; a lower bound of all matches
+     *                        when older windows remain
+     */
+    public record SearchResult(List<Chat> chats, String nextCursor, int totalCandidates) {
+    }
+
+    record QueryTerm(String text, boolean prefix, int phraseId, int phraseOffset) {
+        String pattern() {
+            String escaped = text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+            return prefix ? escaped + "%" : escaped;
+        }
+    }
+
+    private record Ranked(Integer chatId, long scoreKey) {
+    }
+
+    // Matches among chats older than beforeChatId; nextBeforeChatId is null when no older window exists
+    private record Window(List<Ranked> ranked, Integer nextBeforeChatId) {
+    }
+
+    private record Cursor(int beforeChatId, Ranked after) {
+    }
+
+    // ---------------------------------------------------------------- indexing
+
+    @Transactional
+    public void indexChat(Chat chat) {
+        if (chat == null || chat.getId() == null) {
+            return;
+        }
+        tokenRepository.deleteByChatId(chat.getId());
+        tokenRepository.saveAll(toPostings(chat));
+    }
+
+    @Transactional
+    public void removeChat(Integer chatId) {
+        if (chatId != null) {
+            tokenRepository.deleteByChatId(chatId);
+        }
+    }
+
+    /**
+     * Replace the postings of a batch of chats in one transaction. Used by the rebuild job.
+     */
+    @Transactional
+    public int reindexBatch(List<Chat> chats) {
+        if (chats == null || chats.isEmpty()) {
+            return 0;
+        }
+        tokenRepository.deleteByChatIds(chats.stream().map(Chat::getId).toList());
+        List<ChatSearchToken> postings = new ArrayList<>();
+        for (Chat chat : chats) {
+            postings.addAll(toPostings(chat));
+        }
+        tokenRepository.saveAll(postings);
+        return postings.size();
+    }
+
+    private List<ChatSearchToken> toPostings(Chat chat) {
+        List<String> tokens = tokenize(chat.getContent());
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        String conversationKey = conversationKey(chat);
+        List<ChatSearchToken> postings = new ArrayList<>(tokens.size());
+        for (int position = 0; position < tokens.size(); position++) {
+            postings.add(new ChatSearchToken(chat, conversationKey, tokens.get(position), position));
+        }
+        return postings;
+    }
+
+    static List<String> tokenize(String content) {
+        if (content == null || content.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String raw : TOKEN_SPLIT.split(content.toLowerCase(Locale.ROOT))) {
+            if (raw.isEmpty()) {
+                continue;
+            }
+            tokens.add(raw.length() > MAX_TOKEN_LENGTH ? raw.substring(0, MAX_TOKEN_LENGTH) : raw);
+            if (tokens.size() == MAX_TOKENS_PER_MESSAGE) {
+                break;
+            }
+        }
+        return tokens;
+    }
+
+    static String conversationKey(Chat chat) {
+        return chat.getGroupId() != null
+                ? groupConversationKey(chat.getGroupId())
+                : directConversationKey(chat.getSenderId(), chat.getRecipientId());
+    }
+
+    static String groupConversationKey(Integer groupId) {
+        return "g:" + groupId;
+    }
+
+    static String directConversationKey(Integer userId1, Integer userId2) {
+        int a = userId1 != null ? userId1 : 0;
+        int b = userId2 != null ? userId2 : 0;
+        return "u:" + Math.min(a, b) + ":" + Math.max(a, b);
+    }
+
+    // ---------------------------------------------------------------- querying
+
+    static List<QueryTerm> parseQuery(String rawQuery) {
+        List<QueryTerm> terms = new ArrayList<>();
+        if (rawQuery == null || rawQuery.isBlank()) {
+            return terms;
+        }
+        Matcher matcher = QUERY_PART.matcher(rawQuery);
+        int phraseId = 0;
+        boolean lastWasBareWord = false;
+        while (matcher.find() && terms.size() < MAX_QUERY_TERMS) {
+            boolean quoted = matcher.group(1) != null;
+            String part = quoted ? matcher.group(1) : matcher.group(2);
+            boolean explicitPrefix = !quoted && part.endsWith("*");
+            List<String> tokens = tokenize(part);
+            if (tokens.isEmpty()) {
+                continue;
+            }
+            phraseId++;
+            for (int i = 0; i < tokens.size() && terms.size() < MAX_QUERY_TERMS; i++) {
+                boolean last = i == tokens.size() - 1;
+                terms.add(new QueryTerm(tokens.get(i), explicitPrefix && last, phraseId, i));
+            }
+            lastWasBareWord = !quoted;
+        }
+        if (lastWasBareWord && !terms.isEmpty()) {
+            QueryTerm last = terms.get(terms.size() - 1);
+            if (!last.prefix() && last.text().length() >= MIN_IMPLICIT_PREFIX_LENGTH) {
+                terms.set(terms.size() - 1, new QueryTerm(last.text(), true, last.phraseId(), last.phraseOffset()));
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Ranked search. Results are ordered by score, then newest first, within each recency window;
+     * {@code cursor} is the {@code nextCursor} of the previous page, or null for the first page.
+     *
+     * @param visible filter applied to loaded chats (deletion flags, message type, dates)
+     */
+    @Transactional(readOnly = true)
+    public SearchResult search(ChatSearchScope scope, String rawQuery, String cursor, int limit,
+            Predicate<Chat> visible) {
+        List<QueryTerm> terms = parseQuery(rawQuery);
+        if (terms.isEmpty() || limit <= 0) {
+            return new SearchResult(List.of(), null, 0);
+        }
+
+        Cursor position = cursor != null && !cursor.isBlank() ? parseCursor(cursor) : null;
+        Integer beforeChatId = position != null ? position.beforeChatId() : Integer.MAX_VALUE;
+        Ranked after = position != null ? position.after() : null;
+
+        List<Chat> page = new ArrayList<>(limit);
+        int totalCandidates = 0;
+        String nextCursor = null;
+        for (int windows = 0; beforeChatId != null; windows++) {
+            if (windows == MAX_WINDOWS_PER_SEARCH) {
+                nextCursor = formatCursor(beforeChatId, null);
+                break;
+            }
+            Window window = rank(scope, terms, beforeChatId);
+            List<Ranked> ranked = window.ranked();
+            totalCandidates += ranked.size();
+
+            int index = 0;
+            if (after != null) {
+                while (index < ranked.size() && !isAfter(ranked.get(index), after)) {
+                    index++;
+                }
+            }
+            Ranked lastReturned = null;
+            int chunkSize = Math.max(limit * 2, 50);
+            while (page.size() < limit && index < ranked.size()) {
+                List<Ranked> chunk = ranked.subList(index, Math.min(index + chunkSize, ranked.size()));
+                Map<Integer, Chat> loaded = new HashMap<>();
+                for (Chat chat : chatRepository.findAllById(chunk.stream().map(Ranked::chatId).toList())) {
+                    loaded.put(chat.getId(), chat);
+                }
+                for (Ranked candidate : chunk) {
+                    index++;
+                    Chat chat = loaded.get(candidate.chatId());
+                    if (chat != null && (visible == null || visible.test(chat))) {
+                        page.add(chat);
+                        lastReturned = candidate;
+                        if (page.size() == limit) {
+                            break;
+                        }
+                    }
+                }
+            }
+
+            if (page.size() == limit) {
+                if (index < ranked.size()) {
+                    nextCursor = formatCursor(beforeChatId, lastReturned);
+                } else if (window.nextBeforeChatId() != null) {
+                    nextCursor = formatCursor(window.nextBeforeChatId(), null);
+                }
+                break;
+            }
+            beforeChatId = window.nextBeforeChatId();
+            after = null;
+        }
+        return new SearchResult(page, nextCursor, totalCandidates);
+    }
+
+    private Window rank(ChatSearchScope scope, List<QueryTerm> terms, int beforeChatId) {
+        // Postings per term: chatId -> positions (with the matched token for prefix terms)
+        List<Map<Integer, List<Object[]>>> postingsByTerm = new ArrayList<>(terms.size());
+        List<Boolean> truncated = new ArrayList<>(terms.size());
+        Pageable cap = PageRequest.of(0, MAX_POSTINGS_PER_TERM);
+        for (QueryTerm term : terms) {
+            List<Object[]> rows = findPostings(scope, term.pattern(), beforeChatId, cap);
+            postingsByTerm.add(groupByChat(rows));
+            truncated.add(rows.size() >= MAX_POSTINGS_PER_TERM);
+        }
+
+        // The rarest term drives candidate selection
+        int driver = 0;
+        for (int i = 1; i < terms.size(); i++) {
+            if (postingsByTerm.get(i).size() < postingsByTerm.get(driver).size()) {
+                driver = i;
+            }
+        }
+        Set<Integer> candidates = new HashSet<>(postingsByTerm.get(driver).keySet());
+        Integer nextBeforeChatId = null;
+        if (truncated.get(driver) && !candidates.isEmpty()) {
+            // The oldest chat in a capped read may be missing positions; it opens the next window
+            Integer oldest = Collections.min(candidates);
+            candidates.remove(oldest);
+            nextBeforeChatId = oldest + 1;
+        }
+        if (candidates.isEmpty()) {
+            return new Window(List.of(), nextBeforeChatId);
+        }
+
+        // A capped term list may have dropped older chats; re-read it for the candidates only
+        for (int i = 0; i < terms.size(); i++) {
+            if (i != driver && truncated.get(i)) {
+                postingsByTerm.set(i, groupByChat(tokenRepository.findPostingsInChats(terms.get(i).pattern(), candidates)));
+            }
+        }
+
+        List<Ranked> ranked = new ArrayList<>();
+        for (Integer chatId : candidates) {
+            Double score = score(chatId, terms, postingsByTerm);
+            if (score != null) {
+                ranked.add(new Ranked(chatId, Math.round(score * SCORE_SCALE)));
+            }
+        }
+        ranked.sort(Comparator.comparingLong(Ranked::scoreKey).reversed()
+                .thenComparing(Comparator.comparing(Ranked::chatId).reversed()));
+        return new Window(ranked, nextBeforeChatId);
+    }
+
+    /**
+     * Returns null when the chat does not match every term and phrase.
+     */
+    private Double score(Integer chatId, List<QueryTerm> terms, List<Map<Integer, List<Object[]>>> postingsByTerm) {
+        double score = 0;
+        List<Set<Integer>> positions = new ArrayList<>(terms.size());
+        for (int i = 0; i < terms.size(); i++) {
+            List<Object[]> hits = postingsByTerm.get(i).get(chatId);
+            if (hits == null || hits.isEmpty()) {
+                return null;
+            }
+            QueryTerm term = terms.get(i);
+            Set<Integer> termPositions = new HashSet<>();
+            double weight = 0;
+            for (Object[] hit : hits) {
+                termPositions.add((Integer) hit[1]);
+                weight = Math.max(weight, term.text().equals(hit[2]) ? 1.0 : PREFIX_MATCH_WEIGHT);
+            }
+            positions.add(termPositions);
+            score += weight * (1 + Math.log(hits.size()));
+        }
+
+        // Phrase constraints: terms sharing a phraseId must occur at consecutive positions
+        Map<Integer, List<Integer>> phrases = new LinkedHashMap<>();
+        for (int i = 0; i < terms.size(); i++) {
+            phrases.computeIfAbsent(terms.get(i).phraseId(), k -> new ArrayList<>()).add(i);
+        }
+        for (List<Integer> phrase : phrases.values()) {
+            if (phrase.size() < 2) {
+                continue;
+            }
+            boolean matched = false;
+            for (Integer start : positions.get(phrase.get(0))) {
+                boolean all = true;
+                for (Integer termIndex : phrase) {
+                    if (!positions.get(termIndex).contains(start + terms.get(termIndex).phraseOffset())) {
+                        all = false;
+                        break;
+                    }
+                }
+                if (all) {
+                    matched = true;
+                    break;
+                }
+            }
+            if (!matched) {
+                return null;
+            }
+            score += phrase.size();
+        }
+
+        if (phrases.size() > 1 && isClose(positions, terms.size() + 2)) {
+            score += PROXIMITY_BONUS;
+        }
+        return score;
+    }
+
+    private static boolean isClose(List<Set<Integer>> positions, int window) {
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (Set<Integer> termPositions : positions) {
+            int first = Collections.min(termPositions);
+            min = Math.min(min, first);
+            max = Math.max(max, first);
+        }
+        return max - min <= window;
+    }
+
+    private List<Object[]> findPostings(ChatSearchScope scope, String pattern, int beforeChatId, Pageable cap) {
+        return switch (scope.type()) {
+            case CONVERSATION -> tokenRepository.findPostingsInConversation(pattern, scope.conversationKey(),
+                    beforeChatId, cap);
+            case RECIPIENT -> tokenRepository.findPostingsForRecipient(pattern, scope.userId(), beforeChatId, cap);
+            case PARTICIPANT -> tokenRepository.findPostingsForParticipant(pattern, scope.userId(),
+                    scope.groupIds(), beforeChatId, cap);
+        };
+    }
+
+    private static Map<Integer, List<Object[]>> groupByChat(List<Object[]> rows) {
+        Map<Integer, List<Object[]>> byChat = new HashMap<>();
+        for (Object[] row : rows) {
+            byChat.computeIfAbsent((Integer) row[0], k -> new ArrayList<>()).add(row);
+        }
+        return byChat;
+    }
+
+    private static boolean isAfter(Ranked candidate, Ranked cursor) {
+        if (candidate.scoreKey() != cursor.scoreKey()) {
+            return candidate.scoreKey() < cursor.scoreKey();
+        }
+        return candidate.chatId() < cursor.chatId();
+    }
+
+    // "<beforeChatId>:<score>:<chatId>", or just "<beforeChatId>" to start at the top of a window
+    private static String formatCursor(int beforeChatId, Ranked after) {
+        return after == null ? String.valueOf(beforeChatId)
+                : beforeChatId + ":" + after.scoreKey() + ":" + after.chatId();
+    }
+
+    private static Cursor parseCursor(String cursor) {
+        try {
+            String[] parts = cursor.split(":");
+            return switch (parts.length) {
+                case 1 -> new Cursor(Integer.parseInt(parts[0]), null);
+                // Cursors issued before windows existed: "<score>:<chatId>" in the newest window
+                case 2 -> new Cursor(Integer.MAX_VALUE,
+                        new Ranked(Integer.parseInt(parts[1]), Long.parseLong(parts[0])));
+                default -> new Cursor(Integer.parseInt(parts[0]),
+                        new Ranked(Integer.parseInt(parts[2]), Long.parseLong(parts[1])));
+            };
+        } catch (Exception e) {
+            logger.debug("Ignoring malformed search cursor '{}'", cursor);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.jaya.service;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Which messages a search may see: one conversation, the messages received by a user,
+ * or every message a user sent, received or can read through group membership.
+ */
+public record ChatSearchScope(Type type, String conversationKey, Integer userId, Collection<Integer> groupIds) {
+
+    public enum Type {
+        CONVERSATION, RECIPIENT, PARTICIPANT
+    }
+
+    public static ChatSearchScope directConversation(Integer userId1, Integer userId2) {
+        return new ChatSearchScope(Type.CONVERSATION,
+                ChatSearchIndexService.directConversationKey(userId1, userId2), null, List.of());
+    }
+
+    public static ChatSearchScope group(Integer groupId) {
+        return new ChatSearchScope(Type.CONVERSATION, ChatSearchIndexService.groupConversationKey(groupId),
+                null, List.of());
+    }
+
+    public static ChatSearchScope recipient(Integer userId) {
+        return new ChatSearchScope(Type.RECIPIENT, null, userId, List.of());
+    }
+
+    public static ChatSearchScope participant(Integer userId, Collection<Integer> groupIds) {
+        return new ChatSearchScope(Type.PARTICIPANT, null, userId,
+                groupIds == null || groupIds.isEmpty() ? List.of(-1) : groupIds);
+    }
+}
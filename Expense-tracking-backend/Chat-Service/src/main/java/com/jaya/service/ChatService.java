@@ -2,6 +2,7 @@ package com.jaya.service;
 
 import com.jaya.dto.ChatRequest;
 import com.jaya.dto.ChatResponse;
+import com.jaya.dto.ChatSearchResponse;
 import org.springframework.data.domain.Page;
 
 import java.util.List;
@@ -20,9 +21,18 @@ public interface ChatService {
 
     List<ChatResponse> getChatsBetweenUsers(Integer userId1, Integer userId2);
 
-    List<ChatResponse> searchChatsForUser(Integer userId, String keyword);
+    /**
+     * Messages received by the user that match {@code keyword}, best match first, up to 200 per
+     * page; {@code nextCursor} is set when more remain. Matching is by the search index: every word
+     * must occur in the message as a whole word, the last one also as a word prefix, so "port"
+     * finds "portfolio" but no longer "report" as the former substring search did.
+     *
+     * @param cursor {@code nextCursor} of the previous page, or null for the first page
+     */
+    ChatSearchResponse searchChatsForUser(Integer userId, String keyword, String cursor);
 
-    List<ChatResponse> searchChatsForGroup(Integer groupId, String keyword, Integer userId);
+    /** Group messages matching {@code keyword}, paged and matched as in {@link #searchChatsForUser}. */
+    ChatSearchResponse searchChatsForGroup(Integer groupId, String keyword, Integer userId, String cursor);
 
     ChatResponse markChatAsRead(Integer chatId, Integer userId) throws Exception;
 
@@ -145,6 +155,9 @@ public interface ChatService {
     Page<ChatResponse> searchMessagesAdvanced(String query, Integer userId, String chatType, Integer chatId,
             String messageType, String dateFrom, String dateTo, int page, int size) throws Exception;
 
+    ChatSearchResponse searchMessages(String query, Integer userId, String chatType, Integer chatId,
+            String messageType, String cursor, int limit) throws Exception;
+
     List<ChatResponse> exportChatHistory(Integer userId1, Integer userId2, Integer userId) throws Exception;
 
     List<ChatResponse> exportGroupChatHistory(Integer groupId, Integer userId) throws Exception;
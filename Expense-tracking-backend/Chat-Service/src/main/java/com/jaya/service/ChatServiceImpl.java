@@ -2,6 +2,7 @@ package com.jaya.service;
 
 import com.jaya.dto.ChatRequest;
 import com.jaya.dto.ChatResponse;
+import com.jaya.dto.ChatSearchResponse;
 import com.jaya.common.dto.UserDTO;
 import com.jaya.exception.ChatServiceException;
 import com.jaya.models.Chat;
@@ -14,6 +15,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -28,6 +30,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Predicate;
 
 @Service
 @EnableAsync
@@ -55,13 +58,24 @@ public class ChatServiceImpl implements ChatService {
     @Autowired
     private UserCacheService userCacheService;
 
+    @Autowired
+    private ChatAuthorizationCache authorizationCache;
+
+    @Autowired
+    private ChatSearchIndexService searchIndexService;
+
+    @Autowired
+    private PresenceDiffBroadcaster presenceBroadcaster;
+
+    private static final int MAX_KEYWORD_SEARCH_RESULTS = 200;
+
     @Override
     public ChatResponse sendOneToOneChat(ChatRequest request, Integer userId) {
-        validateUsers(List.of(userId, request.getRecipientId()));
-        validateFriendship(userId, request.getRecipientId());
+        authorizeOneToOneSend(userId, request.getRecipientId());
 
         Chat chat = toEntity(request, userId);
         Chat savedChat = chatRepository.save(chat);
+        indexForSearch(savedChat);
         ChatResponse response = toResponse(savedChat, userId);
         
         // Pass through tempId for optimistic update matching on frontend
@@ -77,8 +91,7 @@ public class ChatServiceImpl implements ChatService {
     @Override
     public ChatResponse sendGroupChat(ChatRequest request, Integer userId) {
         System.out.println("Main thread: " + Thread.currentThread().getName());
-        validateUsers(List.of(userId));
-        validateGroup(request.getGroupId(), userId);
+        authorizeGroupSend(userId, request.getGroupId());
 
         Chat chat = toEntity(request, userId);
         asyncChatSaver.saveChatAsync(chat);
@@ -137,21 +150,18 @@ public class ChatServiceImpl implements ChatService {
     }
 
     @Override
-    public List<ChatResponse> searchChatsForUser(Integer userId, String keyword) {
+    public ChatSearchResponse searchChatsForUser(Integer userId, String keyword, String cursor) {
         validateUsers(List.of(userId));
-        return chatRepository.findByRecipientIdAndContentContainingIgnoreCaseNotDeleted(userId, keyword)
-                .stream()
-                .map(chat -> toResponse(chat, userId))
-                .toList();
+        return toSearchResponse(searchIndexService.search(ChatSearchScope.recipient(userId), keyword, cursor,
+                MAX_KEYWORD_SEARCH_RESULTS, chat -> !Boolean.TRUE.equals(chat.getDeletedByRecipient())), userId);
     }
 
     @Override
-    public List<ChatResponse> searchChatsForGroup(Integer groupId, String keyword, Integer userId) {
+    public ChatSearchResponse searchChatsForGroup(Integer groupId, String keyword, Integer userId, String cursor) {
         validateGroup(groupId, userId);
-        return chatRepository.findByGroupIdAndContentContainingIgnoreCaseNotDeleted(groupId, keyword, userId)
-                .stream()
-                .map(chat -> toResponse(chat, userId))
-                .toList();
+        return toSearchResponse(searchIndexService.search(ChatSearchScope.group(groupId), keyword, cursor,
+                MAX_KEYWORD_SEARCH_RESULTS, chat -> chat.getDeletedByUsers() == null
+                        || !chat.getDeletedByUsers().contains(userId)), userId);
     }
 
     @Override
@@ -375,6 +385,7 @@ public class ChatServiceImpl implements ChatService {
 
         if (chat.isCompletelyDeleted()) {
             chatRepository.delete(chat);
+            searchIndexService.removeChat(chat.getId());
         }
     }
 
@@ -396,6 +407,7 @@ public class ChatServiceImpl implements ChatService {
         chat.setIsEdited(true);
 
         Chat updatedChat = chatRepository.save(chat);
+        indexForSearch(updatedChat);
         ChatResponse response = toResponse(updatedChat, userId);
 
         notifyMessageEdit(chat, userId);
@@ -425,6 +437,7 @@ public class ChatServiceImpl implements ChatService {
         }
 
         Chat savedReply = chatRepository.save(replyChat);
+        indexForSearch(savedReply);
         ChatResponse response = toResponse(savedReply, userId);
 
         notifyMessageReply(savedReply, originalMessage, userId);
@@ -457,6 +470,7 @@ public class ChatServiceImpl implements ChatService {
         }
 
         Chat savedForward = chatRepository.save(forwardedMessage);
+        indexForSearch(savedForward);
         ChatResponse response = toResponse(savedForward, userId);
 
         notifyMessageForward(savedForward, userId);
@@ -687,33 +701,35 @@ public class ChatServiceImpl implements ChatService {
 
     @Override
     public void startTyping(Integer chatId, String chatType, Integer userId) throws Exception {
-        validateUsers(List.of(userId));
-
-        if ("FRIEND".equals(chatType)) {
-            validateFriendship(userId, chatId);
-            messagingTemplate.convertAndSendToUser(
-                    chatId.toString(), "/queue/typing",
-                    Map.of("userId", userId, "action", "START_TYPING"));
-        } else if ("GROUP".equals(chatType)) {
-            validateGroup(chatId, userId);
-            messagingTemplate.convertAndSend("/topic/group/" + chatId + "/typing",
-                    Map.of("userId", userId, "action", "START_TYPING"));
-        }
+        broadcastTyping(chatId, chatType, userId, true);
     }
 
     @Override
     public void stopTyping(Integer chatId, String chatType, Integer userId) throws Exception {
+        broadcastTyping(chatId, chatType, userId, false);
+    }
+
+    // Goes through the presence broadcaster like STOMP typing frames, so REST callers are coalesced too
+    private void broadcastTyping(Integer chatId, String chatType, Integer userId, boolean typing) throws Exception {
         validateUsers(List.of(userId));
 
+        Map<String, Object> change = new HashMap<>();
+        change.put("senderId", userId);
+        change.put("userId", userId);
+        change.put("isTyping", typing);
+        change.put("action", typing ? "START_TYPING" : "STOP_TYPING");
+        change.put("timestamp", System.currentTimeMillis());
+
         if ("FRIEND".equals(chatType)) {
             validateFriendship(userId, chatId);
-            messagingTemplate.convertAndSendToUser(
-                    chatId.toString(), "/queue/typing",
-                    Map.of("userId", userId, "action", "STOP_TYPING"));
+            change.put("conversationType", "ONE_TO_ONE");
+            change.put("recipientId", chatId);
+            presenceBroadcaster.typingToUser(chatId, userId, change);
         } else if ("GROUP".equals(chatType)) {
             validateGroup(chatId, userId);
-            messagingTemplate.convertAndSend("/topic/group/" + chatId + "/typing",
-                    Map.of("userId", userId, "action", "STOP_TYPING"));
+            change.put("conversationType", "GROUP");
+            change.put("groupId", chatId);
+            presenceBroadcaster.typingToGroup(chatId, userId, change);
         }
     }
 
@@ -746,6 +762,7 @@ public class ChatServiceImpl implements ChatService {
         }
 
         Chat savedChat = chatRepository.save(chat);
+        indexForSearch(savedChat);
         ChatResponse response = toResponse(savedChat, userId);
 
         notifyMediaMessage(savedChat, userId);
@@ -1061,6 +1078,18 @@ public class ChatServiceImpl implements ChatService {
         LocalDateTime fromDate = dateFrom != null ? LocalDateTime.parse(dateFrom) : null;
         LocalDateTime toDate = dateTo != null ? LocalDateTime.parse(dateTo) : null;
 
+        if (query != null && !query.isBlank()) {
+            ChatSearchScope scope = resolveSearchScope(userId, chatType, chatId);
+            Predicate<Chat> filter = searchFilter(userId, messageType, fromDate, toDate);
+            // Ranked index search; page/size are mapped onto the ranked list
+            ChatSearchIndexService.SearchResult result = searchIndexService.search(
+                    scope, query, null, (page + 1) * size, filter);
+            List<Chat> chats = result.chats().stream().skip((long) page * size).toList();
+            userCacheService.preloadUsers(userCacheService.extractSenderIds(chats));
+            List<ChatResponse> content = chats.stream().map(chat -> toResponseCached(chat, userId)).toList();
+            return new PageImpl<>(content, pageable, result.totalCandidates());
+        }
+
         Page<Chat> chatPage;
 
         if ("FRIEND".equals(chatType) && chatId != null) {
@@ -1079,6 +1108,61 @@ public class ChatServiceImpl implements ChatService {
         return chatPage.map(chat -> toResponse(chat, userId));
     }
 
+    @Override
+    public ChatSearchResponse searchMessages(String query, Integer userId, String chatType, Integer chatId,
+            String messageType, String cursor, int limit) throws Exception {
+        validateUsers(List.of(userId));
+
+        ChatSearchScope scope = resolveSearchScope(userId, chatType, chatId);
+        return toSearchResponse(searchIndexService.search(
+                scope, query, cursor, limit, searchFilter(userId, messageType, null, null)), userId);
+    }
+
+    private ChatSearchResponse toSearchResponse(ChatSearchIndexService.SearchResult result, Integer userId) {
+        userCacheService.preloadUsers(userCacheService.extractSenderIds(result.chats()));
+        List<ChatResponse> content = result.chats().stream()
+                .map(chat -> toResponseCached(chat, userId))
+                .toList();
+        return new ChatSearchResponse(content, result.nextCursor(), result.totalCandidates());
+    }
+
+    private ChatSearchScope resolveSearchScope(Integer userId, String chatType, Integer chatId) {
+        if ("FRIEND".equals(chatType) && chatId != null) {
+            validateFriendship(userId, chatId);
+            return ChatSearchScope.directConversation(userId, chatId);
+        }
+        if ("GROUP".equals(chatType) && chatId != null) {
+            validateGroup(chatId, userId);
+            return ChatSearchScope.group(chatId);
+        }
+        return ChatSearchScope.participant(userId, groupService.getUserGroupIds(userId));
+    }
+
+    private Predicate<Chat> searchFilter(Integer userId, String messageType, LocalDateTime fromDate,
+            LocalDateTime toDate) {
+        return chat -> {
+            if (chat.isDeletedByUser(userId)) {
+                return false;
+            }
+            boolean media = Boolean.TRUE.equals(chat.getIsMediaMessage());
+            if ("TEXT".equals(messageType) && media || "MEDIA".equals(messageType) && !media) {
+                return false;
+            }
+            if (fromDate != null && chat.getTimestamp().isBefore(fromDate)) {
+                return false;
+            }
+            return toDate == null || !chat.getTimestamp().isAfter(toDate);
+        };
+    }
+
+    private void indexForSearch(Chat chat) {
+        try {
+            searchIndexService.indexChat(chat);
+        } catch (Exception e) {
+            logger.warn("Failed to index chat {} for search: {}", chat.getId(), e.getMessage());
+        }
+    }
+
     @Override
     public List<ChatResponse> exportChatHistory(Integer userId1, Integer userId2, Integer userId) throws Exception {
         validateUsers(List.of(userId1, userId2, userId));
@@ -1140,6 +1224,24 @@ public class ChatServiceImpl implements ChatService {
         return presenceMap;
     }
 
+    private void authorizeOneToOneSend(Integer userId, Integer recipientId) {
+        if (authorizationCache.isFriend(userId, recipientId)) {
+            return;
+        }
+        validateUsers(List.of(userId, recipientId));
+        validateFriendship(userId, recipientId);
+        authorizationCache.grantFriend(userId, recipientId);
+    }
+
+    private void authorizeGroupSend(Integer userId, Integer groupId) {
+        if (authorizationCache.isGroupMember(userId, groupId)) {
+            return;
+        }
+        validateUsers(List.of(userId));
+        validateGroup(groupId, userId);
+        authorizationCache.grantGroup(userId, groupId);
+    }
+
     private void validateUsers(List<Integer> userIds) {
         for (Integer userId : userIds) {
             try {
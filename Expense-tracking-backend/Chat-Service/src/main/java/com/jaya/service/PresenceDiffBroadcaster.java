@@ -0,0 +1,128 @@
+package com.jaya.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coalesces presence and typing updates into diff frames.
+ *
+ * Updates are buffered per destination and keyed by the user they describe, so only the
+ * latest state of each user survives. A flush every {@code chat.presence.flush-interval-ms}
+ * sends at most one frame per destination: {@code {"changes": [...]}}.
+ */
+@Component
+public class PresenceDiffBroadcaster {
+
+    static final String PRESENCE_DESTINATION = "/topic/presence";
+    static final String TYPING_QUEUE = "/queue/typing";
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Value("${chat.presence.typing-refresh-ms:3000}")
+    private long typingRefreshMillis;
+
+    private final Map<Integer, Map<String, Object>> pendingPresence = new ConcurrentHashMap<>();
+    private final Map<Integer, Map<Integer, Map<String, Object>>> pendingUserTyping = new ConcurrentHashMap<>();
+    private final Map<Integer, Map<Integer, Map<String, Object>>> pendingGroupTyping = new ConcurrentHashMap<>();
+
+    // Last typing state sent per "destination:sender", used to drop repeated keystroke events
+    private final Map<String, TypingState> lastTypingSent = new ConcurrentHashMap<>();
+
+    public void presenceChanged(Integer userId, boolean online, String lastSeen) {
+        Map<String, Object> change = new HashMap<>();
+        change.put("userId", userId);
+        change.put("online", online);
+        if (!online && lastSeen != null) {
+            change.put("lastSeen", lastSeen);
+        }
+        pendingPresence.put(userId, change);
+    }
+
+    public void typingToUser(Integer recipientId, Integer senderId, Map<String, Object> change) {
+        if (isRepeat("u" + recipientId + ":" + senderId, change)) {
+            return;
+        }
+        pendingUserTyping.computeIfAbsent(recipientId, k -> new ConcurrentHashMap<>()).put(senderId, change);
+    }
+
+    public void typingToGroup(Integer groupId, Integer senderId, Map<String, Object> change) {
+        if (isRepeat("g" + groupId + ":" + senderId, change)) {
+            return;
+        }
+        pendingGroupTyping.computeIfAbsent(groupId, k -> new ConcurrentHashMap<>()).put(senderId, change);
+    }
+
+    @Scheduled(fixedDelayString = "${chat.presence.flush-interval-ms:250}")
+    public void flush() {
+        List<Map<String, Object>> presenceChanges = drain(pendingPresence);
+        if (!presenceChanges.isEmpty()) {
+            messagingTemplate.convertAndSend(PRESENCE_DESTINATION, frame(presenceChanges));
+        }
+
+        for (Integer recipientId : new ArrayList<>(pendingUserTyping.keySet())) {
+            Map<Integer, Map<String, Object>> changes = pendingUserTyping.remove(recipientId);
+            if (changes != null && !changes.isEmpty()) {
+                messagingTemplate.convertAndSendToUser(recipientId.toString(), TYPING_QUEUE,
+                        frame(new ArrayList<>(changes.values())));
+            }
+        }
+
+        for (Integer groupId : new ArrayList<>(pendingGroupTyping.keySet())) {
+            Map<Integer, Map<String, Object>> changes = pendingGroupTyping.remove(groupId);
+            if (changes != null && !changes.isEmpty()) {
+                messagingTemplate.convertAndSend("/topic/group/" + groupId + "/typing",
+                        frame(new ArrayList<>(changes.values())));
+            }
+        }
+
+        long cutoff = System.currentTimeMillis() - typingRefreshMillis;
+        lastTypingSent.values().removeIf(state -> state.sentAt < cutoff);
+    }
+
+    private boolean isRepeat(String key, Map<String, Object> change) {
+        boolean typing = Boolean.TRUE.equals(change.get("isTyping"));
+        long now = System.currentTimeMillis();
+        TypingState previous = lastTypingSent.get(key);
+        if (previous != null && previous.typing == typing && now - previous.sentAt < typingRefreshMillis) {
+            return true;
+        }
+        if (typing) {
+            lastTypingSent.put(key, new TypingState(true, now));
+        } else {
+            lastTypingSent.remove(key);
+        }
+        return false;
+    }
+
+    private static List<Map<String, Object>> drain(Map<Integer, Map<String, Object>> pending) {
+        List<Map<String, Object>> changes = new ArrayList<>();
+        for (Integer key : new ArrayList<>(pending.keySet())) {
+            Map<String, Object> change = pending.remove(key);
+            if (change != null) {
+                changes.add(change);
+            }
+        }
+        return changes;
+    }
+
+    private static Map<String, Object> frame(List<Map<String, Object>> changes) {
+        Map<String, Object> frame = new LinkedHashMap<>();
+        frame.put("changes", changes);
+        frame.put("timestamp", System.currentTimeMillis());
+        return frame;
+    }
+
+    private record TypingState(boolean typing, long sentAt) {
+    }
+}
@@ -1,29 +1,54 @@
 package com.jaya.service;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.DefaultTypedTuple;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
+/**
+ * Tracks online presence.
+ *
+ * Presence is shared across instances through a Redis sorted set of userId -> last heartbeat
+ * (epoch millis). Entries older than {@link #ONLINE_TIMEOUT} are swept periodically. Presence
+ * changes are not broadcast directly; they go through {@link PresenceDiffBroadcaster}.
+ */
 @Service
 public class PresenceService {
 
-    private static final String ONLINE_USERS_KEY = "chat:online_users";
+    private static final Logger logger = LoggerFactory.getLogger(PresenceService.class);
+
+    private static final String PRESENCE_KEY = "chat:presence";
     private static final String LAST_SEEN_PREFIX = "chat:last_seen:";
     private static final Duration ONLINE_TIMEOUT = Duration.ofMinutes(5);
 
+    // Returns the expired members with their scores (member, score, ...) and removes exactly those
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SWEEP_SCRIPT = new DefaultRedisScript<>(
+            "local expired = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'WITHSCORES') "
+                    + "if #expired > 0 then redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', ARGV[1]) end "
+                    + "return expired",
+            List.class);
+
     @Autowired(required = false)
     private RedisTemplate<String, String> redisTemplate;
 
     @Autowired
-    private SimpMessagingTemplate messagingTemplate;
+    private PresenceDiffBroadcaster presenceBroadcaster;
 
     private final Map<Integer, LocalDateTime> onlineUsers = new ConcurrentHashMap<>();
     private final Map<Integer, LocalDateTime> lastSeenMap = new ConcurrentHashMap<>();
@@ -32,19 +57,15 @@ public class PresenceService {
     public void setUserOnline(Integer userId, String sessionId) {
         if (userId == null) return;
 
-        userSessions.computeIfAbsent(userId, k -> ConcurrentHashMap.newKeySet()).add(sessionId);
+        Set<String> sessions = userSessions.computeIfAbsent(userId, k -> ConcurrentHashMap.newKeySet());
+        boolean firstSession = sessions.isEmpty();
+        sessions.add(sessionId);
         onlineUsers.put(userId, LocalDateTime.now());
+        touch(userId);
 
-        if (redisTemplate != null) {
-            try {
-                redisTemplate.opsForSet().add(ONLINE_USERS_KEY, userId.toString());
-                redisTemplate.expire(ONLINE_USERS_KEY, ONLINE_TIMEOUT);
-            } catch (Exception e) {
-                // Redis unavailable, use in-memory only
-            }
+        if (firstSession) {
+            presenceBroadcaster.presenceChanged(userId, true, null);
         }
-
-        broadcastPresenceChange(userId, true);
     }
 
     public void setUserOffline(Integer userId, String sessionId) {
@@ -56,21 +77,7 @@ public class PresenceService {
             if (sessions.isEmpty()) {
                 userSessions.remove(userId);
                 onlineUsers.remove(userId);
-                lastSeenMap.put(userId, LocalDateTime.now());
-
-                if (redisTemplate != null) {
-                    try {
-                        redisTemplate.opsForSet().remove(ONLINE_USERS_KEY, userId.toString());
-                        redisTemplate.opsForValue().set(
-                            LAST_SEEN_PREFIX + userId,
-                            LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
-                        );
-                    } catch (Exception e) {
-                        // Redis unavailable
-                    }
-                }
-
-                broadcastPresenceChange(userId, false);
+                markOffline(userId, LocalDateTime.now());
             }
         }
     }
@@ -84,8 +91,8 @@ public class PresenceService {
 
         if (redisTemplate != null) {
             try {
-                Boolean isMember = redisTemplate.opsForSet().isMember(ONLINE_USERS_KEY, userId.toString());
-                return Boolean.TRUE.equals(isMember);
+                Double score = redisTemplate.opsForZSet().score(PRESENCE_KEY, userId.toString());
+                return isFresh(score);
             } catch (Exception e) {
                 // Redis unavailable
             }
@@ -122,23 +129,37 @@ public class PresenceService {
 
     public Map<Integer, Boolean> getOnlineStatusForUsers(List<Integer> userIds) {
         Map<Integer, Boolean> result = new HashMap<>();
+        Set<Integer> online = resolveOnline(userIds);
         for (Integer userId : userIds) {
-            result.put(userId, isUserOnline(userId));
+            result.put(userId, online.contains(userId));
         }
         return result;
     }
 
+    /**
+     * Bulk presence lookup: one ZMSCORE for online state and one MGET for last-seen values,
+     * regardless of list size.
+     */
     public Map<Integer, Object> getPresenceInfoForUsers(List<Integer> userIds) {
         Map<Integer, Object> result = new HashMap<>();
+        if (userIds == null || userIds.isEmpty()) {
+            return result;
+        }
+
+        Set<Integer> online = resolveOnline(userIds);
+        List<Integer> offline = userIds.stream()
+                .filter(id -> id != null && !online.contains(id))
+                .distinct()
+                .toList();
+        Map<Integer, String> lastSeen = resolveLastSeen(offline);
+
         for (Integer userId : userIds) {
+            if (userId == null) continue;
             Map<String, Object> info = new HashMap<>();
-            boolean online = isUserOnline(userId);
-            info.put("online", online);
-            if (!online) {
-                LocalDateTime lastSeen = getLastSeen(userId);
-                if (lastSeen != null) {
-                    info.put("lastSeen", lastSeen.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-                }
+            boolean isOnline = online.contains(userId);
+            info.put("online", isOnline);
+            if (!isOnline && lastSeen.get(userId) != null) {
+                info.put("lastSeen", lastSeen.get(userId));
             }
             result.put(userId, info);
         }
@@ -150,7 +171,8 @@ public class PresenceService {
 
         if (redisTemplate != null) {
             try {
-                Set<String> redisOnline = redisTemplate.opsForSet().members(ONLINE_USERS_KEY);
+                Set<String> redisOnline = redisTemplate.opsForZSet()
+                        .rangeByScore(PRESENCE_KEY, freshnessCutoff(), Double.POSITIVE_INFINITY);
                 if (redisOnline != null) {
                     result.addAll(redisOnline.stream()
                         .map(Integer::parseInt)
@@ -167,30 +189,145 @@ public class PresenceService {
     public void heartbeat(Integer userId) {
         if (userId == null) return;
         onlineUsers.put(userId, LocalDateTime.now());
+        touch(userId);
+    }
+
+    public void updateUserActivity(Integer userId) {
+        if (userId != null && onlineUsers.containsKey(userId)) {
+            onlineUsers.put(userId, LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Refreshes the heartbeat of every locally connected user in one ZADD, then removes
+     * entries whose last heartbeat is older than the timeout and reports them offline.
+     */
+    @Scheduled(fixedDelayString = "${chat.presence.sweep-interval-ms:30000}")
+    public void sweepExpiredPresence() {
+        if (redisTemplate == null) return;
+
+        try {
+            double now = System.currentTimeMillis();
+            Set<ZSetOperations.TypedTuple<String>> heartbeats = userSessions.keySet().stream()
+                    .map(userId -> (ZSetOperations.TypedTuple<String>) new DefaultTypedTuple<>(userId.toString(), now))
+                    .collect(Collectors.toSet());
+            if (!heartbeats.isEmpty()) {
+                redisTemplate.opsForZSet().add(PRESENCE_KEY, heartbeats);
+            }
+
+            // Read and remove in one script, so a heartbeat that lands in between is never deleted
+            List<String> expired = redisTemplate.execute(SWEEP_SCRIPT, List.of(PRESENCE_KEY),
+                    String.valueOf((long) freshnessCutoff()));
+            if (expired == null || expired.isEmpty()) return;
+
+            // Only the instance whose script removed an entry reports that user offline
+            for (int i = 0; i + 1 < expired.size(); i += 2) {
+                Integer userId = Integer.parseInt(expired.get(i));
+                long lastHeartbeat = (long) Double.parseDouble(expired.get(i + 1));
+                onlineUsers.remove(userId);
+                markOffline(userId, LocalDateTime.ofInstant(Instant.ofEpochMilli(lastHeartbeat),
+                        ZoneId.systemDefault()), false);
+            }
+            logger.debug("Swept {} expired presence entries", expired.size() / 2);
+        } catch (Exception e) {
+            logger.debug("Presence sweep skipped: {}", e.getMessage());
+        }
+    }
+
+    private void touch(Integer userId) {
+        if (redisTemplate != null) {
+            try {
+                redisTemplate.opsForZSet().add(PRESENCE_KEY, userId.toString(), System.currentTimeMillis());
+            } catch (Exception e) {
+                // Redis unavailable, use in-memory only
+            }
+        }
+    }
+
+    private void markOffline(Integer userId, LocalDateTime lastSeen) {
+        markOffline(userId, lastSeen, true);
+    }
+
+    // The sweep has already removed the entry atomically; removing it again could drop a fresh heartbeat
+    private void markOffline(Integer userId, LocalDateTime lastSeen, boolean removeEntry) {
+        String formatted = lastSeen.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        lastSeenMap.put(userId, lastSeen);
 
         if (redisTemplate != null) {
             try {
-                redisTemplate.opsForSet().add(ONLINE_USERS_KEY, userId.toString());
+                if (removeEntry) {
+                    redisTemplate.opsForZSet().remove(PRESENCE_KEY, userId.toString());
+                }
+                redisTemplate.opsForValue().set(LAST_SEEN_PREFIX + userId, formatted);
             } catch (Exception e) {
                 // Redis unavailable
             }
         }
+
+        presenceBroadcaster.presenceChanged(userId, false, formatted);
     }
 
-    private void broadcastPresenceChange(Integer userId, boolean isOnline) {
-        Map<String, Object> payload = new HashMap<>();
-        payload.put("userId", userId);
-        payload.put("online", isOnline);
-        if (!isOnline) {
-            payload.put("lastSeen", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+    private Set<Integer> resolveOnline(List<Integer> userIds) {
+        Set<Integer> online = new HashSet<>();
+        List<Integer> remote = new ArrayList<>();
+        for (Integer userId : userIds) {
+            if (userId == null) continue;
+            if (onlineUsers.containsKey(userId)) {
+                online.add(userId);
+            } else {
+                remote.add(userId);
+            }
         }
 
-        messagingTemplate.convertAndSend("/topic/presence", payload);
+        if (redisTemplate != null && !remote.isEmpty()) {
+            try {
+                List<Double> scores = redisTemplate.opsForZSet().score(PRESENCE_KEY,
+                        remote.stream().map(String::valueOf).toArray());
+                for (int i = 0; scores != null && i < remote.size(); i++) {
+                    if (isFresh(scores.get(i))) {
+                        online.add(remote.get(i));
+                    }
+                }
+            } catch (Exception e) {
+                // Redis unavailable
+            }
+        }
+        return online;
     }
 
-    public void updateUserActivity(Integer userId) {
-        if (userId != null && onlineUsers.containsKey(userId)) {
-            onlineUsers.put(userId, LocalDateTime.now());
+    private Map<Integer, String> resolveLastSeen(List<Integer> userIds) {
+        Map<Integer, String> result = new HashMap<>();
+        List<Integer> remote = new ArrayList<>();
+        for (Integer userId : userIds) {
+            LocalDateTime local = lastSeenMap.get(userId);
+            if (local != null) {
+                result.put(userId, local.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            } else {
+                remote.add(userId);
+            }
         }
+
+        if (redisTemplate != null && !remote.isEmpty()) {
+            try {
+                List<String> stored = redisTemplate.opsForValue().multiGet(
+                        remote.stream().map(id -> LAST_SEEN_PREFIX + id).toList());
+                for (int i = 0; stored != null && i < remote.size(); i++) {
+                    if (stored.get(i) != null) {
+                        result.put(remote.get(i), stored.get(i));
+                    }
+                }
+            } catch (Exception e) {
+                // Redis unavailable
+            }
+        }
+        return result;
+    }
+
+    private boolean isFresh(Double score) {
+        return score != null && score >= freshnessCutoff();
+    }
+
+    private double freshnessCutoff() {
+        return System.currentTimeMillis() - ONLINE_TIMEOUT.toMillis();
     }
 }
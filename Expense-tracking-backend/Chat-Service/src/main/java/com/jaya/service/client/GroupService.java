@@ -5,6 +5,7 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.List;
 import java.util.Optional;
 
 @FeignClient(name = "FRIENDSHIP-SERVICE", url = "${FRIENDSHIP_SERVICE_URL:http://localhost:6009}", contextId = "chatGroupClient")
@@ -14,4 +15,7 @@ public interface GroupService {
     @GetMapping("/api/groups/get-group-by-id")
     public Optional<GroupResponseDTO> getGroupByIdwithService(
             @RequestParam Integer id,@RequestParam Integer userId) throws Exception;
+
+    @GetMapping("/api/groups/group-ids")
+    List<Integer> getUserGroupIds(@RequestParam Integer userId);
 }
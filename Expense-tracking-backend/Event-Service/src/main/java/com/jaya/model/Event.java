@@ -65,6 +65,10 @@ public class Event {
     @Column(length = 2000)
     private String notes;
 
+    // Null for events created before event_aggregates existed; their rows are built on first use
+    @Column(name = "aggregates_built")
+    private Boolean aggregatesBuilt = false;
+
     @OneToMany(mappedBy = "event", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<EventExpense> eventExpenses;
 
@@ -0,0 +1,64 @@
+package com.jaya.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * Running sum and entry count of an event's expenses, donations or budgets, either in total or per
+ * category or payment method. Rows are adjusted by the amount of each entry added, edited or
+ * removed, so totals and breakdowns are read without touching the entries themselves.
+ */
+@Entity
+@Table(name = "event_aggregates")
+@IdClass(EventAggregate.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventAggregate {
+
+    @Id
+    @Column(name = "event_id")
+    private Integer eventId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 32)
+    private Dimension dimension;
+
+    @Id
+    @Column(name = "agg_key")
+    private String aggKey;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal amount = BigDecimal.ZERO;
+
+    @Column(name = "entry_count", nullable = false)
+    private long entryCount;
+
+    public enum Dimension {
+        /** Keyed by {@link EventAggregate#EXPENSES}, {@link EventAggregate#DONATIONS} and {@link EventAggregate#BUDGETS}. */
+        TOTAL,
+        EXPENSE_CATEGORY,
+        DONATION_PAYMENT_METHOD,
+        /** Allocated amount per budget category. */
+        BUDGET_CATEGORY
+    }
+
+    public static final String EXPENSES = "EXPENSES";
+    public static final String DONATIONS = "DONATIONS";
+    public static final String BUDGETS = "BUDGETS";
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Integer eventId;
+        private Dimension dimension;
+        private String aggKey;
+    }
+}
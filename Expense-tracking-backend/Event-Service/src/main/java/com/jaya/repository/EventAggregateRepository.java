@@ -0,0 +1,45 @@
+package com.jaya.repository;
+
+import com.jaya.model.EventAggregate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface EventAggregateRepository extends JpaRepository<EventAggregate, EventAggregate.Key> {
+
+    // Scalar reads, so rows changed by the native statements below are never served from the session cache
+
+    /** Key and amount of each row of one dimension. */
+    @Query("SELECT a.aggKey, a.amount FROM EventAggregate a WHERE a.eventId = :eventId AND a.dimension = :dimension")
+    List<Object[]> findAmounts(@Param("eventId") Integer eventId,
+            @Param("dimension") EventAggregate.Dimension dimension);
+
+    /** Dimension, key, amount and entry count of every row of the event. */
+    @Query("SELECT a.dimension, a.aggKey, a.amount, a.entryCount FROM EventAggregate a WHERE a.eventId = :eventId")
+    List<Object[]> findRows(@Param("eventId") Integer eventId);
+
+    /** Adds {@code amount} and {@code count} to the row, creating it on first use. */
+    @Modifying
+    @Query(value = "INSERT INTO event_aggregates (event_id, dimension, agg_key, amount, entry_count) "
+            + "VALUES (:eventId, :dimension, :key, :amount, :count) "
+            + "ON DUPLICATE KEY UPDATE amount = amount + :amount, entry_count = entry_count + :count",
+            nativeQuery = true)
+    int addDelta(@Param("eventId") Integer eventId, @Param("dimension") String dimension,
+            @Param("key") String key, @Param("amount") BigDecimal amount, @Param("count") long count);
+
+    /** Drops breakdown rows whose last entry was removed, as a GROUP BY would not list them. */
+    @Modifying
+    @Query(value = "DELETE FROM event_aggregates WHERE event_id = :eventId AND dimension <> 'TOTAL' "
+            + "AND entry_count <= 0", nativeQuery = true)
+    int deleteEmptyBreakdowns(@Param("eventId") Integer eventId);
+
+    @Modifying
+    @Query("DELETE FROM EventAggregate a WHERE a.eventId = :eventId")
+    int deleteByEventId(@Param("eventId") Integer eventId);
+}
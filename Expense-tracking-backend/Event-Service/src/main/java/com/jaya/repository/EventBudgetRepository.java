@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,9 +18,16 @@ public interface EventBudgetRepository extends JpaRepository<EventBudget, Intege
 
     Optional<EventBudget> findByEventIdAndCategory(Integer eventId, String category);
 
+    List<EventBudget> findByEventId(Integer eventId);
+
+    List<EventBudget> findByEventIdAndCategoryIn(Integer eventId, Collection<String> categories);
+
     @Query("SELECT SUM(eb.allocatedAmount) FROM EventBudget eb WHERE eb.event.id = :eventId")
     BigDecimal getTotalBudgetByEventId(@Param("eventId") Integer eventId);
 
     @Query("SELECT SUM(eb.spentAmount) FROM EventBudget eb WHERE eb.event.id = :eventId")
     BigDecimal getTotalSpentByEventId(@Param("eventId") Integer eventId);
+
+    @Query("SELECT eb.category, SUM(eb.allocatedAmount), COUNT(eb) FROM EventBudget eb WHERE eb.event.id = :eventId GROUP BY eb.category")
+    List<Object[]> getCategoryWiseBudgetCounts(@Param("eventId") Integer eventId);
 }
\ No newline at end of file
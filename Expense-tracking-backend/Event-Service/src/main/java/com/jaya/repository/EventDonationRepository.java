@@ -22,4 +22,7 @@ public interface EventDonationRepository extends JpaRepository<EventDonation, In
 
     @Query("SELECT ed.paymentMethod, SUM(ed.amount) FROM EventDonation ed WHERE ed.event.id = :eventId GROUP BY ed.paymentMethod")
     List<Object[]> getPaymentMethodWiseDonations(@Param("eventId") Integer eventId);
+
+    @Query("SELECT ed.paymentMethod, SUM(ed.amount), COUNT(ed) FROM EventDonation ed WHERE ed.event.id = :eventId GROUP BY ed.paymentMethod")
+    List<Object[]> getPaymentMethodWiseDonationCounts(@Param("eventId") Integer eventId);
 }
\ No newline at end of file
@@ -27,4 +27,7 @@ public interface EventExpenseRepository extends JpaRepository<EventExpense, Inte
 
     @Query("SELECT ee.category, SUM(ee.amount) FROM EventExpense ee WHERE ee.event.id = :eventId GROUP BY ee.category")
     List<Object[]> getCategoryWiseExpenses(@Param("eventId") Integer eventId);
+
+    @Query("SELECT ee.category, SUM(ee.amount), COUNT(ee) FROM EventExpense ee WHERE ee.event.id = :eventId GROUP BY ee.category")
+    List<Object[]> getCategoryWiseExpenseCounts(@Param("eventId") Integer eventId);
 }
\ No newline at end of file
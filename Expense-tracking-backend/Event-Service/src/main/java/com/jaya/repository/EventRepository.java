@@ -1,7 +1,10 @@
 package com.jaya.repository;
 
 import com.jaya.model.Event;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -29,6 +32,17 @@ public interface EventRepository extends JpaRepository<Event, Integer> {
     @Query("SELECT e FROM Event e WHERE e.userId = :userId AND e.startDate <= :date AND e.endDate >= :date")
     List<Event> findActiveEventsByDate(@Param("userId") Integer userId, @Param("date") LocalDate date);
 
+    /** Serializes changes to one event's entries, and their aggregates, with each other and with repairs. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Event e WHERE e.id = :id")
+    Optional<Event> findByIdForUpdate(@Param("id") Integer id);
+
+    @Query("SELECT COUNT(e) FROM Event e WHERE e.id = :id AND (e.aggregatesBuilt IS NULL OR e.aggregatesBuilt = false)")
+    long countWithoutAggregates(@Param("id") Integer id);
+
+    @Query("SELECT e.id FROM Event e WHERE e.id > :afterId ORDER BY e.id")
+    List<Integer> findIdsAfter(@Param("afterId") Integer afterId, Pageable pageable);
+
     @Query("SELECT COUNT(e) FROM Event e WHERE e.userId = :userId AND e.status = :status")
     Long countByUserIdAndStatus(@Param("userId") Integer userId, @Param("status") Event.EventStatus status);
 }
\ No newline at end of file
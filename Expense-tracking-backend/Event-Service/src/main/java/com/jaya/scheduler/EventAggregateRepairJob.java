@@ -0,0 +1,59 @@
+package com.jaya.scheduler;
+
+import com.jaya.repository.EventRepository;
+import com.jaya.service.EventAggregateService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Rebuilds every event's aggregates from its entries, so a total that drifted (e.g. after a manual
+ * data fix) does not persist.
+ * Conditional on scheduling.enabled property to avoid duplicate execution in monolithic mode.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class EventAggregateRepairJob {
+
+    private final EventRepository eventRepository;
+    private final EventAggregateService eventAggregates;
+
+    @Value("${event.aggregates.repair-batch-size:200}")
+    private int repairBatchSize;
+
+    @Scheduled(cron = "${event.aggregates.repair-cron:0 30 3 * * *}")
+    public void repairAggregates() {
+        int checked = 0;
+        int repaired = 0;
+        int afterId = 0;
+        try {
+            List<Integer> eventIds;
+            do {
+                eventIds = eventRepository.findIdsAfter(afterId, PageRequest.of(0, repairBatchSize));
+                for (Integer eventId : eventIds) {
+                    // One transaction per event, so the event row is locked only while it is rebuilt
+                    try {
+                        if (eventAggregates.repair(eventId)) {
+                            repaired++;
+                        }
+                        checked++;
+                    } catch (Exception e) {
+                        log.warn("Could not repair aggregates of event {}: {}", eventId, e.getMessage());
+                    }
+                    afterId = eventId;
+                }
+            } while (eventIds.size() == repairBatchSize);
+            log.info("Checked aggregates of {} events, repaired {}", checked, repaired);
+        } catch (Exception e) {
+            log.error("Error during event aggregate repair", e);
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.jaya.service;
+
+import com.jaya.model.Event;
+import com.jaya.model.EventAggregate;
+import com.jaya.model.EventAggregate.Dimension;
+import com.jaya.model.EventBudget;
+import com.jaya.repository.EventAggregateRepository;
+import com.jaya.repository.EventBudgetRepository;
+import com.jaya.repository.EventDonationRepository;
+import com.jaya.repository.EventExpenseRepository;
+import com.jaya.repository.EventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Keeps {@code event_aggregates} in step with an event's expenses, donations and budgets. Every
+ * add, edit and delete applies the difference it makes to the event's totals and to the affected
+ * category or payment-method rows, in the same transaction as the change itself, so summaries read
+ * a handful of rows however many entries the event has.
+ *
+ * <p>Changes to one event run with the event row locked ({@link #lockEvent}), which also keeps a
+ * {@link #repair} from rebuilding from a snapshot that misses a concurrent change. Events whose
+ * aggregates were never built are rebuilt from their entries the first time they are touched.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class EventAggregateService {
+
+    private final EventRepository eventRepository;
+    private final EventAggregateRepository aggregateRepository;
+    private final EventExpenseRepository eventExpenseRepository;
+    private final EventDonationRepository eventDonationRepository;
+    private final EventBudgetRepository eventBudgetRepository;
+
+    public Event lockEvent(Integer eventId) {
+        return eventRepository.findByIdForUpdate(eventId)
+                .orElseThrow(() -> new RuntimeException("Event not found"));
+    }
+
+    /**
+     * Records an expense added ({@code old*} null), edited, or deleted ({@code new*} null), and
+     * updates the event's totals and the spent amount of the budgets of the categories involved.
+     */
+    public void expenseChanged(Event event, String oldCategory, BigDecimal oldAmount,
+            String newCategory, BigDecimal newAmount) {
+        if (rebuildIfMissing(event)) {
+            return;
+        }
+        applyChange(event.getId(), EventAggregate.EXPENSES, Dimension.EXPENSE_CATEGORY,
+                oldCategory, oldAmount, newCategory, newAmount);
+        Set<String> categories = new HashSet<>();
+        if (oldCategory != null) {
+            categories.add(oldCategory);
+        }
+        if (newCategory != null) {
+            categories.add(newCategory);
+        }
+        refreshTotals(event, categories);
+    }
+
+    public void donationChanged(Event event, String oldPaymentMethod, BigDecimal oldAmount,
+            String newPaymentMethod, BigDecimal newAmount) {
+        if (rebuildIfMissing(event)) {
+            return;
+        }
+        applyChange(event.getId(), EventAggregate.DONATIONS, Dimension.DONATION_PAYMENT_METHOD,
+                oldPaymentMethod, oldAmount, newPaymentMethod, newAmount);
+        refreshTotals(event, Collections.emptySet());
+    }
+
+    /** As {@link #expenseChanged}, for a budget's allocated amount; the new budget's spent amount is set too. */
+    public void budgetChanged(Event event, String oldCategory, BigDecimal oldAllocated,
+            String newCategory, BigDecimal newAllocated) {
+        if (rebuildIfMissing(event)) {
+            return;
+        }
+        applyChange(event.getId(), EventAggregate.BUDGETS, Dimension.BUDGET_CATEGORY,
+                oldCategory, oldAllocated, newCategory, newAllocated);
+        refreshTotals(event, newCategory != null ? Set.of(newCategory) : Collections.emptySet());
+    }
+
+    /** Recomputes the event's totals after its own fields changed, e.g. a new total budget. */
+    public void eventUpdated(Event event) {
+        if (!rebuildIfMissing(event)) {
+            refreshTotals(event, Collections.emptySet());
+        }
+    }
+
+    public void eventDeleted(Integer eventId) {
+        aggregateRepository.deleteByEventId(eventId);
+    }
+
+    public BigDecimal total(Integer eventId, String key) {
+        return breakdown(eventId, Dimension.TOTAL).getOrDefault(key, BigDecimal.ZERO);
+    }
+
+    /** Amount per key of one dimension; empty for an event with no entries or that does not exist. */
+    public Map<String, BigDecimal> breakdown(Integer eventId, Dimension dimension) {
+        if (eventRepository.countWithoutAggregates(eventId) > 0) {
+            rebuild(lockEvent(eventId));
+        }
+        Map<String, BigDecimal> amounts = new HashMap<>();
+        for (Object[] row : aggregateRepository.findAmounts(eventId, dimension)) {
+            amounts.put((String) row[0], (BigDecimal) row[1]);
+        }
+        return amounts;
+    }
+
+    /**
+     * Rebuilds the event's aggregates from its entries and returns whether they had drifted. The
+     * event's totals and every budget's spent amount are recomputed as well.
+     */
+    public boolean repair(Integer eventId) {
+        return rebuild(lockEvent(eventId));
+    }
+
+    private boolean rebuildIfMissing(Event event) {
+        if (Boolean.TRUE.equals(event.getAggregatesBuilt())) {
+            return false;
+        }
+        rebuild(event);
+        return true;
+    }
+
+    private boolean rebuild(Event event) {
+        Integer eventId = event.getId();
+        Map<String, Object[]> expected = new HashMap<>();
+        collect(expected, Dimension.EXPENSE_CATEGORY, EventAggregate.EXPENSES,
+                eventExpenseRepository.getCategoryWiseExpenseCounts(eventId));
+        collect(expected, Dimension.DONATION_PAYMENT_METHOD, EventAggregate.DONATIONS,
+                eventDonationRepository.getPaymentMethodWiseDonationCounts(eventId));
+        collect(expected, Dimension.BUDGET_CATEGORY, EventAggregate.BUDGETS,
+                eventBudgetRepository.getCategoryWiseBudgetCounts(eventId));
+
+        Map<String, Object[]> actual = new HashMap<>();
+        for (Object[] row : aggregateRepository.findRows(eventId)) {
+            actual.put(row[0] + "|" + row[1], new Object[] { row[0], row[1], row[2], row[3] });
+        }
+
+        boolean drifted = !sameRows(expected, actual);
+        if (drifted) {
+            aggregateRepository.deleteByEventId(eventId);
+            for (Object[] row : expected.values()) {
+                aggregateRepository.addDelta(eventId, ((Dimension) row[0]).name(), (String) row[1],
+                        (BigDecimal) row[2], (Long) row[3]);
+            }
+        }
+
+        event.setAggregatesBuilt(true);
+        refreshTotals(event, null);
+        return drifted;
+    }
+
+    // Adds the rows of one breakdown, and the total they sum to, to the expected rows
+    private static void collect(Map<String, Object[]> rows, Dimension dimension, String totalKey,
+            List<Object[]> groups) {
+        BigDecimal total = BigDecimal.ZERO;
+        long count = 0;
+        for (Object[] group : groups) {
+            BigDecimal amount = group[1] != null ? (BigDecimal) group[1] : BigDecimal.ZERO;
+            long entries = ((Number) group[2]).longValue();
+            rows.put(dimension + "|" + group[0], new Object[] { dimension, group[0], amount, entries });
+            total = total.add(amount);
+            count += entries;
+        }
+        rows.put(Dimension.TOTAL + "|" + totalKey, new Object[] { Dimension.TOTAL, totalKey, total, count });
+    }
+
+    private static boolean sameRows(Map<String, Object[]> expected, Map<String, Object[]> actual) {
+        if (!expected.keySet().equals(actual.keySet())) {
+            return false;
+        }
+        for (Map.Entry<String, Object[]> entry : expected.entrySet()) {
+            Object[] want = entry.getValue();
+            Object[] have = actual.get(entry.getKey());
+            if (((BigDecimal) want[2]).compareTo((BigDecimal) have[2]) != 0
+                    || ((Number) want[3]).longValue() != ((Number) have[3]).longValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void applyChange(Integer eventId, String totalKey, Dimension breakdown,
+            String oldKey, BigDecimal oldAmount, String newKey, BigDecimal newAmount) {
+        if (oldAmount != null && newAmount != null && Objects.equals(oldKey, newKey)
+                && oldAmount.compareTo(newAmount) == 0) {
+            return;
+        }
+        if (oldAmount != null) {
+            aggregateRepository.addDelta(eventId, Dimension.TOTAL.name(), totalKey, oldAmount.negate(), -1);
+            aggregateRepository.addDelta(eventId, breakdown.name(), oldKey, oldAmount.negate(), -1);
+        }
+        if (newAmount != null) {
+            aggregateRepository.addDelta(eventId, Dimension.TOTAL.name(), totalKey, newAmount, 1);
+            aggregateRepository.addDelta(eventId, breakdown.name(), newKey, newAmount, 1);
+        }
+        if (oldAmount != null) {
+            aggregateRepository.deleteEmptyBreakdowns(eventId);
+        }
+    }
+
+    /**
+     * Copies the aggregate totals onto the event, and sets spent and remaining on the budgets of
+     * {@code budgetCategories} (all of the event's budgets when null) from the expense breakdown.
+     */
+    private void refreshTotals(Event event, Set<String> budgetCategories) {
+        Integer eventId = event.getId();
+        Map<String, BigDecimal> totals = new HashMap<>();
+        for (Object[] row : aggregateRepository.findAmounts(eventId, Dimension.TOTAL)) {
+            totals.put((String) row[0], (BigDecimal) row[1]);
+        }
+        BigDecimal totalExpenses = totals.getOrDefault(EventAggregate.EXPENSES, BigDecimal.ZERO);
+        BigDecimal totalBudget = totals.getOrDefault(EventAggregate.BUDGETS, BigDecimal.ZERO);
+
+        event.setTotalExpenses(totalExpenses);
+        event.setTotalDonations(totals.getOrDefault(EventAggregate.DONATIONS, BigDecimal.ZERO));
+        if (totalBudget.compareTo(BigDecimal.ZERO) > 0) {
+            event.setTotalBudget(totalBudget);
+        }
+        event.setRemainingBudget(event.getTotalBudget().subtract(totalExpenses));
+        eventRepository.save(event);
+
+        if (budgetCategories != null && budgetCategories.isEmpty()) {
+            return;
+        }
+        List<EventBudget> budgets = budgetCategories == null
+                ? eventBudgetRepository.findByEventId(eventId)
+                : eventBudgetRepository.findByEventIdAndCategoryIn(eventId, budgetCategories);
+        if (budgets.isEmpty()) {
+            return;
+        }
+        Map<String, BigDecimal> spentByCategory = new HashMap<>();
+        for (Object[] row : aggregateRepository.findAmounts(eventId, Dimension.EXPENSE_CATEGORY)) {
+            spentByCategory.put((String) row[0], (BigDecimal) row[1]);
+        }
+        for (EventBudget budget : budgets) {
+            BigDecimal spent = spentByCategory.getOrDefault(budget.getCategory(), BigDecimal.ZERO);
+            budget.setSpentAmount(spent);
+            budget.setRemainingAmount(budget.getAllocatedAmount().subtract(spent));
+        }
+        eventBudgetRepository.saveAll(budgets);
+    }
+}
@@ -3,6 +3,7 @@ package com.jaya.service.impl;
 import com.jaya.dto.*;
 import com.jaya.model.*;
 import com.jaya.repository.*;
+import com.jaya.service.EventAggregateService;
 import com.jaya.service.EventService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -24,6 +25,7 @@ public class EventServiceImpl implements EventService {
     private final EventExpenseRepository eventExpenseRepository;
     private final EventDonationRepository eventDonationRepository;
     private final EventBudgetRepository eventBudgetRepository;
+    private final EventAggregateService eventAggregates;
 
     @Override
     public EventDTO createEvent(EventDTO eventDTO) {
@@ -41,7 +43,7 @@ public class EventServiceImpl implements EventService {
 
         updateEventFields(existingEvent, eventDTO);
         Event updatedEvent = eventRepository.save(existingEvent);
-        updateEventTotals(eventId);
+        eventAggregates.eventUpdated(updatedEvent);
 
         log.info("Updated event: {} for user: {}", updatedEvent.getEventName(), userId);
         return convertToDTO(updatedEvent);
@@ -53,6 +55,7 @@ public class EventServiceImpl implements EventService {
                 .orElseThrow(() -> new RuntimeException("Event not found"));
 
         eventRepository.delete(event);
+        eventAggregates.eventDeleted(eventId);
         log.info("Deleted event: {} for user: {}", event.getEventName(), userId);
     }
 
@@ -95,14 +98,13 @@ public class EventServiceImpl implements EventService {
 
     @Override
     public EventExpenseDTO addExpenseToEvent(EventExpenseDTO expenseDTO) {
-        Event event = eventRepository.findById(expenseDTO.getEventId())
-                .orElseThrow(() -> new RuntimeException("Event not found"));
+        Event event = eventAggregates.lockEvent(expenseDTO.getEventId());
 
         EventExpense expense = convertToExpenseEntity(expenseDTO);
         expense.setEvent(event);
         EventExpense savedExpense = eventExpenseRepository.save(expense);
 
-        updateEventTotals(expenseDTO.getEventId());
+        eventAggregates.expenseChanged(event, null, null, savedExpense.getCategory(), savedExpense.getAmount());
         log.info("Added expense: {} to event: {}", savedExpense.getExpenseName(), event.getEventName());
 
         return convertToExpenseDTO(savedExpense);
@@ -117,9 +119,14 @@ public class EventServiceImpl implements EventService {
             throw new RuntimeException("Unauthorized access to expense");
         }
 
+        Event event = eventAggregates.lockEvent(existingExpense.getEvent().getId());
+        String oldCategory = existingExpense.getCategory();
+        BigDecimal oldAmount = existingExpense.getAmount();
+
         updateExpenseFields(existingExpense, expenseDTO);
         EventExpense updatedExpense = eventExpenseRepository.save(existingExpense);
-        updateEventTotals(existingExpense.getEvent().getId());
+        eventAggregates.expenseChanged(event, oldCategory, oldAmount,
+                updatedExpense.getCategory(), updatedExpense.getAmount());
 
         return convertToExpenseDTO(updatedExpense);
     }
@@ -133,9 +140,9 @@ public class EventServiceImpl implements EventService {
             throw new RuntimeException("Unauthorized access to expense");
         }
 
-        Integer eventId = expense.getEvent().getId();
+        Event event = eventAggregates.lockEvent(expense.getEvent().getId());
         eventExpenseRepository.delete(expense);
-        updateEventTotals(eventId);
+        eventAggregates.expenseChanged(event, expense.getCategory(), expense.getAmount(), null, null);
 
         log.info("Deleted expense: {} for user: {}", expense.getExpenseName(), userId);
     }
@@ -154,34 +161,23 @@ public class EventServiceImpl implements EventService {
 
     @Override
     public BigDecimal getTotalExpensesByEvent(Integer eventId) {
-        BigDecimal total = eventExpenseRepository.getTotalExpensesByEventId(eventId);
-        return total != null ? total : BigDecimal.ZERO;
+        return eventAggregates.total(eventId, EventAggregate.EXPENSES);
     }
 
     @Override
     public Map<String, BigDecimal> getCategoryWiseExpenses(Integer eventId) {
-        List<Object[]> results = eventExpenseRepository.getCategoryWiseExpenses(eventId);
-        Map<String, BigDecimal> categoryExpenses = new HashMap<>();
-
-        for (Object[] result : results) {
-            String category = (String) result[0];
-            BigDecimal amount = (BigDecimal) result[1];
-            categoryExpenses.put(category, amount);
-        }
-
-        return categoryExpenses;
+        return eventAggregates.breakdown(eventId, EventAggregate.Dimension.EXPENSE_CATEGORY);
     }
 
     @Override
     public EventDonationDTO addDonationToEvent(EventDonationDTO donationDTO) {
-        Event event = eventRepository.findById(donationDTO.getEventId())
-                .orElseThrow(() -> new RuntimeException("Event not found"));
+        Event event = eventAggregates.lockEvent(donationDTO.getEventId());
 
         EventDonation donation = convertToDonationEntity(donationDTO);
         donation.setEvent(event);
         EventDonation savedDonation = eventDonationRepository.save(donation);
 
-        updateEventTotals(donationDTO.getEventId());
+        eventAggregates.donationChanged(event, null, null, savedDonation.getPaymentMethod(), savedDonation.getAmount());
         log.info("Added donation from: {} to event: {}", savedDonation.getDonorName(), event.getEventName());
 
         return convertToDonationDTO(savedDonation);
@@ -196,9 +192,14 @@ public class EventServiceImpl implements EventService {
             throw new RuntimeException("Unauthorized access to donation");
         }
 
+        Event event = eventAggregates.lockEvent(existingDonation.getEvent().getId());
+        String oldPaymentMethod = existingDonation.getPaymentMethod();
+        BigDecimal oldAmount = existingDonation.getAmount();
+
         updateDonationFields(existingDonation, donationDTO);
         EventDonation updatedDonation = eventDonationRepository.save(existingDonation);
-        updateEventTotals(existingDonation.getEvent().getId());
+        eventAggregates.donationChanged(event, oldPaymentMethod, oldAmount,
+                updatedDonation.getPaymentMethod(), updatedDonation.getAmount());
 
         return convertToDonationDTO(updatedDonation);
     }
@@ -212,9 +213,9 @@ public class EventServiceImpl implements EventService {
             throw new RuntimeException("Unauthorized access to donation");
         }
 
-        Integer eventId = donation.getEvent().getId();
+        Event event = eventAggregates.lockEvent(donation.getEvent().getId());
         eventDonationRepository.delete(donation);
-        updateEventTotals(eventId);
+        eventAggregates.donationChanged(event, donation.getPaymentMethod(), donation.getAmount(), null, null);
 
         log.info("Deleted donation from: {} for user: {}", donation.getDonorName(), userId);
     }
@@ -227,35 +228,24 @@ public class EventServiceImpl implements EventService {
 
     @Override
     public BigDecimal getTotalDonationsByEvent(Integer eventId) {
-        BigDecimal total = eventDonationRepository.getTotalDonationsByEventId(eventId);
-        return total != null ? total : BigDecimal.ZERO;
+        return eventAggregates.total(eventId, EventAggregate.DONATIONS);
     }
 
     @Override
     public Map<String, BigDecimal> getPaymentMethodWiseDonations(Integer eventId) {
-        List<Object[]> results = eventDonationRepository.getPaymentMethodWiseDonations(eventId);
-        Map<String, BigDecimal> paymentMethodDonations = new HashMap<>();
-
-        for (Object[] result : results) {
-            String paymentMethod = (String) result[0];
-            BigDecimal amount = (BigDecimal) result[1];
-            paymentMethodDonations.put(paymentMethod, amount);
-        }
-
-        return paymentMethodDonations;
+        return eventAggregates.breakdown(eventId, EventAggregate.Dimension.DONATION_PAYMENT_METHOD);
     }
 
     @Override
     public EventBudgetDTO createEventBudget(EventBudgetDTO budgetDTO) {
-        Event event = eventRepository.findById(budgetDTO.getEventId())
-                .orElseThrow(() -> new RuntimeException("Event not found"));
+        Event event = eventAggregates.lockEvent(budgetDTO.getEventId());
 
         EventBudget budget = convertToBudgetEntity(budgetDTO);
         budget.setEvent(event);
         budget.setRemainingAmount(budget.getAllocatedAmount());
         EventBudget savedBudget = eventBudgetRepository.save(budget);
 
-        updateEventTotals(budgetDTO.getEventId());
+        eventAggregates.budgetChanged(event, null, null, savedBudget.getCategory(), savedBudget.getAllocatedAmount());
         log.info("Created budget for category: {} in event: {}", savedBudget.getCategory(), event.getEventName());
 
         return convertToBudgetDTO(savedBudget);
@@ -270,9 +260,14 @@ public class EventServiceImpl implements EventService {
             throw new RuntimeException("Unauthorized access to budget");
         }
 
+        Event event = eventAggregates.lockEvent(existingBudget.getEvent().getId());
+        String oldCategory = existingBudget.getCategory();
+        BigDecimal oldAllocated = existingBudget.getAllocatedAmount();
+
         updateBudgetFields(existingBudget, budgetDTO);
         EventBudget updatedBudget = eventBudgetRepository.save(existingBudget);
-        updateEventTotals(existingBudget.getEvent().getId());
+        eventAggregates.budgetChanged(event, oldCategory, oldAllocated,
+                updatedBudget.getCategory(), updatedBudget.getAllocatedAmount());
 
         return convertToBudgetDTO(updatedBudget);
     }
@@ -286,9 +281,9 @@ public class EventServiceImpl implements EventService {
             throw new RuntimeException("Unauthorized access to budget");
         }
 
-        Integer eventId = budget.getEvent().getId();
+        Event event = eventAggregates.lockEvent(budget.getEvent().getId());
         eventBudgetRepository.delete(budget);
-        updateEventTotals(eventId);
+        eventAggregates.budgetChanged(event, budget.getCategory(), budget.getAllocatedAmount(), null, null);
 
         log.info("Deleted budget for category: {} for user: {}", budget.getCategory(), userId);
     }
@@ -301,8 +296,7 @@ public class EventServiceImpl implements EventService {
 
     @Override
     public BigDecimal getTotalBudgetByEvent(Integer eventId) {
-        BigDecimal total = eventBudgetRepository.getTotalBudgetByEventId(eventId);
-        return total != null ? total : BigDecimal.ZERO;
+        return eventAggregates.total(eventId, EventAggregate.BUDGETS);
     }
 
     @Override
@@ -310,14 +304,17 @@ public class EventServiceImpl implements EventService {
         Event event = eventRepository.findByIdAndUserId(eventId, userId)
                 .orElseThrow(() -> new RuntimeException("Event not found"));
 
+        Map<String, BigDecimal> categoryWiseExpenses = getCategoryWiseExpenses(eventId);
+        Map<String, BigDecimal> paymentMethodWiseDonations = getPaymentMethodWiseDonations(eventId);
+
         Map<String, Object> summary = new HashMap<>();
         summary.put("event", convertToDTO(event));
         summary.put("totalBudget", event.getTotalBudget());
         summary.put("totalExpenses", event.getTotalExpenses());
         summary.put("totalDonations", event.getTotalDonations());
         summary.put("remainingBudget", event.getRemainingBudget());
-        summary.put("categoryWiseExpenses", getCategoryWiseExpenses(eventId));
-        summary.put("paymentMethodWiseDonations", getPaymentMethodWiseDonations(eventId));
+        summary.put("categoryWiseExpenses", categoryWiseExpenses);
+        summary.put("paymentMethodWiseDonations", paymentMethodWiseDonations);
 
         return summary;
     }
@@ -383,23 +380,10 @@ public class EventServiceImpl implements EventService {
 
     @Override
     public void updateEventTotals(Integer eventId) {
-        Event event = eventRepository.findById(eventId)
-                .orElseThrow(() -> new RuntimeException("Event not found"));
-
-        BigDecimal totalExpenses = getTotalExpensesByEvent(eventId);
-        BigDecimal totalDonations = getTotalDonationsByEvent(eventId);
-        BigDecimal totalBudget = getTotalBudgetByEvent(eventId);
-
-        event.setTotalExpenses(totalExpenses);
-        event.setTotalDonations(totalDonations);
-        if (totalBudget.compareTo(BigDecimal.ZERO) > 0) {
-            event.setTotalBudget(totalBudget);
+        // Entry changes maintain the totals themselves; this recomputes them from scratch
+        if (eventAggregates.repair(eventId)) {
+            log.warn("Event {} aggregates had drifted from its entries and were rebuilt", eventId);
         }
-        event.setRemainingBudget(event.getTotalBudget().subtract(totalExpenses));
-
-        eventRepository.save(event);
-
-        updateBudgetSpentAmounts(eventId);
     }
 
     @Override
@@ -429,23 +413,6 @@ public class EventServiceImpl implements EventService {
         return statusCounts;
     }
 
-    private void updateBudgetSpentAmounts(Integer eventId) {
-        List<EventBudget> budgets = eventBudgetRepository.findByEventIdAndUserId(eventId, null);
-
-        for (EventBudget budget : budgets) {
-            BigDecimal spentAmount = eventExpenseRepository.getTotalExpensesByEventIdAndCategory(
-                    eventId, budget.getCategory());
-
-            if (spentAmount == null) {
-                spentAmount = BigDecimal.ZERO;
-            }
-
-            budget.setSpentAmount(spentAmount);
-            budget.setRemainingAmount(budget.getAllocatedAmount().subtract(spentAmount));
-            eventBudgetRepository.save(budget);
-        }
-    }
-
     private Event convertToEntity(EventDTO dto) {
         Event event = new Event();
         event.setId(dto.getId());
@@ -14,14 +14,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
-import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
-import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.atomic.AtomicInteger;
 
 @Component
 public class AsyncExpensePostProcessor {
@@ -33,18 +30,18 @@ public class AsyncExpensePostProcessor {
     private final CategoryExpenseKafkaProducerService categoryExpenseKafkaProducer;
     private final BudgetExpenseKafkaProducerService budgetExpenseKafkaProducerService;
     private final CacheManager cacheManager;
-    private final AsyncTaskExecutor expensePostExecutor;
+    private final int maxIdsPerEvent;
 
     public AsyncExpensePostProcessor(PaymentMethodKafkaProducerService paymentMethodKafkaProducer,
             CategoryExpenseKafkaProducerService categoryExpenseKafkaProducer,
             BudgetExpenseKafkaProducerService budgetExpenseKafkaProducerService,
             CacheManager cacheManager,
-            @Qualifier("expensePostExecutor") AsyncTaskExecutor expensePostExecutor) {
+            @Value("${expense.post-processing.max-ids-per-event:5000}") int maxIdsPerEvent) {
         this.paymentMethodKafkaProducer = paymentMethodKafkaProducer;
         this.categoryExpenseKafkaProducer = categoryExpenseKafkaProducer;
         this.budgetExpenseKafkaProducerService = budgetExpenseKafkaProducerService;
         this.cacheManager = cacheManager;
-        this.expensePostExecutor = expensePostExecutor;
+        this.maxIdsPerEvent = Math.max(1, maxIdsPerEvent);
     }
 
     @Async("expensePostExecutor")
@@ -52,23 +49,14 @@ public class AsyncExpensePostProcessor {
         if (savedExpenses == null || savedExpenses.isEmpty())
             return;
         try {
-            int chunkSize = 1000;
-            List<CompletableFuture<Void>> futures = new ArrayList<>();
-            for (int i = 0; i < savedExpenses.size(); i += chunkSize) {
-                int from = i;
-                int to = Math.min(i + chunkSize, savedExpenses.size());
-                List<Expense> chunk = savedExpenses.subList(from, to);
-                futures.add(CompletableFuture.runAsync(() -> {
-                    for (Expense e : chunk) {
-                        processSingleExpense(e, userId, UserDTO);
-                    }
-                }, expensePostExecutor));
-            }
-            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+            long start = System.currentTimeMillis();
+            EventCounts counts = publishCoalesced(savedExpenses, userId, UserDTO.getId(), "ADD");
             updateExpenseCache(savedExpenses, userId);
-            logger.info("Async post-processing completed for {} expenses (UserDTO {})", savedExpenses.size(), userId);
+            logger.info("Async post-processing completed for {} expenses (UserDTO {}): {} events instead of {} in {} ms",
+                    savedExpenses.size(), userId, counts.total(), counts.perExpenseTotal(),
+                    System.currentTimeMillis() - start);
         } catch (Exception ex) {
-            logger.error("Async parallel post-processing failed: {}", ex.getMessage(), ex);
+            logger.error("Async post-processing failed: {}", ex.getMessage(), ex);
         }
     }
 
@@ -76,136 +64,165 @@ public class AsyncExpensePostProcessor {
     public void publishEvent(List<Expense> savedExpenses, Integer userId, UserDTO UserDTO, String jobId) {
         if (savedExpenses == null || savedExpenses.isEmpty())
             return;
-        AtomicInteger pmCount = new AtomicInteger(0);
-        AtomicInteger catCount = new AtomicInteger(0);
-        AtomicInteger budCount = new AtomicInteger(0);
-        AtomicInteger failed = new AtomicInteger(0);
         try {
-            int chunkSize = 1000;
-            List<CompletableFuture<Void>> futures = new ArrayList<>();
-            for (int i = 0; i < savedExpenses.size(); i += chunkSize) {
-                int from = i;
-                int to = Math.min(i + chunkSize, savedExpenses.size());
-                List<Expense> chunk = savedExpenses.subList(from, to);
-                futures.add(CompletableFuture.runAsync(() -> {
-                    for (Expense e : chunk) {
-                        processSingleExpenseTracked(e, userId, UserDTO, pmCount, catCount, budCount, failed);
-                    }
-                }, expensePostExecutor));
-            }
-            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+            long start = System.currentTimeMillis();
+            EventCounts counts = publishCoalesced(savedExpenses, userId, UserDTO.getId(), "ADD");
             updateExpenseCache(savedExpenses, userId);
-            int pm = pmCount.get();
-            int cat = catCount.get();
-            int bud = budCount.get();
-            int total = pm + cat + bud;
             logger.info(
-                    "Job {}: total events produced: {} (payment: {}, category: {}, BudgetModel: {}), failures: {}, expenses: {} (UserDTO {})",
-                    jobId, total, pm, cat, bud, failed.get(), savedExpenses.size(), userId);
+                    "Job {}: total events produced: {} (payment: {}, category: {}, BudgetModel: {}) instead of {} per-expense events, failures: {}, expenses: {} (UserDTO {}) in {} ms",
+                    jobId, counts.total(), counts.payment, counts.category, counts.budget, counts.perExpenseTotal(),
+                    counts.failed, savedExpenses.size(), userId, System.currentTimeMillis() - start);
         } catch (Exception ex) {
             logger.error("Job {}: Async post-processing failed: {}", jobId, ex.getMessage(), ex);
         }
     }
 
-    private void processSingleExpense(Expense e, Integer userId, UserDTO UserDTO) {
-        try {
-            handlePaymentMethod(e, UserDTO);
-            updateCategoryExpenseIds(e, userId);
-            updateBudgetExpenseLinks(e, e.getBudgetIds(), UserDTO);
-        } catch (Exception ex) {
-            logger.error("Failed processing expense {}: {}", e.getId(), ex.getMessage(), ex);
-        }
-    }
+    /**
+     * Groups expenses per (user, payment method), (user, category) and (user, budget)
+     * and sends one event per group carrying the expense id list, split into
+     * chunks of {@code maxIdsPerEvent} to keep messages well under the broker limit.
+     * An event for one expense keeps the old shape with {@code expenseId} set; an event
+     * for several sets {@code expenseIds} instead and leaves {@code expenseId} null. The
+     * consuming services' copies of these event classes carry the same two fields.
+     */
+    private EventCounts publishCoalesced(List<Expense> expenses, Integer userId, Integer ownerId, String action) {
+        EventCounts counts = new EventCounts();
+        boolean removal = "REMOVE".equals(action);
 
-    private void processSingleExpenseTracked(Expense savedExpense, Integer userId, UserDTO UserDTO,
-            AtomicInteger pmCount, AtomicInteger catCount,
-            AtomicInteger budCount, AtomicInteger failed) {
-        try {
-            ExpenseDetails details = savedExpense.getExpense();
+        Map<String, List<Integer>> byPaymentMethod = new LinkedHashMap<>();
+        Map<String, String[]> paymentMethodInfo = new HashMap<>();
+        Map<Integer, List<Integer>> byCategory = new LinkedHashMap<>();
+        Map<Integer, String> categoryNames = new HashMap<>();
+        Map<Integer, List<Integer>> byBudget = new LinkedHashMap<>();
+
+        for (Expense e : expenses) {
+            ExpenseDetails details = e.getExpense();
             if (details != null && details.getPaymentMethod() != null) {
                 String paymentMethodName = details.getPaymentMethod().trim();
                 if (!paymentMethodName.isEmpty()) {
-                    String paymentType = details.getType().equalsIgnoreCase("loss") ? "expense" : "income";
+                    String paymentType = details.getType() != null && details.getType().equalsIgnoreCase("loss")
+                            ? "expense"
+                            : "income";
+                    String key = paymentMethodName.toLowerCase() + "|" + paymentType;
+                    byPaymentMethod.computeIfAbsent(key, k -> new ArrayList<>()).add(e.getId());
+                    paymentMethodInfo.putIfAbsent(key, new String[] { paymentMethodName, paymentType });
+                    counts.perExpensePayment++;
+                }
+            }
+            if (e.getCategoryId() != null) {
+                byCategory.computeIfAbsent(e.getCategoryId(), k -> new ArrayList<>()).add(e.getId());
+                categoryNames.putIfAbsent(e.getCategoryId(), e.getCategoryName());
+                counts.perExpenseCategory++;
+            }
+            Set<Integer> budgetIds = e.getBudgetIds();
+            if (budgetIds != null && !budgetIds.isEmpty()) {
+                for (Integer budgetId : budgetIds) {
+                    byBudget.computeIfAbsent(budgetId, k -> new ArrayList<>()).add(e.getId());
+                }
+                counts.perExpenseBudget++;
+            }
+        }
+
+        byPaymentMethod.forEach((key, ids) -> {
+            String[] info = paymentMethodInfo.get(key);
+            for (List<Integer> chunk : partition(ids)) {
+                try {
                     PaymentMethodEvent event = new PaymentMethodEvent(
-                            UserDTO.getId(),
-                            savedExpense.getId(),
-                            paymentMethodName,
-                            paymentType,
-                            "Automatically created for expense: " + paymentMethodName,
+                            ownerId,
+                            singleId(chunk),
+                            info[0],
+                            info[1],
+                            removal ? "Expense deletion" : "Automatically created for expense: " + info[0],
                             CASH,
-                            getThemeAppropriateColor("salary"),
-                            "CREATE");
+                            getThemeAppropriateColor(removal ? info[0] : "salary"),
+                            removal ? "REMOVE" : "CREATE");
+                    event.setExpenseIds(bulkIds(chunk));
                     paymentMethodKafkaProducer.sendPaymentMethodEvent(event);
-                    pmCount.incrementAndGet();
+                    counts.payment++;
+                } catch (Exception ex) {
+                    counts.failed++;
+                    logger.error("Failed to send payment method event for {} ({} expenses): {}",
+                            info[0], chunk.size(), ex.getMessage(), ex);
                 }
             }
-            if (savedExpense.getCategoryId() != null) {
-                CategoryExpenseEvent event = new CategoryExpenseEvent(
-                        userId,
-                        savedExpense.getId(),
-                        savedExpense.getCategoryId(),
-                        savedExpense.getCategoryName(),
-                        "ADD");
-                categoryExpenseKafkaProducer.sendCategoryExpenseEvent(event);
-                catCount.incrementAndGet();
+        });
+
+        byCategory.forEach((categoryId, ids) -> {
+            for (List<Integer> chunk : partition(ids)) {
+                try {
+                    CategoryExpenseEvent event = new CategoryExpenseEvent(
+                            userId,
+                            singleId(chunk),
+                            categoryId,
+                            categoryNames.get(categoryId),
+                            action);
+                    event.setExpenseIds(bulkIds(chunk));
+                    categoryExpenseKafkaProducer.sendCategoryExpenseEvent(event);
+                    counts.category++;
+                } catch (Exception ex) {
+                    counts.failed++;
+                    logger.error("Failed to send category expense event for category {} ({} expenses): {}",
+                            categoryId, chunk.size(), ex.getMessage(), ex);
+                }
             }
-            Set<Integer> validBudgetIds = savedExpense.getBudgetIds();
-            if (validBudgetIds != null && !validBudgetIds.isEmpty()) {
-                BudgetExpenseEvent event = new BudgetExpenseEvent(
-                        UserDTO.getId(),
-                        savedExpense.getId(),
-                        validBudgetIds,
-                        "ADD");
-                budgetExpenseKafkaProducerService.sendBudgetExpenseEvent(event);
-                budCount.incrementAndGet();
+        });
+
+        byBudget.forEach((budgetId, ids) -> {
+            for (List<Integer> chunk : partition(ids)) {
+                try {
+                    BudgetExpenseEvent event = new BudgetExpenseEvent(
+                            removal ? userId : ownerId,
+                            singleId(chunk),
+                            Set.of(budgetId),
+                            action);
+                    event.setExpenseIds(bulkIds(chunk));
+                    budgetExpenseKafkaProducerService.sendBudgetExpenseEvent(event);
+                    counts.budget++;
+                } catch (Exception ex) {
+                    counts.failed++;
+                    logger.error("Failed to send BudgetModel expense event for budget {} ({} expenses): {}",
+                            budgetId, chunk.size(), ex.getMessage(), ex);
+                }
             }
-        } catch (Exception ex) {
-            failed.incrementAndGet();
-            logger.error("Failed processing expense {}: {}", savedExpense.getId(), ex.getMessage(), ex);
-        }
+        });
+        return counts;
     }
 
-    private void handlePaymentMethod(Expense savedExpense, UserDTO UserDTO) {
-        ExpenseDetails details = savedExpense.getExpense();
-        if (details == null || details.getPaymentMethod() == null)
-            return;
-        String paymentMethodName = details.getPaymentMethod().trim();
-        if (paymentMethodName.isEmpty())
-            return;
-        String paymentType = details.getType().equalsIgnoreCase("loss") ? "expense" : "income";
-        PaymentMethodEvent event = new PaymentMethodEvent(
-                UserDTO.getId(),
-                savedExpense.getId(),
-                paymentMethodName,
-                paymentType,
-                "Automatically created for expense: " + paymentMethodName,
-                CASH,
-                getThemeAppropriateColor("salary"),
-                "CREATE");
-        paymentMethodKafkaProducer.sendPaymentMethodEvent(event);
+    // A group of one is sent in the original single-expense shape
+    private Integer singleId(List<Integer> chunk) {
+        return chunk.size() == 1 ? chunk.get(0) : null;
     }
 
-    private void updateCategoryExpenseIds(Expense savedExpense, Integer userId) {
-        if (savedExpense.getCategoryId() == null)
-            return;
-        CategoryExpenseEvent event = new CategoryExpenseEvent(
-                userId,
-                savedExpense.getId(),
-                savedExpense.getCategoryId(),
-                savedExpense.getCategoryName(),
-                "ADD");
-        categoryExpenseKafkaProducer.sendCategoryExpenseEvent(event);
+    private List<Integer> bulkIds(List<Integer> chunk) {
+        return chunk.size() == 1 ? null : chunk;
     }
 
-    private void updateBudgetExpenseLinks(Expense savedExpense, Set<Integer> validBudgetIds, UserDTO UserDTO) {
-        if (validBudgetIds == null || validBudgetIds.isEmpty())
-            return;
-        BudgetExpenseEvent event = new BudgetExpenseEvent(
-                UserDTO.getId(),
-                savedExpense.getId(),
-                validBudgetIds,
-                "ADD");
-        budgetExpenseKafkaProducerService.sendBudgetExpenseEvent(event);
+    private List<List<Integer>> partition(List<Integer> ids) {
+        if (ids.size() <= maxIdsPerEvent)
+            return List.of(ids);
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += maxIdsPerEvent) {
+            chunks.add(new ArrayList<>(ids.subList(i, Math.min(i + maxIdsPerEvent, ids.size()))));
+        }
+        return chunks;
+    }
+
+    private static final class EventCounts {
+        int payment;
+        int category;
+        int budget;
+        int failed;
+        int perExpensePayment;
+        int perExpenseCategory;
+        int perExpenseBudget;
+
+        int total() {
+            return payment + category + budget;
+        }
+
+        int perExpenseTotal() {
+            return perExpensePayment + perExpenseCategory + perExpenseBudget;
+        }
     }
 
     private void updateExpenseCache(List<Expense> savedExpenses, Integer userId) {
@@ -237,100 +254,13 @@ public class AsyncExpensePostProcessor {
         }
 
         try {
-            List<CompletableFuture<Void>> futures = deletedExpenses.stream()
-                    .map(expense -> CompletableFuture.runAsync(
-                            () -> processSingleExpenseDeletion(expense, userId),
-                            expensePostExecutor))
-                    .toList();
-
-            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
-            logger.info("Async deletion event processing completed for {} expenses (UserDTO {})",
-                    deletedExpenses.size(), userId);
+            long start = System.currentTimeMillis();
+            EventCounts counts = publishCoalesced(deletedExpenses, userId, userId, "REMOVE");
+            logger.info("Async deletion event processing completed for {} expenses (UserDTO {}): {} events instead of {} in {} ms",
+                    deletedExpenses.size(), userId, counts.total(), counts.perExpenseTotal(),
+                    System.currentTimeMillis() - start);
         } catch (Exception ex) {
             logger.error("Async deletion event processing failed: {}", ex.getMessage(), ex);
         }
     }
-
-    private void processSingleExpenseDeletion(Expense expense, Integer userId) {
-        try {
-            publishBudgetExpenseDeletionEvent(expense, userId);
-
-            publishCategoryExpenseDeletionEvent(expense, userId);
-
-            publishPaymentMethodExpenseDeletionEvent(expense, userId);
-
-            logger.debug("Deletion events published for expense ID: {}", expense.getId());
-        } catch (Exception e) {
-            logger.error("Failed to publish deletion events for expense ID: {} - {}",
-                    expense.getId(), e.getMessage(), e);
-        }
-    }
-
-    private void publishBudgetExpenseDeletionEvent(Expense expense, Integer userId) {
-        Set<Integer> budgetIds = expense.getBudgetIds();
-        if (budgetIds != null && !budgetIds.isEmpty()) {
-            try {
-                BudgetExpenseEvent budgetEvent = new BudgetExpenseEvent(
-                        userId,
-                        expense.getId(),
-                        budgetIds,
-                        "REMOVE");
-                budgetExpenseKafkaProducerService.sendBudgetExpenseEvent(budgetEvent);
-                logger.debug("BudgetModel expense deletion event sent for expense ID: {} with BudgetModel IDs: {}",
-                        expense.getId(), budgetIds);
-            } catch (Exception e) {
-                logger.error("Failed to send BudgetModel expense deletion event for expense ID: {} - {}",
-                        expense.getId(), e.getMessage());
-            }
-        }
-    }
-
-    private void publishCategoryExpenseDeletionEvent(Expense expense, Integer userId) {
-        Integer categoryId = expense.getCategoryId();
-        if (categoryId != null) {
-            try {
-                CategoryExpenseEvent categoryEvent = new CategoryExpenseEvent(
-                        userId,
-                        expense.getId(),
-                        categoryId,
-                        expense.getCategoryName(),
-                        "REMOVE");
-                categoryExpenseKafkaProducer.sendCategoryExpenseEvent(categoryEvent);
-                logger.debug("ExpenseCategory expense deletion event sent for expense ID: {} with category ID: {}",
-                        expense.getId(), categoryId);
-            } catch (Exception e) {
-                logger.error("Failed to send category expense deletion event for expense ID: {} - {}",
-                        expense.getId(), e.getMessage());
-            }
-        }
-    }
-
-    private void publishPaymentMethodExpenseDeletionEvent(Expense expense, Integer userId) {
-        ExpenseDetails details = expense.getExpense();
-        if (details != null && details.getPaymentMethod() != null && !details.getPaymentMethod().trim().isEmpty()) {
-            try {
-                String paymentMethodName = details.getPaymentMethod().trim();
-                String paymentType = (details.getType() != null && details.getType().equalsIgnoreCase("loss"))
-                        ? "expense"
-                        : "income";
-
-                PaymentMethodEvent paymentEvent = new PaymentMethodEvent(
-                        userId,
-                        expense.getId(),
-                        paymentMethodName,
-                        paymentType,
-                        "Expense deletion",
-                        CASH,
-                        getThemeAppropriateColor(paymentMethodName),
-                        "REMOVE");
-                paymentMethodKafkaProducer.sendPaymentMethodEvent(paymentEvent);
-                logger.debug("Payment method expense deletion event sent for expense ID: {} with payment method: {}",
-                        expense.getId(), paymentMethodName);
-            } catch (Exception e) {
-                logger.error("Failed to send payment method expense deletion event for expense ID: {} - {}",
-                        expense.getId(), e.getMessage());
-            }
-        }
-    }
 }
-
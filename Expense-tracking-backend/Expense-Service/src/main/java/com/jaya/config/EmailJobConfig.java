@@ -0,0 +1,32 @@
+package com.jaya.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Workers of the email job queue. The poller never claims more jobs than there are threads,
+ * so the small queue only absorbs hand-off between a claim and a thread picking it up.
+ */
+@Configuration
+@EnableScheduling
+public class EmailJobConfig {
+
+    @Value("${expense.email-jobs.workers:4}")
+    private int workers;
+
+    @Bean(name = "emailJobExecutor")
+    public ThreadPoolTaskExecutor emailJobExecutor() {
+        ThreadPoolTaskExecutor ex = new ThreadPoolTaskExecutor();
+        ex.setCorePoolSize(workers);
+        ex.setMaxPoolSize(workers);
+        ex.setQueueCapacity(workers);
+        ex.setThreadNamePrefix("EmailJob-");
+        ex.setWaitForTasksToCompleteOnShutdown(true);
+        ex.setAwaitTerminationSeconds(30);
+        ex.initialize();
+        return ex;
+    }
+}
@@ -1,17 +1,17 @@
 package com.jaya.controller;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Map;
 
 import com.jaya.common.dto.UserDTO;
 import com.jaya.common.service.client.IUserServiceClient;
+import com.jaya.dto.EmailJobResponse;
+import com.jaya.models.EmailReportType;
 import com.jaya.service.*;
+import com.jaya.service.emailjob.EmailJobService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
@@ -20,8 +20,6 @@ import org.springframework.web.bind.annotation.*;
 
 import com.jaya.models.DailySummary;
 
-import jakarta.mail.MessagingException;
-
 @RestController
 @RequestMapping("/daily-summary")
 public class DailySummaryController {
@@ -65,55 +63,32 @@ public class DailySummaryController {
     }
 
     @Autowired
-    private ExcelService excelService;
-
-    @Autowired
-    private EmailService emailService;
+    private EmailJobService emailJobService;
 
     @GetMapping("/monthly/email")
-    public ResponseEntity<String> sendDailySummariesByEmail(
+    public ResponseEntity<EmailJobResponse> sendDailySummariesByEmail(
             @RequestParam Integer year,
             @RequestParam Integer month,
-            @RequestParam String email, @RequestHeader("Authorization") String jwt)
-            throws IOException, MessagingException {
+            @RequestParam String email, @RequestHeader("Authorization") String jwt) {
         UserDTO reqUser = IUserServiceClient.getUserProfile(jwt);
-        List<DailySummary> summaries = dailySummaryService.getDailySummaries(year, month, reqUser);
-
-        ByteArrayInputStream in = excelService.generateDailySummariesExcel(summaries);
-        byte[] bytes = in.readAllBytes();
-
-        String subject = "Daily Summaries for " + year + "-" + month;
-        emailService.sendEmailWithAttachment(email, subject,
-                "Please find attached the daily summaries for " + year + "-" + month + ".",
-                new ByteArrayResource(bytes), "daily_summaries_" + year + "_" + month + ".xlsx");
-
-        return ResponseEntity.ok("Email sent successfully");
+        return ResponseEntity.accepted().body(emailJobService.enqueue(reqUser, email,
+                EmailReportType.DAILY_SUMMARIES_MONTHLY,
+                Map.of("year", String.valueOf(year), "month", String.valueOf(month))));
     }
 
     @GetMapping("/yearly/email")
-    public ResponseEntity<String> sendYearlySummariesByEmail(
+    public ResponseEntity<EmailJobResponse> sendYearlySummariesByEmail(
             @RequestParam Integer year,
-            @RequestParam String email, @RequestHeader("Authorization") String jwt)
-            throws IOException, MessagingException {
+            @RequestParam String email, @RequestHeader("Authorization") String jwt) {
         UserDTO reqUser = IUserServiceClient.getUserProfile(jwt);
-        List<DailySummary> summaries = dailySummaryService.getYearlySummaries(year, reqUser);
-
-        ByteArrayInputStream in = excelService.generateYearlySummariesExcel(summaries);
-        byte[] bytes = in.readAllBytes();
-
-        String subject = "Yearly Summaries for " + year;
-        emailService.sendEmailWithAttachment(email, subject,
-                "Please find attached the yearly summaries for " + year + ".", new ByteArrayResource(bytes),
-                "yearly_summaries_" + year + ".xlsx");
-
-        return ResponseEntity.ok("Email sent successfully");
+        return ResponseEntity.accepted().body(emailJobService.enqueue(reqUser, email,
+                EmailReportType.DAILY_SUMMARIES_YEARLY, Map.of("year", String.valueOf(year))));
     }
 
     @GetMapping("/date/email/{date}")
-    public ResponseEntity<String> sendDailySummaryByEmail(
+    public ResponseEntity<?> sendDailySummaryByEmail(
             @PathVariable String date,
-            @RequestParam String email, @RequestHeader("Authorization") String jwt)
-            throws IOException, MessagingException {
+            @RequestParam String email, @RequestHeader("Authorization") String jwt) {
         UserDTO reqUser = IUserServiceClient.getUserProfile(jwt);
         LocalDate parsedDate;
         try {
@@ -123,22 +98,8 @@ public class DailySummaryController {
                     .body("{\"message\": \"Invalid date format. Please use yyyy-MM-dd.\"}");
         }
 
-        DailySummary dailySummary = dailySummaryService.getDailySummaryForDate(parsedDate, reqUser);
-
-        if (dailySummary == null) {
-            return ResponseEntity.status(HttpStatus.NO_CONTENT)
-                    .body("{\"message\": \"No daily summary is found for the date " + parsedDate + "\"}");
-        }
-
-        ByteArrayInputStream in = excelService.generateDailySummaryExcel(dailySummary);
-        byte[] bytes = in.readAllBytes();
-
-        String subject = "Daily Summary for " + parsedDate + LocalDateTime.now();
-        emailService.sendEmailWithAttachment(email, subject,
-                "Please find attached the daily summary for " + parsedDate + ".", new ByteArrayResource(bytes),
-                "daily_summary_" + parsedDate + ".xlsx");
-
-        return ResponseEntity.ok("Email sent successfully");
+        return ResponseEntity.accepted().body(emailJobService.enqueue(reqUser, email,
+                EmailReportType.DAILY_SUMMARY_DATE, Map.of("date", parsedDate.toString())));
     }
 
 }
@@ -2,6 +2,7 @@ package com.jaya.controller;
 
 import com.jaya.common.dto.UserDTO;
 import com.jaya.common.service.client.IUserServiceClient;
+import com.jaya.dto.EmailJobResponse;
 import com.jaya.dto.ExpenseSearchDTO;
 import com.jaya.dto.ProgressStatus;
 import com.jaya.exceptions.UserException;
@@ -34,6 +35,7 @@ import com.jaya.dto.ExpenseDetailsDTO;
 import com.jaya.mapper.ExpenseMapper;
 import com.jaya.dto.cashflow.CashflowDashboardResponse;
 import com.jaya.service.cashflow.CashflowAggregationService;
+import com.jaya.service.emailjob.EmailJobService;
 
 import jakarta.mail.MessagingException;
 
@@ -70,6 +72,7 @@ public class ExpenseController extends BaseExpenseController {
     private final com.jaya.service.BillExportClient billExportClient;
     private final CashflowAggregationService cashflowAggregationService;
     private final com.jaya.service.ExpenseViewService expenseViewService;
+    private final EmailJobService emailJobService;
 
     @Autowired
     public ExpenseController(ExpenseService expenseService,
@@ -87,7 +90,8 @@ public class ExpenseController extends BaseExpenseController {
             ReportHistoryService reportHistoryService,
             com.jaya.service.BillExportClient billExportClient,
             CashflowAggregationService cashflowAggregationService,
-            com.jaya.service.ExpenseViewService expenseViewService) {
+            com.jaya.service.ExpenseViewService expenseViewService,
+            EmailJobService emailJobService) {
         this.helper = helper;
         this.IUserServiceClient = IUserServiceClient;
         this.excelService = excelService;
@@ -100,6 +104,7 @@ public class ExpenseController extends BaseExpenseController {
         this.billExportClient = billExportClient;
         this.cashflowAggregationService = cashflowAggregationService;
         this.expenseViewService = expenseViewService;
+        this.emailJobService = emailJobService;
     }
 
     @PostMapping("/add-expense")
@@ -1067,108 +1072,38 @@ public class ExpenseController extends BaseExpenseController {
     }
 
     @GetMapping("/current-month/email")
-    public ResponseEntity<String> sendCurrentMonthExpensesEmail(
+    public ResponseEntity<EmailJobResponse> sendCurrentMonthExpensesEmail(
             @RequestParam String email,
             @RequestHeader("Authorization") String jwt,
             @RequestParam(required = false) Integer targetId) throws Exception {
 
         UserDTO targetUser = getTargetUserWithPermission(jwt, targetId, false);
-        String reportName = "Current Month Expenses Report";
-        String reportType = "Current Month";
-        String fileName = "current_month_expenses.xlsx";
-
-        try {
-            List<Expense> expenses = expenseService.getExpensesForCurrentMonth(targetUser.getId());
-            ByteArrayInputStream in = excelService.generateExcel(expenses);
-            byte[] bytes = in.readAllBytes();
-
-            
-            emailService.sendEmailWithAttachment(
-                    email,
-                    reportName,
-                    "Please find attached the current month expenses.",
-                    new ByteArrayResource(bytes),
-                    fileName);
-
-            
-            LocalDate now = LocalDate.now();
-            Map<String, Object> filters = reportHistoryService.createFilterMap(
-                    "month", String.valueOf(now.getMonthValue()),
-                    "year", String.valueOf(now.getYear()));
-            reportHistoryService.logReportSuccess(
-                    targetUser,
-                    reportName,
-                    reportType,
-                    "Current month expense report",
-                    email,
-                    expenses.size(),
-                    fileName,
-                    filters);
-
-            return ResponseEntity.ok("Email sent successfully");
-
-        } catch (Exception e) {
-            
-            reportHistoryService.logReportFailure(
-                    targetUser,
-                    reportName,
-                    reportType,
-                    "Current month expense report",
-                    email,
-                    e.getMessage(),
-                    null);
-            throw e;
-        }
+        LocalDate now = LocalDate.now();
+        return queueReportEmail(targetUser, email, EmailReportType.EXPENSES_CURRENT_MONTH,
+                Map.of("month", String.valueOf(now.getMonthValue()), "year", String.valueOf(now.getYear())));
     }
 
     @GetMapping("/expenses/last-month/email")
-    public ResponseEntity<?> sendLastMonthExpensesEmail(
+    public ResponseEntity<EmailJobResponse> sendLastMonthExpensesEmail(
             @RequestParam String email,
             @RequestHeader("Authorization") String jwt,
             @RequestParam(required = false) Integer targetId) throws Exception {
 
         UserDTO targetUser = getTargetUserWithPermission(jwt, targetId, false);
-
-        List<Expense> expenses = expenseService.getExpensesForLastMonth(targetUser.getId());
-        ByteArrayInputStream in = excelService.generateExcel(expenses);
-        byte[] bytes = in.readAllBytes();
-
-        String subject = "Last Month's Expenses Report";
-        emailService.sendEmailWithAttachment(
-                email,
-                subject,
-                "Please find attached the last month's expenses.",
-                new ByteArrayResource(bytes),
-                "last_month_expenses.xlsx");
-
-        return ResponseEntity.ok("Email sent successfully");
-
+        return queueReportEmail(targetUser, email, EmailReportType.EXPENSES_LAST_MONTH, Map.of());
     }
 
     @GetMapping("/by-month/email")
-    public ResponseEntity<String> sendExpensesByMonthAndYearEmail(
+    public ResponseEntity<EmailJobResponse> sendExpensesByMonthAndYearEmail(
             @RequestParam int month,
             @RequestParam int year,
-            @RequestHeader("Authorization") String jwt,
             @RequestParam String email,
+            @RequestHeader("Authorization") String jwt,
             @RequestParam(required = false) Integer targetId) throws Exception {
 
         UserDTO targetUser = getTargetUserWithPermission(jwt, targetId, false);
-
-        List<Expense> expenses = expenseService.getExpensesByMonthAndYear(month, year, targetUser.getId());
-        ByteArrayInputStream in = excelService.generateExcel(expenses);
-        byte[] bytes = in.readAllBytes();
-
-        String subject = "Expenses Report for " + month + "/" + year;
-        emailService.sendEmailWithAttachment(
-                email,
-                subject,
-                "Please find attached the expenses report for " + month + "/" + year + ".",
-                new ByteArrayResource(bytes),
-                "expenses_" + month + "_" + year + ".xlsx");
-
-        return ResponseEntity.ok("Email sent successfully");
-
+        return queueReportEmail(targetUser, email, EmailReportType.EXPENSES_BY_MONTH,
+                Map.of("month", String.valueOf(month), "year", String.valueOf(year)));
     }
 
     @GetMapping("/email/all")
@@ -1384,7 +1319,7 @@ public class ExpenseController extends BaseExpenseController {
     }
 
     @GetMapping("/{type}/{paymentMethod}/email")
-    public ResponseEntity<String> sendExpensesByTypeAndPaymentMethodEmail(
+    public ResponseEntity<EmailJobResponse> sendExpensesByTypeAndPaymentMethodEmail(
             @PathVariable String type,
             @PathVariable String paymentMethod,
             @RequestParam String email,
@@ -1392,202 +1327,68 @@ public class ExpenseController extends BaseExpenseController {
             @RequestParam(required = false) Integer targetId) throws Exception {
 
         UserDTO targetUser = getTargetUserWithPermission(jwt, targetId, false);
-
-        List<Expense> expenses = expenseService.getExpensesByTypeAndPaymentMethod(type, paymentMethod,
-                targetUser.getId());
-        if (expenses.isEmpty()) {
-            return ResponseEntity.noContent().build();
-        }
-
-        ByteArrayInputStream in = excelService.generateExcel(expenses);
-        byte[] bytes = in.readAllBytes();
-
-        String subject = "Expenses Report for Type: " + type + " and Payment Method: " + paymentMethod;
-        emailService.sendEmailWithAttachment(
-                email,
-                subject,
-                "Please find attached the expenses report for type: " + type + " and payment method: " + paymentMethod
-                        + ".",
-                new ByteArrayResource(bytes),
-                "expenses_" + type + "_" + paymentMethod + ".xlsx");
-
-        return ResponseEntity.ok("Email sent successfully");
-
+        return queueReportEmail(targetUser, email, EmailReportType.EXPENSES_BY_TYPE_AND_PAYMENT_METHOD,
+                Map.of("type", type, "paymentMethod", paymentMethod));
     }
 
     @GetMapping("/fetch-expenses-by-date/email")
-    public ResponseEntity<String> sendExpensesByDateRangeEmail(
+    public ResponseEntity<EmailJobResponse> sendExpensesByDateRangeEmail(
             @RequestParam LocalDate from,
             @RequestParam LocalDate to,
-            @RequestHeader("Authorization") String jwt,
             @RequestParam String email,
+            @RequestHeader("Authorization") String jwt,
             @RequestParam(required = false) Integer targetId) throws Exception {
 
         UserDTO targetUser = getTargetUserWithPermission(jwt, targetId, false);
-
-        List<Expense> expenses = expenseService.getExpensesByDateRange(from, to, targetUser.getId());
-        if (expenses.isEmpty()) {
-            return ResponseEntity.noContent().build();
-        }
-
-        ByteArrayInputStream in = excelService.generateExcel(expenses);
-        byte[] bytes = in.readAllBytes();
-
-        String subject = "Expenses Report from " + from + " to " + to;
-        emailService.sendEmailWithAttachment(
-                email,
-                subject,
-                "Please find attached the expenses report from " + from + " to " + to + ".",
-                new ByteArrayResource(bytes),
-                "expenses_" + from + "_to_" + to + ".xlsx");
-
-        return ResponseEntity.ok("Email sent successfully");
-
+        return queueReportEmail(targetUser, email, EmailReportType.EXPENSES_BY_DATE_RANGE,
+                Map.of("from", from.toString(), "to", to.toString()));
     }
 
     @GetMapping("/expenses/gain/email")
-    public ResponseEntity<String> sendGainExpensesEmail(
+    public ResponseEntity<EmailJobResponse> sendGainExpensesEmail(
             @RequestParam String email,
             @RequestHeader("Authorization") String jwt,
             @RequestParam(required = false) Integer targetId) throws Exception {
 
         UserDTO targetUser = getTargetUserWithPermission(jwt, targetId, false);
-
-        List<Expense> expenses = expenseService.getExpensesByType("gain", targetUser.getId());
-
-        ByteArrayInputStream in = excelService.generateExcel(expenses);
-        byte[] bytes = in.readAllBytes();
-
-        String subject = "Gain Expenses Report";
-        emailService.sendEmailWithAttachment(
-                email,
-                subject,
-                "Please find attached the gain expenses report.",
-                new ByteArrayResource(bytes),
-                "gain_expenses.xlsx");
-
-        return ResponseEntity.ok("Email sent successfully");
-
+        return queueReportEmail(targetUser, email, EmailReportType.EXPENSES_GAIN, Map.of());
     }
 
     @GetMapping("/expenses/loss/email")
-    public ResponseEntity<String> sendLossExpensesEmail(
+    public ResponseEntity<EmailJobResponse> sendLossExpensesEmail(
             @RequestParam String email,
             @RequestHeader("Authorization") String jwt,
             @RequestParam(required = false) Integer targetId) throws Exception {
 
         UserDTO targetUser = getTargetUserWithPermission(jwt, targetId, false);
-
-        List<Expense> expenses = expenseService.getLossExpenses(targetUser.getId());
-        if (expenses.isEmpty()) {
-            return ResponseEntity.noContent().build();
-        }
-
-        ByteArrayInputStream in = excelService.generateExcel(expenses);
-        byte[] bytes = in.readAllBytes();
-
-        String subject = "Loss Expenses Report";
-        emailService.sendEmailWithAttachment(
-                email,
-                subject,
-                "Please find attached the loss expenses report.",
-                new ByteArrayResource(bytes),
-                "loss_expenses.xlsx");
-
-        return ResponseEntity.ok("Email sent successfully");
-
+        return queueReportEmail(targetUser, email, EmailReportType.EXPENSES_LOSS, Map.of());
     }
 
     @GetMapping("/expenses/today/email")
-    public ResponseEntity<?> sendExpensesForTodayEmail(
+    public ResponseEntity<EmailJobResponse> sendExpensesForTodayEmail(
             @RequestParam String email,
             @RequestHeader("Authorization") String jwt,
             @RequestParam(required = false) Integer targetId) throws Exception {
 
         UserDTO targetUser = getTargetUserWithPermission(jwt, targetId, false);
-        String reportName = "Today's Expenses Report";
-        String reportType = "Today";
-        String fileName = "today_expenses.xlsx";
-
-        try {
-            List<Expense> expenses = expenseService.getExpensesForToday(targetUser.getId());
-
-            ByteArrayInputStream in;
-            if (expenses.isEmpty()) {
-                in = excelService.generateEmptyExcelWithColumns();
-            } else {
-                in = excelService.generateExcel(expenses);
-            }
-            byte[] bytes = in.readAllBytes();
-
-            String subject = reportName;
-            emailService.sendEmailWithAttachment(
-                    email,
-                    subject,
-                    "Please find attached today's expenses report.",
-                    new ByteArrayResource(bytes),
-                    fileName);
-
-            
-            Map<String, Object> filters = reportHistoryService.createFilterMap("date", LocalDate.now().toString());
-            reportHistoryService.logReportSuccess(
-                    targetUser,
-                    reportName,
-                    reportType,
-                    "Today's expense report",
-                    email,
-                    expenses.size(),
-                    fileName,
-                    filters);
-
-            return ResponseEntity.ok("Email sent successfully");
-
-        } catch (Exception e) {
-            
-            reportHistoryService.logReportFailure(
-                    targetUser,
-                    reportName,
-                    reportType,
-                    "Today's expense report",
-                    email,
-                    e.getMessage(),
-                    null);
-            throw e;
-        }
+        return queueReportEmail(targetUser, email, EmailReportType.EXPENSES_TODAY,
+                Map.of("date", LocalDate.now().toString()));
     }
 
     @GetMapping("/payment-method/{paymentMethod}/email")
-    public ResponseEntity<String> sendExpensesByPaymentMethodEmail(
+    public ResponseEntity<EmailJobResponse> sendExpensesByPaymentMethodEmail(
             @PathVariable String paymentMethod,
-            @RequestHeader("Authorization") String jwt,
             @RequestParam String email,
+            @RequestHeader("Authorization") String jwt,
             @RequestParam(required = false) Integer targetId) throws Exception {
 
         UserDTO targetUser = getTargetUserWithPermission(jwt, targetId, false);
-
-        List<Expense> expenses = expenseService.getExpensesByPaymentMethod(paymentMethod, targetUser.getId());
-
-        ByteArrayInputStream in;
-        if (expenses.isEmpty()) {
-            in = excelService.generateEmptyExcelWithColumns();
-        } else {
-            in = excelService.generateExcel(expenses);
-        }
-        byte[] bytes = in.readAllBytes();
-
-        String subject = "Expenses Report for Payment Method: " + paymentMethod;
-        emailService.sendEmailWithAttachment(
-                email,
-                subject,
-                "Please find attached the expenses report for payment method: " + paymentMethod + ".",
-                new ByteArrayResource(bytes),
-                "expenses_" + paymentMethod + ".xlsx");
-
-        return ResponseEntity.ok("Email sent successfully");
+        return queueReportEmail(targetUser, email, EmailReportType.EXPENSES_BY_PAYMENT_METHOD,
+                Map.of("paymentMethod", paymentMethod));
     }
 
     @GetMapping("/expenses/amount-range/email")
-    public ResponseEntity<String> sendExpenseDetailsByAmountRangeEmail(
+    public ResponseEntity<EmailJobResponse> sendExpenseDetailsByAmountRangeEmail(
             @RequestParam double minAmount,
             @RequestParam double maxAmount,
             @RequestParam String email,
@@ -1595,63 +1396,24 @@ public class ExpenseController extends BaseExpenseController {
             @RequestParam(required = false) Integer targetId) throws Exception {
 
         UserDTO targetUser = getTargetUserWithPermission(jwt, targetId, false);
-
-        List<Expense> expenseDetails = expenseService.getExpenseDetailsByAmountRange(minAmount, maxAmount,
-                targetUser.getId());
-
-        ByteArrayInputStream in;
-        if (expenseDetails.isEmpty()) {
-            in = excelService.generateEmptyExcelWithColumns();
-        } else {
-            in = excelService.generateExpenseDetailsExcel(expenseDetails);
-        }
-        byte[] bytes = in.readAllBytes();
-
-        String subject = "Expense Details Report for Amount Range: " + minAmount + " - " + maxAmount;
-        emailService.sendEmailWithAttachment(
-                email,
-                subject,
-                "Please find attached the expense details report for amount range: " + minAmount + " - " + maxAmount
-                        + ".",
-                new ByteArrayResource(bytes),
-                "expense_details_" + minAmount + "_" + maxAmount + ".xlsx");
-
-        return ResponseEntity.ok("Email sent successfully");
-
+        return queueReportEmail(targetUser, email, EmailReportType.EXPENSES_BY_AMOUNT_RANGE,
+                Map.of("minAmount", String.valueOf(minAmount), "maxAmount", String.valueOf(maxAmount)));
     }
 
     @GetMapping("/expenses/search/email")
-    public ResponseEntity<String> sendSearchExpensesByEmail(
+    public ResponseEntity<EmailJobResponse> sendSearchExpensesByEmail(
             @RequestParam String expenseName,
             @RequestParam String email,
             @RequestHeader("Authorization") String jwt,
             @RequestParam(required = false) Integer targetId) throws Exception {
 
         UserDTO targetUser = getTargetUserWithPermission(jwt, targetId, false);
-
-        List<Expense> expenses = expenseService.searchExpensesByName(expenseName, targetUser.getId());
-
-        ByteArrayInputStream in;
-        if (expenses.isEmpty()) {
-            in = excelService.generateEmptyExcelWithColumns();
-        } else {
-            in = excelService.generateExcel(expenses);
-        }
-        byte[] bytes = in.readAllBytes();
-
-        String subject = "Expense Search Results for: " + expenseName;
-        emailService.sendEmailWithAttachment(
-                email,
-                subject,
-                "Please find attached the expense search results for: " + expenseName + ".",
-                new ByteArrayResource(bytes),
-                "expense_search_results_" + expenseName + ".xlsx");
-
-        return ResponseEntity.ok("Email sent successfully");
+        return queueReportEmail(targetUser, email, EmailReportType.EXPENSES_SEARCH,
+                Map.of("expenseName", expenseName));
     }
 
     @GetMapping("/monthly-summary/{year}/{month}/email")
-    public ResponseEntity<String> sendMonthlySummaryByEmail(
+    public ResponseEntity<EmailJobResponse> sendMonthlySummaryByEmail(
             @PathVariable Integer year,
             @PathVariable Integer month,
             @RequestParam String email,
@@ -1659,74 +1421,34 @@ public class ExpenseController extends BaseExpenseController {
             @RequestParam(required = false) Integer targetId) throws Exception {
 
         UserDTO targetUser = getTargetUserWithPermission(jwt, targetId, false);
-
-        MonthlySummary summary = expenseService.getMonthlySummary(year, month, targetUser.getId());
-
-        ByteArrayInputStream in = excelService.generateMonthlySummaryExcel(summary);
-        byte[] bytes = in.readAllBytes();
-
-        String subject = "Monthly Summary for " + year + "-" + month;
-        emailService.sendEmailWithAttachment(
-                email,
-                subject,
-                "Please find attached the monthly summary for " + year + "-" + month + ".",
-                new ByteArrayResource(bytes),
-                "monthly_summary_" + year + "_" + month + ".xlsx");
-
-        return ResponseEntity.ok("Email sent successfully");
+        return queueReportEmail(targetUser, email, EmailReportType.MONTHLY_SUMMARY,
+                Map.of("year", String.valueOf(year), "month", String.valueOf(month)));
     }
 
     @GetMapping("/payment-method-summary/email")
-    public ResponseEntity<String> sendPaymentMethodSummaryByEmail(
+    public ResponseEntity<EmailJobResponse> sendPaymentMethodSummaryByEmail(
             @RequestParam String email,
             @RequestHeader("Authorization") String jwt,
             @RequestParam(required = false) Integer targetId) throws Exception {
 
         UserDTO targetUser = getTargetUserWithPermission(jwt, targetId, false);
-
-        Map<String, Map<String, Double>> summary = expenseService.getPaymentMethodSummary(targetUser.getId());
-
-        ByteArrayInputStream in = excelService.generatePaymentMethodSummaryExcel(summary);
-        byte[] bytes = in.readAllBytes();
-
-        String subject = "Payment Method Summary";
-        emailService.sendEmailWithAttachment(
-                email,
-                subject,
-                "Please find attached the payment method summary.",
-                new ByteArrayResource(bytes),
-                "payment_method_summary.xlsx");
-
-        return ResponseEntity.ok("Email sent successfully");
+        return queueReportEmail(targetUser, email, EmailReportType.PAYMENT_METHOD_SUMMARY, Map.of());
     }
 
     @GetMapping("/yearly-summary/email")
-    public ResponseEntity<String> sendYearlySummaryByEmail(
+    public ResponseEntity<EmailJobResponse> sendYearlySummaryByEmail(
             @RequestParam Integer year,
             @RequestParam String email,
             @RequestHeader("Authorization") String jwt,
             @RequestParam(required = false) Integer targetId) throws Exception {
 
         UserDTO targetUser = getTargetUserWithPermission(jwt, targetId, false);
-
-        Map<String, MonthlySummary> summary = expenseService.getYearlySummary(year, targetUser.getId());
-
-        ByteArrayInputStream in = excelService.generateYearlySummaryExcel(summary);
-        byte[] bytes = in.readAllBytes();
-
-        String subject = "Yearly Summary for " + year;
-        emailService.sendEmailWithAttachment(
-                email,
-                subject,
-                "Please find attached the yearly summary for " + year + ".",
-                new ByteArrayResource(bytes),
-                "yearly_summary_" + year + ".xlsx");
-
-        return ResponseEntity.ok("Email sent successfully");
+        return queueReportEmail(targetUser, email, EmailReportType.YEARLY_SUMMARY,
+                Map.of("year", String.valueOf(year)));
     }
 
     @GetMapping("/between-dates/email")
-    public ResponseEntity<String> sendSummaryBetweenDatesByEmail(
+    public ResponseEntity<EmailJobResponse> sendSummaryBetweenDatesByEmail(
             @RequestParam Integer startYear,
             @RequestParam Integer startMonth,
             @RequestParam Integer endYear,
@@ -1736,22 +1458,9 @@ public class ExpenseController extends BaseExpenseController {
             @RequestParam(required = false) Integer targetId) throws Exception {
 
         UserDTO targetUser = getTargetUserWithPermission(jwt, targetId, false);
-
-        List<MonthlySummary> summaries = expenseService.getSummaryBetweenDates(startYear, startMonth, endYear, endMonth,
-                targetUser.getId());
-
-        ByteArrayInputStream in = excelService.generateMonthlySummariesExcel(summaries);
-        byte[] bytes = in.readAllBytes();
-
-        String subject = "Monthly Summaries from " + startMonth + "/" + startYear + " to " + endMonth + "/" + endYear;
-        emailService.sendEmailWithAttachment(
-                email,
-                subject,
-                "Please find attached the monthly summaries.",
-                new ByteArrayResource(bytes),
-                "monthly_summaries.xlsx");
-
-        return ResponseEntity.ok("Email sent successfully");
+        return queueReportEmail(targetUser, email, EmailReportType.SUMMARIES_BETWEEN_DATES,
+                Map.of("startYear", String.valueOf(startYear), "startMonth", String.valueOf(startMonth),
+                        "endYear", String.valueOf(endYear), "endMonth", String.valueOf(endMonth)));
     }
 
     @GetMapping("/dropdown-values")
@@ -1841,97 +1550,26 @@ public class ExpenseController extends BaseExpenseController {
     
 
     @GetMapping("/expenses/yesterday/email")
-    public ResponseEntity<String> sendYesterdayExpensesEmail(
+    public ResponseEntity<EmailJobResponse> sendYesterdayExpensesEmail(
             @RequestParam String email,
             @RequestHeader("Authorization") String jwt,
             @RequestParam(required = false) Integer targetId) throws Exception {
 
         UserDTO targetUser = getTargetUserWithPermission(jwt, targetId, false);
-        String reportName = "Yesterday's Expenses Report";
-        String reportType = "Yesterday";
-        String fileName = "yesterday_expenses.xlsx";
-
-        try {
-            List<Expense> expenses = expenseService.getExpensesByDate(LocalDate.now().minusDays(1), targetUser.getId());
-
-            ByteArrayInputStream in;
-            if (expenses.isEmpty()) {
-                in = excelService.generateEmptyExcelWithColumns();
-            } else {
-                in = excelService.generateExcel(expenses);
-            }
-            byte[] bytes = in.readAllBytes();
-
-            String subject = reportName;
-            emailService.sendEmailWithAttachment(
-                    email,
-                    subject,
-                    "Please find attached the list of expenses for yesterday.",
-                    new ByteArrayResource(bytes),
-                    fileName);
-
-            
-            Map<String, Object> filters = reportHistoryService.createFilterMap("date",
-                    LocalDate.now().minusDays(1).toString());
-            reportHistoryService.logReportSuccess(
-                    targetUser,
-                    reportName,
-                    reportType,
-                    "Yesterday's expense report",
-                    email,
-                    expenses.size(),
-                    fileName,
-                    filters);
-
-            return ResponseEntity.ok("Yesterday's expenses report sent successfully");
-
-        } catch (Exception e) {
-            
-            reportHistoryService.logReportFailure(
-                    targetUser,
-                    reportName,
-                    reportType,
-                    "Yesterday's expense report",
-                    email,
-                    e.getMessage(),
-                    null);
-            throw e;
-        }
+        return queueReportEmail(targetUser, email, EmailReportType.EXPENSES_YESTERDAY,
+                Map.of("date", LocalDate.now().minusDays(1).toString()));
     }
 
     @GetMapping("/expenses/date/email")
-    public ResponseEntity<String> sendDateExpensesEmail(
+    public ResponseEntity<EmailJobResponse> sendDateExpensesEmail(
             @RequestParam String date,
             @RequestParam String email,
             @RequestHeader("Authorization") String jwt,
             @RequestParam(required = false) Integer targetId) throws Exception {
 
         UserDTO targetUser = getTargetUserWithPermission(jwt, targetId, false);
-
-        LocalDate specificDate;
-
-        specificDate = LocalDate.parse(date);
-
-        List<Expense> expenses = expenseService.getExpensesByDate(specificDate, targetUser.getId());
-
-        ByteArrayInputStream in;
-        if (expenses.isEmpty()) {
-            in = excelService.generateEmptyExcelWithColumns();
-        } else {
-            in = excelService.generateExcel(expenses);
-        }
-        byte[] bytes = in.readAllBytes();
-
-        String subject = "Expenses Report for " + date;
-        emailService.sendEmailWithAttachment(
-                email,
-                subject,
-                "Please find attached the list of expenses for the date " + date + ".",
-                new ByteArrayResource(bytes),
-                "date_expenses_" + date + ".xlsx");
-
-        return ResponseEntity.ok("Expenses report for " + date + " sent successfully");
-
+        return queueReportEmail(targetUser, email, EmailReportType.EXPENSES_BY_DATE,
+                Map.of("date", LocalDate.parse(date).toString()));
     }
 
     
@@ -1972,33 +1610,30 @@ public class ExpenseController extends BaseExpenseController {
     
 
     @GetMapping("/expenses/last-week/email")
-    public ResponseEntity<String> sendLastWeekExpensesEmail(
+    public ResponseEntity<EmailJobResponse> sendLastWeekExpensesEmail(
             @RequestParam String email,
             @RequestHeader("Authorization") String jwt,
             @RequestParam(required = false) Integer targetId) throws Exception {
 
         UserDTO targetUser = getTargetUserWithPermission(jwt, targetId, false);
+        return queueReportEmail(targetUser, email, EmailReportType.EXPENSES_LAST_WEEK, Map.of());
+    }
 
-        List<Expense> expenses = expenseService.getExpensesByLastWeek(targetUser.getId());
-
-        ByteArrayInputStream in;
-        if (expenses.isEmpty()) {
-            in = excelService.generateEmptyExcelWithColumns();
-        } else {
-            in = excelService.generateExcel(expenses);
-        }
-        byte[] bytes = in.readAllBytes();
-
-        String subject = "Last Week Expenses Report";
-        emailService.sendEmailWithAttachment(
-                email,
-                subject,
-                "Please find attached the list of expenses for the last week.",
-                new ByteArrayResource(bytes),
-                "last_week_expenses.xlsx");
+    @GetMapping("/email-jobs/{jobId}")
+    public ResponseEntity<EmailJobResponse> getEmailJob(
+            @PathVariable Long jobId,
+            @RequestHeader("Authorization") String jwt,
+            @RequestParam(required = false) Integer targetId) throws Exception {
 
-        return ResponseEntity.ok("Last week expenses report sent successfully");
+        UserDTO targetUser = getTargetUserWithPermission(jwt, targetId, false);
+        return emailJobService.getJob(jobId, targetUser.getId())
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
 
+    private ResponseEntity<EmailJobResponse> queueReportEmail(UserDTO targetUser, String email, EmailReportType type,
+            Map<String, String> params) {
+        return ResponseEntity.accepted().body(emailJobService.enqueue(targetUser, email, type, params));
     }
 
     @PostMapping("/validate-and-calculate")
@@ -3213,6 +2848,12 @@ public class ExpenseController extends BaseExpenseController {
         return expenseService.addExpense(expenseDTO, userId);
     }
 
+    @PostMapping("/add-expenses-with-bill-service")
+    public List<ExpenseDTO> addExpensesWithBillService(@RequestBody List<ExpenseDTO> expenseDTOs,
+            @RequestParam Integer userId) throws Exception {
+        return expenseService.addExpensesWithBillService(expenseDTOs, userId);
+    }
+
     @PostMapping("/update-expense-with-bill-service")
     public Expense updateExpenseWithBillService(@RequestParam Integer expenseId, @RequestBody Expense expense,
             @RequestParam Integer userId) throws Exception {
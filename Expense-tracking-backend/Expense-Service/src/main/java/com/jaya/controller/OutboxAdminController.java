@@ -0,0 +1,69 @@
+package com.jaya.controller;
+
+import com.jaya.common.dto.UserDTO;
+import com.jaya.common.error.ErrorCode;
+import com.jaya.common.exception.AccessDeniedException;
+import com.jaya.common.service.client.IUserServiceClient;
+import com.jaya.kafka.outbox.OutboxRelay;
+import com.jaya.kafka.outbox.OutboxService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/expenses/outbox")
+public class OutboxAdminController {
+
+    private final OutboxService outboxService;
+    private final ObjectProvider<OutboxRelay> outboxRelay;
+    private final IUserServiceClient userServiceClient;
+
+    public OutboxAdminController(OutboxService outboxService, ObjectProvider<OutboxRelay> outboxRelay,
+            IUserServiceClient userServiceClient) {
+        this.outboxService = outboxService;
+        this.outboxRelay = outboxRelay;
+        this.userServiceClient = userServiceClient;
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats(@RequestHeader("Authorization") String jwt) {
+        requireAdmin(jwt);
+        Map<String, Object> stats = new LinkedHashMap<>(outboxService.getQueueStats());
+        OutboxRelay relay = outboxRelay.getIfAvailable();
+        if (relay != null) {
+            stats.putAll(relay.getRelayStats());
+        }
+        return ResponseEntity.ok(stats);
+    }
+
+    @PostMapping("/replay")
+    public ResponseEntity<Map<String, Object>> replay(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String topic,
+            @RequestHeader("Authorization") String jwt) {
+        requireAdmin(jwt);
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        int requeued = outboxService.replay(from, to, topic);
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("requeued", requeued);
+        response.put("from", from);
+        response.put("to", to);
+        response.put("topic", topic);
+        return ResponseEntity.ok(response);
+    }
+
+    private void requireAdmin(String jwt) {
+        UserDTO user = userServiceClient.getUserProfile(jwt);
+        if (user == null || !user.hasAdminRole()) {
+            throw new AccessDeniedException(ErrorCode.AUTHZ_ROLE_REQUIRED, "UserDTO does not have ADMIN role");
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.jaya.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailJobResponse {
+
+    private Long jobId;
+    private String reportType;
+    private String recipient;
+    private String status;
+    // True when an identical request inside the dedupe window already owns this job
+    private boolean deduplicated;
+    private int attempts;
+    private String lastError;
+    private LocalDateTime createdAt;
+    private LocalDateTime nextAttemptAt;
+    private LocalDateTime completedAt;
+}
@@ -1,6 +1,7 @@
 package com.jaya.dto;
 
 import java.io.Serializable;
+import java.util.List;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -15,6 +16,7 @@ public class PaymentMethodEvent implements Serializable {
     private String color;
     private String eventType; 
     private Boolean notifyUser; 
+    private List<Integer> expenseIds;
 
     
     public PaymentMethodEvent() {
@@ -114,6 +116,14 @@ public class PaymentMethodEvent implements Serializable {
         this.eventType = eventType;
     }
 
+    public List<Integer> getExpenseIds() {
+        return expenseIds;
+    }
+
+    public void setExpenseIds(List<Integer> expenseIds) {
+        this.expenseIds = expenseIds;
+    }
+
     public Boolean getNotifyUser() {
         return notifyUser;
     }
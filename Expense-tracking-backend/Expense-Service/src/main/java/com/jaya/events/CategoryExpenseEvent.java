@@ -2,6 +2,7 @@ package com.jaya.events;
 
 import java.io.Serializable;
 import java.time.LocalDateTime;
+import java.util.List;
 
 public class CategoryExpenseEvent implements Serializable {
     private Integer userId;
@@ -10,6 +11,7 @@ public class CategoryExpenseEvent implements Serializable {
     private String categoryName;
     private String action;
     private LocalDateTime timestamp;
+    private List<Integer> expenseIds;
 
     public CategoryExpenseEvent() {
         this.timestamp = LocalDateTime.now();
@@ -65,6 +67,14 @@ public class CategoryExpenseEvent implements Serializable {
         this.action = action;
     }
 
+    public List<Integer> getExpenseIds() {
+        return expenseIds;
+    }
+
+    public void setExpenseIds(List<Integer> expenseIds) {
+        this.expenseIds = expenseIds;
+    }
+
     public LocalDateTime getTimestamp() {
         return timestamp;
     }
@@ -78,6 +88,7 @@ public class CategoryExpenseEvent implements Serializable {
         return "CategoryExpenseEvent{" +
                 "userId=" + userId +
                 ", expenseId=" + expenseId +
+                ", expenseIds=" + (expenseIds != null ? expenseIds.size() + " ids" : null) +
                 ", categoryId=" + categoryId +
                 ", categoryName='" + categoryName + '\'' +
                 ", action='" + action + '\'' +
@@ -4,6 +4,7 @@ package com.jaya.kafka;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.jaya.kafka.outbox.OutboxService;
 import com.jaya.models.AuditEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -15,7 +16,6 @@ import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
@@ -24,6 +24,7 @@ public class AuditEventProducer {
 
     private final KafkaTemplate<String, String> kafkaTemplate;
     private final ObjectMapper objectMapper;
+    private final OutboxService outboxService;
 
     @Value("${audit.kafka.topic:audit-events}")
     private String auditTopic;
@@ -90,21 +91,12 @@ public class AuditEventProducer {
 
             String auditEventJson = objectMapper.writeValueAsString(auditEvent);
 
-            CompletableFuture<SendResult<String, String>> future = kafkaTemplate.send(topic,
-                    auditEvent.getCorrelationId(), auditEventJson);
-
-            future.whenComplete((result, exception) -> {
-                if (exception == null) {
-                    log.debug("Audit event published successfully: correlationId={}, topic={}, partition={}, offset={}",
-                            auditEvent.getCorrelationId(),
-                            result.getRecordMetadata().topic(),
-                            result.getRecordMetadata().partition(),
-                            result.getRecordMetadata().offset());
-                } else {
-                    log.error("Failed to publish audit event: correlationId={}, topic={}, error={}",
-                            auditEvent.getCorrelationId(), topic, exception.getMessage(), exception);
-                }
-            });
+            // Keyed by user so one user's audit trail stays ordered; relayed after commit
+            String key = auditEvent.getUserId() != null
+                    ? auditEvent.getUserId().toString()
+                    : auditEvent.getCorrelationId();
+            outboxService.enqueueJson(topic, key, auditEventJson, "Audit");
+            log.debug("Audit event queued: correlationId={}, topic={}", auditEvent.getCorrelationId(), topic);
 
         } catch (JsonProcessingException e) {
             log.error("Error serializing audit event to JSON: correlationId={}, topic={}",
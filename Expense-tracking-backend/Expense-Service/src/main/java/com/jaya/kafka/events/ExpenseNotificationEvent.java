@@ -12,6 +12,7 @@ import lombok.NoArgsConstructor;
 
 import java.io.Serializable;
 import java.time.LocalDateTime;
+import java.util.List;
 
 
 
@@ -39,6 +40,12 @@ public class ExpenseNotificationEvent implements Serializable {
 
     private String metadata; 
 
+    // Bulk changes send one event per user and chunk: items holds a complete event per expense,
+    // batchTotal the size of the whole change and batchIndex this chunk's position in it
+    private List<ExpenseNotificationEvent> items;
+    private Integer batchTotal;
+    private Integer batchIndex;
+
     
 
 
@@ -0,0 +1,125 @@
+package com.jaya.kafka.outbox;
+
+import com.jaya.models.OutboxEvent;
+import com.jaya.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "kafka.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxBatchSender {
+
+    public record BatchResult(int published, int failed, long lagMs) {
+        static final BatchResult EMPTY = new BatchResult(0, 0, 0);
+    }
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    @Qualifier("outboxKafkaTemplate")
+    private KafkaTemplate<String, String> outboxKafkaTemplate;
+
+    @Value("${expense.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${expense.outbox.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    /**
+     * Publishes the oldest pending rows in one producer batch and marks the
+     * acknowledged ones published. Rows stay locked until the batch is settled.
+     *
+     * Acknowledged rows are always marked published, so nothing the broker already
+     * holds is sent twice. When a row fails, later unacknowledged rows with the same
+     * key stay pending without using up an attempt, and the next poll resends that key
+     * from the failed row onwards. Once a row runs out of attempts, the rest of its key
+     * is parked by {@link OutboxEventRepository#lockPendingBatch} until it is replayed.
+     */
+    @Transactional
+    public BatchResult relayBatch(int limit) {
+        List<OutboxEvent> batch = outboxEventRepository.lockPendingBatch(maxAttempts, limit);
+        if (batch.isEmpty()) {
+            return BatchResult.EMPTY;
+        }
+        long lagMs = Duration.between(batch.get(0).getCreatedAt(), LocalDateTime.now()).toMillis();
+
+        List<CompletableFuture<SendResult<String, String>>> futures = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            futures.add(outboxKafkaTemplate.send(event.getTopic(), event.getMessageKey(), event.getPayload()));
+        }
+        outboxKafkaTemplate.flush();
+
+        List<Long> published = new ArrayList<>(batch.size());
+        List<Long> failed = new ArrayList<>();
+        Set<String> blockedKeys = new HashSet<>();
+        int deferred = 0;
+        String lastError = null;
+        long deadline = System.currentTimeMillis() + sendTimeoutMs;
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxEvent event = batch.get(i);
+            String orderingKey = event.getTopic() + '|' + event.getMessageKey();
+            boolean ordered = event.getMessageKey() != null;
+            String error = awaitAck(futures.get(i), deadline);
+            if (error == null) {
+                published.add(event.getId());
+            } else if (ordered && blockedKeys.contains(orderingKey)) {
+                // An earlier row for this key failed; retry from that row, not after it
+                deferred++;
+            } else {
+                failed.add(event.getId());
+                lastError = error;
+                if (ordered) {
+                    blockedKeys.add(orderingKey);
+                }
+            }
+        }
+
+        if (!published.isEmpty()) {
+            outboxEventRepository.markPublished(published, LocalDateTime.now());
+        }
+        if (!failed.isEmpty()) {
+            String error = lastError != null && lastError.length() > 500 ? lastError.substring(0, 500) : lastError;
+            outboxEventRepository.markFailed(failed, error);
+            log.warn("Outbox relay: {} of {} events failed to publish and {} were held back behind them, "
+                    + "will retry: {}", failed.size(), batch.size(), deferred, error);
+        }
+        return new BatchResult(published.size(), failed.size() + deferred, lagMs);
+    }
+
+    private String awaitAck(CompletableFuture<SendResult<String, String>> future, long deadline) {
+        try {
+            long remaining = Math.max(1, deadline - System.currentTimeMillis());
+            future.get(remaining, TimeUnit.MILLISECONDS);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "Interrupted while waiting for broker acknowledgement";
+        } catch (Exception e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            return cause.getClass().getSimpleName() + ": " + cause.getMessage();
+        }
+    }
+
+    @Transactional
+    public int purgePublishedBefore(LocalDateTime cutoff, int limit) {
+        return outboxEventRepository.deletePublishedBefore(cutoff, limit);
+    }
+}
@@ -0,0 +1,46 @@
+package com.jaya.kafka.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jaya.common.kafka.producer.NotificationEventProducer;
+import com.jaya.models.OutboxEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+
+/**
+ * {@link NotificationEventProducer} whose asynchronous {@code sendEvent} goes through
+ * the outbox instead of straight to Kafka. {@code sendEventSync} still sends directly.
+ */
+@Slf4j
+public abstract class OutboxEventProducer<T> extends NotificationEventProducer<T> {
+
+    private final OutboxService outboxService;
+
+    protected OutboxEventProducer(KafkaTemplate<String, Object> kafkaTemplate, ObjectMapper objectMapper,
+            OutboxService outboxService) {
+        super(kafkaTemplate, objectMapper);
+        this.outboxService = outboxService;
+    }
+
+    @Override
+    public void sendEvent(T event) {
+        try {
+            validateEvent(event);
+            String key = generatePartitionKey(event);
+            beforeSend(event);
+            outboxService.enqueue(getTopicName(), key, event, getEventTypeName());
+        } catch (Exception e) {
+            log.error("Error queueing {} event: {}", getEventTypeName(), e.getMessage(), e);
+            throw new RuntimeException("Failed to send notification event", e);
+        }
+    }
+
+    /**
+     * Validates the event and returns its outbox row without saving it; see
+     * {@link OutboxService#prepare}.
+     */
+    public OutboxEvent prepareEvent(T event) {
+        validateEvent(event);
+        beforeSend(event);
+        return outboxService.prepare(getTopicName(), generatePartitionKey(event), event, getEventTypeName());
+    }
+}
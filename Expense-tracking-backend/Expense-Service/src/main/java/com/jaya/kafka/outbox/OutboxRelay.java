@@ -0,0 +1,119 @@
+package com.jaya.kafka.outbox;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Polls the outbox and drains it in batches. Each batch is keyed as written
+ * (userId based), so events for one user keep their order on the topic.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "kafka.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private final OutboxBatchSender batchSender;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicLong publishedTotal = new AtomicLong();
+    private final AtomicLong failedTotal = new AtomicLong();
+    private final AtomicLong lastBatchSize = new AtomicLong();
+    private final AtomicLong lastBatchMillis = new AtomicLong();
+    private final AtomicLong lastLagMillis = new AtomicLong();
+    private final AtomicLong maxLagMillis = new AtomicLong();
+    private volatile LocalDateTime lastRelayAt;
+
+    @Value("${expense.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${expense.outbox.max-batches-per-poll:20}")
+    private int maxBatchesPerPoll;
+
+    @Value("${expense.outbox.lag-warn-ms:30000}")
+    private long lagWarnMs;
+
+    @Value("${expense.outbox.retention-hours:72}")
+    private int retentionHours;
+
+    @Scheduled(fixedDelayString = "${expense.outbox.poll-interval-ms:200}")
+    public void relay() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            for (int i = 0; i < maxBatchesPerPoll; i++) {
+                long start = System.currentTimeMillis();
+                OutboxBatchSender.BatchResult result = batchSender.relayBatch(batchSize);
+                int processed = result.published() + result.failed();
+                if (processed == 0) {
+                    lastLagMillis.set(0);
+                    break;
+                }
+                recordBatch(result, System.currentTimeMillis() - start);
+                if (result.failed() > 0 || processed < batchSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Outbox relay poll failed: {}", e.getMessage(), e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${expense.outbox.purge-interval-ms:3600000}")
+    public void purgePublished() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(retentionHours);
+        try {
+            int deleted;
+            int total = 0;
+            do {
+                deleted = batchSender.purgePublishedBefore(cutoff, 5000);
+                total += deleted;
+            } while (deleted == 5000);
+            if (total > 0) {
+                log.info("Outbox purge removed {} events published before {}", total, cutoff);
+            }
+        } catch (Exception e) {
+            log.error("Outbox purge failed: {}", e.getMessage(), e);
+        }
+    }
+
+    public Map<String, Object> getRelayStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("publishedTotal", publishedTotal.get());
+        stats.put("failedTotal", failedTotal.get());
+        stats.put("lastBatchSize", lastBatchSize.get());
+        stats.put("lastBatchMillis", lastBatchMillis.get());
+        stats.put("lastLagMillis", lastLagMillis.get());
+        stats.put("maxLagMillis", maxLagMillis.get());
+        stats.put("lastRelayAt", lastRelayAt);
+        return stats;
+    }
+
+    private void recordBatch(OutboxBatchSender.BatchResult result, long elapsedMs) {
+        publishedTotal.addAndGet(result.published());
+        failedTotal.addAndGet(result.failed());
+        lastBatchSize.set(result.published() + result.failed());
+        lastBatchMillis.set(elapsedMs);
+        lastLagMillis.set(result.lagMs());
+        maxLagMillis.accumulateAndGet(result.lagMs(), Math::max);
+        lastRelayAt = LocalDateTime.now();
+        if (result.lagMs() > lagWarnMs) {
+            log.warn("Outbox relay lag {} ms exceeds {} ms", result.lagMs(), lagWarnMs);
+        }
+        log.debug("Outbox relay published {} events ({} failed) in {} ms, lag {} ms",
+                result.published(), result.failed(), elapsedMs, result.lagMs());
+    }
+}
@@ -0,0 +1,97 @@
+package com.jaya.kafka.outbox;
+
+import com.jaya.models.OutboxEvent;
+import com.jaya.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Write side of the Expense-Service transactional outbox.
+ *
+ * Events are stored in the caller's transaction (or a new one when there is none)
+ * and published later by {@link OutboxRelay}, so request threads never wait on the
+ * broker and an event is only lost if the business change itself rolls back.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    // Same serializer the object KafkaTemplate uses, so relayed bytes match a direct send
+    private final JsonSerializer<Object> jsonSerializer = new JsonSerializer<>();
+
+    @Value("${expense.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Transactional
+    public OutboxEvent enqueue(String topic, String key, Object event, String eventType) {
+        return save(prepare(topic, key, event, eventType));
+    }
+
+    @Transactional
+    public OutboxEvent enqueueJson(String topic, String key, String payload, String eventType) {
+        return save(prepareJson(topic, key, payload, eventType));
+    }
+
+    /**
+     * Builds an unsaved outbox row, for callers that write it through their own session
+     * (e.g. the stateless bulk import) so it commits together with their rows.
+     */
+    public OutboxEvent prepare(String topic, String key, Object event, String eventType) {
+        String payload = new String(jsonSerializer.serialize(topic, event), StandardCharsets.UTF_8);
+        return prepareJson(topic, key, payload, eventType);
+    }
+
+    private OutboxEvent prepareJson(String topic, String key, String payload, String eventType) {
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setTopic(topic);
+        outboxEvent.setMessageKey(key);
+        outboxEvent.setEventType(eventType);
+        outboxEvent.setPayload(payload);
+        outboxEvent.setCreatedAt(LocalDateTime.now());
+        return outboxEvent;
+    }
+
+    private OutboxEvent save(OutboxEvent outboxEvent) {
+        OutboxEvent saved = outboxEventRepository.save(outboxEvent);
+        log.debug("Queued {} event {} for topic {} (key={})", saved.getEventType(), saved.getId(),
+                saved.getTopic(), saved.getMessageKey());
+        return saved;
+    }
+
+    /**
+     * Marks every event created in [from, to) as unpublished again so the relay
+     * re-sends it. Consumers must already tolerate redelivery (at-least-once).
+     */
+    @Transactional
+    public int replay(LocalDateTime from, LocalDateTime to, String topic) {
+        int reset = outboxEventRepository.resetForReplay(from, to, topic);
+        log.info("Outbox replay requested for {} - {} (topic={}): {} events re-queued", from, to,
+                topic != null ? topic : "*", reset);
+        return reset;
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getQueueStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pending", outboxEventRepository.countPending(maxAttempts));
+        stats.put("dead", outboxEventRepository.countDead(maxAttempts));
+        stats.put("parked", outboxEventRepository.countParked(maxAttempts));
+        stats.put("oldestPendingAgeMs", outboxEventRepository.findFirstByPublishedAtIsNullOrderByIdAsc()
+                .map(e -> Duration.between(e.getCreatedAt(), LocalDateTime.now()).toMillis())
+                .orElse(0L));
+        return stats;
+    }
+}
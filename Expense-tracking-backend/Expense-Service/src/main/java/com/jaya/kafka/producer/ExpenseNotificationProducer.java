@@ -1,6 +1,7 @@
 package com.jaya.kafka.producer;
 
-import com.jaya.common.kafka.producer.NotificationEventProducer;
+import com.jaya.kafka.outbox.OutboxEventProducer;
+import com.jaya.kafka.outbox.OutboxService;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jaya.kafka.events.ExpenseNotificationEvent;
@@ -23,15 +24,16 @@ import org.springframework.stereotype.Component;
 
 @Slf4j
 @Component
-public class ExpenseNotificationProducer extends NotificationEventProducer<ExpenseNotificationEvent> {
+public class ExpenseNotificationProducer extends OutboxEventProducer<ExpenseNotificationEvent> {
 
     @Value("${kafka.topics.expense-events:expense-events}")
     private String topicName;
 
     public ExpenseNotificationProducer(
             KafkaTemplate<String, Object> kafkaTemplate,
-            ObjectMapper objectMapper) {
-        super(kafkaTemplate, objectMapper);
+            ObjectMapper objectMapper,
+            OutboxService outboxService) {
+        super(kafkaTemplate, objectMapper, outboxService);
     }
 
     @Override
@@ -1,6 +1,7 @@
 package com.jaya.kafka.producer;
 
-import com.jaya.common.kafka.producer.NotificationEventProducer;
+import com.jaya.kafka.outbox.OutboxEventProducer;
+import com.jaya.kafka.outbox.OutboxService;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jaya.kafka.events.FriendActivityEvent;
@@ -19,14 +20,15 @@ import org.springframework.stereotype.Component;
 
 @Slf4j
 @Component
-public class FriendActivityProducer extends NotificationEventProducer<FriendActivityEvent> {
+public class FriendActivityProducer extends OutboxEventProducer<FriendActivityEvent> {
 
     @Value("${kafka.topics.friend-activity-events:friend-activity-events}")
     private String topicName;
 
     public FriendActivityProducer(KafkaTemplate<String, Object> kafkaTemplate,
-            ObjectMapper objectMapper) {
-        super(kafkaTemplate, objectMapper);
+            ObjectMapper objectMapper,
+            OutboxService outboxService) {
+        super(kafkaTemplate, objectMapper, outboxService);
         log.info("FriendActivityProducer initialized");
     }
 
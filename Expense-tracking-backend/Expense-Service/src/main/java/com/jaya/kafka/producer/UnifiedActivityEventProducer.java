@@ -3,6 +3,7 @@ package com.jaya.kafka.producer;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jaya.kafka.events.UnifiedActivityEvent;
+import com.jaya.kafka.outbox.OutboxService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,7 +11,6 @@ import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
-import java.util.concurrent.CompletableFuture;
 
 
 
@@ -38,6 +38,7 @@ public class UnifiedActivityEventProducer {
 
     private final KafkaTemplate<String, Object> kafkaTemplate;
     private final ObjectMapper objectMapper;
+    private final OutboxService outboxService;
 
     @Value("${kafka.topics.unified-activity-events:unified-activity-events}")
     private String topicName;
@@ -68,17 +69,8 @@ public class UnifiedActivityEventProducer {
             
             logEventDetails(event);
 
-            
-            CompletableFuture<SendResult<String, Object>> future = kafkaTemplate.send(topicName, key, event);
-
-            
-            future.whenComplete((result, ex) -> {
-                if (ex != null) {
-                    handleSendFailure(event, ex);
-                } else {
-                    handleSendSuccess(event, result);
-                }
-            });
+            // Published by the outbox relay once the surrounding transaction commits
+            outboxService.enqueue(topicName, key, event, "UnifiedActivity");
 
         } catch (Exception e) {
             log.error("Error while preparing unified activity event: {}", e.getMessage(), e);
@@ -6,13 +6,18 @@ import com.jaya.kafka.events.ExpenseNotificationEvent;
 import com.jaya.kafka.producer.ExpenseNotificationProducer;
 import com.jaya.models.Expense;
 import com.jaya.models.ExpenseDetails;
+import com.jaya.models.OutboxEvent;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 
@@ -28,6 +33,9 @@ public class ExpenseNotificationService {
     private final ExpenseNotificationProducer expenseNotificationProducer;
     private final ObjectMapper objectMapper;
 
+    @Value("${expense.events.max-items-per-event:500}")
+    private int maxItemsPerEvent;
+
     
 
 
@@ -123,6 +131,67 @@ public class ExpenseNotificationService {
         }
     }
 
+    /**
+     * Queues an expense event in the caller's transaction. Unlike the notification helpers above,
+     * failures propagate, so the expense change rolls back together with its event.
+     */
+    public void enqueueExpenseEvent(Expense expense, String action) {
+        expenseNotificationProducer.sendEvent(buildExpenseEvent(expense, action));
+    }
+
+    /**
+     * Queues the events of a bulk change, coalesced per user into batch events of at most
+     * {@code maxItemsPerEvent} items. Consumers apply every item; notifications announce the
+     * change once instead of once per expense. A single expense is sent as a plain event.
+     */
+    public void enqueueExpenseEvents(List<Expense> expenses, String action) {
+        for (ExpenseNotificationEvent event : buildBatchEvents(expenses, action)) {
+            expenseNotificationProducer.sendEvent(event);
+        }
+    }
+
+    /**
+     * Unsaved outbox rows for a bulk change, for writers that insert through their own session.
+     */
+    public List<OutboxEvent> prepareExpenseEvents(List<Expense> expenses, String action) {
+        List<OutboxEvent> rows = new ArrayList<>();
+        for (ExpenseNotificationEvent event : buildBatchEvents(expenses, action)) {
+            rows.add(expenseNotificationProducer.prepareEvent(event));
+        }
+        return rows;
+    }
+
+    private List<ExpenseNotificationEvent> buildBatchEvents(List<Expense> expenses, String action) {
+        Map<Integer, List<ExpenseNotificationEvent>> byUser = new LinkedHashMap<>();
+        for (Expense expense : expenses) {
+            byUser.computeIfAbsent(expense.getUserId(), id -> new ArrayList<>()).add(buildExpenseEvent(expense, action));
+        }
+
+        int chunkSize = Math.max(1, maxItemsPerEvent);
+        List<ExpenseNotificationEvent> events = new ArrayList<>();
+        byUser.forEach((userId, items) -> {
+            if (items.size() == 1) {
+                events.add(items.get(0));
+                return;
+            }
+            // Every chunk carries the total of the whole change, so one of them can describe it
+            double total = items.stream().mapToDouble(item -> item.getAmount() != null ? item.getAmount() : 0.0).sum();
+            LocalDateTime now = LocalDateTime.now();
+            for (int start = 0, index = 0; start < items.size(); start += chunkSize, index++) {
+                events.add(ExpenseNotificationEvent.builder()
+                        .userId(userId)
+                        .action(action)
+                        .amount(total)
+                        .description(items.size() + " expenses")
+                        .timestamp(now)
+                        .items(new ArrayList<>(items.subList(start, Math.min(start + chunkSize, items.size()))))
+                        .batchTotal(items.size())
+                        .batchIndex(index)
+                        .build());
+            }
+        });
+        return events;
+    }
     
 
 
@@ -518,6 +518,7 @@ public class UnifiedActivityService {
         payload.put("date", expense.getDate() != null ? expense.getDate().toString() : null);
         payload.put("categoryName", expense.getCategoryName());
         payload.put("categoryId", expense.getCategoryId());
+        payload.put("budgetIds", expense.getBudgetIds());
         if (expense.getExpense() != null) {
             payload.put("expenseName", expense.getExpense().getExpenseName());
             payload.put("amount", expense.getExpense().getAmount());
@@ -534,6 +535,7 @@ public class UnifiedActivityService {
         payload.put("date", expense.getDate());
         payload.put("categoryName", expense.getCategoryName());
         payload.put("categoryId", expense.getCategoryId());
+        payload.put("budgetIds", expense.getBudgetIds());
         if (expense.getExpense() != null) {
             payload.put("expenseName", expense.getExpense().getExpenseName());
             payload.put("amount", expense.getExpense().getAmountAsDouble());
@@ -0,0 +1,69 @@
+package com.jaya.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "expense_email_jobs", indexes = {
+        @Index(name = "idx_email_job_due", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_email_job_lease", columnList = "status, locked_until"),
+        @Index(name = "idx_email_job_dedupe", columnList = "dedupe_key, created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Integer userId;
+
+    @Column(name = "user_email")
+    private String userEmail;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "report_type", nullable = false, length = 64)
+    private EmailReportType reportType;
+
+    // Report parameters as a JSON object of strings; the attachment is built from them by the worker
+    @Lob
+    @Column(columnDefinition = "TEXT")
+    private String params;
+
+    // SHA-256 of user, recipient, report type and parameters
+    @Column(name = "dedupe_key", nullable = false, length = 64)
+    private String dedupeKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private EmailJobStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    // A RUNNING job whose lease has expired belongs to a dead worker and is claimed again
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "last_error", length = 512)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
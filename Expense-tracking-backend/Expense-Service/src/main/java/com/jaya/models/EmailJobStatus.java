@@ -0,0 +1,9 @@
+package com.jaya.models;
+
+public enum EmailJobStatus {
+    PENDING,
+    RUNNING,
+    SENT,
+    SKIPPED,
+    FAILED
+}
@@ -0,0 +1,59 @@
+package com.jaya.models;
+
+/**
+ * Reports that can be mailed through the email job queue. Types that were recorded in the
+ * report history before the queue existed keep their history name, type and description.
+ */
+public enum EmailReportType {
+    EXPENSES_CURRENT_MONTH("Current Month Expenses Report", "Current Month", "Current month expense report"),
+    EXPENSES_LAST_MONTH,
+    EXPENSES_BY_MONTH,
+    EXPENSES_BY_TYPE_AND_PAYMENT_METHOD,
+    EXPENSES_BY_DATE_RANGE,
+    EXPENSES_GAIN,
+    EXPENSES_LOSS,
+    EXPENSES_TODAY("Today's Expenses Report", "Today", "Today's expense report"),
+    EXPENSES_YESTERDAY("Yesterday's Expenses Report", "Yesterday", "Yesterday's expense report"),
+    EXPENSES_BY_DATE,
+    EXPENSES_LAST_WEEK,
+    EXPENSES_BY_PAYMENT_METHOD,
+    EXPENSES_BY_AMOUNT_RANGE,
+    EXPENSES_SEARCH,
+    MONTHLY_SUMMARY,
+    PAYMENT_METHOD_SUMMARY,
+    YEARLY_SUMMARY,
+    SUMMARIES_BETWEEN_DATES,
+    DAILY_SUMMARIES_MONTHLY,
+    DAILY_SUMMARIES_YEARLY,
+    DAILY_SUMMARY_DATE;
+
+    private final String historyName;
+    private final String historyType;
+    private final String historyDescription;
+
+    EmailReportType() {
+        this(null, null, null);
+    }
+
+    EmailReportType(String historyName, String historyType, String historyDescription) {
+        this.historyName = historyName;
+        this.historyType = historyType;
+        this.historyDescription = historyDescription;
+    }
+
+    public boolean isRecordedInHistory() {
+        return historyName != null;
+    }
+
+    public String getHistoryName() {
+        return historyName;
+    }
+
+    public String getHistoryType() {
+        return historyType;
+    }
+
+    public String getHistoryDescription() {
+        return historyDescription;
+    }
+}
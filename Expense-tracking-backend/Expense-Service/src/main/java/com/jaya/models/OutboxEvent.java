@@ -0,0 +1,50 @@
+package com.jaya.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "expense_outbox", indexes = {
+        @Index(name = "idx_outbox_pending", columnList = "published_at, id"),
+        @Index(name = "idx_outbox_created", columnList = "created_at"),
+        @Index(name = "idx_outbox_key", columnList = "message_key, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 128)
+    private String topic;
+
+    // Kafka record key; userId based so one user's events stay on one partition
+    @Column(name = "message_key", length = 128)
+    private String messageKey;
+
+    @Column(name = "event_type", length = 64)
+    private String eventType;
+
+    @Lob
+    @Column(nullable = false, columnDefinition = "LONGTEXT")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", length = 512)
+    private String lastError;
+}
@@ -0,0 +1,60 @@
+package com.jaya.repository;
+
+import com.jaya.models.EmailJob;
+import com.jaya.models.EmailJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface EmailJobRepository extends JpaRepository<EmailJob, Long> {
+
+    /**
+     * Locks due jobs: pending ones whose backoff has elapsed and running ones whose worker lease
+     * expired. Rows locked by another instance are skipped rather than waited on.
+     */
+    @Query(value = "SELECT * FROM expense_email_jobs WHERE (status = 'PENDING' AND next_attempt_at <= :now) "
+            + "OR (status = 'RUNNING' AND locked_until < :now) ORDER BY next_attempt_at, id LIMIT :limit "
+            + "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<EmailJob> lockDueJobs(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Extends the lease of a job this worker still holds. A job is held by the claim that set its
+     * current attempt count; once another worker has reclaimed it, nothing is updated.
+     */
+    @Modifying
+    @Query(value = "UPDATE expense_email_jobs SET locked_until = :lockedUntil "
+            + "WHERE id = :id AND status = 'RUNNING' AND attempts = :attempt", nativeQuery = true)
+    int renewLease(@Param("id") Long id, @Param("attempt") int attempt, @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    @Modifying
+    @Query(value = "UPDATE expense_email_jobs SET status = :status, last_error = :error, locked_until = NULL, "
+            + "completed_at = :completedAt WHERE id = :id AND status = 'RUNNING' AND attempts = :attempt",
+            nativeQuery = true)
+    int finishLeased(@Param("id") Long id, @Param("attempt") int attempt, @Param("status") String status,
+            @Param("error") String error, @Param("completedAt") LocalDateTime completedAt);
+
+    @Modifying
+    @Query(value = "UPDATE expense_email_jobs SET status = 'PENDING', last_error = :error, locked_until = NULL, "
+            + "next_attempt_at = :nextAttemptAt WHERE id = :id AND status = 'RUNNING' AND attempts = :attempt",
+            nativeQuery = true)
+    int rescheduleLeased(@Param("id") Long id, @Param("attempt") int attempt, @Param("error") String error,
+            @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+
+    Optional<EmailJob> findFirstByDedupeKeyAndStatusInAndCreatedAtAfterOrderByIdDesc(String dedupeKey,
+            Collection<EmailJobStatus> statuses, LocalDateTime createdAfter);
+
+    long countByStatus(EmailJobStatus status);
+
+    @Modifying
+    @Query(value = "DELETE FROM expense_email_jobs WHERE status IN ('SENT', 'SKIPPED', 'FAILED') "
+            + "AND completed_at < :cutoff LIMIT :limit", nativeQuery = true)
+    int deleteCompletedBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+}
@@ -0,0 +1,60 @@
+package com.jaya.repository;
+
+import com.jaya.models.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Locks the head of the pending queue. Concurrent relays block here instead of
+     * skipping ahead, so rows are always published in id order. Rows behind a dead
+     * row of the same key are parked until that row is replayed, so they never
+     * overtake it.
+     */
+    @Query(value = "SELECT * FROM expense_outbox o WHERE o.published_at IS NULL AND o.attempts < :maxAttempts "
+            + "AND NOT EXISTS (SELECT 1 FROM expense_outbox d WHERE d.message_key = o.message_key "
+            + "AND d.topic = o.topic AND d.id < o.id AND d.published_at IS NULL AND d.attempts >= :maxAttempts) "
+            + "ORDER BY o.id LIMIT :limit FOR UPDATE", nativeQuery = true)
+    List<OutboxEvent> lockPendingBatch(@Param("maxAttempts") int maxAttempts, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent o SET o.publishedAt = :publishedAt WHERE o.id IN :ids")
+    int markPublished(@Param("ids") List<Long> ids, @Param("publishedAt") LocalDateTime publishedAt);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent o SET o.attempts = o.attempts + 1, o.lastError = :error WHERE o.id IN :ids")
+    int markFailed(@Param("ids") List<Long> ids, @Param("error") String error);
+
+    @Query("SELECT COUNT(o) FROM OutboxEvent o WHERE o.publishedAt IS NULL AND o.attempts < :maxAttempts")
+    long countPending(@Param("maxAttempts") int maxAttempts);
+
+    @Query("SELECT COUNT(o) FROM OutboxEvent o WHERE o.publishedAt IS NULL AND o.attempts >= :maxAttempts")
+    long countDead(@Param("maxAttempts") int maxAttempts);
+
+    @Query(value = "SELECT COUNT(*) FROM expense_outbox o WHERE o.published_at IS NULL AND o.attempts < :maxAttempts "
+            + "AND EXISTS (SELECT 1 FROM expense_outbox d WHERE d.message_key = o.message_key "
+            + "AND d.topic = o.topic AND d.id < o.id AND d.published_at IS NULL AND d.attempts >= :maxAttempts)",
+            nativeQuery = true)
+    long countParked(@Param("maxAttempts") int maxAttempts);
+
+    Optional<OutboxEvent> findFirstByPublishedAtIsNullOrderByIdAsc();
+
+    @Modifying
+    @Query("UPDATE OutboxEvent o SET o.publishedAt = null, o.attempts = 0, o.lastError = null "
+            + "WHERE o.createdAt >= :from AND o.createdAt < :to AND (:topic IS NULL OR o.topic = :topic)")
+    int resetForReplay(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+            @Param("topic") String topic);
+
+    @Modifying
+    @Query(value = "DELETE FROM expense_outbox WHERE published_at < :cutoff LIMIT :limit", nativeQuery = true)
+    int deletePublishedBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+}
@@ -722,7 +722,11 @@ public class BulkExpenseBudgetService {
                         .map(Long::intValue)
                         .collect(Collectors.toSet());
 
-                expense.getBudgetIds().addAll(budgetIdsSet);
+                // Redelivered or already-applied links leave the serialized set, and the row, untouched
+                if (!expense.getBudgetIds().addAll(budgetIdsSet)) {
+                    log.debug("Expense {} already linked to BudgetModel IDs: {}", expenseId, newBudgetIds);
+                    return;
+                }
                 expenseRepository.save(expense);
 
                 log.info("Updated expense {} with new BudgetModel IDs: {}", expenseId, newBudgetIds);
@@ -798,6 +802,10 @@ public class BulkExpenseBudgetService {
                 log.info(">>> Removal result - removed={}, removedCount={}, remainingBudgetIds={}",
                         removed, removedCount, expense.getBudgetIds());
 
+                if (!removed) {
+                    return;
+                }
+
                 Expense savedExpense = expenseRepository.save(expense);
                 log.info(">>> Saved expense {}. Final budgetIds: {}",
                         savedExpense.getId(), savedExpense.getBudgetIds());
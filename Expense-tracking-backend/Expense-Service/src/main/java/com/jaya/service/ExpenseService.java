@@ -93,6 +93,8 @@ public interface ExpenseService {
 
         Expense updateExpenseWithBillService(Integer id, Expense updatedExpense, Integer userId) throws Exception;
 
+        List<ExpenseDTO> addExpensesWithBillService(List<ExpenseDTO> expenses, Integer userId) throws Exception;
+
         List<Expense> updateMultipleExpenses(Integer userId, List<Expense> expenses) throws Exception;
 
         MonthlySummary getMonthlySummary(Integer year, Integer month, Integer userId);
@@ -92,6 +92,11 @@ public class ExpenseServiceImpl implements ExpenseService {
         return expenseBillService.updateExpenseWithBillService(id, updatedExpense, userId);
     }
 
+    @Override
+    public List<ExpenseDTO> addExpensesWithBillService(List<ExpenseDTO> expenses, Integer userId) throws Exception {
+        return expenseBillService.addExpensesWithBillService(expenses, userId);
+    }
+
     @Override
     public void deleteExpense(Integer id, Integer userId) throws Exception {
         expenseCoreService.deleteExpense(id, userId);
@@ -0,0 +1,250 @@
+package com.jaya.service.emailjob;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jaya.common.dto.UserDTO;
+import com.jaya.dto.EmailJobResponse;
+import com.jaya.models.EmailJob;
+import com.jaya.models.EmailJobStatus;
+import com.jaya.models.EmailReportType;
+import com.jaya.repository.EmailJobRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Persistent queue of report mails. Endpoints enqueue a job and return its id; the
+ * {@link EmailJobWorker} builds the attachment and sends it later, retrying with backoff.
+ *
+ * A claim takes a lease that the worker renews while it runs. Every claim increments
+ * {@code attempts}, so the worker's updates are conditional on the attempt count it claimed: a
+ * worker that stalled past its lease cannot overwrite the job once another worker has reclaimed it.
+ */
+@Service
+@RequiredArgsConstructor
+public class EmailJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailJobService.class);
+
+    // A failed or skipped job does not absorb a repeated request; the user gets a fresh attempt
+    private static final EnumSet<EmailJobStatus> DEDUPE_STATUSES = EnumSet.of(
+            EmailJobStatus.PENDING, EmailJobStatus.RUNNING, EmailJobStatus.SENT);
+
+    private final EmailJobRepository emailJobRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${expense.email-jobs.dedupe-window-seconds:300}")
+    private long dedupeWindowSeconds;
+
+    @Value("${expense.email-jobs.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${expense.email-jobs.backoff-initial-ms:30000}")
+    private long backoffInitialMs;
+
+    @Value("${expense.email-jobs.backoff-max-ms:1800000}")
+    private long backoffMaxMs;
+
+    @Value("${expense.email-jobs.lease-ms:300000}")
+    private long leaseMs;
+
+    public enum FailureOutcome {
+        RETRY, FAILED, LEASE_LOST
+    }
+
+    /**
+     * Queues a report mail. An identical request (same user, recipient, report and parameters)
+     * made within the dedupe window returns the job that is already queued or sent.
+     */
+    @Transactional
+    public EmailJobResponse enqueue(UserDTO targetUser, String recipient, EmailReportType type,
+            Map<String, String> params) {
+        String paramsJson = toJson(params);
+        String dedupeKey = dedupeKey(targetUser.getId(), recipient, type, paramsJson);
+        LocalDateTime now = LocalDateTime.now();
+
+        Optional<EmailJob> existing = emailJobRepository.findFirstByDedupeKeyAndStatusInAndCreatedAtAfterOrderByIdDesc(
+                dedupeKey, DEDUPE_STATUSES, now.minusSeconds(dedupeWindowSeconds));
+        if (existing.isPresent()) {
+            logger.info("Email job {} reused for duplicate {} request of user {}", existing.get().getId(), type,
+                    targetUser.getId());
+            return toResponse(existing.get(), true);
+        }
+
+        EmailJob job = new EmailJob();
+        job.setUserId(targetUser.getId());
+        job.setUserEmail(targetUser.getEmail());
+        job.setRecipient(recipient);
+        job.setReportType(type);
+        job.setParams(paramsJson);
+        job.setDedupeKey(dedupeKey);
+        job.setStatus(EmailJobStatus.PENDING);
+        job.setNextAttemptAt(now);
+        job.setCreatedAt(now);
+        EmailJob saved = emailJobRepository.save(job);
+        logger.info("Email job {} queued: {} for user {}", saved.getId(), type, targetUser.getId());
+        return toResponse(saved, false);
+    }
+
+    public Optional<EmailJobResponse> getJob(Long jobId, Integer userId) {
+        return emailJobRepository.findById(jobId)
+                .filter(job -> job.getUserId().equals(userId))
+                .map(job -> toResponse(job, false));
+    }
+
+    /**
+     * Claims up to {@code limit} due jobs for this worker, counting the attempt and taking a lease.
+     * Jobs reclaimed after a lost lease that already used every attempt are failed instead.
+     */
+    @Transactional
+    public List<EmailJob> claimDueJobs(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailJob> jobs = emailJobRepository.lockDueJobs(now, limit);
+        for (EmailJob job : jobs) {
+            if (job.getAttempts() >= maxAttempts) {
+                finish(job, EmailJobStatus.FAILED, "Worker lease expired on the last attempt", now);
+                continue;
+            }
+            job.setStatus(EmailJobStatus.RUNNING);
+            job.setAttempts(job.getAttempts() + 1);
+            job.setLockedUntil(now.plus(Duration.ofMillis(leaseMs)));
+        }
+        emailJobRepository.saveAll(jobs);
+        return jobs.stream().filter(job -> job.getStatus() == EmailJobStatus.RUNNING).toList();
+    }
+
+    /**
+     * Extends the lease of a claimed job. Returns false when the lease was lost and the job has been
+     * claimed again, in which case the caller must stop working on it.
+     */
+    @Transactional
+    public boolean renewLease(EmailJob job) {
+        LocalDateTime lockedUntil = LocalDateTime.now().plus(Duration.ofMillis(leaseMs));
+        if (emailJobRepository.renewLease(job.getId(), job.getAttempts(), lockedUntil) == 0) {
+            return false;
+        }
+        job.setLockedUntil(lockedUntil);
+        return true;
+    }
+
+    /**
+     * Records the send, unless the lease was lost meanwhile. Returns false in that case; the job then
+     * belongs to the worker that reclaimed it and its row is left as that worker wrote it.
+     */
+    @Transactional
+    public boolean markSent(EmailJob job) {
+        return finishLeased(job, EmailJobStatus.SENT, null);
+    }
+
+    @Transactional
+    public boolean markSkipped(EmailJob job) {
+        return finishLeased(job, EmailJobStatus.SKIPPED, "Nothing to send");
+    }
+
+    /**
+     * Schedules another attempt with exponential backoff, or fails the job for good once it has
+     * used every attempt. Like the other updates it only applies while the lease is still held.
+     */
+    @Transactional
+    public FailureOutcome markFailed(EmailJob job, String error) {
+        String message = error != null && error.length() > 500 ? error.substring(0, 500) : error;
+        if (job.getAttempts() >= maxAttempts) {
+            return finishLeased(job, EmailJobStatus.FAILED, message) ? FailureOutcome.FAILED
+                    : FailureOutcome.LEASE_LOST;
+        }
+        long backoff = Math.min(backoffMaxMs, backoffInitialMs << Math.min(job.getAttempts() - 1, 20));
+        LocalDateTime nextAttemptAt = LocalDateTime.now().plus(Duration.ofMillis(backoff));
+        if (emailJobRepository.rescheduleLeased(job.getId(), job.getAttempts(), message, nextAttemptAt) == 0) {
+            return FailureOutcome.LEASE_LOST;
+        }
+        job.setStatus(EmailJobStatus.PENDING);
+        job.setLastError(message);
+        job.setLockedUntil(null);
+        job.setNextAttemptAt(nextAttemptAt);
+        return FailureOutcome.RETRY;
+    }
+
+    @Transactional
+    public int purgeCompletedBefore(LocalDateTime cutoff, int limit) {
+        return emailJobRepository.deleteCompletedBefore(cutoff, limit);
+    }
+
+    public Map<String, String> readParams(EmailJob job) {
+        if (job.getParams() == null || job.getParams().isEmpty()) {
+            return Map.of();
+        }
+        try {
+            return objectMapper.readValue(job.getParams(), new TypeReference<Map<String, String>>() {
+            });
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable parameters on email job " + job.getId(), e);
+        }
+    }
+
+    // Conditional on the attempt count the claim set, which every later claim increments
+    private boolean finishLeased(EmailJob job, EmailJobStatus status, String error) {
+        LocalDateTime now = LocalDateTime.now();
+        if (emailJobRepository.finishLeased(job.getId(), job.getAttempts(), status.name(), error, now) == 0) {
+            return false;
+        }
+        finish(job, status, error, now);
+        return true;
+    }
+
+    private void finish(EmailJob job, EmailJobStatus status, String error, LocalDateTime now) {
+        job.setStatus(status);
+        job.setLastError(error);
+        job.setLockedUntil(null);
+        job.setCompletedAt(now);
+    }
+
+    // Sorted keys, so equal parameter sets always hash the same
+    private String toJson(Map<String, String> params) {
+        try {
+            return objectMapper.writeValueAsString(new TreeMap<>(params));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Email job parameters are not serializable", e);
+        }
+    }
+
+    private String dedupeKey(Integer userId, String recipient, EmailReportType type, String paramsJson) {
+        String source = userId + "|" + recipient.trim().toLowerCase() + "|" + type + "|" + paramsJson;
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(source.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private EmailJobResponse toResponse(EmailJob job, boolean deduplicated) {
+        return EmailJobResponse.builder()
+                .jobId(job.getId())
+                .reportType(job.getReportType().name())
+                .recipient(job.getRecipient())
+                .status(job.getStatus().name())
+                .deduplicated(deduplicated)
+                .attempts(job.getAttempts())
+                .lastError(job.getLastError())
+                .createdAt(job.getCreatedAt())
+                .nextAttemptAt(job.getNextAttemptAt())
+                .completedAt(job.getCompletedAt())
+                .build();
+    }
+}
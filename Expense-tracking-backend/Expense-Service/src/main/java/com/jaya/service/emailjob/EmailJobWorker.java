@@ -0,0 +1,194 @@
+package com.jaya.service.emailjob;
+
+import com.jaya.common.dto.UserDTO;
+import com.jaya.models.EmailJob;
+import com.jaya.models.EmailReportType;
+import com.jaya.service.EmailService;
+import com.jaya.service.ReportHistoryService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Drains the email job queue. Each poll claims only as many jobs as there are idle workers,
+ * so attachment building and SMTP traffic never exceed {@code expense.email-jobs.workers}.
+ * Leases of running jobs are renewed every {@code lease-renew-interval-ms}, and once more right
+ * before the send, so a slow job is not reclaimed and mailed a second time.
+ */
+@Slf4j
+@Component
+public class EmailJobWorker {
+
+    @Autowired
+    private EmailJobService emailJobService;
+
+    @Autowired
+    private EmailReportRenderer renderer;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private ReportHistoryService reportHistoryService;
+
+    @Autowired
+    @Qualifier("emailJobExecutor")
+    private ThreadPoolTaskExecutor emailJobExecutor;
+
+    @Value("${expense.email-jobs.workers:4}")
+    private int workers;
+
+    @Value("${expense.email-jobs.retention-days:14}")
+    private int retentionDays;
+
+    // Claimed jobs by id, from the claim until the worker thread is done with them
+    private final Map<Long, EmailJob> running = new ConcurrentHashMap<>();
+
+    @Scheduled(fixedDelayString = "${expense.email-jobs.poll-interval-ms:1000}")
+    public void poll() {
+        int idle = workers - running.size();
+        if (idle <= 0) {
+            return;
+        }
+        try {
+            List<EmailJob> jobs = emailJobService.claimDueJobs(idle);
+            for (EmailJob job : jobs) {
+                running.put(job.getId(), job);
+                emailJobExecutor.execute(() -> {
+                    try {
+                        process(job);
+                    } finally {
+                        running.remove(job.getId());
+                    }
+                });
+            }
+        } catch (Exception e) {
+            log.error("Email job poll failed: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${expense.email-jobs.lease-renew-interval-ms:60000}")
+    public void renewLeases() {
+        for (EmailJob job : running.values()) {
+            try {
+                // A job that finished since the loop read it has no lease left to renew
+                if (!emailJobService.renewLease(job) && running.containsKey(job.getId())) {
+                    log.warn("Email job {} ({}) lost its lease on attempt {}", job.getId(), job.getReportType(),
+                            job.getAttempts());
+                }
+            } catch (Exception e) {
+                log.error("Could not renew lease of email job {}: {}", job.getId(), e.getMessage(), e);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${expense.email-jobs.purge-interval-ms:3600000}")
+    public void purgeCompleted() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        try {
+            int deleted;
+            int total = 0;
+            do {
+                deleted = emailJobService.purgeCompletedBefore(cutoff, 5000);
+                total += deleted;
+            } while (deleted == 5000);
+            if (total > 0) {
+                log.info("Email job purge removed {} jobs completed before {}", total, cutoff);
+            }
+        } catch (Exception e) {
+            log.error("Email job purge failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void process(EmailJob job) {
+        long start = System.currentTimeMillis();
+        Map<String, String> params = Map.of();
+        try {
+            params = emailJobService.readParams(job);
+            EmailReport report = renderer.render(job.getReportType(), job.getUserId(), params);
+            if (report == null) {
+                if (emailJobService.markSkipped(job)) {
+                    log.info("Email job {} ({}) skipped: nothing to send", job.getId(), job.getReportType());
+                } else {
+                    logLeaseLost(job);
+                }
+                return;
+            }
+            // Rendering can be slow; another worker may have reclaimed the job meanwhile
+            if (!emailJobService.renewLease(job)) {
+                logLeaseLost(job);
+                return;
+            }
+            emailService.sendEmailWithAttachment(job.getRecipient(), report.subject(), report.text(),
+                    new ByteArrayResource(report.attachment()), report.fileName());
+            if (!emailJobService.markSent(job)) {
+                log.warn("Email job {} ({}) sent on attempt {} after losing its lease", job.getId(),
+                        job.getReportType(), job.getAttempts());
+                return;
+            }
+            recordSuccess(job, report, params);
+            log.info("Email job {} ({}) sent on attempt {} in {} ms", job.getId(), job.getReportType(),
+                    job.getAttempts(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+            EmailJobService.FailureOutcome outcome = emailJobService.markFailed(job, error);
+            if (outcome == EmailJobService.FailureOutcome.FAILED) {
+                recordFailure(job, error, params);
+                log.error("Email job {} ({}) failed after {} attempts: {}", job.getId(), job.getReportType(),
+                        job.getAttempts(), error, e);
+            } else if (outcome == EmailJobService.FailureOutcome.RETRY) {
+                log.warn("Email job {} ({}) attempt {} failed, retrying at {}: {}", job.getId(),
+                        job.getReportType(), job.getAttempts(), job.getNextAttemptAt(), error);
+            } else {
+                logLeaseLost(job);
+            }
+        }
+    }
+
+    private void logLeaseLost(EmailJob job) {
+        log.warn("Email job {} ({}) lost its lease on attempt {}; left to the worker that reclaimed it",
+                job.getId(), job.getReportType(), job.getAttempts());
+    }
+
+    private void recordSuccess(EmailJob job, EmailReport report, Map<String, String> params) {
+        EmailReportType type = job.getReportType();
+        if (!type.isRecordedInHistory()) {
+            return;
+        }
+        try {
+            reportHistoryService.logReportSuccess(user(job), type.getHistoryName(), type.getHistoryType(),
+                    type.getHistoryDescription(), job.getRecipient(), report.expenseCount(), report.fileName(),
+                    new HashMap<>(params));
+        } catch (Exception e) {
+            log.warn("Could not record report history for email job {}: {}", job.getId(), e.getMessage());
+        }
+    }
+
+    private void recordFailure(EmailJob job, String error, Map<String, String> params) {
+        EmailReportType type = job.getReportType();
+        if (!type.isRecordedInHistory()) {
+            return;
+        }
+        try {
+            reportHistoryService.logReportFailure(user(job), type.getHistoryName(), type.getHistoryType(),
+                    type.getHistoryDescription(), job.getRecipient(), error, null);
+        } catch (Exception e) {
+            log.warn("Could not record report history for email job {}: {}", job.getId(), e.getMessage());
+        }
+    }
+
+    private UserDTO user(EmailJob job) {
+        return UserDTO.builder().id(job.getUserId()).email(job.getUserEmail()).build();
+    }
+}
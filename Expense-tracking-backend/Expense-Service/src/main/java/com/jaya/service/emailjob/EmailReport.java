@@ -0,0 +1,7 @@
+package com.jaya.service.emailjob;
+
+/**
+ * A rendered report mail. {@code expenseCount} is only used for the report history entry.
+ */
+public record EmailReport(String subject, String text, String fileName, byte[] attachment, int expenseCount) {
+}
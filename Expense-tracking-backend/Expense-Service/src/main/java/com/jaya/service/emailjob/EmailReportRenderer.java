@@ -0,0 +1,218 @@
+package com.jaya.service.emailjob;
+
+import com.jaya.common.dto.UserDTO;
+import com.jaya.models.DailySummary;
+import com.jaya.models.EmailReportType;
+import com.jaya.models.Expense;
+import com.jaya.models.MonthlySummary;
+import com.jaya.service.DailySummaryService;
+import com.jaya.service.ExcelService;
+import com.jaya.service.ExpenseService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the attachment of a queued report mail on a worker thread. Subjects, bodies and file
+ * names are the ones the synchronous endpoints used. Returns {@code null} for reports that the
+ * endpoints answered with 204 No Content when there was nothing to send.
+ */
+@Component
+@RequiredArgsConstructor
+public class EmailReportRenderer {
+
+    private final ExpenseService expenseService;
+    private final DailySummaryService dailySummaryService;
+    private final ExcelService excelService;
+
+    public EmailReport render(EmailReportType type, Integer userId, Map<String, String> params) throws IOException {
+        switch (type) {
+            case EXPENSES_CURRENT_MONTH: {
+                List<Expense> expenses = expenseService.getExpensesForCurrentMonth(userId);
+                return report("Current Month Expenses Report", "Please find attached the current month expenses.",
+                        "current_month_expenses.xlsx", excelService.generateExcel(expenses), expenses.size());
+            }
+            case EXPENSES_LAST_MONTH: {
+                List<Expense> expenses = expenseService.getExpensesForLastMonth(userId);
+                return report("Last Month's Expenses Report", "Please find attached the last month's expenses.",
+                        "last_month_expenses.xlsx", excelService.generateExcel(expenses), expenses.size());
+            }
+            case EXPENSES_BY_MONTH: {
+                int month = Integer.parseInt(params.get("month"));
+                int year = Integer.parseInt(params.get("year"));
+                List<Expense> expenses = expenseService.getExpensesByMonthAndYear(month, year, userId);
+                return report("Expenses Report for " + month + "/" + year,
+                        "Please find attached the expenses report for " + month + "/" + year + ".",
+                        "expenses_" + month + "_" + year + ".xlsx", excelService.generateExcel(expenses),
+                        expenses.size());
+            }
+            case EXPENSES_BY_TYPE_AND_PAYMENT_METHOD: {
+                String expenseType = params.get("type");
+                String paymentMethod = params.get("paymentMethod");
+                List<Expense> expenses = expenseService.getExpensesByTypeAndPaymentMethod(expenseType, paymentMethod,
+                        userId);
+                if (expenses.isEmpty()) {
+                    return null;
+                }
+                return report("Expenses Report for Type: " + expenseType + " and Payment Method: " + paymentMethod,
+                        "Please find attached the expenses report for type: " + expenseType + " and payment method: "
+                                + paymentMethod + ".",
+                        "expenses_" + expenseType + "_" + paymentMethod + ".xlsx", excelService.generateExcel(expenses),
+                        expenses.size());
+            }
+            case EXPENSES_BY_DATE_RANGE: {
+                LocalDate from = LocalDate.parse(params.get("from"));
+                LocalDate to = LocalDate.parse(params.get("to"));
+                List<Expense> expenses = expenseService.getExpensesByDateRange(from, to, userId);
+                if (expenses.isEmpty()) {
+                    return null;
+                }
+                return report("Expenses Report from " + from + " to " + to,
+                        "Please find attached the expenses report from " + from + " to " + to + ".",
+                        "expenses_" + from + "_to_" + to + ".xlsx", excelService.generateExcel(expenses),
+                        expenses.size());
+            }
+            case EXPENSES_GAIN: {
+                List<Expense> expenses = expenseService.getExpensesByType("gain", userId);
+                return report("Gain Expenses Report", "Please find attached the gain expenses report.",
+                        "gain_expenses.xlsx", excelService.generateExcel(expenses), expenses.size());
+            }
+            case EXPENSES_LOSS: {
+                List<Expense> expenses = expenseService.getLossExpenses(userId);
+                if (expenses.isEmpty()) {
+                    return null;
+                }
+                return report("Loss Expenses Report", "Please find attached the loss expenses report.",
+                        "loss_expenses.xlsx", excelService.generateExcel(expenses), expenses.size());
+            }
+            case EXPENSES_TODAY: {
+                List<Expense> expenses = expenseService.getExpensesForToday(userId);
+                return report("Today's Expenses Report", "Please find attached today's expenses report.",
+                        "today_expenses.xlsx", expensesOrEmpty(expenses), expenses.size());
+            }
+            case EXPENSES_YESTERDAY: {
+                List<Expense> expenses = expenseService.getExpensesByDate(LocalDate.parse(params.get("date")), userId);
+                return report("Yesterday's Expenses Report", "Please find attached the list of expenses for yesterday.",
+                        "yesterday_expenses.xlsx", expensesOrEmpty(expenses), expenses.size());
+            }
+            case EXPENSES_BY_DATE: {
+                String date = params.get("date");
+                List<Expense> expenses = expenseService.getExpensesByDate(LocalDate.parse(date), userId);
+                return report("Expenses Report for " + date,
+                        "Please find attached the list of expenses for the date " + date + ".",
+                        "date_expenses_" + date + ".xlsx", expensesOrEmpty(expenses), expenses.size());
+            }
+            case EXPENSES_LAST_WEEK: {
+                List<Expense> expenses = expenseService.getExpensesByLastWeek(userId);
+                return report("Last Week Expenses Report",
+                        "Please find attached the list of expenses for the last week.",
+                        "last_week_expenses.xlsx", expensesOrEmpty(expenses), expenses.size());
+            }
+            case EXPENSES_BY_PAYMENT_METHOD: {
+                String paymentMethod = params.get("paymentMethod");
+                List<Expense> expenses = expenseService.getExpensesByPaymentMethod(paymentMethod, userId);
+                return report("Expenses Report for Payment Method: " + paymentMethod,
+                        "Please find attached the expenses report for payment method: " + paymentMethod + ".",
+                        "expenses_" + paymentMethod + ".xlsx", expensesOrEmpty(expenses), expenses.size());
+            }
+            case EXPENSES_BY_AMOUNT_RANGE: {
+                double minAmount = Double.parseDouble(params.get("minAmount"));
+                double maxAmount = Double.parseDouble(params.get("maxAmount"));
+                List<Expense> expenses = expenseService.getExpenseDetailsByAmountRange(minAmount, maxAmount, userId);
+                ByteArrayInputStream in = expenses.isEmpty() ? excelService.generateEmptyExcelWithColumns()
+                        : excelService.generateExpenseDetailsExcel(expenses);
+                return report("Expense Details Report for Amount Range: " + minAmount + " - " + maxAmount,
+                        "Please find attached the expense details report for amount range: " + minAmount + " - "
+                                + maxAmount + ".",
+                        "expense_details_" + minAmount + "_" + maxAmount + ".xlsx", in, expenses.size());
+            }
+            case EXPENSES_SEARCH: {
+                String expenseName = params.get("expenseName");
+                List<Expense> expenses = expenseService.searchExpensesByName(expenseName, userId);
+                return report("Expense Search Results for: " + expenseName,
+                        "Please find attached the expense search results for: " + expenseName + ".",
+                        "expense_search_results_" + expenseName + ".xlsx", expensesOrEmpty(expenses),
+                        expenses.size());
+            }
+            case MONTHLY_SUMMARY: {
+                int year = Integer.parseInt(params.get("year"));
+                int month = Integer.parseInt(params.get("month"));
+                MonthlySummary summary = expenseService.getMonthlySummary(year, month, userId);
+                return report("Monthly Summary for " + year + "-" + month,
+                        "Please find attached the monthly summary for " + year + "-" + month + ".",
+                        "monthly_summary_" + year + "_" + month + ".xlsx",
+                        excelService.generateMonthlySummaryExcel(summary), 0);
+            }
+            case PAYMENT_METHOD_SUMMARY: {
+                Map<String, Map<String, Double>> summary = expenseService.getPaymentMethodSummary(userId);
+                return report("Payment Method Summary", "Please find attached the payment method summary.",
+                        "payment_method_summary.xlsx", excelService.generatePaymentMethodSummaryExcel(summary), 0);
+            }
+            case YEARLY_SUMMARY: {
+                int year = Integer.parseInt(params.get("year"));
+                Map<String, MonthlySummary> summary = expenseService.getYearlySummary(year, userId);
+                return report("Yearly Summary for " + year, "Please find attached the yearly summary for " + year + ".",
+                        "yearly_summary_" + year + ".xlsx", excelService.generateYearlySummaryExcel(summary), 0);
+            }
+            case SUMMARIES_BETWEEN_DATES: {
+                int startYear = Integer.parseInt(params.get("startYear"));
+                int startMonth = Integer.parseInt(params.get("startMonth"));
+                int endYear = Integer.parseInt(params.get("endYear"));
+                int endMonth = Integer.parseInt(params.get("endMonth"));
+                List<MonthlySummary> summaries = expenseService.getSummaryBetweenDates(startYear, startMonth, endYear,
+                        endMonth, userId);
+                return report("Monthly Summaries from " + startMonth + "/" + startYear + " to " + endMonth + "/"
+                        + endYear, "Please find attached the monthly summaries.", "monthly_summaries.xlsx",
+                        excelService.generateMonthlySummariesExcel(summaries), 0);
+            }
+            case DAILY_SUMMARIES_MONTHLY: {
+                int year = Integer.parseInt(params.get("year"));
+                int month = Integer.parseInt(params.get("month"));
+                List<DailySummary> summaries = dailySummaryService.getDailySummaries(year, month, user(userId));
+                return report("Daily Summaries for " + year + "-" + month,
+                        "Please find attached the daily summaries for " + year + "-" + month + ".",
+                        "daily_summaries_" + year + "_" + month + ".xlsx",
+                        excelService.generateDailySummariesExcel(summaries), 0);
+            }
+            case DAILY_SUMMARIES_YEARLY: {
+                int year = Integer.parseInt(params.get("year"));
+                List<DailySummary> summaries = dailySummaryService.getYearlySummaries(year, user(userId));
+                return report("Yearly Summaries for " + year,
+                        "Please find attached the yearly summaries for " + year + ".",
+                        "yearly_summaries_" + year + ".xlsx", excelService.generateYearlySummariesExcel(summaries), 0);
+            }
+            case DAILY_SUMMARY_DATE: {
+                LocalDate date = LocalDate.parse(params.get("date"));
+                DailySummary summary = dailySummaryService.getDailySummaryForDate(date, user(userId));
+                if (summary == null) {
+                    return null;
+                }
+                return report("Daily Summary for " + date + LocalDateTime.now(),
+                        "Please find attached the daily summary for " + date + ".", "daily_summary_" + date + ".xlsx",
+                        excelService.generateDailySummaryExcel(summary), 0);
+            }
+            default:
+                throw new IllegalArgumentException("Unsupported email report type: " + type);
+        }
+    }
+
+    private ByteArrayInputStream expensesOrEmpty(List<Expense> expenses) throws IOException {
+        return expenses.isEmpty() ? excelService.generateEmptyExcelWithColumns() : excelService.generateExcel(expenses);
+    }
+
+    private EmailReport report(String subject, String text, String fileName, ByteArrayInputStream in,
+            int expenseCount) {
+        return new EmailReport(subject, text, fileName, in.readAllBytes(), expenseCount);
+    }
+
+    // The daily summary service only reads the user id
+    private UserDTO user(Integer userId) {
+        return UserDTO.builder().id(userId).build();
+    }
+}
@@ -1,6 +1,7 @@
 package com.jaya.service.expenses;
 
 
+import com.jaya.dto.ExpenseDTO;
 import com.jaya.models.Expense;
 import java.util.List;
 
@@ -11,6 +12,7 @@ public interface ExpenseBillService {
 
     
     Expense updateExpenseWithBillService(Integer id, Expense updatedExpense, Integer userId) throws Exception;
+    List<ExpenseDTO> addExpensesWithBillService(List<ExpenseDTO> expenses, Integer userId) throws Exception;
     void deleteExpensesByIdsWithBillService(List<Integer> ids, Integer userId) throws Exception;
     void deleteAllExpenses(Integer userId, List<Expense> expenses);
 }
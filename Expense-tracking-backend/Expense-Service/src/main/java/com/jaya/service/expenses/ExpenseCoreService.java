@@ -27,6 +27,7 @@ public interface ExpenseCoreService {
 
     
     List<Expense> addMultipleExpenses(List<Expense> expenses, Integer userId) throws Exception;
+    List<ExpenseDTO> addExpensesWithBillService(List<ExpenseDTO> expenses, Integer userId) throws Exception;
     List<Expense> addMultipleExpensesWithProgress(List<Expense> expenses, Integer userId, String jobId) throws Exception;
     List<Expense> updateMultipleExpenses(Integer userId, List<Expense> expenses) throws Exception;
     List<Expense> saveExpenses(List<Expense> expenses);
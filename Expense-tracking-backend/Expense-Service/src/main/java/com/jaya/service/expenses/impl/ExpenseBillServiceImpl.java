@@ -1,5 +1,6 @@
 package com.jaya.service.expenses.impl;
 
+import com.jaya.dto.ExpenseDTO;
 import com.jaya.models.Expense;
 import com.jaya.service.expenses.ExpenseBillService;
 import com.jaya.service.expenses.ExpenseCoreService;
@@ -17,6 +18,11 @@ public class ExpenseBillServiceImpl implements ExpenseBillService {
         return expenseCoreService.updateExpenseWithBillService(id,updatedExpense,userId);
     }
 
+    @Override
+    public List<ExpenseDTO> addExpensesWithBillService(List<ExpenseDTO> expenses, Integer userId) throws Exception {
+        return expenseCoreService.addExpensesWithBillService(expenses, userId);
+    }
+
     @Override
     public void deleteExpensesByIdsWithBillService(List<Integer> ids, Integer userId) throws Exception {
             expenseCoreService.deleteExpensesByIdsWithBillService(ids,userId);
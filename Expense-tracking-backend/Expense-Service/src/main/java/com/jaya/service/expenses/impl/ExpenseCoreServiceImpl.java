@@ -14,6 +14,8 @@ import com.jaya.kafka.BudgetExpenseKafkaProducerService;
 import com.jaya.kafka.AuditEventProducer;
 import com.jaya.kafka.CategoryExpenseKafkaProducerService;
 import com.jaya.kafka.PaymentMethodKafkaProducerService;
+import com.jaya.kafka.events.ExpenseNotificationEvent;
+import com.jaya.kafka.service.ExpenseNotificationService;
 import com.jaya.models.*;
 import com.jaya.repository.ExpenseReportRepository;
 import com.jaya.repository.ExpenseRepository;
@@ -36,6 +38,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.hibernate.SessionFactory;
 import org.hibernate.StatelessSession;
 import org.hibernate.Transaction;
@@ -106,6 +109,12 @@ public class ExpenseCoreServiceImpl implements ExpenseCoreService {
     @Autowired
     private AuditEventProducer auditEventProducer;
 
+    @Autowired
+    private ExpenseNotificationService expenseNotificationService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     @Autowired
     private com.jaya.mapper.ExpenseMapper expenseMapper;
 
@@ -118,6 +127,10 @@ public class ExpenseCoreServiceImpl implements ExpenseCoreService {
         this.expenseReportRepository = expenseReportRepository;
     }
 
+    /**
+     * The user, budget and category lookups are remote calls, so they run before the transaction
+     * that saves the expense together with its outbox events.
+     */
     @Override
     public ExpenseDTO addExpense(ExpenseDTO expenseDTO, Integer userId) throws Exception {
 
@@ -156,16 +169,21 @@ public class ExpenseCoreServiceImpl implements ExpenseCoreService {
 
         handleCategory(expense, UserDTO);
 
-        Expense savedExpense = expenseRepository.save(expense);
+        Expense savedExpense = transactionTemplate.execute(status -> {
+            Expense saved = expenseRepository.save(expense);
 
-        handlePaymentMethod(savedExpense, UserDTO);
+            handlePaymentMethod(saved, UserDTO);
 
-        updateCategoryExpenseIds(savedExpense, userId);
+            updateCategoryExpenseIds(saved, userId);
 
-        updateBudgetExpenseLinks(savedExpense, validBudgetIds, UserDTO);
+            updateBudgetExpenseLinks(saved, validBudgetIds, UserDTO);
 
-        publishExpenseAuditEvent("CREATE", savedExpense, UserDTO, null, expenseToMap(savedExpense), "Expense created",
-                "SUCCESS");
+            expenseNotificationService.enqueueExpenseEvent(saved, ExpenseNotificationEvent.Action.CREATE);
+
+            publishExpenseAuditEvent("CREATE", saved, UserDTO, null, expenseToMap(saved), "Expense created",
+                    "SUCCESS");
+            return saved;
+        });
 
         com.jaya.dto.UserSettingsDTO userSettings = userSettingsService.getUserSettings(userId);
         Boolean maskSensitiveData = userSettings != null ? userSettings.getMaskSensitiveData() : false;
@@ -230,6 +248,7 @@ public class ExpenseCoreServiceImpl implements ExpenseCoreService {
         entityManager.clear();
 
         Expense refreshedExpense = expenseRepository.findByUserIdAndId(userId, id);
+        expenseNotificationService.enqueueExpenseEvent(refreshedExpense, ExpenseNotificationEvent.Action.UPDATE);
 
         publishExpenseAuditEvent("UPDATE", refreshedExpense, UserDTO, oldValues, expenseToMap(refreshedExpense),
                 "Expense updated",
@@ -254,6 +273,7 @@ public class ExpenseCoreServiceImpl implements ExpenseCoreService {
         entityManager.clear();
 
         Expense refreshedExpense = expenseRepository.findByUserIdAndId(userId, id);
+        expenseNotificationService.enqueueExpenseEvent(refreshedExpense, ExpenseNotificationEvent.Action.UPDATE);
 
         publishExpenseAuditEvent("UPDATE", refreshedExpense, UserDTO, oldValues, expenseToMap(refreshedExpense),
                 "Expense (bill service) updated", "SUCCESS");
@@ -364,6 +384,7 @@ public class ExpenseCoreServiceImpl implements ExpenseCoreService {
         Map<String, Object> oldValues = expenseToMap(expense);
         UserDTO UserDTO = helper.validateUser(userId);
         String expenseJson = jsonConverter.toJson(getExpenseById(id, userId));
+        expenseNotificationService.enqueueExpenseEvent(expense, ExpenseNotificationEvent.Action.DELETE);
         expenseRepository.deleteById(id);
         publishExpenseAuditEvent("DELETE", expense, UserDTO, oldValues, null, "Expense deleted", "SUCCESS");
     }
@@ -444,6 +465,7 @@ public class ExpenseCoreServiceImpl implements ExpenseCoreService {
         final int BATCH_SIZE = 1000;
 
         List<Expense> expensesForAsync = createExpenseCopiesForAsync(expensesToDelete);
+        expenseNotificationService.enqueueExpenseEvents(expensesToDelete, ExpenseNotificationEvent.Action.DELETE);
 
         for (int i = 0; i < expenseIds.size(); i += BATCH_SIZE) {
             int endIndex = Math.min(i + BATCH_SIZE, expenseIds.size());
@@ -531,11 +553,43 @@ public class ExpenseCoreServiceImpl implements ExpenseCoreService {
         entityManager.flush();
         entityManager.clear();
 
+        expenseNotificationService.enqueueExpenseEvents(savedExpenses, ExpenseNotificationEvent.Action.CREATE);
         asyncExpensePostProcessor.publishEvent(new ArrayList<>(savedExpenses), userId, UserDTO);
 
         return savedExpenses;
     }
 
+    @Override
+    @Transactional
+    public List<ExpenseDTO> addExpensesWithBillService(List<ExpenseDTO> expenseDTOs, Integer userId)
+            throws Exception {
+        UserDTO UserDTO = helper.validateUser(userId);
+        List<Expense> expenses = new ArrayList<>(expenseDTOs.size());
+
+        for (ExpenseDTO expenseDTO : expenseDTOs) {
+            Expense expense = expenseMapper.toEntity(expenseDTO);
+            validateExpenseData(expense, UserDTO);
+
+            ExpenseDetails details = expense.getExpense();
+            // Same defaults as addExpense, which bills used to go through one at a time
+            details.setExpenseName(details.getExpenseName() != null ? details.getExpenseName() : "");
+            details.setType(details.getType() != null ? details.getType() : "");
+            details.setPaymentMethod(details.getPaymentMethod() != null ? details.getPaymentMethod() : "");
+            details.setComments(details.getComments() != null ? details.getComments() : "");
+            details.setNetAmount(details.getType().equals("loss") ? -details.getAmount() : details.getAmount());
+            details.setCreditDue(details.getPaymentMethod().equals(CREDIT_NEED_TO_PAID) ? details.getAmount() : 0);
+            expenses.add(expense);
+        }
+
+        // Saved in request order, so the caller can pair each returned id with its own record
+        List<Expense> savedExpenses = addMultipleExpenses(expenses, userId);
+        for (Expense savedExpense : savedExpenses) {
+            publishExpenseAuditEvent("CREATE", savedExpense, UserDTO, null, expenseToMap(savedExpense),
+                    "Expense created", "SUCCESS");
+        }
+        return savedExpenses.stream().map(expenseMapper::toDTO).collect(Collectors.toList());
+    }
+
     @Override
     @Transactional
     public List<Expense> addMultipleExpensesWithProgress(List<Expense> expenses, Integer userId, String jobId)
@@ -613,6 +667,7 @@ public class ExpenseCoreServiceImpl implements ExpenseCoreService {
                 progressTracker.increment(jobId, progressSinceLastUpdate);
             }
 
+            expenseNotificationService.enqueueExpenseEvents(savedExpenses, ExpenseNotificationEvent.Action.CREATE);
             asyncExpensePostProcessor.publishEvent(new ArrayList<>(savedExpenses), userId, UserDTO, jobId);
             return savedExpenses;
         } catch (Exception ex) {
@@ -685,6 +740,11 @@ public class ExpenseCoreServiceImpl implements ExpenseCoreService {
                 if (progressSinceLastUpdate > 0) {
                     progressTracker.increment(jobId, progressSinceLastUpdate);
                 }
+                // Same stateless transaction, so the batch events commit or roll back with the rows
+                for (OutboxEvent event : expenseNotificationService.prepareExpenseEvents(savedExpenses,
+                        ExpenseNotificationEvent.Action.CREATE)) {
+                    session.insert(event);
+                }
                 tx.commit();
             } catch (Exception e) {
                 if (tx != null)
@@ -1042,6 +1102,8 @@ public class ExpenseCoreServiceImpl implements ExpenseCoreService {
             System.err.println("Errors occurred while updating expenses: " + String.join("; ", errorMessages));
         }
 
+        expenseNotificationService.enqueueExpenseEvents(updatedExpenses, ExpenseNotificationEvent.Action.UPDATE);
+
         return updatedExpenses;
     }
 
@@ -1423,6 +1485,7 @@ public class ExpenseCoreServiceImpl implements ExpenseCoreService {
 
         if (!expensesToDelete.isEmpty()) {
 
+            expenseNotificationService.enqueueExpenseEvents(expensesToDelete, ExpenseNotificationEvent.Action.DELETE);
             expenseRepository.deleteAll(expensesToDelete);
 
             List<Expense> expensesForAsync = new ArrayList<>();
@@ -1552,8 +1615,7 @@ public class ExpenseCoreServiceImpl implements ExpenseCoreService {
         }
     }
 
-    public void updateBudgetExpenseLinks(Expense savedExpense, Set<Integer> validBudgetIds, UserDTO UserDTO)
-            throws Exception {
+    public void updateBudgetExpenseLinks(Expense savedExpense, Set<Integer> validBudgetIds, UserDTO UserDTO) {
         if (!validBudgetIds.isEmpty()) {
             BudgetExpenseEvent budgetEvent = new BudgetExpenseEvent(UserDTO.getId(), savedExpense.getId(), validBudgetIds,
                     "ADD");
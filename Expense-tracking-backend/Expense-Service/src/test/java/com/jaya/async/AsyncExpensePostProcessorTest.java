@@ -0,0 +1,201 @@
+package com.jaya.async;
+
+import com.jaya.common.dto.UserDTO;
+import com.jaya.dto.PaymentMethodEvent;
+import com.jaya.events.BudgetExpenseEvent;
+import com.jaya.events.CategoryExpenseEvent;
+import com.jaya.kafka.BudgetExpenseKafkaProducerService;
+import com.jaya.kafka.CategoryExpenseKafkaProducerService;
+import com.jaya.kafka.PaymentMethodKafkaProducerService;
+import com.jaya.models.Expense;
+import com.jaya.models.ExpenseDetails;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Counts what {@link AsyncExpensePostProcessor} hands to the Kafka producers for a bulk import
+ * and a bulk delete, against the one-event-per-expense-and-kind it used to send. The methods are
+ * called on the bean directly, so {@code @Async} does not apply and the sends are done on return.
+ * The producers are mocked, so the timed import covers grouping, chunking and building the events;
+ * its bound is a CI ceiling, not the expected time.
+ */
+class AsyncExpensePostProcessorTest {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncExpensePostProcessorTest.class);
+
+    private static final int USER_ID = 7;
+    private static final int EXPENSES = 10_000;
+    private static final int MAX_IDS_PER_EVENT = 1000;
+    private static final long MAX_PUBLISH_MS = 500;
+    private static final String[] METHODS = { "UPI", "Cash", "Credit Card", "Debit Card" };
+
+    private final List<PaymentMethodEvent> paymentEvents = Collections.synchronizedList(new ArrayList<>());
+    private final List<CategoryExpenseEvent> categoryEvents = Collections.synchronizedList(new ArrayList<>());
+    private final List<BudgetExpenseEvent> budgetEvents = Collections.synchronizedList(new ArrayList<>());
+
+    private AsyncExpensePostProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        PaymentMethodKafkaProducerService paymentProducer = mock(PaymentMethodKafkaProducerService.class);
+        CategoryExpenseKafkaProducerService categoryProducer = mock(CategoryExpenseKafkaProducerService.class);
+        BudgetExpenseKafkaProducerService budgetProducer = mock(BudgetExpenseKafkaProducerService.class);
+        doAnswer(invocation -> paymentEvents.add(invocation.getArgument(0)))
+                .when(paymentProducer).sendPaymentMethodEvent(any());
+        doAnswer(invocation -> categoryEvents.add(invocation.getArgument(0)))
+                .when(categoryProducer).sendCategoryExpenseEvent(any());
+        doAnswer(invocation -> budgetEvents.add(invocation.getArgument(0)))
+                .when(budgetProducer).sendBudgetExpenseEvent(any());
+
+        processor = new AsyncExpensePostProcessor(paymentProducer, categoryProducer, budgetProducer,
+                new ConcurrentMapCacheManager("expenses"), MAX_IDS_PER_EVENT);
+    }
+
+    @Test
+    void bulkImportSendsOneEventPerGroupChunk() {
+        List<Expense> expenses = bulkExpenses();
+        UserDTO user = UserDTO.builder().id(USER_ID).build();
+
+        // Warm up class loading and the JIT on the same import, then count and time a clean run
+        processor.publishEvent(expenses, USER_ID, user);
+        paymentEvents.clear();
+        categoryEvents.clear();
+        budgetEvents.clear();
+        long start = System.nanoTime();
+        processor.publishEvent(expenses, USER_ID, user);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // 8 payment method/type groups of 1250, 10 categories of 1000, 5 budgets of ~1333
+        assertEquals(16, paymentEvents.size());
+        assertEquals(10, categoryEvents.size());
+        assertEquals(10, budgetEvents.size());
+        assertCoversEveryExpense(expenses);
+
+        int sent = paymentEvents.size() + categoryEvents.size() + budgetEvents.size();
+        int perExpense = perExpenseEventCount(expenses);
+        log.info("Bulk import of {} expenses: {} events sent in {} ms, {} with one event per expense",
+                EXPENSES, sent, elapsedMs, perExpense);
+        assertEquals(26_666, perExpense);
+        assertTrue(sent * 500 < perExpense, "expected at least 500x fewer events, sent " + sent);
+        assertTrue(elapsedMs < MAX_PUBLISH_MS, "publishing took " + elapsedMs + " ms");
+    }
+
+    @Test
+    void bulkDeleteSendsRemovalsPerGroupChunk() {
+        List<Expense> expenses = bulkExpenses();
+
+        processor.publishDeletionEvents(expenses, USER_ID);
+
+        assertEquals(16, paymentEvents.size());
+        assertEquals(10, categoryEvents.size());
+        assertEquals(10, budgetEvents.size());
+        assertCoversEveryExpense(expenses);
+        assertTrue(paymentEvents.stream().allMatch(event -> "REMOVE".equals(event.getEventType())));
+        assertTrue(categoryEvents.stream().allMatch(event -> "REMOVE".equals(event.getAction())));
+        assertTrue(budgetEvents.stream().allMatch(event -> "REMOVE".equals(event.getAction())));
+    }
+
+    @Test
+    void singleExpenseKeepsTheSingleExpenseShape() {
+        Expense expense = expense(41, "UPI", "loss", 3, Set.of(100));
+
+        processor.publishEvent(List.of(expense), USER_ID, UserDTO.builder().id(USER_ID).build());
+
+        assertEquals(1, paymentEvents.size());
+        assertEquals(1, categoryEvents.size());
+        assertEquals(1, budgetEvents.size());
+        assertEquals(41, paymentEvents.get(0).getExpenseId());
+        assertNull(paymentEvents.get(0).getExpenseIds());
+        assertEquals(41, categoryEvents.get(0).getExpenseId());
+        assertNull(categoryEvents.get(0).getExpenseIds());
+        assertEquals(41, budgetEvents.get(0).getExpenseId());
+        assertNull(budgetEvents.get(0).getExpenseIds());
+        assertEquals(Set.of(100), budgetEvents.get(0).getBudgetIds());
+    }
+
+    // Every expense must reach each consumer exactly once, in events no larger than the cap
+    private void assertCoversEveryExpense(List<Expense> expenses) {
+        List<Integer> allIds = expenses.stream().map(Expense::getId).sorted().toList();
+        List<Integer> budgetedIds = expenses.stream().filter(e -> !e.getBudgetIds().isEmpty())
+                .map(Expense::getId).sorted().toList();
+
+        assertEquals(allIds, sortedIds(paymentEvents.stream()
+                .map(event -> ids(event.getExpenseId(), event.getExpenseIds())).toList()));
+        assertEquals(allIds, sortedIds(categoryEvents.stream()
+                .map(event -> ids(event.getExpenseId(), event.getExpenseIds())).toList()));
+        assertEquals(budgetedIds, sortedIds(budgetEvents.stream()
+                .map(event -> ids(event.getExpenseId(), event.getExpenseIds())).toList()));
+
+        // Grouping ignores case and surrounding spaces of the payment method name
+        Set<String> groups = paymentEvents.stream()
+                .map(event -> event.getPaymentMethodName().toLowerCase() + "|" + event.getPaymentType())
+                .collect(Collectors.toSet());
+        assertEquals(8, groups.size());
+    }
+
+    private static List<Integer> ids(Integer expenseId, List<Integer> expenseIds) {
+        if (expenseIds == null) {
+            return List.of(expenseId);
+        }
+        assertNull(expenseId);
+        assertTrue(expenseIds.size() <= MAX_IDS_PER_EVENT, "event carries " + expenseIds.size() + " ids");
+        return expenseIds;
+    }
+
+    private static List<Integer> sortedIds(List<List<Integer>> perEvent) {
+        return perEvent.stream().flatMap(List::stream).sorted().toList();
+    }
+
+    // What the per-expense path sent: one event per expense for each kind it belongs to
+    private static int perExpenseEventCount(List<Expense> expenses) {
+        return expenses.size() + expenses.size()
+                + (int) expenses.stream().filter(e -> !e.getBudgetIds().isEmpty()).count();
+    }
+
+    private static List<Expense> bulkExpenses() {
+        return IntStream.range(0, EXPENSES).mapToObj(i -> {
+            String method = METHODS[i % 4];
+            if ((i / 8) % 2 == 1) {
+                method = " " + method.toLowerCase() + " ";
+            }
+            String type = (i / 4) % 2 == 0 ? "loss" : "gain";
+            Set<Integer> budgets = i % 3 == 0 ? new HashSet<>() : new HashSet<>(Set.of(100 + i % 5));
+            return expense(i + 1, method, type, 1 + i % 10, budgets);
+        }).toList();
+    }
+
+    private static Expense expense(int id, String paymentMethod, String type, int categoryId, Set<Integer> budgets) {
+        Expense expense = new Expense();
+        expense.setId(id);
+        expense.setUserId(USER_ID);
+        expense.setCategoryId(categoryId);
+        expense.setCategoryName("Category " + categoryId);
+        expense.setBudgetIds(budgets);
+        ExpenseDetails details = new ExpenseDetails();
+        details.setExpenseName("Expense " + id);
+        details.setAmount(10);
+        details.setType(type);
+        details.setPaymentMethod(paymentMethod);
+        details.setExpense(expense);
+        expense.setExpense(details);
+        return expense;
+    }
+}
@@ -0,0 +1,162 @@
+package com.jaya.kafka.outbox;
+
+import com.jaya.models.OutboxEvent;
+import com.jaya.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Per-key ordering of the outbox relay against the real queue queries on H2 in MySQL mode, with a
+ * stub broker that fails chosen payloads a given number of times.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class OutboxBatchSenderTest {
+
+    private static final String TOPIC = "expense-events";
+    private static final int MAX_ATTEMPTS = 2;
+
+    @Configuration
+    @EntityScan(basePackageClasses = OutboxEvent.class)
+    @EnableJpaRepositories(basePackageClasses = OutboxEventRepository.class)
+    static class Config {
+    }
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private final List<String> sent = Collections.synchronizedList(new ArrayList<>());
+    private final Map<String, Integer> failuresLeft = new HashMap<>();
+
+    private OutboxBatchSender sender;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        KafkaTemplate<String, String> kafkaTemplate = mock(KafkaTemplate.class);
+        when(kafkaTemplate.send(anyString(), anyString(), anyString())).thenAnswer(invocation -> {
+            String payload = invocation.getArgument(2);
+            sent.add(payload);
+            int left = failuresLeft.getOrDefault(payload, 0);
+            if (left > 0) {
+                failuresLeft.put(payload, left - 1);
+                return CompletableFuture.failedFuture(new IllegalStateException("broker unavailable"));
+            }
+            return CompletableFuture.completedFuture(null);
+        });
+
+        sender = new OutboxBatchSender();
+        ReflectionTestUtils.setField(sender, "outboxEventRepository", outboxEventRepository);
+        ReflectionTestUtils.setField(sender, "outboxKafkaTemplate", kafkaTemplate);
+        ReflectionTestUtils.setField(sender, "maxAttempts", MAX_ATTEMPTS);
+        ReflectionTestUtils.setField(sender, "sendTimeoutMs", 1000L);
+    }
+
+    @Test
+    void acknowledgedRowsBehindAFailureAreNotResent() {
+        OutboxEvent first = enqueue("UserDTO-1", "a1");
+        OutboxEvent acked = enqueue("UserDTO-1", "a2");
+        OutboxEvent unacked = enqueue("UserDTO-1", "a3");
+        enqueue("UserDTO-2", "b1");
+        failuresLeft.put("a1", 1);
+        failuresLeft.put("a3", 1);
+
+        OutboxBatchSender.BatchResult result = relay(10);
+
+        assertEquals(2, result.published());
+        assertEquals(2, result.failed());
+        assertEquals(1, reload(first).getAttempts());
+        // Held back behind a1, so its failure does not use up an attempt
+        assertEquals(0, reload(unacked).getAttempts());
+        assertNotNull(reload(acked).getPublishedAt());
+
+        relay(10);
+
+        assertEquals(List.of("a1", "a2", "a3", "b1", "a1", "a3"), sent);
+        assertEquals(0, outboxEventRepository.countPending(MAX_ATTEMPTS));
+    }
+
+    @Test
+    void rowsBehindADeadRowAreParkedUntilReplayed() {
+        OutboxEvent dead = enqueue("UserDTO-1", "a1");
+        OutboxEvent parked = enqueue("UserDTO-1", "a2");
+        OutboxEvent other = enqueue("UserDTO-2", "b1");
+        failuresLeft.put("a1", MAX_ATTEMPTS);
+
+        relay(1);
+        relay(1);
+        assertEquals(MAX_ATTEMPTS, reload(dead).getAttempts());
+
+        // a1 is dead: a2 must not overtake it, other keys carry on
+        assertEquals(1, relay(1).published());
+        assertEquals(0, relay(1).published());
+        assertEquals(List.of("a1", "a1", "b1"), sent);
+        assertNull(reload(parked).getPublishedAt());
+        assertNotNull(reload(other).getPublishedAt());
+        assertEquals(1, outboxEventRepository.countDead(MAX_ATTEMPTS));
+        assertEquals(1, outboxEventRepository.countParked(MAX_ATTEMPTS));
+
+        outboxEventRepository.resetForReplay(LocalDateTime.now().minusHours(1), LocalDateTime.now().plusHours(1), TOPIC);
+        entityManager.clear();
+        sent.clear();
+        relay(10);
+
+        assertEquals(List.of("a1", "a2", "b1"), sent);
+        assertEquals(0, outboxEventRepository.countParked(MAX_ATTEMPTS));
+    }
+
+    private OutboxBatchSender.BatchResult relay(int limit) {
+        OutboxBatchSender.BatchResult result = sender.relayBatch(limit);
+        entityManager.flush();
+        entityManager.clear();
+        return result;
+    }
+
+    private OutboxEvent enqueue(String key, String payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setTopic(TOPIC);
+        event.setMessageKey(key);
+        event.setEventType("EXPENSE_EVENT");
+        event.setPayload(payload);
+        event.setCreatedAt(LocalDateTime.now());
+        OutboxEvent saved = outboxEventRepository.save(event);
+        entityManager.flush();
+        return saved;
+    }
+
+    private OutboxEvent reload(OutboxEvent event) {
+        return outboxEventRepository.findById(event.getId()).orElseThrow();
+    }
+}
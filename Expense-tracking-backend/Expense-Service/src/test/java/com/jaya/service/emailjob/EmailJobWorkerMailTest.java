@@ -0,0 +1,451 @@
+package com.jaya.service.emailjob;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.jaya.common.dto.UserDTO;
+import com.jaya.dto.EmailJobResponse;
+import com.jaya.models.EmailJob;
+import com.jaya.models.EmailJobStatus;
+import com.jaya.models.EmailReportType;
+import com.jaya.repository.EmailJobRepository;
+import com.jaya.repository.EmailLogRepository;
+import com.jaya.service.EmailService;
+import com.jaya.service.ReportHistoryService;
+import jakarta.mail.Multipart;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the email job queue end to end against a GreenMail SMTP server: {@link EmailJobService}
+ * enqueues and claims, {@link EmailJobWorker} renders and sends through the real
+ * {@link EmailService}. The job table is an in-memory stand-in for {@link EmailJobRepository},
+ * since its claim query is MySQL-specific; like JPA it hands out copies, so a worker's job is its
+ * own snapshot of the row. Polls and lease renewals are driven by hand instead of the scheduler.
+ */
+@SpringJUnitConfig(EmailJobWorkerMailTest.TestConfig.class)
+@TestPropertySource(properties = {
+        "expense.email-jobs.workers=2",
+        "expense.email-jobs.max-attempts=3",
+        "expense.email-jobs.backoff-initial-ms=60000",
+        "expense.email-jobs.backoff-max-ms=600000",
+        "expense.email-jobs.lease-ms=300000"
+})
+class EmailJobWorkerMailTest {
+
+    private static final String RECIPIENT = "reports@example.com";
+
+    @RegisterExtension
+    static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private static final Map<Long, EmailJob> jobs = new ConcurrentHashMap<>();
+    private static final AtomicLong ids = new AtomicLong();
+
+    @Configuration
+    @Import({EmailJobService.class, EmailJobWorker.class, EmailService.class})
+    static class TestConfig {
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+
+        @Bean
+        JavaMailSenderImpl mailSender() {
+            JavaMailSenderImpl sender = new JavaMailSenderImpl();
+            sender.setHost("localhost");
+            sender.setPort(ServerSetupTest.SMTP.getPort());
+            sender.getJavaMailProperties().put("mail.smtp.connectiontimeout", "2000");
+            sender.getJavaMailProperties().put("mail.smtp.timeout", "2000");
+            return sender;
+        }
+
+        @Bean(name = "emailJobExecutor")
+        ThreadPoolTaskExecutor emailJobExecutor() {
+            ThreadPoolTaskExecutor ex = new ThreadPoolTaskExecutor();
+            ex.setCorePoolSize(2);
+            ex.setMaxPoolSize(2);
+            ex.setQueueCapacity(2);
+            ex.setThreadNamePrefix("EmailJobTest-");
+            ex.initialize();
+            return ex;
+        }
+
+        @Bean
+        EmailLogRepository emailLogRepository() {
+            return mock(EmailLogRepository.class);
+        }
+
+        @Bean
+        EmailJobRepository emailJobRepository() {
+            EmailJobRepository repository = mock(EmailJobRepository.class);
+            when(repository.save(any(EmailJob.class))).thenAnswer(invocation -> store(invocation.getArgument(0)));
+            when(repository.saveAll(anyIterable())).thenAnswer(invocation -> {
+                Iterable<EmailJob> saved = invocation.getArgument(0);
+                saved.forEach(EmailJobWorkerMailTest::store);
+                return saved;
+            });
+            when(repository.findById(any())).thenAnswer(invocation -> Optional.ofNullable(
+                    jobs.get((Long) invocation.getArgument(0))).map(EmailJobWorkerMailTest::copy));
+            when(repository.findFirstByDedupeKeyAndStatusInAndCreatedAtAfterOrderByIdDesc(anyString(),
+                    anyCollection(), any())).thenReturn(Optional.empty());
+            when(repository.lockDueJobs(any(), anyInt())).thenAnswer(invocation -> {
+                LocalDateTime now = invocation.getArgument(0);
+                int limit = invocation.getArgument(1);
+                return jobs.values().stream()
+                        .filter(job -> (job.getStatus() == EmailJobStatus.PENDING && !job.getNextAttemptAt().isAfter(now))
+                                || (job.getStatus() == EmailJobStatus.RUNNING && job.getLockedUntil().isBefore(now)))
+                        .sorted(Comparator.comparing(EmailJob::getNextAttemptAt).thenComparing(EmailJob::getId))
+                        .limit(limit)
+                        .map(EmailJobWorkerMailTest::copy)
+                        .toList();
+            });
+            when(repository.renewLease(any(), anyInt(), any())).thenAnswer(invocation -> updateLeased(
+                    invocation.getArgument(0), invocation.getArgument(1),
+                    job -> job.setLockedUntil(invocation.getArgument(2))));
+            when(repository.finishLeased(any(), anyInt(), any(), any(), any())).thenAnswer(invocation -> updateLeased(
+                    invocation.getArgument(0), invocation.getArgument(1), job -> {
+                        job.setStatus(EmailJobStatus.valueOf(invocation.getArgument(2)));
+                        job.setLastError(invocation.getArgument(3));
+                        job.setLockedUntil(null);
+                        job.setCompletedAt(invocation.getArgument(4));
+                    }));
+            when(repository.rescheduleLeased(any(), anyInt(), any(), any())).thenAnswer(invocation -> updateLeased(
+                    invocation.getArgument(0), invocation.getArgument(1), job -> {
+                        job.setStatus(EmailJobStatus.PENDING);
+                        job.setLastError(invocation.getArgument(2));
+                        job.setLockedUntil(null);
+                        job.setNextAttemptAt(invocation.getArgument(3));
+                    }));
+            return repository;
+        }
+    }
+
+    @Autowired
+    private EmailJobService emailJobService;
+
+    @Autowired
+    private EmailJobWorker worker;
+
+    @Autowired
+    private JavaMailSenderImpl mailSender;
+
+    // Mocked as overrides rather than returned from @Bean methods, which would still get the real
+    // classes' @Autowired fields injected
+    @MockBean
+    private EmailReportRenderer renderer;
+
+    @MockBean
+    private ReportHistoryService reportHistoryService;
+
+    @Autowired
+    private EmailJobRepository emailJobRepository;
+
+    private final UserDTO user = UserDTO.builder().id(7).email("owner@example.com").build();
+
+    @BeforeEach
+    void reset() throws Exception {
+        jobs.clear();
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+        when(renderer.render(any(), any(), anyMap())).thenReturn(report());
+    }
+
+    @Test
+    void sendsQueuedReportThroughSmtp() throws Exception {
+        Long jobId = enqueue();
+
+        worker.poll();
+        EmailJob job = awaitSettled(jobId);
+
+        assertEquals(EmailJobStatus.SENT, job.getStatus());
+        assertEquals(1, job.getAttempts());
+        assertNull(job.getLastError());
+        assertNotNull(job.getCompletedAt());
+
+        assertTrue(greenMail.waitForIncomingEmail(5000, 1));
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(1, received.length);
+        assertEquals("Current Month Expenses Report", received[0].getSubject());
+        assertEquals(RECIPIENT, received[0].getAllRecipients()[0].toString());
+        Multipart body = (Multipart) received[0].getContent();
+        assertEquals("current_month_expenses.xlsx", body.getBodyPart(1).getFileName());
+        verify(reportHistoryService, timeout(2000)).logReportSuccess(any(), eq("Current Month Expenses Report"), any(), any(),
+                eq(RECIPIENT), eq(4), eq("current_month_expenses.xlsx"), any());
+    }
+
+    @Test
+    void retriesWithGrowingBackoffUntilSmtpRecovers() throws Exception {
+        Long jobId = enqueue();
+        mailSender.setPort(closedPort());
+
+        LocalDateTime before = LocalDateTime.now();
+        worker.poll();
+        EmailJob job = awaitSettled(jobId);
+        assertEquals(EmailJobStatus.PENDING, job.getStatus());
+        assertEquals(1, job.getAttempts());
+        assertNotNull(job.getLastError());
+        assertBackoff(before, job.getNextAttemptAt(), Duration.ofSeconds(60));
+
+        // Not due yet: another poll leaves it alone
+        worker.poll();
+        assertEquals(1, awaitSettled(jobId).getAttempts());
+
+        before = elapseBackoff(job);
+        worker.poll();
+        job = awaitSettled(jobId);
+        assertEquals(EmailJobStatus.PENDING, job.getStatus());
+        assertEquals(2, job.getAttempts());
+        assertBackoff(before, job.getNextAttemptAt(), Duration.ofSeconds(120));
+
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+        elapseBackoff(job);
+        worker.poll();
+        job = awaitSettled(jobId);
+        assertEquals(EmailJobStatus.SENT, job.getStatus());
+        assertEquals(3, job.getAttempts());
+        assertTrue(greenMail.waitForIncomingEmail(5000, 1));
+        assertEquals(1, greenMail.getReceivedMessages().length);
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() throws Exception {
+        Long jobId = enqueue();
+        mailSender.setPort(closedPort());
+
+        EmailJob job = null;
+        for (int attempt = 1; attempt <= 3; attempt++) {
+            worker.poll();
+            job = awaitSettled(jobId);
+            assertEquals(attempt, job.getAttempts());
+            elapseBackoff(job);
+        }
+
+        assertEquals(EmailJobStatus.FAILED, job.getStatus());
+        assertNotNull(job.getCompletedAt());
+        assertNotNull(job.getLastError());
+        verify(reportHistoryService, timeout(2000)).logReportFailure(any(), eq("Current Month Expenses Report"), any(), any(),
+                eq(RECIPIENT), anyString(), any());
+
+        // A failed job is never claimed again, even once SMTP is back
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+        worker.poll();
+        TimeUnit.MILLISECONDS.sleep(300);
+        assertEquals(3, jobs.get(jobId).getAttempts());
+        assertEquals(EmailJobStatus.FAILED, jobs.get(jobId).getStatus());
+        assertEquals(0, greenMail.getReceivedMessages().length);
+    }
+
+    @Test
+    void skipsReportWithNothingToSend() throws Exception {
+        when(renderer.render(any(), any(), anyMap())).thenReturn(null);
+        Long jobId = enqueue();
+
+        worker.poll();
+        EmailJob job = awaitSettled(jobId);
+
+        assertEquals(EmailJobStatus.SKIPPED, job.getStatus());
+        assertEquals(0, greenMail.getReceivedMessages().length);
+        verify(reportHistoryService, never()).logReportSuccess(any(), any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void renewedLeaseKeepsSlowJobFromBeingClaimedAgain() throws Exception {
+        CountDownLatch rendering = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(renderer.render(any(), any(), anyMap())).thenAnswer(invocation -> {
+            rendering.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return report();
+        });
+        Long jobId = enqueue();
+
+        worker.poll();
+        assertTrue(rendering.await(5, TimeUnit.SECONDS));
+        // The lease runs down while the attachment is built; the worker's renewal extends it
+        expireLease(jobId);
+        worker.renewLeases();
+        assertTrue(jobs.get(jobId).getLockedUntil().isAfter(LocalDateTime.now().plusMinutes(4)));
+
+        // So the idle worker finds nothing to claim
+        worker.poll();
+        release.countDown();
+        EmailJob job = awaitSettled(jobId);
+
+        assertEquals(EmailJobStatus.SENT, job.getStatus());
+        assertEquals(1, job.getAttempts());
+        verify(renderer, times(1)).render(any(), any(), anyMap());
+        assertTrue(greenMail.waitForIncomingEmail(5000, 1));
+        TimeUnit.MILLISECONDS.sleep(300);
+        assertEquals(1, greenMail.getReceivedMessages().length);
+    }
+
+    @Test
+    void workerThatLostItsLeaseDoesNotSendAgain() throws Exception {
+        CountDownLatch rendering = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(renderer.render(any(), any(), anyMap())).thenAnswer(invocation -> {
+            rendering.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return report();
+        }).thenReturn(report());
+        Long jobId = enqueue();
+
+        worker.poll();
+        assertTrue(rendering.await(5, TimeUnit.SECONDS));
+        // The first worker stalls past its lease without renewing; the other one reclaims and sends
+        expireLease(jobId);
+        worker.poll();
+        EmailJob job = awaitSettled(jobId);
+        assertEquals(EmailJobStatus.SENT, job.getStatus());
+        assertEquals(2, job.getAttempts());
+        assertTrue(greenMail.waitForIncomingEmail(5000, 1));
+
+        // The stalled worker finds its lease gone before sending, and leaves the row alone
+        release.countDown();
+        TimeUnit.MILLISECONDS.sleep(500);
+        assertEquals(1, greenMail.getReceivedMessages().length);
+        assertEquals(EmailJobStatus.SENT, jobs.get(jobId).getStatus());
+        assertEquals(2, jobs.get(jobId).getAttempts());
+        verify(emailJobRepository).renewLease(eq(jobId), eq(1), any());
+        verify(reportHistoryService, times(1)).logReportSuccess(any(), any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void staleClaimCannotOverwriteReclaimedJob() {
+        Long jobId = enqueue();
+        EmailJob stale = emailJobService.claimDueJobs(1).get(0);
+        expireLease(jobId);
+        EmailJob current = emailJobService.claimDueJobs(1).get(0);
+        assertEquals(2, current.getAttempts());
+
+        assertTrue(emailJobService.markSent(current));
+
+        assertFalse(emailJobService.renewLease(stale));
+        assertFalse(emailJobService.markSent(stale));
+        assertEquals(EmailJobService.FailureOutcome.LEASE_LOST, emailJobService.markFailed(stale, "timeout"));
+        EmailJob job = jobs.get(jobId);
+        assertEquals(EmailJobStatus.SENT, job.getStatus());
+        assertEquals(2, job.getAttempts());
+        assertNull(job.getLastError());
+    }
+
+    private Long enqueue() {
+        EmailJobResponse response = emailJobService.enqueue(user, RECIPIENT, EmailReportType.EXPENSES_CURRENT_MONTH,
+                Map.of());
+        assertEquals("PENDING", response.getStatus());
+        return response.getJobId();
+    }
+
+    private static EmailReport report() {
+        return new EmailReport("Current Month Expenses Report", "Please find attached the current month expenses.",
+                "current_month_expenses.xlsx", new byte[] { 1, 2, 3, 4 }, 4);
+    }
+
+    private static EmailJob store(EmailJob job) {
+        synchronized (jobs) {
+            if (job.getId() == null) {
+                job.setId(ids.incrementAndGet());
+            }
+            jobs.put(job.getId(), copy(job));
+            return job;
+        }
+    }
+
+    // The conditional UPDATE: applies only while the row is still on the attempt the caller claimed
+    private static int updateLeased(Long id, int attempt, Consumer<EmailJob> update) {
+        synchronized (jobs) {
+            EmailJob job = jobs.get(id);
+            if (job == null || job.getStatus() != EmailJobStatus.RUNNING || job.getAttempts() != attempt) {
+                return 0;
+            }
+            update.accept(job);
+            return 1;
+        }
+    }
+
+    private static EmailJob copy(EmailJob job) {
+        return new EmailJob(job.getId(), job.getUserId(), job.getUserEmail(), job.getRecipient(),
+                job.getReportType(), job.getParams(), job.getDedupeKey(), job.getStatus(), job.getAttempts(),
+                job.getNextAttemptAt(), job.getLockedUntil(), job.getLastError(), job.getCreatedAt(),
+                job.getCompletedAt());
+    }
+
+    // Stands in for the lease running out
+    private static void expireLease(Long jobId) {
+        jobs.get(jobId).setLockedUntil(LocalDateTime.now().minusSeconds(1));
+    }
+
+    // The worker hands the job to the executor; wait until it has left RUNNING. Two workers, so the
+    // next poll still finds an idle one while the previous thread is logging its outcome
+    private static EmailJob awaitSettled(Long jobId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (jobs.get(jobId).getStatus() == EmailJobStatus.RUNNING && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(20);
+        }
+        EmailJob job = jobs.get(jobId);
+        assertTrue(job.getStatus() != EmailJobStatus.RUNNING, "job " + jobId + " still running");
+        return job;
+    }
+
+    // Stands in for waiting out the backoff
+    private static LocalDateTime elapseBackoff(EmailJob job) {
+        LocalDateTime now = LocalDateTime.now();
+        job.setNextAttemptAt(now.minusSeconds(1));
+        return now;
+    }
+
+    private static void assertBackoff(LocalDateTime failedAfter, LocalDateTime nextAttemptAt, Duration backoff) {
+        assertTrue(!nextAttemptAt.isBefore(failedAfter.plus(backoff)),
+                "next attempt " + nextAttemptAt + " earlier than " + backoff + " after " + failedAfter);
+        assertTrue(nextAttemptAt.isBefore(LocalDateTime.now().plus(backoff)),
+                "next attempt " + nextAttemptAt + " later than " + backoff + " from now");
+    }
+
+    private static int closedPort() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -66,6 +66,12 @@ public class GroupController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/group-ids")
+    public ResponseEntity<List<Integer>> getUserGroupIds(@RequestParam Integer userId) throws Exception {
+        // No fallback: an empty list would read as "member of no groups" to the chat authorization cache
+        return ResponseEntity.ok(groupService.getUserGroupIds(userId));
+    }
+
     @GetMapping
     public ResponseEntity<?> getAllUserGroups(@RequestHeader("Authorization") String jwt) {
         try {
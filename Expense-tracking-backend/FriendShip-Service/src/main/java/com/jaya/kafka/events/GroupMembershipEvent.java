@@ -0,0 +1,51 @@
+package com.jaya.kafka.events;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Published whenever the member set of a group changes, so that services caching
+ * group membership (e.g. Chat-Service authorization) can drop stale entries.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GroupMembershipEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String MEMBER_ADDED = "MEMBER_ADDED";
+    public static final String MEMBER_REMOVED = "MEMBER_REMOVED";
+    public static final String GROUP_DELETED = "GROUP_DELETED";
+
+    private Integer groupId;
+    private Set<Integer> userIds;
+    private Integer actorId;
+    private String action;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime timestamp;
+
+    public void validate() {
+        if (groupId == null) {
+            throw new IllegalArgumentException("Group ID cannot be null");
+        }
+        if (userIds == null || userIds.isEmpty()) {
+            throw new IllegalArgumentException("User IDs cannot be null or empty");
+        }
+        if (action == null || action.trim().isEmpty()) {
+            throw new IllegalArgumentException("Action cannot be null or empty");
+        }
+        if (timestamp == null) {
+            this.timestamp = LocalDateTime.now();
+        }
+    }
+}
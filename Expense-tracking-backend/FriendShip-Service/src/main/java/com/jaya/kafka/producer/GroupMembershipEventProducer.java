@@ -0,0 +1,95 @@
+package com.jaya.kafka.producer;
+
+import com.jaya.common.kafka.producer.NotificationEventProducer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jaya.kafka.events.GroupMembershipEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+@Slf4j
+@Component
+public class GroupMembershipEventProducer extends NotificationEventProducer<GroupMembershipEvent> {
+
+    @Value("${kafka.topics.group-membership-events:group-membership-events}")
+    private String topicName;
+
+    public GroupMembershipEventProducer(KafkaTemplate<String, Object> kafkaTemplate,
+            ObjectMapper objectMapper) {
+        super(kafkaTemplate, objectMapper);
+    }
+
+    /**
+     * Publishes the change once the surrounding transaction commits, so consumers never act on a
+     * membership change that is later rolled back. Without a transaction it is sent immediately.
+     */
+    public void publish(Integer groupId, Set<Integer> userIds, Integer actorId, String action) {
+        if (userIds == null || userIds.isEmpty()) {
+            return;
+        }
+        GroupMembershipEvent event = GroupMembershipEvent.builder()
+                .groupId(groupId)
+                .userIds(Set.copyOf(userIds))
+                .actorId(actorId)
+                .action(action)
+                .timestamp(LocalDateTime.now())
+                .build();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(event);
+                }
+            });
+        } else {
+            send(event);
+        }
+    }
+
+    private void send(GroupMembershipEvent event) {
+        try {
+            sendEvent(event);
+        } catch (Exception e) {
+            log.warn("Could not publish group membership {} event for group {}: {}",
+                    event.getAction(), event.getGroupId(), e.getMessage());
+        }
+    }
+
+    @Override
+    protected String getTopicName() {
+        return topicName;
+    }
+
+    @Override
+    protected String getEventTypeName() {
+        return "GroupMembership";
+    }
+
+    @Override
+    protected String generatePartitionKey(GroupMembershipEvent event) {
+        return event.getGroupId().toString();
+    }
+
+    @Override
+    protected void validateEvent(GroupMembershipEvent event) {
+        super.validateEvent(event);
+        event.validate();
+    }
+
+    @Override
+    protected void afterSendFailure(GroupMembershipEvent event, Throwable exception) {
+        log.error("Failed to send group membership {} event for group {} (users: {}): {}",
+                event.getAction(),
+                event.getGroupId(),
+                event.getUserIds(),
+                exception.getMessage());
+    }
+}
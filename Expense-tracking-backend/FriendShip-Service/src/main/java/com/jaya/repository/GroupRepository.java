@@ -23,5 +23,8 @@ public interface GroupRepository extends JpaRepository<Group, Integer> {
     @Query("SELECT g FROM Group g WHERE g.createdBy = :userId OR :userId MEMBER OF g.memberIds")
     List<Group> findAllUserGroups(@Param("userId") Integer userId);
 
+    @Query("SELECT DISTINCT g.id FROM Group g LEFT JOIN g.memberIds m WHERE g.createdBy = :userId OR m = :userId")
+    List<Integer> findGroupIdsForUser(@Param("userId") Integer userId);
+
     boolean existsByNameAndCreatedBy(String name, Integer createdBy);
 }
\ No newline at end of file
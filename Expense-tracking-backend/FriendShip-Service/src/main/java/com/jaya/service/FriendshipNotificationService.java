@@ -223,10 +223,11 @@ public class FriendshipNotificationService {
                     .metadata(buildBlockedMetadata(blocker, blockedId))
                     .build();
 
-            log.info("User {} blocked user {} (notification not sent)", blocker.getId(), blockedId);
+            producer.sendEvent(event);
+            log.info("User blocked event sent for user {} blocked by user {}", blockedId, blocker.getId());
 
         } catch (Exception e) {
-            log.error("Failed to process user blocked notification: {}", e.getMessage(), e);
+            log.error("Failed to send user blocked notification: {}", e.getMessage(), e);
         }
     }
 
@@ -19,6 +19,8 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.time.Month;
@@ -40,6 +42,9 @@ public class FriendshipServiceImpl implements FriendshipService {
     @Autowired
     private UnifiedActivityService unifiedActivityService;
 
+    @Autowired
+    private FriendshipNotificationService friendshipNotificationService;
+
     @Override
     public Friendship sendFriendRequest(Integer requesterId, Integer recipientId) throws Exception {
         if (requesterId.equals(recipientId)) {
@@ -77,6 +82,7 @@ public class FriendshipServiceImpl implements FriendshipService {
 
     @Override
     @CacheEvict(value = { "friendships", "friendshipStatus", "accessLevels" }, allEntries = true)
+    @Transactional
     public Friendship respondToRequest(Integer friendshipId, Integer responderId, boolean accept) {
         Friendship friendship = friendshipRepository.findById(friendshipId)
                 .orElseThrow(() -> new RuntimeException("Friendship request not found with ID: " + friendshipId));
@@ -98,6 +104,13 @@ public class FriendshipServiceImpl implements FriendshipService {
 
         friendship = friendshipRepository.save(friendship);
 
+        if (accept) {
+            // Chat-Service opens the conversation on FRIEND_REQUEST_ACCEPTED; only tell it once the friendship is stored
+            Friendship accepted = friendship;
+            afterCommit(() -> friendshipNotificationService.sendFriendRequestAcceptedNotification(accepted,
+                    lookupUser(accepted.getRecipientId())));
+        }
+
         try {
             UserDTO requester = helper.validateUser(friendship.getRequesterId());
             UserDTO recipient = helper.validateUser(friendship.getRecipientId());
@@ -249,6 +262,10 @@ public class FriendshipServiceImpl implements FriendshipService {
         }
 
         friendshipRepository.delete(friendship);
+
+        // Chat-Service revokes the conversation on FRIENDSHIP_REMOVED; only tell it once the delete is stored
+        afterCommit(() -> friendshipNotificationService.sendFriendshipRemovedNotification(friendship,
+                lookupUser(userId), otherUserId));
     }
 
     @Override
@@ -290,7 +307,32 @@ public class FriendshipServiceImpl implements FriendshipService {
                     .build();
         }
 
-        friendshipRepository.save(friendship);
+        Friendship saved = friendshipRepository.save(friendship);
+
+        // Chat-Service drops the cached friendship on USER_BLOCKED; only tell it once the block is stored
+        afterCommit(() -> friendshipNotificationService.sendUserBlockedNotification(saved.getId(), blocker, blocked.getId()));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // The event must go out even when User-Service is unreachable; consumers only need the ids
+    private UserDTO lookupUser(Integer userId) {
+        try {
+            return helper.validateUser(userId);
+        } catch (Exception e) {
+            return UserDTO.builder().id(userId).build();
+        }
     }
 
     @Override
@@ -21,6 +21,8 @@ public interface GroupService {
 
         List<GroupResponseDTO> getAllUserGroups(Integer userId) throws Exception;
 
+        List<Integer> getUserGroupIds(Integer userId) throws Exception;
+
         List<GroupResponseDTO> getGroupsCreatedByUser(Integer userId) throws Exception;
 
         List<GroupResponseDTO> getGroupsWhereUserIsMember(Integer userId) throws Exception;
@@ -3,6 +3,8 @@ package com.jaya.service;
 
 import com.jaya.dto.*;
 import com.jaya.common.dto.UserDTO;
+import com.jaya.kafka.events.GroupMembershipEvent;
+import com.jaya.kafka.producer.GroupMembershipEventProducer;
 import com.jaya.mapper.GroupMapper;
 import com.jaya.models.*;
 import com.jaya.repository.GroupInvitationRepository;
@@ -34,6 +36,9 @@ public class GroupServiceImpl implements GroupService {
     @Autowired
     private FriendshipService friendshipService;
 
+    @Autowired
+    private GroupMembershipEventProducer groupMembershipEventProducer;
+
     @Override
     @Transactional
     public GroupResponseDTO createGroup(GroupRequestDTO groupRequestDTO) throws Exception {
@@ -132,7 +137,11 @@ public class GroupServiceImpl implements GroupService {
             throw new RuntimeException("You don't have permission to delete this group");
         }
 
+        Set<Integer> affectedUserIds = group.getMemberIds() != null ? new HashSet<>(group.getMemberIds())
+                : new HashSet<>();
+        affectedUserIds.add(group.getCreatedBy());
         groupRepository.delete(group);
+        groupMembershipEventProducer.publish(id, affectedUserIds, userId, GroupMembershipEvent.GROUP_DELETED);
     }
 
     @Override
@@ -166,6 +175,7 @@ public class GroupServiceImpl implements GroupService {
 
         group.addMember(userId, role, requesterId);
         Group updatedGroup = groupRepository.save(group);
+        groupMembershipEventProducer.publish(groupId, Set.of(userId), requesterId, GroupMembershipEvent.MEMBER_ADDED);
         return groupMapper.toResponseDTO(updatedGroup, requesterId);
     }
 
@@ -194,6 +204,7 @@ public class GroupServiceImpl implements GroupService {
 
         group.removeMember(userId);
         Group updatedGroup = groupRepository.save(group);
+        groupMembershipEventProducer.publish(groupId, Set.of(userId), requesterId, GroupMembershipEvent.MEMBER_REMOVED);
         return groupMapper.toResponseDTO(updatedGroup, requesterId);
     }
 
@@ -269,6 +280,12 @@ public class GroupServiceImpl implements GroupService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<Integer> getUserGroupIds(Integer userId) throws Exception {
+        helper.validateUser(userId);
+        return groupRepository.findGroupIdsForUser(userId);
+    }
+
     @Override
     public List<GroupResponseDTO> getGroupsCreatedByUser(Integer userId) throws Exception {
         helper.validateUser(userId);
@@ -569,6 +586,7 @@ public class GroupServiceImpl implements GroupService {
 
         group.removeMember(userId);
         groupRepository.save(group);
+        groupMembershipEventProducer.publish(groupId, Set.of(userId), userId, GroupMembershipEvent.MEMBER_REMOVED);
 
         Map<String, Object> result = new HashMap<>();
         result.put("message", "Successfully left the group");
@@ -847,6 +865,7 @@ public class GroupServiceImpl implements GroupService {
     }
 
     @Override
+    @Transactional
     public Map<String, Object> mergeGroups(Integer sourceGroupId, Integer targetGroupId,
             GroupMergeRequestDTO mergeRequest, Integer userId) throws Exception {
         Group sourceGroup = groupRepository.findById(sourceGroupId)
@@ -859,11 +878,13 @@ public class GroupServiceImpl implements GroupService {
             throw new RuntimeException("Access denied: Insufficient permissions to merge groups");
         }
 
+        Set<Integer> addedMemberIds = new HashSet<>();
         if (sourceGroup.getMemberIds() != null) {
             for (Integer memberId : sourceGroup.getMemberIds()) {
                 if (targetGroup.getMemberIds() == null || !targetGroup.getMemberIds().contains(memberId)) {
                     GroupRole role = sourceGroup.getUserRole(memberId);
                     targetGroup.addMember(memberId, role, userId);
+                    addedMemberIds.add(memberId);
                 }
             }
         }
@@ -873,9 +894,17 @@ public class GroupServiceImpl implements GroupService {
         targetGroup.setUpdatedAt(LocalDateTime.now());
 
         groupRepository.save(targetGroup);
+        groupMembershipEventProducer.publish(targetGroupId, addedMemberIds, userId,
+                GroupMembershipEvent.MEMBER_ADDED);
 
         if (mergeRequest.getDeleteSourceGroup()) {
+            Set<Integer> sourceUserIds = sourceGroup.getMemberIds() != null
+                    ? new HashSet<>(sourceGroup.getMemberIds())
+                    : new HashSet<>();
+            sourceUserIds.add(sourceGroup.getCreatedBy());
             groupRepository.delete(sourceGroup);
+            groupMembershipEventProducer.publish(sourceGroupId, sourceUserIds, userId,
+                    GroupMembershipEvent.GROUP_DELETED);
         }
 
         Map<String, Object> result = new HashMap<>();
@@ -1007,6 +1036,8 @@ public class GroupServiceImpl implements GroupService {
 
             group.addMember(userId, invitation.getRole(), invitation.getInviterId());
             groupRepository.save(group);
+            groupMembershipEventProducer.publish(group.getId(), Set.of(userId), invitation.getInviterId(),
+                    GroupMembershipEvent.MEMBER_ADDED);
 
             invitation.setStatus(InvitationStatus.ACCEPTED);
             result.put("message", "Invitation accepted successfully! You are now a member of " + group.getName());
@@ -12,6 +12,7 @@ import lombok.NoArgsConstructor;
 
 import java.io.Serializable;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
@@ -34,4 +35,9 @@ public class ExpenseEventDTO implements Serializable {
     private LocalDateTime timestamp;
 
     private String metadata;
+
+    // Set on a bulk change instead of the single-expense fields, see ExpenseEventProcessor
+    private List<ExpenseEventDTO> items;
+    private Integer batchTotal;
+    private Integer batchIndex;
 }
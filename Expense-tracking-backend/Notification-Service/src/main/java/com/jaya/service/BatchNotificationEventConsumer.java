@@ -26,6 +26,7 @@ public class BatchNotificationEventConsumer {
     private final FriendEventProcessor friendEventProcessor;
     private final CategoryEventProcessor categoryEventProcessor;
     private final FriendActivityEventProcessor friendActivityEventProcessor;
+    private final SpendingAnomalyEventProcessor spendingAnomalyEventProcessor;
     private final ObjectMapper objectMapper;
 
     private <T> T convertToDto(Object payload, Class<T> dtoClass) {
@@ -426,4 +427,44 @@ public class BatchNotificationEventConsumer {
         log.info("✅ Processed BATCH: {} friend activity events in {} ms (success: {})",
                 parsed.size(), duration, successCount);
     }
+
+    @KafkaListener(topics = "${kafka.topics.expense-anomaly-events:expense-anomaly-events}", groupId = "notification-expense-anomaly-batch-group", containerFactory = "notificationBatchFactory")
+    @Transactional
+    public void consumeSpendingAnomalyEventsBatch(List<Object> payloads) {
+        if (payloads == null || payloads.isEmpty())
+            return;
+
+        long startTime = System.currentTimeMillis();
+        log.info("📦 Received BATCH of {} spending anomaly events - processing...", payloads.size());
+
+        List<SpendingAnomalyEventDTO> parsed = new ArrayList<>(payloads.size());
+        for (Object payload : payloads) {
+            try {
+                SpendingAnomalyEventDTO event = convertToDto(payload, SpendingAnomalyEventDTO.class);
+                if (event != null) {
+                    parsed.add(event);
+                }
+            } catch (Exception e) {
+                log.error("Error parsing spending anomaly event in batch", e);
+            }
+        }
+
+        if (parsed.isEmpty())
+            return;
+
+        int successCount = 0;
+        for (SpendingAnomalyEventDTO event : parsed) {
+            try {
+                spendingAnomalyEventProcessor.process(event);
+                successCount++;
+            } catch (Exception e) {
+                log.error("Error processing spending anomaly event for user {}: {}",
+                        event.getUserId(), e.getMessage(), e);
+            }
+        }
+
+        long duration = System.currentTimeMillis() - startTime;
+        log.info("✅ Processed BATCH: {} spending anomaly events in {} ms (success: {})",
+                parsed.size(), duration, successCount);
+    }
 }
@@ -61,6 +61,8 @@ public class NotificationPreferencesChecker {
                 return prefs.getExpenseServiceEnabled() && prefs.getExpenseDeletedEnabled();
             case "largeExpenseAlert":
                 return prefs.getExpenseServiceEnabled() && prefs.getLargeExpenseAlertEnabled();
+            case "unusualSpending":
+                return prefs.getExpenseServiceEnabled() && prefs.getUnusualSpendingAlerts();
 
             case "budgetExceeded":
                 return prefs.getBudgetServiceEnabled() && prefs.getBudgetExceededEnabled();
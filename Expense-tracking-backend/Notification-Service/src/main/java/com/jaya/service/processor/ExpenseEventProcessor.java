@@ -18,11 +18,23 @@ public class ExpenseEventProcessor extends AbstractNotificationEventProcessor<Ex
         super(preferencesChecker, notificationRepository, messagingTemplate);
     }
 
+    /**
+     * A bulk change arrives as several chunk events that all carry the size and total of the
+     * whole change, so only the first chunk produces a notification.
+     */
+    @Override
+    public void process(ExpenseEventDTO event) {
+        if (isBulk(event) && event.getBatchIndex() != null && event.getBatchIndex() > 0) {
+            return;
+        }
+        super.process(event);
+    }
+
     @Override
     public String getNotificationType(ExpenseEventDTO event) {
         switch (event.getAction()) {
             case "CREATE":
-                if (isLargeExpense(event.getAmount())) {
+                if (!isBulk(event) && isLargeExpense(event.getAmount())) {
                     return "largeExpenseAlert";
                 }
                 return "expenseAdded";
@@ -46,6 +58,10 @@ public class ExpenseEventProcessor extends AbstractNotificationEventProcessor<Ex
         String message;
         String priority;
 
+        if (isBulk(event)) {
+            return buildBulkNotification(event);
+        }
+
         switch (event.getAction()) {
             case "CREATE":
                 if (isLargeExpense(event.getAmount())) {
@@ -94,6 +110,39 @@ public class ExpenseEventProcessor extends AbstractNotificationEventProcessor<Ex
         return notification;
     }
 
+    private Notification buildBulkNotification(ExpenseEventDTO event) {
+        int count = event.getBatchTotal() != null ? event.getBatchTotal() : event.getItems().size();
+        String title;
+        String verb;
+        switch (event.getAction()) {
+            case "UPDATE":
+                title = "📝 Expenses Updated";
+                verb = "updated";
+                break;
+            case "DELETE":
+                title = "🗑️ Expenses Deleted";
+                verb = "deleted";
+                break;
+            default:
+                title = "💸 Expenses Added";
+                verb = "added";
+        }
+
+        Notification notification = createBaseNotification(
+                event.getUserId(),
+                getNotificationType(event),
+                title,
+                String.format("%d expenses %s (₹%.2f in total)", count, verb,
+                        event.getAmount() != null ? event.getAmount() : 0.0),
+                "LOW");
+        notification.setRelatedEntityType("EXPENSE");
+        return notification;
+    }
+
+    private boolean isBulk(ExpenseEventDTO event) {
+        return event.getItems() != null && !event.getItems().isEmpty();
+    }
+
     private boolean isLargeExpense(Double amount) {
         return amount != null && amount >= 5000.0;
     }
@@ -0,0 +1,51 @@
+package com.jaya.service.processor;
+
+import com.jaya.dto.events.SpendingAnomalyEventDTO;
+import com.jaya.modal.Notification;
+import com.jaya.repository.NotificationRepository;
+import com.jaya.service.NotificationPreferencesChecker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+public class SpendingAnomalyEventProcessor extends AbstractNotificationEventProcessor<SpendingAnomalyEventDTO> {
+
+    public SpendingAnomalyEventProcessor(NotificationPreferencesChecker preferencesChecker,
+            NotificationRepository notificationRepository,
+            SimpMessagingTemplate messagingTemplate) {
+        super(preferencesChecker, notificationRepository, messagingTemplate);
+    }
+
+    @Override
+    public String getNotificationType(SpendingAnomalyEventDTO event) {
+        return "unusualSpending";
+    }
+
+    @Override
+    public Integer getUserId(SpendingAnomalyEventDTO event) {
+        return event.getUserId();
+    }
+
+    @Override
+    protected Notification buildNotification(SpendingAnomalyEventDTO event) {
+        String message = String.format("₹%.2f in '%s' is well above your usual ₹%.2f for this category",
+                event.getCurrentAmount(), event.getCategoryName(), event.getAverageAmount());
+        if (event.getDescription() != null && !event.getDescription().isBlank()) {
+            message += ": " + event.getDescription();
+        }
+
+        Notification notification = createBaseNotification(
+                event.getUserId(),
+                getNotificationType(event),
+                "📈 Unusual Spending Detected",
+                message,
+                "HIGH");
+
+        notification.setRelatedEntityId(event.getExpenseId());
+        notification.setRelatedEntityType("EXPENSE");
+
+        return notification;
+    }
+}
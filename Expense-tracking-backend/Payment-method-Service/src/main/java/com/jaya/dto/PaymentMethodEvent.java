@@ -1,6 +1,7 @@
 package com.jaya.dto;
 
 import java.io.Serializable;
+import java.util.List;
 
 public class PaymentMethodEvent implements Serializable {
     private Integer userId;
@@ -12,6 +13,7 @@ public class PaymentMethodEvent implements Serializable {
     private String color;
     private String eventType; 
     private Boolean notifyUser; 
+    private List<Integer> expenseIds;
 
     
     public PaymentMethodEvent() {
@@ -111,6 +113,14 @@ public class PaymentMethodEvent implements Serializable {
         this.eventType = eventType;
     }
 
+    public List<Integer> getExpenseIds() {
+        return expenseIds;
+    }
+
+    public void setExpenseIds(List<Integer> expenseIds) {
+        this.expenseIds = expenseIds;
+    }
+
     public Boolean getNotifyUser() {
         return notifyUser;
     }
@@ -15,6 +15,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 @Service
@@ -113,11 +114,13 @@ public class PaymentMethodKafkaConsumerService {
 
         Set<Integer> userExpenseSet = paymentMethod.getExpenseIds()
                 .getOrDefault(event.getUserId(), new HashSet<>());
-        userExpenseSet.add(event.getExpenseId());
+        List<Integer> expenseIds = expenseIdsOf(event);
+        userExpenseSet.addAll(expenseIds);
         paymentMethod.getExpenseIds().put(event.getUserId(), userExpenseSet);
 
         paymentMethodRepository.save(paymentMethod);
-        logger.info("Payment method created/updated successfully for user: {}", event.getUserId());
+        logger.info("Payment method created/updated successfully for user: {} ({} expenses)",
+                event.getUserId(), expenseIds.size());
     }
 
     private void handleUpdatePaymentMethod(PaymentMethodEvent event) {
@@ -136,7 +139,7 @@ public class PaymentMethodKafkaConsumerService {
         if (paymentMethod != null && paymentMethod.getExpenseIds() != null) {
             Set<Integer> userExpenseSet = paymentMethod.getExpenseIds()
                     .getOrDefault(event.getUserId(), new HashSet<>());
-            userExpenseSet.remove(event.getExpenseId());
+            userExpenseSet.removeAll(expenseIdsOf(event));
 
             if (userExpenseSet.isEmpty()) {
                 paymentMethod.getExpenseIds().remove(event.getUserId());
@@ -148,4 +151,12 @@ public class PaymentMethodKafkaConsumerService {
             logger.info("Payment method updated for deletion for user: {}", event.getUserId());
         }
     }
-}
\ No newline at end of file
+
+    // Bulk events from import/delete carry an id list in place of a single expenseId
+    private List<Integer> expenseIdsOf(PaymentMethodEvent event) {
+        if (event.getExpenseIds() != null && !event.getExpenseIds().isEmpty()) {
+            return event.getExpenseIds();
+        }
+        return event.getExpenseId() != null ? List.of(event.getExpenseId()) : List.of();
+    }
+}
@@ -1,11 +1,13 @@
 package com.jaya.config;
 
+import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.listener.ContainerProperties;
@@ -26,6 +28,12 @@ public class StoryKafkaConfig {
     @Value("${spring.kafka.consumer.auto-offset-reset:earliest}")
     private String autoOffsetReset;
 
+    @Value("${kafka.topics.spending-profile-state:spending-profile-state}")
+    private String spendingProfileStateTopic;
+
+    @Value("${kafka.topics.expense-anomaly-events:expense-anomaly-events}")
+    private String expenseAnomalyTopic;
+
     @Bean
     public ConsumerFactory<String, Object> consumerFactory() {
         Map<String, Object> props = new HashMap<>();
@@ -48,4 +56,22 @@ public class StoryKafkaConfig {
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.RECORD);
         return factory;
     }
+
+    // Compacted: only the latest profile per user and category is kept, which is all a restore needs
+    @Bean
+    public NewTopic spendingProfileStateTopic() {
+        return TopicBuilder.name(spendingProfileStateTopic)
+                .partitions(3)
+                .replicas(1)
+                .compact()
+                .build();
+    }
+
+    @Bean
+    public NewTopic expenseAnomalyTopic() {
+        return TopicBuilder.name(expenseAnomalyTopic)
+                .partitions(3)
+                .replicas(1)
+                .build();
+    }
 }
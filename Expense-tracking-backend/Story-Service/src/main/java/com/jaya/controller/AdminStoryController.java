@@ -3,10 +3,15 @@ package com.jaya.controller;
 import com.jaya.dto.*;
 import com.jaya.models.enums.StoryStatus;
 import com.jaya.models.enums.StoryType;
+import com.jaya.scheduler.StoryJobCoordinator;
+import com.jaya.scheduler.StoryScheduledJobs;
+import com.jaya.service.StoryFeedCache;
 import com.jaya.service.StoryService;
+import com.jaya.service.anomaly.SpendingAnomalyDetector;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -31,6 +36,10 @@ import java.util.UUID;
 public class AdminStoryController {
 
     private final StoryService storyService;
+    private final StoryFeedCache storyFeedCache;
+    private final ObjectProvider<StoryJobCoordinator> jobCoordinator;
+    private final ObjectProvider<StoryScheduledJobs> scheduledJobs;
+    private final SpendingAnomalyDetector spendingAnomalyDetector;
 
     
 
@@ -180,11 +189,16 @@ public class AdminStoryController {
 
 
 
+    // Runs through the job lease, like the scheduled run
     @PostMapping("/expire")
     public ResponseEntity<Map<String, Object>> expireStories(
             @RequestHeader(value = "X-Admin-Id", defaultValue = "1") Integer adminId) {
         log.info("Admin {} triggering story expiration", adminId);
-        int count = storyService.expireOldStories();
+        StoryScheduledJobs jobs = scheduledJobs.getIfAvailable();
+        if (jobs == null) {
+            return schedulingDisabled();
+        }
+        long count = jobs.runExpiry();
         return ResponseEntity.ok(Map.of(
                 "status", "success",
                 "expiredCount", count));
@@ -198,9 +212,37 @@ public class AdminStoryController {
     public ResponseEntity<Map<String, Object>> archiveExpiredStories(
             @RequestHeader(value = "X-Admin-Id", defaultValue = "1") Integer adminId) {
         log.info("Admin {} triggering story archival", adminId);
-        int count = storyService.archiveExpiredStories();
+        StoryScheduledJobs jobs = scheduledJobs.getIfAvailable();
+        if (jobs == null) {
+            return schedulingDisabled();
+        }
+        long count = jobs.runArchival();
         return ResponseEntity.ok(Map.of(
                 "status", "success",
                 "archivedCount", count));
     }
+
+    @GetMapping("/feed-cache/stats")
+    public ResponseEntity<Map<String, Object>> getFeedCacheStats() {
+        return ResponseEntity.ok(storyFeedCache.getStats());
+    }
+
+    // Lease, checkpoint, lag and throughput of the scheduled jobs; empty where scheduling is disabled
+    @GetMapping("/jobs")
+    public ResponseEntity<Map<String, Object>> getScheduledJobStatus() {
+        StoryJobCoordinator coordinator = jobCoordinator.getIfAvailable();
+        return ResponseEntity.ok(coordinator != null ? coordinator.getStatus() : Map.of());
+    }
+
+    @GetMapping("/anomaly-detector/stats")
+    public ResponseEntity<Map<String, Object>> getAnomalyDetectorStats() {
+        return ResponseEntity.ok(spendingAnomalyDetector.getStats());
+    }
+
+    // Lifecycle updates only run under the job leases, which do not exist where scheduling is off
+    private ResponseEntity<Map<String, Object>> schedulingDisabled() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of(
+                "status", "error",
+                "message", "Scheduled jobs are disabled on this instance"));
+    }
 }
@@ -0,0 +1,79 @@
+package com.jaya.kafka;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jaya.service.anomaly.SpendingAnomalyDetector;
+import com.jaya.service.anomaly.SpendingProfileStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Feeds created expenses into the spending anomaly detector. The profile store is restored from
+ * its changelog each time partitions are assigned, on the consumer thread before the first poll of
+ * the new assignment, so no event is scored against a profile that another instance has since
+ * moved on. A single consumer thread per instance keeps that restore from racing local updates.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "story.anomaly.enabled", havingValue = "true", matchIfMissing = true)
+public class ExpenseAnomalyDetectionConsumer implements ConsumerSeekAware {
+
+    private final SpendingAnomalyDetector detector;
+    private final SpendingProfileStore profileStore;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        if (!assignments.isEmpty()) {
+            log.info("Restoring spending profiles for newly assigned partitions {}", assignments.keySet());
+            profileStore.restore();
+        }
+    }
+
+    @KafkaListener(topics = "${kafka.topics.expense-events:expense-events}", groupId = "${story.anomaly.group-id:story-anomaly-detector-group}", concurrency = "1")
+    public void consumeExpenseEvent(String message) {
+        try {
+            JsonNode event = objectMapper.readTree(message);
+            // A bulk change carries each expense as an item; they are scored in import order
+            JsonNode items = event.path("items");
+            if (items.isArray() && !items.isEmpty()) {
+                items.forEach(this::score);
+            } else {
+                score(event);
+            }
+        } catch (Exception e) {
+            log.error("Error scoring expense event for anomalies: {}", message, e);
+        }
+    }
+
+    private void score(JsonNode event) {
+        // Only new expenses are scored; edits and deletes do not rewrite the weighted history
+        if (!"CREATE".equals(event.path("action").asText())) {
+            return;
+        }
+        JsonNode amount = event.path("amount");
+        String category = event.path("category").asText(null);
+        if (!event.hasNonNull("userId") || !amount.isNumber() || amount.asDouble() <= 0
+                || category == null || category.isBlank()) {
+            return;
+        }
+
+        String timestamp = event.path("timestamp").asText(null);
+        detector.process(
+                event.hasNonNull("expenseId") ? event.path("expenseId").asInt() : null,
+                event.path("userId").asInt(),
+                category,
+                amount.asDouble(),
+                timestamp != null ? LocalDateTime.parse(timestamp) : LocalDateTime.now(),
+                event.path("description").asText(null));
+    }
+}
@@ -20,7 +20,8 @@ public class ExpenseEventConsumer {
     private final StoryService storyService;
     private final ObjectMapper objectMapper;
 
-    @KafkaListener(topics = "${kafka.topics.expense-events:expense-events}", groupId = "${spring.kafka.consumer.group-id}")
+    @KafkaListener(topics = { "${kafka.topics.expense-events:expense-events}",
+            "${kafka.topics.expense-anomaly-events:expense-anomaly-events}" }, groupId = "${spring.kafka.consumer.group-id}")
     public void consumeExpenseEvent(String message) {
         log.debug("Received expense event: {}", message);
 
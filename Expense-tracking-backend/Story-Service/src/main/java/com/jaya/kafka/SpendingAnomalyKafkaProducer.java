@@ -0,0 +1,49 @@
+package com.jaya.kafka;
+
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Producer for the spending profile changelog and the anomaly events. Values are plain JSON
+ * strings, so consumers in other services need no knowledge of Story-Service types. The template
+ * is not a bean, so it does not displace the KafkaTemplate other components get by default.
+ */
+@Component
+public class SpendingAnomalyKafkaProducer {
+
+    private final DefaultKafkaProducerFactory<String, String> producerFactory;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+
+    public SpendingAnomalyKafkaProducer(
+            @Value("${spring.kafka.bootstrap-servers:localhost:9092}") String bootstrapServers) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, 20);
+        this.producerFactory = new DefaultKafkaProducerFactory<>(props);
+        this.kafkaTemplate = new KafkaTemplate<>(producerFactory);
+    }
+
+    public void send(String topic, String key, String value) {
+        kafkaTemplate.send(topic, key, value);
+    }
+
+    /** Blocks until every record sent so far has been delivered or has failed. */
+    public void flush() {
+        kafkaTemplate.flush();
+    }
+
+    @PreDestroy
+    void close() {
+        producerFactory.destroy();
+    }
+}
@@ -22,7 +22,10 @@ import java.util.UUID;
         @Index(name = "idx_story_status", columnList = "status"),
         @Index(name = "idx_story_user", columnList = "target_user_id"),
         @Index(name = "idx_story_type", columnList = "story_type"),
-        @Index(name = "idx_story_expires", columnList = "expires_at")
+        @Index(name = "idx_story_expires", columnList = "expires_at"),
+        @Index(name = "idx_story_status_expires", columnList = "status, expires_at"),
+        @Index(name = "idx_story_status_created", columnList = "status, created_at"),
+        @Index(name = "idx_story_status_shard", columnList = "status, shard_key, expires_at")
 })
 @Getter
 @Setter
@@ -31,6 +34,9 @@ import java.util.UUID;
 @Builder
 public class Story {
 
+    // Fixed number of shard keys; a job split into N shards gives each a contiguous key range
+    public static final int SHARD_KEYS = 1024;
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
@@ -68,6 +74,11 @@ public class Story {
     private Integer targetUserId;
 
     
+    // Target user modulo SHARD_KEYS (global stories 0), stored so shard predicates are index ranges
+    @Column(name = "shard_key")
+    private Integer shardKey;
+
+    
     @Column(name = "is_global", nullable = false)
     @Builder.Default
     private Boolean isGlobal = true;
@@ -126,6 +137,12 @@ public class Story {
     private LocalDateTime deletedAt;
 
     
+    @PrePersist
+    @PreUpdate
+    void assignShardKey() {
+        shardKey = Math.floorMod(targetUserId != null ? targetUserId : 0, SHARD_KEYS);
+    }
+
     public void addCTA(StoryCTA cta) {
         ctaButtons.add(cta);
         cta.setStory(this);
@@ -0,0 +1,32 @@
+package com.jaya.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Heartbeat of a Story-Service instance that runs scheduled jobs. Instances with a recent
+ * heartbeat share the job shards between them.
+ */
+@Entity
+@Table(name = "story_job_instances", indexes = {
+        @Index(name = "idx_job_instance_heartbeat", columnList = "heartbeat_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StoryJobInstance {
+
+    @Id
+    @Column(name = "instance_id", length = 150)
+    private String instanceId;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "heartbeat_at", nullable = false)
+    private LocalDateTime heartbeatAt;
+}
@@ -0,0 +1,67 @@
+package com.jaya.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lease and checkpoint of one shard of a scheduled job. Exactly one instance may hold a shard
+ * until {@code leaseUntil}; the checkpoint and period fields survive the holder, so the next
+ * owner resumes where the previous one stopped.
+ */
+@Entity
+@Table(name = "story_job_leases", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_job_lease_shard", columnNames = { "job_name", "shard_no" })
+}, indexes = {
+        @Index(name = "idx_job_lease_owner", columnList = "owner_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StoryJobLease {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_name", nullable = false, length = 100)
+    private String jobName;
+
+    @Column(name = "shard_no", nullable = false)
+    private Integer shardNo;
+
+    @Column(name = "owner_id", length = 150)
+    private String ownerId;
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+
+    // Opaque resume position inside the current run, cleared when the shard completes
+    @Column(name = "checkpoint", length = 255)
+    private String checkpoint;
+
+    // Period (day, week, month) the shard last completed; used to run calendar jobs once per period
+    @Column(name = "period_key", length = 50)
+    private String periodKey;
+
+    @Column(name = "items_processed")
+    private Long itemsProcessed;
+
+    @Column(name = "chunks_processed")
+    private Integer chunksProcessed;
+
+    @Column(name = "last_started_at")
+    private LocalDateTime lastStartedAt;
+
+    @Column(name = "last_completed_at")
+    private LocalDateTime lastCompletedAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,30 @@
+package com.jaya.repository;
+
+import com.jaya.models.StoryJobInstance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StoryJobInstanceRepository extends JpaRepository<StoryJobInstance, String> {
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO story_job_instances (instance_id, started_at, heartbeat_at) " +
+            "VALUES (:instanceId, :now, :now) ON DUPLICATE KEY UPDATE heartbeat_at = :now", nativeQuery = true)
+    int heartbeat(@Param("instanceId") String instanceId, @Param("now") LocalDateTime now);
+
+    @Query("SELECT i.instanceId FROM StoryJobInstance i WHERE i.heartbeatAt >= :since ORDER BY i.instanceId")
+    List<String> findLiveInstanceIds(@Param("since") LocalDateTime since);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM StoryJobInstance i WHERE i.heartbeatAt < :before")
+    int deleteStale(@Param("before") LocalDateTime before);
+}
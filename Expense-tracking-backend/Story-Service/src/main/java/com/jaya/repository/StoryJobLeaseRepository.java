@@ -0,0 +1,91 @@
+package com.jaya.repository;
+
+import com.jaya.models.StoryJobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StoryJobLeaseRepository extends JpaRepository<StoryJobLease, Long> {
+
+    Optional<StoryJobLease> findByJobNameAndShardNo(String jobName, Integer shardNo);
+
+    List<StoryJobLease> findAllByOrderByJobNameAscShardNoAsc();
+
+    // The unique key makes concurrent inserts of the same shard harmless
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT IGNORE INTO story_job_leases (job_name, shard_no, items_processed, chunks_processed, " +
+            "updated_at) VALUES (:jobName, :shard, 0, 0, :now)", nativeQuery = true)
+    int insertIfAbsent(@Param("jobName") String jobName, @Param("shard") int shard, @Param("now") LocalDateTime now);
+
+    /**
+     * Takes the shard when it is free, expired or already ours. Returns 1 when the caller now
+     * holds the lease.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE story_job_leases SET owner_id = :owner, lease_until = :leaseUntil, " +
+            "last_started_at = :now, last_error = NULL, updated_at = :now " +
+            "WHERE job_name = :jobName AND shard_no = :shard " +
+            "AND (owner_id IS NULL OR owner_id = :owner OR lease_until < :now)", nativeQuery = true)
+    int acquire(@Param("jobName") String jobName, @Param("shard") int shard, @Param("owner") String owner,
+            @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    // Extends the lease and stores progress; returns 0 when the lease was lost to another instance
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE story_job_leases SET lease_until = :leaseUntil, checkpoint = :checkpoint, " +
+            "items_processed = :items, chunks_processed = :chunks, updated_at = :now " +
+            "WHERE job_name = :jobName AND shard_no = :shard AND owner_id = :owner", nativeQuery = true)
+    int checkpoint(@Param("jobName") String jobName, @Param("shard") int shard, @Param("owner") String owner,
+            @Param("checkpoint") String checkpoint, @Param("items") long items, @Param("chunks") int chunks,
+            @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    // Extends a lease while its chunk is still running; returns 0 when the lease was lost
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE story_job_leases SET lease_until = :leaseUntil, updated_at = :now " +
+            "WHERE job_name = :jobName AND shard_no = :shard AND owner_id = :owner", nativeQuery = true)
+    int renew(@Param("jobName") String jobName, @Param("shard") int shard, @Param("owner") String owner,
+            @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE story_job_leases SET owner_id = NULL, lease_until = NULL, checkpoint = NULL, " +
+            "period_key = :periodKey, items_processed = :items, chunks_processed = :chunks, " +
+            "last_completed_at = :now, updated_at = :now " +
+            "WHERE job_name = :jobName AND shard_no = :shard AND owner_id = :owner", nativeQuery = true)
+    int complete(@Param("jobName") String jobName, @Param("shard") int shard, @Param("owner") String owner,
+            @Param("periodKey") String periodKey, @Param("items") long items, @Param("chunks") int chunks,
+            @Param("now") LocalDateTime now);
+
+    // Gives the shard up without completing it; the checkpoint is kept for the next owner
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE story_job_leases SET owner_id = NULL, lease_until = NULL, last_error = :error, " +
+            "updated_at = :now WHERE job_name = :jobName AND shard_no = :shard AND owner_id = :owner",
+            nativeQuery = true)
+    int release(@Param("jobName") String jobName, @Param("shard") int shard, @Param("owner") String owner,
+            @Param("error") String error, @Param("now") LocalDateTime now);
+
+    // Rows of shards a job no longer has, after its shard count was lowered
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM story_job_leases WHERE job_name = :jobName AND shard_no >= :shards",
+            nativeQuery = true)
+    int deleteShardsFrom(@Param("jobName") String jobName, @Param("shards") int shards);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE story_job_leases SET owner_id = NULL, lease_until = NULL, updated_at = :now " +
+            "WHERE owner_id = :owner", nativeQuery = true)
+    int releaseAll(@Param("owner") String owner, @Param("now") LocalDateTime now);
+}
@@ -31,13 +31,22 @@ public interface StoryRepository extends JpaRepository<Story, UUID> {
             @Param("now") LocalDateTime now);
 
     
-    @Query("SELECT s FROM Story s WHERE s.status = 'ACTIVE' " +
+    @Query("SELECT DISTINCT s FROM Story s LEFT JOIN FETCH s.ctaButtons WHERE s.status = 'ACTIVE' " +
             "AND s.isDeleted = false " +
             "AND s.isGlobal = true " +
             "AND s.expiresAt > :now " +
             "ORDER BY s.priority DESC, s.createdAt DESC")
     List<Story> findActiveGlobalStories(@Param("now") LocalDateTime now);
 
+    @Query("SELECT DISTINCT s FROM Story s LEFT JOIN FETCH s.ctaButtons WHERE s.status = :status " +
+            "AND s.isDeleted = false " +
+            "AND s.expiresAt > :now " +
+            "AND s.isGlobal = false AND s.targetUserId = :userId")
+    List<Story> findActiveTargetedStoriesForUser(
+            @Param("status") StoryStatus status,
+            @Param("userId") Integer userId,
+            @Param("now") LocalDateTime now);
+
     
     List<Story> findByStoryTypeAndStatusAndIsDeletedFalse(StoryType type, StoryStatus status);
 
@@ -73,11 +82,33 @@ public interface StoryRepository extends JpaRepository<Story, UUID> {
     Page<Story> findByStoryTypeAndIsDeletedFalseOrderByCreatedAtDesc(StoryType type, Pageable pageable);
 
     
+    // Lifecycle updates are bounded by LIMIT so one statement never locks an unbounded range.
+    // Sharded ones cover the stories whose shard_key falls in [fromKey, toKey]; see Story.SHARD_KEYS.
+    @Modifying
+    @Query(value = "UPDATE stories SET status = 'EXPIRED', updated_at = :now " +
+            "WHERE status = 'ACTIVE' AND expires_at <= :now LIMIT :limit", nativeQuery = true)
+    int expireStoriesBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "UPDATE stories SET status = 'ARCHIVED', updated_at = :now " +
+            "WHERE status = 'EXPIRED' AND shard_key BETWEEN :fromKey AND :toKey " +
+            "AND expires_at < :threshold AND is_deleted = false LIMIT :limit", nativeQuery = true)
+    int archiveExpiredStoriesBatch(@Param("threshold") LocalDateTime threshold, @Param("now") LocalDateTime now,
+            @Param("fromKey") int fromKey, @Param("toKey") int toKey, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "UPDATE stories SET is_deleted = true, deleted_at = :now, updated_at = :now " +
+            "WHERE status = 'ARCHIVED' AND shard_key BETWEEN :fromKey AND :toKey " +
+            "AND created_at < :threshold AND is_deleted = false LIMIT :limit", nativeQuery = true)
+    int softDeleteArchivedStoriesBatch(@Param("threshold") LocalDateTime threshold, @Param("now") LocalDateTime now,
+            @Param("fromKey") int fromKey, @Param("toKey") int toKey, @Param("limit") int limit);
+
+    // Stories written before shard_key existed; (status, shard_key) makes the NULL lookup a range
     @Modifying
-    @Query("UPDATE Story s SET s.status = 'EXPIRED' " +
-            "WHERE s.status = 'ACTIVE' " +
-            "AND s.expiresAt <= :now")
-    int bulkExpireStories(@Param("now") LocalDateTime now);
+    @Query(value = "UPDATE stories SET shard_key = MOD(COALESCE(target_user_id, 0), :shardKeys) " +
+            "WHERE status IN ('CREATED', 'ACTIVE', 'EXPIRED', 'ARCHIVED') AND shard_key IS NULL LIMIT :limit",
+            nativeQuery = true)
+    int assignMissingShardKeysBatch(@Param("shardKeys") int shardKeys, @Param("limit") int limit);
 
     
     long countByStatusAndIsDeletedFalse(StoryStatus status);
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -21,6 +22,8 @@ public interface StoryVisibilityRepository extends JpaRepository<StoryVisibility
     
     List<StoryVisibility> findByUserId(Integer userId);
 
+    List<StoryVisibility> findByUserIdAndStoryIdIn(Integer userId, Collection<UUID> storyIds);
+
     
     List<StoryVisibility> findByUserIdAndSeenTrue(Integer userId);
 
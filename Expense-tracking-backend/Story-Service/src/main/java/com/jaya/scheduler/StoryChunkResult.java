@@ -0,0 +1,16 @@
+package com.jaya.scheduler;
+
+/**
+ * Outcome of one chunk: how many items it handled, where the next chunk resumes and whether
+ * the shard is finished.
+ */
+public record StoryChunkResult(int processed, String checkpoint, boolean done) {
+
+    public static StoryChunkResult done(int processed) {
+        return new StoryChunkResult(processed, null, true);
+    }
+
+    public static StoryChunkResult more(int processed, String checkpoint) {
+        return new StoryChunkResult(processed, checkpoint, false);
+    }
+}
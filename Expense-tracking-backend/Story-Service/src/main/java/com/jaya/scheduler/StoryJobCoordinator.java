@@ -0,0 +1,335 @@
+package com.jaya.scheduler;
+
+import com.jaya.models.StoryJobLease;
+import com.jaya.repository.StoryJobInstanceRepository;
+import com.jaya.repository.StoryJobLeaseRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coordinates scheduled jobs across Story-Service instances through the database, without an
+ * external coordinator.
+ *
+ * <p>Every instance heartbeats into {@code story_job_instances}. A job is split into shards by
+ * user id hash, and shard {@code s} belongs to the live instance at position
+ * {@code s % liveInstances} in id order, so the shards spread over the replicas and move to the
+ * survivors when one stops heartbeating. Before touching a shard the instance takes its row in
+ * {@code story_job_leases}; the lease is what guarantees a single runner while two instances
+ * briefly disagree about who is alive.
+ *
+ * <p>Shards run chunk by chunk. After each chunk the checkpoint is stored, and the run stops
+ * between chunks once the job's runtime budget is spent; the next run (on any instance) resumes
+ * from the checkpoint. Calendar jobs pass a period key and run once per period.
+ *
+ * <p>The heartbeat also renews the leases this instance holds, so a lease outlives a chunk that
+ * runs longer than {@code lease-seconds} (a story generator is one chunk of up to the whole
+ * budget). It runs on its own thread: the scheduler's single thread is busy with the job itself.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class StoryJobCoordinator {
+
+    private final StoryJobLeaseRepository leaseRepository;
+    private final StoryJobInstanceRepository instanceRepository;
+
+    @Value("${spring.application.name:story-service}")
+    private String applicationName;
+
+    @Value("${story.jobs.shards:8}")
+    private int shardCount;
+
+    @Value("${story.jobs.lease-seconds:120}")
+    private long leaseSeconds;
+
+    @Value("${story.jobs.instance-ttl-seconds:45}")
+    private long instanceTtlSeconds;
+
+    @Value("${story.jobs.heartbeat-interval:15000}")
+    private long heartbeatIntervalMs;
+
+    private String instanceId;
+
+    private ScheduledExecutorService heartbeatExecutor;
+
+    // Shards this instance holds the lease of, renewed with every heartbeat
+    private final Set<HeldShard> heldShards = ConcurrentHashMap.newKeySet();
+
+    private record HeldShard(String jobName, int shard) {
+    }
+
+    private final Map<String, JobMetrics> metrics = new ConcurrentHashMap<>();
+
+    private static final class JobMetrics {
+        final AtomicLong runs = new AtomicLong();
+        final AtomicLong shardsCompleted = new AtomicLong();
+        final AtomicLong shardsSkipped = new AtomicLong();
+        final AtomicLong budgetExhausted = new AtomicLong();
+        final AtomicLong failures = new AtomicLong();
+        final AtomicLong chunks = new AtomicLong();
+        final AtomicLong items = new AtomicLong();
+        final AtomicLong chunkNanos = new AtomicLong();
+        volatile LocalDateTime lastRunAt;
+        volatile long lastRunMillis;
+        volatile long lastRunItems;
+    }
+
+    @PostConstruct
+    void register() {
+        instanceId = applicationName + "-" + hostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+        instanceRepository.heartbeat(instanceId, LocalDateTime.now());
+        heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "story-job-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeatExecutor.scheduleWithFixedDelay(this::heartbeat, heartbeatIntervalMs, heartbeatIntervalMs,
+                TimeUnit.MILLISECONDS);
+        log.info("Registered scheduled job instance {}", instanceId);
+    }
+
+    void heartbeat() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            instanceRepository.heartbeat(instanceId, now);
+            for (HeldShard held : heldShards) {
+                if (leaseRepository.renew(held.jobName(), held.shard(), instanceId, now,
+                        now.plusSeconds(leaseSeconds)) == 0 && heldShards.contains(held)) {
+                    log.warn("Could not renew lease on shard {} of job {}; another instance took it",
+                            held.shard(), held.jobName());
+                }
+            }
+            instanceRepository.deleteStale(now.minusSeconds(instanceTtlSeconds * 10));
+        } catch (Exception e) {
+            log.error("Error recording scheduled job heartbeat for {}", instanceId, e);
+        }
+    }
+
+    // Hands shards back right away instead of letting the survivors wait for the leases to expire
+    @PreDestroy
+    void shutdown() {
+        heartbeatExecutor.shutdownNow();
+        try {
+            leaseRepository.releaseAll(instanceId, LocalDateTime.now());
+            instanceRepository.deleteById(instanceId);
+        } catch (Exception e) {
+            log.warn("Could not deregister scheduled job instance {}: {}", instanceId, e.getMessage());
+        }
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    /**
+     * Runs this instance's share of a job.
+     *
+     * @param shards    number of shards the job is split into; 1 for jobs that run on a single instance
+     * @param periodKey period the run belongs to (e.g. the date of a daily job); shards that already
+     *                  completed this period are skipped. {@code null} for interval jobs
+     * @param maxRuntime budget for the whole run, checked between chunks
+     * @return items processed by this instance
+     */
+    public long run(String jobName, int shards, String periodKey, Duration maxRuntime, StoryShardTask task) {
+        JobMetrics jobMetrics = metrics.computeIfAbsent(jobName, name -> new JobMetrics());
+        long start = System.currentTimeMillis();
+        long deadline = start + maxRuntime.toMillis();
+        long processed = 0;
+        jobMetrics.runs.incrementAndGet();
+        jobMetrics.lastRunAt = LocalDateTime.now();
+        // Left behind shards would otherwise report an ever-growing lag
+        leaseRepository.deleteShardsFrom(jobName, shards);
+
+        for (int shard : assignedShards(shards)) {
+            if (System.currentTimeMillis() >= deadline) {
+                jobMetrics.budgetExhausted.incrementAndGet();
+                log.warn("Job {} used its {} s budget before shard {}; remaining shards run next time",
+                        jobName, maxRuntime.getSeconds(), shard);
+                break;
+            }
+            processed += runShard(jobName, shard, shards, periodKey, deadline, task, jobMetrics);
+        }
+
+        jobMetrics.lastRunMillis = System.currentTimeMillis() - start;
+        jobMetrics.lastRunItems = processed;
+        return processed;
+    }
+
+    private long runShard(String jobName, int shard, int shards, String periodKey, long deadline,
+            StoryShardTask task, JobMetrics jobMetrics) {
+        LocalDateTime now = LocalDateTime.now();
+        leaseRepository.insertIfAbsent(jobName, shard, now);
+        if (leaseRepository.acquire(jobName, shard, instanceId, now, now.plusSeconds(leaseSeconds)) == 0) {
+            jobMetrics.shardsSkipped.incrementAndGet();
+            log.debug("Shard {} of job {} is leased by another instance", shard, jobName);
+            return 0;
+        }
+
+        HeldShard held = new HeldShard(jobName, shard);
+        heldShards.add(held);
+        try {
+            return runLeasedShard(jobName, shard, shards, periodKey, deadline, task, jobMetrics);
+        } finally {
+            heldShards.remove(held);
+        }
+    }
+
+    private long runLeasedShard(String jobName, int shard, int shards, String periodKey, long deadline,
+            StoryShardTask task, JobMetrics jobMetrics) {
+        StoryJobLease lease = leaseRepository.findByJobNameAndShardNo(jobName, shard).orElseThrow();
+        if (periodKey != null && periodKey.equals(lease.getPeriodKey())) {
+            leaseRepository.release(jobName, shard, instanceId, null, LocalDateTime.now());
+            jobMetrics.shardsSkipped.incrementAndGet();
+            return 0;
+        }
+
+        String checkpoint = lease.getCheckpoint();
+        long items = 0;
+        int chunks = 0;
+        try {
+            while (true) {
+                long chunkStart = System.nanoTime();
+                StoryChunkResult result = task.processChunk(shard, shards, checkpoint);
+                jobMetrics.chunkNanos.addAndGet(System.nanoTime() - chunkStart);
+                jobMetrics.chunks.incrementAndGet();
+                jobMetrics.items.addAndGet(result.processed());
+                items += result.processed();
+                chunks++;
+
+                LocalDateTime now = LocalDateTime.now();
+                if (result.done()) {
+                    leaseRepository.complete(jobName, shard, instanceId, periodKey, items, chunks, now);
+                    jobMetrics.shardsCompleted.incrementAndGet();
+                    return items;
+                }
+
+                checkpoint = result.checkpoint();
+                if (leaseRepository.checkpoint(jobName, shard, instanceId, checkpoint, items, chunks, now,
+                        now.plusSeconds(leaseSeconds)) == 0) {
+                    log.warn("Lost lease on shard {} of job {} after {} chunks", shard, jobName, chunks);
+                    return items;
+                }
+                if (System.currentTimeMillis() >= deadline) {
+                    jobMetrics.budgetExhausted.incrementAndGet();
+                    leaseRepository.release(jobName, shard, instanceId, "Runtime budget exhausted", now);
+                    log.warn("Job {} shard {} stopped at its runtime budget after {} items; resuming next run",
+                            jobName, shard, items);
+                    return items;
+                }
+            }
+        } catch (Exception e) {
+            jobMetrics.failures.incrementAndGet();
+            log.error("Error running shard {} of job {}", shard, jobName, e);
+            String error = e.getMessage() != null && e.getMessage().length() > 500
+                    ? e.getMessage().substring(0, 500) : e.getMessage();
+            leaseRepository.release(jobName, shard, instanceId, error, LocalDateTime.now());
+            return items;
+        }
+    }
+
+    private List<Integer> assignedShards(int shards) {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> live = instanceRepository.findLiveInstanceIds(now.minusSeconds(instanceTtlSeconds));
+        int index = live.indexOf(instanceId);
+        if (index < 0) {
+            // Our heartbeat lapsed (e.g. a long pause); rejoin before taking work
+            instanceRepository.heartbeat(instanceId, now);
+            live = instanceRepository.findLiveInstanceIds(now.minusSeconds(instanceTtlSeconds));
+            index = live.indexOf(instanceId);
+            if (index < 0) {
+                return List.of();
+            }
+        }
+        List<Integer> assigned = new ArrayList<>();
+        for (int shard = 0; shard < shards; shard++) {
+            if (shard % live.size() == index) {
+                assigned.add(shard);
+            }
+        }
+        return assigned;
+    }
+
+    /**
+     * Per-job counters of this instance plus the shared lease table. Lag is the time since a
+     * shard last completed; chunk throughput is items per second of chunk execution time.
+     */
+    public Map<String, Object> getStatus() {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("instanceId", instanceId);
+        status.put("liveInstances", instanceRepository.findLiveInstanceIds(now.minusSeconds(instanceTtlSeconds)));
+
+        Map<String, List<Map<String, Object>>> shardsByJob = new TreeMap<>();
+        for (StoryJobLease lease : leaseRepository.findAllByOrderByJobNameAscShardNoAsc()) {
+            Map<String, Object> shard = new LinkedHashMap<>();
+            shard.put("shard", lease.getShardNo());
+            shard.put("owner", lease.getOwnerId());
+            shard.put("leaseUntil", lease.getLeaseUntil());
+            shard.put("checkpoint", lease.getCheckpoint());
+            shard.put("periodKey", lease.getPeriodKey());
+            shard.put("itemsProcessed", lease.getItemsProcessed());
+            shard.put("chunksProcessed", lease.getChunksProcessed());
+            shard.put("lastCompletedAt", lease.getLastCompletedAt());
+            shard.put("lagSeconds", lease.getLastCompletedAt() != null
+                    ? Duration.between(lease.getLastCompletedAt(), now).getSeconds() : null);
+            shard.put("lastError", lease.getLastError());
+            shardsByJob.computeIfAbsent(lease.getJobName(), name -> new ArrayList<>()).add(shard);
+        }
+
+        Map<String, Object> jobs = new TreeMap<>();
+        Set<String> jobNames = new TreeSet<>(shardsByJob.keySet());
+        jobNames.addAll(metrics.keySet());
+        for (String jobName : jobNames) {
+            Map<String, Object> job = new LinkedHashMap<>();
+            JobMetrics jobMetrics = metrics.get(jobName);
+            if (jobMetrics != null) {
+                long chunkMillis = jobMetrics.chunkNanos.get() / 1_000_000;
+                job.put("runs", jobMetrics.runs.get());
+                job.put("lastRunAt", jobMetrics.lastRunAt);
+                job.put("lastRunMillis", jobMetrics.lastRunMillis);
+                job.put("lastRunItems", jobMetrics.lastRunItems);
+                job.put("shardsCompleted", jobMetrics.shardsCompleted.get());
+                job.put("shardsSkipped", jobMetrics.shardsSkipped.get());
+                job.put("budgetExhausted", jobMetrics.budgetExhausted.get());
+                job.put("failures", jobMetrics.failures.get());
+                job.put("chunks", jobMetrics.chunks.get());
+                job.put("items", jobMetrics.items.get());
+                job.put("itemsPerSecond", chunkMillis > 0 ? jobMetrics.items.get() * 1000 / chunkMillis : null);
+            }
+            job.put("maxLagSeconds", shardsByJob.getOrDefault(jobName, List.of()).stream()
+                    .map(shard -> (Long) shard.get("lagSeconds"))
+                    .filter(Objects::nonNull)
+                    .max(Long::compare)
+                    .orElse(null));
+            job.put("shards", shardsByJob.getOrDefault(jobName, List.of()));
+            jobs.put(jobName, job);
+        }
+        status.put("jobs", jobs);
+        return status;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "unknown";
+        }
+    }
+}
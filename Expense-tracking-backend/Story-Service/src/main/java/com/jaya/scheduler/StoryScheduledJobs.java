@@ -3,15 +3,23 @@ package com.jaya.scheduler;
 import com.jaya.service.StoryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.IsoFields;
 
 /**
  * Scheduled jobs for story-related tasks.
  * Conditional on scheduling.enabled property to avoid duplicate execution in monolithic mode.
+ * Every job goes through {@link StoryJobCoordinator}, so replicas share the work instead of
+ * repeating it: archival and cleanup are split into user-hash shards, while expiry and the story
+ * generators run as a single shard (expiry every minute, the generators once per period).
  */
 @Component
 @RequiredArgsConstructor
@@ -20,16 +28,29 @@ import java.time.LocalDateTime;
 public class StoryScheduledJobs {
 
     private final StoryService storyService;
+    private final StoryJobCoordinator coordinator;
 
-    
+    @Value("${story.jobs.chunk-size:1000}")
+    private int chunkSize;
 
+    @Value("${story.jobs.expire-batch-size:100000}")
+    private int expireBatchSize;
 
+    @Value("${story.jobs.expire-max-runtime-seconds:45}")
+    private long expireMaxRuntimeSeconds;
 
-    @Scheduled(fixedRate = 60000) 
+    @Value("${story.jobs.max-runtime-seconds:600}")
+    private long maxRuntimeSeconds;
+
+
+
+
+
+    @Scheduled(fixedRate = 60000)
     public void expireStories() {
         log.debug("Running story expiration job at {}", LocalDateTime.now());
         try {
-            int expiredCount = storyService.expireOldStories();
+            long expiredCount = runExpiry();
             if (expiredCount > 0) {
                 log.info("Expired {} stories", expiredCount);
             }
@@ -38,15 +59,15 @@ public class StoryScheduledJobs {
         }
     }
 
-    
 
 
 
-    @Scheduled(fixedRate = 3600000) 
+
+    @Scheduled(fixedRate = 3600000)
     public void archiveExpiredStories() {
         log.debug("Running story archival job at {}", LocalDateTime.now());
         try {
-            int archivedCount = storyService.archiveExpiredStories();
+            long archivedCount = runArchival();
             if (archivedCount > 0) {
                 log.info("Archived {} expired stories", archivedCount);
             }
@@ -55,7 +76,7 @@ public class StoryScheduledJobs {
         }
     }
 
-    
+
 
 
 
@@ -63,43 +84,43 @@ public class StoryScheduledJobs {
     public void generateDailyWelcomeStory() {
         log.info("Generating daily welcome story at {}", LocalDateTime.now());
         try {
-            storyService.generateDailyWelcomeStory();
+            runOncePerPeriod("daily-welcome", LocalDate.now().toString(), storyService::generateDailyWelcomeStory);
         } catch (Exception e) {
             log.error("Error generating daily welcome story", e);
         }
     }
 
-    
 
 
 
-    @Scheduled(fixedRate = 1800000) 
+
+    @Scheduled(fixedRate = 1800000)
     public void checkBudgetThresholds() {
         log.debug("Checking budget thresholds at {}", LocalDateTime.now());
         try {
-            
-            
-            storyService.checkAndGenerateBudgetStories();
+
+
+            runOnce("budget-thresholds", storyService::checkAndGenerateBudgetStories);
         } catch (Exception e) {
             log.error("Error checking budget thresholds", e);
         }
     }
 
-    
 
 
 
-    @Scheduled(fixedRate = 3600000) 
+
+    @Scheduled(fixedRate = 3600000)
     public void checkBillReminders() {
         log.debug("Checking bill reminders at {}", LocalDateTime.now());
         try {
-            storyService.checkAndGenerateBillReminders();
+            runOnce("bill-reminders", storyService::checkAndGenerateBillReminders);
         } catch (Exception e) {
             log.error("Error checking bill reminders", e);
         }
     }
 
-    
+
 
 
 
@@ -107,13 +128,15 @@ public class StoryScheduledJobs {
     public void generateWeeklySummary() {
         log.info("Generating weekly summary stories at {}", LocalDateTime.now());
         try {
-            storyService.generateWeeklySummaryStories();
+            LocalDate today = LocalDate.now();
+            String week = today.get(IsoFields.WEEK_BASED_YEAR) + "-W" + today.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR);
+            runOncePerPeriod("weekly-summary", week, storyService::generateWeeklySummaryStories);
         } catch (Exception e) {
             log.error("Error generating weekly summary", e);
         }
     }
 
-    
+
 
 
 
@@ -121,24 +144,87 @@ public class StoryScheduledJobs {
     public void generateMonthlyAchievements() {
         log.info("Generating monthly achievement stories at {}", LocalDateTime.now());
         try {
-            storyService.generateMonthlyAchievementStories();
+            runOncePerPeriod("monthly-achievements", YearMonth.now().toString(),
+                    storyService::generateMonthlyAchievementStories);
         } catch (Exception e) {
             log.error("Error generating monthly achievements", e);
         }
     }
 
-    
 
 
 
 
+
+    // Gives stories stored before shard_key existed their key, which archival and cleanup select
+    // by; the period key marks it done for good once no such story is left
+    @Scheduled(initialDelay = 60000, fixedRate = 3600000)
+    public void assignMissingShardKeys() {
+        try {
+            long assigned = coordinator.run("assign-story-shard-keys", 1, "done", maxRuntime(),
+                    (shard, shards, checkpoint) -> chunk(storyService.assignMissingShardKeysChunk(chunkSize),
+                            chunkSize));
+            if (assigned > 0) {
+                log.info("Assigned shard keys to {} stories", assigned);
+            }
+        } catch (Exception e) {
+            log.error("Error assigning story shard keys", e);
+        }
+    }
+
     @Scheduled(cron = "0 0 3 * * *")
     public void cleanupOldStories() {
         log.info("Cleaning up old archived stories at {}", LocalDateTime.now());
         try {
-            storyService.cleanupOldArchivedStories(90);
+            long cleanedCount = coordinator.run("cleanup-archived-stories", coordinator.getShardCount(),
+                    LocalDate.now().toString(), maxRuntime(),
+                    (shard, shards, checkpoint) -> chunk(
+                            storyService.cleanupOldArchivedStoriesChunk(90, shard, shards, chunkSize), chunkSize));
+            log.info("Cleaned up {} old archived stories", cleanedCount);
         } catch (Exception e) {
             log.error("Error cleaning up old stories", e);
         }
     }
+
+    /**
+     * Runs the expiry job now, unless another instance holds its lease, in which case it returns 0.
+     * Also used by the admin trigger.
+     *
+     * <p>Expiry is one shard with a batch of {@code expire-batch-size}, so a minute with up to 100k
+     * expiring stories is a single UPDATE. The statement walks the (status, expires_at) index and
+     * locks only the rows it expires, none of which a feed still shows. Archival and cleanup run
+     * over far larger ranges and keep the small sharded chunks.
+     */
+    public long runExpiry() {
+        return coordinator.run("expire-stories", 1, null, Duration.ofSeconds(expireMaxRuntimeSeconds),
+                (shard, shards, checkpoint) -> chunk(storyService.expireStoriesChunk(expireBatchSize),
+                        expireBatchSize));
+    }
+
+    // Same as runExpiry for archiving stories that expired more than 7 days ago
+    public long runArchival() {
+        return coordinator.run("archive-stories", coordinator.getShardCount(), null, maxRuntime(),
+                (shard, shards, checkpoint) -> chunk(
+                        storyService.archiveExpiredStoriesChunk(shard, shards, chunkSize), chunkSize));
+    }
+
+    // Lifecycle updates leave the rows they touch, so a short batch means the shard is drained
+    private static StoryChunkResult chunk(int updated, int limit) {
+        return updated < limit ? StoryChunkResult.done(updated) : StoryChunkResult.more(updated, null);
+    }
+
+    private void runOnce(String jobName, Runnable action) {
+        runOncePerPeriod(jobName, null, action);
+    }
+
+    private void runOncePerPeriod(String jobName, String periodKey, Runnable action) {
+        coordinator.run(jobName, 1, periodKey, maxRuntime(), (shard, shards, checkpoint) -> {
+            action.run();
+            return StoryChunkResult.done(1);
+        });
+    }
+
+    private Duration maxRuntime() {
+        return Duration.ofSeconds(maxRuntimeSeconds);
+    }
 }
@@ -0,0 +1,11 @@
+package com.jaya.scheduler;
+
+/**
+ * One chunk of work of a sharded scheduled job. Implementations process a bounded amount of the
+ * shard starting after {@code checkpoint} (null on a fresh run) and report where to resume.
+ */
+@FunctionalInterface
+public interface StoryShardTask {
+
+    StoryChunkResult processChunk(int shard, int shardCount, String checkpoint);
+}
@@ -0,0 +1,274 @@
+package com.jaya.service;
+
+import com.jaya.dto.StoryDTO;
+import com.jaya.dto.StoryListResponse;
+import com.jaya.mapper.StoryMapper;
+import com.jaya.models.Story;
+import com.jaya.models.StoryVisibility;
+import com.jaya.models.enums.StoryStatus;
+import com.jaya.repository.StoryRepository;
+import com.jaya.repository.StoryVisibilityRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory story feed. Global stories are loaded once and shared by every user; each user entry
+ * holds that user's feed (global plus targeted stories, minus dismissed ones) and a bitmap of
+ * which feed positions the user has seen. Client polls are answered from the entry.
+ *
+ * <p>Invalidation:
+ * <ul>
+ * <li>creating, changing or removing a global story bumps the global generation, so every user
+ * entry is rebuilt on its next read; targeted stories only drop their user's entry;</li>
+ * <li>a seen event sets the user's bit in place after the transaction commits;</li>
+ * <li>expiry needs no event: reads skip stories past {@code expiresAt}, the same condition the
+ * feed query used, so the minute expiry job does not touch the cache.</li>
+ * </ul>
+ * Entries also expire after {@code story.feed-cache.ttl-seconds}, which bounds staleness from
+ * changes made by other instances.
+ */
+@Slf4j
+@Component
+public class StoryFeedCache {
+
+    private final StoryRepository storyRepository;
+    private final StoryVisibilityRepository visibilityRepository;
+    private final StoryMapper storyMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Value("${story.feed-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${story.feed-cache.max-users:50000}")
+    private int maxUsers;
+
+    private final Map<Integer, UserFeed> feeds = new ConcurrentHashMap<>();
+    private final AtomicLong globalGeneration = new AtomicLong();
+    private volatile GlobalStories globalStories;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public StoryFeedCache(StoryRepository storyRepository, StoryVisibilityRepository visibilityRepository,
+            StoryMapper storyMapper, PlatformTransactionManager transactionManager) {
+        this.storyRepository = storyRepository;
+        this.visibilityRepository = visibilityRepository;
+        this.storyMapper = storyMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    private record GlobalStories(long generation, LocalDateTime loadedAt, List<StoryDTO> stories) {
+    }
+
+    /**
+     * One user's feed in display order. {@code seen}, {@code seenAt} and {@code viewCounts} are
+     * indexed by feed position and guarded by the entry's monitor.
+     */
+    private static final class UserFeed {
+        final long generation;
+        final LocalDateTime loadedAt;
+        final List<StoryDTO> stories;
+        final Map<UUID, Integer> positions;
+        final BitSet seen;
+        final LocalDateTime[] seenAt;
+        final int[] viewCounts;
+
+        UserFeed(long generation, LocalDateTime loadedAt, List<StoryDTO> stories) {
+            this.generation = generation;
+            this.loadedAt = loadedAt;
+            this.stories = stories;
+            this.positions = new HashMap<>(stories.size() * 2);
+            for (int i = 0; i < stories.size(); i++) {
+                positions.put(stories.get(i).getId(), i);
+            }
+            this.seen = new BitSet(stories.size());
+            this.seenAt = new LocalDateTime[stories.size()];
+            this.viewCounts = new int[stories.size()];
+        }
+    }
+
+    public StoryListResponse getFeed(Integer userId) {
+        LocalDateTime now = LocalDateTime.now();
+        UserFeed feed = feeds.get(userId);
+        if (feed == null || isStale(feed, now)) {
+            misses.incrementAndGet();
+            feed = load(userId, now);
+            if (feeds.size() >= maxUsers && !feeds.containsKey(userId)) {
+                evict(now);
+            }
+            feeds.put(userId, feed);
+        } else {
+            hits.incrementAndGet();
+        }
+        return render(feed, now);
+    }
+
+    /** Records a seen event in the user's bitmap once the surrounding transaction commits. */
+    public void onSeen(Integer userId, StoryVisibility visibility) {
+        UUID storyId = visibility.getStoryId();
+        LocalDateTime seenAt = visibility.getSeenAt();
+        int viewCount = visibility.getViewCount() != null ? visibility.getViewCount() : 0;
+        afterCommit(() -> {
+            UserFeed feed = feeds.get(userId);
+            if (feed == null) {
+                return;
+            }
+            Integer position = feed.positions.get(storyId);
+            if (position == null) {
+                return;
+            }
+            synchronized (feed) {
+                feed.seen.set(position);
+                feed.seenAt[position] = seenAt;
+                feed.viewCounts[position] = viewCount;
+            }
+        });
+    }
+
+    /** Drops the cached feed of the story's audience after the surrounding transaction commits. */
+    public void onStoryChanged(Integer targetUserId, Boolean isGlobal) {
+        afterCommit(() -> {
+            if (Boolean.TRUE.equals(isGlobal) || targetUserId == null) {
+                globalGeneration.incrementAndGet();
+            } else {
+                feeds.remove(targetUserId);
+            }
+        });
+    }
+
+    public void invalidateUser(Integer userId) {
+        afterCommit(() -> feeds.remove(userId));
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("users", feeds.size());
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("globalGeneration", globalGeneration.get());
+        return stats;
+    }
+
+    private boolean isStale(UserFeed feed, LocalDateTime now) {
+        return feed.generation != globalGeneration.get()
+                || Duration.between(feed.loadedAt, now).getSeconds() >= ttlSeconds;
+    }
+
+    private UserFeed load(Integer userId, LocalDateTime now) {
+        long generation = globalGeneration.get();
+        List<StoryDTO> global = globalStories(generation, now);
+
+        return readOnlyTransaction.execute(status -> {
+            List<StoryDTO> stories = new ArrayList<>(global);
+            for (Story story : storyRepository.findActiveTargetedStoriesForUser(StoryStatus.ACTIVE, userId, now)) {
+                stories.add(storyMapper.toDTO(story));
+            }
+            stories.sort(Comparator.comparing(StoryDTO::getPriority, Comparator.nullsLast(Comparator.reverseOrder()))
+                    .thenComparing(StoryDTO::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder())));
+
+            Map<UUID, StoryVisibility> visibilities = stories.isEmpty() ? Map.of()
+                    : visibilityRepository.findByUserIdAndStoryIdIn(userId,
+                            stories.stream().map(StoryDTO::getId).collect(Collectors.toList()))
+                            .stream()
+                            .collect(Collectors.toMap(StoryVisibility::getStoryId, Function.identity()));
+            stories.removeIf(story -> {
+                StoryVisibility visibility = visibilities.get(story.getId());
+                return visibility != null && Boolean.TRUE.equals(visibility.getDismissed());
+            });
+
+            UserFeed feed = new UserFeed(generation, now, List.copyOf(stories));
+            for (int i = 0; i < feed.stories.size(); i++) {
+                StoryVisibility visibility = visibilities.get(feed.stories.get(i).getId());
+                if (visibility != null) {
+                    feed.seen.set(i, Boolean.TRUE.equals(visibility.getSeen()));
+                    feed.seenAt[i] = visibility.getSeenAt();
+                    feed.viewCounts[i] = visibility.getViewCount() != null ? visibility.getViewCount() : 0;
+                }
+            }
+            return feed;
+        });
+    }
+
+    private List<StoryDTO> globalStories(long generation, LocalDateTime now) {
+        GlobalStories current = globalStories;
+        if (current != null && current.generation() == generation
+                && Duration.between(current.loadedAt(), now).getSeconds() < ttlSeconds) {
+            return current.stories();
+        }
+        List<StoryDTO> stories = readOnlyTransaction.execute(status -> storyRepository.findActiveGlobalStories(now)
+                .stream()
+                .map(storyMapper::toDTO)
+                .collect(Collectors.toList()));
+        globalStories = new GlobalStories(generation, now, stories);
+        return stories;
+    }
+
+    // Per-read fields are filled on a copy: seen state from the bitmap, remaining time from now
+    private StoryListResponse render(UserFeed feed, LocalDateTime now) {
+        List<StoryDTO> result = new ArrayList<>(feed.stories.size());
+        int unseen = 0;
+        synchronized (feed) {
+            for (int i = 0; i < feed.stories.size(); i++) {
+                StoryDTO template = feed.stories.get(i);
+                if (!template.getExpiresAt().isAfter(now)) {
+                    continue;
+                }
+                boolean seen = feed.seen.get(i);
+                if (!seen) {
+                    unseen++;
+                }
+                result.add(template.toBuilder()
+                        .seen(seen)
+                        .seenAt(feed.seenAt[i])
+                        .viewCount(feed.viewCounts[i])
+                        .isExpired(false)
+                        .remainingSeconds(Math.max(0, Duration.between(now, template.getExpiresAt()).getSeconds()))
+                        .build());
+            }
+        }
+        return StoryListResponse.builder()
+                .stories(result)
+                .totalCount(result.size())
+                .unseenCount(unseen)
+                .hasMore(false)
+                .build();
+    }
+
+    // Drops stale entries first and only falls back to the oldest entry when none were stale
+    private void evict(LocalDateTime now) {
+        feeds.values().removeIf(feed -> isStale(feed, now));
+        if (feeds.size() < maxUsers) {
+            return;
+        }
+        feeds.entrySet().stream()
+                .min(Comparator.comparing(entry -> entry.getValue().loadedAt))
+                .ifPresent(entry -> feeds.remove(entry.getKey(), entry.getValue()));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
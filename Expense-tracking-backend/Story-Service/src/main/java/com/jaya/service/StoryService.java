@@ -60,11 +60,16 @@ public interface StoryService {
                         double currentAmount, double averageAmount);
 
         
-        int expireOldStories();
+        // Single bounded batch, for one shard of the user keys where sharded; returns the rows updated.
+        // Runs go through StoryJobCoordinator, which leases the shard and repeats the batch until it
+        // comes back short
+        int expireStoriesChunk(int limit);
 
-        int archiveExpiredStories();
+        int archiveExpiredStoriesChunk(int shard, int shardCount, int limit);
 
-        void cleanupOldArchivedStories(int daysOld);
+        int cleanupOldArchivedStoriesChunk(int daysOld, int shard, int shardCount, int limit);
+
+        int assignMissingShardKeysChunk(int limit);
 
         
         void generateDailyWelcomeStory();
@@ -0,0 +1,133 @@
+package com.jaya.service.anomaly;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jaya.kafka.SpendingAnomalyKafkaProducer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Flags expenses that are unusually large for the user and category, one event at a time. Each
+ * expense is scored against its (user, category) profile before being folded into it, so the
+ * cost per event is one map lookup and a few arithmetic operations regardless of history length.
+ */
+@Slf4j
+@Component
+public class SpendingAnomalyDetector {
+
+    private final SpendingProfileStore profileStore;
+    private final SpendingAnomalyKafkaProducer kafkaProducer;
+    private final ObjectMapper objectMapper;
+
+    @Value("${kafka.topics.expense-anomaly-events:expense-anomaly-events}")
+    private String anomalyTopic;
+
+    @Value("${story.anomaly.alpha:0.1}")
+    private double alpha;
+
+    @Value("${story.anomaly.z-threshold:3.0}")
+    private double zThreshold;
+
+    @Value("${story.anomaly.min-samples:5}")
+    private int minSamples;
+
+    @Value("${story.anomaly.weekday-min-samples:3}")
+    private int weekdayMinSamples;
+
+    @Value("${story.anomaly.min-std-ratio:0.1}")
+    private double minStdRatio;
+
+    @Value("${story.anomaly.min-amount:0}")
+    private double minAmount;
+
+    @Value("${story.anomaly.dedupe-window:64}")
+    private int dedupeWindow;
+
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong anomalies = new AtomicLong();
+
+    public SpendingAnomalyDetector(SpendingProfileStore profileStore,
+            SpendingAnomalyKafkaProducer kafkaProducer,
+            ObjectMapper objectMapper) {
+        this.profileStore = profileStore;
+        this.kafkaProducer = kafkaProducer;
+        this.objectMapper = objectMapper;
+    }
+
+    private record Score(boolean applied, double zScore, double expected, double std) {
+    }
+
+    /**
+     * Scores and records one created expense.
+     *
+     * @return true when the expense was flagged and an anomaly event published
+     */
+    public boolean process(Integer expenseId, Integer userId, String category, double amount,
+            LocalDateTime timestamp, String description) {
+        int weekday = timestamp.getDayOfWeek().getValue() - 1;
+        String key = SpendingProfileStore.key(userId, category);
+
+        Score score = profileStore.update(key, profile -> {
+            if (expenseId != null && profile.hasSeen(expenseId)) {
+                return new Score(false, Double.NaN, 0, 0);
+            }
+            double z = profile.zScore(amount, weekday, minSamples, weekdayMinSamples, minStdRatio);
+            double expected = profile.expected(weekday, weekdayMinSamples);
+            double std = profile.deviation(expected, minStdRatio);
+            profile.update(amount, weekday, alpha);
+            if (expenseId != null) {
+                profile.markSeen(expenseId, dedupeWindow);
+            }
+            return new Score(true, z, expected, std);
+        }, Score::applied);
+
+        if (!score.applied()) {
+            duplicates.incrementAndGet();
+            return false;
+        }
+        processed.incrementAndGet();
+        if (Double.isNaN(score.zScore()) || score.zScore() < zThreshold || amount < minAmount) {
+            return false;
+        }
+
+        anomalies.incrementAndGet();
+        SpendingAnomalyEvent event = SpendingAnomalyEvent.builder()
+                .eventType(SpendingAnomalyEvent.EVENT_TYPE)
+                .expenseId(expenseId)
+                .userId(userId)
+                .categoryName(category)
+                .currentAmount(amount)
+                .averageAmount(score.expected())
+                .standardDeviation(score.std())
+                .zScore(score.zScore())
+                .description(description)
+                .timestamp(timestamp)
+                .build();
+        try {
+            kafkaProducer.send(anomalyTopic, String.valueOf(userId), objectMapper.writeValueAsString(event));
+            log.info("Spending anomaly for user {} in '{}': {} vs expected {} (z={})",
+                    userId, category, amount, String.format("%.2f", score.expected()),
+                    String.format("%.1f", score.zScore()));
+        } catch (Exception e) {
+            log.error("Error publishing spending anomaly for expense {}", expenseId, e);
+        }
+        return true;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("profiles", profileStore.size());
+        stats.put("restoredProfiles", profileStore.getRestoredProfiles());
+        stats.put("restoreMillis", profileStore.getRestoreMillis());
+        stats.put("processed", processed.get());
+        stats.put("duplicates", duplicates.get());
+        stats.put("anomalies", anomalies.get());
+        return stats;
+    }
+}
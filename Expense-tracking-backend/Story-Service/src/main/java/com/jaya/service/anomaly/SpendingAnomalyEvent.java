@@ -0,0 +1,39 @@
+package com.jaya.service.anomaly;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published on the expense anomaly topic when an expense is far above the user's usual spend in
+ * its category. {@code eventType} and the amount fields match what the story pipeline already
+ * reads for spike events.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SpendingAnomalyEvent {
+
+    public static final String EVENT_TYPE = "EXPENSE_SPIKE_DETECTED";
+
+    private String eventType;
+    private Integer expenseId;
+    private Integer userId;
+    private String categoryName;
+    private Double currentAmount;
+    // Expected amount for the category on that day of week
+    private Double averageAmount;
+    private Double standardDeviation;
+    @JsonProperty("zScore")
+    private Double zScore;
+    private String description;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime timestamp;
+}
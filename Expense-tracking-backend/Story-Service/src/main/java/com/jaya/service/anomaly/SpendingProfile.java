@@ -0,0 +1,103 @@
+package com.jaya.service.anomaly;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Spending profile of one (user, category): exponentially weighted mean and variance of the
+ * expense amounts, plus a weighted mean per day of week. Updates and scoring are O(1) and
+ * allocation free, and the object itself is the value written to the changelog topic.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class SpendingProfile {
+
+    private double mean;
+    private double variance;
+    private int count;
+    // Monday at index 0
+    private double[] weekdayMean = new double[7];
+    private int[] weekdayCount = new int[7];
+    // Ring of the most recently applied expense ids, so a redelivered event is not counted twice;
+    // ids are not monotonic per profile, since creates can arrive out of id order
+    private int[] recentExpenseIds = new int[0];
+    private int recentCursor;
+
+    /**
+     * How far {@code amount} is above what this profile expects on {@code weekday}, in standard
+     * deviations. The weekday mean replaces the overall mean once that weekday has enough samples;
+     * the deviation is floored at {@code minStdRatio} of the mean so a very regular history does
+     * not turn small changes into huge scores.
+     *
+     * @return the z-score, or {@code NaN} while the profile has fewer than {@code minSamples}
+     */
+    public double zScore(double amount, int weekday, int minSamples, int minWeekdaySamples, double minStdRatio) {
+        if (count < minSamples) {
+            return Double.NaN;
+        }
+        double expected = expected(weekday, minWeekdaySamples);
+        double std = deviation(expected, minStdRatio);
+        return std > 0 ? (amount - expected) / std : Double.NaN;
+    }
+
+    public double deviation(double expected, double minStdRatio) {
+        return Math.max(Math.sqrt(variance), Math.abs(expected) * minStdRatio);
+    }
+
+    public double expected(int weekday, int minWeekdaySamples) {
+        return weekdayCount[weekday] >= minWeekdaySamples ? weekdayMean[weekday] : mean;
+    }
+
+    /** Folds one amount into the weighted statistics (West's incremental EWMA variance). */
+    public void update(double amount, int weekday, double alpha) {
+        if (count == 0) {
+            mean = amount;
+            variance = 0;
+        } else {
+            double diff = amount - mean;
+            double increment = alpha * diff;
+            mean += increment;
+            variance = (1 - alpha) * (variance + diff * increment);
+        }
+        count++;
+
+        if (weekdayCount[weekday] == 0) {
+            weekdayMean[weekday] = amount;
+        } else {
+            weekdayMean[weekday] += alpha * (amount - weekdayMean[weekday]);
+        }
+        weekdayCount[weekday]++;
+    }
+
+    public boolean hasSeen(int expenseId) {
+        for (int id : recentExpenseIds) {
+            if (id == expenseId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Remembers {@code expenseId}, evicting the oldest id once {@code window} ids are held. */
+    public void markSeen(int expenseId, int window) {
+        if (window <= 0) {
+            return;
+        }
+        if (recentExpenseIds.length != window) {
+            int[] resized = new int[window];
+            int keep = Math.min(recentExpenseIds.length, window);
+            // Keep the newest ids, oldest first
+            for (int i = 0; i < keep; i++) {
+                resized[i] = recentExpenseIds[Math.floorMod(recentCursor - keep + i, recentExpenseIds.length)];
+            }
+            recentExpenseIds = resized;
+            recentCursor = keep % window;
+        }
+        recentExpenseIds[recentCursor] = expenseId;
+        recentCursor = (recentCursor + 1) % window;
+    }
+}
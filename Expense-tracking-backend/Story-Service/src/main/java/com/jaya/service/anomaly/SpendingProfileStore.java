@@ -0,0 +1,153 @@
+package com.jaya.service.anomaly;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jaya.kafka.SpendingAnomalyKafkaProducer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Spending profiles keyed by {@code userId:category}, held in memory and backed by a compacted
+ * Kafka topic. Every change is written to the topic under the profile key, so compaction keeps
+ * exactly the latest profile per key and a restart rebuilds the store by reading the topic from
+ * the beginning instead of re-querying expense history.
+ */
+@Slf4j
+@Component
+public class SpendingProfileStore {
+
+    private final SpendingAnomalyKafkaProducer kafkaProducer;
+    private final ObjectMapper objectMapper;
+
+    @Value("${kafka.topics.spending-profile-state:spending-profile-state}")
+    private String stateTopic;
+
+    @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
+    private String bootstrapServers;
+
+    private final Map<String, SpendingProfile> profiles = new ConcurrentHashMap<>();
+
+    private volatile int restoredProfiles;
+    private volatile long restoreMillis;
+
+    public SpendingProfileStore(SpendingAnomalyKafkaProducer kafkaProducer,
+            ObjectMapper objectMapper) {
+        this.kafkaProducer = kafkaProducer;
+        this.objectMapper = objectMapper;
+    }
+
+    public static String key(Integer userId, String category) {
+        return userId + ":" + category.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Atomically applies {@code mutation} to one profile, creating it when missing. Profiles for
+     * which {@code changed} holds on the result are written to the changelog topic.
+     */
+    public <R> R update(String key, Function<SpendingProfile, R> mutation, Predicate<R> changed) {
+        List<R> result = new ArrayList<>(1);
+        profiles.compute(key, (k, profile) -> {
+            SpendingProfile current = profile != null ? profile : new SpendingProfile();
+            R outcome = mutation.apply(current);
+            if (changed.test(outcome)) {
+                publish(k, current);
+            }
+            result.add(outcome);
+            return current;
+        });
+        return result.get(0);
+    }
+
+    // Called under the map's lock for the key, so the serialized value matches the applied update
+    private void publish(String key, SpendingProfile profile) {
+        try {
+            kafkaProducer.send(stateTopic, key, objectMapper.writeValueAsString(profile));
+        } catch (Exception e) {
+            log.warn("Could not write spending profile {} to the changelog: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * Loads every profile from the changelog topic, reading each partition up to its end offset.
+     * Runs whenever the detector is assigned partitions, since profiles for users that moved here
+     * were last updated by another instance; pending local writes are flushed first so the topic
+     * is at least as new as this instance's own state.
+     */
+    public void restore() {
+        long start = System.currentTimeMillis();
+        kafkaProducer.flush();
+        Properties props = new Properties();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 5000);
+
+        try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(props)) {
+            List<PartitionInfo> infos = consumer.partitionsFor(stateTopic);
+            if (infos == null || infos.isEmpty()) {
+                log.info("Spending profile changelog {} is empty or missing; starting with no profiles", stateTopic);
+                return;
+            }
+            List<TopicPartition> partitions = infos.stream()
+                    .map(info -> new TopicPartition(info.topic(), info.partition()))
+                    .toList();
+            consumer.assign(partitions);
+            consumer.seekToBeginning(partitions);
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+
+            while (!caughtUp(consumer, endOffsets)) {
+                for (ConsumerRecord<String, String> record : consumer.poll(Duration.ofMillis(500))) {
+                    if (record.key() == null) {
+                        continue;
+                    }
+                    if (record.value() == null) {
+                        profiles.remove(record.key());
+                    } else {
+                        profiles.put(record.key(), objectMapper.readValue(record.value(), SpendingProfile.class));
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error restoring spending profiles from {}; continuing with {} profiles",
+                    stateTopic, profiles.size(), e);
+        }
+
+        restoredProfiles = profiles.size();
+        restoreMillis = System.currentTimeMillis() - start;
+        log.info("Restored {} spending profiles from {} in {} ms", restoredProfiles, stateTopic, restoreMillis);
+    }
+
+    private static boolean caughtUp(KafkaConsumer<String, String> consumer, Map<TopicPartition, Long> endOffsets) {
+        for (Map.Entry<TopicPartition, Long> entry : endOffsets.entrySet()) {
+            if (consumer.position(entry.getKey()) < entry.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int size() {
+        return profiles.size();
+    }
+
+    public int getRestoredProfiles() {
+        return restoredProfiles;
+    }
+
+    public long getRestoreMillis() {
+        return restoreMillis;
+    }
+}
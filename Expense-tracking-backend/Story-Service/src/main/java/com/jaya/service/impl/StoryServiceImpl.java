@@ -6,6 +6,7 @@ import com.jaya.mapper.StoryMapper;
 import com.jaya.models.*;
 import com.jaya.models.enums.*;
 import com.jaya.repository.*;
+import com.jaya.service.StoryFeedCache;
 import com.jaya.service.StoryService;
 import com.jaya.websocket.StoryWebSocketService;
 import lombok.RequiredArgsConstructor;
@@ -13,11 +14,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -31,39 +32,16 @@ public class StoryServiceImpl implements StoryService {
     private final StoryMapper storyMapper;
     private final StoryWebSocketService webSocketService;
     private final ObjectMapper objectMapper;
+    private final StoryFeedCache storyFeedCache;
 
     
 
+    // No transaction here: cache hits need no connection and a miss loads in its own read-only one
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public StoryListResponse getActiveStoriesForUser(Integer userId) {
         log.debug("Fetching active stories for user: {}", userId);
-
-        List<Story> stories = storyRepository.findActiveStoriesForUser(
-                StoryStatus.ACTIVE, userId, LocalDateTime.now());
-
-        
-        Set<UUID> dismissedIds = visibilityRepository.findDismissedStoryIdsByUserId(userId);
-
-        
-        stories = stories.stream()
-                .filter(s -> !dismissedIds.contains(s.getId()))
-                .collect(Collectors.toList());
-
-        
-        List<UUID> storyIds = stories.stream().map(Story::getId).collect(Collectors.toList());
-        Map<UUID, StoryVisibility> visibilityMap = getVisibilityMap(userId, storyIds);
-
-        List<StoryDTO> storyDTOs = storyMapper.toDTOList(stories, visibilityMap);
-
-        int unseenCount = (int) storyDTOs.stream().filter(s -> !s.getSeen()).count();
-
-        return StoryListResponse.builder()
-                .stories(storyDTOs)
-                .totalCount(storyDTOs.size())
-                .unseenCount(unseenCount)
-                .hasMore(false)
-                .build();
+        return storyFeedCache.getFeed(userId);
     }
 
     @Override
@@ -98,6 +76,7 @@ public class StoryServiceImpl implements StoryService {
 
         visibility.markAsSeen();
         visibilityRepository.save(visibility);
+        storyFeedCache.onSeen(userId, visibility);
     }
 
     @Override
@@ -126,6 +105,7 @@ public class StoryServiceImpl implements StoryService {
 
         visibility.dismiss();
         visibilityRepository.save(visibility);
+        storyFeedCache.invalidateUser(userId);
     }
 
     
@@ -171,6 +151,7 @@ public class StoryServiceImpl implements StoryService {
 
         
         createAuditLog(savedStory.getId(), adminId, "CREATE", null, savedStory);
+        storyFeedCache.onStoryChanged(savedStory.getTargetUserId(), savedStory.getIsGlobal());
 
         
         StoryDTO dto = storyMapper.toDTO(savedStory);
@@ -228,6 +209,7 @@ public class StoryServiceImpl implements StoryService {
 
         
         createAuditLog(storyId, adminId, "UPDATE", oldStory, savedStory);
+        storyFeedCache.onStoryChanged(savedStory.getTargetUserId(), savedStory.getIsGlobal());
 
         
         StoryDTO dto = storyMapper.toDTO(savedStory);
@@ -248,6 +230,7 @@ public class StoryServiceImpl implements StoryService {
 
         
         createAuditLog(storyId, adminId, "DELETE", story, null);
+        storyFeedCache.onStoryChanged(story.getTargetUserId(), story.getIsGlobal());
 
         
         webSocketService.broadcastStoryDeleted(storyId);
@@ -264,6 +247,7 @@ public class StoryServiceImpl implements StoryService {
         storyRepository.save(story);
 
         createAuditLog(storyId, adminId, "ACTIVATE", null, null);
+        storyFeedCache.onStoryChanged(story.getTargetUserId(), story.getIsGlobal());
 
         StoryDTO dto = storyMapper.toDTO(story);
         webSocketService.broadcastStoryCreated(dto);
@@ -280,6 +264,7 @@ public class StoryServiceImpl implements StoryService {
         storyRepository.save(story);
 
         createAuditLog(storyId, adminId, "DEACTIVATE", null, null);
+        storyFeedCache.onStoryChanged(story.getTargetUserId(), story.getIsGlobal());
 
         webSocketService.broadcastStoryDeleted(storyId);
     }
@@ -295,6 +280,7 @@ public class StoryServiceImpl implements StoryService {
         storyRepository.save(story);
 
         createAuditLog(storyId, adminId, "ARCHIVE", null, null);
+        storyFeedCache.onStoryChanged(story.getTargetUserId(), story.getIsGlobal());
 
         webSocketService.broadcastStoryDeleted(storyId);
     }
@@ -310,6 +296,7 @@ public class StoryServiceImpl implements StoryService {
         storyRepository.save(story);
 
         createAuditLog(storyId, adminId, "UNARCHIVE", null, null);
+        storyFeedCache.onStoryChanged(story.getTargetUserId(), story.getIsGlobal());
     }
 
     
@@ -386,6 +373,7 @@ public class StoryServiceImpl implements StoryService {
         }
 
         Story savedStory = storyRepository.save(story);
+        storyFeedCache.onStoryChanged(savedStory.getTargetUserId(), savedStory.getIsGlobal());
 
         
         StoryDTO dto = storyMapper.toDTO(savedStory);
@@ -539,46 +527,38 @@ public class StoryServiceImpl implements StoryService {
 
     
 
+    // Stories past expiresAt are already hidden from feeds, so lifecycle updates leave the cache alone
     @Override
-    public int expireOldStories() {
-        log.info("Running story expiration job");
-        int count = storyRepository.bulkExpireStories(LocalDateTime.now());
-        log.info("Expired {} stories", count);
-        return count;
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int expireStoriesChunk(int limit) {
+        return storyRepository.expireStoriesBatch(LocalDateTime.now(), limit);
     }
 
     @Override
-    public int archiveExpiredStories() {
-        log.info("Archiving expired stories older than 7 days");
-        List<Story> expired = storyRepository.findByStatusAndIsDeletedFalse(StoryStatus.EXPIRED);
-        int count = 0;
-        LocalDateTime threshold = LocalDateTime.now().minusDays(7);
-
-        for (Story story : expired) {
-            if (story.getExpiresAt().isBefore(threshold)) {
-                story.archive();
-                storyRepository.save(story);
-                count++;
-            }
-        }
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int archiveExpiredStoriesChunk(int shard, int shardCount, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        return storyRepository.archiveExpiredStoriesBatch(now.minusDays(7), now, firstShardKey(shard, shardCount),
+                firstShardKey(shard + 1, shardCount) - 1, limit);
+    }
 
-        log.info("Archived {} stories", count);
-        return count;
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int cleanupOldArchivedStoriesChunk(int daysOld, int shard, int shardCount, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        return storyRepository.softDeleteArchivedStoriesBatch(now.minusDays(daysOld), now,
+                firstShardKey(shard, shardCount), firstShardKey(shard + 1, shardCount) - 1, limit);
     }
 
     @Override
-    public void cleanupOldArchivedStories(int daysOld) {
-        log.info("Cleaning up archived stories older than {} days", daysOld);
-        LocalDateTime threshold = LocalDateTime.now().minusDays(daysOld);
-        List<Story> oldStories = storyRepository.findByStatusAndCreatedAtBefore(
-                StoryStatus.ARCHIVED, threshold);
-
-        for (Story story : oldStories) {
-            story.softDelete();
-            storyRepository.save(story);
-        }
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int assignMissingShardKeysChunk(int limit) {
+        return storyRepository.assignMissingShardKeysBatch(Story.SHARD_KEYS, limit);
+    }
 
-        log.info("Cleaned up {} old archived stories", oldStories.size());
+    // Shard s of n owns the keys from firstShardKey(s, n) up to firstShardKey(s + 1, n) - 1
+    private static int firstShardKey(int shard, int shardCount) {
+        return (int) ((long) shard * Story.SHARD_KEYS / shardCount);
     }
 
     @Override
@@ -686,16 +666,6 @@ public class StoryServiceImpl implements StoryService {
 
     
 
-    private Map<UUID, StoryVisibility> getVisibilityMap(Integer userId, List<UUID> storyIds) {
-        List<StoryVisibility> visibilities = new ArrayList<>();
-        for (UUID storyId : storyIds) {
-            visibilityRepository.findByStoryIdAndUserId(storyId, userId)
-                    .ifPresent(visibilities::add);
-        }
-        return visibilities.stream()
-                .collect(Collectors.toMap(StoryVisibility::getStoryId, v -> v));
-    }
-
     private void createAuditLog(UUID storyId, Integer adminId, String action,
             Story oldValue, Story newValue) {
         try {
@@ -0,0 +1,145 @@
+package com.jaya.service.anomaly;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jaya.kafka.SpendingAnomalyKafkaProducer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Replays synthetic expense events through the detector and its profile store, changelog
+ * serialization included, with the Kafka send replaced by a counter. It runs 1M events by default;
+ * pass {@code -Danomaly.replay.events=10000000} for the full 10M replay. Per-event cost does not
+ * depend on history length: the second half of the replay must run about as fast as the first.
+ * The 10M figure is therefore the measured rate extrapolated linearly, and the throughput floor
+ * below keeps that extrapolation under {@link #MAX_EXTRAPOLATED_10M_SECONDS}.
+ */
+class SpendingAnomalyReplayTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SpendingAnomalyReplayTest.class);
+
+    private static final int EVENTS = Integer.getInteger("anomaly.replay.events", 1_000_000);
+    private static final int USERS = 2_000;
+    private static final String[] CATEGORIES = { "Food", "Travel", "Shopping", "Bills", "Health" };
+    private static final int SPIKE_EVERY = 1_000;
+    private static final double SPIKE_FACTOR = 25.0;
+    private static final long MAX_EXTRAPOLATED_10M_SECONDS = 200;
+
+    private final AtomicLong changelogWrites = new AtomicLong();
+    private final AtomicLong anomalyEvents = new AtomicLong();
+
+    private SpendingAnomalyDetector detector;
+
+    @BeforeEach
+    void setUp() {
+        // Counts instead of sending; the producer factory only connects on first use
+        SpendingAnomalyKafkaProducer producer = new SpendingAnomalyKafkaProducer("localhost:9092") {
+            @Override
+            public void send(String topic, String key, String value) {
+                (topic.equals("spending-profile-state") ? changelogWrites : anomalyEvents).incrementAndGet();
+            }
+
+            @Override
+            public void flush() {
+            }
+        };
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        SpendingProfileStore store = new SpendingProfileStore(producer, objectMapper);
+        ReflectionTestUtils.setField(store, "stateTopic", "spending-profile-state");
+
+        detector = new SpendingAnomalyDetector(store, producer, objectMapper);
+        ReflectionTestUtils.setField(detector, "anomalyTopic", "expense-anomaly-events");
+        ReflectionTestUtils.setField(detector, "alpha", 0.1);
+        ReflectionTestUtils.setField(detector, "zThreshold", 3.0);
+        ReflectionTestUtils.setField(detector, "minSamples", 5);
+        ReflectionTestUtils.setField(detector, "weekdayMinSamples", 3);
+        ReflectionTestUtils.setField(detector, "minStdRatio", 0.1);
+        ReflectionTestUtils.setField(detector, "minAmount", 0.0);
+        ReflectionTestUtils.setField(detector, "dedupeWindow", 64);
+    }
+
+    @Test
+    void replayFlagsInjectedSpikesInConstantTimePerEvent() {
+        int profiles = USERS * CATEGORIES.length;
+        // Spikes start once every profile has enough history to be scored
+        int spikesFrom = profiles * 20;
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 9, 0);
+
+        long spikes = 0;
+        long spikesFlagged = 0;
+        long falsePositives = 0;
+        long halfNanos = 0;
+        long begin = System.nanoTime();
+        for (int i = 0; i < EVENTS; i++) {
+            if (i == EVENTS / 2) {
+                halfNanos = System.nanoTime() - begin;
+            }
+            int user = random.nextInt(USERS);
+            int category = random.nextInt(CATEGORIES.length);
+            double usual = 100 + (user * 31 + category * 97) % 900;
+            boolean spike = i >= spikesFrom && i % SPIKE_EVERY == 0;
+            double amount = spike ? usual * SPIKE_FACTOR : usual * (0.7 + 0.6 * random.nextDouble());
+
+            boolean flagged = detector.process(i + 1, user + 1, CATEGORIES[category], amount,
+                    start.plusMinutes(i / 10), "expense " + i);
+            if (spike) {
+                spikes++;
+                if (flagged) {
+                    spikesFlagged++;
+                }
+            } else if (flagged) {
+                falsePositives++;
+            }
+        }
+        long totalNanos = System.nanoTime() - begin;
+
+        double perSecond = EVENTS / (totalNanos / 1e9);
+        double firstHalfRate = (EVENTS / 2.0) / (halfNanos / 1e9);
+        double secondHalfRate = (EVENTS - EVENTS / 2.0) / ((totalNanos - halfNanos) / 1e9);
+        long extrapolated10mSeconds = Math.round(10_000_000 / perSecond);
+        log.info("Replayed {} events in {} ms ({} events/s, first half {}/s, second half {}/s); "
+                + "10M extrapolated to {} s; {} of {} spikes flagged, {} false positives",
+                EVENTS, totalNanos / 1_000_000, Math.round(perSecond), Math.round(firstHalfRate),
+                Math.round(secondHalfRate), extrapolated10mSeconds, spikesFlagged, spikes, falsePositives);
+
+        assertEquals((long) EVENTS, detector.getStats().get("processed"));
+        assertEquals(profiles, detector.getStats().get("profiles"));
+        assertEquals((long) EVENTS, changelogWrites.get());
+        assertEquals(spikesFlagged + falsePositives, anomalyEvents.get());
+
+        assertTrue(spikesFlagged >= spikes * 0.99, spikesFlagged + " of " + spikes + " spikes flagged");
+        // Noise is uniform within 30% of the usual amount; young profiles still score some of it over 3
+        assertTrue(falsePositives <= EVENTS / 200, falsePositives + " false positives");
+
+        // Constant work per event: a longer history must not slow later events down
+        assertTrue(secondHalfRate >= firstHalfRate * 0.5,
+                "second half ran at " + Math.round(secondHalfRate) + "/s against " + Math.round(firstHalfRate) + "/s");
+        assertTrue(extrapolated10mSeconds <= MAX_EXTRAPOLATED_10M_SECONDS,
+                "10M events would take " + extrapolated10mSeconds + " s at " + Math.round(perSecond) + "/s");
+    }
+
+    @Test
+    void redeliveredEventsAreNotCountedTwice() {
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 9, 0);
+        for (int i = 0; i < 100; i++) {
+            detector.process(i + 1, 7, "Food", 100 + i % 10, now.plusDays(i), "expense " + i);
+        }
+        for (int i = 90; i < 100; i++) {
+            detector.process(i + 1, 7, "Food", 100 + i % 10, now.plusDays(i), "expense " + i);
+        }
+
+        assertEquals(100L, detector.getStats().get("processed"));
+        assertEquals(10L, detector.getStats().get("duplicates"));
+        assertEquals(100L, changelogWrites.get());
+    }
+}
@@ -27,6 +27,11 @@ public class FeignAuthForwardingConfig {
         asyncAuthToken.set(token);
     }
 
+    /** The JWT set for this thread via {@link #setAsyncAuthToken(String)}, or null. */
+    public static String getAsyncAuthToken() {
+        return asyncAuthToken.get();
+    }
+
     /** Clear the async JWT — call in a finally block to prevent thread-pool leaks. */
     public static void clearAsyncAuthToken() {
         asyncAuthToken.remove();
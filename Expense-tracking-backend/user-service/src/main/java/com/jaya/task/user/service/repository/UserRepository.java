@@ -1,6 +1,7 @@
 package com.jaya.task.user.service.repository;
 
 import com.jaya.task.user.service.modal.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -33,4 +34,14 @@ public interface UserRepository extends JpaRepository<User, Integer> {
 
 
     boolean existsByEmail(String email);
+
+    long countByCreatedAtAfter(LocalDateTime since);
+
+    // Rows for AdminUserStatsSnapshotService: [id, createdAt, updatedAt, roles]
+
+    @Query("SELECT u.id, u.createdAt, u.updatedAt, u.roles FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    java.util.List<Object[]> findStatsRowsAfterId(@Param("afterId") Integer afterId, Pageable pageable);
+
+    @Query("SELECT u.id, u.createdAt, u.updatedAt, u.roles FROM User u WHERE u.updatedAt >= :since")
+    java.util.List<Object[]> findStatsRowsUpdatedSince(@Param("since") LocalDateTime since);
 }
\ No newline at end of file
@@ -6,6 +6,7 @@ import com.jaya.task.user.service.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
@@ -13,7 +14,6 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.stream.Collectors;
 
 
 
@@ -26,6 +26,7 @@ import java.util.stream.Collectors;
 public class AdminAnalyticsService {
 
     private final UserRepository userRepository;
+    private final AdminUserStatsSnapshotService userStatsSnapshotService;
     private final RestTemplate restTemplate;
 
     @Value("${expense.service.url:http://localhost:6000}")
@@ -44,28 +45,14 @@ public class AdminAnalyticsService {
         LocalDateTime startDate = dateRange[0];
         LocalDateTime endDate = dateRange[1];
 
-        
-        List<User> allUsers = userRepository.findAll();
-        long totalUsers = allUsers.size();
-
-        
-        long activeUsers = allUsers.stream()
-                .filter(u -> u.getUpdatedAt() != null && u.getUpdatedAt().isAfter(startDate))
-                .count();
-
-        
-        long newUsersThisMonth = allUsers.stream()
-                .filter(u -> u.getCreatedAt() != null && u.getCreatedAt().isAfter(startDate))
-                .count();
+        AdminUserStatsSnapshot stats = userStatsSnapshotService.getSnapshot();
+        long totalUsers = stats.totalUsers();
+        long activeUsers = stats.activeSince(startDate);
+        long newUsersThisMonth = stats.createdSince(startDate);
 
-        
         LocalDateTime previousStart = startDate
                 .minusDays(java.time.temporal.ChronoUnit.DAYS.between(startDate, endDate));
-        long previousPeriodUsers = allUsers.stream()
-                .filter(u -> u.getCreatedAt() != null &&
-                        u.getCreatedAt().isAfter(previousStart) &&
-                        u.getCreatedAt().isBefore(startDate))
-                .count();
+        long previousPeriodUsers = stats.createdBetween(previousStart, startDate);
 
         double userGrowth = previousPeriodUsers > 0
                 ? ((double) (newUsersThisMonth - previousPeriodUsers) / previousPeriodUsers) * 100
@@ -81,7 +68,7 @@ public class AdminAnalyticsService {
                 .suspendedUsers(0) 
                 .newUsersThisMonth(newUsersThisMonth)
                 .userGrowthPercentage(Math.round(userGrowth * 10.0) / 10.0)
-                .activeGrowthPercentage(calculateActiveGrowth(allUsers, startDate))
+                .activeGrowthPercentage(calculateActiveGrowth(stats, startDate))
                 .totalExpenses(expenseStats.getTotalCount())
                 .totalExpenseAmount(expenseStats.getTotalAmount())
                 .expenseGrowthPercentage(expenseStats.getGrowthPercentage())
@@ -127,17 +114,14 @@ public class AdminAnalyticsService {
         List<RecentActivityDTO> activities = new ArrayList<>();
         LocalDateTime since = LocalDateTime.now().minusHours(hours);
 
-        
-        List<User> recentUsers = userRepository.findAll().stream()
-                .filter(u -> u.getCreatedAt() != null && u.getCreatedAt().isAfter(since))
-                .collect(Collectors.toList());
+        long recentUsers = userRepository.countByCreatedAtAfter(since);
 
         activities.add(RecentActivityDTO.builder()
                 .type("USER_REGISTRATION")
                 .icon("person")
                 .title("User Registration")
                 .timeLabel("Last " + (hours == 1 ? "hour" : hours + " hours"))
-                .count(recentUsers.size())
+                .count(recentUsers)
                 .timestamp(LocalDateTime.now())
                 .build());
 
@@ -218,56 +202,29 @@ public class AdminAnalyticsService {
     public UserStatsDTO getUserStats() {
         log.info("Fetching user statistics");
 
-        List<User> allUsers = userRepository.findAll();
+        AdminUserStatsSnapshot stats = userStatsSnapshotService.getSnapshot();
         LocalDateTime monthStart = LocalDateTime.now().withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
         LocalDateTime weekStart = LocalDateTime.now().minusDays(7);
 
-        
-        Map<String, Long> byRole = new HashMap<>();
-        allUsers.forEach(user -> {
-            if (user.getRoles() != null) {
-                user.getRoles().forEach(role -> {
-                    String roleName = role.replace("ROLE_", "");
-                    byRole.merge(roleName, 1L, Long::sum);
-                });
-            }
-        });
-
-        
-        long newThisMonth = allUsers.stream()
-                .filter(u -> u.getCreatedAt() != null && u.getCreatedAt().isAfter(monthStart))
-                .count();
-
-        long newThisWeek = allUsers.stream()
-                .filter(u -> u.getCreatedAt() != null && u.getCreatedAt().isAfter(weekStart))
-                .count();
-
-        
-        LocalDateTime lastMonthStart = monthStart.minusMonths(1);
-        long lastMonthUsers = allUsers.stream()
-                .filter(u -> u.getCreatedAt() != null &&
-                        u.getCreatedAt().isAfter(lastMonthStart) &&
-                        u.getCreatedAt().isBefore(monthStart))
-                .count();
+        long newThisMonth = stats.createdSince(monthStart);
+        long newThisWeek = stats.createdSince(weekStart);
+        long lastMonthUsers = stats.createdBetween(monthStart.minusMonths(1), monthStart);
 
         double growth = lastMonthUsers > 0
                 ? ((double) (newThisMonth - lastMonthUsers) / lastMonthUsers) * 100
                 : (newThisMonth > 0 ? 100 : 0);
 
-        
-        long activeUsers = allUsers.stream()
-                .filter(u -> u.getUpdatedAt() != null && u.getUpdatedAt().isAfter(weekStart))
-                .count();
+        long activeUsers = stats.activeSince(weekStart);
 
         return UserStatsDTO.builder()
-                .total(allUsers.size())
+                .total(stats.totalUsers())
                 .active(activeUsers)
-                .inactive(allUsers.size() - activeUsers)
+                .inactive(stats.totalUsers() - activeUsers)
                 .suspended(0) 
                 .newThisMonth(newThisMonth)
                 .newThisWeek(newThisWeek)
                 .growthPercentage(Math.round(growth * 10.0) / 10.0)
-                .byRole(byRole)
+                .byRole(new HashMap<>(stats.byRole()))
                 .build();
     }
 
@@ -300,18 +257,11 @@ public class AdminAnalyticsService {
         return new LocalDateTime[] { startDate, endDate };
     }
 
-    private double calculateActiveGrowth(List<User> allUsers, LocalDateTime startDate) {
+    private double calculateActiveGrowth(AdminUserStatsSnapshot stats, LocalDateTime startDate) {
         LocalDateTime previousStart = startDate.minusDays(7);
 
-        long currentActive = allUsers.stream()
-                .filter(u -> u.getUpdatedAt() != null && u.getUpdatedAt().isAfter(startDate))
-                .count();
-
-        long previousActive = allUsers.stream()
-                .filter(u -> u.getUpdatedAt() != null &&
-                        u.getUpdatedAt().isAfter(previousStart) &&
-                        u.getUpdatedAt().isBefore(startDate))
-                .count();
+        long currentActive = stats.activeSince(startDate);
+        long previousActive = stats.activeBetween(previousStart, startDate);
 
         if (previousActive > 0) {
             return Math.round(((double) (currentActive - previousActive) / previousActive) * 100 * 10.0) / 10.0;
@@ -388,7 +338,7 @@ public class AdminAnalyticsService {
     }
 
     private List<TopUserDTO> generateTopUsersFromDb(int limit) {
-        List<User> users = userRepository.findAll();
+        List<User> users = userRepository.findAll(PageRequest.of(0, Math.max(limit, 1))).getContent();
         List<TopUserDTO> topUsers = new ArrayList<>();
 
         int count = Math.min(limit, users.size());
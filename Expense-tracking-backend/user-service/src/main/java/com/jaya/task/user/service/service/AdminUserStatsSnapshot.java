@@ -0,0 +1,63 @@
+package com.jaya.task.user.service.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.NavigableMap;
+
+/**
+ * Immutable view of the user statistics published by {@link AdminUserStatsSnapshotService}.
+ * Sign-ups and last activity are kept as hourly histograms, so window counts are answered
+ * with a binary search at hour granularity (a window start is rounded down to its hour).
+ */
+public record AdminUserStatsSnapshot(long totalUsers, HourHistogram created, HourHistogram active,
+        Map<String, Long> byRole, LocalDateTime refreshedAt) {
+
+    static int hourOf(LocalDateTime time) {
+        return (int) Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 3600L);
+    }
+
+    public long createdSince(LocalDateTime from) {
+        return created.countFrom(hourOf(from));
+    }
+
+    public long createdBetween(LocalDateTime from, LocalDateTime to) {
+        return created.countFrom(hourOf(from)) - created.countFrom(hourOf(to));
+    }
+
+    public long activeSince(LocalDateTime from) {
+        return active.countFrom(hourOf(from));
+    }
+
+    public long activeBetween(LocalDateTime from, LocalDateTime to) {
+        return active.countFrom(hourOf(from)) - active.countFrom(hourOf(to));
+    }
+
+    /**
+     * Sorted hour buckets with suffix sums: {@code suffix[i]} is the number of users in
+     * buckets {@code hours[i..]}.
+     */
+    public record HourHistogram(int[] hours, long[] suffix) {
+
+        static HourHistogram of(NavigableMap<Integer, Long> buckets) {
+            int[] hours = new int[buckets.size()];
+            long[] suffix = new long[buckets.size() + 1];
+            int i = 0;
+            for (Map.Entry<Integer, Long> bucket : buckets.entrySet()) {
+                hours[i] = bucket.getKey();
+                suffix[i] = bucket.getValue();
+                i++;
+            }
+            for (int j = hours.length - 1; j >= 0; j--) {
+                suffix[j] += suffix[j + 1];
+            }
+            return new HourHistogram(hours, suffix);
+        }
+
+        long countFrom(int hour) {
+            int index = Arrays.binarySearch(hours, hour);
+            return suffix[index >= 0 ? index : -index - 1];
+        }
+    }
+}
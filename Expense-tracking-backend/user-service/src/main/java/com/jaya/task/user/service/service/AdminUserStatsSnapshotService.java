@@ -0,0 +1,261 @@
+package com.jaya.task.user.service.service;
+
+import com.jaya.task.user.service.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Keeps the admin user statistics in memory so admin pages never scan the users table.
+ *
+ * A full rebuild walks users by id once; after that each refresh reads only the rows whose
+ * {@code updated_at} moved since the previous run (idx_users_updated_at). To apply a change
+ * the previous sign-up hour, activity hour and role set of every user are kept in compact
+ * id-indexed arrays, so a changed row is moved between buckets instead of recounting.
+ * Deletes are not visible to that query, so {@link #userDeleted(Integer)} takes the user
+ * out of its buckets the same way once the delete commits. Rows removed outside this service
+ * are caught by the full rebuild every {@code admin.analytics.snapshot.full-rebuild-interval-ms}.
+ *
+ * Readers get the last published {@link AdminUserStatsSnapshot}; one older than
+ * {@code admin.analytics.snapshot.max-staleness-ms} is refreshed on the calling thread, and
+ * one behind applied deletes is republished from the aggregation state without a query.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AdminUserStatsSnapshotService {
+
+    private static final int NO_HOUR = Integer.MIN_VALUE;
+    private static final int REBUILD_PAGE_SIZE = 10_000;
+    // Re-read rows changed shortly before the last run in case their transactions committed late
+    private static final Duration CHANGE_OVERLAP = Duration.ofSeconds(30);
+
+    private final UserRepository userRepository;
+
+    @Value("${admin.analytics.snapshot.max-staleness-ms:120000}")
+    private long maxStalenessMs;
+
+    @Value("${admin.analytics.snapshot.full-rebuild-interval-ms:21600000}")
+    private long fullRebuildIntervalMs;
+
+    private volatile AdminUserStatsSnapshot snapshot;
+    private volatile boolean fullRebuildRequested = true;
+    // Set when deletes changed the state after the last publish
+    private volatile boolean republishRequested;
+
+    // Aggregation state, guarded by this
+    private int[] createdHourByUser = new int[0];
+    private int[] activeHourByUser = new int[0];
+    // Index + 1 into roleSets; 0 marks an id with no user
+    private int[] roleSetByUser = new int[0];
+    private final List<Set<String>> roleSets = new ArrayList<>();
+    private final Map<Set<String>, Integer> roleSetIndex = new HashMap<>();
+    private long[] usersByRoleSet = new long[0];
+    private final TreeMap<Integer, Long> createdByHour = new TreeMap<>();
+    private final TreeMap<Integer, Long> activeByHour = new TreeMap<>();
+    private long totalUsers;
+    private LocalDateTime lastRefreshStartedAt;
+    private LocalDateTime lastFullRebuildAt;
+
+    public AdminUserStatsSnapshot getSnapshot() {
+        AdminUserStatsSnapshot current = snapshot;
+        if (current == null || current.refreshedAt().plus(Duration.ofMillis(maxStalenessMs))
+                .isBefore(LocalDateTime.now())) {
+            refresh();
+            current = snapshot;
+        } else if (republishRequested) {
+            current = republish();
+        }
+        if (current == null) {
+            throw new IllegalStateException("User statistics are not available yet");
+        }
+        return current;
+    }
+
+    public void requestFullRebuild() {
+        fullRebuildRequested = true;
+    }
+
+    /**
+     * Remove a deleted user from the statistics once the surrounding transaction commits. The
+     * snapshot is republished on next read, so a bulk delete pays for one publish.
+     */
+    public void userDeleted(Integer userId) {
+        if (userId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(userId);
+                }
+            });
+        } else {
+            remove(userId);
+        }
+    }
+
+    private synchronized void remove(int id) {
+        if (id < 0 || id >= roleSetByUser.length || roleSetByUser[id] == 0) {
+            return;
+        }
+        move(createdByHour, createdHourByUser[id], -1);
+        move(activeByHour, activeHourByUser[id], -1);
+        usersByRoleSet[roleSetByUser[id] - 1]--;
+        roleSetByUser[id] = 0;
+        totalUsers--;
+        republishRequested = true;
+    }
+
+    private synchronized AdminUserStatsSnapshot republish() {
+        // After a failed rebuild the state is partial; keep the old snapshot until the next refresh
+        if (republishRequested && snapshot != null && !fullRebuildRequested) {
+            republishRequested = false;
+            // Keeps refreshedAt, as the staleness clock covers changes only a query can see
+            snapshot = publish(snapshot.refreshedAt());
+        }
+        return snapshot;
+    }
+
+    @Scheduled(fixedDelayString = "${admin.analytics.snapshot.refresh-interval-ms:30000}")
+    public synchronized void refresh() {
+        long start = System.currentTimeMillis();
+        LocalDateTime startedAt = LocalDateTime.now();
+        boolean full = fullRebuildRequested || lastFullRebuildAt == null
+                || lastFullRebuildAt.plus(Duration.ofMillis(fullRebuildIntervalMs)).isBefore(startedAt);
+        if (full) {
+            fullRebuildRequested = false;
+        }
+        try {
+            int rows = full ? rebuild() : applyChangesSince(lastRefreshStartedAt.minus(CHANGE_OVERLAP));
+            if (full) {
+                lastFullRebuildAt = startedAt;
+            }
+            lastRefreshStartedAt = startedAt;
+            republishRequested = false;
+            snapshot = publish(startedAt);
+            log.debug("Refreshed admin user stats ({}, {} rows) in {} ms", full ? "full" : "incremental", rows,
+                    System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            // Keep serving the previous snapshot; the next run retries, from scratch if state is partial
+            if (full) {
+                fullRebuildRequested = true;
+            }
+            log.error("Failed to refresh admin user stats: {}", e.getMessage(), e);
+        }
+    }
+
+    private int rebuild() {
+        createdHourByUser = new int[0];
+        activeHourByUser = new int[0];
+        roleSetByUser = new int[0];
+        Arrays.fill(usersByRoleSet, 0);
+        createdByHour.clear();
+        activeByHour.clear();
+        totalUsers = 0;
+
+        int rows = 0;
+        Integer lastId = 0;
+        List<Object[]> page;
+        do {
+            page = userRepository.findStatsRowsAfterId(lastId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+            for (Object[] row : page) {
+                apply(row);
+            }
+            rows += page.size();
+            if (!page.isEmpty()) {
+                lastId = (Integer) page.get(page.size() - 1)[0];
+            }
+        } while (page.size() == REBUILD_PAGE_SIZE);
+        return rows;
+    }
+
+    private int applyChangesSince(LocalDateTime since) {
+        List<Object[]> changed = userRepository.findStatsRowsUpdatedSince(since);
+        changed.forEach(this::apply);
+        return changed.size();
+    }
+
+    /**
+     * Apply one {@code [id, createdAt, updatedAt, roles]} row, replacing the user's previous state.
+     */
+    @SuppressWarnings("unchecked")
+    private void apply(Object[] row) {
+        int id = (Integer) row[0];
+        int createdHour = row[1] != null ? AdminUserStatsSnapshot.hourOf((LocalDateTime) row[1]) : NO_HOUR;
+        int activeHour = row[2] != null ? AdminUserStatsSnapshot.hourOf((LocalDateTime) row[2]) : NO_HOUR;
+        int roleSet = roleSetIdOf(row[3] != null ? (Set<String>) row[3] : Set.of());
+
+        ensureCapacity(id);
+        if (roleSetByUser[id] != 0) {
+            move(createdByHour, createdHourByUser[id], -1);
+            move(activeByHour, activeHourByUser[id], -1);
+            usersByRoleSet[roleSetByUser[id] - 1]--;
+        } else {
+            totalUsers++;
+        }
+        createdHourByUser[id] = createdHour;
+        activeHourByUser[id] = activeHour;
+        roleSetByUser[id] = roleSet + 1;
+        move(createdByHour, createdHour, 1);
+        move(activeByHour, activeHour, 1);
+        usersByRoleSet[roleSet]++;
+    }
+
+    private static void move(TreeMap<Integer, Long> histogram, int hour, long delta) {
+        if (hour != NO_HOUR) {
+            histogram.merge(hour, delta, (a, b) -> a + b == 0 ? null : a + b);
+        }
+    }
+
+    private int roleSetIdOf(Set<String> roles) {
+        Integer existing = roleSetIndex.get(roles);
+        if (existing != null) {
+            return existing;
+        }
+        Set<String> key = Set.copyOf(roles);
+        int id = roleSets.size();
+        roleSets.add(key);
+        roleSetIndex.put(key, id);
+        if (usersByRoleSet.length <= id) {
+            usersByRoleSet = Arrays.copyOf(usersByRoleSet, Math.max(8, id * 2));
+        }
+        return id;
+    }
+
+    private void ensureCapacity(int id) {
+        if (id < roleSetByUser.length) {
+            return;
+        }
+        int capacity = Math.max(id + 1, roleSetByUser.length + (roleSetByUser.length >> 1));
+        createdHourByUser = Arrays.copyOf(createdHourByUser, capacity);
+        activeHourByUser = Arrays.copyOf(activeHourByUser, capacity);
+        roleSetByUser = Arrays.copyOf(roleSetByUser, capacity);
+    }
+
+    private AdminUserStatsSnapshot publish(LocalDateTime refreshedAt) {
+        Map<String, Long> byRole = new HashMap<>();
+        for (int i = 0; i < roleSets.size(); i++) {
+            long users = usersByRoleSet[i];
+            if (users > 0) {
+                for (String role : roleSets.get(i)) {
+                    byRole.merge(role.replace("ROLE_", ""), users, Long::sum);
+                }
+            }
+        }
+        return new AdminUserStatsSnapshot(totalUsers,
+                AdminUserStatsSnapshot.HourHistogram.of(createdByHour),
+                AdminUserStatsSnapshot.HourHistogram.of(activeByHour),
+                Collections.unmodifiableMap(byRole), refreshedAt);
+    }
+}
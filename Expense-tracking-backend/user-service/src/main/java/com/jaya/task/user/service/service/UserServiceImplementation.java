@@ -33,6 +33,9 @@ public class UserServiceImplementation implements UserService {
     @Autowired
     PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private AdminUserStatsSnapshotService userStatsSnapshotService;
+
     @jakarta.persistence.PersistenceContext
     private jakarta.persistence.EntityManager entityManager;
 
@@ -158,6 +161,7 @@ public class UserServiceImplementation implements UserService {
             throw new UsernameNotFoundException("User is not present");
         }
         userRepository.deleteById(userId);
+        userStatsSnapshotService.userDeleted(userId);
     }
 
     @Override
@@ -0,0 +1,158 @@
+package com.jaya.task.user.service.service;
+
+import com.jaya.task.user.service.dto.UserStatsDTO;
+import com.jaya.task.user.service.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The snapshot over 1M users, the repository mocked to page through generated rows: deletes taken
+ * out of the buckets without another scan, and the admin user-stats latency. The target is under
+ * 20 ms per request at 1M users; the test asserts the average of warm reads, and of a delete
+ * followed by a read, against it and logs the one-off rebuild time.
+ */
+class AdminUserStatsSnapshotServiceTest {
+
+    private static final Logger log = LoggerFactory.getLogger(AdminUserStatsSnapshotServiceTest.class);
+
+    private static final int USERS = 1_000_000;
+    private static final int REBUILD_PAGES = USERS / 10_000 + 1;
+    private static final long MAX_AVERAGE_NANOS = 20_000_000;
+    private static final Set<String> USER = Set.of("ROLE_USER");
+    private static final Set<String> ADMIN = Set.of("ROLE_USER", "ROLE_ADMIN");
+    private static final LocalDateTime NOW = LocalDateTime.now();
+
+    private UserRepository userRepository;
+    private AdminUserStatsSnapshotService snapshotService;
+    private AdminAnalyticsService analyticsService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        // [id, createdAt, updatedAt, roles] for ids after afterId, generated a page at a time
+        when(userRepository.findStatsRowsAfterId(anyInt(), any(Pageable.class))).thenAnswer(invocation -> {
+            int afterId = invocation.getArgument(0);
+            Pageable page = invocation.getArgument(1);
+            List<Object[]> rows = new ArrayList<>(page.getPageSize());
+            for (int id = afterId + 1; id <= Math.min(USERS, afterId + page.getPageSize()); id++) {
+                rows.add(new Object[] { id, createdAt(id), updatedAt(id), id % 100 == 0 ? ADMIN : USER });
+            }
+            return rows;
+        });
+        snapshotService = new AdminUserStatsSnapshotService(userRepository);
+        ReflectionTestUtils.setField(snapshotService, "maxStalenessMs", 120_000L);
+        ReflectionTestUtils.setField(snapshotService, "fullRebuildIntervalMs", 21_600_000L);
+        analyticsService = new AdminAnalyticsService(userRepository, snapshotService, mock(RestTemplate.class));
+    }
+
+    @Test
+    void deleteIsAppliedWithoutAnotherScan() {
+        long start = System.nanoTime();
+        AdminUserStatsSnapshot before = snapshotService.getSnapshot();
+        log.info("Built the user stats snapshot over {} users in {} ms", USERS,
+                (System.nanoTime() - start) / 1_000_000);
+        assertEquals(USERS, before.totalUsers());
+        assertEquals(USERS / 100, before.byRole().get("ADMIN"));
+
+        // The newest user, an admin who signed up and was active just now
+        int deleted = USERS;
+        snapshotService.userDeleted(deleted);
+        snapshotService.userDeleted(deleted);
+        snapshotService.userDeleted(USERS + 1);
+        AdminUserStatsSnapshot after = snapshotService.getSnapshot();
+
+        assertEquals(USERS - 1, after.totalUsers());
+        assertEquals(USERS - 1, after.byRole().get("USER"));
+        assertEquals(USERS / 100 - 1, after.byRole().get("ADMIN"));
+        LocalDateTime weekStart = NOW.minusDays(7);
+        assertEquals(before.createdSince(weekStart) - 1, after.createdSince(weekStart));
+        assertEquals(before.activeSince(weekStart) - 1, after.activeSince(weekStart));
+        assertEquals(before.refreshedAt(), after.refreshedAt());
+        verify(userRepository, times(REBUILD_PAGES)).findStatsRowsAfterId(anyInt(), any(Pageable.class));
+        verify(userRepository, never()).findStatsRowsUpdatedSince(any());
+    }
+
+    @Test
+    void deleteReachesSnapshotOnlyAfterCommit() {
+        snapshotService.getSnapshot();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            snapshotService.userDeleted(1);
+            assertEquals(USERS, snapshotService.getSnapshot().totalUsers());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(USERS - 1, snapshotService.getSnapshot().totalUsers());
+    }
+
+    @Test
+    void userStatsAtOneMillionUsersUnderTwentyMilliseconds() {
+        analyticsService.getUserStats();
+        for (int i = 0; i < 200; i++) {
+            analyticsService.getUserStats();
+        }
+
+        int runs = 200;
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            analyticsService.getUserStats();
+        }
+        long readNanos = (System.nanoTime() - start) / runs;
+
+        // Each delete forces the next read to republish from the aggregation state
+        int deletes = 200;
+        long slowest = 0;
+        start = System.nanoTime();
+        for (int i = 1; i <= deletes; i++) {
+            long deleteStart = System.nanoTime();
+            snapshotService.userDeleted(i * 37);
+            analyticsService.getUserStats();
+            slowest = Math.max(slowest, System.nanoTime() - deleteStart);
+        }
+        long deleteNanos = (System.nanoTime() - start) / deletes;
+        UserStatsDTO stats = analyticsService.getUserStats();
+        log.info("User stats over {} users: read {} us on average; delete then read {} us on average, slowest {} us",
+                USERS, readNanos / 1000, deleteNanos / 1000, slowest / 1000);
+
+        assertEquals(USERS - deletes, stats.getTotal());
+        assertTrue(readNanos < MAX_AVERAGE_NANOS, "user stats took " + readNanos + " ns on average");
+        assertTrue(deleteNanos < MAX_AVERAGE_NANOS, "delete then read took " + deleteNanos + " ns on average");
+        verify(userRepository, times(REBUILD_PAGES)).findStatsRowsAfterId(anyInt(), any(Pageable.class));
+    }
+
+    // Sign-ups spread over about three years, newest ids most recent
+    private static LocalDateTime createdAt(int id) {
+        return NOW.minusMinutes((USERS - id) * 3L / 2);
+    }
+
+    // Last activity within 90 days of now, never before sign-up
+    private static LocalDateTime updatedAt(int id) {
+        LocalDateTime active = NOW.minusMinutes(id * 7919L % (90 * 24 * 60));
+        return active.isBefore(createdAt(id)) ? createdAt(id) : active;
+    }
+}
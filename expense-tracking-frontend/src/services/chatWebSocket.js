@@ -95,17 +95,32 @@ class ChatWebSocketService {
     });
   }
 
+  // Presence and typing arrive as coalesced diff frames: { changes: [...] }
+  forEachChange(data, callback) {
+    if (Array.isArray(data?.changes)) {
+      data.changes.forEach(callback);
+    } else {
+      callback(data);
+    }
+  }
+
   subscribeToTypingIndicators() {
     const destination = `/user/queue/typing`;
     this.subscribe("typing", destination, (data) => {
-      Object.values(this.typingHandlers).forEach((handler) => handler(data));
+      this.forEachChange(data, (change) =>
+        Object.values(this.typingHandlers).forEach((handler) => handler(change)),
+      );
     });
   }
 
   subscribeToPresence() {
     const destination = `/topic/presence`;
     this.subscribe("presence", destination, (data) => {
-      Object.values(this.presenceHandlers).forEach((handler) => handler(data));
+      this.forEachChange(data, (change) =>
+        Object.values(this.presenceHandlers).forEach((handler) =>
+          handler(change),
+        ),
+      );
     });
   }
 
@@ -135,7 +150,9 @@ class ChatWebSocketService {
   subscribeToGroupTyping(groupId, callback) {
     const destination = `/topic/group/${groupId}/typing`;
     const subscriptionKey = `groupTyping_${groupId}`;
-    this.subscribe(subscriptionKey, destination, callback);
+    this.subscribe(subscriptionKey, destination, (data) =>
+      this.forEachChange(data, callback),
+    );
     return () => this.unsubscribe(subscriptionKey);
   }
 